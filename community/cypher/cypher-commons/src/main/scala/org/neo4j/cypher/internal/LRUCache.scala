@@ -19,12 +19,17 @@
  */
 package org.neo4j.cypher.internal
 
-import com.googlecode.concurrentlinkedhashmap.ConcurrentLinkedHashMap
+import com.googlecode.concurrentlinkedhashmap.{EvictionListener, ConcurrentLinkedHashMap}
 
-class LRUCache[K, V](cacheSize: Int) {
+class LRUCache[K, V](cacheSize: Int, evicted: (K, V) => Unit = (_: K, _: V) => ()) {
 
   val inner = new ConcurrentLinkedHashMap.Builder[K, V]
     .maximumWeightedCapacity(cacheSize)
+    .listener(new EvictionListener[K, V] {
+      def onEviction(key: K, value: V) {
+        evicted(key, value)
+      }
+    })
     .build()
 
   def getOrElseUpdate(key: K, f: => V): V = {
@@ -25,12 +25,16 @@ import org.neo4j.graphdb.ConstraintViolationException
 import org.neo4j.graphdb.TransactionFailureException
 import scala.collection
 import org.neo4j.cypher.internal.compiler.v2_0.spi.QueryContext
+import org.neo4j.cypher.internal.compiler.v2_0.pipes.spill.SpillFiles
 
 /**
  * An iterator that decorates an inner iterator, and calls close() on the QueryContext once
- * the inner iterator is empty.
+ * the inner iterator is empty. Spill files the query has not read back yet are deleted then too,
+ * and onSuccess is called once the query context has been closed successfully.
  */
-class ClosingIterator(inner: Iterator[collection.Map[String, Any]], queryContext: QueryContext) extends Iterator[Map[String, Any]] {
+class ClosingIterator(inner: Iterator[collection.Map[String, Any]], queryContext: QueryContext,
+                      spillFiles: SpillFiles = new SpillFiles, onSuccess: () => Unit = () => ())
+  extends Iterator[Map[String, Any]] {
   private var closed: Boolean = false
   lazy val still_has_relationships = "Node record Node\\[(\\d),.*] still has relationships".r
 
@@ -62,7 +66,12 @@ class ClosingIterator(inner: Iterator[collection.Map[String, Any]], queryContext
     translateException {
       if (!closed) {
         closed = true
-        queryContext.close(success = true)
+        try {
+          spillFiles.deleteAll()
+        } finally {
+          queryContext.close(success = true)
+        }
+        onSuccess()
       }
     }
   }
@@ -91,6 +100,7 @@ class ClosingIterator(inner: Iterator[collection.Map[String, Any]], queryContext
     f
   } catch {
     case t: Throwable if !closed =>
+      spillFiles.deleteAll()
       queryContext.close(success = false)
       throw t
   }
@@ -24,14 +24,41 @@ import org.neo4j.cypher.internal.compiler.v2_0.executionplan.verifiers.HintVerif
 import org.neo4j.cypher.SyntaxException
 import org.neo4j.cypher.internal.compiler.v2_0.spi.PlanContext
 import org.neo4j.cypher.internal.compiler.v2_0.executionplan.{ExecutionPlanBuilder, ExecutionPlan}
-import org.neo4j.cypher.internal.compiler.v2_0.commands.AbstractQuery
+import org.neo4j.cypher.internal.compiler.v2_0.commands.{ExpressionCompiler, AbstractQuery}
+import org.neo4j.cypher.internal.compiler.v2_0.pipes.spill.SpillSettings
+import org.neo4j.cypher.internal.compiler.v2_0.profiler.ProfileSampleLog
 import org.neo4j.graphdb.GraphDatabaseService
+import org.neo4j.graphdb.config.Setting
+import org.neo4j.graphdb.factory.GraphDatabaseSettings
+import org.neo4j.kernel.InternalAbstractGraphDatabase
+import org.neo4j.kernel.logging.Logging
+import java.io.File
 
 
 case class CypherCompiler(graph: GraphDatabaseService, queryCache: (String, => Object) => Object) {
   val parser = CypherParser()
   val verifiers = Seq(HintVerifier)
 
+  private val database = graph match {
+    case db: InternalAbstractGraphDatabase => Some(db)
+    case _                                 => None
+  }
+
+  // the value of a setting, or the given default when not running on a database that has a configuration
+  private def setting[T](setting: Setting[T])(default: => T): T =
+    database.map(_.getConfig.get(setting)).getOrElse(default)
+
+  val expressionCompiler =
+    ExpressionCompiler(setting(GraphDatabaseSettings.cypher_compiled_expressions)(false).booleanValue())
+  val spillSettings = database.map(db => SpillSettings(
+    setting(GraphDatabaseSettings.cypher_spill_row_threshold)(0).intValue(), new File(db.getStoreDir, "cypher-spill"))
+  ).getOrElse(SpillSettings.disabled)
+  val parallelism = setting(GraphDatabaseSettings.cypher_parallel_workers)(1).intValue()
+  val profileSampleInterval = setting(GraphDatabaseSettings.cypher_profile_sample_interval)(0).intValue()
+  val profileSamples = database.map(db => new ProfileSampleLog(
+    db.getDependencyResolver.resolveDependency(classOf[Logging]).getMessagesLog(classOf[ProfileSampleLog]))
+  ).getOrElse(ProfileSampleLog.disabled)
+
   @throws(classOf[SyntaxException])
   def prepare(query: String, context: PlanContext): ExecutionPlan = {
     val cachedQuery = queryCache(query, {
@@ -41,7 +68,8 @@ case class CypherCompiler(graph: GraphDatabaseService, queryCache: (String, => O
       parsedQuery
     }).asInstanceOf[AbstractQuery]
 
-    val planBuilder = new ExecutionPlanBuilder(graph)
+    val planBuilder = new ExecutionPlanBuilder(graph, expressionCompiler, spillSettings, parallelism,
+      profileSampleInterval, profileSamples)
     planBuilder.build(context, cachedQuery)
   }
 
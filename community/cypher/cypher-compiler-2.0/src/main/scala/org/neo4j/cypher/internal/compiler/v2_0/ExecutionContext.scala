@@ -64,10 +64,10 @@ case class ExecutionContext(m: MutableMap[String, Any] = MutableMaps.empty,
     createWithNewMap(MutableMaps.create(this.m) ++= newEntries)
 
   def newFrom(newEntries: Seq[(String, Any)]) =
-    createWithNewMap(MutableMaps.create(newEntries: _*))
+    createWithNewMap(MutableMaps.emptyLike(this.m) ++= newEntries)
 
   def newFrom(newEntries: scala.collection.Map[String, Any]) =
-    createWithNewMap(MutableMaps.create(newEntries))
+    createWithNewMap(MutableMaps.emptyLike(this.m) ++= newEntries)
 
   def newWith(newEntry: (String, Any)) =
     createWithNewMap(MutableMaps.create(this.m) += newEntry)
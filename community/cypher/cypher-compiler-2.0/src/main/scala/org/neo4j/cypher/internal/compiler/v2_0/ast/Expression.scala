@@ -24,6 +24,7 @@ import org.neo4j.cypher.internal.compiler.v2_0.commands.{expressions => commande
 import commands.expressions.{Expression => CommandExpression}
 import commands.values.TokenType.PropertyKey
 import symbols._
+import parser.LiteralExtractor
 import org.neo4j.helpers.ThisShouldNotHappenError
 
 object Expression {
@@ -119,7 +120,8 @@ case class Identifier(name: String, token: InputToken) extends Expression {
 }
 
 case class Parameter(name: String, token: InputToken) extends Expression with SimpleTypedExpression {
-  protected def possibleTypes = Set(BooleanType(), MapType(), NumberType(), StringType(), CollectionType(AnyType()))
+  protected def possibleTypes = LiteralExtractor.typeOfParameter(name).fold(
+    TypeSet(BooleanType(), MapType(), NumberType(), StringType(), CollectionType(AnyType())))(TypeSet(_))
 
   def toCommand = commandexpressions.ParameterExpression(name)
 }
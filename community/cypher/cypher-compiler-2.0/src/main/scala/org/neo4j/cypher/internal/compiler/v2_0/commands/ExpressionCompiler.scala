@@ -0,0 +1,254 @@
+/**
+ * Copyright (c) 2002-2013 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.compiler.v2_0.commands
+
+import org.neo4j.cypher.internal.compiler.v2_0._
+import commands.expressions.{Property, Literal, Expression}
+import commands.values.KeyToken
+import pipes.QueryState
+import spi.{Operations, TokenContext}
+import org.neo4j.cypher.EntityNotFoundException
+import org.neo4j.cypher.internal.helpers.{CastSupport, IsCollection}
+import org.neo4j.graphdb.{NotFoundException, PropertyContainer, Relationship, Node}
+
+/*
+An expression prepared for evaluation once per row. Compiled expressions give the same results as the
+expressions they were compiled from.
+ */
+abstract class CompiledExpression {
+  def apply(ctx: ExecutionContext, state: QueryState): Any
+}
+
+/*
+A compiled predicate answers with one of CompiledPredicate.IsTrue, IsFalse or IsUnknown instead of an
+Option[Boolean], so that evaluating it does not allocate.
+ */
+abstract class CompiledPredicate extends CompiledExpression {
+  import CompiledPredicate._
+
+  def isMatch(ctx: ExecutionContext, state: QueryState): Int
+
+  def isTrue(ctx: ExecutionContext, state: QueryState): Boolean = isMatch(ctx, state) == IsTrue
+
+  def apply(ctx: ExecutionContext, state: QueryState): Any = isMatch(ctx, state) match {
+    case IsTrue  => true
+    case IsFalse => false
+    case _       => null
+  }
+}
+
+object CompiledPredicate {
+  final val IsTrue = 1
+  final val IsFalse = 0
+  final val IsUnknown = -1
+
+  def apply(result: Option[Boolean]): Int = result match {
+    case Some(true)  => IsTrue
+    case Some(false) => IsFalse
+    case None        => IsUnknown
+  }
+
+  def apply(result: Boolean): Int = if (result) IsTrue else IsFalse
+}
+
+trait ExpressionCompiler {
+  def compile(expression: Expression): CompiledExpression
+
+  def compile(predicate: Predicate): CompiledPredicate
+}
+
+object ExpressionCompiler {
+  def apply(compileExpressions: Boolean): ExpressionCompiler =
+    if (compileExpressions) CompilingExpressionCompiler else InterpretingExpressionCompiler
+}
+
+/*
+Wraps expressions as they are, so that they are interpreted just as if they had not been compiled at all
+ */
+object InterpretingExpressionCompiler extends ExpressionCompiler {
+  def compile(expression: Expression): CompiledExpression = expression match {
+    case predicate: Predicate => compile(predicate)
+    case _                    => new InterpretedExpression(expression)
+  }
+
+  def compile(predicate: Predicate): CompiledPredicate = new InterpretedPredicate(predicate)
+}
+
+/*
+Turns the expression tree into a tree of nested evaluators, one per node of the expression. No code is generated:
+every row still costs a virtual call per node, just like the interpreter. What the evaluators save is the work
+around those calls. Boolean connectives short-circuit and use three valued logic without allocating, comparisons
+skip the Option wrapping, and property and label lookups remember the token ids they resolve instead of looking
+them up by name for every row. Anything it does not know how to compile is left to the interpreter, which keeps
+unsupported expressions working unchanged.
+ */
+object CompilingExpressionCompiler extends ExpressionCompiler {
+  import CompiledPredicate.{IsTrue, IsFalse, IsUnknown}
+
+  def compile(expression: Expression): CompiledExpression = expression match {
+    case predicate: Predicate        => compile(predicate)
+    case Literal(value)              => new CompiledExpression {
+      def apply(ctx: ExecutionContext, state: QueryState) = value
+    }
+    case property@Property(map, key) => new CompiledProperty(compile(map), key, property)
+    case _                           => new InterpretedExpression(expression)
+  }
+
+  def compile(predicate: Predicate): CompiledPredicate = predicate match {
+    case True()                     => new CompiledPredicate {
+      def isMatch(ctx: ExecutionContext, state: QueryState) = IsTrue
+    }
+    case and: And                   => compileAnd(compile(and.a), compile(and.b))
+    case Or(a, b)                   => compileOr(compile(a), compile(b))
+    case Not(a)                     => compileNot(compile(a))
+    case Equals(a, b)               => compileEquals(compile(a), compile(b))
+    case p@LessThan(a, b)           => new CompiledComparison(p, compile(a), compile(b))
+    case p@LessThanOrEqual(a, b)    => new CompiledComparison(p, compile(a), compile(b))
+    case p@GreaterThan(a, b)        => new CompiledComparison(p, compile(a), compile(b))
+    case p@GreaterThanOrEqual(a, b) => new CompiledComparison(p, compile(a), compile(b))
+    case HasLabel(entity, label)    => new CompiledHasLabel(compile(entity), label)
+    case _                          => new InterpretedPredicate(predicate)
+  }
+
+  private def compileAnd(a: CompiledPredicate, b: CompiledPredicate) = new CompiledPredicate {
+    def isMatch(ctx: ExecutionContext, state: QueryState): Int = {
+      val left = a.isMatch(ctx, state)
+      if (left == IsFalse)
+        return IsFalse
+
+      val right = b.isMatch(ctx, state)
+      if (right == IsFalse) IsFalse
+      else if (left == IsUnknown || right == IsUnknown) IsUnknown
+      else IsTrue
+    }
+  }
+
+  private def compileOr(a: CompiledPredicate, b: CompiledPredicate) = new CompiledPredicate {
+    def isMatch(ctx: ExecutionContext, state: QueryState): Int = {
+      val left = a.isMatch(ctx, state)
+      if (left == IsTrue)
+        return IsTrue
+
+      val right = b.isMatch(ctx, state)
+      if (right == IsTrue) IsTrue
+      else if (left == IsUnknown || right == IsUnknown) IsUnknown
+      else IsFalse
+    }
+  }
+
+  private def compileNot(a: CompiledPredicate) = new CompiledPredicate {
+    def isMatch(ctx: ExecutionContext, state: QueryState): Int = a.isMatch(ctx, state) match {
+      case IsTrue  => IsFalse
+      case IsFalse => IsTrue
+      case _       => IsUnknown
+    }
+  }
+
+  private def compileEquals(a: CompiledExpression, b: CompiledExpression) = new CompiledPredicate {
+    def isMatch(ctx: ExecutionContext, state: QueryState): Int = {
+      val left = a(ctx, state)
+      val right = b(ctx, state)
+
+      if (left == null || right == null)
+        IsUnknown
+      else left match {
+        case IsCollection(l) => right match {
+          case IsCollection(r) => CompiledPredicate(l == r)
+          case _               => CompiledPredicate(left == right)
+        }
+        case _               => CompiledPredicate(left == right)
+      }
+    }
+  }
+
+  private class CompiledComparison(comparison: ComparablePredicate, a: CompiledExpression, b: CompiledExpression)
+    extends CompiledPredicate {
+    def isMatch(ctx: ExecutionContext, state: QueryState): Int = {
+      val left = a(ctx, state)
+      val right = b(ctx, state)
+
+      if (left == null || right == null)
+        IsUnknown
+      else
+        CompiledPredicate(comparison.compare(comparison.compare(left, right)(state)))
+    }
+  }
+
+  private class CompiledHasLabel(entity: CompiledExpression, label: KeyToken) extends CompiledPredicate {
+    private val labelId = new CachedTokenId(label)
+
+    def isMatch(ctx: ExecutionContext, state: QueryState): Int = entity(ctx, state) match {
+      case null  => IsUnknown
+      case value =>
+        val node = CastSupport.castOrFail[Node](value)
+        val id = labelId(state.query)
+        if (id < 0) IsFalse
+        else CompiledPredicate(state.query.isLabelSetOnNode(id, node.getId))
+    }
+  }
+
+  private class CompiledProperty(map: CompiledExpression, key: KeyToken, interpreted: Property)
+    extends CompiledExpression {
+    private val propertyKeyId = new CachedTokenId(key)
+
+    def apply(ctx: ExecutionContext, state: QueryState): Any = map(ctx, state) match {
+      case null            => null
+      case n: Node         => property(state.query.nodeOps, n.getId, state)
+      case r: Relationship => property(state.query.relationshipOps, r.getId, state)
+      case _               => interpreted(ctx)(state)
+    }
+
+    private def property[T <: PropertyContainer](ops: Operations[T], id: Long, state: QueryState): Any = {
+      val keyId = propertyKeyId(state.query)
+      if (keyId < 0)
+        null
+      else try {
+        ops.getProperty(id, keyId)
+      } catch {
+        case _: EntityNotFoundException => null
+        case _: NotFoundException       => null
+      }
+    }
+  }
+
+  /*
+  Token ids never change once they exist, so the first successful lookup is kept for all later rows
+   */
+  private class CachedTokenId(token: KeyToken) {
+    @volatile private var id: Int = token match {
+      case KeyToken.Resolved(_, resolvedId, _) => resolvedId
+      case _                                   => -1
+    }
+
+    def apply(tokens: TokenContext): Int = {
+      if (id < 0)
+        id = token.getOptId(tokens).getOrElse(-1)
+      id
+    }
+  }
+}
+
+class InterpretedExpression(expression: Expression) extends CompiledExpression {
+  def apply(ctx: ExecutionContext, state: QueryState): Any = expression(ctx)(state)
+}
+
+class InterpretedPredicate(predicate: Predicate) extends CompiledPredicate {
+  def isMatch(ctx: ExecutionContext, state: QueryState): Int = CompiledPredicate(predicate.isMatch(ctx)(state))
+}
@@ -0,0 +1,58 @@
+/**
+ * Copyright (c) 2002-2013 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.compiler.v2_0.commands
+
+import org.neo4j.cypher.internal.compiler.v2_0._
+import expressions.Expression
+import pipes.QueryState
+import symbols._
+import org.neo4j.cypher.InternalException
+
+case class RangeBound(expression: Expression, inclusive: Boolean) {
+  def rewrite(f: Expression => Expression) = copy(expression = expression.rewrite(f))
+}
+
+/*
+Stands in for the value of a SchemaIndex start item when the index is used to seek a range of values, rather than
+to look up a single one. The seek is made by the entity producer, which evaluates the bounds.
+ */
+sealed abstract class IndexSeekRange extends Expression {
+  def apply(ctx: ExecutionContext)(implicit state: QueryState): Any =
+    throw new InternalException("An index seek range can not be evaluated on its own")
+
+  def symbolTableDependencies = arguments.flatMap(_.symbolTableDependencies).toSet
+
+  protected def calculateType(symbols: SymbolTable) = {
+    arguments.foreach(_.evaluateType(AnyType(), symbols))
+    AnyType()
+  }
+}
+
+case class RangeSeek(lower: Option[RangeBound], upper: Option[RangeBound]) extends IndexSeekRange {
+  def arguments = lower.map(_.expression).toSeq ++ upper.map(_.expression)
+
+  def rewrite(f: Expression => Expression) = f(RangeSeek(lower.map(_.rewrite(f)), upper.map(_.rewrite(f))))
+}
+
+case class PrefixSeek(prefix: Expression) extends IndexSeekRange {
+  def arguments = Seq(prefix)
+
+  def rewrite(f: Expression => Expression) = f(PrefixSeek(prefix.rewrite(f)))
+}
@@ -0,0 +1,53 @@
+/**
+ * Copyright (c) 2002-2013 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.compiler.v2_0.commands.expressions
+
+import org.neo4j.cypher.internal.compiler.v2_0._
+import pipes.QueryState
+import symbols._
+import org.neo4j.cypher.CypherTypeException
+import org.neo4j.graphdb.{Direction, Node}
+
+/**
+ * Counts the relationships of a node matching the given types and direction, without loading them.
+ * This is what length((n)-[:T]->()) is rewritten to.
+ */
+case class DegreeFunction(nodeExpr: Expression, types: Seq[String], direction: Direction) extends Expression {
+
+  override def apply(ctx: ExecutionContext)(implicit state: QueryState): Any = nodeExpr(ctx) match {
+    case n: Node =>
+      state.query.getDegree(n, direction, types).toLong
+    case null =>
+      null
+    case _ =>
+      throw new CypherTypeException("Expected a Node but was called with something else")
+  }
+
+  def rewrite(f: (Expression) => Expression) = f(DegreeFunction(nodeExpr.rewrite(f), types, direction))
+
+  def arguments = Seq(nodeExpr)
+
+  def symbolTableDependencies = nodeExpr.symbolTableDependencies
+
+  protected def calculateType(symbols: SymbolTable) = {
+    nodeExpr.evaluateType(NodeType(), symbols)
+    LongType()
+  }
+}
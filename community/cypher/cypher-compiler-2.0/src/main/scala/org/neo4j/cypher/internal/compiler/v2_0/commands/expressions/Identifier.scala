@@ -20,7 +20,7 @@
 package org.neo4j.cypher.internal.compiler.v2_0.commands.expressions
 
 import org.neo4j.cypher.internal.compiler.v2_0._
-import pipes.QueryState
+import pipes.{Slot, SlotLayout, QueryState}
 import symbols._
 import org.neo4j.graphdb.NotFoundException
 import org.neo4j.helpers.ThisShouldNotHappenError
@@ -32,8 +32,15 @@ object Identifier {
 }
 
 case class Identifier(entityName: String) extends Expression with Typed {
+  @volatile private var slot = new Slot(entityName)
+
   def apply(ctx: ExecutionContext)(implicit state: QueryState): Any =
-    ctx.getOrElse(entityName, throw new NotFoundException("Unknown identifier `%s`.".format(entityName)))
+    slot.get(ctx).getOrElse(throw new NotFoundException("Unknown identifier `%s`.".format(entityName)))
+
+  // Called when the plan is built, cf. SlotLayout.bind
+  def bind(layout: SlotLayout) {
+    slot = layout.slot(entityName)
+  }
 
   override def toString: String = entityName
 
@@ -26,15 +26,24 @@ import commands.values.{TokenType, KeyToken}
 import org.neo4j.cypher.internal.compiler.v2_0.executionplan.builders.prepare.{AggregationPreparationRewriter, KeyTokenResolver}
 import pipes._
 import pipes.optional.NullInsertingPipe
-import profiler.Profiler
+import pipes.spill.{SpillFiles, SpillSettings}
+import profiler.{ProfileSampleLog, Profiler}
 import symbols.SymbolTable
+import java.util.concurrent.atomic.AtomicLong
 import org.neo4j.cypher.{SyntaxException, ExecutionResult}
 import org.neo4j.graphdb.GraphDatabaseService
 import org.neo4j.cypher.internal.compiler.v2_0.spi.{QueryContext, PlanContext}
 
-class ExecutionPlanBuilder(graph: GraphDatabaseService) extends PatternGraphBuilder {
+class ExecutionPlanBuilder(graph: GraphDatabaseService,
+                           expressionCompiler: ExpressionCompiler = InterpretingExpressionCompiler,
+                           spill: SpillSettings = SpillSettings.disabled,
+                           parallelism: Int = 1,
+                           profileSampleInterval: Int = 0,
+                           profileSamples: ProfileSampleLog = ProfileSampleLog.disabled) extends PatternGraphBuilder {
 
   type PipeAndIsUpdating = (Pipe, Boolean)
+  type ResultBuilder =
+    (QueryContext, Map[String, Any], PipeDecorator, Option[PlanDescription => Unit]) => ExecutionResult
 
   def build(planContext: PlanContext, inputQuery: AbstractQuery): ExecutionPlan = {
 
@@ -47,9 +56,19 @@ class ExecutionPlanBuilder(graph: GraphDatabaseService) extends PatternGraphBuil
       getLazyReadonlyQuery(p, columns)
     }
 
+    val executions = new AtomicLong()
+    def sampled = profileSampleInterval > 0 && executions.incrementAndGet() % profileSampleInterval == 0
+    val query = inputQuery.getQueryText
+    val logSample = Some((plan: PlanDescription) => profileSamples.log(query, plan))
+
     new ExecutionPlan {
-      def execute(queryContext: QueryContext, params: Map[String, Any]) = func(queryContext, params, false)
-      def profile(queryContext: QueryContext, params: Map[String, Any]) = func(queryContext, params, true)
+      def execute(queryContext: QueryContext, params: Map[String, Any]) =
+        if (sampled)
+          func(queryContext, params, new Profiler(strict = false), logSample)
+        else
+          func(queryContext, params, NullDecorator, None)
+      def profile(queryContext: QueryContext, params: Map[String, Any]) =
+        func(queryContext, params, new Profiler(), None)
     }
   }
 
@@ -150,9 +169,11 @@ class ExecutionPlanBuilder(graph: GraphDatabaseService) extends PatternGraphBuil
   }
 
 
-  private def getLazyReadonlyQuery(pipe: Pipe, columns: List[String]): (QueryContext, Map[String, Any], Boolean) => ExecutionResult = {
-    val func = (queryContext: QueryContext, params: Map[String, Any], profile: Boolean) => {
-      val (state, results, descriptor) = prepareStateAndResult(queryContext, params, pipe, profile)
+  private def getLazyReadonlyQuery(pipe: Pipe, columns: List[String]): ResultBuilder = {
+    val slots = SlotLayout(pipe)
+    val func = (queryContext: QueryContext, params: Map[String, Any], decorator: PipeDecorator,
+                sample: Option[PlanDescription => Unit]) => {
+      val (state, results, descriptor) = prepareStateAndResult(queryContext, params, pipe, slots, decorator, sample)
 
       new PipeExecutionResult(results, columns, state, descriptor)
     }
@@ -160,23 +181,32 @@ class ExecutionPlanBuilder(graph: GraphDatabaseService) extends PatternGraphBuil
     func
   }
 
-  private def getEagerReadWriteQuery(pipe: Pipe, columns: List[String]): (QueryContext, Map[String, Any], Boolean) => ExecutionResult = {
-    val func = (queryContext: QueryContext, params: Map[String, Any], profile: Boolean) => {
-      val (state, results, descriptor) = prepareStateAndResult(queryContext, params, pipe, profile)
+  private def getEagerReadWriteQuery(pipe: Pipe, columns: List[String]): ResultBuilder = {
+    val slots = SlotLayout(pipe)
+    val func = (queryContext: QueryContext, params: Map[String, Any], decorator: PipeDecorator,
+                sample: Option[PlanDescription => Unit]) => {
+      val (state, results, descriptor) = prepareStateAndResult(queryContext, params, pipe, slots, decorator, sample)
       new EagerPipeExecutionResult(results, columns, state, descriptor)
     }
 
     func
   }
 
-  private def prepareStateAndResult(queryContext: QueryContext, params: Map[String, Any], pipe: Pipe, profile:Boolean):
+  private def prepareStateAndResult(queryContext: QueryContext, params: Map[String, Any], pipe: Pipe, slots: SlotLayout,
+                                    decorator: PipeDecorator, sample: Option[PlanDescription => Unit]):
     (QueryState, ClosingIterator, () => PlanDescription) = {
 
+    val spillFiles = new SpillFiles
     try {
-      val decorator = if (profile) new Profiler() else NullDecorator
-      val state = new QueryState(graph, queryContext, params, decorator)
+      val state = new QueryState(graph, queryContext, params, decorator, slots = slots, spill = spill,
+        spillFiles = spillFiles)
       val results: Iterator[collection.Map[String, Any]] = pipe.createResults(state)
-      val closingIterator = new ClosingIterator(results, queryContext)
+      // once all rows have been read, the statistics of a sampled execution are complete
+      val onSuccess = sample match {
+        case Some(log) => () => log(decorator.decorate(pipe.executionPlanDescription, isProfileReady = true))
+        case None      => () => ()
+      }
+      val closingIterator = new ClosingIterator(results, queryContext, spillFiles, onSuccess)
       val descriptor = { () =>
         val result = decorator.decorate(pipe.executionPlanDescription, closingIterator.isEmpty)
         result
@@ -185,6 +215,7 @@ class ExecutionPlanBuilder(graph: GraphDatabaseService) extends PatternGraphBuil
     }
     catch {
       case (t: Throwable) =>
+        spillFiles.deleteAll()
         queryContext.close(success = false)
         throw t
     }
@@ -231,12 +262,14 @@ The Neo4j Team""")
     )
   }
 
-  def matching = new Phase {
+  def matching: Phase = new Phase {
     def myBuilders: Seq[PlanBuilder] = Seq(
+      new HashJoinBuilder(ExecutionPlanBuilder.this),
       new TraversalMatcherBuilder, 
-      new FilterBuilder, 
+      new FilterBuilder(expressionCompiler),
       new NamedPathBuilder, 
       new StartPointBuilder,
+      new VarLengthExpandBuilder,
       new MatchBuilder, 
       new ShortestPathBuilder 
     )
@@ -253,10 +286,10 @@ The Neo4j Team""")
   def extract = new Phase {
     def myBuilders: Seq[PlanBuilder] = Seq(
       new TopPipeBuilder,
-      new ExtractBuilder,
+      new ExtractBuilder(expressionCompiler),
       new SliceBuilder,
       new DistinctBuilder,
-      new AggregationBuilder, 
+      new AggregationBuilder(parallelism), 
       new SortBuilder
     )
   }
@@ -19,7 +19,7 @@
  */
 package org.neo4j.cypher.internal.compiler.v2_0.executionplan.builders
 
-import org.neo4j.cypher.internal.compiler.v2_0.pipes.EagerAggregationPipe
+import org.neo4j.cypher.internal.compiler.v2_0.pipes.{ParallelAggregationPipe, EagerAggregationPipe}
 import org.neo4j.cypher.internal.compiler.v2_0.executionplan.{PlanBuilder, ExecutionPlanInProgress, PartiallySolvedQuery}
 import org.neo4j.cypher.internal.compiler.v2_0.commands.expressions.{CachedExpression, AggregationExpression, Expression}
 import org.neo4j.cypher.internal.compiler.v2_0.symbols.SymbolTable
@@ -48,7 +48,7 @@ Rewrite the remainder of the query to not use the aggregation expression, instea
 value.
  */
 
-class AggregationBuilder extends PlanBuilder  {
+class AggregationBuilder(parallelism: Int = 1) extends PlanBuilder  {
   def apply(plan: ExecutionPlanInProgress, ctx: PlanContext) = {
     // First, calculate the key expressions and save them down to the map
     val keyExpressionsToExtract: ExtractedExpressions = getExpressions(plan)
@@ -59,7 +59,12 @@ class AggregationBuilder extends PlanBuilder  {
     val seq = expressions.aggregates.map(exp => "  INTERNAL_AGGREGATE" + UUID.randomUUID() -> exp).toList
     val namedAggregates = seq.toMap
 
-    val resultPipe = new EagerAggregationPipe(planToAggregate.pipe, expressions.keys, namedAggregates)
+    val aggregationPipe = new EagerAggregationPipe(planToAggregate.pipe, expressions.keys, namedAggregates)
+    val resultPipe =
+      if (parallelism > 1 && !planToAggregate.isUpdating && ParallelAggregationPipe.canRunInParallel(aggregationPipe))
+        new ParallelAggregationPipe(aggregationPipe, parallelism)
+      else
+        aggregationPipe
 
 
     // Mark return items as done if they are extracted
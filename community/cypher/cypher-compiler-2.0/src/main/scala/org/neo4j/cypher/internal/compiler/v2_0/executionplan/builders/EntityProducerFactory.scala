@@ -131,10 +131,35 @@ class EntityProducerFactory extends GraphElementPropertyFunctions {
       val expression = valueExp getOrElse
         (throw new InternalException("Something went wrong trying to build your query."))
 
-      asProducer[Node](startItem) { (m: ExecutionContext, state: QueryState) =>
-        val value = expression(m)(state)
-        val neoValue = makeValueNeoSafe(value)
-        state.query.exactIndexSearch(index, neoValue)
+      expression match {
+        case RangeSeek(lower, upper) =>
+          asProducer[Node](startItem) { (m: ExecutionContext, state: QueryState) =>
+            def bound(b: Option[RangeBound]) = b.map(x => (x.expression(m)(state), x.inclusive))
+            (bound(lower), bound(upper)) match {
+              case (NumberBound(low, includeLow), NumberBound(high, includeHigh)) =>
+                state.query.indexSeekByNumberRange(index, low, includeLow, high, includeHigh)
+              case (StringBound(low, includeLow), StringBound(high, includeHigh)) =>
+                state.query.indexSeekByStringRange(index, low, includeLow, high, includeHigh)
+              case _ =>
+                // null or mixed type bounds can not match any value
+                Iterator.empty
+            }
+          }
+
+        case PrefixSeek(prefixExp) =>
+          asProducer[Node](startItem) { (m: ExecutionContext, state: QueryState) =>
+            prefixExp(m)(state) match {
+              case prefix: String => state.query.indexSeekByPrefix(index, prefix)
+              case _              => Iterator.empty
+            }
+          }
+
+        case _ =>
+          asProducer[Node](startItem) { (m: ExecutionContext, state: QueryState) =>
+            val value = expression(m)(state)
+            val neoValue = makeValueNeoSafe(value)
+            state.query.exactIndexSearch(index, neoValue)
+          }
       }
 
     case (planContext, startItem @ SchemaIndex(identifier, labelName, propertyName, UniqueIndex, valueExp)) =>
@@ -154,6 +179,23 @@ class EntityProducerFactory extends GraphElementPropertyFunctions {
       }
   }
 
+  private object NumberBound {
+    def unapply(bound: Option[(Any, Boolean)]): Option[(Number, Boolean)] = bound match {
+      case None                        => Some((null, false))
+      case Some((value: Number, incl)) => Some((value, incl))
+      case _                           => None
+    }
+  }
+
+  private object StringBound {
+    def unapply(bound: Option[(Any, Boolean)]): Option[(String, Boolean)] = bound match {
+      case None                        => Some((null, false))
+      case Some((value: String, incl)) => Some((value, incl))
+      case Some((value: Char, incl))   => Some((value.toString, incl))
+      case _                           => None
+    }
+  }
+
   val relationshipByIndex: PartialFunction[(PlanContext, StartItem), EntityProducer[Relationship]] = {
     case (planContext, startItem @ RelationshipByIndex(varName, idxName, key, value)) =>
       planContext.checkRelIndex(idxName)
@@ -22,13 +22,13 @@ package org.neo4j.cypher.internal.compiler.v2_0.executionplan.builders
 import org.neo4j.cypher.internal.compiler.v2_0.pipes.ExtractPipe
 import org.neo4j.cypher.internal.compiler.v2_0.executionplan.{ExecutionPlanInProgress, PlanBuilder}
 import org.neo4j.cypher.internal.compiler.v2_0.commands.expressions.{Identifier, CachedExpression, Expression}
-import org.neo4j.cypher.internal.compiler.v2_0.commands.AllIdentifiers
+import org.neo4j.cypher.internal.compiler.v2_0.commands.{InterpretingExpressionCompiler, ExpressionCompiler, AllIdentifiers}
 import org.neo4j.cypher.internal.compiler.v2_0.spi.PlanContext
 
 /**
  * This builder will materialize expression results down to the result map, so they can be seen by the user
  */
-class ExtractBuilder extends PlanBuilder {
+class ExtractBuilder(compiler: ExpressionCompiler = InterpretingExpressionCompiler) extends PlanBuilder {
   def apply(plan: ExecutionPlanInProgress, ctx: PlanContext) = {
     val q = plan.query
 
@@ -39,7 +39,7 @@ class ExtractBuilder extends PlanBuilder {
       val expressions: Map[String, Expression] =
         q.returns.flatMap(_.token.expressions(plan.pipe.symbols)).toMap
 
-      val result = ExtractBuilder.extractIfNecessary(plan, expressions, materializeAll = true)
+      val result = ExtractBuilder.extractIfNecessary(plan, expressions, materializeAll = true, compiler)
       result.copy(query = result.query.copy(returns = result.query.returns.map(_.solve)))
     }
   }
@@ -80,9 +80,11 @@ object ExtractBuilder {
    * @param plan the plan to work on
    * @param expressionsToExtract extract these expressions
    * @param materializeAll materialise results even for non-deterministic calls
+   * @param compiler prepares the expressions for evaluation
    * @return
    */
-  def extractIfNecessary(plan: ExecutionPlanInProgress, expressionsToExtract: Map[String, Expression], materializeAll:Boolean = false):
+  def extractIfNecessary(plan: ExecutionPlanInProgress, expressionsToExtract: Map[String, Expression], materializeAll:Boolean = false,
+                         compiler: ExpressionCompiler = InterpretingExpressionCompiler):
   ExecutionPlanInProgress = {
 
     val expressions = expressionsToExtract.filter {
@@ -105,7 +107,7 @@ object ExtractBuilder {
           fromQueryExpression
       }))
 
-      val resultPipe = ExtractPipe(pipe, expressions)
+      val resultPipe = ExtractPipe(pipe, expressions, compiler)
       val resultQuery = newPsq.copy(extracted = true)
       plan.copy(pipe = resultPipe, query = resultQuery)
     } else {
@@ -20,12 +20,12 @@
 package org.neo4j.cypher.internal.compiler.v2_0.executionplan.builders
 
 import org.neo4j.cypher.internal.compiler.v2_0.commands.True
-import org.neo4j.cypher.internal.compiler.v2_0.commands.Predicate
+import org.neo4j.cypher.internal.compiler.v2_0.commands.{InterpretingExpressionCompiler, ExpressionCompiler, Predicate}
 import org.neo4j.cypher.internal.compiler.v2_0.pipes.{FilterPipe, Pipe}
 import org.neo4j.cypher.internal.compiler.v2_0.executionplan.{PlanBuilder, ExecutionPlanInProgress}
 import org.neo4j.cypher.internal.compiler.v2_0.spi.PlanContext
 
-class FilterBuilder extends PlanBuilder {
+class FilterBuilder(compiler: ExpressionCompiler = InterpretingExpressionCompiler) extends PlanBuilder {
   def apply(plan: ExecutionPlanInProgress, ctx: PlanContext) = {
     val q = plan.query
     val p = plan.pipe
@@ -36,7 +36,7 @@ class FilterBuilder extends PlanBuilder {
     val newPipe = if (pred == True()) {
       p
     } else {
-      new FilterPipe(p, pred)
+      new FilterPipe(p, pred, compiler)
     }
 
     val newQuery = q.where.filterNot(item.contains) ++ item.map(_.solve)
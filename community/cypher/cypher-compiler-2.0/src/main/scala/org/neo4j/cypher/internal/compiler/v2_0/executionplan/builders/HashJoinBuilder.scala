@@ -0,0 +1,168 @@
+/**
+ * Copyright (c) 2002-2013 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.compiler.v2_0.executionplan.builders
+
+import org.neo4j.cypher.internal.compiler.v2_0.commands._
+import org.neo4j.cypher.internal.compiler.v2_0.executionplan.{Phase, PartiallySolvedQuery, PlanBuilder, ExecutionPlanInProgress}
+import org.neo4j.cypher.internal.compiler.v2_0.pipes.{HashJoinPipe, NullPipe, Pipe}
+import org.neo4j.cypher.internal.compiler.v2_0.spi.PlanContext
+import org.neo4j.cypher.InternalException
+import org.neo4j.kernel.api.statistics.GraphStatistics
+import NodeFetchStrategy.{Single, IndexEquality, IndexRange, LabelScan, Global}
+
+/*
+When a pattern with several start points can be cut in two at a node that is not a start point, each half is planned
+on its own and the halves are joined on that node with a hash join. This avoids matching the whole pattern once for
+every combination of start nodes. The half expected to produce the fewest rows is the one loaded into memory.
+
+Patterns that only start from nodes given by id are left to the traversal matcher, which handles those well.
+ */
+class HashJoinBuilder(planBuilder: {def matching: Phase}) extends PlanBuilder {
+
+  case class JoinSide(start: Seq[QueryToken[StartItem]],
+                      patterns: Seq[QueryToken[Pattern]],
+                      where: Seq[QueryToken[Predicate]]) {
+    def relationships: Seq[String] = patterns.flatMap(_.token.rels)
+  }
+
+  case class Join(key: String, left: JoinSide, right: JoinSide)
+
+  def canWorkWith(plan: ExecutionPlanInProgress, ctx: PlanContext) =
+    plan.pipe == NullPipe &&
+      !plan.query.optional &&
+      findJoin(plan.query).nonEmpty
+
+  def apply(plan: ExecutionPlanInProgress, ctx: PlanContext) = findJoin(plan.query) match {
+    case None       => throw new InternalException("This plan should not have been accepted")
+    case Some(join) =>
+      val (probeSide, buildSide) =
+        if (estimatedRows(join.left, ctx) < estimatedRows(join.right, ctx)) (join.right, join.left)
+        else (join.left, join.right)
+
+      val distinctRelationships = for (a <- probeSide.relationships; b <- buildSide.relationships) yield (a, b)
+      val pipe = new HashJoinPipe(planSide(probeSide, ctx), planSide(buildSide, ctx), join.key, distinctRelationships)
+
+      val solvedStart = join.left.start ++ join.right.start
+      val solvedPatterns = join.left.patterns ++ join.right.patterns
+      val solvedWhere = join.left.where ++ join.right.where
+      val q = plan.query
+
+      plan.copy(pipe = pipe, query = q.copy(
+        start = q.start.filterNot(solvedStart.contains) ++ solvedStart.map(_.solve),
+        patterns = q.patterns.filterNot(solvedPatterns.contains) ++ solvedPatterns.map(_.solve),
+        where = q.where.filterNot(solvedWhere.contains) ++ solvedWhere.map(_.solve)
+      ))
+  }
+
+  private def planSide(side: JoinSide, ctx: PlanContext): Pipe = {
+    val query = PartiallySolvedQuery().copy(start = side.start, patterns = side.patterns, where = side.where)
+    val plan = planBuilder.matching(ExecutionPlanInProgress(query, NullPipe), ctx)
+
+    if (!plan.query.isSolved)
+      throw new InternalException("Could not plan one side of a hash join: " + query)
+
+    plan.pipe
+  }
+
+  private def estimatedRows(side: JoinSide, ctx: PlanContext): Double = {
+    val statistics = Option(ctx.statistics).getOrElse(GraphStatistics.NONE)
+    side.start.map(item =>
+      NodeFetchStrategy.estimatedCost(RatedStartItem(item.token, rating(item.token), Seq.empty), statistics, ctx)).product
+  }
+
+  /*
+  By the time joins are planned, index hints know whether they look up a single value or seek a range of them
+   */
+  private def rating(item: StartItem): Int = item match {
+    case _: NodeById | _: NodeByIdOrEmpty                 => Single
+    case SchemaIndex(_, _, _, _, Some(_: IndexSeekRange)) => IndexRange
+    case SchemaIndex(_, _, _, UniqueIndex, _)             => Single
+    case _: SchemaIndex                                   => IndexEquality
+    case _: NodeByLabel                                   => LabelScan
+    case _                                                => Global
+  }
+
+  private def findJoin(q: PartiallySolvedQuery): Option[Join] = {
+    val start = q.start.filter(_.unsolved)
+    val patterns = q.patterns.filter(_.unsolved)
+
+    val onlyNodeStartPoints = start.forall(item => item.token.isInstanceOf[NodeStartItemIdentifiers] && !item.token.mutating)
+    val onlyRelationships = patterns.forall {
+      case Unsolved(r: RelatedTo) => r.left.name != r.right.name
+      case _                      => false
+    }
+    val onlyById = start.forall(item => item.token.isInstanceOf[NodeById] || item.token.isInstanceOf[NodeByIdOrEmpty])
+
+    if (start.size < 2 || patterns.isEmpty || !onlyNodeStartPoints || !onlyRelationships || onlyById)
+      None
+    else {
+      val startPoints = start.map(_.token.identifierName).toSet
+      val nodes = patterns.flatMap(p => ends(p.token)).distinct.sorted
+
+      nodes.filterNot(startPoints).toStream.flatMap(key => splitAt(key, start, patterns, q.where.filter(_.unsolved))).headOption
+    }
+  }
+
+  private def ends(pattern: Pattern): Seq[String] = pattern match {
+    case r: RelatedTo => Seq(r.left.name, r.right.name)
+    case _            => Seq.empty
+  }
+
+  /*
+  Removing the key node from the pattern has to leave exactly two connected parts, each with its own start points.
+   */
+  private def splitAt(key: String,
+                      start: Seq[QueryToken[StartItem]],
+                      patterns: Seq[QueryToken[Pattern]],
+                      where: Seq[QueryToken[Predicate]]): Option[Join] = {
+    var groups = Seq[Set[String]]()
+    patterns.foreach(p => {
+      val nodes = ends(p.token).toSet - key
+      val (touching, rest) = groups.partition(g => (g intersect nodes).nonEmpty)
+      groups = rest :+ (touching.flatten.toSet ++ nodes)
+    })
+
+    def side(group: Set[String], remainingWhere: Seq[QueryToken[Predicate]]): JoinSide = {
+      val sidePatterns = patterns.filter(p => (ends(p.token).toSet - key).subsetOf(group))
+      val identifiers = group + key ++ sidePatterns.flatMap(_.token.identifiers)
+      JoinSide(
+        start = start.filter(item => group.contains(item.token.identifierName)),
+        patterns = sidePatterns,
+        where = remainingWhere.filter(_.token.symbolTableDependencies.subsetOf(identifiers)))
+    }
+
+    def touchesKey(side: JoinSide) = side.patterns.exists(p => ends(p.token).contains(key))
+
+    groups match {
+      case Seq(first, second) =>
+        val left = side(first, where)
+        val right = side(second, where.filterNot(left.where.contains))
+
+        if (left.start.nonEmpty && right.start.nonEmpty &&
+          left.start.size + right.start.size == start.size &&
+          touchesKey(left) && touchesKey(right))
+          Some(Join(key, left, right))
+        else
+          None
+
+      case _ => None
+    }
+  }
+}
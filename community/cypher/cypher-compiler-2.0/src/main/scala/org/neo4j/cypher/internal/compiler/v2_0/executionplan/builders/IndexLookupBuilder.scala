@@ -34,20 +34,30 @@ class IndexLookupBuilder extends PlanBuilder {
     val hint = querylessHint.token
     val propertyPredicates = findPropertyPredicates(plan, hint)
     val labelPredicates = findLabelPredicates(plan, hint)
+    val q: PartiallySolvedQuery = plan.query
+
+    lazy val seekRange = IndexSeekPredicates.findSeekRange(hint.identifier, hint.property, plan.boundIdentifiers, q.where.map(_.token))
 
-    if (propertyPredicates.isEmpty || labelPredicates.isEmpty)
+    if ((propertyPredicates.isEmpty && seekRange.isEmpty) || labelPredicates.isEmpty)
       throw IndexHintException(hint, "No useful predicate was found for your index hint. Make sure the" +
         " property expression is alone either side of the equality sign.")
 
-    val (predicate, expression) = propertyPredicates.head
+    val newQuery = propertyPredicates.headOption match {
+      case Some((predicate, expression)) =>
+        val queryfullHint: Unsolved[StartItem] = Unsolved(hint.copy(query = Some(expression)))
+        q.copy(
+          where = q.where.filterNot(x => x == predicate || labelPredicates.contains(x)) ++ labelPredicates.map(_.solve) :+ predicate.solve,
+          start = q.start.filterNot(_ == querylessHint) :+ queryfullHint
+        )
 
-    val q: PartiallySolvedQuery = plan.query
-
-    val queryfullHint: Unsolved[StartItem] = Unsolved(hint.copy(query = Some(expression)))
-    val newQuery = q.copy(
-      where = q.where.filterNot(x => x == predicate || labelPredicates.contains(x)) ++ labelPredicates.map(_.solve) :+ predicate.solve,
-      start = q.start.filterNot(_ == querylessHint) :+ queryfullHint
-    )
+      case None =>
+        // the range predicates stay unsolved, and are applied as filters on the nodes found by the seek
+        val queryfullHint: Unsolved[StartItem] = Unsolved(hint.copy(query = seekRange))
+        q.copy(
+          where = q.where.filterNot(labelPredicates.contains) ++ labelPredicates.map(_.solve),
+          start = q.start.filterNot(_ == querylessHint) :+ queryfullHint
+        )
+    }
 
     plan.copy(query = newQuery)
   }
@@ -0,0 +1,88 @@
+/**
+ * Copyright (c) 2002-2013 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.compiler.v2_0.executionplan.builders
+
+import org.neo4j.cypher.internal.compiler.v2_0.commands._
+import org.neo4j.cypher.internal.compiler.v2_0.commands.expressions.{Identifier, Literal, Property}
+
+/*
+Finds the predicates on a node property that a schema index can answer by seeking a range of values, and builds
+the range to seek from them. The seek only narrows down the candidates, so these predicates are never solved by it
+and still have to be applied as filters.
+ */
+object IndexSeekPredicates {
+
+  type IdentifierName = String
+  type PropertyKey = String
+
+  // Comparisons of a property with some other expression, as (identifier, property key, bound, is lower bound)
+  object PropertyBound {
+    def unapply(predicate: Predicate): Option[(IdentifierName, PropertyKey, RangeBound, Boolean)] = predicate match {
+      case GreaterThan(Property(Identifier(id), key), e)        => Some((id, key.name, RangeBound(e, inclusive = false), true))
+      case GreaterThanOrEqual(Property(Identifier(id), key), e) => Some((id, key.name, RangeBound(e, inclusive = true), true))
+      case LessThan(Property(Identifier(id), key), e)           => Some((id, key.name, RangeBound(e, inclusive = false), false))
+      case LessThanOrEqual(Property(Identifier(id), key), e)    => Some((id, key.name, RangeBound(e, inclusive = true), false))
+      case GreaterThan(e, Property(Identifier(id), key))        => Some((id, key.name, RangeBound(e, inclusive = false), false))
+      case GreaterThanOrEqual(e, Property(Identifier(id), key)) => Some((id, key.name, RangeBound(e, inclusive = true), false))
+      case LessThan(e, Property(Identifier(id), key))           => Some((id, key.name, RangeBound(e, inclusive = false), true))
+      case LessThanOrEqual(e, Property(Identifier(id), key))    => Some((id, key.name, RangeBound(e, inclusive = true), true))
+      case _                                                    => None
+    }
+  }
+
+  // Regular expressions like n.name =~ 'Prefix.*', where the prefix has no special characters
+  object PropertyPrefix {
+    private val PrefixPattern = """([^\\.\[\]{}()*+?^$|]+)\.\*""".r
+
+    def unapply(predicate: Predicate): Option[(IdentifierName, PropertyKey, String)] = predicate match {
+      case LiteralRegularExpression(Property(Identifier(id), key), Literal(regex: String)) => regex match {
+        case PrefixPattern(prefix) => Some((id, key.name, prefix))
+        case _                     => None
+      }
+      case _ => None
+    }
+  }
+
+  def seekableProperties(identifier: IdentifierName, boundIdentifiers: Set[String], where: Seq[Predicate]): Seq[PropertyKey] =
+    where.collect {
+      case PropertyBound(id, key, bound, _) if id == identifier && computable(bound, boundIdentifiers) => key
+      case PropertyPrefix(id, key, _) if id == identifier                                               => key
+    }.distinct
+
+  def findSeekRange(identifier: IdentifierName, property: PropertyKey, boundIdentifiers: Set[String],
+                    where: Seq[Predicate]): Option[IndexSeekRange] = {
+    val bounds = where.collect {
+      case PropertyBound(id, key, bound, isLower) if id == identifier && key == property && computable(bound, boundIdentifiers) =>
+        (bound, isLower)
+    }
+    val lower = bounds.collectFirst { case (bound, true) => bound }
+    val upper = bounds.collectFirst { case (bound, false) => bound }
+
+    if (lower.nonEmpty || upper.nonEmpty)
+      Some(RangeSeek(lower, upper))
+    else
+      where.collectFirst {
+        case PropertyPrefix(id, key, prefix) if id == identifier && key == property => PrefixSeek(Literal(prefix))
+      }
+  }
+
+  private def computable(bound: RangeBound, boundIdentifiers: Set[String]) =
+    bound.expression.symbolTableDependencies.forall(boundIdentifiers)
+}
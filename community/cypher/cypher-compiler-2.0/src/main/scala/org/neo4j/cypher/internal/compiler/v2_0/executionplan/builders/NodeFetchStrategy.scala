@@ -23,6 +23,7 @@ import org.neo4j.cypher.internal.compiler.v2_0.commands._
 import org.neo4j.cypher.internal.compiler.v2_0.commands.expressions._
 import org.neo4j.cypher.internal.compiler.v2_0.spi.PlanContext
 import org.neo4j.cypher.internal.compiler.v2_0.commands.values.KeyToken
+import org.neo4j.kernel.api.statistics.GraphStatistics
 
 /*
 This rather simple class finds a starting strategy for a given single node and a list of predicates required
@@ -36,9 +37,52 @@ object NodeFetchStrategy {
 
   def findStartStrategy(node: String, boundIdentifiers: Set[String], where: Seq[Predicate], ctx: PlanContext): RatedStartItem = {
     val ratedItems = nodeStrategies.flatMap(_.findRatedStartItems(node, boundIdentifiers, where, ctx))
-    ratedItems.sortBy(_.rating).head
+    cheapest(ratedItems, ctx)
   }
 
+  /*
+  Picks the start item expected to produce the fewest nodes, according to the graph statistics. Until there are
+  statistics for all of the candidates, the fixed ratings decide instead.
+   */
+  def cheapest(items: Seq[RatedStartItem], ctx: PlanContext): RatedStartItem = {
+    val statistics = Option(ctx.statistics).getOrElse(GraphStatistics.NONE)
+    lazy val costs = items.map(estimatedCost(_, statistics, ctx))
+
+    if (statistics == GraphStatistics.NONE || costs.exists(_.isNaN))
+      items.sortBy(_.rating).head
+    else
+      items.zip(costs).sortBy {
+        case (item, cost) => (cost, item.rating)
+      }.head._1
+  }
+
+  /*
+  The estimated number of nodes a start item produces, or NaN when the statistics have no opinion
+   */
+  def estimatedCost(item: RatedStartItem, statistics: GraphStatistics, ctx: PlanContext): Double = {
+    def nodesWithLabel(label: String): Double =
+      ctx.getOptLabelId(label).map(statistics.nodesWithLabel).getOrElse(0.0)
+
+    def selectivity(label: String, property: String): Double = (for (
+      labelId <- ctx.getOptLabelId(label);
+      propertyKeyId <- ctx.getOptPropertyKeyId(property)
+    ) yield statistics.selectivity(labelId, propertyKeyId)).getOrElse(0.0)
+
+    item match {
+      case RatedStartItem(_, Single, _)                                            => 1.0
+      case RatedStartItem(SchemaIndex(_, label, property, _, _), IndexEquality, _) => nodesWithLabel(label) * selectivity(label, property)
+      case RatedStartItem(SchemaIndex(_, label, _, _, _), IndexRange, _)           => nodesWithLabel(label) / RangeSelectivityDivisor
+      case RatedStartItem(NodeByLabel(_, label), _, _)                             => nodesWithLabel(label)
+      case RatedStartItem(AllNodes(_), _, _)                                       => statistics.nodeCount()
+      case _                                                                       => Double.NaN
+    }
+  }
+
+  /*
+  Without histograms, a range predicate is assumed to match a third of the indexed nodes
+   */
+  val RangeSelectivityDivisor = 3.0
+
   def findUniqueIndexes(props: Map[KeyToken, Expression], labels: Seq[KeyToken], ctx: PlanContext): Seq[(KeyToken, KeyToken)] = {
     val indexes = labels.flatMap { (label: KeyToken) => findUniqueIndexesForLabel( label, props.keys, ctx ) }
     implicit val ordering = KeyToken.Ordering
@@ -61,6 +105,7 @@ object NodeFetchStrategy {
 import NodeFetchStrategy.Single
 import NodeFetchStrategy.Global
 import NodeFetchStrategy.IndexEquality
+import NodeFetchStrategy.IndexRange
 import NodeFetchStrategy.LabelScan
 
 /*
@@ -125,7 +170,7 @@ object IndexSeekStrategy extends NodeStrategy {
     val labelPredicates: Seq[SolvedPredicate[LabelName]] = findLabelsForNode(node, where)
     val propertyPredicates: Seq[SolvedPredicate[PropertyKey]] = findEqualityPredicatesOnProperty(node, where)
 
-    for (
+    val equalityItems = for (
       labelPredicate <- labelPredicates;
       propertyPredicate <- propertyPredicates if ctx.getIndexRule(labelPredicate.solution, propertyPredicate.solution).nonEmpty
     ) yield {
@@ -135,6 +180,19 @@ object IndexSeekStrategy extends NodeStrategy {
       val predicates = Seq(labelPredicate.predicate, propertyPredicate.predicate)
       RatedStartItem(schemaIndex, rating, predicates)
     }
+
+    // Range and prefix predicates narrow down the index seek, but are not solved by it
+    val equalityProperties = propertyPredicates.map(_.solution).toSet
+    val seekableProperties = IndexSeekPredicates.seekableProperties(node, boundIdentifiers, where).filterNot(equalityProperties)
+    val rangeItems = for (
+      labelPredicate <- labelPredicates;
+      property <- seekableProperties if ctx.getIndexRule(labelPredicate.solution, property).nonEmpty
+    ) yield {
+      val schemaIndex = SchemaIndex(node, labelPredicate.solution, property, AnyIndex, None)
+      RatedStartItem(schemaIndex, IndexRange, Seq(labelPredicate.predicate))
+    }
+
+    equalityItems ++ rangeItems
   }
 
   private def findEqualityPredicatesOnProperty(identifier: IdentifierName, where: Seq[Predicate]): Seq[SolvedPredicate[PropertyKey]] =
@@ -93,7 +93,7 @@ class StartPointChoosingBuilder extends PlanBuilder {
         singleNodePoints
       } else {
         // Lastly, let's pick the best start point possible
-        Some(startPoints.toSeq.sortBy(_.rating).head)
+        Some(NodeFetchStrategy.cheapest(startPoints.toSeq, ctx))
       }
     }
 
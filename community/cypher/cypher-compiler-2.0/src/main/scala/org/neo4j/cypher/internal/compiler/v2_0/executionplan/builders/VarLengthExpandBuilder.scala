@@ -0,0 +1,65 @@
+/**
+ * Copyright (c) 2002-2013 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.compiler.v2_0.executionplan.builders
+
+import org.neo4j.cypher.internal.compiler.v2_0.commands._
+import org.neo4j.cypher.internal.compiler.v2_0.executionplan.{PlanBuilder, ExecutionPlanInProgress}
+import org.neo4j.cypher.internal.compiler.v2_0.pipes.VarLengthExpandPipe
+import org.neo4j.cypher.internal.compiler.v2_0.spi.PlanContext
+import org.neo4j.cypher.InternalException
+
+/*
+Picks up a bounded variable length pattern when both of its end nodes are already bound, and it is the whole pattern
+of the clause. Such patterns are expanded from both ends by the VarLengthExpandPipe, instead of being matched by the
+pattern matcher from one end only.
+ */
+class VarLengthExpandBuilder extends PlanBuilder {
+  def apply(plan: ExecutionPlanInProgress, ctx: PlanContext) = findPattern(plan) match {
+    case None       => throw new InternalException("This plan should not have been accepted")
+    case Some(item) =>
+      val q = plan.query
+      val pipe = new VarLengthExpandPipe(plan.pipe, item.token.asInstanceOf[VarLengthRelatedTo])
+
+      plan.copy(pipe = pipe, query = q.copy(patterns = q.patterns.filterNot(_ == item) :+ item.solve))
+  }
+
+  def canWorkWith(plan: ExecutionPlanInProgress, ctx: PlanContext) = !plan.query.optional && findPattern(plan).nonEmpty
+
+  private def findPattern(plan: ExecutionPlanInProgress): Option[QueryToken[Pattern]] = {
+    val symbols = plan.pipe.symbols
+
+    // Relationships must be unique across a whole pattern, so no other part of it may have been matched elsewhere
+    plan.query.patterns match {
+      case Seq(item@Unsolved(r: VarLengthRelatedTo))
+        if r.maxHops.nonEmpty &&
+          r.left.name != r.right.name &&
+          r.properties.isEmpty &&
+          plainNode(r.left) && plainNode(r.right) &&
+          symbols.hasIdentifierNamed(r.left.name) &&
+          symbols.hasIdentifierNamed(r.right.name) &&
+          !symbols.hasIdentifierNamed(r.pathName) &&
+          r.relIterator.forall(!symbols.hasIdentifierNamed(_)) => Some(item)
+
+      case _ => None
+    }
+  }
+
+  private def plainNode(node: SingleNode) = node.labels.isEmpty && node.properties.isEmpty
+}
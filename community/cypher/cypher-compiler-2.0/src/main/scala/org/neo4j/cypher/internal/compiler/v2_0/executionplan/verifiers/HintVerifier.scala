@@ -25,6 +25,7 @@ import org.neo4j.cypher.{LabelScanHintException, IndexHintException, SyntaxExcep
 import org.neo4j.cypher.internal.compiler.v2_0.commands.Equals
 import org.neo4j.cypher.internal.compiler.v2_0.commands.SchemaIndex
 import org.neo4j.cypher.internal.compiler.v2_0.commands.expressions.Property
+import org.neo4j.cypher.internal.compiler.v2_0.executionplan.builders.IndexSeekPredicates.{PropertyBound, PropertyPrefix}
 
 object HintVerifier extends Verifier {
   override val verifyFunction: PartialFunction[AbstractQuery, Unit] = {
@@ -57,6 +58,8 @@ object HintVerifier extends Verifier {
       def hasExpectedPredicate(id: String, prop: String) = predicateAtoms.exists {
         case Equals(Property(Identifier(identifier), property), _) => id == identifier && property.name == prop
         case Equals(_, Property(Identifier(identifier), property)) => id == identifier && property.name == prop
+        case PropertyBound(identifier, property, _, _)             => id == identifier && property == prop
+        case PropertyPrefix(identifier, property, _)               => id == identifier && property == prop
         case _                                                     => false
       }
 
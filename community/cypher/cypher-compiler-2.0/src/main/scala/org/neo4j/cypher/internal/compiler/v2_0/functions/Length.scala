@@ -22,6 +22,7 @@ package org.neo4j.cypher.internal.compiler.v2_0.functions
 import org.neo4j.cypher.internal.compiler.v2_0._
 import org.neo4j.cypher.internal.compiler.v2_0.symbols._
 import org.neo4j.cypher.internal.compiler.v2_0.commands.{expressions => commandexpressions}
+import org.neo4j.graphdb.Direction
 
 case object Length extends Function {
   def name = "length"
@@ -31,6 +32,31 @@ case object Length extends Function {
     invocation.arguments.constrainType(CollectionType(AnyType()), PathType(), StringType()) then
     invocation.specifyType(LongType())
 
-  def toCommand(invocation: ast.FunctionInvocation) =
-    commandexpressions.LengthFunction(invocation.arguments(0).toCommand)
+  def toCommand(invocation: ast.FunctionInvocation) = invocation.arguments(0) match {
+    case DegreePattern(node, types, direction) =>
+      commandexpressions.DegreeFunction(node.toCommand, types, direction)
+    case argument =>
+      commandexpressions.LengthFunction(argument.toCommand)
+  }
+
+  /**
+   * Matches pattern expressions that only count the relationships of a bound node, like
+   * (n)-[:T]->() or ()<-[:T]-(n), so that their length can be read from the node degree.
+   */
+  private object DegreePattern {
+    def unapply(e: ast.Expression): Option[(ast.Identifier, Seq[String], Direction)] = e match {
+      case ast.PatternExpression(ast.RelationshipsPattern(ast.RelationshipChain(left: ast.NodePattern, rel: ast.AnonymousRelationshipPattern, right: ast.NodePattern, _), _))
+        if isPlain(rel) && isPlain(left) && isPlain(right) => (left, right) match {
+        case (n: ast.NamedNodePattern, _: ast.AnonymousNodePattern) => Some((n.identifier, rel.types.map(_.name).distinct, rel.direction))
+        case (_: ast.AnonymousNodePattern, n: ast.NamedNodePattern) => Some((n.identifier, rel.types.map(_.name).distinct, rel.direction.reverse()))
+        case _                                                      => None
+      }
+      case _ =>
+        None
+    }
+
+    private def isPlain(rel: ast.RelationshipPattern) = rel.length.isEmpty && !rel.optional && rel.properties.isEmpty
+
+    private def isPlain(node: ast.NodePattern) = node.labels.isEmpty && node.properties.isEmpty
+  }
 }
@@ -0,0 +1,182 @@
+/**
+ * Copyright (c) 2002-2013 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.compiler.v2_0.parser
+
+import org.neo4j.cypher.internal.compiler.v2_0.symbols.{CypherType, DoubleType, LongType, StringType}
+
+/*
+Rewrites the text of a query so that its literals are replaced by parameters, which lets queries that only differ in
+their literals share one cached execution plan. The values of the lifted literals are returned alongside the rewritten
+text, and have to be merged into the parameters the query is executed with. The generated parameter names carry the
+type of the literal they replace, so queries only share a rewritten text when their literals have the same types. The
+semantic check types these parameters like the literals they replace, so type errors are still found in the rewritten
+text, and the query is then planned as it was written to report them against the text the user wrote.
+
+This is a scan over the query text, not a parse, and it is deliberately conservative. Only string literals without
+escape sequences and number literals are lifted, and they are left alone where the grammar does not accept a parameter
+or where the literal text is visible to the user:
+
+* in START clauses,
+* in the projections of RETURN and WITH (up to a following WHERE), since the column names are taken from their text,
+* in variable length relationship ranges, after `*` or next to `..`,
+* after a minus sign, since negative numbers are part of the literal,
+* as the pattern of a regular expression match, so that it is only compiled once.
+
+Queries that select a parser version, or that already use the parameter names generated here, are returned unchanged.
+*/
+object LiteralExtractor {
+  val ParameterPrefix = "AUTO_"
+
+  private val kinds: Map[String, CypherType] =
+    Map("STRING" -> StringType(), "INT" -> LongType(), "DOUBLE" -> DoubleType())
+  private val generatedName = (ParameterPrefix + "([A-Z]+)_\\d+").r
+
+  /*
+  The type of the literal that a parameter generated here replaces, or None for any other parameter.
+   */
+  def typeOfParameter(name: String): Option[CypherType] = name match {
+    case generatedName(kind) => kinds.get(kind)
+    case _                   => None
+  }
+
+  private val keepingClauses = Set("START", "RETURN", "WITH")
+  private val clauses = Set("START", "MATCH", "OPTIONAL", "WHERE", "WITH", "RETURN", "CREATE", "MERGE", "SET",
+    "DELETE", "REMOVE", "FOREACH", "UNION", "USING")
+  private val hasVersionDefined = """(?si)^\s*cypher\s.*""".r
+
+  def apply(query: String): (String, Map[String, Any]) = query match {
+    case hasVersionDefined()                  => (query, Map.empty)
+    case _ if query.contains(ParameterPrefix) => (query, Map.empty)
+    case _                                    => extract(query).getOrElse((query, Map.empty))
+  }
+
+  private def extract(query: String): Option[(String, Map[String, Any])] = {
+    val out = new StringBuilder
+    var params = Map[String, Any]()
+    var depth = 0
+    var keepLiteralsFrom: Option[Int] = None
+    var i = 0
+
+    def charAt(idx: Int): Char = if (idx >= 0 && idx < query.length) query.charAt(idx) else 0
+
+    def previous: Char = {
+      var idx = out.length - 1
+      while (idx >= 0 && Character.isWhitespace(out.charAt(idx))) idx -= 1
+      if (idx >= 0) out.charAt(idx) else 0
+    }
+
+    def next(from: Int): Char = {
+      var idx = from
+      while (idx < query.length && Character.isWhitespace(query.charAt(idx))) idx += 1
+      charAt(idx)
+    }
+
+    def copy(end: Int) {
+      out.append(query.substring(i, end))
+      i = end
+    }
+
+    def lift(end: Int, value: Any) {
+      val kind = value match {
+        case _: String => "STRING"
+        case _: Long   => "INT"
+        case _: Double => "DOUBLE"
+      }
+      val name = ParameterPrefix + kind + "_" + params.size
+      params += name -> value
+      out.append('{').append(name).append('}')
+      i = end
+    }
+
+    def isIdentifierCharacter(c: Char) = Character.isLetterOrDigit(c) || c == '_' || c == '\''
+
+    while (i < query.length) {
+      val c = query.charAt(i)
+
+      if (c == '\'' || c == '"') {
+        var end = i + 1
+        while (end < query.length && query.charAt(end) != c) end += (if (query.charAt(end) == '\\') 2 else 1)
+        if (end >= query.length) return None
+        end += 1
+
+        val text = query.substring(i + 1, end - 1)
+        if (keepLiteralsFrom.isDefined || text.contains('\\') || previous == '~') copy(end)
+        else lift(end, text)
+      }
+      else if (c == '`') {
+        val end = query.indexOf('`', i + 1)
+        if (end < 0) return None
+        copy(end + 1)
+      }
+      else if (c == '/' && charAt(i + 1) == '/') {
+        val end = query.indexOf('\n', i)
+        copy(if (end < 0) query.length else end)
+      }
+      else if (c == '/' && charAt(i + 1) == '*') {
+        val end = query.indexOf("*/", i + 2)
+        if (end < 0) return None
+        copy(end + 2)
+      }
+      else if (Character.isLetter(c) || c == '_') {
+        var end = i + 1
+        while (end < query.length && isIdentifierCharacter(query.charAt(end))) end += 1
+
+        val word = query.substring(i, end).toUpperCase
+        val isKeyword = previous != '.' && previous != ':' && next(end) != ':'
+        if (isKeyword && keepingClauses.contains(word))
+          keepLiteralsFrom = Some(depth)
+        else if (isKeyword && clauses.contains(word) && keepLiteralsFrom.exists(depth <= _))
+          keepLiteralsFrom = None
+        copy(end)
+      }
+      else if (Character.isDigit(c)) {
+        var end = i
+        while (Character.isDigit(charAt(end))) end += 1
+        val isDecimal = charAt(end) == '.' && Character.isDigit(charAt(end + 1))
+        if (isDecimal) {
+          end += 1
+          while (Character.isDigit(charAt(end))) end += 1
+        }
+
+        val keep = keepLiteralsFrom.isDefined ||
+          isIdentifierCharacter(charAt(end)) ||
+          "*-.{".contains(previous) ||
+          next(end) == '.'
+
+        if (keep) copy(end)
+        else {
+          val text = query.substring(i, end)
+          try {
+            lift(end, if (isDecimal) text.toDouble else text.toLong)
+          } catch {
+            case _: NumberFormatException => copy(end)
+          }
+        }
+      }
+      else {
+        if ("([{".contains(c)) depth += 1
+        if (")]}".contains(c)) depth -= 1
+        copy(i + 1)
+      }
+    }
+
+    Some((out.toString(), params))
+  }
+}
@@ -34,20 +34,32 @@ class ColumnFilterPipe(source: Pipe, val returnItems: Seq[ReturnItem])
   private lazy val identifiers2: Seq[(String, CypherType)] = returnItems.
     map( ri => ri.name->ri.expression.getType(source.symbols))
 
+  // Pairs of the slot each column is read from, and the slot it is returned in
+  @volatile private var columns: Seq[(Slot, Slot)] = returnItems.map {
+    case ReturnItem(Identifier(oldName), newName, _) if isNamed(newName) => (new Slot(oldName), new Slot(newName))
+    case ReturnItem(CachedExpression(oldName, _), newName, _)            => (new Slot(oldName), new Slot(newName))
+    case ReturnItem(_, name, _)                                          => (new Slot(name), new Slot(name))
+  }
+
   protected def internalCreateResults(input: Iterator[ExecutionContext], state: QueryState) = {
     input.map(ctx => {
-      val newMap = MutableMaps.create(ctx.size)
+      val row = ctx.newFrom(Seq.empty)
 
-      returnItems.foreach {
-        case ReturnItem(Identifier(oldName), newName, _) if isNamed(newName) => newMap.put(newName, ctx(oldName))
-        case ReturnItem(CachedExpression(oldName, _), newName, _)            => newMap.put(newName, ctx(oldName))
-        case ReturnItem(_, name, _)                                          => newMap.put(name, ctx(name))
+      columns.foreach {
+        case (from, to) => to(row) = from(ctx)
       }
 
-      ctx.newFrom( newMap )
+      row
     })
   }
 
+  override def bindSlots(layout: SlotLayout) {
+    returnItems.foreach(item => layout.bind(item.expression))
+    columns = columns.map {
+      case (from, to) => (layout.slot(from.name), layout.slot(to.name))
+    }
+  }
+
   override def executionPlanDescription =
     source.executionPlanDescription
       .andThen(this, "ColumnFilter",
@@ -22,6 +22,7 @@ package org.neo4j.cypher.internal.compiler.v2_0.pipes
 import org.neo4j.cypher.internal.compiler.v2_0._
 import commands.expressions.Expression
 import symbols._
+import spill.{UnspillableValueException, SpillPartitions}
 import collection.mutable
 import org.neo4j.cypher.internal.helpers._
 
@@ -41,19 +42,49 @@ class DistinctPipe(source: Pipe, expressions: Map[String, Expression]) extends P
      * The filtering is done by extracting from the context the values of all return expressions, and keeping them
      * in a set.
      */
-    var seen = mutable.Set[NiceHasher]()
+    val seen = mutable.Set[NiceHasher]()
+    def key(ctx: ExecutionContext) = new NiceHasher(keyNames.map(ctx).toSeq)
 
-    returnExpressions.filter {
+    // Once too many distinct rows have been seen, rows with new values are written to disk and de-duplicated there
+    var spilling = state.spill.enabled
+    lazy val partitions = new SpillPartitions(state.spill, state.spillFiles)
+
+    def spill(values: NiceHasher, ctx: ExecutionContext): Boolean = try {
+      partitions.add(values.hashCode(), ctx)
+      true
+    } catch {
+      case e: UnspillableValueException =>
+        spilling = false
+        false
+    }
+
+    val inMemory = returnExpressions.filter {
        case ctx =>
-         val values = new NiceHasher(keyNames.map(ctx).toSeq)
+         val values = key(ctx)
 
          if (seen.contains(values)) {
            false
+         } else if (spilling && seen.size >= state.spill.rowThreshold && spill(values, ctx)) {
+           false
          } else {
            seen += values
            true
          }
     }
+
+    def spilled: Iterator[ExecutionContext] =
+      if (partitions.isEmpty)
+        Iterator.empty
+      else
+        partitions.read(state).flatMap(partition => {
+          val seenInPartition = mutable.Set[NiceHasher]()
+          partition.filter(ctx => {
+            val values = key(ctx)
+            !seen.contains(values) && seenInPartition.add(values)
+          })
+        })
+
+    inMemory ++ spilled
   }
 
   override def executionPlanDescription = source.executionPlanDescription.andThen(this, "Distinct")
@@ -66,4 +97,8 @@ class DistinctPipe(source: Pipe, expressions: Map[String, Expression]) extends P
   def throwIfSymbolsMissing(symbols: SymbolTable) {
     expressions.values.foreach(e => e.throwIfSymbolsMissing(symbols))
   }
+
+  override def bindSlots(layout: SlotLayout) {
+    expressions.values.foreach(layout.bind)
+  }
 }
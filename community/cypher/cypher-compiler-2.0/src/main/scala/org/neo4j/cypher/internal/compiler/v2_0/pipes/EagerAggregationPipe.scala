@@ -24,12 +24,13 @@ import org.neo4j.cypher.internal.compiler.v2_0._
 import commands.expressions.{Expression, AggregationExpression}
 import data.SimpleVal
 import symbols._
+import spill.{UnspillableValueException, SpillPartitions}
 import collection.mutable.{Map => MutableMap}
 
 // Eager aggregation means that this pipe will eagerly load the whole resulting sub graphs before starting
 // to emit aggregated results.
 // Cypher is lazy until it can't - this pipe will eagerly load the full match
-class EagerAggregationPipe(source: Pipe, val keyExpressions: Map[String, Expression], aggregations: Map[String, AggregationExpression])
+class EagerAggregationPipe(source: Pipe, val keyExpressions: Map[String, Expression], val aggregations: Map[String, AggregationExpression])
   extends PipeWithSource(source) {
   def oldKeyExpressions: Seq[Expression] = keyExpressions.values.toSeq
 
@@ -46,47 +47,92 @@ class EagerAggregationPipe(source: Pipe, val keyExpressions: Map[String, Express
     SymbolTable(keyIdentifiers ++ aggrIdentifiers)
   }
 
-  protected def internalCreateResults(input: Iterator[ExecutionContext], state: QueryState) = {
-    // This is the temporary storage used while the aggregation is going on
-    val result = MutableMap[NiceHasher, (ExecutionContext, Seq[AggregationFunction])]()
-    val keyNames: Seq[String] = keyExpressions.map(_._1).toSeq
-    val aggregationNames: Seq[String] = aggregations.map(_._1).toSeq
+  type Groups = MutableMap[NiceHasher, (ExecutionContext, Seq[AggregationFunction])]
 
-    def createResults(key: NiceHasher, aggregator: scala.Seq[AggregationFunction], ctx: ExecutionContext): ExecutionContext = {
-      val newMap = MutableMaps.empty
+  val keyNames: Seq[String] = keyExpressions.map(_._1).toSeq
+  val aggregationNames: Seq[String] = aggregations.map(_._1).toSeq
 
-      //add key values
-      (keyNames zip key.original).foreach(newMap += _)
+  def groupKey(ctx: ExecutionContext): NiceHasher = new NiceHasher(keyNames.map(ctx))
 
-      //add aggregated values
-      (aggregationNames zip aggregator.map(_.result)).foreach(newMap += _)
+  def aggregate(groups: Groups, ctx: ExecutionContext, groupValues: NiceHasher)(implicit state: QueryState) {
+    val aggregateFunctions: Seq[AggregationFunction] = aggregations.map(_._2.createAggregationFunction).toSeq
+    val (_, functions) = groups.getOrElseUpdate(groupValues, (ctx, aggregateFunctions))
+    functions.foreach(func => func(ctx)(state))
+  }
 
-      ctx.newFrom(newMap)
+  /*
+  Turns the aggregated groups into result rows, or a single row of zero values when there were no rows to aggregate
+  and no grouping keys.
+   */
+  def results(groups: Groups, state: QueryState): Iterator[ExecutionContext] =
+    if (groups.isEmpty && keyNames.isEmpty) {
+      createEmptyResult(state.params)
+    } else {
+      groups.toIterator.map {
+        case (key, (ctx, aggregator)) => createResults(key, aggregator, ctx)
+      }
     }
 
-    def createEmptyResult(params:Map[String,Any]): Iterator[ExecutionContext] = {
-      val newMap = MutableMaps.empty
-      val aggregationNamesAndFunctions = aggregationNames zip aggregations.map(_._2.createAggregationFunction.result)
+  private def createResults(key: NiceHasher, aggregator: scala.Seq[AggregationFunction], ctx: ExecutionContext): ExecutionContext = {
+    val newMap = MutableMaps.empty
+
+    //add key values
+    (keyNames zip key.original).foreach(newMap += _)
+
+    //add aggregated values
+    (aggregationNames zip aggregator.map(_.result)).foreach(newMap += _)
+
+    ctx.newFrom(newMap)
+  }
+
+  private def createEmptyResult(params:Map[String,Any]): Iterator[ExecutionContext] = {
+    val newMap = MutableMaps.empty
+    val aggregationNamesAndFunctions = aggregationNames zip aggregations.map(_._2.createAggregationFunction.result)
+
+    aggregationNamesAndFunctions.toMap
+      .foreach { case (name, zeroValue) => newMap += name -> zeroValue  }
+    Iterator.single(ExecutionContext(newMap))
+  }
 
-      aggregationNamesAndFunctions.toMap
-        .foreach { case (name, zeroValue) => newMap += name -> zeroValue  }
-      Iterator.single(ExecutionContext(newMap))
+  protected def internalCreateResults(input: Iterator[ExecutionContext], state: QueryState) = {
+    implicit val s = state
+
+    // This is the temporary storage used while the aggregation is going on
+    val result: Groups = MutableMap()
+
+    def aggregatePartition(partition: Iterator[ExecutionContext]): Iterator[ExecutionContext] = {
+      val groups: Groups = MutableMap()
+      partition.foreach(ctx => aggregate(groups, ctx, groupKey(ctx)))
+      results(groups, state)
     }
 
+    // Once there are too many groups to keep on the heap, rows for new groups are written to disk, partitioned by
+    // their group, and each partition is aggregated on its own afterwards
+    var spilling = state.spill.enabled && keyNames.nonEmpty
+    lazy val partitions = new SpillPartitions(state.spill, state.spillFiles)
+
     input.foreach(ctx => {
-      val groupValues: NiceHasher = new NiceHasher(keyNames.map(ctx))
-      val aggregateFunctions: Seq[AggregationFunction] = aggregations.map(_._2.createAggregationFunction).toSeq
-      val (_, functions) = result.getOrElseUpdate(groupValues, (ctx, aggregateFunctions))
-      functions.foreach(func => func(ctx)(state))
+      val groupValues: NiceHasher = groupKey(ctx)
+      if (spilling && result.size >= state.spill.rowThreshold && !result.contains(groupValues)) {
+        try {
+          partitions.add(groupValues.hashCode(), ctx)
+        } catch {
+          case e: UnspillableValueException =>
+            spilling = false
+            partitions.read(state).foreach(_.foreach(spilled => aggregate(result, spilled, groupKey(spilled))))
+            aggregate(result, ctx, groupValues)
+        }
+      } else {
+        aggregate(result, ctx, groupValues)
+      }
     })
 
-    if (result.isEmpty && keyNames.isEmpty) {
-      createEmptyResult(state.params)
-    } else {
-      result.map {
-        case (key, (ctx, aggregator)) => createResults(key, aggregator, ctx)
-      }.toIterator
-    }
+    val inMemory = results(result, state)
+
+    if (spilling && !partitions.isEmpty)
+      inMemory ++ partitions.read(state).flatMap(aggregatePartition)
+    else
+      inMemory
   }
 
   override def executionPlanDescription =
@@ -100,5 +146,10 @@ class EagerAggregationPipe(source: Pipe, val keyExpressions: Map[String, Express
     aggregations.foreach(_._2.throwIfSymbolsMissing(symbols))
   }
 
+  override def bindSlots(layout: SlotLayout) {
+    keyExpressions.values.foreach(layout.bind)
+    aggregations.values.foreach(layout.bind)
+  }
+
   override def isLazy = false
 }
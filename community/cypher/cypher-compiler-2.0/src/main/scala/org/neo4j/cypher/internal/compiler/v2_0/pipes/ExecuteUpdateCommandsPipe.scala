@@ -104,4 +104,8 @@ class ExecuteUpdateCommandsPipe(source: Pipe, db: GraphDatabaseService, val comm
   def throwIfSymbolsMissing(symbols: SymbolTable) {
     commands.foreach(_.throwIfSymbolsMissing(symbols))
   }
+
+  override def bindSlots(layout: SlotLayout) {
+    commands.foreach(layout.bind)
+  }
 }
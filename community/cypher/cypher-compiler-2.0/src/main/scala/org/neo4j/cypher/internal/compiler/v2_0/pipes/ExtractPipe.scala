@@ -21,21 +21,24 @@ package org.neo4j.cypher.internal.compiler.v2_0.pipes
 
 import org.neo4j.cypher.internal.compiler.v2_0._
 import commands.expressions.Expression
+import commands.{InterpretingExpressionCompiler, ExpressionCompiler}
 import data.SimpleVal
 import symbols._
 
 object ExtractPipe {
-  def apply(source: Pipe, expressions: Map[String, Expression]): ExtractPipe = source match {
+  def apply(source: Pipe, expressions: Map[String, Expression],
+            compiler: ExpressionCompiler = InterpretingExpressionCompiler): ExtractPipe = source match {
       // If we can merge the two pipes together, do it
     case p: ExtractPipe if expressions.values.forall(_.symbolDependenciesMet(p.source.symbols)) =>
-      new ExtractPipe(p.source, p.expressions ++ expressions)
+      new ExtractPipe(p.source, p.expressions ++ expressions, compiler)
 
     case _              =>
-      new ExtractPipe(source, expressions)
+      new ExtractPipe(source, expressions, compiler)
   }
 }
 
-class ExtractPipe(val source: Pipe, val expressions: Map[String, Expression]) extends PipeWithSource(source) {
+class ExtractPipe(val source: Pipe, val expressions: Map[String, Expression],
+                  val compiler: ExpressionCompiler = InterpretingExpressionCompiler) extends PipeWithSource(source) {
   val symbols: SymbolTable = {
     val newIdentifiers = expressions.map {
       case (name, expression) => name -> expression.getType(source.symbols)
@@ -44,15 +47,26 @@ class ExtractPipe(val source: Pipe, val expressions: Map[String, Expression]) ex
     source.symbols.add(newIdentifiers)
   }
 
+  @volatile private var compiledExpressions = expressions.toSeq.map {
+    case (name, expression) => new Slot(name) -> compiler.compile(expression)
+  }
+
   protected def internalCreateResults(input: Iterator[ExecutionContext], state: QueryState) = input.map(
     subgraph => {
-      expressions.foreach {
-        case (name, expression) =>
-        subgraph += name -> expression(subgraph)(state)
+      compiledExpressions.foreach {
+        case (slot, expression) =>
+        slot(subgraph) = expression(subgraph, state)
     }
     subgraph
   })
 
+  override def bindSlots(layout: SlotLayout) {
+    expressions.values.foreach(layout.bind)
+    compiledExpressions = compiledExpressions.map {
+      case (slot, expression) => layout.slot(slot.name) -> expression
+    }
+  }
+
   override def executionPlanDescription =
     source.executionPlanDescription
       .andThen(this, "Extract",
@@ -20,15 +20,18 @@
 package org.neo4j.cypher.internal.compiler.v2_0.pipes
 
 import org.neo4j.cypher.internal.compiler.v2_0._
-import commands.Predicate
+import commands.{InterpretingExpressionCompiler, ExpressionCompiler, Predicate}
 import data.SimpleVal
 import symbols._
 
-class FilterPipe(source: Pipe, val predicate: Predicate) extends PipeWithSource(source) {
+class FilterPipe(source: Pipe, val predicate: Predicate,
+                 val compiler: ExpressionCompiler = InterpretingExpressionCompiler) extends PipeWithSource(source) {
   val symbols = source.symbols
 
+  private val compiledPredicate = compiler.compile(predicate)
+
   protected def internalCreateResults(input: Iterator[ExecutionContext],state: QueryState) =
-    input.filter(ctx => predicate.isTrue(ctx)(state))
+    input.filter(ctx => compiledPredicate.isTrue(ctx, state))
 
   override def executionPlanDescription =
     source.executionPlanDescription.andThen(this, "Filter", "pred" -> SimpleVal.fromStr(predicate))
@@ -36,4 +39,8 @@ class FilterPipe(source: Pipe, val predicate: Predicate) extends PipeWithSource(
   def throwIfSymbolsMissing(symbols: SymbolTable) {
     predicate.throwIfSymbolsMissing(symbols)
   }
+
+  override def bindSlots(layout: SlotLayout) {
+    layout.bind(predicate)
+  }
 }
@@ -0,0 +1,70 @@
+/**
+ * Copyright (c) 2002-2013 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.compiler.v2_0.pipes
+
+import org.neo4j.cypher.internal.compiler.v2_0._
+import data.SimpleVal._
+import symbols._
+import org.neo4j.graphdb.Node
+import collection.mutable
+
+/*
+Joins the rows of two independent pipes on a node they both produce. The rows of the build pipe are loaded into a
+hash table keyed by the id of that node, and the rows of the probe pipe are streamed through it. Relationships
+matched on both sides must be different, just like they would be in a single pattern.
+ */
+class HashJoinPipe(val probe: Pipe, val build: Pipe, val joinKey: String, distinctRelationships: Seq[(String, String)])
+  extends Pipe {
+  protected def internalCreateResults(state: QueryState): Iterator[ExecutionContext] = {
+    val table = mutable.HashMap[Long, mutable.ArrayBuffer[ExecutionContext]]()
+
+    build.createResults(state).foreach(ctx => nodeId(ctx).foreach(
+      id => table.getOrElseUpdate(id, mutable.ArrayBuffer[ExecutionContext]()) += ctx))
+
+    if (table.isEmpty)
+      Iterator.empty
+    else
+      probe.createResults(state).flatMap(ctx => nodeId(ctx) match {
+        case Some(id) => table.getOrElse(id, Seq.empty).iterator.map(other => ctx.newWith(other)).filter(isUnique)
+        case None     => Iterator.empty
+      })
+  }
+
+  private def nodeId(ctx: ExecutionContext): Option[Long] = ctx(joinKey) match {
+    case node: Node => Some(node.getId)
+    case _          => None
+  }
+
+  private def isUnique(ctx: ExecutionContext) = distinctRelationships.forall {
+    case (a, b) => (ctx.get(a), ctx.get(b)) match {
+      case (Some(x), Some(y)) => x != y
+      case _                  => true
+    }
+  }
+
+  val symbols: SymbolTable = probe.symbols.add(build.symbols.identifiers)
+
+  def executionPlanDescription: PlanDescription = PlanDescription(this, "HashJoin", "key" -> fromStr(joinKey)).
+    withChildren(probe.executionPlanDescription, build.executionPlanDescription)
+
+  override val sources: Seq[Pipe] = Seq(probe, build)
+
+  def exists(pred: Pipe => Boolean) = pred(this) || probe.exists(pred) || build.exists(pred)
+}
@@ -25,10 +25,17 @@ object MutableMaps {
 
   def empty : collection.mutable.Map[String, Any] = create(16)
 
-  def create(input: scala.collection.Map[String, Any]) : collection.mutable.Map[String, Any] = {
-    val m = create(input.size)
-    input.foreach( (kv) => m.put(kv._1,kv._2))
-    m
+  def create(input: scala.collection.Map[String, Any]) : collection.mutable.Map[String, Any] = input match {
+    case slots: SlotMap => slots.copy()
+    case _              =>
+      val m = create(input.size)
+      input.foreach( (kv) => m.put(kv._1,kv._2))
+      m
+  }
+
+  def emptyLike(input: scala.collection.Map[String, Any]) : collection.mutable.Map[String, Any] = input match {
+    case slots: SlotMap => slots.empty
+    case _              => empty
   }
 
   def create(input: (String, Any)*) : collection.mutable.Map[String, Any] = {
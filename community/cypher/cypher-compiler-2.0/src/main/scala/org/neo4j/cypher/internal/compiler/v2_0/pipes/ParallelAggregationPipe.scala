@@ -0,0 +1,168 @@
+/**
+ * Copyright (c) 2002-2013 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.compiler.v2_0.pipes
+
+import aggregation.MergeableAggregationFunction
+import org.neo4j.cypher.internal.compiler.v2_0._
+import data.SimpleVal
+import symbols._
+import spi.{QueryContext, ReadOnlyWorkers}
+import java.util.concurrent._
+import java.util.concurrent.atomic.AtomicBoolean
+import collection.mutable.{Map => MutableMap}
+
+/*
+Runs an aggregation over a label or all nodes scan on several threads. The calling thread runs the scan and hands out
+batches of consecutive node ids. Each worker runs on a thread of the database's job scheduler with a read only
+transaction of its own, runs the filters and projections between the scan and the aggregation over its batches, and
+aggregates into groups of its own. The partial aggregates of the workers are merged at the end.
+
+When the query context can not hand out read only workers, which among other things is the case when the transaction
+of the query has changes that the workers wouldn't see, or the query is being profiled, the aggregation runs on the
+calling thread as usual.
+ */
+class ParallelAggregationPipe(aggregation: EagerAggregationPipe, workers: Int, batchSize: Int = 10000) extends Pipe {
+  private val scan: NodeStartPipe = ParallelAggregationPipe.scanBelow(aggregation.sources.head).getOrElse(
+    throw new IllegalArgumentException("Can only aggregate in parallel directly over a node scan"))
+
+  protected def internalCreateResults(state: QueryState): Iterator[ExecutionContext] =
+    state.query.readOnlyWorkers match {
+      case Some(readOnlyWorkers) if state.decorator == NullDecorator => aggregateInParallel(readOnlyWorkers, state)
+      case _                                                         => aggregation.createResults(state)
+    }
+
+  private def aggregateInParallel(readOnlyWorkers: ReadOnlyWorkers, state: QueryState): Iterator[ExecutionContext] = {
+    val batches = new ArrayBlockingQueue[Array[Long]](workers * 2)
+    val scanDone = new AtomicBoolean(false)
+
+    val tasks = (1 to workers).map(_ =>
+      readOnlyWorkers.submit(context => aggregateBatches(batches, scanDone.get, context, state)))
+    try {
+      val ids = scan.producer(state.newExecutionContext(), state).map(_.getId)
+      ids.grouped(batchSize).takeWhile(batch => offer(batches, batch.toArray, tasks)).foreach(_ => ())
+      scanDone.set(true)
+
+      val partials = tasks.map(task => try {
+        task.get()
+      } catch {
+        case e: ExecutionException => throw e.getCause
+      })
+
+      aggregation.results(merge(partials, state), state)
+    } finally {
+      scanDone.set(true)
+      tasks.foreach(_.cancel(true))
+    }
+  }
+
+  /*
+  Waits for room in the queue, unless a worker has stopped, which means it failed.
+   */
+  private def offer(batches: BlockingQueue[Array[Long]], batch: Array[Long], tasks: Seq[Future[_]]): Boolean = {
+    while (!batches.offer(batch, 100, TimeUnit.MILLISECONDS)) {
+      if (tasks.exists(_.isDone))
+        return false
+    }
+    true
+  }
+
+  private def aggregateBatches(batches: BlockingQueue[Array[Long]], scanDone: => Boolean, context: QueryContext,
+                               state: QueryState): aggregation.Groups = {
+    implicit val workerState = state.copy(inner = context)
+    val feed = new FeedPipe(scan.symbols)
+    val pipeline = ParallelAggregationPipe.rebuild(aggregation.sources.head, feed)
+    val groups: aggregation.Groups = MutableMap()
+
+    var batch = batches.poll(100, TimeUnit.MILLISECONDS)
+    while (batch != null || !scanDone || !batches.isEmpty) {
+      if (batch != null) {
+        feed.rows = batch.iterator.map(id =>
+          workerState.newExecutionContext() += scan.identifierName -> context.nodeOps.getById(id))
+        pipeline.createResults(workerState).foreach(ctx =>
+          aggregation.aggregate(groups, ctx, aggregation.groupKey(ctx)))
+      }
+      batch = batches.poll(100, TimeUnit.MILLISECONDS)
+    }
+    groups
+  }
+
+  private def merge(partials: Seq[aggregation.Groups], state: QueryState): aggregation.Groups = {
+    implicit val s = state
+    val result = partials.head
+    partials.tail.foreach(_.foreach {
+      case (key, (ctx, functions)) => result.get(key) match {
+        case Some((_, existing)) => existing.zip(functions).foreach {
+          case (into, from) => into.asInstanceOf[MergeableAggregationFunction].merge(from)
+        }
+        case None                => result(key) = (ctx, functions)
+      }
+    })
+    result
+  }
+
+  def symbols: SymbolTable = aggregation.symbols
+
+  def executionPlanDescription =
+    aggregation.executionPlanDescription.andThen(this, "ParallelAggregation", "workers" -> SimpleVal.fromStr(workers))
+
+  override val sources: Seq[Pipe] = Seq(aggregation)
+
+  def exists(pred: Pipe => Boolean) = pred(this) || aggregation.exists(pred)
+
+  override def isLazy = false
+
+  /*
+  The leaf of a worker's pipeline, producing the rows of the batch the worker is currently working on.
+   */
+  private class FeedPipe(val symbols: SymbolTable) extends Pipe {
+    var rows: Iterator[ExecutionContext] = Iterator.empty
+
+    protected def internalCreateResults(state: QueryState) = rows
+
+    def executionPlanDescription = NullPlanDescription
+
+    def exists(pred: Pipe => Boolean) = pred(this)
+  }
+}
+
+object ParallelAggregationPipe {
+  private val ParallelScans = Set("NodeByLabel", "AllNodes")
+
+  /*
+  Whether an aggregation can run in parallel: it only has filters and projections between itself and a label or all
+  nodes scan, and all of its aggregation functions can be merged.
+   */
+  def canRunInParallel(aggregation: EagerAggregationPipe): Boolean =
+    scanBelow(aggregation.sources.head).nonEmpty &&
+      aggregation.aggregations.values.forall(_.createAggregationFunction.isInstanceOf[MergeableAggregationFunction])
+
+  private def scanBelow(pipe: Pipe): Option[NodeStartPipe] = pipe match {
+    case p: NodeStartPipe if p.sources.head == NullPipe && ParallelScans(p.producer.name) => Some(p)
+    case p: FilterPipe                                                                   => scanBelow(p.sources.head)
+    case p: ExtractPipe                                                                  => scanBelow(p.source)
+    case _                                                                               => None
+  }
+
+  private def rebuild(pipe: Pipe, leaf: Pipe): Pipe = pipe match {
+    case p: NodeStartPipe => leaf
+    case p: FilterPipe    => new FilterPipe(rebuild(p.sources.head, leaf), p.predicate, p.compiler)
+    case p: ExtractPipe   => new ExtractPipe(rebuild(p.source, leaf), p.expressions, p.compiler)
+  }
+}
@@ -49,6 +49,12 @@ trait Pipe {
 
   def sources: Seq[Pipe] = Seq.empty
 
+  /*
+  Called once when the plan is built, to resolve the identifiers this pipe reads and writes to their slots in the
+  layout of the plan. Pipes that do not bind anything keep accessing rows by name.
+   */
+  def bindSlots(layout: SlotLayout) {}
+
   /*
   Runs the predicate on all the inner Pipe until no pipes are left, or one returns true.
    */
@@ -56,7 +62,7 @@ trait Pipe {
 }
 
 object NullPipe extends Pipe {
-  def internalCreateResults(state: QueryState) = Iterator.single(ExecutionContext.empty)
+  def internalCreateResults(state: QueryState) = Iterator.single(state.newExecutionContext())
 
   val symbols: SymbolTable = SymbolTable()
 
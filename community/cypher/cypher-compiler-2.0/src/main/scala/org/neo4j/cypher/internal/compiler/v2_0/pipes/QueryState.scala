@@ -20,6 +20,7 @@
 package org.neo4j.cypher.internal.compiler.v2_0.pipes
 
 import optional.Listener
+import spill.{SpillFiles, SpillSettings}
 import org.neo4j.cypher.internal.compiler.v2_0._
 import org.neo4j.cypher.internal.compiler.v2_0.spi.{QueryContext, UpdateCountingQueryContext}
 import org.neo4j.cypher.{InternalException, ParameterNotFoundException}
@@ -33,7 +34,10 @@ case class QueryState(db: GraphDatabaseService,
                       params: Map[String, Any],
                       decorator: PipeDecorator,
                       timeReader: TimeReader = new TimeReader,
-                      listenerDelegate: ListenerDelegate = new ListenerDelegate()) {
+                      listenerDelegate: ListenerDelegate = new ListenerDelegate(),
+                      slots: SlotLayout = new SlotLayout(),
+                      spill: SpillSettings = SpillSettings.disabled,
+                      spillFiles: SpillFiles = new SpillFiles) {
 
   def listener_=(newListener: Listener[ExecutionContext]) {
     assert(listenerDelegate.delegate.isEmpty, "Should not set a listener when one already exists")
@@ -61,6 +65,8 @@ case class QueryState(db: GraphDatabaseService,
     params.getOrElse(key, throw new ParameterNotFoundException("Expected a parameter named " + key))
 
   def getStatistics = updateTrackingQryCtx.getStatistics
+
+  def newExecutionContext(): ExecutionContext = ExecutionContext(new SlotMap(slots))
 }
 
 class TimeReader {
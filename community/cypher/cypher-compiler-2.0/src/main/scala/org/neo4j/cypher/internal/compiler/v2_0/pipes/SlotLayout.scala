@@ -0,0 +1,116 @@
+/**
+ * Copyright (c) 2002-2013 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.compiler.v2_0.pipes
+
+import org.neo4j.cypher.internal.compiler.v2_0.ExecutionContext
+import org.neo4j.cypher.internal.compiler.v2_0.commands.AstNode
+import org.neo4j.cypher.internal.compiler.v2_0.commands.expressions.Identifier
+
+/*
+Assigns every identifier of a query an offset into the value array of a SlotMap. The identifiers known when the
+plan is built get their slots up front, and the pipes and identifier expressions of the plan are bound to those
+offsets, so rows are read and written by index rather than by name. Identifiers that only show up at runtime are
+given the next free slot. Slots are never moved, and the name to slot map is replaced rather than changed, which
+is why the layout is safe to share between concurrent executions of the same plan.
+ */
+class SlotLayout(identifiers: Iterable[String] = Seq.empty) {
+  @volatile private var slots: Map[String, Int] = Map.empty
+  @volatile private var names: Array[String] = Array.empty
+
+  identifiers.foreach(slotFor)
+
+  def size: Int = names.length
+
+  def slotOf(key: String): Int = slots.getOrElse(key, -1)
+
+  def slotFor(key: String): Int = slots.get(key) match {
+    case Some(slot) => slot
+    case None       => allocate(key)
+  }
+
+  def nameOf(slot: Int): String = names(slot)
+
+  /*
+  Resolves the identifier to its slot, for pipes to read and write it by index
+   */
+  def slot(key: String): Slot = new Slot(key, this, slotFor(key))
+
+  /*
+  Binds the identifier expressions found in the given expressions, predicates or commands to their slots
+   */
+  def bind(node: AstNode[_]) {
+    node.visit {
+      case identifier: Identifier => identifier.bind(this)
+    }
+  }
+
+  private def allocate(key: String): Int = synchronized {
+    slots.get(key) match {
+      case Some(slot) => slot
+      case None       =>
+        val slot = names.length
+        names = names :+ key
+        slots = slots + (key -> slot)
+        slot
+    }
+  }
+
+  override def toString = names.mkString("SlotLayout(", ", ", ")")
+}
+
+object SlotLayout {
+  /*
+  Lays out the identifiers of the plan, and binds its pipes to the layout
+   */
+  def apply(pipe: Pipe): SlotLayout = {
+    val layout = new SlotLayout(identifiersOf(pipe).distinct)
+    bind(pipe, layout)
+    layout
+  }
+
+  private def identifiersOf(pipe: Pipe): Seq[String] =
+    pipe.sources.flatMap(identifiersOf) ++ pipe.symbols.keys
+
+  private def bind(pipe: Pipe, layout: SlotLayout) {
+    pipe.sources.foreach(bind(_, layout))
+    pipe.bindSlots(layout)
+  }
+}
+
+/*
+An identifier resolved to its offset in a layout. Rows of that layout are accessed at the offset, and any other
+row, such as one read back from a spill file or one of a plan built from the same expressions, by name. A slot
+that is not bound to any layout always goes by name.
+ */
+final class Slot(val name: String, layout: SlotLayout = null, offset: Int = -1) {
+  def get(ctx: ExecutionContext): Option[Any] = ctx.m match {
+    case row: SlotMap if row.layout eq layout => row.getAt(offset)
+    case m                                    => m.get(name)
+  }
+
+  def apply(ctx: ExecutionContext): Any = get(ctx).getOrElse(throw new NoSuchElementException("key not found: " + name))
+
+  def update(ctx: ExecutionContext, value: Any) {
+    ctx.m match {
+      case row: SlotMap if row.layout eq layout => row.setAt(offset, value)
+      case m                                    => m += name -> value
+    }
+  }
+}
@@ -0,0 +1,127 @@
+/**
+ * Copyright (c) 2002-2013 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.compiler.v2_0.pipes
+
+import collection.mutable
+
+/*
+A row of a query result, stored as an array indexed by the slots of a SlotLayout instead of as a hash map.
+
+Copying a SlotMap shares the cell array between the copies, and whichever copy is written to first takes a
+private copy of the array. Pipes that only add to the row they are given never copy anything, and pipes that
+produce several rows from one only pay for an array copy per row.
+ */
+class SlotMap private(val layout: SlotLayout, private var cells: Array[Any], private var owned: Boolean)
+  extends mutable.Map[String, Any] {
+
+  def this(layout: SlotLayout) = this(layout, new Array[Any](layout.size), true)
+
+  def get(key: String): Option[Any] = getAt(layout.slotOf(key))
+
+  /*
+  Reads the slot a pipe or identifier was bound to when the plan was built
+   */
+  def getAt(slot: Int): Option[Any] =
+    if (slot < 0 || slot >= cells.length)
+      None
+    else cells(slot) match {
+      case null              => None
+      case SlotMap.NullValue => Some(null)
+      case value             => Some(value)
+    }
+
+  override def contains(key: String): Boolean = {
+    val slot = layout.slotOf(key)
+    slot >= 0 && slot < cells.length && cells(slot) != null
+  }
+
+  def +=(kv: (String, Any)): this.type = {
+    setAt(layout.slotFor(kv._1), kv._2)
+    this
+  }
+
+  def setAt(slot: Int, value: Any) {
+    makeWritable(slot)
+    cells(slot) = if (value == null) SlotMap.NullValue else value
+  }
+
+  def -=(key: String): this.type = {
+    if (contains(key)) {
+      val slot = layout.slotOf(key)
+      makeWritable(slot)
+      cells(slot) = null
+    }
+    this
+  }
+
+  def iterator: Iterator[(String, Any)] =
+    cells.indices.iterator.filter(cells(_) != null).map(slot => (layout.nameOf(slot), valueAt(slot)))
+
+  override def foreach[U](f: ((String, Any)) => U) {
+    var slot = 0
+    while (slot < cells.length) {
+      if (cells(slot) != null)
+        f((layout.nameOf(slot), valueAt(slot)))
+      slot += 1
+    }
+  }
+
+  override def size: Int = {
+    var count = 0
+    var slot = 0
+    while (slot < cells.length) {
+      if (cells(slot) != null)
+        count += 1
+      slot += 1
+    }
+    count
+  }
+
+  override def empty: SlotMap = new SlotMap(layout)
+
+  /*
+  Returns a copy sharing the cells of this map until either of them is written to
+   */
+  def copy(): SlotMap = {
+    owned = false
+    new SlotMap(layout, cells, false)
+  }
+
+  override def clone(): SlotMap = copy()
+
+  private def valueAt(slot: Int): Any = cells(slot) match {
+    case SlotMap.NullValue => null
+    case value            => value
+  }
+
+  private def makeWritable(slot: Int) {
+    if (!owned || slot >= cells.length) {
+      val newCells = new Array[Any](math.max(cells.length, math.max(slot + 1, layout.size)))
+      System.arraycopy(cells, 0, newCells, 0, cells.length)
+      cells = newCells
+      owned = true
+    }
+  }
+}
+
+object SlotMap {
+  // Marks a slot holding null, as opposed to an empty slot
+  private case object NullValue
+}
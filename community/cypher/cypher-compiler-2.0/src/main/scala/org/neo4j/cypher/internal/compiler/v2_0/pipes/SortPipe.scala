@@ -22,14 +22,42 @@ package org.neo4j.cypher.internal.compiler.v2_0.pipes
 import org.neo4j.cypher.internal.compiler.v2_0._
 import commands.SortItem
 import symbols._
+import spill.{UnspillableValueException, SpillFile}
 import scala.math.signum
+import collection.mutable.ArrayBuffer
 
 class SortPipe(source: Pipe, sortDescription: List[SortItem]) extends PipeWithSource(source) with ExecutionContextComparer {
   def symbols = source.symbols
 
-  protected def internalCreateResults(input: Iterator[ExecutionContext], state: QueryState) =
-    input.toList.
-      sortWith((a, b) => compareBy(a, b, sortDescription)(state)).iterator
+  protected def internalCreateResults(input: Iterator[ExecutionContext], state: QueryState): Iterator[ExecutionContext] = {
+    val lessThan = (a: ExecutionContext, b: ExecutionContext) => compareBy(a, b, sortDescription)(state)
+    val runs = ArrayBuffer[SpillFile]()
+    var buffer = ArrayBuffer[ExecutionContext]()
+    var spilling = state.spill.enabled
+
+    // Sorted runs of rows are written to disk whenever the buffer grows too large, and merged at the end
+    input.foreach(ctx => {
+      buffer += ctx
+      if (spilling && buffer.size >= state.spill.rowThreshold) {
+        val run = state.spillFiles.create(state.spill.directory)
+        try {
+          buffer.sortWith(lessThan).foreach(run.write)
+          runs += run
+          buffer = ArrayBuffer[ExecutionContext]()
+        } catch {
+          case e: UnspillableValueException =>
+            run.delete()
+            spilling = false
+        }
+      }
+    })
+
+    val inMemory = buffer.sortWith(lessThan).iterator
+    if (runs.isEmpty)
+      inMemory
+    else
+      new MergingIterator(runs.map(_.read(state)) :+ inMemory, lessThan)
+  }
 
   def throwIfSymbolsMissing(symbols: SymbolTable) {
     sortDescription.foreach {
@@ -37,11 +65,50 @@ class SortPipe(source: Pipe, sortDescription: List[SortItem]) extends PipeWithSo
     }
   }
 
+  override def bindSlots(layout: SlotLayout) {
+    sortDescription.foreach(item => layout.bind(item.expression))
+  }
+
   override def executionPlanDescription = source.executionPlanDescription.andThen(this, "Sort", "descr" -> sortDescription)
 
   override def isLazy = false
 }
 
+/*
+Merges already sorted iterators. When rows compare as equal, the one from the earliest iterator comes first, which
+keeps the sort stable.
+ */
+class MergingIterator(runs: Seq[Iterator[ExecutionContext]], lessThan: (ExecutionContext, ExecutionContext) => Boolean)
+  extends Iterator[ExecutionContext] {
+
+  private case class Head(row: ExecutionContext, run: Int)
+
+  private val heads = new java.util.PriorityQueue[Head](math.max(runs.size, 1), new java.util.Comparator[Head] {
+    def compare(a: Head, b: Head): Int =
+      if (lessThan(a.row, b.row)) -1
+      else if (lessThan(b.row, a.row)) 1
+      else a.run - b.run
+  })
+
+  runs.indices.foreach(advance)
+
+  private def advance(run: Int) {
+    if (runs(run).hasNext)
+      heads.add(Head(runs(run).next(), run))
+  }
+
+  def hasNext: Boolean = !heads.isEmpty
+
+  def next(): ExecutionContext = {
+    if (heads.isEmpty)
+      throw new NoSuchElementException("No more rows")
+
+    val head = heads.poll()
+    advance(head.run)
+    head.row
+  }
+}
+
 trait ExecutionContextComparer extends Comparer {
   def compareBy(a: ExecutionContext, b: ExecutionContext, order: Seq[SortItem])(implicit qtx: QueryState): Boolean = order match {
     case Nil => false
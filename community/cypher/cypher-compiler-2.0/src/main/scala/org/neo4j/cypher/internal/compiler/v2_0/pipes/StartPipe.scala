@@ -29,6 +29,10 @@ abstract class StartPipe[T <: PropertyContainer](source: Pipe, name: String, cre
 
   val symbols = source.symbols.add(name, identifierType)
 
+  def identifierName: String = name
+
+  def producer: EntityProducer[T] = createSource
+
   protected def internalCreateResults(input: Iterator[ExecutionContext], state: QueryState) = {
     input.flatMap(ctx => {
       val source = createSource(ctx, state)
@@ -88,5 +88,9 @@ class TopPipe(source: Pipe, sortDescription: List[SortItem], countExpression: Ex
     countExpression.evaluateType(NumberType(), symbols)
   }
 
+  override def bindSlots(layout: SlotLayout) {
+    sortDescription.foreach(item => layout.bind(item.expression))
+  }
+
   override def isLazy = false
 }
@@ -0,0 +1,161 @@
+/**
+ * Copyright (c) 2002-2013 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.compiler.v2_0.pipes
+
+import org.neo4j.cypher.internal.compiler.v2_0._
+import commands.VarLengthRelatedTo
+import data.SimpleVal._
+import spi.QueryContext
+import symbols._
+import org.neo4j.cypher.internal.PathImpl
+import org.neo4j.graphdb.{PropertyContainer, Relationship, Node, Direction}
+import org.neo4j.helpers.collection.primitive.{Primitive, PrimitiveLongObjectMap}
+import collection.mutable.ArrayBuffer
+
+/*
+Expands a bounded variable length pattern between two nodes that are already bound.
+
+First, a breadth first search is run from both ends at the same time, always growing the side with the smallest
+frontier, until the two sides meet or the maximum length has been used up. If they never meet, there is no path and
+nothing more has to be done. If they do, the paths are enumerated depth first from the start node. The depths found
+by the search from the end node give a lower bound of the distance left to the end node, and every branch that can't
+reach the end node within the maximum length is cut off. Relationships are fetched by type and direction, so the
+store only hands back relationships that can be part of a matching path. For dense nodes that means only walking the
+chains of the relationship groups of those types and that direction.
+ */
+class VarLengthExpandPipe(source: Pipe, pattern: VarLengthRelatedTo) extends PipeWithSource(source) {
+  private val start = pattern.left.name
+  private val end = pattern.right.name
+  private val min = pattern.minHops.getOrElse(1)
+  private val max = pattern.maxHops.getOrElse(throw new IllegalArgumentException("Only bounded patterns can be expanded here: " + pattern))
+  private val types = pattern.relTypes
+  private val forward = pattern.direction
+  private val backward = pattern.direction.reverse()
+
+  protected def internalCreateResults(input: Iterator[ExecutionContext], state: QueryState) =
+    input.flatMap(ctx => (ctx(start), ctx(end)) match {
+      case (from: Node, to: Node) => paths(from, to, state.query).map(row(ctx, _))
+      case _                      => Iterator.empty
+    })
+
+  private def row(ctx: ExecutionContext, path: Seq[PropertyContainer]): ExecutionContext = {
+    val result = ctx.newWith(pattern.pathName -> PathImpl(path: _*))
+    pattern.relIterator.foreach(key => result += key -> path.collect { case r: Relationship => r })
+    result
+  }
+
+  private def paths(from: Node, to: Node, query: QueryContext): Iterator[Seq[PropertyContainer]] =
+    search(from, to, query) match {
+      case None                => Iterator.empty
+      case Some(distanceToEnd) =>
+        val target = to.getId
+
+        def expand(node: Node, nodes: List[Node], rels: List[Relationship]): Iterator[Seq[PropertyContainer]] = {
+          val depth = rels.size
+          val here =
+            if (depth >= min && node.getId == target) Iterator(interleave(nodes.reverse, rels.reverse))
+            else Iterator.empty
+
+          def further =
+            if (depth == max) Iterator.empty
+            else query.getRelationshipsFor(node, forward, types).filterNot(rels.contains).flatMap(rel => {
+              val next = rel.getOtherNode(node)
+              if (depth + 1 + distanceToEnd(next.getId) <= max) expand(next, next :: nodes, rel :: rels)
+              else Iterator.empty
+            })
+
+          here ++ further
+        }
+
+        expand(from, List(from), List.empty)
+    }
+
+  /*
+  Runs the breadth first search from both ends. If the ends are connected by a path that is short enough, this returns
+  a function giving a lower bound of the distance from any node to the end node. Each side maps the ids of the nodes it
+  has reached to the depth it first reached them at.
+   */
+  private def search(from: Node, to: Node, query: QueryContext): Option[Long => Int] = {
+    val seenFromStart = Primitive.longObjectMap[Integer]()
+    val seenFromEnd = Primitive.longObjectMap[Integer]()
+    var startFrontier = Seq(from)
+    var endFrontier = Seq(to)
+    var startDepth = 0
+    var endDepth = 0
+    var met = from.getId == to.getId
+
+    seenFromStart.put(from.getId, 0)
+    seenFromEnd.put(to.getId, 0)
+
+    def grow(frontier: Seq[Node], dir: Direction, depth: Int, seen: PrimitiveLongObjectMap[Integer],
+             other: PrimitiveLongObjectMap[Integer]): Seq[Node] = {
+      val next = new ArrayBuffer[Node]
+      frontier.foreach(node => query.getRelationshipsFor(node, dir, types).foreach(rel => {
+        val neighbour = rel.getOtherNode(node)
+        if (other.containsKey(neighbour.getId))
+          met = true
+        if (!seen.containsKey(neighbour.getId)) {
+          seen.put(neighbour.getId, depth + 1)
+          next += neighbour
+        }
+      }))
+      next
+    }
+
+    while (!met && startDepth + endDepth < max && startFrontier.nonEmpty && endFrontier.nonEmpty) {
+      if (startFrontier.size <= endFrontier.size) {
+        startFrontier = grow(startFrontier, forward, startDepth, seenFromStart, seenFromEnd)
+        startDepth += 1
+      } else {
+        endFrontier = grow(endFrontier, backward, endDepth, seenFromEnd, seenFromStart)
+        endDepth += 1
+      }
+    }
+
+    if (!met)
+      None
+    else {
+      // Nodes the end side has not reached are at least one step further away than its last finished level
+      val exhausted = endFrontier.isEmpty
+      val unseen = if (exhausted) max + 1 else endDepth + 1
+      Some(id => seenFromEnd.get(id) match {
+        case null => unseen
+        case d    => d.intValue()
+      })
+    }
+  }
+
+  private def interleave(nodes: List[Node], rels: List[Relationship]): Seq[PropertyContainer] =
+    nodes.head +: rels.zip(nodes.tail).flatMap { case (r, n) => Seq(r, n) }
+
+  // Declared like the pattern matcher declares variable length paths, which named paths are built from
+  val symbols = {
+    val withPath = source.symbols.add(pattern.pathName, CollectionType(RelationshipType()))
+    pattern.relIterator.map(withPath.add(_, CollectionType(RelationshipType()))).getOrElse(withPath)
+  }
+
+  override def executionPlanDescription =
+    source.executionPlanDescription.andThen(this, "VarLengthExpand", "pattern" -> fromStr(pattern))
+
+  def throwIfSymbolsMissing(symbols: SymbolTable) {
+    symbols.evaluateType(pattern.left.name, NodeType())
+    symbols.evaluateType(pattern.right.name, NodeType())
+  }
+}
@@ -39,3 +39,15 @@ abstract class AggregationFunction {
   def result: Any
 }
 
+/**
+ * An aggregation function that can be computed in parts, for example on
+ * different threads, with the parts combined afterwards.
+ */
+trait MergeableAggregationFunction extends AggregationFunction {
+  /**
+   * Adds the aggregated total of another function of the same kind to
+   * this one.
+   */
+  def merge(other: AggregationFunction)(implicit state: QueryState)
+}
+
@@ -25,7 +25,7 @@ import pipes.QueryState
 import org.neo4j.cypher.internal.helpers._
 
 class AvgFunction(val value: Expression)
-  extends AggregationFunction
+  extends MergeableAggregationFunction
   with TypeSafeMathSupport
   with NumericExpressionOnly {
 
@@ -46,4 +46,10 @@ class AvgFunction(val value: Expression)
       sofar = plus(sofar, number)
     })
   }
+
+  def merge(other: AggregationFunction)(implicit state: QueryState) {
+    val that = other.asInstanceOf[AvgFunction]
+    count += that.count
+    sofar = plus(sofar, that.sofar)
+  }
 }
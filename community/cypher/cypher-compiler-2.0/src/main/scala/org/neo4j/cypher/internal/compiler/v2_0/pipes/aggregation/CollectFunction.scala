@@ -24,7 +24,7 @@ import commands.expressions.Expression
 import pipes.QueryState
 import collection.mutable.ListBuffer
 
-class CollectFunction(value:Expression) extends AggregationFunction {
+class CollectFunction(value:Expression) extends MergeableAggregationFunction {
   val collection = new ListBuffer[Any]()
 
   def apply(data: ExecutionContext)(implicit state:QueryState) {
@@ -34,5 +34,9 @@ class CollectFunction(value:Expression) extends AggregationFunction {
     }
   }
 
+  def merge(other: AggregationFunction)(implicit state: QueryState) {
+    collection ++= other.asInstanceOf[CollectFunction].collection
+  }
+
   def result: Any = collection.toSeq
 }
@@ -23,7 +23,7 @@ import org.neo4j.cypher.internal.compiler.v2_0._
 import commands.expressions.Expression
 import pipes.QueryState
 
-class CountFunction(value: Expression) extends AggregationFunction {
+class CountFunction(value: Expression) extends MergeableAggregationFunction {
   var count: Long = 0
 
   def apply(data: ExecutionContext)(implicit state: QueryState) {
@@ -33,5 +33,9 @@ class CountFunction(value: Expression) extends AggregationFunction {
     }
   }
 
+  def merge(other: AggregationFunction)(implicit state: QueryState) {
+    count += other.asInstanceOf[CountFunction].count
+  }
+
   def result: Long = count
 }
@@ -24,7 +24,7 @@ import commands.expressions.Expression
 import pipes.QueryState
 import org.neo4j.cypher.SyntaxException
 
-trait MinMax extends AggregationFunction with Comparer {
+trait MinMax extends MergeableAggregationFunction with Comparer {
   def value: Expression
   def keep(comparisonResult: Int): Boolean
 
@@ -40,6 +40,12 @@ trait MinMax extends AggregationFunction with Comparer {
     }
   }
 
+  def merge(other: AggregationFunction)(implicit state: QueryState) {
+    val that = other.asInstanceOf[MinMax]
+    if (that.biggestSeen != null)
+      checkIfLargest(that.biggestSeen)
+  }
+
   private def checkIfLargest(value: Any)(implicit qtx: QueryState) {
     if (biggestSeen == null) {
       biggestSeen = value
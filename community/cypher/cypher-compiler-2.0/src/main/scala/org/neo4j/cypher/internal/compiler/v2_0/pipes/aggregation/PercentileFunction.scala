@@ -24,7 +24,7 @@ import commands.expressions.{Expression, NumericHelper}
 import pipes.QueryState
 
 class PercentileContFunction(val value: Expression, val percentile: Expression)
-  extends AggregationFunction
+  extends MergeableAggregationFunction
   with NumericExpressionOnly
   with NumericHelper {
 
@@ -57,10 +57,17 @@ class PercentileContFunction(val value: Expression, val percentile: Expression)
       temp = temp :+ number
     })
   }
+
+  def merge(other: AggregationFunction)(implicit state: QueryState) {
+    val that = other.asInstanceOf[PercentileContFunction]
+    if (count < 1) perc = that.perc
+    count += that.count
+    temp = temp ++ that.temp
+  }
 }
 
 class PercentileDiscFunction(val value: Expression, val percentile: Expression)
-  extends AggregationFunction
+  extends MergeableAggregationFunction
   with NumericExpressionOnly
   with NumericHelper {
 
@@ -93,4 +100,11 @@ class PercentileDiscFunction(val value: Expression, val percentile: Expression)
       temp = temp :+ number
     })
   }
+
+  def merge(other: AggregationFunction)(implicit state: QueryState) {
+    val that = other.asInstanceOf[PercentileDiscFunction]
+    if (count < 1) perc = that.perc
+    count += that.count
+    temp = temp ++ that.temp
+  }
 }
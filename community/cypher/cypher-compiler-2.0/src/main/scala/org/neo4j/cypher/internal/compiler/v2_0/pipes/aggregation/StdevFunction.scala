@@ -24,7 +24,7 @@ import commands.expressions.{Expression, NumericHelper}
 import pipes.QueryState
 
 class StdevFunction(val value: Expression, val population:Boolean)
-  extends AggregationFunction
+  extends MergeableAggregationFunction
   with NumericExpressionOnly
   with NumericHelper {
 
@@ -60,4 +60,11 @@ class StdevFunction(val value: Expression, val population:Boolean)
       temp = temp :+ asDouble(number)
     })
   }
+
+  def merge(other: AggregationFunction)(implicit state: QueryState) {
+    val that = other.asInstanceOf[StdevFunction]
+    count += that.count
+    total += that.total
+    temp = temp ++ that.temp
+  }
 }
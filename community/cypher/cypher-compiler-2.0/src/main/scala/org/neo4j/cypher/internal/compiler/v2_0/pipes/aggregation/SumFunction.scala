@@ -25,7 +25,7 @@ import pipes.QueryState
 import org.neo4j.cypher.internal.helpers._
 
 class SumFunction(val value: Expression)
-  extends AggregationFunction
+  extends MergeableAggregationFunction
   with TypeSafeMathSupport
   with NumericExpressionOnly {
 
@@ -38,4 +38,8 @@ class SumFunction(val value: Expression)
       result = plus(result, number)
     })
   }
+
+  def merge(other: AggregationFunction)(implicit state: QueryState) {
+    result = plus(result, other.result)
+  }
 }
@@ -0,0 +1,184 @@
+/**
+ * Copyright (c) 2002-2013 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.compiler.v2_0.pipes.spill
+
+import java.io.{DataInput, DataOutput}
+import java.nio.charset.Charset
+import org.neo4j.cypher.internal.compiler.v2_0.ExecutionContext
+import org.neo4j.cypher.internal.compiler.v2_0.pipes.QueryState
+import org.neo4j.graphdb.{Relationship, Node}
+
+/*
+Thrown when a row holds a value that can not be written to a spill file, such as a path. Rows like that stay on
+the heap.
+ */
+class UnspillableValueException(value: Any)
+  extends RuntimeException("Can not spill values of type " + value.getClass.getName)
+
+/*
+Writes rows to spill files and reads them back. Nodes and relationships are written as their ids and looked up
+again when read, all other values are written as they are, keeping their exact types.
+ */
+object RowCodec {
+  private val UTF8 = Charset.forName("UTF-8")
+
+  private final val NULL = 0
+  private final val BOOLEAN = 1
+  private final val BYTE = 2
+  private final val SHORT = 3
+  private final val INT = 4
+  private final val LONG = 5
+  private final val FLOAT = 6
+  private final val DOUBLE = 7
+  private final val CHAR = 8
+  private final val STRING = 9
+  private final val NODE = 10
+  private final val RELATIONSHIP = 11
+  private final val ARRAY = 12
+  private final val SEQ = 13
+  private final val MAP = 14
+
+  private val ArrayTypes: Map[Class[_], Int] = Map(
+    classOf[Boolean] -> BOOLEAN,
+    classOf[Byte] -> BYTE,
+    classOf[Short] -> SHORT,
+    classOf[Int] -> INT,
+    classOf[Long] -> LONG,
+    classOf[Float] -> FLOAT,
+    classOf[Double] -> DOUBLE,
+    classOf[Char] -> CHAR,
+    classOf[String] -> STRING)
+
+  def write(out: DataOutput, row: ExecutionContext) {
+    out.writeInt(row.size)
+    row.foreach {
+      case (key, value) =>
+        out.writeUTF(key)
+        writeValue(out, value)
+    }
+  }
+
+  def read(in: DataInput, state: QueryState): ExecutionContext = {
+    val row = state.newExecutionContext()
+    var entries = in.readInt()
+    while (entries > 0) {
+      val key = in.readUTF()
+      row += key -> readValue(in, state)
+      entries -= 1
+    }
+    row
+  }
+
+  private def writeValue(out: DataOutput, value: Any) {
+    value match {
+      case null                    => out.writeByte(NULL)
+      case x: Boolean              => out.writeByte(BOOLEAN); out.writeBoolean(x)
+      case x: Byte                 => out.writeByte(BYTE); out.writeByte(x)
+      case x: Short                => out.writeByte(SHORT); out.writeShort(x)
+      case x: Int                  => out.writeByte(INT); out.writeInt(x)
+      case x: Long                 => out.writeByte(LONG); out.writeLong(x)
+      case x: Float                => out.writeByte(FLOAT); out.writeFloat(x)
+      case x: Double               => out.writeByte(DOUBLE); out.writeDouble(x)
+      case x: Char                 => out.writeByte(CHAR); out.writeChar(x)
+      case x: String               => out.writeByte(STRING); writeString(out, x)
+      case x: Node                 => out.writeByte(NODE); out.writeLong(x.getId)
+      case x: Relationship         => out.writeByte(RELATIONSHIP); out.writeLong(x.getId)
+      case x: Array[_]             => out.writeByte(ARRAY); writeArray(out, x)
+      case x: collection.Map[_, _] =>
+        out.writeByte(MAP)
+        out.writeInt(x.size)
+        x.foreach {
+          case (key: String, v) => writeString(out, key); writeValue(out, v)
+          case _                => throw new UnspillableValueException(value)
+        }
+      case x: Seq[_]               =>
+        out.writeByte(SEQ)
+        out.writeInt(x.size)
+        x.foreach(writeValue(out, _))
+      case _                       => throw new UnspillableValueException(value)
+    }
+  }
+
+  private def writeArray(out: DataOutput, array: Array[_]) {
+    val tag = ArrayTypes.getOrElse(array.getClass.getComponentType, throw new UnspillableValueException(array))
+    out.writeByte(tag)
+    out.writeInt(array.length)
+    array.foreach(element => tag match {
+      case BOOLEAN => out.writeBoolean(element.asInstanceOf[Boolean])
+      case BYTE    => out.writeByte(element.asInstanceOf[Byte])
+      case SHORT   => out.writeShort(element.asInstanceOf[Short])
+      case INT     => out.writeInt(element.asInstanceOf[Int])
+      case LONG    => out.writeLong(element.asInstanceOf[Long])
+      case FLOAT   => out.writeFloat(element.asInstanceOf[Float])
+      case DOUBLE  => out.writeDouble(element.asInstanceOf[Double])
+      case CHAR    => out.writeChar(element.asInstanceOf[Char])
+      case STRING  =>
+        val string = element.asInstanceOf[String]
+        out.writeBoolean(string != null)
+        if (string != null) writeString(out, string)
+    })
+  }
+
+  private def readValue(in: DataInput, state: QueryState): Any = in.readByte().toInt match {
+    case NULL         => null
+    case BOOLEAN      => in.readBoolean()
+    case BYTE         => in.readByte()
+    case SHORT        => in.readShort()
+    case INT          => in.readInt()
+    case LONG         => in.readLong()
+    case FLOAT        => in.readFloat()
+    case DOUBLE       => in.readDouble()
+    case CHAR         => in.readChar()
+    case STRING       => readString(in)
+    case NODE         => state.query.nodeOps.getById(in.readLong())
+    case RELATIONSHIP => state.query.relationshipOps.getById(in.readLong())
+    case ARRAY        => readArray(in)
+    case MAP          => (0 until in.readInt()).map(_ => readString(in) -> readValue(in, state)).toMap
+    case SEQ          => (0 until in.readInt()).map(_ => readValue(in, state)).toList
+  }
+
+  private def readArray(in: DataInput): Any = {
+    val tag = in.readByte().toInt
+    val length = in.readInt()
+    tag match {
+      case BOOLEAN => Array.fill(length)(in.readBoolean())
+      case BYTE    => Array.fill(length)(in.readByte())
+      case SHORT   => Array.fill(length)(in.readShort())
+      case INT     => Array.fill(length)(in.readInt())
+      case LONG    => Array.fill(length)(in.readLong())
+      case FLOAT   => Array.fill(length)(in.readFloat())
+      case DOUBLE  => Array.fill(length)(in.readDouble())
+      case CHAR    => Array.fill(length)(in.readChar())
+      case STRING  => Array.fill[String](length)(if (in.readBoolean()) readString(in) else null)
+    }
+  }
+
+  private def writeString(out: DataOutput, string: String) {
+    val bytes = string.getBytes(UTF8)
+    out.writeInt(bytes.length)
+    out.write(bytes)
+  }
+
+  private def readString(in: DataInput): String = {
+    val bytes = new Array[Byte](in.readInt())
+    in.readFully(bytes)
+    new String(bytes, UTF8)
+  }
+}
@@ -0,0 +1,149 @@
+/**
+ * Copyright (c) 2002-2013 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.compiler.v2_0.pipes.spill
+
+import java.io._
+import collection.mutable
+import org.neo4j.cypher.internal.compiler.v2_0.ExecutionContext
+import org.neo4j.cypher.internal.compiler.v2_0.pipes.QueryState
+
+/*
+A temporary file that rows are appended to, and then read back once, in the order they were written. The file is
+deleted when all rows have been read, or when delete is called. Files are created through the SpillFiles of a query,
+which deletes those that are left when the query is closed.
+ */
+class SpillFile private[spill](directory: File, files: SpillFiles) {
+  directory.mkdirs()
+
+  private val file = File.createTempFile("spill", ".rows", directory)
+
+  private val out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)))
+  private val buffer = new ByteArrayOutputStream()
+  private val bufferOut = new DataOutputStream(buffer)
+  private var in: DataInputStream = null
+  private var rows = 0L
+  private var deleted = false
+
+  def size: Long = rows
+
+  /*
+  Rows are encoded in memory first, so a value that can not be spilled leaves the file untouched.
+   */
+  def write(row: ExecutionContext) {
+    if (row.mutationCommands.nonEmpty)
+      throw new UnspillableValueException(row.mutationCommands)
+
+    buffer.reset()
+    RowCodec.write(bufferOut, row)
+    bufferOut.flush()
+    out.writeInt(buffer.size())
+    buffer.writeTo(out)
+    rows += 1
+  }
+
+  def read(state: QueryState): Iterator[ExecutionContext] = {
+    out.close()
+    new SpillFileIterator(state)
+  }
+
+  def delete() {
+    if (!deleted) {
+      deleted = true
+      try {
+        out.close()
+        if (in != null) in.close()
+      } finally {
+        file.delete()
+        files.forget(this)
+      }
+    }
+  }
+
+  private class SpillFileIterator(state: QueryState) extends Iterator[ExecutionContext] {
+    in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))
+    private var remaining = rows
+
+    if (remaining == 0) delete()
+
+    def hasNext: Boolean = remaining > 0
+
+    def next(): ExecutionContext = {
+      if (!hasNext)
+        throw new NoSuchElementException("No more spilled rows")
+
+      in.readInt()
+      val row = RowCodec.read(in, state)
+      remaining -= 1
+      if (remaining == 0) delete()
+      row
+    }
+  }
+}
+
+/*
+The spill files of one query that have not been deleted yet. A query whose results are closed, or fail, before they
+have been read to the end leaves spill files behind, and those are deleted when the query is closed.
+ */
+class SpillFiles {
+  private val files = mutable.Set[SpillFile]()
+
+  def create(directory: File): SpillFile = synchronized {
+    val file = new SpillFile(directory, this)
+    files += file
+    file
+  }
+
+  private[spill] def forget(file: SpillFile) {
+    synchronized {
+      files -= file
+    }
+  }
+
+  def deleteAll() {
+    synchronized(files.toList).foreach(_.delete())
+  }
+}
+
+/*
+Splits rows over a fixed number of spill files by hash, so that rows that belong together end up in the same file
+and each file can be processed on its own.
+ */
+class SpillPartitions(settings: SpillSettings, files: SpillFiles, count: Int = 16) {
+  private val partitions = new Array[SpillFile](count)
+
+  def add(hash: Int, row: ExecutionContext) {
+    val index = (hash & Int.MaxValue) % count
+    if (partitions(index) == null)
+      partitions(index) = files.create(settings.directory)
+    partitions(index).write(row)
+  }
+
+  def isEmpty: Boolean = partitions.forall(_ == null)
+
+  /*
+  Each partition is read lazily, one after the other.
+   */
+  def read(state: QueryState): Iterator[Iterator[ExecutionContext]] =
+    partitions.iterator.filter(_ != null).map(_.read(state))
+
+  def delete() {
+    partitions.filter(_ != null).foreach(_.delete())
+  }
+}
@@ -0,0 +1,40 @@
+/**
+ * Copyright (c) 2002-2013 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.compiler.v2_0.profiler
+
+import org.neo4j.cypher.internal.compiler.v2_0.PlanDescription
+import org.neo4j.kernel.impl.util.StringLogger
+
+/*
+Where the statistics of sampled executions end up. The client that ran a sampled query didn't ask for a profile, so
+the plan description with the statistics is written to the log once the result has been fully read. Only the text of
+the query is logged, not its parameters.
+*/
+class ProfileSampleLog(logger: StringLogger) {
+  def log(query: String, plan: PlanDescription) {
+    val builder = new StringBuilder("Profiled execution of: ").append(query).append("\n")
+    plan.render(builder)
+    logger.info(builder.toString())
+  }
+}
+
+object ProfileSampleLog {
+  val disabled = new ProfileSampleLog(StringLogger.DEV_NULL)
+}
@@ -27,16 +27,30 @@ import org.neo4j.cypher.ProfilerStatisticsNotReadyException
 import org.neo4j.graphdb.{PropertyContainer, Direction, Relationship, Node}
 import collection.mutable
 
-class Profiler extends PipeDecorator {
+/*
+Besides rows and db hits, the profiler records the wall clock time each pipe spends working, the node and relationship
+cache hits and misses, and the store pages found in or read into the shared page cache meanwhile. Pipes call each
+other, so the clock keeps a stack of the pipes that are working, and charges the time since the last switch to the one
+on top. That costs two readings of the clock and of the cache counters per row and pipe, which is why a plan is only
+profiled for a sample of its executions unless PROFILE is used.
+
+A sampling profiler is not strict: its statistics are left out of the plan description when the result has not been
+fully read, instead of failing.
+*/
+class Profiler(strict: Boolean = true) extends PipeDecorator {
 
   val contextStats: mutable.Map[Pipe, ProfilingQueryContext] = mutable.Map.empty
   val iterStats: mutable.Map[Pipe, ProfilingIterator] = mutable.Map.empty
+  val clockStats: mutable.Map[Pipe, PipeClock] = mutable.Map.empty
+  val clock = new ProfilingClock
 
 
   def decorate(pipe: Pipe, iter: Iterator[ExecutionContext]): Iterator[ExecutionContext] = {
-    val resultIter = new ProfilingIterator(iter)
+    clock.exit()
 
-    assert(!iterStats.contains(pipe), "Can't profile the same iterator twice")
+    val resultIter = new ProfilingIterator(iter, clockStats(pipe), clock)
+
+    assert(!strict || !iterStats.contains(pipe), "Can't profile the same iterator twice")
 
     iterStats(pipe) = resultIter
 
@@ -44,7 +58,10 @@ class Profiler extends PipeDecorator {
   }
 
   def decorate(pipe: Pipe, state: QueryState): QueryState = {
-    assert(!contextStats.contains(pipe), "Can't profile the same pipe twice: " + pipe)
+    assert(!strict || !contextStats.contains(pipe), "Can't profile the same pipe twice: " + pipe)
+
+    clock.use(state.query)
+    clock.enter(clockStats.getOrElseUpdate(pipe, new PipeClock))
 
     val decoratedContext = state.query match {
       case p: ProfilingQueryContext => new ProfilingQueryContext(p.inner, pipe)
@@ -57,18 +74,91 @@ class Profiler extends PipeDecorator {
 
   def decorate(plan: PlanDescription, isProfileReady: => Boolean): PlanDescription = plan.mapArgs {
     p: PlanDescription =>
-      val iteratorStats: ProfilingIterator = iterStats(p.pipe)
-
-      if ( ! isProfileReady )
+      if ( ! isProfileReady && strict )
         throw new ProfilerStatisticsNotReadyException()
 
-      val newArgs = p.args :+ "_rows" -> PrimVal(iteratorStats.count)
+      iterStats.get(p.pipe) match {
+        case Some(iteratorStats) if isProfileReady =>
+          val pipeClock = clockStats(p.pipe)
+          val newArgs = p.args :+
+            "_rows" -> PrimVal(iteratorStats.count) :+
+            "_elapsed_ns" -> PrimVal(pipeClock.elapsedNanos) :+
+            "_cache_hits" -> PrimVal(pipeClock.cacheHits) :+
+            "_cache_misses" -> PrimVal(pipeClock.cacheMisses) :+
+            "_page_hits" -> PrimVal(pipeClock.pageHits) :+
+            "_page_misses" -> PrimVal(pipeClock.pageMisses)
+
+          contextStats.get(p.pipe) match {
+            case Some(stats) => newArgs :+ "_db_hits" -> PrimVal(stats.count)
+            case None        => newArgs
+          }
+
+        case _ => p.args
+      }
+  }
+}
+
+class PipeClock {
+  var elapsedNanos = 0L
+  var cacheHits = 0L
+  var cacheMisses = 0L
+  var pageHits = 0L
+  var pageMisses = 0L
+}
+
+class ProfilingClock {
+  private var working: List[PipeClock] = Nil
+  private var counters: QueryContext = null
+  private var lastTime = 0L
+  private var lastHits = 0L
+  private var lastMisses = 0L
+  private var lastPageHits = 0L
+  private var lastPageMisses = 0L
+
+  def use(query: QueryContext) {
+    if (counters == null) {
+      counters = query
+      lastTime = System.nanoTime()
+      lastHits = counters.objectCacheHits
+      lastMisses = counters.objectCacheMisses
+      lastPageHits = counters.pageCacheHits
+      lastPageMisses = counters.pageCacheMisses
+    }
+  }
+
+  def enter(pipeClock: PipeClock) {
+    charge()
+    working = pipeClock :: working
+  }
+
+  def exit() {
+    charge()
+    if (working.nonEmpty)
+      working = working.tail
+  }
 
-      contextStats.get(p.pipe) match {
-        case Some(stats) => newArgs :+ "_db_hits" -> PrimVal(stats.count)
-        case None        => newArgs
+  private def charge() {
+    if (counters != null) {
+      val time = System.nanoTime()
+      val hits = counters.objectCacheHits
+      val misses = counters.objectCacheMisses
+      val pageHits = counters.pageCacheHits
+      val pageMisses = counters.pageCacheMisses
+
+      working.headOption.foreach { current =>
+        current.elapsedNanos += time - lastTime
+        current.cacheHits += hits - lastHits
+        current.cacheMisses += misses - lastMisses
+        current.pageHits += pageHits - lastPageHits
+        current.pageMisses += pageMisses - lastPageMisses
       }
 
+      lastTime = time
+      lastHits = hits
+      lastMisses = misses
+      lastPageHits = pageHits
+      lastPageMisses = pageMisses
+    }
   }
 }
 
@@ -140,17 +230,35 @@ class ProfilingQueryContext(val inner: QueryContext, val p: Pipe) extends Delega
       rel
     }
 
+  override def getDegree(node: Node, dir: Direction, types: Seq[String]): Int = {
+    increment()
+    inner.getDegree(node, dir, types)
+  }
+
   override def nodeOps: Operations[Node] = new ProfilerOperations(inner.nodeOps)
 
   override def relationshipOps: Operations[Relationship] = new ProfilerOperations(inner.relationshipOps)
 }
 
-class ProfilingIterator(inner: Iterator[ExecutionContext]) extends Iterator[ExecutionContext] with Counter {
+class ProfilingIterator(inner: Iterator[ExecutionContext], pipeClock: PipeClock, clock: ProfilingClock)
+  extends Iterator[ExecutionContext] with Counter {
 
-  def hasNext: Boolean = inner.hasNext
+  def hasNext: Boolean = {
+    clock.enter(pipeClock)
+    try {
+      inner.hasNext
+    } finally {
+      clock.exit()
+    }
+  }
 
   def next(): ExecutionContext = {
     increment()
-    inner.next()
+    clock.enter(pipeClock)
+    try {
+      inner.next()
+    } finally {
+      clock.exit()
+    }
   }
 }
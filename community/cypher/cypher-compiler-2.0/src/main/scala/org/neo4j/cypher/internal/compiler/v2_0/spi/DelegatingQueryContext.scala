@@ -48,6 +48,8 @@ class DelegatingQueryContext(inner: QueryContext) extends QueryContext {
 
   def getRelationshipsFor(node: Node, dir: Direction, types: Seq[String]) = inner.getRelationshipsFor(node, dir, types)
 
+  def getDegree(node: Node, dir: Direction, types: Seq[String]) = inner.getDegree(node, dir, types)
+
   def nodeOps = inner.nodeOps
 
   def relationshipOps = inner.relationshipOps
@@ -70,6 +72,14 @@ class DelegatingQueryContext(inner: QueryContext) extends QueryContext {
 
   def exactIndexSearch(index: IndexDescriptor, value: Any): Iterator[Node] = inner.exactIndexSearch(index, value)
 
+  def indexSeekByNumberRange(index: IndexDescriptor, lower: Number, includeLower: Boolean, upper: Number, includeUpper: Boolean): Iterator[Node] =
+    inner.indexSeekByNumberRange(index, lower, includeLower, upper, includeUpper)
+
+  def indexSeekByStringRange(index: IndexDescriptor, lower: String, includeLower: Boolean, upper: String, includeUpper: Boolean): Iterator[Node] =
+    inner.indexSeekByStringRange(index, lower, includeLower, upper, includeUpper)
+
+  def indexSeekByPrefix(index: IndexDescriptor, prefix: String): Iterator[Node] = inner.indexSeekByPrefix(index, prefix)
+
   def getNodesByLabel(id: Int): Iterator[Node] = inner.getNodesByLabel(id)
 
   def upgrade(context: QueryContext): LockingQueryContext = inner.upgrade(context)
@@ -84,6 +94,16 @@ class DelegatingQueryContext(inner: QueryContext) extends QueryContext {
 
   def withAnyOpenQueryContext[T](work: (QueryContext) => T): T = inner.withAnyOpenQueryContext(work)
 
+  def readOnlyWorkers: Option[ReadOnlyWorkers] = inner.readOnlyWorkers
+
+  override def objectCacheHits: Long = inner.objectCacheHits
+
+  override def objectCacheMisses: Long = inner.objectCacheMisses
+
+  override def pageCacheHits: Long = inner.pageCacheHits
+
+  override def pageCacheMisses: Long = inner.pageCacheMisses
+
   def exactUniqueIndexSearch(index: IndexDescriptor, value: Any): Option[Node] = inner.exactUniqueIndexSearch(index, value)
 }
 
@@ -58,6 +58,15 @@ class ExceptionTranslatingQueryContext(inner: QueryContext) extends DelegatingQu
   override def getRelationshipsFor(node: Node, dir: Direction, types: Seq[String]): Iterator[Relationship] =
     translateException(super.getRelationshipsFor(node, dir, types))
 
+  override def getDegree(node: Node, dir: Direction, types: Seq[String]): Int =
+    translateException(super.getDegree(node, dir, types))
+
+  override def readOnlyWorkers: Option[ReadOnlyWorkers] =
+    translateException(super.readOnlyWorkers).map(workers => new ReadOnlyWorkers {
+      def submit[T](work: QueryContext => T) =
+        workers.submit(context => work(new ExceptionTranslatingQueryContext(context)))
+    })
+
   override def nodeOps: Operations[Node] =
     new ExceptionTranslatingOperations[Node](super.nodeOps)
 
@@ -88,6 +97,15 @@ class ExceptionTranslatingQueryContext(inner: QueryContext) extends DelegatingQu
   override def exactIndexSearch(index: IndexDescriptor, value: Any): Iterator[Node] =
     translateException(super.exactIndexSearch(index, value))
 
+  override def indexSeekByNumberRange(index: IndexDescriptor, lower: Number, includeLower: Boolean, upper: Number, includeUpper: Boolean): Iterator[Node] =
+    translateException(super.indexSeekByNumberRange(index, lower, includeLower, upper, includeUpper))
+
+  override def indexSeekByStringRange(index: IndexDescriptor, lower: String, includeLower: Boolean, upper: String, includeUpper: Boolean): Iterator[Node] =
+    translateException(super.indexSeekByStringRange(index, lower, includeLower, upper, includeUpper))
+
+  override def indexSeekByPrefix(index: IndexDescriptor, prefix: String): Iterator[Node] =
+    translateException(super.indexSeekByPrefix(index, prefix))
+
   override def getNodesByLabel(id: Int): Iterator[Node] =
     translateException(super.getNodesByLabel(id))
 
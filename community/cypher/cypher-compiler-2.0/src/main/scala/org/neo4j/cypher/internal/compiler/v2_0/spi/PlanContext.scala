@@ -21,6 +21,7 @@ package org.neo4j.cypher.internal.compiler.v2_0.spi
 
 import org.neo4j.kernel.impl.api.index.IndexDescriptor
 import org.neo4j.kernel.api.constraints.UniquenessConstraint
+import org.neo4j.kernel.api.statistics.GraphStatistics
 
 
 /**
@@ -41,5 +42,10 @@ trait PlanContext extends TokenContext {
   def checkNodeIndex(idxName: String)
 
   def checkRelIndex(idxName: String)
+
+  /**
+   * Estimates of the shape of the graph, used to pick the cheapest of several ways to find the same nodes
+   */
+  def statistics: GraphStatistics
 }
 
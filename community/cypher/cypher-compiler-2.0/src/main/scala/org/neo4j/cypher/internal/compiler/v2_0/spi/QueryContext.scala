@@ -23,6 +23,7 @@ package org.neo4j.cypher.internal.compiler.v2_0.spi
 import org.neo4j.graphdb._
 import org.neo4j.kernel.impl.api.index.IndexDescriptor
 import org.neo4j.kernel.api.constraints.UniquenessConstraint
+import java.util.concurrent.Future
 
 /*
  * Developer note: This is an attempt at an internal graph database API, which defines a clean cut between
@@ -47,6 +48,8 @@ trait QueryContext extends TokenContext {
 
   def getRelationshipsFor(node: Node, dir: Direction, types: Seq[String]): Iterator[Relationship]
 
+  def getDegree(node: Node, dir: Direction, types: Seq[String]): Int
+
   def getOrCreateLabelId(labelName: String): Int
 
   def getLabelsForNode(node: Long): Iterator[Int]
@@ -67,6 +70,13 @@ trait QueryContext extends TokenContext {
 
   def exactIndexSearch(index: IndexDescriptor, value: Any): Iterator[Node]
 
+  // Null bounds are open. Nodes are returned in value order, followed by nodes changed in this transaction
+  def indexSeekByNumberRange(index: IndexDescriptor, lower: Number, includeLower: Boolean, upper: Number, includeUpper: Boolean): Iterator[Node]
+
+  def indexSeekByStringRange(index: IndexDescriptor, lower: String, includeLower: Boolean, upper: String, includeUpper: Boolean): Iterator[Node]
+
+  def indexSeekByPrefix(index: IndexDescriptor, prefix: String): Iterator[Node]
+
   def exactUniqueIndexSearch(index: IndexDescriptor, value: Any): Option[Node]
 
   def getNodesByLabel(id: Int): Iterator[Node]
@@ -85,6 +95,42 @@ trait QueryContext extends TokenContext {
    * This should not be used. We'll remove sooner (or later). Don't do it.
    */
   def withAnyOpenQueryContext[T](work: (QueryContext) => T): T
+
+  /**
+   * A way to run parts of the query on other threads, or None if this context can't. That includes when the
+   * transaction of this context has changes, which the transactions of other threads wouldn't see.
+   */
+  def readOnlyWorkers: Option[ReadOnlyWorkers]
+
+  /**
+   * The number of node and relationship cache hits so far. The caches are shared by all transactions, so only the
+   * difference between two readings taken close together says something about this query.
+   */
+  def objectCacheHits: Long = 0L
+
+  /**
+   * The number of node and relationship cache misses so far, each of which loaded a record from the store.
+   */
+  def objectCacheMisses: Long = 0L
+
+  /**
+   * The number of store pages found in the shared page cache so far, or zero when the database doesn't keep its
+   * store files in a shared page cache. Like the object cache counters, these are counted for all transactions.
+   */
+  def pageCacheHits: Long = 0L
+
+  /**
+   * The number of store pages read from disk into the shared page cache so far.
+   */
+  def pageCacheMisses: Long = 0L
+}
+
+trait ReadOnlyWorkers {
+  /**
+   * Runs the work on another thread, in a read only query context with a transaction of its own, which is closed
+   * once the work is done. Cancelling the returned future interrupts the work.
+   */
+  def submit[T](work: QueryContext => T): Future[T]
 }
 
 trait LockingQueryContext extends QueryContext {
@@ -20,6 +20,7 @@
 package org.neo4j.cypher.internal.compiler.v2_0
 
 import org.neo4j.cypher.internal.compiler.v2_0.spi.QueryContext
+import org.neo4j.cypher.internal.compiler.v2_0.pipes.spill.SpillFiles
 import org.junit.Test
 import org.hamcrest.CoreMatchers.is
 import org.junit.Assert.assertThat
@@ -109,4 +110,21 @@ class ClosingIteratorTest extends Assertions {
     //Then
     verify(ctx).close(success = false)
   }
+
+  @Test
+  def closing_before_the_end_should_delete_spill_files() {
+    //Given
+    val ctx        = mock(classOf[QueryContext])
+    val spillFiles = mock(classOf[SpillFiles])
+    val wrapee     = Iterator(Map("k" -> 42), Map("k" -> 43))
+    val iterator   = new ClosingIterator(wrapee, ctx, spillFiles)
+
+    //When
+    iterator.next()
+    iterator.close()
+
+    //Then
+    verify(spillFiles).deleteAll()
+    verify(ctx).close(success = true)
+  }
 }
@@ -0,0 +1,83 @@
+/**
+ * Copyright (c) 2002-2013 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.compiler.v2_0.commands
+
+import expressions.{Add, Identifier, Literal, Collection}
+import org.neo4j.cypher.internal.compiler.v2_0._
+import pipes.{QueryStateHelper, QueryState}
+import org.junit.Test
+import org.junit.Assert._
+
+class ExpressionCompilerTest {
+
+  val ctx: ExecutionContext = ExecutionContext.from("a" -> 1, "b" -> 2L, "c" -> null, "d" -> "foo")
+  implicit val state: QueryState = QueryStateHelper.empty
+
+  val predicates: Seq[Predicate] = {
+    val values = Seq(Identifier("a"), Identifier("b"), Identifier("c"), Literal(1), Literal(null))
+    val comparisons = for (l <- values; r <- values) yield Seq(
+      Equals(l, r), LessThan(l, r), LessThanOrEqual(l, r), GreaterThan(l, r), GreaterThanOrEqual(l, r))
+
+    val atoms = comparisons.flatten ++ Seq(
+      Equals(Collection(Literal(1), Literal(2)), Collection(Literal(1), Literal(2))),
+      Equals(Identifier("d"), Literal("foo")),
+      True())
+
+    val atomsAndNegations = atoms ++ atoms.map(Not)
+    val pairs = for (l <- atomsAndNegations.take(20); r <- atomsAndNegations.take(20)) yield Seq(And(l, r), Or(l, r))
+
+    atomsAndNegations ++ pairs.flatten
+  }
+
+  @Test def compiled_predicates_should_agree_with_interpreted_ones() {
+    predicates.foreach { predicate =>
+      // When
+      val compiled = CompilingExpressionCompiler.compile(predicate)
+
+      // Then
+      assertEquals(s"$predicate", predicate.isMatch(ctx), compiled(ctx, state) match {
+        case null       => None
+        case b: Boolean => Some(b)
+      })
+      assertEquals(s"$predicate", predicate.isTrue(ctx), compiled.isTrue(ctx, state))
+    }
+  }
+
+  @Test def should_interpret_expressions_it_cannot_compile() {
+    // Given
+    val expression = Add(Identifier("a"), Literal(41))
+
+    // When
+    val compiled = CompilingExpressionCompiler.compile(expression)
+
+    // Then
+    assertTrue(compiled.isInstanceOf[InterpretedExpression])
+    assertEquals(42, compiled(ctx, state))
+  }
+
+  @Test def should_interpret_everything_when_not_compiling() {
+    // When
+    val compiled = ExpressionCompiler(compileExpressions = false).compile(Equals(Identifier("a"), Literal(1)))
+
+    // Then
+    assertTrue(compiled.isInstanceOf[InterpretedPredicate])
+    assertTrue(compiled.isTrue(ctx, state))
+  }
+}
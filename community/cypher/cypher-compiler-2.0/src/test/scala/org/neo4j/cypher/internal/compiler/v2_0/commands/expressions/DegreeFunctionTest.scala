@@ -0,0 +1,63 @@
+/**
+ * Copyright (c) 2002-2013 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.compiler.v2_0.commands.expressions
+
+import org.neo4j.cypher.internal.compiler.v2_0._
+import pipes.{NullDecorator, QueryState}
+import org.neo4j.cypher.internal.compiler.v2_0.spi.QueryContext
+import org.neo4j.graphdb.{Direction, Node}
+import org.scalatest.Assertions
+import org.junit.Test
+import org.scalatest.mock.MockitoSugar
+import org.mockito.Mockito._
+
+class DegreeFunctionTest extends Assertions with MockitoSugar {
+
+  @Test
+  def shouldAskTheQueryContextForTheDegree() {
+    // GIVEN
+    val node = mock[Node]
+    val queryContext = mock[QueryContext]
+    when(queryContext.getDegree(node, Direction.OUTGOING, Seq("KNOWS"))).thenReturn(42)
+    val state = new QueryState(null, queryContext, Map.empty, NullDecorator)
+    val ctx = ExecutionContext() += ("n" -> node)
+
+    // WHEN
+    val result = DegreeFunction(Identifier("n"), Seq("KNOWS"), Direction.OUTGOING)(ctx)(state)
+
+    // THEN
+    assert(42L === result)
+  }
+
+  @Test
+  def shouldReturnNullForNullNode() {
+    // GIVEN
+    val queryContext = mock[QueryContext]
+    val state = new QueryState(null, queryContext, Map.empty, NullDecorator)
+    val ctx = ExecutionContext() += ("n" -> null)
+
+    // WHEN
+    val result = DegreeFunction(Identifier("n"), Seq.empty, Direction.BOTH)(ctx)(state)
+
+    // THEN
+    assert(result === null)
+    verifyZeroInteractions(queryContext)
+  }
+}
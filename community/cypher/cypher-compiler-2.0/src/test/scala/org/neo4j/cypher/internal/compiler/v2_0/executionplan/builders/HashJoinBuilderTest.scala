@@ -0,0 +1,127 @@
+/**
+ * Copyright (c) 2002-2013 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.compiler.v2_0.executionplan.builders
+
+import org.junit.Test
+import org.mockito.Mockito._
+import org.mockito.Matchers
+import org.scalatest.mock.MockitoSugar
+import org.neo4j.cypher.internal.compiler.v2_0.commands._
+import org.neo4j.cypher.internal.compiler.v2_0.commands.expressions.Literal
+import org.neo4j.cypher.internal.compiler.v2_0.executionplan.{ExecutionPlanBuilder, PartiallySolvedQuery}
+import org.neo4j.cypher.internal.compiler.v2_0.pipes.{HashJoinPipe, Pipe}
+import org.neo4j.cypher.internal.compiler.v2_0.spi.PlanContext
+import org.neo4j.graphdb.Direction
+import org.neo4j.kernel.api.statistics.GraphStatistics
+import org.neo4j.kernel.impl.api.index.IndexDescriptor
+
+class HashJoinBuilderTest extends BuilderTest with MockitoSugar {
+  val builder = new HashJoinBuilder(new ExecutionPlanBuilder(null))
+
+  override val context = mock[PlanContext]
+  val statistics = mock[GraphStatistics]
+  when(context.statistics).thenReturn(statistics)
+  when(context.getOptLabelId("A")).thenReturn(Some(1))
+  when(context.getOptLabelId("C")).thenReturn(Some(3))
+  when(context.getOptPropertyKeyId("x")).thenReturn(Some(10))
+  when(context.getIndexRule(Matchers.any(), Matchers.any())).thenReturn(Some(new IndexDescriptor(1, 10)))
+
+  val patterns = Seq(
+    RelatedTo("a", "b", "r1", "T", Direction.OUTGOING),
+    RelatedTo("b", "c", "r2", "T", Direction.OUTGOING))
+
+  @Test
+  def should_join_two_start_points_on_the_node_between_them() {
+    // Given
+    val query = q(start = Seq(NodeByLabel("a", "A"), NodeByLabel("c", "C")), patterns = patterns)
+
+    // When
+    val plan = assertAccepts(query)
+
+    // Then
+    assert(join(plan.pipe).joinKey === "b")
+    assert(plan.query.start.forall(_.solved))
+    assert(plan.query.patterns.forall(_.solved))
+  }
+
+  @Test
+  def should_not_join_patterns_that_only_start_from_nodes_given_by_id() {
+    assertRejects(q(start = Seq(NodeById("a", Literal(1)), NodeById("c", Literal(2))), patterns = patterns))
+  }
+
+  @Test
+  def should_not_join_patterns_with_a_single_start_point() {
+    assertRejects(q(start = Seq(NodeByLabel("a", "A")), patterns = patterns))
+  }
+
+  @Test
+  def should_not_join_patterns_that_can_not_be_cut_in_two_between_the_start_points() {
+    val query = q(start = Seq(NodeByLabel("a", "A"), NodeByLabel("c", "C")),
+      patterns = patterns :+ RelatedTo("a", "c", "r3", "T", Direction.OUTGOING))
+
+    assertRejects(query)
+  }
+
+  @Test
+  def should_load_the_side_expected_to_produce_fewer_rows_into_memory() {
+    // Given
+    when(statistics.nodesWithLabel(1)).thenReturn(10.0)
+    when(statistics.nodesWithLabel(3)).thenReturn(1000.0)
+    val query = q(start = Seq(NodeByLabel("a", "A"), NodeByLabel("c", "C")), patterns = patterns)
+
+    // When
+    val pipe = join(assertAccepts(query).pipe)
+
+    // Then
+    assert(pipe.build.symbols.keys.toSet.contains("a"))
+    assert(pipe.probe.symbols.keys.toSet.contains("c"))
+  }
+
+  @Test
+  def should_rate_range_seeks_apart_from_equality_lookups() {
+    // Given an equality lookup expected to find 150 nodes, and a range seek expected to find a third of 300
+    when(statistics.nodesWithLabel(1)).thenReturn(1000.0)
+    when(statistics.selectivity(1, 10)).thenReturn(0.15)
+    when(statistics.nodesWithLabel(3)).thenReturn(300.0)
+    when(statistics.selectivity(3, 10)).thenReturn(0.9)
+    val range = RangeSeek(Some(RangeBound(Literal(5), inclusive = true)), None)
+    val query = q(start = Seq(
+      SchemaIndex("a", "A", "x", AnyIndex, Some(Literal(1))),
+      SchemaIndex("c", "C", "x", AnyIndex, Some(range))), patterns = patterns)
+
+    // When
+    val pipe = join(assertAccepts(query).pipe)
+
+    // Then
+    assert(pipe.build.symbols.keys.toSet.contains("c"))
+    assert(pipe.probe.symbols.keys.toSet.contains("a"))
+  }
+
+  private def join(pipe: Pipe): HashJoinPipe = pipe match {
+    case p: HashJoinPipe => p
+    case _               => fail("Expected a hash join, got " + pipe)
+  }
+
+  private def q(start: Seq[StartItem], patterns: Seq[Pattern]) =
+    PartiallySolvedQuery().copy(
+      start = start.map(Unsolved(_)),
+      patterns = patterns.map(Unsolved(_))
+    )
+}
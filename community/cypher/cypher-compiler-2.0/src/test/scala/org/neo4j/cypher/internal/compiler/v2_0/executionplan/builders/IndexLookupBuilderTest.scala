@@ -112,6 +112,52 @@ class IndexLookupBuilderTest extends BuilderTest {
     assert(a === b)
   }
 
+  @Test
+  def should_seek_a_range_and_keep_the_range_predicates_as_filters() {
+    //GIVEN
+    val identifier = "id"
+    val label = "label"
+    val property = "prop"
+    val labelPredicate = HasLabel(Identifier(identifier), KeyToken.Unresolved(label, TokenType.Label))
+    val lowerPredicate = GreaterThan(Property(Identifier(identifier), PropertyKey(property)), Literal(10))
+    val upperPredicate = GreaterThanOrEqual(Literal(20), Property(Identifier(identifier), PropertyKey(property)))
+
+    val q = PartiallySolvedQuery().copy(
+      start = Seq(Unsolved(SchemaIndex(identifier, label, property, AnyIndex, None))),
+      where = Seq(Unsolved(lowerPredicate), Unsolved(upperPredicate), Unsolved(labelPredicate))
+    )
+
+    //WHEN
+    val plan = assertAccepts(q)
+
+    //THEN
+    val range = RangeSeek(Some(RangeBound(Literal(10), inclusive = false)), Some(RangeBound(Literal(20), inclusive = true)))
+    assert(plan.query.start === Seq(Unsolved(SchemaIndex(identifier, label, property, AnyIndex, Some(range)))))
+    assert(plan.query.where.toSet === Set(Unsolved(lowerPredicate), Unsolved(upperPredicate), Solved(labelPredicate)))
+  }
+
+  @Test
+  def should_seek_a_prefix_for_a_regular_expression_with_a_literal_prefix() {
+    //GIVEN
+    val identifier = "id"
+    val label = "label"
+    val property = "prop"
+    val labelPredicate = HasLabel(Identifier(identifier), KeyToken.Unresolved(label, TokenType.Label))
+    val regexPredicate = LiteralRegularExpression(Property(Identifier(identifier), PropertyKey(property)), Literal("And.*"))
+
+    val q = PartiallySolvedQuery().copy(
+      start = Seq(Unsolved(SchemaIndex(identifier, label, property, AnyIndex, None))),
+      where = Seq(Unsolved(regexPredicate), Unsolved(labelPredicate))
+    )
+
+    //WHEN
+    val plan = assertAccepts(q)
+
+    //THEN
+    assert(plan.query.start === Seq(Unsolved(SchemaIndex(identifier, label, property, AnyIndex, Some(PrefixSeek(Literal("And")))))))
+    assert(plan.query.where.toSet === Set(Unsolved(regexPredicate), Solved(labelPredicate)))
+  }
+
   private def test(identifier: String, label: String, property: String, predicate: Equals, valueExpression: Literal) {
     val labelPredicate = HasLabel(Identifier(identifier), KeyToken.Unresolved(label, TokenType.Label))
 
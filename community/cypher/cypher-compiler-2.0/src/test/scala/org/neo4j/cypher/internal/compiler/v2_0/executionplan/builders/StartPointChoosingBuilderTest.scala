@@ -34,6 +34,7 @@ import org.neo4j.cypher.internal.compiler.v2_0.symbols.NodeType
 import org.neo4j.graphdb.Direction
 import org.neo4j.kernel.impl.api.index.IndexDescriptor
 import org.neo4j.kernel.api.constraints.UniquenessConstraint
+import org.neo4j.kernel.api.statistics.GraphStatistics
 import org.neo4j.cypher.internal.compiler.v2_0.commands.values.TokenType._
 import org.neo4j.cypher.internal.compiler.v2_0.commands._
 
@@ -501,6 +502,96 @@ class StartPointChoosingBuilderTest extends BuilderTest with MockitoSugar {
     assertRejects(query)
   }
 
+  @Test
+  def should_pick_the_index_on_the_most_selective_property() {
+    // Given MATCH n:Person WHERE n.prop = 42 AND n.prop2 = 42
+    val query = q(where = Seq(
+      HasLabel(Identifier(identifier), KeyToken.Unresolved(label, TokenType.Label)),
+      Equals(Property(Identifier(identifier), propertyKey), expression),
+      Equals(Property(Identifier(identifier), otherPropertyKey), expression)
+    ), patterns = Seq(
+      SingleNode(identifier)
+    ))
+
+    when(context.getIndexRule(label, property)).thenReturn(Some(new IndexDescriptor(123,456)))
+    when(context.getIndexRule(label, otherProperty)).thenReturn(Some(new IndexDescriptor(2468,3579)))
+    when(context.getUniquenessConstraint( Matchers.any(), Matchers.any() )).thenReturn(None)
+    givenStatistics(nodes = 1000, labels = Map(label -> 1000),
+      selectivity = Map((label, property) -> 0.5, (label, otherProperty) -> 0.001))
+
+    // When
+    val result = assertAccepts(query).query
+
+    // Then
+    assertEquals(Some(Unsolved(SchemaIndex(identifier, label, otherProperty, AnyIndex, None))), result.start.find(_.token.isInstanceOf[SchemaIndex]))
+  }
+
+  @Test
+  def should_start_from_the_label_with_the_fewest_nodes() {
+    // Given MATCH (n:Person)-->(p:City)
+    val city = "City"
+    val query = q(where = Seq(
+      HasLabel(Identifier(identifier), KeyToken.Unresolved(label, TokenType.Label)),
+      HasLabel(Identifier(otherIdentifier), KeyToken.Unresolved(city, TokenType.Label))
+    ), patterns = Seq(
+      RelatedTo(SingleNode(identifier), SingleNode(otherIdentifier), "r", Seq.empty, Direction.OUTGOING, Map.empty)
+    ))
+
+    givenStatistics(nodes = 100010, labels = Map(label -> 100000, city -> 10))
+
+    // When
+    val plan = assertAccepts(query)
+
+    // Then
+    assert(plan.query.start.toList === Seq(Unsolved(NodeByLabel(otherIdentifier, city))))
+  }
+
+  @Test
+  def should_fall_back_to_ratings_when_statistics_have_no_opinion() {
+    // Given MATCH n:Person WHERE n.prop = 42
+    val query = q(where = Seq(
+      HasLabel(Identifier(identifier), KeyToken.Unresolved(label, TokenType.Label)),
+      Equals(Property(Identifier(identifier), propertyKey), expression)
+    ), patterns = Seq(
+      SingleNode(identifier)
+    ))
+
+    when(context.getIndexRule(label, property)).thenReturn(Some(new IndexDescriptor(123,456)))
+    when(context.getUniquenessConstraint( Matchers.any(), Matchers.any() )).thenReturn(None)
+    when(context.statistics).thenReturn(GraphStatistics.NONE)
+
+    // When
+    val plan = assertAccepts(query)
+
+    // Then
+    assert(plan.query.start.toList === Seq(Unsolved(SchemaIndex(identifier, label, property, AnyIndex, None))))
+  }
+
+  private def givenStatistics(nodes: Double,
+                              labels: Map[String, Double],
+                              selectivity: Map[(String, String), Double] = Map.empty) {
+    val labelIds = labels.keys.zipWithIndex.toMap
+    val propertyKeyIds = selectivity.keys.map(_._2).toSeq.distinct.zipWithIndex.toMap
+    val statistics = mock[GraphStatistics]
+
+    when(statistics.nodeCount()).thenReturn(nodes)
+    when(context.getOptLabelId(Matchers.any())).thenReturn(None)
+    when(context.getOptPropertyKeyId(Matchers.any())).thenReturn(None)
+    labelIds.foreach {
+      case (name, id) =>
+        when(context.getOptLabelId(name)).thenReturn(Some(id))
+        when(statistics.nodesWithLabel(id)).thenReturn(labels(name))
+    }
+    propertyKeyIds.foreach {
+      case (name, id) => when(context.getOptPropertyKeyId(name)).thenReturn(Some(id))
+    }
+    selectivity.foreach {
+      case ((labelName, propertyName), value) =>
+        when(statistics.selectivity(labelIds(labelName), propertyKeyIds(propertyName))).thenReturn(value)
+    }
+    when(context.statistics).thenReturn(statistics)
+  }
+
   private def q(start: Seq[StartItem] = Seq(),
                 where: Seq[Predicate] = Seq(),
                 updates: Seq[UpdateAction] = Seq(),
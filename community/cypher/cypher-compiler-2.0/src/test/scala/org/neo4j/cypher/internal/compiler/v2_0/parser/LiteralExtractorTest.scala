@@ -0,0 +1,66 @@
+/**
+ * Copyright (c) 2002-2013 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.compiler.v2_0.parser
+
+import org.junit.Test
+import org.scalatest.Assertions
+import org.neo4j.cypher.internal.compiler.v2_0.symbols.{DoubleType, LongType, StringType}
+
+class LiteralExtractorTest extends Assertions {
+  @Test def should_lift_strings_and_numbers_into_parameters() {
+    val (query, params) = LiteralExtractor("MATCH (n) WHERE n.name = 'Andres' AND n.age > 36 RETURN n")
+
+    assert(query === "MATCH (n) WHERE n.name = {AUTO_STRING_0} AND n.age > {AUTO_INT_1} RETURN n")
+    assert(params === Map("AUTO_STRING_0" -> "Andres", "AUTO_INT_1" -> 36L))
+  }
+
+  @Test def should_keep_literals_in_projections() {
+    val (query, params) = LiteralExtractor("MATCH (n) WITH n, 1 AS one WHERE n.x = 2.5 RETURN n.x + 1, 'a' ORDER BY n.x + 1 LIMIT 10")
+
+    assert(query === "MATCH (n) WITH n, 1 AS one WHERE n.x = {AUTO_DOUBLE_0} RETURN n.x + 1, 'a' ORDER BY n.x + 1 LIMIT 10")
+    assert(params === Map("AUTO_DOUBLE_0" -> 2.5))
+  }
+
+  @Test def should_keep_literals_where_parameters_are_not_allowed() {
+    val original = """MATCH (a)-[:KNOWS*1..3]->(b2) WHERE a.id = {0} AND b2.x = -2 AND b2.name =~ 'A.*' AND b2.y = 'it\'s' RETURN b2"""
+
+    assert(LiteralExtractor(original) === ((original, Map.empty)))
+  }
+
+  @Test def should_keep_literals_in_start_clauses() {
+    val (query, params) = LiteralExtractor("START n=node(1) WHERE n.name = \"x\" RETURN n")
+
+    assert(query === "START n=node(1) WHERE n.name = {AUTO_STRING_0} RETURN n")
+    assert(params === Map("AUTO_STRING_0" -> "x"))
+  }
+
+  @Test def should_not_touch_queries_for_other_parser_versions() {
+    val original = "CYPHER 1.9 START n=node(*) WHERE n.name = 'x' RETURN n"
+
+    assert(LiteralExtractor(original) === ((original, Map.empty)))
+  }
+
+  @Test def should_type_generated_parameters_like_the_literals_they_replace() {
+    assert(LiteralExtractor.typeOfParameter("AUTO_STRING_0") === Some(StringType()))
+    assert(LiteralExtractor.typeOfParameter("AUTO_INT_1") === Some(LongType()))
+    assert(LiteralExtractor.typeOfParameter("AUTO_DOUBLE_2") === Some(DoubleType()))
+    assert(LiteralExtractor.typeOfParameter("name") === None)
+  }
+}
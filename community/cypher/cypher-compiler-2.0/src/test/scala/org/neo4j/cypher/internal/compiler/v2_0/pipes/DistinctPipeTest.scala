@@ -23,6 +23,8 @@ import org.junit.Test
 import org.scalatest.Assertions
 import org.neo4j.cypher.internal.compiler.v2_0.commands.expressions.{Literal, Multiply, Expression, Identifier}
 import org.neo4j.cypher.internal.compiler.v2_0.symbols.NumberType
+import org.neo4j.cypher.internal.compiler.v2_0.pipes.spill.SpillSettings
+import org.neo4j.test.TargetDirectory
 
 class DistinctPipeTest extends Assertions {
 
@@ -60,6 +62,21 @@ class DistinctPipeTest extends Assertions {
     assert(result.toList === List(Map("x" -> 1)))
   }
 
+  @Test def distinct_rows_spilled_to_disk_are_still_distinct() {
+    //GIVEN
+    val pipe = createDistinctPipe((1 to 20).map(x => Map("x" -> x % 8)).toList)
+    val spillDirectory = TargetDirectory.forTest(getClass).directory("spill", true)
+    val state = QueryStateHelper.empty.copy(spill = SpillSettings(3, spillDirectory))
+
+    //WHEN
+    val result = pipe.createResults(state).map(_("x")).toList
+
+    //THEN
+    assert(result.size === 8)
+    assert(result.toSet === (0 until 8).toSet)
+    assert(spillDirectory.list().length === 0)
+  }
+
   def createDistinctPipe(input: List[Map[String, Int]], expressions: Map[String, Expression] = Map("x" -> Identifier("x"))) = {
     val source = new FakePipe(input, "x" -> NumberType())
     new DistinctPipe(source, expressions)
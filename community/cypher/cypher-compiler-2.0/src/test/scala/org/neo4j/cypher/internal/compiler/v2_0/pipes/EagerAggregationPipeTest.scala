@@ -31,6 +31,8 @@ import org.neo4j.cypher.internal.compiler.v2_0.symbols._
 import collection.mutable.{Map => MutableMap}
 import java.lang.{Iterable => JIterable}
 import org.neo4j.cypher.internal.compiler.v2_0.commands.values.TokenType.PropertyKey
+import spill.SpillSettings
+import org.neo4j.test.TargetDirectory
 
 class EagerAggregationPipeTest extends JUnitSuite {
   @Test def shouldReturnColumnsFromReturnItems() {
@@ -107,6 +109,41 @@ class EagerAggregationPipeTest extends JUnitSuite {
     assertEquals(List(Map("count(name)" -> 3)), aggregationPipe.createResults(QueryStateHelper.empty).toList)
   }
 
+  @Test def shouldAggregateRowsSpilledToDisk() {
+    val source = new FakePipe((0 until 20).map(x => Map("name" -> ("name" + x % 8))).toList,
+      createSymbolTableFor("name"))
+
+    val returnItems = createReturnItemsFor("name")
+    val grouping = Map("count(*)" -> CountStar())
+    val aggregationPipe = new EagerAggregationPipe(source, returnItems, grouping)
+    val spillDirectory = TargetDirectory.forTest(getClass).directory("spill", true)
+    val state = QueryStateHelper.empty.copy(spill = SpillSettings(3, spillDirectory))
+
+    val results = aggregationPipe.createResults(state).map(_.m.toMap).toList
+
+    val expected = (0 until 8).map(x => Map("name" -> ("name" + x), "count(*)" -> (if (x < 4) 3L else 2L)))
+    assertEquals(expected.toSet, results.toSet)
+    assertEquals(8, results.size)
+    assertEquals(0, spillDirectory.list().length)
+  }
+
+  @Test def shouldDeleteSpillFilesOfResultsThatAreNotReadToTheEnd() {
+    val source = new FakePipe((0 until 20).map(x => Map("name" -> ("name" + x % 8))).toList,
+      createSymbolTableFor("name"))
+
+    val returnItems = createReturnItemsFor("name")
+    val grouping = Map("count(*)" -> CountStar())
+    val aggregationPipe = new EagerAggregationPipe(source, returnItems, grouping)
+    val spillDirectory = TargetDirectory.forTest(getClass).directory("abandoned-spill", true)
+    val state = QueryStateHelper.empty.copy(spill = SpillSettings(3, spillDirectory))
+
+    aggregationPipe.createResults(state).next()
+    assertTrue(spillDirectory.list().length > 0)
+
+    state.spillFiles.deleteAll()
+    assertEquals(0, spillDirectory.list().length)
+  }
+
   private def createSymbolTableFor(name: String) = name -> NodeType()
 
   private def getResults(p: Pipe): JIterable[Map[String, Any]] = p.createResults(QueryStateHelper.empty).map(_.m.toMap).toIterable.asJava
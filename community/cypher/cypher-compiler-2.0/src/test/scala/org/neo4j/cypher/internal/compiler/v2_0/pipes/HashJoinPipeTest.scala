@@ -0,0 +1,81 @@
+/**
+ * Copyright (c) 2002-2013 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.compiler.v2_0.pipes
+
+import org.neo4j.cypher.internal.compiler.v2_0.symbols.{RelationshipType, NodeType}
+import org.neo4j.graphdb.{Relationship, Node}
+import org.junit.Test
+import org.scalatest.Assertions
+import org.scalatest.mock.MockitoSugar
+import org.mockito.Mockito._
+
+class HashJoinPipeTest extends Assertions with MockitoSugar {
+
+  @Test def joins_rows_on_the_shared_node() {
+    //GIVEN
+    val (a1, a2, b1, b2, x1, x2) = (node(1), node(2), node(3), node(4), node(5), node(6))
+    val left = new FakePipe(List(Map("a" -> a1, "x" -> x1), Map("a" -> a2, "x" -> x2)), "a" -> NodeType(), "x" -> NodeType())
+    val right = new FakePipe(List(Map("b" -> b1, "x" -> x1), Map("b" -> b2, "x" -> x1)), "b" -> NodeType(), "x" -> NodeType())
+    val pipe = new HashJoinPipe(left, right, "x", Seq.empty)
+
+    //WHEN
+    val result = pipe.createResults(QueryStateHelper.empty).toList
+
+    //THEN
+    assert(result === List(Map("a" -> a1, "x" -> x1, "b" -> b1), Map("a" -> a1, "x" -> x1, "b" -> b2)))
+    assert(pipe.symbols.keys.toSet === Set("a", "b", "x"))
+  }
+
+  @Test def does_not_join_rows_using_the_same_relationship_twice() {
+    //GIVEN
+    val (a, x) = (node(1), node(2))
+    val (r1, r2) = (mock[Relationship], mock[Relationship])
+    val left = new FakePipe(List(Map("a" -> a, "r" -> r1, "x" -> x)), "a" -> NodeType(), "r" -> RelationshipType(), "x" -> NodeType())
+    val right = new FakePipe(List(Map("b" -> a, "s" -> r1, "x" -> x), Map("b" -> a, "s" -> r2, "x" -> x)),
+      "b" -> NodeType(), "s" -> RelationshipType(), "x" -> NodeType())
+    val pipe = new HashJoinPipe(left, right, "x", Seq("r" -> "s"))
+
+    //WHEN
+    val result = pipe.createResults(QueryStateHelper.empty).toList
+
+    //THEN
+    assert(result === List(Map("a" -> a, "r" -> r1, "x" -> x, "b" -> a, "s" -> r2)))
+  }
+
+  @Test def rows_without_the_shared_node_are_dropped() {
+    //GIVEN
+    val x = node(1)
+    val left = new FakePipe(List(Map("x" -> null), Map("x" -> x)), "x" -> NodeType())
+    val right = new FakePipe(List(Map("x" -> null), Map("x" -> x)), "x" -> NodeType())
+    val pipe = new HashJoinPipe(left, right, "x", Seq.empty)
+
+    //WHEN
+    val result = pipe.createResults(QueryStateHelper.empty).toList
+
+    //THEN
+    assert(result === List(Map("x" -> x)))
+  }
+
+  private def node(id: Long): Node = {
+    val node = mock[Node]
+    when(node.getId).thenReturn(id)
+    node
+  }
+}
@@ -0,0 +1,143 @@
+/**
+ * Copyright (c) 2002-2013 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.compiler.v2_0.pipes
+
+import org.junit.Test
+import org.scalatest.Assertions
+import org.neo4j.cypher.internal.compiler.v2_0.ExecutionContext
+import org.neo4j.cypher.internal.compiler.v2_0.commands.{Equals, ReturnItem}
+import org.neo4j.cypher.internal.compiler.v2_0.commands.expressions.{Add, Identifier, Literal}
+import collection.mutable
+
+class SlotMapTest extends Assertions {
+  @Test
+  def should_store_values_in_slots_from_the_layout() {
+    //GIVEN
+    val layout = new SlotLayout(Seq("a", "b"))
+    val map = new SlotMap(layout)
+
+    //WHEN
+    map += "b" -> 2
+    map += "c" -> 3
+
+    //THEN
+    assert(map.toMap === Map("b" -> 2, "c" -> 3))
+    assert(layout.slotOf("b") === 1)
+    assert(layout.slotOf("c") === 2)
+    assert(map.get("a") === None)
+  }
+
+  @Test
+  def should_tell_null_values_from_missing_ones() {
+    //GIVEN
+    val map = new SlotMap(new SlotLayout(Seq("a", "b")))
+
+    //WHEN
+    map += "a" -> null
+
+    //THEN
+    assert(map.get("a") === Some(null))
+    assert(map.get("b") === None)
+    assert(map.size === 1)
+  }
+
+  @Test
+  def copies_should_not_see_each_others_writes() {
+    //GIVEN
+    val original = new SlotMap(new SlotLayout(Seq("a")))
+    original += "a" -> 1
+
+    //WHEN
+    val copy = original.copy()
+    copy += "a" -> 2
+    original += "b" -> 3
+
+    //THEN
+    assert(original.toMap === Map("a" -> 1, "b" -> 3))
+    assert(copy.toMap === Map("a" -> 2))
+  }
+
+  @Test
+  def should_remove_values() {
+    //GIVEN
+    val map = new SlotMap(new SlotLayout())
+    map += "a" -> 1
+    map += "b" -> 2
+
+    //WHEN
+    map -= "a"
+
+    //THEN
+    assert(map.toMap === Map("b" -> 2))
+  }
+
+  @Test
+  def execution_contexts_should_keep_using_slots_when_creating_new_rows() {
+    //GIVEN
+    val ctx = ExecutionContext(new SlotMap(new SlotLayout(Seq("a"))))
+    ctx += "a" -> 1
+
+    //WHEN
+    val withB = ctx.newWith("b" -> 2)
+    val fromC = ctx.newFrom(Seq("c" -> 3))
+
+    //THEN
+    assert(withB.m.isInstanceOf[SlotMap])
+    assert(fromC.m.isInstanceOf[SlotMap])
+    assert(withB.toMap === Map("a" -> 1, "b" -> 2))
+    assert(fromC.toMap === Map("c" -> 3))
+    assert(ctx.toMap === Map("a" -> 1))
+  }
+
+  @Test
+  def should_bind_the_pipes_of_a_plan_to_the_slots_of_its_layout() {
+    //GIVEN
+    val a = ExtractPipe(NullPipe, Map("a" -> Literal(1)))
+    val filter = new FilterPipe(a, Equals(Identifier("a"), Literal(1)))
+    val b = new ExtractPipe(filter, Map("b" -> Add(Identifier("a"), Literal(1))))
+    val pipe = new ColumnFilterPipe(b, Seq(ReturnItem(Identifier("b"), "c")))
+
+    //WHEN
+    val layout = SlotLayout(pipe)
+    val result = pipe.createResults(QueryStateHelper.empty.copy(slots = layout)).toList
+
+    //THEN
+    assert(layout.toString === "SlotLayout(a, b, c)")
+    assert(result.map(_.toMap) === List(Map("c" -> 2)))
+    assert(result.head.m.isInstanceOf[SlotMap])
+  }
+
+  @Test
+  def bound_identifiers_should_read_rows_of_other_layouts_by_name() {
+    //GIVEN
+    val identifier = Identifier("b")
+    new SlotLayout(Seq("a", "b")).bind(identifier)
+    val otherRow = new SlotMap(new SlotLayout(Seq("b")))
+    otherRow += "b" -> 2
+
+    //WHEN
+    val fromOtherLayout = identifier(ExecutionContext(otherRow))(QueryStateHelper.empty)
+    val fromHashMap = identifier(ExecutionContext(mutable.Map("b" -> 3)))(QueryStateHelper.empty)
+
+    //THEN
+    assert(fromOtherLayout === 2)
+    assert(fromHashMap === 3)
+  }
+}
@@ -29,6 +29,8 @@ import org.junit.Assert._
 import org.scalatest.junit.JUnitSuite
 import collection.mutable.{Map=>MutableMap}
 import scala.util.Random
+import spill.SpillSettings
+import org.neo4j.test.TargetDirectory
 
 class SortPipeTest extends JUnitSuite {
   @Test def emptyInIsEmptyOut() {
@@ -121,4 +123,18 @@ class SortPipeTest extends JUnitSuite {
 
     sortPipe.createResults(QueryStateHelper.empty)
   }
+
+  @Test def shouldSortRowsSpilledToDisk() {
+    val list:Seq[MutableMap[String, Any]] = Random.shuffle(
+      for (v <- 1 to 100) yield MutableMap("x" -> (v: Any), "y" -> ("value" + v)))
+
+    val source = new FakePipe(list, "x" -> NumberType(), "y" -> StringType())
+    val sortPipe = new SortPipe(source, List(SortItem(Identifier("x"), true)))
+    val spillDirectory = TargetDirectory.forTest(getClass).directory("spill", true)
+    val state = QueryStateHelper.empty.copy(spill = SpillSettings(7, spillDirectory))
+
+    val expectedResult = for (v <- 1 to 100) yield MutableMap("x" -> v, "y" -> ("value" + v))
+    assertEquals(expectedResult.toList, sortPipe.createResults(state).toList)
+    assertEquals(0, spillDirectory.list().length)
+  }
 }
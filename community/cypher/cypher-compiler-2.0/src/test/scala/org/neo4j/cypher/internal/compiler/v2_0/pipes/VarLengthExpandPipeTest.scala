@@ -0,0 +1,136 @@
+/**
+ * Copyright (c) 2002-2013 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.compiler.v2_0.pipes
+
+import org.neo4j.cypher.internal.compiler.v2_0.commands.{SingleNode, VarLengthRelatedTo}
+import org.neo4j.cypher.internal.compiler.v2_0.spi.QueryContext
+import org.neo4j.cypher.internal.compiler.v2_0.symbols.NodeType
+import org.neo4j.cypher.internal.PathImpl
+import org.neo4j.graphdb.{Direction, Relationship, Node}
+import org.junit.Test
+import org.scalatest.Assertions
+import org.scalatest.mock.MockitoSugar
+import org.mockito.Mockito._
+import org.mockito.Matchers
+import org.mockito.invocation.InvocationOnMock
+import org.mockito.stubbing.Answer
+
+class VarLengthExpandPipeTest extends Assertions with MockitoSugar {
+  val query = mock[QueryContext]
+  var relationships = Seq[(Relationship, Node, Node)]()
+
+  when(query.getRelationshipsFor(Matchers.any(), Matchers.any(), Matchers.any())).thenAnswer(new Answer[Iterator[Relationship]]() {
+    def answer(invocation: InvocationOnMock): Iterator[Relationship] = {
+      val node = invocation.getArguments()(0).asInstanceOf[Node]
+      val dir = invocation.getArguments()(1).asInstanceOf[Direction]
+      relationships.iterator.collect {
+        case (r, from, _) if from == node && dir != Direction.INCOMING => r
+        case (r, _, to) if to == node && dir != Direction.OUTGOING     => r
+      }
+    }
+  })
+
+  val (a, b, x, y, z, w) = (node(1), node(2), node(3), node(4), node(5), node(6))
+  val ax = relate(a, x)
+  val xb = relate(x, b)
+  val ay = relate(a, y)
+  val yz = relate(y, z)
+  val zb = relate(z, b)
+  val aw = relate(a, w)
+
+  @Test def finds_every_path_between_the_bound_nodes() {
+    //GIVEN
+    val pipe = expand(min = 1, max = 3)
+
+    //WHEN
+    val result = pipe.createResults(state).map(_("p")).toSet
+
+    //THEN
+    assert(result === Set(PathImpl(a, ax, x, xb, b), PathImpl(a, ay, y, yz, z, zb, b)))
+  }
+
+  @Test def leaves_out_paths_longer_than_the_maximum() {
+    //GIVEN
+    val pipe = expand(min = 1, max = 2)
+
+    //WHEN
+    val result = pipe.createResults(state).map(_("p")).toList
+
+    //THEN
+    assert(result === List(PathImpl(a, ax, x, xb, b)))
+  }
+
+  @Test def leaves_out_paths_shorter_than_the_minimum() {
+    //GIVEN
+    val pipe = expand(min = 3, max = 3)
+
+    //WHEN
+    val result = pipe.createResults(state).map(_("p")).toList
+
+    //THEN
+    assert(result === List(PathImpl(a, ay, y, yz, z, zb, b)))
+  }
+
+  @Test def does_not_walk_into_branches_that_can_not_reach_the_end_node() {
+    //GIVEN
+    val pipe = expand(min = 1, max = 2)
+
+    //WHEN
+    pipe.createResults(state).toList
+
+    //THEN
+    verify(query, never()).getRelationshipsFor(w, Direction.OUTGOING, Seq("KNOWS"))
+    verify(query, never()).getRelationshipsFor(z, Direction.OUTGOING, Seq("KNOWS"))
+  }
+
+  @Test def produces_nothing_when_the_nodes_are_not_connected() {
+    //GIVEN
+    val pipe = expand(min = 1, max = 4, to = w, direction = Direction.INCOMING)
+
+    //WHEN
+    val result = pipe.createResults(state).toList
+
+    //THEN
+    assert(result === List())
+  }
+
+  private def expand(min: Int, max: Int, to: Node = b, direction: Direction = Direction.OUTGOING) = {
+    val source = new FakePipe(List(Map("a" -> a, "b" -> to)), "a" -> NodeType(), "b" -> NodeType())
+    val pattern = VarLengthRelatedTo("p", SingleNode("a"), SingleNode("b"), Some(min), Some(max), Seq("KNOWS"),
+      direction, None, Map.empty)
+    new VarLengthExpandPipe(source, pattern)
+  }
+
+  private def state = QueryStateHelper.empty.copy(inner = query)
+
+  private def node(id: Long): Node = {
+    val node = mock[Node]
+    when(node.getId).thenReturn(id)
+    node
+  }
+
+  private def relate(from: Node, to: Node): Relationship = {
+    val rel = mock[Relationship]
+    when(rel.getOtherNode(from)).thenReturn(to)
+    when(rel.getOtherNode(to)).thenReturn(from)
+    relationships = relationships :+ ((rel, from, to))
+    rel
+  }
+}
@@ -34,4 +34,19 @@ abstract class AggregateTest {
 
     func.result
   }
+
+  /*
+  Aggregates the two halves of the values separately, and merges the second half into the first
+   */
+  def mergedAggregateOn(first: Seq[Any], second: Seq[Any]): Any = {
+    implicit val state = QueryStateHelper.empty
+    val funcs = Seq(first, second).map(values => {
+      val func = createAggregator(Identifier("x"))
+      values.foreach(value => func(ExecutionContext.from("x" -> value)))
+      func.asInstanceOf[MergeableAggregationFunction]
+    })
+
+    funcs(0).merge(funcs(1))
+    funcs(0).result
+  }
 }
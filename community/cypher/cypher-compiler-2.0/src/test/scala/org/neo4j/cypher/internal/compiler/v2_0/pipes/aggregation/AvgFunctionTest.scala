@@ -67,4 +67,10 @@ class AvgFunctionTest extends AggregateTest {
 
     assertEquals(4.5, result)
   }
-}
\ No newline at end of file
+
+  @Test def mergedHalvesGiveTheSameAverage() {
+    val result = mergedAggregateOn(Seq(2, 8), Seq(5))
+
+    assertEquals(5.0, result)
+  }
+}
@@ -38,4 +38,8 @@ class CollectFunctionTest extends AggregateTest with Assertions {
   @Test def doesnt_collect_null_values() {
     assert(Seq() === aggregateOn(null))
   }
-}
\ No newline at end of file
+
+  @Test def merging_keeps_the_values_of_both_halves_in_order() {
+    assert(Seq(1, 2, 3) === mergedAggregateOn(Seq(1, 2), Seq(null, 3)))
+  }
+}
@@ -58,4 +58,10 @@ class MaxFunctionTest extends AggregateTest {
   @Test(expected = classOf[SyntaxException]) def noNumberValuesThrowAnException() {
     aggregateOn(1, "wut")
   }
-}
\ No newline at end of file
+
+  @Test def mergedHalvesGiveTheSameMaximum() {
+    val result = mergedAggregateOn(Seq(1, 7), Seq(null, 3))
+
+    assertEquals(7, result)
+  }
+}
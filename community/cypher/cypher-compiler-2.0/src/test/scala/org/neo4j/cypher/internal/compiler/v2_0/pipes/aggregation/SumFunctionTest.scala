@@ -73,4 +73,11 @@ class SumFunctionTest extends AggregateTest with Assertions {
   @Test def noNumberValuesThrowAnException() {
     intercept[CypherTypeException](aggregateOn(1, "wut"))
   }
+
+  @Test def mergedHalvesGiveTheSameSum() {
+    val result = mergedAggregateOn(Seq(1, 2), Seq(3.0d))
+
+    assertEquals(6.0, result)
+    assertTrue(result.isInstanceOf[Double])
+  }
 }
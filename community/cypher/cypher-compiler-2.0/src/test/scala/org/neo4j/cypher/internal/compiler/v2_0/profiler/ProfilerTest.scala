@@ -26,6 +26,9 @@ import org.neo4j.cypher.internal.compiler.v2_0.spi.QueryContext
 import org.junit.Test
 import org.scalatest.mock.MockitoSugar
 import org.scalatest.Assertions
+import org.mockito.Mockito._
+import org.mockito.stubbing.Answer
+import org.mockito.invocation.InvocationOnMock
 
 class ProfilerTest extends Assertions with MockitoSugar {
   @Test
@@ -66,6 +69,69 @@ class ProfilerTest extends Assertions with MockitoSugar {
     assertRecorded(decoratedResult, "baz", rows = 1, dbAccess = 2)
   }
 
+  @Test
+  def should_report_time_and_cache_activity() {
+    //GIVEN
+    val pipe = new ProfilerPipe(NullPipe, "foo", rows = 10, dbAccess = 20)
+    val queryContext = mock[QueryContext]
+    val profiler = new Profiler
+    val queryState = QueryState(null, queryContext, Map.empty, profiler)
+
+    //WHEN
+    materialize(pipe.createResults(queryState))
+    val decoratedResult = profiler.decorate(pipe.executionPlanDescription, true)
+
+    //THEN
+    val pipeArgs = decoratedResult.find("foo").get.args.toMap
+    assert(pipeArgs("_elapsed_ns").v.asInstanceOf[Long] > 0)
+    assert(pipeArgs("_cache_hits").v === 0)
+    assert(pipeArgs("_cache_misses").v === 0)
+    assert(pipeArgs("_page_hits").v === 0)
+    assert(pipeArgs("_page_misses").v === 0)
+  }
+
+  @Test
+  def should_report_page_cache_misses_apart_from_object_cache_misses() {
+    //GIVEN
+    val pipe = new ProfilerPipe(NullPipe, "foo", rows = 10, dbAccess = 20)
+    val queryContext = mock[QueryContext]
+    var pageMisses = 0L
+    when(queryContext.pageCacheMisses).thenAnswer(new Answer[Long] {
+      def answer(invocation: InvocationOnMock) = {
+        pageMisses += 1
+        pageMisses
+      }
+    })
+    val profiler = new Profiler
+    val queryState = QueryState(null, queryContext, Map.empty, profiler)
+
+    //WHEN
+    materialize(pipe.createResults(queryState))
+    val decoratedResult = profiler.decorate(pipe.executionPlanDescription, true)
+
+    //THEN
+    val pipeArgs = decoratedResult.find("foo").get.args.toMap
+    assert(pipeArgs("_page_misses").v.asInstanceOf[Long] > 0)
+    assert(pipeArgs("_page_hits").v === 0)
+    assert(pipeArgs("_cache_misses").v === 0)
+  }
+
+  @Test
+  def sampling_profiler_leaves_out_statistics_of_unfinished_results() {
+    //GIVEN
+    val pipe = new ProfilerPipe(NullPipe, "foo", rows = 10, dbAccess = 20)
+    val queryContext = mock[QueryContext]
+    val profiler = new Profiler(strict = false)
+    val queryState = QueryState(null, queryContext, Map.empty, profiler)
+
+    //WHEN
+    pipe.createResults(queryState).next()
+    val decoratedResult = profiler.decorate(pipe.executionPlanDescription, false)
+
+    //THEN
+    assert(!decoratedResult.find("foo").get.args.toMap.contains("_rows"))
+  }
+
   private def assertRecorded(result: PlanDescription, name: String, rows: Int, dbAccess: Int) {
     val pipeArgs = result.find(name).get.args.toMap
     val recordedHits = pipeArgs("_db_hits")
@@ -29,6 +29,8 @@ import scala.collection.JavaConverters._
 import java.util.{Map => JavaMap}
 import org.neo4j.cypher.internal.compiler.v2_0.prettifier.Prettifier
 import org.neo4j.kernel.impl.coreapi.ThreadToStatementContextBridge
+import org.neo4j.kernel.impl.cache.QueryCacheStatistics
+import org.neo4j.cypher.internal.compiler.v2_0.parser.LiteralExtractor
 
 class ExecutionEngine(graph: GraphDatabaseService, logger: StringLogger = StringLogger.DEV_NULL) {
 
@@ -40,8 +42,8 @@ class ExecutionEngine(graph: GraphDatabaseService, logger: StringLogger = String
   @throws(classOf[SyntaxException])
   def profile(query: String, params: Map[String, Any]): ExecutionResult = {
     logger.debug(query)
-    val (plan, tx) = prepare(query)
-    plan.profile(graphAPI, tx, txBridge.instance(), params)
+    val (plan, tx, extractedParams) = prepare(query)
+    plan.profile(graphAPI, tx, txBridge.instance(), params ++ extractedParams)
   }
 
   @throws(classOf[SyntaxException])
@@ -57,31 +59,54 @@ class ExecutionEngine(graph: GraphDatabaseService, logger: StringLogger = String
   @throws(classOf[SyntaxException])
   def execute(query: String, params: Map[String, Any]): ExecutionResult = {
     logger.debug(query)
-    val (plan, tx) = prepare(query)
-    plan.execute(graphAPI, tx, txBridge.instance(), params)
+    val (plan, tx, extractedParams) = prepare(query)
+    plan.execute(graphAPI, tx, txBridge.instance(), params ++ extractedParams)
   }
 
   @throws(classOf[SyntaxException])
   def execute(query: String, params: JavaMap[String, Any]): ExecutionResult = execute(query, params.asScala.toMap)
 
   @throws(classOf[SyntaxException])
-  private def prepare(query: String): (ExecutionPlan, Transaction)=  {
+  private[cypher] def prepare(query: String): (ExecutionPlan, Transaction, Map[String, Any]) = {
+    var (normalizedQuery, extractedParams) = normalize(query)
 
     var n = 0
+    var missed = false
     while (n < ExecutionEngine.PLAN_BUILDING_TRIES) {
       // create transaction and query context
       var touched = false
       val tx = graph.beginTx()
       val statement = txBridge.instance()
-      val plan = try {
+      val (plan, params) = try {
         // fetch plan cache
-        val planCache = getOrCreateFromSchemaState(statement, new LRUCache[String, ExecutionPlan](getPlanCacheSize))
+        val planCache = getOrCreateFromSchemaState(statement,
+          new LRUCache[String, ExecutionPlan](getPlanCacheSize, (_, _) => cacheStatistics.evicted()))
 
         // get plan or build it
-        planCache.getOrElseUpdate(query, {
+        def compile(q: String) = {
           touched = true
-          compiler.prepare(query, graph, statement)
-        })
+          compiler.prepare(q, graph, statement)
+        }
+
+        if (normalizedQuery == query) {
+          (planCache.getOrElseUpdate(query, compile(query)), extractedParams)
+        } else planCache.get(normalizedQuery) match {
+          case Some(cachedPlan) => (cachedPlan, extractedParams)
+          case None =>
+            try {
+              (planCache.getOrElseUpdate(normalizedQuery, compile(normalizedQuery)), extractedParams)
+            } catch {
+              // some literal could not be replaced by a parameter, so the query is planned as it was written,
+              // which also reports any error against the text the user wrote
+              case _: CypherException =>
+                val rawPlan = compile(query)
+                unnormalizableQueries.put(query, query)
+                normalizedQuery = query
+                extractedParams = Map.empty
+                planCache.put(query, rawPlan)
+                (rawPlan, extractedParams)
+            }
+        }
       }
       catch {
         case (t: Throwable) =>
@@ -92,6 +117,7 @@ class ExecutionEngine(graph: GraphDatabaseService, logger: StringLogger = String
       }
 
       if (touched) {
+        missed = true
         statement.close()
         tx.success()
         tx.close()
@@ -100,7 +126,8 @@ class ExecutionEngine(graph: GraphDatabaseService, logger: StringLogger = String
         // close the old statement reference after the statement has been "upgraded"
         // to either a schema data or a schema statement, so that the locks are "handed over".
         statement.close()
-        return (plan, tx)
+        if (missed) cacheStatistics.miss() else cacheStatistics.hit()
+        return (plan, tx, params)
       }
 
       n += 1
@@ -113,6 +140,18 @@ class ExecutionEngine(graph: GraphDatabaseService, logger: StringLogger = String
     .getDependencyResolver
     .resolveDependency(classOf[ThreadToStatementContextBridge])
 
+  private val cacheStatistics = graph.asInstanceOf[GraphDatabaseAPI]
+    .getDependencyResolver
+    .resolveDependency(classOf[QueryCacheStatistics])
+
+  private val unnormalizableQueries = new LRUCache[String, String](getPlanCacheSize)
+
+  private def normalize(query: String): (String, Map[String, Any]) =
+    if (compiler.defaultVersion != CypherVersion.v2_0 || unnormalizableQueries.containsKey(query))
+      (query, Map.empty)
+    else
+      LiteralExtractor(query)
+
   private def getOrCreateFromSchemaState[V](statement: Statement, creator: => V) = {
     val javaCreator = new org.neo4j.helpers.Function[ExecutionEngine, V]() {
       def apply(key: ExecutionEngine) = creator
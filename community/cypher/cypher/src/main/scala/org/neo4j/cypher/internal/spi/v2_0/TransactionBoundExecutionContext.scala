@@ -40,6 +40,9 @@ import org.neo4j.helpers.collection.IteratorUtil
 import org.neo4j.cypher.internal.compiler.v2_0.spi._
 import org.neo4j.cypher.internal.compiler.v2_0.spi.IdempotentResult
 import org.neo4j.kernel.impl.coreapi.ThreadToStatementContextBridge
+import org.neo4j.kernel.impl.util.JobScheduler
+import java.util.concurrent.{Callable, Future, FutureTask}
+import org.neo4j.kernel.impl.nioneo.store.{PageCacheWindowPoolFactory, StoreFactory}
 
 class TransactionBoundExecutionContext(graph: GraphDatabaseAPI, tx: Transaction, statement: Statement)
   extends TransactionBoundTokenContext(statement) with QueryContext {
@@ -89,6 +92,47 @@ class TransactionBoundExecutionContext(graph: GraphDatabaseAPI, tx: Transaction,
     }
   }
 
+  def readOnlyWorkers: Option[ReadOnlyWorkers] = statement match {
+    case kernelStatement: KernelStatement if !kernelStatement.hasTxStateWithChanges => Some(new ReadOnlyWorkers {
+      def submit[T](work: QueryContext => T): Future[T] = {
+        val task = new FutureTask[T](new Callable[T] {
+          def call(): T = {
+            val tx = graph.beginTx()
+            val bridge = graph.getDependencyResolver.resolveDependency(classOf[ThreadToStatementContextBridge])
+            val context = new TransactionBoundExecutionContext(graph, tx, bridge.instance())
+            var success = false
+            try {
+              val result = work(context)
+              success = true
+              result
+            } finally {
+              context.close(success)
+            }
+          }
+        })
+        graph.getDependencyResolver.resolveDependency(classOf[JobScheduler]).schedule(task)
+        task
+      }
+    })
+    case _ => None
+  }
+
+  private lazy val objectCaches = graph.getNodeManager.caches().asScala.toList
+
+  override def objectCacheHits: Long = objectCaches.foldLeft(0L)(_ + _.hitCount())
+
+  override def objectCacheMisses: Long = objectCaches.foldLeft(0L)(_ + _.missCount())
+
+  private lazy val pageCache =
+    graph.getDependencyResolver.resolveDependency(classOf[StoreFactory]).getWindowPoolFactory match {
+      case factory: PageCacheWindowPoolFactory => Some(factory.getPageCache)
+      case _                                   => None
+    }
+
+  override def pageCacheHits: Long = pageCache.map(_.getHitCount).getOrElse(0L)
+
+  override def pageCacheMisses: Long = pageCache.map(_.getMissCount).getOrElse(0L)
+
   def createNode(): Node =
     graph.createNode()
 
@@ -109,9 +153,23 @@ class TransactionBoundExecutionContext(graph: GraphDatabaseAPI, tx: Transaction,
     case _     => node.getRelationships(dir, types.map(withName): _*).iterator().asScala
   }
 
+  def getDegree(node: Node, dir: Direction, types: Seq[String]): Int = types match {
+    case Seq() => node.getDegree(dir)
+    case _     => types.distinct.map(t => node.getDegree(withName(t), dir)).sum
+  }
+
   def exactIndexSearch(index: IndexDescriptor, value: Any) =
     mapToScala(statement.readOperations().nodesGetFromIndexLookup(index, value))(nodeOps.getById)
 
+  def indexSeekByNumberRange(index: IndexDescriptor, lower: Number, includeLower: Boolean, upper: Number, includeUpper: Boolean) =
+    mapToScala(statement.readOperations().nodesGetFromIndexRangeSeekByNumber(index, lower, includeLower, upper, includeUpper))(nodeOps.getById)
+
+  def indexSeekByStringRange(index: IndexDescriptor, lower: String, includeLower: Boolean, upper: String, includeUpper: Boolean) =
+    mapToScala(statement.readOperations().nodesGetFromIndexRangeSeekByString(index, lower, includeLower, upper, includeUpper))(nodeOps.getById)
+
+  def indexSeekByPrefix(index: IndexDescriptor, prefix: String) =
+    mapToScala(statement.readOperations().nodesGetFromIndexRangeSeekByPrefix(index, prefix))(nodeOps.getById)
+
   def exactUniqueIndexSearch(index: IndexDescriptor, value: Any): Option[Node] = {
     val nodeId: Long = statement.readOperations().nodeGetUniqueFromIndexLookup(index, value)
     if (StatementConstants.NO_SUCH_NODE == nodeId) None else Some(nodeOps.getById(nodeId))
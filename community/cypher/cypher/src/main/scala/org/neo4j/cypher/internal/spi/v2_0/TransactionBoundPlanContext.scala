@@ -28,6 +28,8 @@ import org.neo4j.kernel.api.exceptions.KernelException
 import org.neo4j.kernel.api.Statement
 import org.neo4j.kernel.api.exceptions.schema.SchemaRuleNotFoundException
 import org.neo4j.cypher.internal.compiler.v2_0.spi.PlanContext
+import org.neo4j.kernel.GraphDatabaseAPI
+import org.neo4j.kernel.api.statistics.GraphStatistics
 
 class TransactionBoundPlanContext(statement:Statement, gdb:GraphDatabaseService)
   extends TransactionBoundTokenContext(statement) with PlanContext {
@@ -76,4 +78,9 @@ class TransactionBoundPlanContext(statement:Statement, gdb:GraphDatabaseService)
       throw new MissingIndexException(idxName)
     }
   }
+
+  lazy val statistics: GraphStatistics = gdb match {
+    case api: GraphDatabaseAPI => api.getDependencyResolver.resolveDependency(classOf[GraphStatistics])
+    case _                     => GraphStatistics.NONE
+  }
 }
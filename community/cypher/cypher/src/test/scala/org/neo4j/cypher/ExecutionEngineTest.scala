@@ -599,6 +599,18 @@ foreach(x in [1,2,3] |
     assertEquals(List(1), result.columnAs[Int]("length(p)").toList)
   }
 
+  @Test def shouldReturnPatternLengthFromNodeDegree() {
+    createNodes("A", "B", "C")
+    relate("A" -> "KNOWS" -> "B")
+    relate("A" -> "KNOWS" -> "C")
+    relate("C" -> "KNOWS" -> "A")
+    relate("A" -> "LIKES" -> "B")
+
+    val result = execute("start n = node(0) return length((n)-[:KNOWS]->()) as outgoing, length(()-[:KNOWS]->(n)) as incoming, length((n)--()) as total").toList
+
+    assert(List(Map("outgoing" -> 2L, "incoming" -> 1L, "total" -> 4L)) === result)
+  }
+
   @Test def shouldReturnCollectionSize() {
     val result = execute("return size([1,2,3]) as n")
     assertEquals(List(3), result.columnAs[Int]("n").toList)
@@ -1530,6 +1542,30 @@ RETURN x0.name""")
     assert(result === List(Map("a.name" -> "Florescu"), Map("a.name" -> null)))
   }
 
+  @Test def aggregateInParallelOverCommittedAndUncommittedNodes() {
+    val db = new ImpermanentGraphDatabase(Map[String, String]("cypher_parallel_workers" -> "4").asJava)
+    val engine = new ExecutionEngine(db)
+
+    try {
+      engine.execute("FOREACH (i IN range(1, 100) | CREATE (:Person {age: i % 10}))")
+      assert(engine.execute("MATCH (n:Person) RETURN count(n) AS c").columnAs[Long]("c").toList === List(100L))
+
+      // workers run in transactions of their own, so changes of the transaction of the query are aggregated on
+      // the calling thread
+      val tx = db.beginTx()
+      try {
+        engine.execute("CREATE (:Person {age: 1})")
+        assert(engine.execute("MATCH (n:Person) RETURN count(n) AS c").columnAs[Long]("c").toList === List(101L))
+        val young = engine.execute("MATCH (n:Person) WHERE n.age = 1 RETURN count(*) AS c")
+        assert(young.columnAs[Long]("c").toList === List(11L))
+      } finally {
+        tx.close()
+      }
+    } finally {
+      db.shutdown()
+    }
+  }
+
   @Test def createEngineWithSpecifiedParserVersion() {
     val db = new ImpermanentGraphDatabase(Map[String, String]("cypher_parser_version" -> "1.9").asJava)
     val engine = new ExecutionEngine(db)
@@ -2279,6 +2315,25 @@ RETURN x0.name""")
     assert(result.toList === List(Map("n"->jake)))
   }
 
+  @Test
+  def should_be_able_to_use_index_hints_with_ranges_and_prefixes() {
+    //GIVEN
+    val andres = createLabeledNode(Map("name" -> "Andres", "age" -> 37), "Person")
+    val jake = createLabeledNode(Map("name" -> "Jacob", "age" -> 30), "Person")
+    createLabeledNode(Map("name" -> "Jim", "age" -> 24), "Person")
+
+    graph.createIndex("Person", "name")
+    graph.createIndex("Person", "age")
+
+    //WHEN
+    val range = execute("MATCH (n:Person) USING INDEX n:Person(age) WHERE n.age >= 30 AND n.age < 40 RETURN n").toList
+    val prefix = execute("MATCH (n:Person) USING INDEX n:Person(name) WHERE n.name =~ 'Ja.*' RETURN n").toList
+
+    //THEN
+    assert(range === List(Map("n" -> jake), Map("n" -> andres)))
+    assert(prefix === List(Map("n" -> jake)))
+  }
+
   @Test
   def should_be_Able_to_use_label_as_start_point() {
     //GIVEN
@@ -0,0 +1,106 @@
+/**
+ * Copyright (c) 2002-2013 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher
+
+import org.junit.Test
+import org.neo4j.graphdb.factory.GraphDatabaseSettings
+import org.neo4j.kernel.GraphDatabaseAPI
+import org.neo4j.kernel.impl.cache.QueryCacheStatistics
+import org.neo4j.test.ImpermanentGraphDatabase
+import scala.collection.JavaConverters._
+
+class QueryPlanCacheAcceptanceTest extends ExecutionEngineHelper {
+
+  @Test
+  def queries_only_differing_in_literals_should_share_one_plan() {
+    // Given
+    createLabeledNode(Map("name" -> "Andres", "age" -> 36), "Person")
+    createLabeledNode(Map("name" -> "Jake", "age" -> 27), "Person")
+
+    // When
+    val first = planOf("match (n:Person) where n.age > 30 return n.name")
+    val second = planOf("match (n:Person) where n.age > 20 return n.name")
+
+    // Then
+    assert(first eq second)
+    assert(execute("match (n:Person) where n.age > 30 return n.name").toList === List(Map("n.name" -> "Andres")))
+    assert(execute("match (n:Person) where n.age > 20 return n.name order by n.name").toList ===
+      List(Map("n.name" -> "Andres"), Map("n.name" -> "Jake")))
+  }
+
+  @Test
+  def queries_of_different_shapes_should_not_share_plans() {
+    // When
+    val first = planOf("match (n:Person) where n.age > 30 return n.name")
+    val second = planOf("match (n:Person) where n.age < 30 return n.name")
+
+    // Then
+    assert(first ne second)
+  }
+
+  @Test
+  def should_count_plan_cache_hits_and_misses() {
+    // Given
+    val statistics = statisticsOf(graph)
+    val hits = statistics.hitCount()
+    val misses = statistics.missCount()
+
+    // When
+    execute("match (n) where n.age > 30 return n").toList
+    execute("match (n) where n.age > 40 return n").toList
+    execute("match (n) where n.age > 50 return n").toList
+    execute("match (n) where n.name = 'Andres' return n").toList
+
+    // Then
+    assert(statistics.hitCount() - hits === 2)
+    assert(statistics.missCount() - misses === 2)
+  }
+
+  @Test
+  def should_count_plans_evicted_from_a_full_cache() {
+    // Given
+    val db = new ImpermanentGraphDatabase(Map(GraphDatabaseSettings.query_cache_size.name() -> "1").asJava)
+    try {
+      val engine = new ExecutionEngine(db)
+      val statistics = statisticsOf(db)
+
+      // When
+      engine.execute("match (n) where n.age > 30 return n").toList
+      engine.execute("match (n) where n.name = 'Andres' return n").toList
+      engine.execute("match (n) where n.age > 40 return n").toList
+
+      // Then
+      assert(statistics.missCount() === 3)
+      assert(statistics.hitCount() === 0)
+      assert(statistics.evictionCount() === 2)
+    } finally {
+      db.shutdown()
+    }
+  }
+
+  private def planOf(query: String) = {
+    val (plan, tx, _) = engine.prepare(query)
+    tx.close()
+    plan
+  }
+
+  private def statisticsOf(db: GraphDatabaseAPI) =
+    db.getDependencyResolver.resolveDependency(classOf[QueryCacheStatistics])
+}
@@ -62,4 +62,13 @@ class LRUCacheTest extends Assertions {
     assertFalse(cache.containsKey("2"));
   }
 
+  @Test def shouldReportEvictedItems() {
+    var evicted = List[String]()
+    val cache = new LRUCache[String, String](5, (key, _) => evicted = key :: evicted)
+    fillWithOneToFive(cache)
+
+    cache.put("6", "6")
+
+    assert(evicted === List("1"))
+  }
 }
@@ -130,6 +130,14 @@ class PathImplTest extends Spec {
 
     def hasRelationship(`type` : RelationshipType, dir: Direction): Boolean = false
 
+    def getDegree(): Int = 0
+
+    def getDegree(`type`: RelationshipType): Int = 0
+
+    def getDegree(direction: Direction): Int = 0
+
+    def getDegree(`type`: RelationshipType, direction: Direction): Int = 0
+
     def getSingleRelationship(`type` : RelationshipType, dir: Direction): Relationship = null
 
     def createRelationshipTo(otherNode: Node, `type` : RelationshipType): Relationship = null
@@ -138,6 +138,14 @@ class PausingNode(n: Node, afterGetRelationship: Node => Unit) extends Node {
 
   def hasRelationship(`type`: RelationshipType, dir: Direction): Boolean = ???
 
+  def getDegree(): Int = ???
+
+  def getDegree(`type`: RelationshipType): Int = ???
+
+  def getDegree(direction: Direction): Int = ???
+
+  def getDegree(`type`: RelationshipType, direction: Direction): Int = ???
+
   def getSingleRelationship(`type`: RelationshipType, dir: Direction): Relationship = ???
 
   def createRelationshipTo(otherNode: Node, `type`: RelationshipType): Relationship = {
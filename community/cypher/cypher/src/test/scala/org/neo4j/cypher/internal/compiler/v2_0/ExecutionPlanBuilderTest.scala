@@ -41,6 +41,8 @@ import org.neo4j.cypher.internal.compiler.v2_0.mutation.DeletePropertyAction
 import org.neo4j.cypher.internal.compiler.v2_0.commands.HasLabel
 import org.neo4j.cypher.internal.compiler.v2_0.symbols.SymbolTable
 import org.neo4j.cypher.internal.compiler.v2_0.pipes.QueryState
+import org.neo4j.cypher.internal.compiler.v2_0.profiler.ProfileSampleLog
+import org.neo4j.kernel.logging.BufferingLogger
 
 class ExecutionPlanBuilderTest extends GraphDatabaseTestBase with Assertions with Timed with MockitoSugar {
   @Test def should_not_accept_returning_the_input_execution_plan() {
@@ -116,6 +118,39 @@ class ExecutionPlanBuilderTest extends GraphDatabaseTestBase with Assertions wit
 
     assertTrue("Label was not resolved", predicate == HasLabel(Identifier("x"), Label("Person", labelId)))
   }
+
+  @Test def should_log_the_profile_of_sampled_executions() {
+    // given
+    val node = createNode()
+    val q = Query
+      .start(NodeById("x", node.getId))
+      .returns(ReturnItem(Identifier("x"), "x"))
+      .setQueryText("START x=node(0) RETURN x")
+
+    val log = new BufferingLogger
+    val execPlanBuilder = new ExecutionPlanBuilder(graph, profileSampleInterval = 2,
+      profileSamples = new ProfileSampleLog(log))
+    val executionPlan = graph.inTx(execPlanBuilder.build(planContext, q))
+
+    def execute() {
+      val queryContext = new TransactionBoundExecutionContext(graph, graph.beginTx(), statement)
+      executionPlan.execute(queryContext, Map()).toList
+    }
+
+    // when
+    execute()
+
+    // then
+    assertEquals("", log.toString)
+
+    // when
+    execute()
+
+    // then
+    val logged = log.toString
+    assertTrue("Sample was not logged: " + logged, logged.contains("Profiled execution of: START x=node(0) RETURN x"))
+    assertTrue("Sample had no statistics: " + logged, logged.contains("_rows=1"))
+  }
 }
 
 class FakeExecPlanBuilder(gds: GraphDatabaseService, builders: Seq[PlanBuilder]) extends ExecutionPlanBuilder(gds) {
@@ -99,6 +99,8 @@ class SnitchingQueryContext extends QueryContext {
 
   def getRelationshipsFor(node: Node, dir: Direction, types: Seq[String]) = ???
 
+  def getDegree(node: Node, dir: Direction, types: Seq[String]) = ???
+
   def nodeOps = ???
 
   def relationshipOps = ???
@@ -119,6 +121,12 @@ class SnitchingQueryContext extends QueryContext {
 
   def exactIndexSearch(index: IndexDescriptor, value: Any): Iterator[Node] = ???
 
+  def indexSeekByNumberRange(index: IndexDescriptor, lower: Number, includeLower: Boolean, upper: Number, includeUpper: Boolean): Iterator[Node] = ???
+
+  def indexSeekByStringRange(index: IndexDescriptor, lower: String, includeLower: Boolean, upper: String, includeUpper: Boolean): Iterator[Node] = ???
+
+  def indexSeekByPrefix(index: IndexDescriptor, prefix: String): Iterator[Node] = ???
+
   def getNodesByLabel(id: Int): Iterator[Node] = ???
 
   def upgrade(context: QueryContext): LockingQueryContext = ???
@@ -139,5 +147,7 @@ class SnitchingQueryContext extends QueryContext {
 
   def withAnyOpenQueryContext[T](work: (QueryContext) => T): T = ???
 
+  def readOnlyWorkers = ???
+
   def exactUniqueIndexSearch(index: IndexDescriptor, value: Any): Option[Node] = ???
 }
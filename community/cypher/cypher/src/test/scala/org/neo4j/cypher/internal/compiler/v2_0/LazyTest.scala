@@ -30,6 +30,7 @@ import org.neo4j.graphdb._
 import org.neo4j.graphdb.Traverser.Order
 import org.neo4j.kernel.GraphDatabaseAPI
 import org.neo4j.kernel.api.{Statement, OperationsFacade, ReadOperations}
+import org.neo4j.kernel.impl.cache.QueryCacheStatistics
 import org.neo4j.kernel.impl.core.NodeManager
 import org.neo4j.tooling.GlobalGraphOperations
 import java.util.{Iterator => JIterator}
@@ -195,6 +196,7 @@ class LazyTest extends ExecutionEngineHelper with Assertions with MockitoSugar {
     when(fakeGraph.getDependencyResolver).thenReturn(dependencies)
     when(dependencies.resolveDependency(classOf[ThreadToStatementContextBridge])).thenReturn(bridge)
     when(dependencies.resolveDependency(classOf[NodeManager])).thenReturn(nodeManager)
+    when(dependencies.resolveDependency(classOf[QueryCacheStatistics])).thenReturn(new QueryCacheStatistics)
     when(fakeGraph.beginTx()).thenReturn(tx)
 
     val engine = new ExecutionEngine(fakeGraph)
@@ -329,6 +331,14 @@ class MonitoredNode(inner: Node, monitor: () => Unit) extends Node {
 
   def hasRelationship(`type`: RelationshipType, dir: Direction): Boolean = false
 
+  def getDegree(): Int = 0
+
+  def getDegree(`type`: RelationshipType): Int = 0
+
+  def getDegree(direction: Direction): Int = 0
+
+  def getDegree(`type`: RelationshipType, direction: Direction): Int = 0
+
   def getSingleRelationship(`type`: RelationshipType, dir: Direction): Relationship = null
 
   def createRelationshipTo(otherNode: Node, `type`: RelationshipType): Relationship = null
@@ -28,6 +28,7 @@ import org.mockito.Mockito
 import org.scalatest.junit.JUnitSuite
 import org.scalatest.mock.MockitoSugar
 import org.neo4j.kernel.api._
+import org.neo4j.kernel.impl.coreapi.ThreadToStatementContextBridge
 
 class TransactionBoundExecutionContextTest extends JUnitSuite with Assertions with MockitoSugar {
 
@@ -92,6 +93,34 @@ class TransactionBoundExecutionContextTest extends JUnitSuite with Assertions wi
     tx.finish()
   }
 
+  @Test def should_run_read_only_workers_in_transactions_of_their_own() {
+    // GIVEN
+    val node = createMiniGraph("LINK")
+    val tx = graph.beginTx()
+    val context = new TransactionBoundExecutionContext(graph, tx, bridge.instance())
+
+    // WHEN
+    val degree = context.readOnlyWorkers.get.submit(
+      workerContext => workerContext.getRelationshipsFor(node, Direction.BOTH, Seq.empty).size).get()
+
+    // THEN
+    assert(2 === degree)
+    context.close(success = true)
+  }
+
+  @Test def should_not_hand_out_read_only_workers_when_the_transaction_has_changes() {
+    // GIVEN
+    val tx = graph.beginTx()
+    graph.createNode()
+    val context = new TransactionBoundExecutionContext(graph, tx, bridge.instance())
+
+    // THEN
+    assert(None === context.readOnlyWorkers)
+    context.close(success = false)
+  }
+
+  private def bridge = graph.getDependencyResolver.resolveDependency(classOf[ThreadToStatementContextBridge])
+
   private def createMiniGraph(relTypeName: String): Node = {
     val relType: DynamicRelationshipType = DynamicRelationshipType.withName(relTypeName)
     val tx = graph.beginTx()
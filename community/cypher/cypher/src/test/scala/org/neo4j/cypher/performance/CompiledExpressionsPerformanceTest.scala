@@ -0,0 +1,81 @@
+/**
+ * Copyright (c) 2002-2013 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.performance
+
+import org.neo4j.cypher.ExecutionEngine
+import org.scalatest.Assertions
+import org.junit.{Ignore, Test}
+import org.neo4j.graphdb.{DynamicLabel, GraphDatabaseService}
+import org.neo4j.graphdb.factory.GraphDatabaseSettings
+import org.neo4j.test.TestGraphDatabaseFactory
+
+/*
+Measures filtering and projecting with compiled expressions against the interpreter, on the same data and query.
+ */
+@Ignore
+class CompiledExpressionsPerformanceTest extends Assertions {
+  val nodes = 100000
+  val warmups = 10
+  val runs = 20
+  val query = "match (n:Person) where n.age > 20 and n.age < 60 and (n.name = 'Person 7' or not(n.score <= 0.5)) " +
+    "return n.name, n.age + 1 as next"
+
+  @Test
+  def compareCompiledExpressionsWithTheInterpreter() {
+    val (interpretedResult, interpreted) = measure(compiled = false)
+    val (compiledResult, compiled) = measure(compiled = true)
+
+    assert(compiledResult === interpretedResult)
+    println("Interpreted: %.1f msecs per query, compiled: %.1f msecs per query".format(interpreted, compiled))
+  }
+
+  private def measure(compiled: Boolean): (Set[Map[String, Any]], Double) = {
+    val db = new TestGraphDatabaseFactory().newImpermanentDatabaseBuilder()
+      .setConfig(GraphDatabaseSettings.cypher_compiled_expressions, compiled.toString)
+      .newGraphDatabase()
+    try {
+      createNodes(db)
+      val engine = new ExecutionEngine(db)
+      (1 to warmups).foreach(_ => engine.execute(query).toList)
+
+      val t0 = System.nanoTime : Double
+      (1 to runs).foreach(_ => engine.execute(query).toList)
+      val t1 = System.nanoTime : Double
+
+      (engine.execute(query).toSet, (t1 - t0) / 1000000.0 / runs)
+    } finally {
+      db.shutdown()
+    }
+  }
+
+  private def createNodes(db: GraphDatabaseService) {
+    (0 until nodes).grouped(10000).foreach(batch => {
+      val tx = db.beginTx()
+      batch.foreach(i => {
+        val node = db.createNode(DynamicLabel.label("Person"))
+        node.setProperty("name", "Person " + i)
+        node.setProperty("age", i % 80)
+        node.setProperty("score", (i % 100) / 100.0)
+      })
+      tx.success()
+      tx.finish()
+    })
+  }
+}
@@ -0,0 +1,222 @@
+/**
+ * Copyright (c) 2002-2013 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.impl.analytics;
+
+import java.util.Arrays;
+
+import org.neo4j.graphdb.Direction;
+import org.neo4j.graphdb.GraphDatabaseService;
+import org.neo4j.graphdb.Label;
+import org.neo4j.graphdb.Node;
+import org.neo4j.graphdb.Relationship;
+import org.neo4j.graphdb.RelationshipType;
+import org.neo4j.graphdb.ResourceIterator;
+import org.neo4j.graphdb.Transaction;
+import org.neo4j.tooling.GlobalGraphOperations;
+
+/**
+ * A read only projection of (a part of) a graph, kept in primitive arrays in compressed sparse row form. Nodes are
+ * numbered 0 to {@link #nodeCount()} - 1 in the order of their ids, and for every node the indexes of the nodes at
+ * the other end of its outgoing and incoming relationships are kept in one array each, which makes it cheap to run
+ * many iterations of an algorithm over the whole graph.
+ *
+ * Memory use is 8 bytes per node for the node ids, plus 8 bytes per node and relationship for the adjacency arrays.
+ * Properties are not loaded, all relationships have the same weight.
+ */
+public class CompactGraph
+{
+    private final long[] nodeIds;
+    private final int[] outOffsets;
+    private final int[] outTargets;
+    private final int[] inOffsets;
+    private final int[] inSources;
+
+    CompactGraph( long[] nodeIds, int[] outOffsets, int[] outTargets )
+    {
+        this.nodeIds = nodeIds;
+        this.outOffsets = outOffsets;
+        this.outTargets = outTargets;
+
+        // Build the incoming side by counting sort of the outgoing one
+        int nodeCount = nodeIds.length;
+        inOffsets = new int[nodeCount + 1];
+        for ( int i = 0; i < outOffsets[nodeCount]; i++ )
+        {
+            inOffsets[outTargets[i] + 1]++;
+        }
+        for ( int node = 0; node < nodeCount; node++ )
+        {
+            inOffsets[node + 1] += inOffsets[node];
+        }
+        inSources = new int[outTargets.length];
+        int[] positions = Arrays.copyOf( inOffsets, nodeCount );
+        for ( int node = 0; node < nodeCount; node++ )
+        {
+            for ( int i = outOffsets[node]; i < outOffsets[node + 1]; i++ )
+            {
+                inSources[positions[outTargets[i]]++] = node;
+            }
+        }
+    }
+
+    /**
+     * Loads the nodes with the given label, and the relationships between them of the given types. Everything
+     * is read in one transaction, by following the outgoing relationships of each loaded node.
+     *
+     * @param label the label of the nodes to load, or {@code null} for all nodes.
+     * @param types the types of relationships to load, or none for relationships of all types.
+     */
+    public static CompactGraph load( GraphDatabaseService db, Label label, RelationshipType... types )
+    {
+        try ( Transaction tx = db.beginTx() )
+        {
+            long[] nodeIds = nodeIds( db, label );
+            int[] offsets = new int[nodeIds.length + 1];
+            int[] targets = new int[Math.max( 16, nodeIds.length )];
+            int count = 0;
+            for ( int node = 0; node < nodeIds.length; node++ )
+            {
+                offsets[node] = count;
+                Node start = db.getNodeById( nodeIds[node] );
+                Iterable<Relationship> relationships = types.length == 0 ?
+                        start.getRelationships( Direction.OUTGOING ) :
+                        start.getRelationships( Direction.OUTGOING, types );
+                for ( Relationship relationship : relationships )
+                {
+                    int target = Arrays.binarySearch( nodeIds, relationship.getEndNode().getId() );
+                    if ( target < 0 )
+                    {
+                        continue;
+                    }
+                    if ( count == targets.length )
+                    {
+                        if ( count == Integer.MAX_VALUE - 8 )
+                        {
+                            throw new IllegalStateException( "Too many relationships for a compact graph" );
+                        }
+                        targets = Arrays.copyOf( targets, (int) Math.min( count * 3L / 2, Integer.MAX_VALUE - 8 ) );
+                    }
+                    targets[count++] = target;
+                }
+            }
+            offsets[nodeIds.length] = count;
+            tx.success();
+            return new CompactGraph( nodeIds, offsets, Arrays.copyOf( targets, count ) );
+        }
+    }
+
+    private static long[] nodeIds( GraphDatabaseService db, Label label )
+    {
+        GlobalGraphOperations operations = GlobalGraphOperations.at( db );
+        long[] ids = new long[1024];
+        int count = 0;
+        if ( label == null )
+        {
+            for ( Node node : operations.getAllNodes() )
+            {
+                if ( count == ids.length )
+                {
+                    ids = grow( ids );
+                }
+                ids[count++] = node.getId();
+            }
+        }
+        else
+        {
+            try ( ResourceIterator<Node> nodes = operations.getAllNodesWithLabel( label ).iterator() )
+            {
+                while ( nodes.hasNext() )
+                {
+                    if ( count == ids.length )
+                    {
+                        ids = grow( ids );
+                    }
+                    ids[count++] = nodes.next().getId();
+                }
+            }
+        }
+        ids = Arrays.copyOf( ids, count );
+        Arrays.sort( ids );
+        return ids;
+    }
+
+    private static long[] grow( long[] ids )
+    {
+        if ( ids.length >= Integer.MAX_VALUE - 8 )
+        {
+            throw new IllegalStateException( "Too many nodes for a compact graph" );
+        }
+        return Arrays.copyOf( ids, (int) Math.min( ids.length * 2L, Integer.MAX_VALUE - 8 ) );
+    }
+
+    public int nodeCount()
+    {
+        return nodeIds.length;
+    }
+
+    public int relationshipCount()
+    {
+        return outTargets.length;
+    }
+
+    /**
+     * @return the id of the node with the given index.
+     */
+    public long nodeId( int index )
+    {
+        return nodeIds[index];
+    }
+
+    /**
+     * @return the index of the node with the given id, or -1 if the node isn't part of this graph.
+     */
+    public int indexOf( long nodeId )
+    {
+        int index = Arrays.binarySearch( nodeIds, nodeId );
+        return index < 0 ? -1 : index;
+    }
+
+    public int degree( int node, Direction direction )
+    {
+        switch ( direction )
+        {
+        case OUTGOING:
+            return outOffsets[node + 1] - outOffsets[node];
+        case INCOMING:
+            return inOffsets[node + 1] - inOffsets[node];
+        default:
+            return degree( node, Direction.OUTGOING ) + degree( node, Direction.INCOMING );
+        }
+    }
+
+    /**
+     * @return the offsets into {@link #neighbours(Direction)} where the neighbours of each node start, with one
+     * extra entry at the end. Only {@link Direction#OUTGOING} and {@link Direction#INCOMING} are kept.
+     */
+    int[] offsets( Direction direction )
+    {
+        return direction == Direction.OUTGOING ? outOffsets : inOffsets;
+    }
+
+    int[] neighbours( Direction direction )
+    {
+        return direction == Direction.OUTGOING ? outTargets : inSources;
+    }
+}
@@ -0,0 +1,211 @@
+/**
+ * Copyright (c) 2002-2013 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.impl.analytics;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import org.neo4j.graphdb.Direction;
+
+/**
+ * Betweenness centrality over a {@link CompactGraph}, using the algorithm by Ulrik Brandes (2001) with breadth
+ * first searches, so all relationships have weight 1. Unlike
+ * {@link org.neo4j.graphalgo.impl.centrality.BetweennessCentrality} the searches from different start nodes run in
+ * parallel on a {@link ForkJoinPool}, each thread with arrays of its own, which are summed up at the end.
+ *
+ * As with {@link org.neo4j.graphalgo.impl.centrality.BetweennessCentrality}, the values are halved when
+ * relationships are followed in {@link Direction#BOTH both directions}, since every path is then found from both
+ * of its ends.
+ *
+ * @complexity O(n * m) time, spread over the threads of the pool, and O(n) memory per thread.
+ */
+public class ParallelBetweennessCentrality
+{
+    private final CompactGraph graph;
+    private final ForkJoinPool pool;
+    private final Direction direction;
+
+    public ParallelBetweennessCentrality( CompactGraph graph, ForkJoinPool pool, Direction direction )
+    {
+        this.graph = graph;
+        this.pool = pool;
+        this.direction = direction;
+    }
+
+    /**
+     * @return the centrality of every node, by node index.
+     */
+    public double[] compute()
+    {
+        int nodeCount = graph.nodeCount();
+        int grain = Math.max( 1, nodeCount / (pool.getParallelism() * 2) );
+        double[] centrality = pool.invoke( new SourcesTask( 0, nodeCount, grain ) );
+        if ( direction == Direction.BOTH )
+        {
+            for ( int node = 0; node < nodeCount; node++ )
+            {
+                centrality[node] /= 2;
+            }
+        }
+        return centrality;
+    }
+
+    private class SourcesTask extends RecursiveTask<double[]>
+    {
+        private final int from;
+        private final int to;
+        private final int grain;
+
+        SourcesTask( int from, int to, int grain )
+        {
+            this.from = from;
+            this.to = to;
+            this.grain = grain;
+        }
+
+        @Override
+        protected double[] compute()
+        {
+            if ( to - from <= grain )
+            {
+                return new Searcher().searchFrom( from, to );
+            }
+            int middle = (from + to) >>> 1;
+            SourcesTask left = new SourcesTask( from, middle, grain );
+            left.fork();
+            double[] centrality = new SourcesTask( middle, to, grain ).compute();
+            double[] other = left.join();
+            for ( int node = 0; node < centrality.length; node++ )
+            {
+                centrality[node] += other[node];
+            }
+            return centrality;
+        }
+    }
+
+    /*
+     * Working state for the searches of one thread. Only the entries of nodes reached by a search are reset after
+     * it, which keeps searches that reach a small part of the graph cheap.
+     */
+    private class Searcher
+    {
+        private final int nodeCount = graph.nodeCount();
+        private final double[] centrality = new double[nodeCount];
+        private final int[] distance = new int[nodeCount];
+        private final double[] paths = new double[nodeCount];
+        private final double[] dependency = new double[nodeCount];
+        private final int[] order = new int[nodeCount];
+
+        Searcher()
+        {
+            Arrays.fill( distance, -1 );
+        }
+
+        double[] searchFrom( int from, int to )
+        {
+            for ( int source = from; source < to; source++ )
+            {
+                search( source );
+            }
+            return centrality;
+        }
+
+        private void search( int source )
+        {
+            // Breadth first, counting the shortest paths to every node. The visit order doubles as the queue.
+            int head = 0;
+            int tail = 0;
+            order[tail++] = source;
+            distance[source] = 0;
+            paths[source] = 1;
+            while ( head < tail )
+            {
+                int node = order[head++];
+                if ( direction != Direction.INCOMING )
+                {
+                    tail = visit( node, tail, Direction.OUTGOING );
+                }
+                if ( direction != Direction.OUTGOING )
+                {
+                    tail = visit( node, tail, Direction.INCOMING );
+                }
+            }
+
+            // Then the dependencies, from the farthest nodes back towards the source
+            Direction back = direction.reverse();
+            for ( int i = tail - 1; i > 0; i-- )
+            {
+                int node = order[i];
+                if ( back != Direction.INCOMING )
+                {
+                    accumulate( node, Direction.OUTGOING );
+                }
+                if ( back != Direction.OUTGOING )
+                {
+                    accumulate( node, Direction.INCOMING );
+                }
+                centrality[node] += dependency[node];
+            }
+
+            for ( int i = 0; i < tail; i++ )
+            {
+                int node = order[i];
+                distance[node] = -1;
+                paths[node] = 0;
+                dependency[node] = 0;
+            }
+        }
+
+        private int visit( int node, int tail, Direction side )
+        {
+            int[] offsets = graph.offsets( side );
+            int[] neighbours = graph.neighbours( side );
+            for ( int i = offsets[node]; i < offsets[node + 1]; i++ )
+            {
+                int neighbour = neighbours[i];
+                if ( distance[neighbour] < 0 )
+                {
+                    distance[neighbour] = distance[node] + 1;
+                    order[tail++] = neighbour;
+                }
+                if ( distance[neighbour] == distance[node] + 1 )
+                {
+                    paths[neighbour] += paths[node];
+                }
+            }
+            return tail;
+        }
+
+        private void accumulate( int node, Direction side )
+        {
+            int[] offsets = graph.offsets( side );
+            int[] neighbours = graph.neighbours( side );
+            for ( int i = offsets[node]; i < offsets[node + 1]; i++ )
+            {
+                int predecessor = neighbours[i];
+                if ( distance[predecessor] == distance[node] - 1 )
+                {
+                    dependency[predecessor] += paths[predecessor] / paths[node] * (1 + dependency[node]);
+                }
+            }
+        }
+    }
+}
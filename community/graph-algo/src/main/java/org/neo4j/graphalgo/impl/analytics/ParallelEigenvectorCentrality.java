@@ -0,0 +1,139 @@
+/**
+ * Copyright (c) 2002-2013 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.impl.analytics;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+
+import org.neo4j.graphdb.Direction;
+
+/**
+ * Eigenvector centrality over a {@link CompactGraph}, computed with the power method like
+ * {@link org.neo4j.graphalgo.impl.centrality.EigenvectorCentralityPower}, but with every iteration split over the
+ * threads of a {@link ForkJoinPool}. All relationships have weight 1.
+ */
+public class ParallelEigenvectorCentrality
+{
+    private final CompactGraph graph;
+    private final ForkJoinPool pool;
+    private final Direction direction;
+    private final double precision;
+    private final int maxIterations;
+    private int iterations;
+
+    /**
+     * @param direction the direction in which centrality flows along relationships, so with
+     * {@link Direction#OUTGOING} a node gets its value from the nodes with relationships to it.
+     * @param precision the iterations stop when the values change less than this, summed over all nodes.
+     */
+    public ParallelEigenvectorCentrality( CompactGraph graph, ForkJoinPool pool, Direction direction,
+                                          double precision, int maxIterations )
+    {
+        this.graph = graph;
+        this.pool = pool;
+        this.direction = direction;
+        this.precision = precision;
+        this.maxIterations = maxIterations;
+    }
+
+    /**
+     * @return the centrality of every node, by node index, normalized to a vector of length 1.
+     */
+    public double[] compute()
+    {
+        final int nodeCount = graph.nodeCount();
+        final double[] values = new double[nodeCount];
+        final double[] next = new double[nodeCount];
+        final boolean pullIncoming = direction != Direction.INCOMING;
+        final boolean pullOutgoing = direction != Direction.OUTGOING;
+        final int[] inOffsets = graph.offsets( Direction.INCOMING );
+        final int[] inSources = graph.neighbours( Direction.INCOMING );
+        final int[] outOffsets = graph.offsets( Direction.OUTGOING );
+        final int[] outTargets = graph.neighbours( Direction.OUTGOING );
+        Arrays.fill( values, 1d / Math.sqrt( nodeCount ) );
+
+        iterations = 0;
+        double change = Double.MAX_VALUE;
+        while ( change > precision && iterations < maxIterations )
+        {
+            iterations++;
+            double squareSum = ParallelRanges.sum( pool, nodeCount, new ParallelRanges.Range()
+            {
+                @Override
+                public double compute( int from, int to )
+                {
+                    double squareSum = 0;
+                    for ( int node = from; node < to; node++ )
+                    {
+                        double sum = 0;
+                        if ( pullIncoming )
+                        {
+                            for ( int i = inOffsets[node]; i < inOffsets[node + 1]; i++ )
+                            {
+                                sum += values[inSources[i]];
+                            }
+                        }
+                        if ( pullOutgoing )
+                        {
+                            for ( int i = outOffsets[node]; i < outOffsets[node + 1]; i++ )
+                            {
+                                sum += values[outTargets[i]];
+                            }
+                        }
+                        next[node] = sum;
+                        squareSum += sum * sum;
+                    }
+                    return squareSum;
+                }
+            } );
+
+            final double length = Math.sqrt( squareSum );
+            if ( length == 0 )
+            {
+                Arrays.fill( values, 0 );
+                break;
+            }
+            change = ParallelRanges.sum( pool, nodeCount, new ParallelRanges.Range()
+            {
+                @Override
+                public double compute( int from, int to )
+                {
+                    double change = 0;
+                    for ( int node = from; node < to; node++ )
+                    {
+                        double value = next[node] / length;
+                        change += Math.abs( value - values[node] );
+                        values[node] = value;
+                    }
+                    return change;
+                }
+            } );
+        }
+        return values;
+    }
+
+    /**
+     * @return the number of iterations the last {@link #compute()} ran.
+     */
+    public int iterations()
+    {
+        return iterations;
+    }
+}
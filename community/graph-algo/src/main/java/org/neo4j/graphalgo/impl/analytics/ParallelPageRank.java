@@ -0,0 +1,130 @@
+/**
+ * Copyright (c) 2002-2013 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.impl.analytics;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+
+import org.neo4j.graphdb.Direction;
+
+/**
+ * PageRank over a {@link CompactGraph}, computed by power iteration where every node pulls the rank of the nodes
+ * with relationships to it. The rank of nodes without outgoing relationships is spread evenly over all nodes, so
+ * that the ranks always sum up to 1. Each iteration is split over the threads of a {@link ForkJoinPool}.
+ */
+public class ParallelPageRank
+{
+    private final CompactGraph graph;
+    private final ForkJoinPool pool;
+    private final double dampingFactor;
+    private final double tolerance;
+    private final int maxIterations;
+    private int iterations;
+
+    /**
+     * @param dampingFactor the probability to follow a relationship instead of jumping to a random node, usually
+     * 0.85.
+     * @param tolerance the iterations stop when the ranks change less than this, summed over all nodes.
+     */
+    public ParallelPageRank( CompactGraph graph, ForkJoinPool pool, double dampingFactor, double tolerance,
+                             int maxIterations )
+    {
+        this.graph = graph;
+        this.pool = pool;
+        this.dampingFactor = dampingFactor;
+        this.tolerance = tolerance;
+        this.maxIterations = maxIterations;
+    }
+
+    /**
+     * @return the rank of every node, by node index.
+     */
+    public double[] compute()
+    {
+        final int nodeCount = graph.nodeCount();
+        final double[] rank = new double[nodeCount];
+        final double[] next = new double[nodeCount];
+        final double[] contribution = new double[nodeCount];
+        final int[] outOffsets = graph.offsets( Direction.OUTGOING );
+        final int[] inOffsets = graph.offsets( Direction.INCOMING );
+        final int[] inSources = graph.neighbours( Direction.INCOMING );
+        Arrays.fill( rank, 1d / nodeCount );
+
+        iterations = 0;
+        double change = Double.MAX_VALUE;
+        while ( change > tolerance && iterations < maxIterations )
+        {
+            iterations++;
+            double danglingRank = ParallelRanges.sum( pool, nodeCount, new ParallelRanges.Range()
+            {
+                @Override
+                public double compute( int from, int to )
+                {
+                    double dangling = 0;
+                    for ( int node = from; node < to; node++ )
+                    {
+                        int degree = outOffsets[node + 1] - outOffsets[node];
+                        if ( degree == 0 )
+                        {
+                            dangling += rank[node];
+                            contribution[node] = 0;
+                        }
+                        else
+                        {
+                            contribution[node] = rank[node] / degree;
+                        }
+                    }
+                    return dangling;
+                }
+            } );
+
+            final double base = (1 - dampingFactor + dampingFactor * danglingRank) / nodeCount;
+            change = ParallelRanges.sum( pool, nodeCount, new ParallelRanges.Range()
+            {
+                @Override
+                public double compute( int from, int to )
+                {
+                    double change = 0;
+                    for ( int node = from; node < to; node++ )
+                    {
+                        double sum = 0;
+                        for ( int i = inOffsets[node]; i < inOffsets[node + 1]; i++ )
+                        {
+                            sum += contribution[inSources[i]];
+                        }
+                        next[node] = base + dampingFactor * sum;
+                        change += Math.abs( next[node] - rank[node] );
+                    }
+                    return change;
+                }
+            } );
+            System.arraycopy( next, 0, rank, 0, nodeCount );
+        }
+        return rank;
+    }
+
+    /**
+     * @return the number of iterations the last {@link #compute()} ran.
+     */
+    public int iterations()
+    {
+        return iterations;
+    }
+}
@@ -0,0 +1,79 @@
+/**
+ * Copyright (c) 2002-2013 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.impl.analytics;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Splits loops over node indexes into ranges that are run on a {@link ForkJoinPool}.
+ */
+final class ParallelRanges
+{
+    interface Range
+    {
+        /**
+         * @return a value to sum up over all ranges, or 0 if there is nothing to sum.
+         */
+        double compute( int from, int to );
+    }
+
+    private static final int MIN_RANGE = 1024;
+
+    private ParallelRanges()
+    {
+    }
+
+    static double sum( ForkJoinPool pool, int size, Range range )
+    {
+        int grain = Math.max( MIN_RANGE, size / (pool.getParallelism() * 8) );
+        return pool.invoke( new RangeTask( range, 0, size, grain ) );
+    }
+
+    private static class RangeTask extends RecursiveTask<Double>
+    {
+        private final Range range;
+        private final int from;
+        private final int to;
+        private final int grain;
+
+        RangeTask( Range range, int from, int to, int grain )
+        {
+            this.range = range;
+            this.from = from;
+            this.to = to;
+            this.grain = grain;
+        }
+
+        @Override
+        protected Double compute()
+        {
+            if ( to - from <= grain )
+            {
+                return range.compute( from, to );
+            }
+            int middle = (from + to) >>> 1;
+            RangeTask left = new RangeTask( range, from, middle, grain );
+            left.fork();
+            double right = new RangeTask( range, middle, to, grain ).compute();
+            return left.join() + right;
+        }
+    }
+}
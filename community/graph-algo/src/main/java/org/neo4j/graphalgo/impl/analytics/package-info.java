@@ -0,0 +1,25 @@
+/**
+ * Copyright (c) 2002-2013 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+/**
+ * Graph analytics that load (a part of) a graph into a {@link org.neo4j.graphalgo.impl.analytics.CompactGraph} of
+ * primitive arrays once, and then run their iterations over that on a fork/join pool. Scales to graphs far bigger
+ * than the algorithms in {@link org.neo4j.graphalgo.impl.centrality}, at the cost of loading the graph first.
+ */
+package org.neo4j.graphalgo.impl.analytics;
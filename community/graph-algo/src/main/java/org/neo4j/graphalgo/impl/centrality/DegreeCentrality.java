@@ -0,0 +1,69 @@
+/**
+ * Copyright (c) 2002-2013 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.impl.centrality;
+
+import org.neo4j.graphdb.Direction;
+import org.neo4j.graphdb.Node;
+import org.neo4j.graphdb.RelationshipType;
+
+/**
+ * Degree centrality, i.e. the number of relationships of a node, optionally
+ * restricted to some relationship types and a direction. The degree is read
+ * from the node itself, so no relationships are loaded and there is nothing
+ * to calculate up front.
+ */
+public class DegreeCentrality
+{
+    private final Direction direction;
+    private final RelationshipType[] types;
+
+    /**
+     * @param direction
+     *            The direction of the relationships to count, from the point
+     *            of view of the node.
+     * @param types
+     *            The relationship types to count, or none to count all types.
+     */
+    public DegreeCentrality( Direction direction, RelationshipType... types )
+    {
+        this.direction = direction;
+        this.types = types;
+    }
+
+    /**
+     * @param node
+     *            The node for which we would like the value.
+     * @return the number of relationships of the given node matching the
+     *         types and direction of this centrality.
+     */
+    public Integer getCentrality( Node node )
+    {
+        if ( types.length == 0 )
+        {
+            return node.getDegree( direction );
+        }
+        int degree = 0;
+        for ( RelationshipType type : types )
+        {
+            degree += node.getDegree( type, direction );
+        }
+        return degree;
+    }
+}
@@ -19,8 +19,6 @@
  */
 package org.neo4j.graphalgo.impl.centrality;
 
-import java.util.HashMap;
-import java.util.Map;
 import java.util.Random;
 import java.util.Set;
 
@@ -28,13 +26,17 @@ import org.neo4j.graphalgo.CostEvaluator;
 import org.neo4j.graphdb.Direction;
 import org.neo4j.graphdb.Node;
 import org.neo4j.graphdb.Relationship;
+import org.neo4j.helpers.collection.primitive.Primitive;
+import org.neo4j.helpers.collection.primitive.PrimitiveLongDoubleMap;
+import org.neo4j.kernel.impl.api.PrimitiveLongIterator;
 
 /**
  * Computing eigenvector centrality with the "power method". Convergence is
  * dependent of the eigenvalues of the input adjacency matrix (the network). If
  * the two largest eigenvalues are u1 and u2, a small factor u2/u1 will give a
  * faster convergence (i.e. faster computation). NOTE: Currently only works on
- * Doubles.
+ * Doubles. The values are kept per node id in a primitive map, so that large
+ * node sets don't need a boxed entry per node.
  * @complexity The {@link CostEvaluator} is called once for every relationship
  *             in each iteration. Assuming this is done in constant time, the
  *             total time complexity is O(i(n + m)) when i iterations are done.
@@ -48,7 +50,7 @@ public class EigenvectorCentralityPower implements EigenvectorCentrality
     protected Set<Relationship> relationshipSet;
     protected double precision = 0.001;
     protected boolean doneCalculation = false;
-    protected Map<Node,Double> values;
+    protected PrimitiveLongDoubleMap values;
     protected int totalIterations = 0;
     private int maxIterations = Integer.MAX_VALUE;
 
@@ -91,7 +93,7 @@ public class EigenvectorCentralityPower implements EigenvectorCentrality
     public Double getCentrality( Node node )
     {
         calculate();
-        return values.get( node );
+        return values.containsKey( node.getId() ) ? values.get( node.getId(), 0d ) : null;
     }
 
     /**
@@ -114,13 +116,13 @@ public class EigenvectorCentralityPower implements EigenvectorCentrality
             return;
         }
         doneCalculation = true;
-        values = new HashMap<Node,Double>();
+        values = Primitive.longDoubleMap( nodeSet.size() );
         totalIterations = 0;
         // generate a random start vector
         Random random = new Random( System.currentTimeMillis() );
         for ( Node node : nodeSet )
         {
-            values.put( node, random.nextDouble() );
+            values.put( node.getId(), random.nextDouble(), 0d );
         }
         normalize( values );
         runIterations( maxIterations );
@@ -148,7 +150,7 @@ public class EigenvectorCentralityPower implements EigenvectorCentrality
         {
             ++localIterations;
             ++totalIterations;
-            Map<Node,Double> newValues = new HashMap<Node,Double>();
+            PrimitiveLongDoubleMap newValues = Primitive.longDoubleMap( nodeSet.size() );
             // "matrix multiplication"
             for ( Relationship relationship : relationshipSet )
             {
@@ -177,11 +179,14 @@ public class EigenvectorCentralityPower implements EigenvectorCentrality
         }
         // If the first value is negative (possibly the whole vector), negate
         // the whole vector
-        if ( values.get( nodeSet.iterator().next() ) < 0 )
+        if ( values.get( nodeSet.iterator().next().getId(), 0d ) < 0 )
         {
             for ( Node node : nodeSet )
             {
-                values.put( node, -values.get( node ) );
+                if ( values.containsKey( node.getId() ) )
+                {
+                    values.put( node.getId(), -values.get( node.getId(), 0d ), 0d );
+                }
             }
         }
         return localIterations;
@@ -191,24 +196,27 @@ public class EigenvectorCentralityPower implements EigenvectorCentrality
      * Stop condition for the iteration.
      * @return true if enough precision has been achieved.
      */
-    private boolean timeToStop( Map<Node,Double> oldValues,
-        Map<Node,Double> newValues )
+    private boolean timeToStop( PrimitiveLongDoubleMap oldValues,
+        PrimitiveLongDoubleMap newValues )
     {
-        for ( Node node : oldValues.keySet() )
+        for ( PrimitiveLongIterator nodes = oldValues.keyIterator(); nodes.hasNext(); )
         {
-            if ( newValues.get( node ) == null )
+            long node = nodes.next();
+            if ( !newValues.containsKey( node ) )
             {
                 return false;
             }
-            if ( oldValues.get( node ) == 0.0 )
+            double oldValue = oldValues.get( node, 0d );
+            double newValue = newValues.get( node, 0d );
+            if ( oldValue == 0.0 )
             {
-                if ( Math.abs( newValues.get( node ) ) > precision )
+                if ( Math.abs( newValue ) > precision )
                 {
                     return false;
                 }
                 continue;
             }
-            double factor = newValues.get( node ) / oldValues.get( node );
+            double factor = newValue / oldValue;
             factor = Math.abs( factor );
             if ( factor - precision > 1.0 || factor + precision < 1.0 )
             {
@@ -221,7 +229,7 @@ public class EigenvectorCentralityPower implements EigenvectorCentrality
     /**
      * Internal method used in the "matrix multiplication" in each iteration.
      */
-    protected void processRelationship( Map<Node,Double> newValues,
+    protected void processRelationship( PrimitiveLongDoubleMap newValues,
         Relationship relationship, boolean backwards )
     {
         Node startNode = relationship.getStartNode();
@@ -229,42 +237,39 @@ public class EigenvectorCentralityPower implements EigenvectorCentrality
         {
             startNode = relationship.getEndNode();
         }
-        Node endNode = relationship.getOtherNode( startNode );
-        Double newValue = newValues.get( endNode );
-        if ( newValue == null )
-        {
-            newValue = 0.0;
-        }
-        if ( values.get( startNode ) != null )
+        long endNode = relationship.getOtherNode( startNode ).getId();
+        double increase = 0.0;
+        if ( values.containsKey( startNode.getId() ) )
         {
-            newValue += values.get( startNode )
+            increase = values.get( startNode.getId(), 0d )
                         * costEvaluator.getCost( relationship,
                                 backwards ? Direction.INCOMING
                                         : Direction.OUTGOING );
         }
-        newValues.put( endNode, newValue );
+        newValues.add( endNode, increase );
     }
 
     /**
-     * Normalizes a vector represented as a Map.
+     * Normalizes a vector represented as a map from node ids to values.
      * @param vector
      */
-    protected void normalize( Map<Node,Double> vector )
+    protected void normalize( PrimitiveLongDoubleMap vector )
     {
         // Compute vector length
         double sum = 0;
-        for ( Node node : vector.keySet() )
+        for ( PrimitiveLongIterator nodes = vector.keyIterator(); nodes.hasNext(); )
         {
-            double d = vector.get( node );
+            double d = vector.get( nodes.next(), 0d );
             sum += d * d;
         }
         sum = Math.sqrt( sum );
         // Divide all components
         if ( sum > 0.0 )
         {
-            for ( Node node : vector.keySet() )
+            for ( PrimitiveLongIterator nodes = vector.keyIterator(); nodes.hasNext(); )
             {
-                vector.put( node, vector.get( node ) / sum );
+                long node = nodes.next();
+                vector.put( node, vector.get( node, 0d ) / sum, 0d );
             }
         }
     }
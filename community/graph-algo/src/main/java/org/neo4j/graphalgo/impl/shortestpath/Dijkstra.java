@@ -35,6 +35,8 @@ import org.neo4j.graphdb.Node;
 import org.neo4j.graphdb.PropertyContainer;
 import org.neo4j.graphdb.Relationship;
 import org.neo4j.graphdb.RelationshipType;
+import org.neo4j.helpers.collection.primitive.Primitive;
+import org.neo4j.helpers.collection.primitive.PrimitiveLongObjectMap;
 
 /**
  * Dijkstra class. This class can be used to perform shortest path computations
@@ -169,11 +171,11 @@ public class Dijkstra<CostType> implements
         // where do we come from
         protected HashMap<Node, List<Relationship>> predecessors;
         // observed distances not yet final
-        protected HashMap<Node, CostType> mySeen;
-        protected HashMap<Node, CostType> otherSeen;
+        protected PrimitiveLongObjectMap<CostType> mySeen;
+        protected PrimitiveLongObjectMap<CostType> otherSeen;
         // the final distances
-        protected HashMap<Node, CostType> myDistances;
-        protected HashMap<Node, CostType> otherDistances;
+        protected PrimitiveLongObjectMap<CostType> myDistances;
+        protected PrimitiveLongObjectMap<CostType> otherDistances;
         // Flag that indicates if we should follow egdes in the opposite
         // direction instead
         protected boolean backwards = false;
@@ -187,10 +189,10 @@ public class Dijkstra<CostType> implements
 
         public DijstraIterator( Node startNode,
                 HashMap<Node, List<Relationship>> predecessors,
-                HashMap<Node, CostType> mySeen,
-                HashMap<Node, CostType> otherSeen,
-                HashMap<Node, CostType> myDistances,
-                HashMap<Node, CostType> otherDistances, boolean backwards )
+                PrimitiveLongObjectMap<CostType> mySeen,
+                PrimitiveLongObjectMap<CostType> otherSeen,
+                PrimitiveLongObjectMap<CostType> myDistances,
+                PrimitiveLongObjectMap<CostType> otherDistances, boolean backwards )
         {
             super();
             this.startNode = startNode;
@@ -228,7 +230,10 @@ public class Dijkstra<CostType> implements
             queue = new DijkstraPriorityQueueFibonacciImpl<CostType>(
                     costComparator );
             queue.insertValue( startNode, startCost );
-            mySeen.put( startNode, startCost );
+            if ( startNode != null )
+            {
+                mySeen.put( startNode.getId(), startCost );
+            }
         }
 
         public boolean hasNext()
@@ -255,13 +260,13 @@ public class Dijkstra<CostType> implements
          *            is found and examined if this contains currentNode.
          */
         protected void checkForPath( Node currentNode, CostType currentCost,
-                HashMap<Node, CostType> otherSideDistances )
+                PrimitiveLongObjectMap<CostType> otherSideDistances )
         {
             // Found a path?
-            if ( otherSideDistances.containsKey( currentNode ) )
+            if ( otherSideDistances.containsKey( currentNode.getId() ) )
             {
                 // Is it better than previously found paths?
-                CostType otherCost = otherSideDistances.get( currentNode );
+                CostType otherCost = otherSideDistances.get( currentNode.getId() );
                 CostType newTotalCost = costAccumulator.addCosts( currentCost,
                         otherCost );
                 if ( foundPathsMiddleNodes == null )
@@ -289,9 +294,9 @@ public class Dijkstra<CostType> implements
         public Node next()
         {
             Node currentNode = queue.extractMin();
-            CostType currentCost = mySeen.get( currentNode );
+            CostType currentCost = mySeen.get( currentNode.getId() );
             // Already done with this node?
-            if ( myDistances.containsKey( currentNode ) )
+            if ( myDistances.containsKey( currentNode.getId() ) )
             {
                 return null;
             }
@@ -300,13 +305,13 @@ public class Dijkstra<CostType> implements
                 return null;
             }
             ++numberOfNodesTraversed;
-            myDistances.put( currentNode, currentCost );
+            myDistances.put( currentNode.getId(), currentCost );
             // TODO: remove from seen or not? probably not... because of path
             // detection
             // Check if we have found a better path
             checkForPath( currentNode, currentCost, otherSeen );
             // Found a path? (abort traversing from this node)
-            if ( otherDistances.containsKey( currentNode ) )
+            if ( otherDistances.containsKey( currentNode.getId() ) )
             {
                 oneShortestPathHasBeenFound = true;
             }
@@ -336,13 +341,13 @@ public class Dijkstra<CostType> implements
                                         backwardsEdge ? Direction.INCOMING
                                                 : Direction.OUTGOING ) );
                         // Already done with target node?
-                        if ( myDistances.containsKey( target ) )
+                        if ( myDistances.containsKey( target.getId() ) )
                         {
                             // Have we found a better cost for a node which is
                             // already
                             // calculated?
                             if ( costComparator.compare(
-                                    myDistances.get( target ), newCost ) > 0 )
+                                    myDistances.get( target.getId() ), newCost ) > 0 )
                             {
                                 throw new RuntimeException(
                                         "Cycle with negative costs found." );
@@ -350,7 +355,7 @@ public class Dijkstra<CostType> implements
                             // Equally good path found?
                             else if ( calculateAllShortestPaths
                                       && costComparator.compare(
-                                              myDistances.get( target ),
+                                              myDistances.get( target.getId() ),
                                               newCost ) == 0 )
                             {
                                 // Put it in predecessors
@@ -376,12 +381,12 @@ public class Dijkstra<CostType> implements
                             continue;
                         }
                         // Have we found a better cost for this node?
-                        if ( !mySeen.containsKey( target )
-                             || costComparator.compare( mySeen.get( target ),
+                        if ( !mySeen.containsKey( target.getId() )
+                             || costComparator.compare( mySeen.get( target.getId() ),
                                      newCost ) > 0 )
                         {
                             // Put it in the queue
-                            if ( !mySeen.containsKey( target ) )
+                            if ( !mySeen.containsKey( target.getId() ) )
                             {
                                 queue.insertValue( target, newCost );
                             }
@@ -393,7 +398,7 @@ public class Dijkstra<CostType> implements
                                 queue.decreaseValue( target, newCost );
                             }
                             // Update it
-                            mySeen.put( target, newCost );
+                            mySeen.put( target.getId(), newCost );
                             // Put it in predecessors
                             List<Relationship> predList = new LinkedList<Relationship>();
                             predList.add( relationship );
@@ -404,7 +409,7 @@ public class Dijkstra<CostType> implements
                         // node?
                         else if ( calculateAllShortestPaths
                                   && costComparator.compare(
-                                          mySeen.get( target ), newCost ) == 0 )
+                                          mySeen.get( target.getId() ), newCost ) == 0 )
                         {
                             // Put it in predecessors
                             List<Relationship> predList = predecessors.get( target );
@@ -422,7 +427,7 @@ public class Dijkstra<CostType> implements
                 // found.
                 allShortestPathsHasBeenFound = queue.isEmpty()
                                                || costComparator.compare(
-                                                       mySeen.get( queue.peek() ),
+                                                       mySeen.get( queue.peek().getId() ),
                                                        currentCost ) > 0;
             }
             return currentNode;
@@ -483,10 +488,10 @@ public class Dijkstra<CostType> implements
             foundPathsCost = costAccumulator.addCosts( startCost, startCost );
             return true;
         }
-        HashMap<Node, CostType> seen1 = new HashMap<Node, CostType>();
-        HashMap<Node, CostType> seen2 = new HashMap<Node, CostType>();
-        HashMap<Node, CostType> dists1 = new HashMap<Node, CostType>();
-        HashMap<Node, CostType> dists2 = new HashMap<Node, CostType>();
+        PrimitiveLongObjectMap<CostType> seen1 = Primitive.longObjectMap();
+        PrimitiveLongObjectMap<CostType> seen2 = Primitive.longObjectMap();
+        PrimitiveLongObjectMap<CostType> dists1 = Primitive.longObjectMap();
+        PrimitiveLongObjectMap<CostType> dists2 = Primitive.longObjectMap();
         DijstraIterator iter1 = new DijstraIterator( startNode, predecessors1,
                 seen1, seen2, dists1, dists2, false );
         DijstraIterator iter2 = new DijstraIterator( endNode, predecessors2,
@@ -519,7 +524,7 @@ public class Dijkstra<CostType> implements
                     break;
                 }
             }
-            if ( limitReached( seen1.get( node1 ), seen2.get( node2 ) ) )
+            if ( limitReached( costOf( seen1, node1 ), costOf( seen2, node2 ) ) )
             {
                 break;
             }
@@ -532,6 +537,11 @@ public class Dijkstra<CostType> implements
         return false;
     }
 
+    private CostType costOf( PrimitiveLongObjectMap<CostType> costs, Node node )
+    {
+        return node == null ? null : costs.get( node.getId() );
+    }
+
     /**
      * @return The cost for the found path(s).
      */
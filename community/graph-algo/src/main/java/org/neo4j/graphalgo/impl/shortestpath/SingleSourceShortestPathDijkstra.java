@@ -20,7 +20,6 @@
 package org.neo4j.graphalgo.impl.shortestpath;
 
 import java.util.Comparator;
-import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
@@ -32,6 +31,8 @@ import org.neo4j.graphdb.Node;
 import org.neo4j.graphdb.PropertyContainer;
 import org.neo4j.graphdb.Relationship;
 import org.neo4j.graphdb.RelationshipType;
+import org.neo4j.helpers.collection.primitive.Primitive;
+import org.neo4j.helpers.collection.primitive.PrimitiveLongObjectMap;
 
 /**
  * Dijkstra implementation to solve the single source shortest path problem for
@@ -63,16 +64,16 @@ public class SingleSourceShortestPathDijkstra<CostType> extends
         reset();
     }
 
-    protected HashMap<Node,CostType> distances = new HashMap<Node,CostType>();
+    protected PrimitiveLongObjectMap<CostType> distances = Primitive.longObjectMap();
 
     @Override
     public void reset()
     {
         super.reset();
-        distances = new HashMap<Node,CostType>();
-        HashMap<Node,CostType> seen1 = new HashMap<Node,CostType>();
-        HashMap<Node,CostType> seen2 = new HashMap<Node,CostType>();
-        HashMap<Node,CostType> dists2 = new HashMap<Node,CostType>();
+        distances = Primitive.longObjectMap();
+        PrimitiveLongObjectMap<CostType> seen1 = Primitive.longObjectMap();
+        PrimitiveLongObjectMap<CostType> seen2 = Primitive.longObjectMap();
+        PrimitiveLongObjectMap<CostType> dists2 = Primitive.longObjectMap();
         dijstraIterator = new DijstraIterator( startNode, predecessors1, seen1,
             seen2, distances, dists2, false );
     }
@@ -104,7 +105,7 @@ public class SingleSourceShortestPathDijkstra<CostType> extends
      */
     public boolean calculate( Node targetNode )
     {
-        while ( (targetNode == null || !distances.containsKey( targetNode ))
+        while ( (targetNode == null || !distances.containsKey( targetNode.getId() ))
             && dijstraIterator.hasNext() && !limitReached() )
         {
             dijstraIterator.next();
@@ -129,7 +130,7 @@ public class SingleSourceShortestPathDijkstra<CostType> extends
             throw new RuntimeException( "No end node defined" );
         }
         calculate( targetNode );
-        return distances.get( targetNode );
+        return distances.get( targetNode.getId() );
     }
 
     public List<List<PropertyContainer>> getPaths( Node targetNode )
@@ -139,7 +140,7 @@ public class SingleSourceShortestPathDijkstra<CostType> extends
             throw new RuntimeException( "No end node defined" );
         }
         calculateMultiple( targetNode );
-        if ( !distances.containsKey( targetNode ) )
+        if ( !distances.containsKey( targetNode.getId() ) )
         {
             return null;
         }
@@ -154,7 +155,7 @@ public class SingleSourceShortestPathDijkstra<CostType> extends
             throw new RuntimeException( "No end node defined" );
         }
         calculateMultiple( targetNode );
-        if ( !distances.containsKey( targetNode ) )
+        if ( !distances.containsKey( targetNode.getId() ) )
         {
             return null;
         }
@@ -169,7 +170,7 @@ public class SingleSourceShortestPathDijkstra<CostType> extends
             throw new RuntimeException( "No end node defined" );
         }
         calculateMultiple( targetNode );
-        if ( !distances.containsKey( targetNode ) )
+        if ( !distances.containsKey( targetNode.getId() ) )
         {
             return null;
         }
@@ -185,7 +186,7 @@ public class SingleSourceShortestPathDijkstra<CostType> extends
             throw new RuntimeException( "No end node defined" );
         }
         calculate( targetNode );
-        if ( !distances.containsKey( targetNode ) )
+        if ( !distances.containsKey( targetNode.getId() ) )
         {
             return null;
         }
@@ -200,7 +201,7 @@ public class SingleSourceShortestPathDijkstra<CostType> extends
             throw new RuntimeException( "No end node defined" );
         }
         calculate( targetNode );
-        if ( !distances.containsKey( targetNode ) )
+        if ( !distances.containsKey( targetNode.getId() ) )
         {
             return null;
         }
@@ -215,7 +216,7 @@ public class SingleSourceShortestPathDijkstra<CostType> extends
             throw new RuntimeException( "No end node defined" );
         }
         calculate( targetNode );
-        if ( !distances.containsKey( targetNode ) )
+        if ( !distances.containsKey( targetNode.getId() ) )
         {
             return null;
         }
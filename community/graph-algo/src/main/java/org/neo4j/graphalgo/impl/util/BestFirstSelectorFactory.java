@@ -19,9 +19,6 @@
  */
 package org.neo4j.graphalgo.impl.util;
 
-import java.util.HashMap;
-import java.util.Map;
-
 import org.neo4j.graphalgo.impl.util.PriorityMap.Converter;
 import org.neo4j.graphalgo.impl.util.PriorityMap.Entry;
 import org.neo4j.graphdb.Node;
@@ -32,6 +29,8 @@ import org.neo4j.graphdb.traversal.BranchSelector;
 import org.neo4j.graphdb.traversal.TraversalBranch;
 import org.neo4j.graphdb.traversal.TraversalContext;
 import org.neo4j.helpers.Function2;
+import org.neo4j.helpers.collection.primitive.Primitive;
+import org.neo4j.helpers.collection.primitive.PrimitiveLongObjectMap;
 
 import static org.neo4j.kernel.StandardExpander.toPathExpander;
 
@@ -102,7 +101,7 @@ public abstract class BestFirstSelectorFactory<P extends Comparable<P>, D>
         private TraversalBranch current;
         private P currentAggregatedValue;
         private final PathExpander expander;
-        private final Map<Long, Visit<P>> visits = new HashMap<Long, Visit<P>>();
+        private final PrimitiveLongObjectMap<Visit<P>> visits = Primitive.longObjectMap();
 
         public BestFirstSelector( TraversalBranch source, P startData, PathExpander expander )
         {
@@ -0,0 +1,185 @@
+/**
+ * Copyright (c) 2002-2013 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.analytics;
+
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import org.neo4j.graphalgo.CommonEvaluators;
+import org.neo4j.graphalgo.impl.analytics.CompactGraph;
+import org.neo4j.graphalgo.impl.analytics.ParallelBetweennessCentrality;
+import org.neo4j.graphalgo.impl.analytics.ParallelEigenvectorCentrality;
+import org.neo4j.graphalgo.impl.analytics.ParallelPageRank;
+import org.neo4j.graphalgo.impl.centrality.EigenvectorCentralityPower;
+import org.neo4j.graphdb.Direction;
+import org.neo4j.graphdb.DynamicLabel;
+import org.neo4j.graphdb.Label;
+import org.neo4j.graphdb.Node;
+
+import common.Neo4jAlgoTestCase;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ParallelAnalyticsTest extends Neo4jAlgoTestCase
+{
+    private static ForkJoinPool pool;
+
+    @BeforeClass
+    public static void startPool()
+    {
+        pool = new ForkJoinPool( 3 );
+    }
+
+    @AfterClass
+    public static void stopPool()
+    {
+        pool.shutdown();
+    }
+
+    @Test
+    public void shouldLoadOnlyNodesWithLabelAndRelationshipsBetweenThem() throws Exception
+    {
+        // given
+        graph.makeEdgeChain( "a,b,c,d" );
+        Label label = DynamicLabel.label( "Person" );
+        for ( String name : new String[]{"a", "b", "c"} )
+        {
+            graph.getNode( name ).addLabel( label );
+        }
+
+        // when
+        CompactGraph compact = CompactGraph.load( graphDb, label );
+
+        // then
+        assertEquals( 3, compact.nodeCount() );
+        assertEquals( 2, compact.relationshipCount() );
+        assertEquals( -1, compact.indexOf( graph.getNode( "d" ).getId() ) );
+        int b = compact.indexOf( graph.getNode( "b" ).getId() );
+        assertEquals( graph.getNode( "b" ).getId(), compact.nodeId( b ) );
+        assertEquals( 1, compact.degree( b, Direction.OUTGOING ) );
+        assertEquals( 1, compact.degree( b, Direction.INCOMING ) );
+        int c = compact.indexOf( graph.getNode( "c" ).getId() );
+        assertEquals( 0, compact.degree( c, Direction.OUTGOING ) );
+    }
+
+    @Test
+    public void shouldRankNodesInCycleEqually() throws Exception
+    {
+        // given
+        graph.makeEdgeChain( "a,b,c,d,a" );
+        CompactGraph compact = CompactGraph.load( graphDb, null );
+
+        // when
+        double[] ranks = new ParallelPageRank( compact, pool, 0.85, 0.0001, 100 ).compute();
+
+        // then
+        for ( double rank : ranks )
+        {
+            assertEquals( 0.25, rank, 0.001 );
+        }
+    }
+
+    @Test
+    public void shouldRankHubHighestAndKeepRanksSummingToOne() throws Exception
+    {
+        // given
+        graph.makeEdges( "a,hub,b,hub,c,hub,hub,a" );
+        CompactGraph compact = CompactGraph.load( graphDb, null );
+
+        // when
+        ParallelPageRank pageRank = new ParallelPageRank( compact, pool, 0.85, 0.000001, 100 );
+        double[] ranks = pageRank.compute();
+
+        // then
+        int hub = compact.indexOf( graph.getNode( "hub" ).getId() );
+        double sum = 0;
+        for ( int node = 0; node < ranks.length; node++ )
+        {
+            sum += ranks[node];
+            assertTrue( node == hub || ranks[node] < ranks[hub] );
+        }
+        assertEquals( 1, sum, 0.0001 );
+        assertTrue( pageRank.iterations() < 100 );
+    }
+
+    @Test
+    public void shouldComputeSameEigenvectorCentralityAsPowerMethod() throws Exception
+    {
+        // given
+        graph.makeEdges( "a,b,b,c,c,a,c,d,d,e" );
+        CompactGraph compact = CompactGraph.load( graphDb, null );
+        EigenvectorCentralityPower expected = new EigenvectorCentralityPower( Direction.BOTH,
+                CommonEvaluators.doubleCostEvaluator( "cost", 1d ), graph.getAllNodes(), graph.getAllEdges(),
+                0.00001 );
+
+        // when
+        double[] values = new ParallelEigenvectorCentrality( compact, pool, Direction.BOTH, 0.00001, 1000 )
+                .compute();
+
+        // then
+        for ( Node node : graph.getAllNodes() )
+        {
+            assertEquals( expected.getCentrality( node ), values[compact.indexOf( node.getId() )], 0.001 );
+        }
+    }
+
+    @Test
+    public void shouldComputeBetweennessCentralityOfChain() throws Exception
+    {
+        // given
+        graph.makeEdgeChain( "a,b,c,d,e" );
+        CompactGraph compact = CompactGraph.load( graphDb, null );
+
+        // when
+        double[] undirected = new ParallelBetweennessCentrality( compact, pool, Direction.BOTH ).compute();
+        double[] directed = new ParallelBetweennessCentrality( compact, pool, Direction.OUTGOING ).compute();
+
+        // then
+        double[] expected = {0, 3, 4, 3, 0};
+        String[] names = {"a", "b", "c", "d", "e"};
+        for ( int i = 0; i < names.length; i++ )
+        {
+            int node = compact.indexOf( graph.getNode( names[i] ).getId() );
+            assertEquals( expected[i], undirected[node], 0.0001 );
+            assertEquals( expected[i], directed[node], 0.0001 );
+        }
+    }
+
+    @Test
+    public void shouldSplitBetweennessOverEqualPaths() throws Exception
+    {
+        // given a square, where the paths between opposite corners go through either of the other two corners
+        graph.makeEdgeChain( "a,b,c,d,a" );
+        CompactGraph compact = CompactGraph.load( graphDb, null );
+
+        // when
+        double[] centrality = new ParallelBetweennessCentrality( compact, pool, Direction.BOTH ).compute();
+
+        // then
+        for ( double value : centrality )
+        {
+            assertEquals( 0.5, value, 0.0001 );
+        }
+    }
+}
@@ -0,0 +1,65 @@
+/**
+ * Copyright (c) 2002-2013 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.centrality;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+import org.neo4j.graphalgo.impl.centrality.DegreeCentrality;
+import org.neo4j.graphdb.Direction;
+
+import common.Neo4jAlgoTestCase;
+
+public class DegreeCentralityTest extends Neo4jAlgoTestCase
+{
+    @Test
+    public void testStar()
+    {
+        graph.makeEdges( "a,b,a,c,a,d,e,a" );
+        DegreeCentrality degree = new DegreeCentrality( Direction.BOTH );
+        assertEquals( 4, degree.getCentrality( graph.getNode( "a" ) ).intValue() );
+        assertEquals( 1, degree.getCentrality( graph.getNode( "b" ) ).intValue() );
+    }
+
+    @Test
+    public void testDirection()
+    {
+        graph.makeEdges( "a,b,a,c,d,a" );
+        assertEquals( 2, new DegreeCentrality( Direction.OUTGOING ).getCentrality( graph.getNode( "a" ) ).intValue() );
+        assertEquals( 1, new DegreeCentrality( Direction.INCOMING ).getCentrality( graph.getNode( "a" ) ).intValue() );
+    }
+
+    @Test
+    public void testTypes()
+    {
+        graph.makeEdges( "a,b,a,c" );
+        graph.setCurrentRelType( MyRelTypes.R2 );
+        graph.makeEdges( "a,d" );
+        graph.setCurrentRelType( MyRelTypes.R1 );
+        Integer r1 = new DegreeCentrality( Direction.BOTH, MyRelTypes.R1 ).getCentrality( graph.getNode( "a" ) );
+        Integer r2 = new DegreeCentrality( Direction.BOTH, MyRelTypes.R2 ).getCentrality( graph.getNode( "a" ) );
+        Integer r3 = new DegreeCentrality( Direction.BOTH, MyRelTypes.R3 ).getCentrality( graph.getNode( "a" ) );
+        Integer both = new DegreeCentrality( Direction.BOTH, MyRelTypes.R1, MyRelTypes.R2 ).getCentrality( graph.getNode( "a" ) );
+        assertEquals( 2, r1.intValue() );
+        assertEquals( 1, r2.intValue() );
+        assertEquals( 0, r3.intValue() );
+        assertEquals( 3, both.intValue() );
+    }
+}
@@ -213,6 +213,30 @@ public class PathImplTest
             return false;
         }
 
+        @Override
+        public int getDegree()
+        {
+            return 0;
+        }
+
+        @Override
+        public int getDegree( RelationshipType type )
+        {
+            return 0;
+        }
+
+        @Override
+        public int getDegree( Direction direction )
+        {
+            return 0;
+        }
+
+        @Override
+        public int getDegree( RelationshipType type, Direction direction )
+        {
+            return 0;
+        }
+
         @Override
         public Relationship getSingleRelationship( RelationshipType type, Direction dir )
         {
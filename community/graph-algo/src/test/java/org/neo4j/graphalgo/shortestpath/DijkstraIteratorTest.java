@@ -33,6 +33,8 @@ import org.neo4j.graphalgo.impl.util.DoubleComparator;
 import org.neo4j.graphdb.Direction;
 import org.neo4j.graphdb.Node;
 import org.neo4j.graphdb.Relationship;
+import org.neo4j.helpers.collection.primitive.Primitive;
+import org.neo4j.helpers.collection.primitive.PrimitiveLongObjectMap;
 
 import common.Neo4jAlgoTestCase;
 
@@ -57,9 +59,9 @@ public class DijkstraIteratorTest extends Neo4jAlgoTestCase
         {
             public TestIterator( Node startNode,
                 HashMap<Node,List<Relationship>> predecessors,
-                HashMap<Node,Double> mySeen, HashMap<Node,Double> otherSeen,
-                HashMap<Node,Double> myDistances,
-                HashMap<Node,Double> otherDistances, boolean backwards )
+                PrimitiveLongObjectMap<Double> mySeen, PrimitiveLongObjectMap<Double> otherSeen,
+                PrimitiveLongObjectMap<Double> myDistances,
+                PrimitiveLongObjectMap<Double> otherDistances, boolean backwards )
             {
                 super( startNode, predecessors, mySeen, otherSeen, myDistances,
                     otherDistances, backwards );
@@ -79,27 +81,27 @@ public class DijkstraIteratorTest extends Neo4jAlgoTestCase
             graph.makeEdge( "d", "x", "cost", (double) 3 );
             graph.makeEdge( "d", "e", "cost", (double) 1 );
             graph.makeEdge( "e", "x", "cost", (double) 1 );
-            HashMap<Node,Double> seen1, seen2, dists1, dists2;
-            seen1 = new HashMap<Node,Double>();
-            seen2 = new HashMap<Node,Double>();
-            dists1 = new HashMap<Node,Double>();
-            dists2 = new HashMap<Node,Double>();
+            PrimitiveLongObjectMap<Double> seen1, seen2, dists1, dists2;
+            seen1 = Primitive.longObjectMap();
+            seen2 = Primitive.longObjectMap();
+            dists1 = Primitive.longObjectMap();
+            dists2 = Primitive.longObjectMap();
             DijstraIterator iter1 = new TestIterator( graph.getNode( "start" ),
                 predecessors1, seen1, seen2, dists1, dists2, false );
             // while ( iter1.hasNext() && !limitReached() && !iter1.isDone() )
             assertTrue( iter1.next().equals( graph.getNode( "start" ) ) );
             assertTrue( iter1.next().equals( graph.getNode( "a" ) ) );
-            assertTrue( seen1.get( graph.getNode( "x" ) ) == 10.0 );
+            assertTrue( seen1.get( graph.getNode( "x" ).getId() ) == 10.0 );
             assertTrue( iter1.next().equals( graph.getNode( "b" ) ) );
-            assertTrue( seen1.get( graph.getNode( "x" ) ) == 9.0 );
+            assertTrue( seen1.get( graph.getNode( "x" ).getId() ) == 9.0 );
             assertTrue( iter1.next().equals( graph.getNode( "c" ) ) );
-            assertTrue( seen1.get( graph.getNode( "x" ) ) == 8.0 );
+            assertTrue( seen1.get( graph.getNode( "x" ).getId() ) == 8.0 );
             assertTrue( iter1.next().equals( graph.getNode( "d" ) ) );
-            assertTrue( seen1.get( graph.getNode( "x" ) ) == 7.0 );
+            assertTrue( seen1.get( graph.getNode( "x" ).getId() ) == 7.0 );
             assertTrue( iter1.next().equals( graph.getNode( "e" ) ) );
-            assertTrue( seen1.get( graph.getNode( "x" ) ) == 6.0 );
+            assertTrue( seen1.get( graph.getNode( "x" ).getId() ) == 6.0 );
             assertTrue( iter1.next().equals( graph.getNode( "x" ) ) );
-            assertTrue( seen1.get( graph.getNode( "x" ) ) == 6.0 );
+            assertTrue( seen1.get( graph.getNode( "x" ).getId() ) == 6.0 );
             assertFalse( iter1.hasNext() );
             int count = 0;
             // This code below is correct for the alternative priority queue
@@ -109,12 +111,12 @@ public class DijkstraIteratorTest extends Neo4jAlgoTestCase
             // ++count;
             // }
             // assertTrue( count == 4 );
-            // assertTrue( seen1.get( graph.getNode( "x" ) ) == 6.0 );
+            // assertTrue( seen1.get( graph.getNode( "x" ).getId() ) == 6.0 );
             // Now test node limit
-            seen1 = new HashMap<Node,Double>();
-            seen2 = new HashMap<Node,Double>();
-            dists1 = new HashMap<Node,Double>();
-            dists2 = new HashMap<Node,Double>();
+            seen1 = Primitive.longObjectMap();
+            seen2 = Primitive.longObjectMap();
+            dists1 = Primitive.longObjectMap();
+            dists2 = Primitive.longObjectMap();
             iter1 = new TestIterator( graph.getNode( "start" ), predecessors1,
                 seen1, seen2, dists1, dists2, false );
             this.numberOfNodesTraversed = 0;
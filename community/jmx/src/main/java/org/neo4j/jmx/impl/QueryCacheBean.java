@@ -0,0 +1,68 @@
+/**
+ * Copyright (c) 2002-2013 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.jmx.impl;
+
+import javax.management.NotCompliantMBeanException;
+
+import org.neo4j.helpers.Service;
+import org.neo4j.jmx.QueryCache;
+import org.neo4j.kernel.impl.cache.QueryCacheStatistics;
+
+@Service.Implementation( ManagementBeanProvider.class )
+public final class QueryCacheBean extends ManagementBeanProvider
+{
+    public QueryCacheBean()
+    {
+        super( QueryCache.class );
+    }
+
+    @Override
+    protected Neo4jMBean createMBean( ManagementData management ) throws NotCompliantMBeanException
+    {
+        return new QueryCacheImpl( management );
+    }
+
+    private static class QueryCacheImpl extends Neo4jMBean implements QueryCache
+    {
+        private final QueryCacheStatistics statistics;
+
+        QueryCacheImpl( ManagementData management ) throws NotCompliantMBeanException
+        {
+            super( management );
+            this.statistics = management.getKernelData().graphDatabase()
+                    .getDependencyResolver().resolveDependency( QueryCacheStatistics.class );
+        }
+
+        public long getHitCount()
+        {
+            return statistics.hitCount();
+        }
+
+        public long getMissCount()
+        {
+            return statistics.missCount();
+        }
+
+        public long getEvictionCount()
+        {
+            return statistics.evictionCount();
+        }
+    }
+}
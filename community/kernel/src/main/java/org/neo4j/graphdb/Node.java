@@ -259,6 +259,41 @@ public interface Node extends PropertyContainer
      */
     Relationship getSingleRelationship( RelationshipType type, Direction dir );
 
+    /**
+     * Returns the number of relationships connected to this node regardless of
+     * direction or type. The relationships themselves are not loaded to
+     * answer this, so it's cheap even for nodes with lots of relationships.
+     *
+     * @return the number of relationships connected to this node.
+     */
+    int getDegree();
+
+    /**
+     * Returns the number of relationships of a given {@code type} connected to this node.
+     *
+     * @param type the type of relationships to get the degree for
+     * @return the number of relationships of a given {@code type} connected to this node.
+     */
+    int getDegree( RelationshipType type );
+
+    /**
+     * Returns the number of relationships of a given {@code direction} connected to this node.
+     *
+     * @param direction the direction of the relationships
+     * @return the number of relationships of a given {@code direction} for this node.
+     */
+    int getDegree( Direction direction );
+
+    /**
+     * Returns the number of relationships of a given {@code type} and {@code direction} connected
+     * to this node.
+     *
+     * @param type the type of relationships to get the degree for
+     * @param direction the direction of the relationships
+     * @return the number of relationships of a given {@code type} and {@code direction} for this node.
+     */
+    int getDegree( RelationshipType type, Direction direction );
+
     /**
      * Creates a relationship between this node and another node. The
      * relationship is of type <code>type</code>. It starts at this node and
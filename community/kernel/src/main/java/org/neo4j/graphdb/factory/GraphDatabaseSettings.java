@@ -36,6 +36,7 @@ import org.neo4j.kernel.impl.cache.MonitorGc;
 import static org.neo4j.helpers.Settings.ANY;
 import static org.neo4j.helpers.Settings.BOOLEAN;
 import static org.neo4j.helpers.Settings.BYTES;
+import static org.neo4j.helpers.Settings.DURATION;
 import static org.neo4j.helpers.Settings.FALSE;
 import static org.neo4j.helpers.Settings.INTEGER;
 import static org.neo4j.helpers.Settings.NO_DEFAULT;
@@ -48,6 +49,7 @@ import static org.neo4j.helpers.Settings.matches;
 import static org.neo4j.helpers.Settings.min;
 import static org.neo4j.helpers.Settings.options;
 import static org.neo4j.helpers.Settings.port;
+import static org.neo4j.helpers.Settings.range;
 import static org.neo4j.helpers.Settings.setting;
 
 /**
@@ -97,6 +99,29 @@ public abstract class GraphDatabaseSettings
     @Description("Used to set the number of Cypher query execution plans that are cached.")
     public static Setting<Integer> query_cache_size = setting( "query_cache_size", INTEGER, "100", min( 0 ) );
 
+    @Description("Prepare the predicates and projections of Cypher queries as nested specialised evaluators when " +
+            "planning, instead of interpreting their expression trees for every row. No code is generated. " +
+            "Expressions that cannot be prepared this way are still interpreted.")
+    public static final Setting<Boolean> cypher_compiled_expressions = setting( "cypher_compiled_expressions",
+            BOOLEAN, FALSE );
+
+    @Description("The number of rows a Cypher sort, distinct or aggregation keeps in memory before moving further " +
+            "rows to temporary files in the store directory.")
+    public static final Setting<Integer> cypher_spill_row_threshold = setting( "cypher_spill_row_threshold",
+            INTEGER, "1000000", min( 1 ) );
+
+    @Description("The number of threads a Cypher aggregation directly over a label or all nodes scan, such as " +
+            "MATCH (n:Person) RETURN n.country, count(*), may use. Read queries only. With 1, every query runs " +
+            "on the calling thread.")
+    public static final Setting<Integer> cypher_parallel_workers = setting( "cypher_parallel_workers",
+            INTEGER, "1", min( 1 ) );
+
+    @Description("Profile one in every N executions of each Cypher query, and write the rows, database hits, " +
+            "time, object cache and page cache hits and misses of every step to the messages log once the result " +
+            "has been read. Page cache activity is only counted with use_shared_page_cache. 0 disables sampling.")
+    public static final Setting<Integer> cypher_profile_sample_interval = setting( "cypher_profile_sample_interval",
+            INTEGER, "0", min( 0 ) );
+
     // Store files
     @Description("The directory where the database files are located.")
     public static final Setting<File> store_dir = setting("store_dir", PATH, NO_DEFAULT );
@@ -164,6 +189,23 @@ public abstract class GraphDatabaseSettings
                   "Default is 25M" )
     public static final Setting<Long> logical_log_rotation_threshold = setting( "logical_log_rotation_threshold", BYTES, "25M" );
 
+    @Description( "Let concurrently committing transactions share a single force of the logical logs, and of the " +
+                  "transaction manager log for transactions spanning multiple data sources, instead of " +
+                  "forcing them once per transaction. Improves throughput of many small concurrent transactions, " +
+                  "at the cost of some added latency per transaction." )
+    public static final Setting<Boolean> logical_log_group_commit = setting( "logical_log_group_commit", BOOLEAN, FALSE );
+
+    @Description( "The maximum number of transactions the logical log group commit will wait for before " +
+                  "forcing the log. Only applies if logical_log_group_commit is enabled." )
+    public static final Setting<Integer> logical_log_group_commit_max_batch_size = setting(
+            "logical_log_group_commit_max_batch_size", INTEGER, "100", min( 1 ) );
+
+    @Description( "The maximum time the logical log group commit will wait for more transactions to join a batch " +
+                  "before forcing the log. 0 means no waiting, only transactions committing while the previous " +
+                  "force is in progress are batched together. Only applies if logical_log_group_commit is enabled." )
+    public static final Setting<Long> logical_log_group_commit_max_latency = setting(
+            "logical_log_group_commit_max_latency", DURATION, "0ms" );
+
     @Description("Use a quick approach for rebuilding the ID generators. This give quicker recovery time, " +
             "but will limit the ability to reuse the space of deleted entities.")
     public static final Setting<Boolean> rebuild_idgenerators_fast = setting("rebuild_idgenerators_fast", BOOLEAN, TRUE );
@@ -178,6 +220,13 @@ public abstract class GraphDatabaseSettings
     @Description("The size to allocate for a memory mapping pool to be shared between all stores.")
     public static final Setting<Long> all_stores_total_mapped_memory_size = setting("all_stores_total_mapped_memory_size", BYTES, "500M" );
 
+    @Description("Tell Neo4j to keep the pages of all stores in a single page cache, sized by " +
+            "all_stores_total_mapped_memory_size, instead of memory mapping each store separately.")
+    public static final Setting<Boolean> use_shared_page_cache = setting("use_shared_page_cache", BOOLEAN, FALSE );
+
+    @Description("The size of each page in the shared page cache.")
+    public static final Setting<Long> shared_page_cache_page_size = setting("shared_page_cache_page_size", BYTES, "8k", range( 512L, (long) Integer.MAX_VALUE ) );
+
     @Description("Tell Neo4j to regularly log memory mapping statistics.")
     public static final Setting<Boolean> log_mapped_memory_stats = setting("log_mapped_memory_stats", BOOLEAN, FALSE );
 
@@ -212,6 +261,22 @@ public abstract class GraphDatabaseSettings
     @Description("How many relationships to read at a time during iteration")
     public static final Setting<Integer> relationship_grab_size = setting("relationship_grab_size", INTEGER, "100", min( 1 ));
 
+    @Description("The number of relationships a node may have before its relationships are grouped by type and " +
+            "direction, so that expanding a single type on such a dense node doesn't have to load all of its " +
+            "relationships.")
+    public static final Setting<Integer> dense_node_threshold = setting("dense_node_threshold", INTEGER, "50", min( 1 ));
+
+    @Description("The number of threads that scan the node store when populating indexes. Indexes created " +
+            "together share a single scan, which is split up between these threads.")
+    public static final Setting<Integer> index_population_workers = setting("index_population_workers", INTEGER, "1", min( 1 ));
+
+    @Description("The number of node and relationship records read each time the graph statistics used for " +
+            "query planning are sampled. Stores smaller than this are read in full.")
+    public static final Setting<Integer> statistics_sample_size = setting("statistics_sample_size", INTEGER, "10000", min( 1 ));
+
+    @Description("How often the graph statistics used for query planning are sampled.")
+    public static final Setting<Long> statistics_sampling_interval = setting("statistics_sampling_interval", DURATION, "10m" );
+
     @Description("Specifies the block size for storing strings. This parameter is only honored when the store is " +
             "created, otherwise it is ignored. " +
             "Note that each character in a string occupies two bytes, meaning that a block size of 120 (the default " +
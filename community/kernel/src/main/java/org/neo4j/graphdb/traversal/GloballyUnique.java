@@ -19,14 +19,13 @@
  */
 package org.neo4j.graphdb.traversal;
 
-import java.util.HashSet;
-import java.util.Set;
-
 import org.neo4j.graphdb.Path;
+import org.neo4j.helpers.collection.primitive.Primitive;
+import org.neo4j.helpers.collection.primitive.PrimitiveLongSet;
 
 class GloballyUnique extends AbstractUniquenessFilter
 {
-    private final Set<Long> visited = new HashSet<Long>();
+    private final PrimitiveLongSet visited = Primitive.longSet();
     
     GloballyUnique( PrimitiveTypeFetcher type )
     {
@@ -0,0 +1,223 @@
+/**
+ * Copyright (c) 2002-2013 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.helpers.collection.primitive;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+import java.util.Arrays;
+
+import sun.nio.ch.DirectBuffer;
+
+/**
+ * Fixed length array of longs, either on the heap or in direct buffers. The hash tables in this package keep their
+ * keys, and values that fit in a long, in these.
+ *
+ * The memory of an off-heap array is given back by {@link #close() closing} it, rather than whenever the garbage
+ * collector gets around to it. A closed array can't be used anymore.
+ */
+public abstract class LongArray
+{
+    static final long MAX_HEAP_LENGTH = 1 << 30;
+
+    public abstract long get( long index );
+
+    public abstract void set( long index, long value );
+
+    public abstract long length();
+
+    /**
+     * @return an array of the given length, which starts out with the values of this one and has the rest set to
+     * the fill. This array can't be used afterwards, since the returned one may share its memory.
+     */
+    public LongArray grow( long length, long fill )
+    {
+        if ( length < length() )
+        {
+            throw new IllegalArgumentException( "Cannot shrink an array of length " + length() + " to " + length );
+        }
+        return grown( length, fill );
+    }
+
+    abstract LongArray grown( long length, long fill );
+
+    public void close()
+    {
+    }
+
+    public static LongArray heap( long length, long fill )
+    {
+        if ( length > MAX_HEAP_LENGTH )
+        {
+            throw new IllegalStateException( "Cannot keep " + length + " longs on the heap, use an off-heap " +
+                    "collection instead" );
+        }
+        return new Heap( (int) length, fill );
+    }
+
+    public static LongArray offHeap( long length, long fill )
+    {
+        return new OffHeap( length, fill, new ByteBuffer[0] );
+    }
+
+    private static class Heap extends LongArray
+    {
+        private final long[] array;
+
+        Heap( int length, long fill )
+        {
+            this( new long[length], 0, fill );
+        }
+
+        private Heap( long[] array, int filledFrom, long fill )
+        {
+            this.array = array;
+            if ( fill != 0 )
+            {
+                Arrays.fill( array, filledFrom, array.length, fill );
+            }
+        }
+
+        @Override
+        public long get( long index )
+        {
+            return array[(int) index];
+        }
+
+        @Override
+        public void set( long index, long value )
+        {
+            array[(int) index] = value;
+        }
+
+        @Override
+        public long length()
+        {
+            return array.length;
+        }
+
+        @Override
+        LongArray grown( long length, long fill )
+        {
+            if ( length > MAX_HEAP_LENGTH )
+            {
+                throw new IllegalStateException( "Cannot keep " + length + " longs on the heap, use an off-heap " +
+                        "collection instead" );
+            }
+            return new Heap( Arrays.copyOf( array, (int) length ), array.length, fill );
+        }
+    }
+
+    /*
+     * Split into chunks, since a single direct buffer can't hold more than 2GB. Growing keeps the full chunks as
+     * they are, and only copies the last one if it isn't full.
+     */
+    private static class OffHeap extends LongArray
+    {
+        private static final int CHUNK_SHIFT = 20;
+        private static final int CHUNK_MASK = (1 << CHUNK_SHIFT) - 1;
+
+        private final ByteBuffer[] buffers;
+        private final LongBuffer[] chunks;
+        private final long length;
+
+        OffHeap( long length, long fill, ByteBuffer[] reused )
+        {
+            this.length = length;
+            this.buffers = new ByteBuffer[(int) ((length + CHUNK_MASK) >>> CHUNK_SHIFT)];
+            this.chunks = new LongBuffer[buffers.length];
+            for ( int i = 0; i < buffers.length; i++ )
+            {
+                int size = (int) Math.min( 1 << CHUNK_SHIFT, length - ((long) i << CHUNK_SHIFT) );
+                ByteBuffer old = i < reused.length ? reused[i] : null;
+                if ( old != null && old.capacity() == size * 8 )
+                {
+                    buffers[i] = old;
+                    chunks[i] = old.asLongBuffer();
+                    continue;
+                }
+                buffers[i] = ByteBuffer.allocateDirect( size * 8 ).order( ByteOrder.nativeOrder() );
+                chunks[i] = buffers[i].asLongBuffer();
+                int copied = 0;
+                if ( old != null )
+                {
+                    LongBuffer values = old.asLongBuffer();
+                    copied = values.capacity();
+                    chunks[i].put( values );
+                    free( old );
+                }
+                if ( fill != 0 )
+                {
+                    for ( int j = copied; j < size; j++ )
+                    {
+                        chunks[i].put( j, fill );
+                    }
+                }
+            }
+        }
+
+        @Override
+        public long get( long index )
+        {
+            return chunks[(int) (index >>> CHUNK_SHIFT)].get( (int) (index & CHUNK_MASK) );
+        }
+
+        @Override
+        public void set( long index, long value )
+        {
+            chunks[(int) (index >>> CHUNK_SHIFT)].put( (int) (index & CHUNK_MASK), value );
+        }
+
+        @Override
+        public long length()
+        {
+            return length;
+        }
+
+        @Override
+        LongArray grown( long length, long fill )
+        {
+            OffHeap grown = new OffHeap( length, fill, buffers );
+            Arrays.fill( buffers, null );
+            Arrays.fill( chunks, null );
+            return grown;
+        }
+
+        @Override
+        public void close()
+        {
+            for ( int i = 0; i < buffers.length; i++ )
+            {
+                if ( buffers[i] != null )
+                {
+                    free( buffers[i] );
+                }
+                // Any further access fails right away, instead of reading memory that has been given back
+                buffers[i] = null;
+                chunks[i] = null;
+            }
+        }
+
+        private static void free( ByteBuffer buffer )
+        {
+            ((DirectBuffer) buffer).cleaner().clean();
+        }
+    }
+}
@@ -0,0 +1,154 @@
+/**
+ * Copyright (c) 2002-2013 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.helpers.collection.primitive;
+
+import org.neo4j.kernel.impl.api.PrimitiveLongIterator;
+
+import static java.lang.Double.doubleToRawLongBits;
+import static java.lang.Double.longBitsToDouble;
+
+/**
+ * Keeps the values as their raw long bits, in a {@link LongArray} like the keys, so that they can live off heap too.
+ */
+class LongDoubleHashMap extends LongKeyTable implements PrimitiveLongDoubleMap
+{
+    private LongArray values;
+    private LongArray oldValues;
+    private double freeKeyValue;
+
+    LongDoubleHashMap( long expectedSize, boolean offHeap )
+    {
+        super( expectedSize, offHeap );
+    }
+
+    @Override
+    public double put( long key, double value, double defaultValue )
+    {
+        if ( key == FREE )
+        {
+            double previous = hasFreeKey ? freeKeyValue : defaultValue;
+            hasFreeKey = true;
+            freeKeyValue = value;
+            return previous;
+        }
+        long slot = slotOf( key );
+        if ( keys.get( slot ) == key )
+        {
+            double previous = longBitsToDouble( values.get( slot ) );
+            values.set( slot, doubleToRawLongBits( value ) );
+            return previous;
+        }
+        values.set( slot, doubleToRawLongBits( value ) );
+        inserted( slot, key );
+        return defaultValue;
+    }
+
+    @Override
+    public double get( long key, double defaultValue )
+    {
+        if ( key == FREE )
+        {
+            return hasFreeKey ? freeKeyValue : defaultValue;
+        }
+        long slot = slotOf( key );
+        return keys.get( slot ) == key ? longBitsToDouble( values.get( slot ) ) : defaultValue;
+    }
+
+    @Override
+    public double add( long key, double delta )
+    {
+        if ( key == FREE )
+        {
+            freeKeyValue = (hasFreeKey ? freeKeyValue : 0d) + delta;
+            hasFreeKey = true;
+            return freeKeyValue;
+        }
+        long slot = slotOf( key );
+        if ( keys.get( slot ) == key )
+        {
+            double value = longBitsToDouble( values.get( slot ) ) + delta;
+            values.set( slot, doubleToRawLongBits( value ) );
+            return value;
+        }
+        values.set( slot, doubleToRawLongBits( delta ) );
+        inserted( slot, key );
+        return delta;
+    }
+
+    @Override
+    public boolean containsKey( long key )
+    {
+        return key == FREE ? hasFreeKey : keys.get( slotOf( key ) ) == key;
+    }
+
+    @Override
+    public boolean remove( long key )
+    {
+        if ( key == FREE )
+        {
+            boolean removed = hasFreeKey;
+            hasFreeKey = false;
+            return removed;
+        }
+        long slot = slotOf( key );
+        if ( keys.get( slot ) != key )
+        {
+            return false;
+        }
+        removeSlot( slot );
+        return true;
+    }
+
+    @Override
+    public PrimitiveLongIterator keyIterator()
+    {
+        return keys();
+    }
+
+    @Override
+    protected void allocateValues( long capacity )
+    {
+        oldValues = values;
+        values = newArray( capacity, 0 );
+    }
+
+    @Override
+    protected void rehashed( long fromSlot, long toSlot )
+    {
+        values.set( toSlot, oldValues.get( fromSlot ) );
+    }
+
+    @Override
+    protected void rehashDone()
+    {
+        oldValues = null;
+    }
+
+    @Override
+    protected void moved( long fromSlot, long toSlot )
+    {
+        values.set( toSlot, values.get( fromSlot ) );
+    }
+
+    @Override
+    protected void cleared( long slot )
+    {
+    }
+}
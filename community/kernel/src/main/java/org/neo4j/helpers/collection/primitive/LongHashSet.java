@@ -0,0 +1,103 @@
+/**
+ * Copyright (c) 2002-2013 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.helpers.collection.primitive;
+
+import org.neo4j.kernel.impl.api.PrimitiveLongIterator;
+
+class LongHashSet extends LongKeyTable implements PrimitiveLongSet
+{
+    LongHashSet( long expectedSize, boolean offHeap )
+    {
+        super( expectedSize, offHeap );
+    }
+
+    @Override
+    public boolean add( long value )
+    {
+        if ( value == FREE )
+        {
+            boolean added = !hasFreeKey;
+            hasFreeKey = true;
+            return added;
+        }
+        long slot = slotOf( value );
+        if ( keys.get( slot ) == value )
+        {
+            return false;
+        }
+        inserted( slot, value );
+        return true;
+    }
+
+    @Override
+    public boolean contains( long value )
+    {
+        return value == FREE ? hasFreeKey : keys.get( slotOf( value ) ) == value;
+    }
+
+    @Override
+    public boolean remove( long value )
+    {
+        if ( value == FREE )
+        {
+            boolean removed = hasFreeKey;
+            hasFreeKey = false;
+            return removed;
+        }
+        long slot = slotOf( value );
+        if ( keys.get( slot ) != value )
+        {
+            return false;
+        }
+        removeSlot( slot );
+        return true;
+    }
+
+    @Override
+    public PrimitiveLongIterator iterator()
+    {
+        return keys();
+    }
+
+    @Override
+    protected void allocateValues( long capacity )
+    {
+    }
+
+    @Override
+    protected void rehashed( long fromSlot, long toSlot )
+    {
+    }
+
+    @Override
+    protected void rehashDone()
+    {
+    }
+
+    @Override
+    protected void moved( long fromSlot, long toSlot )
+    {
+    }
+
+    @Override
+    protected void cleared( long slot )
+    {
+    }
+}
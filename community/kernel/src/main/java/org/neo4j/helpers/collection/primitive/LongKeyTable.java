@@ -0,0 +1,219 @@
+/**
+ * Copyright (c) 2002-2013 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.helpers.collection.primitive;
+
+import org.neo4j.kernel.impl.api.AbstractPrimitiveLongIterator;
+import org.neo4j.kernel.impl.api.PrimitiveLongIterator;
+
+/**
+ * Open addressing hash table of long keys, with linear probing and backward shift deletion, so that there are no
+ * tombstones. Subclasses keep values in slots parallel to the keys, and are told when entries move between slots.
+ *
+ * One key value is used for marking free slots. That key can still be used, its entry is kept outside of the table.
+ */
+abstract class LongKeyTable
+{
+    static final long FREE = -1;
+    private static final int MIN_CAPACITY = 8;
+
+    private final boolean offHeap;
+    protected LongArray keys;
+    private long mask;
+    private long threshold;
+    private long size;
+    protected boolean hasFreeKey;
+
+    LongKeyTable( long expectedSize, boolean offHeap )
+    {
+        this.offHeap = offHeap;
+        allocate( capacityFor( expectedSize ) );
+    }
+
+    private static long capacityFor( long expectedSize )
+    {
+        long capacity = MIN_CAPACITY;
+        while ( capacity * 3 / 4 < expectedSize )
+        {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+
+    private void allocate( long capacity )
+    {
+        keys = newArray( capacity, FREE );
+        mask = capacity - 1;
+        threshold = capacity * 3 / 4;
+        allocateValues( capacity );
+    }
+
+    protected LongArray newArray( long length, long fill )
+    {
+        return offHeap ? LongArray.offHeap( length, fill ) : LongArray.heap( length, fill );
+    }
+
+    /**
+     * @return the slot the key is in, or the free slot it would go into.
+     */
+    protected long slotOf( long key )
+    {
+        long slot = idealSlot( key );
+        while ( true )
+        {
+            long existing = keys.get( slot );
+            if ( existing == key || existing == FREE )
+            {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    private long idealSlot( long key )
+    {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return (hash ^ (hash >>> 32)) & mask;
+    }
+
+    /**
+     * Puts the key in the free slot found by {@link #slotOf(long)}. The value has to be set in that slot before
+     * calling this, since the table may grow.
+     */
+    protected void inserted( long slot, long key )
+    {
+        keys.set( slot, key );
+        if ( ++size > threshold )
+        {
+            grow();
+        }
+    }
+
+    private void grow()
+    {
+        LongArray oldKeys = keys;
+        long oldCapacity = oldKeys.length();
+        allocate( oldCapacity * 2 );
+        for ( long slot = 0; slot < oldCapacity; slot++ )
+        {
+            long key = oldKeys.get( slot );
+            if ( key != FREE )
+            {
+                long newSlot = slotOf( key );
+                keys.set( newSlot, key );
+                rehashed( slot, newSlot );
+            }
+        }
+        rehashDone();
+    }
+
+    protected void removeSlot( long slot )
+    {
+        long gap = slot;
+        long next = (slot + 1) & mask;
+        while ( true )
+        {
+            long key = keys.get( next );
+            if ( key == FREE )
+            {
+                break;
+            }
+            // Move the entry into the gap, unless that would put it before the slot it hashes to
+            if ( ((next - idealSlot( key )) & mask) >= ((next - gap) & mask) )
+            {
+                keys.set( gap, key );
+                moved( next, gap );
+                gap = next;
+            }
+            next = (next + 1) & mask;
+        }
+        keys.set( gap, FREE );
+        cleared( gap );
+        size--;
+    }
+
+    public long size()
+    {
+        return size + (hasFreeKey ? 1 : 0);
+    }
+
+    public boolean isEmpty()
+    {
+        return size() == 0;
+    }
+
+    public void clear()
+    {
+        hasFreeKey = false;
+        size = 0;
+        allocate( MIN_CAPACITY );
+        rehashDone();
+    }
+
+    protected PrimitiveLongIterator keys()
+    {
+        return new AbstractPrimitiveLongIterator()
+        {
+            private final LongArray table = keys;
+            private boolean freeKeyReturned = !hasFreeKey;
+            private long slot;
+
+            {
+                computeNext();
+            }
+
+            @Override
+            protected void computeNext()
+            {
+                if ( !freeKeyReturned )
+                {
+                    freeKeyReturned = true;
+                    next( FREE );
+                    return;
+                }
+                while ( slot < table.length() )
+                {
+                    long key = table.get( slot++ );
+                    if ( key != FREE )
+                    {
+                        next( key );
+                        return;
+                    }
+                }
+                endReached();
+            }
+        };
+    }
+
+    /**
+     * Called when the table grows, before entries are {@link #rehashed(long, long) rehashed} into it.
+     */
+    protected abstract void allocateValues( long capacity );
+
+    /**
+     * The value in {@code fromSlot} of the values from before growing goes into {@code toSlot} of the new ones.
+     */
+    protected abstract void rehashed( long fromSlot, long toSlot );
+
+    protected abstract void rehashDone();
+
+    protected abstract void moved( long fromSlot, long toSlot );
+
+    protected abstract void cleared( long slot );
+}
@@ -0,0 +1,146 @@
+/**
+ * Copyright (c) 2002-2013 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.helpers.collection.primitive;
+
+import org.neo4j.kernel.impl.api.PrimitiveLongIterator;
+
+/**
+ * Values are objects, so they are always on the heap, even if the keys are not.
+ */
+class LongObjectHashMap<V> extends LongKeyTable implements PrimitiveLongObjectMap<V>
+{
+    private Object[] values;
+    private Object[] oldValues;
+    private V freeKeyValue;
+
+    LongObjectHashMap( long expectedSize )
+    {
+        super( expectedSize, false );
+    }
+
+    @Override
+    public V put( long key, V value )
+    {
+        if ( key == FREE )
+        {
+            V previous = freeKeyValue;
+            hasFreeKey = true;
+            freeKeyValue = value;
+            return previous;
+        }
+        int slot = (int) slotOf( key );
+        if ( keys.get( slot ) == key )
+        {
+            V previous = valueAt( slot );
+            values[slot] = value;
+            return previous;
+        }
+        values[slot] = value;
+        inserted( slot, key );
+        return null;
+    }
+
+    @Override
+    public V get( long key )
+    {
+        if ( key == FREE )
+        {
+            return freeKeyValue;
+        }
+        int slot = (int) slotOf( key );
+        return keys.get( slot ) == key ? valueAt( slot ) : null;
+    }
+
+    @Override
+    public boolean containsKey( long key )
+    {
+        return key == FREE ? hasFreeKey : keys.get( slotOf( key ) ) == key;
+    }
+
+    @Override
+    public V remove( long key )
+    {
+        if ( key == FREE )
+        {
+            V previous = freeKeyValue;
+            hasFreeKey = false;
+            freeKeyValue = null;
+            return previous;
+        }
+        int slot = (int) slotOf( key );
+        if ( keys.get( slot ) != key )
+        {
+            return null;
+        }
+        V previous = valueAt( slot );
+        removeSlot( slot );
+        return previous;
+    }
+
+    @Override
+    public void clear()
+    {
+        super.clear();
+        freeKeyValue = null;
+    }
+
+    @Override
+    public PrimitiveLongIterator keyIterator()
+    {
+        return keys();
+    }
+
+    @SuppressWarnings( "unchecked" )
+    private V valueAt( int slot )
+    {
+        return (V) values[slot];
+    }
+
+    @Override
+    protected void allocateValues( long capacity )
+    {
+        oldValues = values;
+        values = new Object[(int) capacity];
+    }
+
+    @Override
+    protected void rehashed( long fromSlot, long toSlot )
+    {
+        values[(int) toSlot] = oldValues[(int) fromSlot];
+    }
+
+    @Override
+    protected void rehashDone()
+    {
+        oldValues = null;
+    }
+
+    @Override
+    protected void moved( long fromSlot, long toSlot )
+    {
+        values[(int) toSlot] = values[(int) fromSlot];
+    }
+
+    @Override
+    protected void cleared( long slot )
+    {
+        values[(int) slot] = null;
+    }
+}
@@ -0,0 +1,77 @@
+/**
+ * Copyright (c) 2002-2013 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.helpers.collection.primitive;
+
+/**
+ * Creates the primitive collections of this package.
+ *
+ * The collections are open addressing hash tables, which need about 10 to 20 bytes per entry, instead of the 50 or
+ * more bytes a {@link java.util.HashSet} of boxed longs needs. The off-heap variants keep their entries in direct
+ * buffers, which don't count towards the heap size and put no load on the garbage collector, which makes them the
+ * better choice for tens of millions of entries and more.
+ */
+public class Primitive
+{
+    private static final int DEFAULT_SIZE = 32;
+
+    private Primitive()
+    {
+    }
+
+    public static PrimitiveLongSet longSet()
+    {
+        return longSet( DEFAULT_SIZE );
+    }
+
+    public static PrimitiveLongSet longSet( int expectedSize )
+    {
+        return new LongHashSet( expectedSize, false );
+    }
+
+    public static PrimitiveLongSet offHeapLongSet( long expectedSize )
+    {
+        return new LongHashSet( expectedSize, true );
+    }
+
+    public static PrimitiveLongDoubleMap longDoubleMap()
+    {
+        return longDoubleMap( DEFAULT_SIZE );
+    }
+
+    public static PrimitiveLongDoubleMap longDoubleMap( int expectedSize )
+    {
+        return new LongDoubleHashMap( expectedSize, false );
+    }
+
+    public static PrimitiveLongDoubleMap offHeapLongDoubleMap( long expectedSize )
+    {
+        return new LongDoubleHashMap( expectedSize, true );
+    }
+
+    public static <V> PrimitiveLongObjectMap<V> longObjectMap()
+    {
+        return longObjectMap( DEFAULT_SIZE );
+    }
+
+    public static <V> PrimitiveLongObjectMap<V> longObjectMap( int expectedSize )
+    {
+        return new LongObjectHashMap<V>( expectedSize );
+    }
+}
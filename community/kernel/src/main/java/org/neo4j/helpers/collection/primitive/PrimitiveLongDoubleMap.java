@@ -0,0 +1,65 @@
+/**
+ * Copyright (c) 2002-2013 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.helpers.collection.primitive;
+
+import org.neo4j.kernel.impl.api.PrimitiveLongIterator;
+
+/**
+ * A map from primitive longs to doubles, for per node scores and similar without boxing keys and values. Instances
+ * are created with {@link Primitive}, and are not thread safe.
+ */
+public interface PrimitiveLongDoubleMap
+{
+    /**
+     * @return the value previously mapped to the key, or {@code defaultValue} if there was none.
+     */
+    double put( long key, double value, double defaultValue );
+
+    /**
+     * @return the value mapped to the key, or {@code defaultValue} if there is none.
+     */
+    double get( long key, double defaultValue );
+
+    /**
+     * Adds {@code delta} to the value mapped to the key, which is 0 if there is none.
+     *
+     * @return the new value.
+     */
+    double add( long key, double delta );
+
+    boolean containsKey( long key );
+
+    /**
+     * @return {@code true} if the key was in the map.
+     */
+    boolean remove( long key );
+
+    long size();
+
+    boolean isEmpty();
+
+    void clear();
+
+    /**
+     * @return the keys of this map, in no particular order. Values may be changed while iterating, but no keys
+     * may be added or removed.
+     */
+    PrimitiveLongIterator keyIterator();
+}
@@ -0,0 +1,59 @@
+/**
+ * Copyright (c) 2002-2013 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.helpers.collection.primitive;
+
+import org.neo4j.kernel.impl.api.PrimitiveLongIterator;
+
+/**
+ * A map from primitive longs to objects, to use instead of a {@code Map<Long,V>}, or instead of a map keyed by
+ * nodes or relationships where their ids would do. Instances are created with {@link Primitive}, and are not
+ * thread safe.
+ */
+public interface PrimitiveLongObjectMap<V>
+{
+    /**
+     * @return the value previously mapped to the key, or {@code null} if there was none.
+     */
+    V put( long key, V value );
+
+    /**
+     * @return the value mapped to the key, or {@code null} if there is none.
+     */
+    V get( long key );
+
+    boolean containsKey( long key );
+
+    /**
+     * @return the value that was mapped to the key, or {@code null} if there was none.
+     */
+    V remove( long key );
+
+    long size();
+
+    boolean isEmpty();
+
+    void clear();
+
+    /**
+     * @return the keys of this map, in no particular order. Values may be changed while iterating, but no keys
+     * may be added or removed.
+     */
+    PrimitiveLongIterator keyIterator();
+}
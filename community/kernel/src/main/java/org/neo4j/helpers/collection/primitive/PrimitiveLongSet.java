@@ -0,0 +1,53 @@
+/**
+ * Copyright (c) 2002-2013 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.helpers.collection.primitive;
+
+import org.neo4j.kernel.impl.api.PrimitiveLongIterator;
+
+/**
+ * A set of primitive longs, to use instead of a {@code Set<Long>} where the boxing of the values would be too
+ * costly, for example for keeping track of visited node ids in a large traversal. Instances are created with
+ * {@link Primitive}, and are not thread safe.
+ */
+public interface PrimitiveLongSet
+{
+    /**
+     * @return {@code true} if the value wasn't in the set already.
+     */
+    boolean add( long value );
+
+    boolean contains( long value );
+
+    /**
+     * @return {@code true} if the value was in the set.
+     */
+    boolean remove( long value );
+
+    long size();
+
+    boolean isEmpty();
+
+    void clear();
+
+    /**
+     * @return the values of this set, in no particular order. The set must not be changed while iterating.
+     */
+    PrimitiveLongIterator iterator();
+}
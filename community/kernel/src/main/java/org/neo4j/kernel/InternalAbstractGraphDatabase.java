@@ -71,6 +71,7 @@ import org.neo4j.kernel.api.exceptions.schema.SchemaKernelException;
 import org.neo4j.kernel.api.exceptions.schema.SchemaRuleNotFoundException;
 import org.neo4j.kernel.api.index.InternalIndexState;
 import org.neo4j.kernel.api.labelscan.LabelScanStore;
+import org.neo4j.kernel.api.statistics.GraphStatistics;
 import org.neo4j.kernel.configuration.Config;
 import org.neo4j.kernel.configuration.ConfigurationChange;
 import org.neo4j.kernel.configuration.ConfigurationChangeListener;
@@ -92,6 +93,7 @@ import org.neo4j.kernel.impl.cache.BridgingCacheAccess;
 import org.neo4j.kernel.impl.cache.Cache;
 import org.neo4j.kernel.impl.cache.CacheProvider;
 import org.neo4j.kernel.impl.cache.MonitorGc;
+import org.neo4j.kernel.impl.cache.QueryCacheStatistics;
 import org.neo4j.kernel.impl.cleanup.CleanupIfOutsideTransaction;
 import org.neo4j.kernel.impl.cleanup.CleanupService;
 import org.neo4j.kernel.impl.core.CacheAccessBackDoor;
@@ -122,8 +124,10 @@ import org.neo4j.kernel.impl.coreapi.schema.SchemaImpl;
 import org.neo4j.kernel.impl.index.IndexStore;
 import org.neo4j.kernel.impl.nioneo.store.DefaultWindowPoolFactory;
 import org.neo4j.kernel.impl.nioneo.store.FileSystemAbstraction;
+import org.neo4j.kernel.impl.nioneo.store.PageCacheWindowPoolFactory;
 import org.neo4j.kernel.impl.nioneo.store.StoreFactory;
 import org.neo4j.kernel.impl.nioneo.store.StoreId;
+import org.neo4j.kernel.impl.nioneo.store.windowpool.WindowPoolFactory;
 import org.neo4j.kernel.impl.nioneo.xa.NeoStoreProvider;
 import org.neo4j.kernel.impl.nioneo.xa.NeoStoreXaDataSource;
 import org.neo4j.kernel.impl.nioneo.xa.NioNeoDbPersistenceSource;
@@ -141,6 +145,7 @@ import org.neo4j.kernel.impl.transaction.TxManager;
 import org.neo4j.kernel.impl.transaction.XaDataSourceManager;
 import org.neo4j.kernel.impl.transaction.xaframework.DefaultLogBufferFactory;
 import org.neo4j.kernel.impl.transaction.xaframework.ForceMode;
+import org.neo4j.kernel.impl.transaction.xaframework.GroupCommitter;
 import org.neo4j.kernel.impl.transaction.xaframework.LogBufferFactory;
 import org.neo4j.kernel.impl.transaction.xaframework.LogPruneStrategies;
 import org.neo4j.kernel.impl.transaction.xaframework.RecoveryVerifier;
@@ -250,6 +255,7 @@ public abstract class InternalAbstractGraphDatabase
     protected JobScheduler jobScheduler;
     protected UpdateableSchemaState updateableSchemaState;
     protected CleanupService cleanupService;
+    protected final QueryCacheStatistics queryCacheStatistics = new QueryCacheStatistics();
 
     protected final LifeSupport life = new LifeSupport();
     private final Map<String, CacheProvider> cacheProviders;
@@ -471,8 +477,12 @@ public abstract class InternalAbstractGraphDatabase
             String serviceName = config.get( GraphDatabaseSettings.tx_manager_impl );
             if ( GraphDatabaseSettings.tx_manager_impl.getDefaultValue().equals( serviceName ) )
             {
+                GroupCommitter txLogGroupCommitter = config.get( GraphDatabaseSettings.logical_log_group_commit ) ?
+                        new GroupCommitter( config.get( GraphDatabaseSettings.logical_log_group_commit_max_batch_size ),
+                                config.get( GraphDatabaseSettings.logical_log_group_commit_max_latency ) ) : null;
                 txManager = new TxManager( this.storeDir, xaDataSourceManager, kernelPanicEventGenerator,
-                        logging.getMessagesLog( TxManager.class ), fileSystem, stateFactory );
+                        logging.getMessagesLog( TxManager.class ), fileSystem, stateFactory,
+                        new TxManager.Monitor.Adapter(), txLogGroupCommitter );
             }
             else
             {
@@ -766,10 +776,19 @@ public abstract class InternalAbstractGraphDatabase
 
     protected StoreFactory createStoreFactory()
     {
-        return new StoreFactory( config, idGeneratorFactory, new DefaultWindowPoolFactory(), fileSystem,
+        return new StoreFactory( config, idGeneratorFactory, createWindowPoolFactory(), fileSystem,
                 logging.getMessagesLog( StoreFactory.class ), txHook );
     }
 
+    protected WindowPoolFactory createWindowPoolFactory()
+    {
+        if ( config.get( GraphDatabaseSettings.use_shared_page_cache ) )
+        {
+            return life.add( new PageCacheWindowPoolFactory( config, jobScheduler ) );
+        }
+        return new DefaultWindowPoolFactory();
+    }
+
     protected RecoveryVerifier createRecoveryVerifier()
     {
         return RecoveryVerifier.ALWAYS_VALID;
@@ -1414,6 +1433,15 @@ public abstract class InternalAbstractGraphDatabase
             {
                 return type.cast( neoDataSource.getLabelScanStore() );
             }
+            else if ( QueryCacheStatistics.class.equals( type ) )
+            {
+                return type.cast( queryCacheStatistics );
+            }
+            else if ( GraphStatistics.class.isAssignableFrom( type )
+                && type.isInstance( neoDataSource.getGraphStatistics() ) )
+            {
+                return type.cast( neoDataSource.getGraphStatistics() );
+            }
             else if ( NeoStoreProvider.class.isAssignableFrom( type ) )
             {
                 return type.cast( neoDataSource );
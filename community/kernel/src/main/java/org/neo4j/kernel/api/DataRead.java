@@ -21,6 +21,7 @@ package org.neo4j.kernel.api;
 
 import java.util.Iterator;
 
+import org.neo4j.graphdb.Direction;
 import org.neo4j.kernel.api.exceptions.EntityNotFoundException;
 import org.neo4j.kernel.api.exceptions.index.IndexNotFoundKernelException;
 import org.neo4j.kernel.api.exceptions.schema.IndexBrokenKernelException;
@@ -47,6 +48,43 @@ interface DataRead
     PrimitiveLongIterator nodesGetFromIndexLookup( IndexDescriptor index, Object value )
             throws IndexNotFoundKernelException;
 
+    /**
+     * Returns the nodes in the given index with a numeric value between the given bounds. A {@code null}
+     * bound leaves the range open in that direction. Nodes come in ascending order of their committed value,
+     * followed by any nodes that got a matching value in this transaction.
+     *
+     * @throws org.neo4j.kernel.api.exceptions.index.IndexNotFoundKernelException
+     *          if no such index found.
+     */
+    PrimitiveLongIterator nodesGetFromIndexRangeSeekByNumber( IndexDescriptor index,
+                                                              Number lower, boolean includeLower,
+                                                              Number upper, boolean includeUpper )
+            throws IndexNotFoundKernelException;
+
+    /**
+     * Returns the nodes in the given index with a string value between the given bounds. A {@code null}
+     * bound leaves the range open in that direction. Nodes come in ascending order of their committed value,
+     * followed by any nodes that got a matching value in this transaction.
+     *
+     * @throws org.neo4j.kernel.api.exceptions.index.IndexNotFoundKernelException
+     *          if no such index found.
+     */
+    PrimitiveLongIterator nodesGetFromIndexRangeSeekByString( IndexDescriptor index,
+                                                              String lower, boolean includeLower,
+                                                              String upper, boolean includeUpper )
+            throws IndexNotFoundKernelException;
+
+    /**
+     * Returns the nodes in the given index with a string value starting with the given prefix. Nodes come in
+     * ascending order of their committed value, followed by any nodes that got a matching value in this
+     * transaction.
+     *
+     * @throws org.neo4j.kernel.api.exceptions.index.IndexNotFoundKernelException
+     *          if no such index found.
+     */
+    PrimitiveLongIterator nodesGetFromIndexRangeSeekByPrefix( IndexDescriptor index, String prefix )
+            throws IndexNotFoundKernelException;
+
     /**
      * Returns node id of unique node found in the given unique index for value or
      * {@link StatementConstants#NO_SUCH_NODE} if the index does not contain a
@@ -74,6 +112,19 @@ interface DataRead
      */
     PrimitiveIntIterator nodeGetLabels( long nodeId ) throws EntityNotFoundException;
 
+    /**
+     * Returns the number of relationships in the given direction that the node with id {@code nodeId} has,
+     * without loading those relationships. Loops count as both outgoing and incoming, but only once
+     * for {@link Direction#BOTH}.
+     */
+    int nodeGetDegree( long nodeId, Direction direction ) throws EntityNotFoundException;
+
+    /**
+     * Returns the number of relationships of the given type and direction that the node with id
+     * {@code nodeId} has, see {@link #nodeGetDegree(long, Direction)}.
+     */
+    int nodeGetDegree( long nodeId, Direction direction, int relTypeId ) throws EntityNotFoundException;
+
     Property nodeGetProperty( long nodeId, int propertyKeyId ) throws EntityNotFoundException;
 
     Property relationshipGetProperty( long relationshipId, int propertyKeyId ) throws EntityNotFoundException;
@@ -332,13 +332,13 @@ public class KernelTransactionImplementation implements KernelTransaction, TxSta
                     if ( isConstraintIndex )
                     {
                         rule = IndexRule.constraintIndexRule( schemaStorage.newRuleId(), element.getLabelId(),
-                                element.getPropertyKeyId(), providerDescriptor,
+                                element.getPropertyKeyIds(), providerDescriptor,
                                 null );
                     }
                     else
                     {
                         rule = IndexRule.indexRule( schemaStorage.newRuleId(), element.getLabelId(),
-                                element.getPropertyKeyId(), providerDescriptor );
+                                element.getPropertyKeyIds(), providerDescriptor );
                     }
                     persistenceManager.createSchemaRule( rule );
                 }
@@ -349,7 +349,7 @@ public class KernelTransactionImplementation implements KernelTransaction, TxSta
                     try
                     {
                         IndexRule rule = schemaStorage
-                                .indexRule( element.getLabelId(), element.getPropertyKeyId() );
+                                .indexRule( element.getLabelId(), element.getPropertyKeyIds() );
                         persistenceManager.dropSchemaRule( rule );
                     }
                     catch ( SchemaRuleNotFoundException e )
@@ -369,7 +369,7 @@ public class KernelTransactionImplementation implements KernelTransaction, TxSta
                     IndexRule indexRule;
                     try
                     {
-                        indexRule = schemaStorage.indexRule( element.label(), element.propertyKeyId() );
+                        indexRule = schemaStorage.indexRule( element.label(), element.propertyKeyIds() );
                     }
                     catch ( SchemaRuleNotFoundException e )
                     {
@@ -378,7 +378,7 @@ public class KernelTransactionImplementation implements KernelTransaction, TxSta
                                 "Index is always created for the constraint before this point.");
                     }
                     persistenceManager.createSchemaRule( UniquenessConstraintRule.uniquenessConstraintRule(
-                            constraintId, element.label(), element.propertyKeyId(), indexRule.getId() ) );
+                            constraintId, element.label(), element.propertyKeyIds(), indexRule.getId() ) );
                     persistenceManager.setConstraintIndexOwner( indexRule, constraintId );
                 }
 
@@ -389,7 +389,7 @@ public class KernelTransactionImplementation implements KernelTransaction, TxSta
                     {
                         clearState.set( true );
                         UniquenessConstraintRule rule = schemaStorage
-                                .uniquenessConstraint( element.label(), element.propertyKeyId() );
+                                .uniquenessConstraint( element.label(), element.propertyKeyIds() );
                         persistenceManager.dropSchemaRule( rule );
                     }
                     catch ( SchemaRuleNotFoundException e )
@@ -400,7 +400,7 @@ public class KernelTransactionImplementation implements KernelTransaction, TxSta
                                         "have been validated earlier and the schema should have been locked." );
                     }
                     // Remove the index for the constraint as well
-                    visitRemovedIndex( new IndexDescriptor( element.label(), element.propertyKeyId() ), true );
+                    visitRemovedIndex( element.indexDescriptor(), true );
                 }
             } );
             if ( clearState.get() )
@@ -21,6 +21,7 @@ package org.neo4j.kernel.api;
 
 import java.util.Iterator;
 
+import org.neo4j.graphdb.Direction;
 import org.neo4j.helpers.Function;
 import org.neo4j.kernel.api.constraints.UniquenessConstraint;
 import org.neo4j.kernel.api.exceptions.EntityNotFoundException;
@@ -131,6 +132,36 @@ public class OperationsFacade implements ReadOperations, DataWriteOperations, Sc
         return dataRead().nodesGetFromIndexLookup( statement, index, value );
     }
 
+    @Override
+    public PrimitiveLongIterator nodesGetFromIndexRangeSeekByNumber( IndexDescriptor index,
+                                                                     Number lower, boolean includeLower,
+                                                                     Number upper, boolean includeUpper )
+            throws IndexNotFoundKernelException
+    {
+        statement.assertOpen();
+        return dataRead().nodesGetFromIndexRangeSeekByNumber( statement, index, lower, includeLower,
+                upper, includeUpper );
+    }
+
+    @Override
+    public PrimitiveLongIterator nodesGetFromIndexRangeSeekByString( IndexDescriptor index,
+                                                                     String lower, boolean includeLower,
+                                                                     String upper, boolean includeUpper )
+            throws IndexNotFoundKernelException
+    {
+        statement.assertOpen();
+        return dataRead().nodesGetFromIndexRangeSeekByString( statement, index, lower, includeLower,
+                upper, includeUpper );
+    }
+
+    @Override
+    public PrimitiveLongIterator nodesGetFromIndexRangeSeekByPrefix( IndexDescriptor index, String prefix )
+            throws IndexNotFoundKernelException
+    {
+        statement.assertOpen();
+        return dataRead().nodesGetFromIndexRangeSeekByPrefix( statement, index, prefix );
+    }
+
     @Override
     public long nodeGetUniqueFromIndexLookup( IndexDescriptor index, Object value )
             throws IndexNotFoundKernelException, IndexBrokenKernelException
@@ -153,6 +184,24 @@ public class OperationsFacade implements ReadOperations, DataWriteOperations, Sc
         return dataRead().nodeGetLabels( statement, nodeId );
     }
 
+    @Override
+    public int nodeGetDegree( long nodeId, Direction direction ) throws EntityNotFoundException
+    {
+        statement.assertOpen();
+        return dataRead().nodeGetDegree( statement, nodeId, direction );
+    }
+
+    @Override
+    public int nodeGetDegree( long nodeId, Direction direction, int relTypeId ) throws EntityNotFoundException
+    {
+        statement.assertOpen();
+        if ( relTypeId == StatementConstants.NO_SUCH_RELATIONSHIP_TYPE )
+        {
+            return 0;
+        }
+        return dataRead().nodeGetDegree( statement, nodeId, direction, relTypeId );
+    }
+
     @Override
     public Property nodeGetProperty( long nodeId, int propertyKeyId ) throws EntityNotFoundException
     {
@@ -508,6 +557,14 @@ public class OperationsFacade implements ReadOperations, DataWriteOperations, Sc
         return schemaWrite().indexCreate( statement, labelId, propertyKeyId );
     }
 
+    @Override
+    public IndexDescriptor indexCreate( int labelId, int[] propertyKeyIds )
+            throws AddIndexFailureException, AlreadyIndexedException, AlreadyConstrainedException
+    {
+        statement.assertOpen();
+        return schemaWrite().indexCreate( statement, labelId, propertyKeyIds );
+    }
+
     @Override
     public void indexDrop( IndexDescriptor descriptor ) throws DropIndexFailureException
     {
@@ -523,6 +580,14 @@ public class OperationsFacade implements ReadOperations, DataWriteOperations, Sc
         return schemaWrite().uniquenessConstraintCreate( statement, labelId, propertyKeyId );
     }
 
+    @Override
+    public UniquenessConstraint uniquenessConstraintCreate( int labelId, int[] propertyKeyIds )
+            throws CreateConstraintFailureException, AlreadyConstrainedException, AlreadyIndexedException
+    {
+        statement.assertOpen();
+        return schemaWrite().uniquenessConstraintCreate( statement, labelId, propertyKeyIds );
+    }
+
     @Override
     public void constraintDrop( UniquenessConstraint constraint ) throws DropConstraintFailureException
     {
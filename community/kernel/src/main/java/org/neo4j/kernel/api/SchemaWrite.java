@@ -37,12 +37,23 @@ interface SchemaWrite
     IndexDescriptor indexCreate( int labelId, int propertyKeyId )
             throws AddIndexFailureException, AlreadyIndexedException, AlreadyConstrainedException;
 
+    /**
+     * Creates a composite index, indexing the tuple of values for the given {@code propertyKeyIds}, in that order,
+     * for nodes with the given {@code labelId}.
+     */
+    IndexDescriptor indexCreate( int labelId, int[] propertyKeyIds )
+            throws AddIndexFailureException, AlreadyIndexedException, AlreadyConstrainedException;
+
     /** Drops a {@link IndexDescriptor} from the database */
     void indexDrop( IndexDescriptor descriptor ) throws DropIndexFailureException;
 
     UniquenessConstraint uniquenessConstraintCreate( int labelId, int propertyKeyId )
             throws CreateConstraintFailureException, AlreadyConstrainedException, AlreadyIndexedException;
 
+    /** Asserts that the tuple of values for the given {@code propertyKeyIds} is unique among nodes with the label. */
+    UniquenessConstraint uniquenessConstraintCreate( int labelId, int[] propertyKeyIds )
+            throws CreateConstraintFailureException, AlreadyConstrainedException, AlreadyIndexedException;
+
     void constraintDrop( UniquenessConstraint constraint ) throws DropConstraintFailureException;
 
     /**
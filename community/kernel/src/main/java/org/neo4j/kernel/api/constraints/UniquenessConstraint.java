@@ -19,19 +19,30 @@
  */
 package org.neo4j.kernel.api.constraints;
 
+import java.util.Arrays;
+
 import org.neo4j.kernel.api.operations.TokenNameLookup;
+import org.neo4j.kernel.impl.api.index.IndexDescriptor;
 
 // TODO: When we add other types of constraints, we will either want to create a hierarchy, or...
 // TODO: ...rename this to "Constraint" and add a "type" enum (or something like that).
 public class UniquenessConstraint
 {
     private final int labelId;
-    private final int propertyKeyId;
+    private final int[] propertyKeyIds;
 
     public UniquenessConstraint( int labelId, int propertyKeyId )
+    {
+        this( labelId, new int[]{propertyKeyId} );
+    }
+
+    /**
+     * A constraint on more than one property key asserts that the tuple of values for the keys is unique.
+     */
+    public UniquenessConstraint( int labelId, int[] propertyKeyIds )
     {
         this.labelId = labelId;
-        this.propertyKeyId = propertyKeyId;
+        this.propertyKeyIds = propertyKeyIds.clone();
     }
 
     @Override
@@ -44,7 +55,7 @@ public class UniquenessConstraint
         if ( obj != null && getClass() == obj.getClass() )
         {
             UniquenessConstraint that = (UniquenessConstraint) obj;
-            return this.equals( that.labelId, that.propertyKeyId );
+            return this.equals( that.labelId, that.propertyKeyIds );
         }
         return false;
     }
@@ -53,7 +64,7 @@ public class UniquenessConstraint
     public int hashCode()
     {
         int result = labelId;
-        result = 31 * result + propertyKeyId;
+        result = 31 * result + Arrays.hashCode( propertyKeyIds );
         return result;
     }
 
@@ -62,27 +73,83 @@ public class UniquenessConstraint
         return labelId;
     }
 
+    /**
+     * @return the property key of a single property constraint, or the first property key of a composite one.
+     */
     public int propertyKeyId()
     {
-        return propertyKeyId;
+        return propertyKeyIds[0];
+    }
+
+    public int[] propertyKeyIds()
+    {
+        return propertyKeyIds.clone();
+    }
+
+    public boolean isComposite()
+    {
+        return propertyKeyIds.length > 1;
+    }
+
+    public boolean containsPropertyKeyId( int propertyKeyId )
+    {
+        for ( int keyId : propertyKeyIds )
+        {
+            if ( keyId == propertyKeyId )
+            {
+                return true;
+            }
+        }
+        return false;
     }
 
     public boolean equals( int labelId, int propertyKeyId )
     {
-        return this.labelId == labelId && this.propertyKeyId == propertyKeyId;
+        return this.labelId == labelId && propertyKeyIds.length == 1 && propertyKeyIds[0] == propertyKeyId;
+    }
+
+    public boolean equals( int labelId, int[] propertyKeyIds )
+    {
+        return this.labelId == labelId && Arrays.equals( this.propertyKeyIds, propertyKeyIds );
+    }
+
+    public IndexDescriptor indexDescriptor()
+    {
+        return new IndexDescriptor( labelId, propertyKeyIds );
     }
 
     @Override
     public String toString()
     {
-        return String.format( "CONSTRAINT ON ( n:label[%s] ) ASSERT n.property[%s] IS UNIQUE", labelId, propertyKeyId );
+        if ( !isComposite() )
+        {
+            return String.format( "CONSTRAINT ON ( n:label[%s] ) ASSERT n.property[%s] IS UNIQUE",
+                    labelId, propertyKeyIds[0] );
+        }
+        StringBuilder properties = new StringBuilder();
+        for ( int i = 0; i < propertyKeyIds.length; i++ )
+        {
+            properties.append( i == 0 ? "" : ", " ).append( String.format( "n.property[%s]", propertyKeyIds[i] ) );
+        }
+        return String.format( "CONSTRAINT ON ( n:label[%s] ) ASSERT (%s) IS UNIQUE", labelId, properties );
     }
 
     public String userDescription( TokenNameLookup tokenNameLookup )
     {
         String labelName = tokenNameLookup.labelGetName( labelId );
         String boundIdentifier = labelName.toLowerCase();
-        return String.format( "CONSTRAINT ON ( %s:%s ) ASSERT %s.%s IS UNIQUE", boundIdentifier, labelName,
-                boundIdentifier, tokenNameLookup.propertyKeyGetName( propertyKeyId ) );
+        if ( !isComposite() )
+        {
+            return String.format( "CONSTRAINT ON ( %s:%s ) ASSERT %s.%s IS UNIQUE", boundIdentifier, labelName,
+                    boundIdentifier, tokenNameLookup.propertyKeyGetName( propertyKeyIds[0] ) );
+        }
+        StringBuilder properties = new StringBuilder();
+        for ( int i = 0; i < propertyKeyIds.length; i++ )
+        {
+            properties.append( i == 0 ? "" : ", " ).append( boundIdentifier ).append( '.' )
+                      .append( tokenNameLookup.propertyKeyGetName( propertyKeyIds[i] ) );
+        }
+        return String.format( "CONSTRAINT ON ( %s:%s ) ASSERT (%s) IS UNIQUE", boundIdentifier, labelName,
+                properties );
     }
 }
@@ -0,0 +1,109 @@
+/**
+ * Copyright (c) 2002-2013 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.api.index;
+
+import java.util.Arrays;
+
+/**
+ * The value a node has in a composite index, which is the tuple of its values for each of the property keys of
+ * that index, in the same order as the keys of the {@link org.neo4j.kernel.impl.api.index.IndexDescriptor}.
+ * A node is only indexed in a composite index if it has all of the properties.
+ */
+public final class CompositeIndexValue
+{
+    private final Object[] values;
+    private String comparisonKey;
+
+    public CompositeIndexValue( Object... values )
+    {
+        for ( Object value : values )
+        {
+            if ( value == null )
+            {
+                throw new IllegalArgumentException( "A composite index value can not contain null: " +
+                        Arrays.deepToString( values ) );
+            }
+        }
+        this.values = values.clone();
+    }
+
+    public int size()
+    {
+        return values.length;
+    }
+
+    public Object get( int index )
+    {
+        return values[index];
+    }
+
+    @Override
+    public boolean equals( Object obj )
+    {
+        if ( this == obj )
+        {
+            return true;
+        }
+        if ( obj != null && getClass() == obj.getClass() )
+        {
+            return comparisonKey().equals( ((CompositeIndexValue) obj).comparisonKey() );
+        }
+        return false;
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return comparisonKey().hashCode();
+    }
+
+    /*
+     * Values are compared the way single property index lookups compare them, where for example numbers of
+     * different types are equal if they have the same double value, and arrays are compared by their elements.
+     */
+    private String comparisonKey()
+    {
+        if ( comparisonKey == null )
+        {
+            StringBuilder builder = new StringBuilder();
+            for ( Object value : values )
+            {
+                if ( value.getClass().isArray() )
+                {
+                    builder.append( '[' ).append( ArrayEncoder.encode( value ) ).append( ']' );
+                }
+                else
+                {
+                    builder.append( ArrayEncoder.encode( new Object[]{value} ) );
+                }
+                builder.append( ';' );
+            }
+            comparisonKey = builder.toString();
+        }
+        return comparisonKey;
+    }
+
+    @Override
+    public String toString()
+    {
+        String elements = Arrays.deepToString( values );
+        return "(" + elements.substring( 1, elements.length() - 1 ) + ")";
+    }
+}
@@ -34,6 +34,25 @@ public interface IndexReader extends Closeable
 {
     PrimitiveLongIterator lookup( Object value );
 
+    /**
+     * Seeks all nodes with a numeric value between the given bounds, in ascending order of value.
+     * A {@code null} bound leaves the range open in that direction, so with two {@code null} bounds
+     * this is an ordered scan of all numeric values in the index.
+     */
+    PrimitiveLongIterator rangeSeekByNumber( Number lower, boolean includeLower, Number upper, boolean includeUpper );
+
+    /**
+     * Seeks all nodes with a string value between the given bounds, in ascending order of value.
+     * A {@code null} bound leaves the range open in that direction, so with two {@code null} bounds
+     * this is an ordered scan of all string values in the index.
+     */
+    PrimitiveLongIterator rangeSeekByString( String lower, boolean includeLower, String upper, boolean includeUpper );
+
+    /**
+     * Seeks all nodes with a string value starting with the given prefix, in ascending order of value.
+     */
+    PrimitiveLongIterator rangeSeekByPrefix( String prefix );
+
     @Override
     void close();
     
@@ -44,6 +63,26 @@ public interface IndexReader extends Closeable
         {
             return emptyPrimitiveLongIterator();
         }
+
+        @Override
+        public PrimitiveLongIterator rangeSeekByNumber( Number lower, boolean includeLower,
+                                                        Number upper, boolean includeUpper )
+        {
+            return emptyPrimitiveLongIterator();
+        }
+
+        @Override
+        public PrimitiveLongIterator rangeSeekByString( String lower, boolean includeLower,
+                                                        String upper, boolean includeUpper )
+        {
+            return emptyPrimitiveLongIterator();
+        }
+
+        @Override
+        public PrimitiveLongIterator rangeSeekByPrefix( String prefix )
+        {
+            return emptyPrimitiveLongIterator();
+        }
         
         @Override
         public void close()
@@ -21,12 +21,14 @@ package org.neo4j.kernel.api.operations;
 
 import java.util.Iterator;
 
+import org.neo4j.graphdb.Direction;
 import org.neo4j.kernel.api.KernelStatement;
 import org.neo4j.kernel.api.StatementConstants;
 import org.neo4j.kernel.api.constraints.UniquenessConstraint;
 import org.neo4j.kernel.api.exceptions.EntityNotFoundException;
 import org.neo4j.kernel.api.exceptions.index.IndexNotFoundKernelException;
 import org.neo4j.kernel.api.exceptions.schema.IndexBrokenKernelException;
+import org.neo4j.kernel.api.index.CompositeIndexValue;
 import org.neo4j.kernel.api.properties.DefinedProperty;
 import org.neo4j.kernel.api.properties.Property;
 import org.neo4j.kernel.impl.api.LockHolder;
@@ -62,6 +64,11 @@ public class ConstraintEnforcingEntityOperations implements EntityOperations
         while ( constraints.hasNext() )
         {
             UniquenessConstraint constraint = constraints.next();
+            if ( constraint.isComposite() )
+            {
+                validateNoExistingNodeWithLabelAndProperties( state, constraint, nodeId, null );
+                continue;
+            }
             int propertyKeyId = constraint.propertyKeyId();
             Property property = entityReadOperations.nodeGetProperty( state, nodeId, propertyKeyId );
             if ( property.isDefined() )
@@ -83,9 +90,19 @@ public class ConstraintEnforcingEntityOperations implements EntityOperations
             int propertyKeyId = property.propertyKeyId();
             Iterator<UniquenessConstraint> constraintIterator =
                     schemaReadOperations.constraintsGetForLabelAndPropertyKey( state, labelId, propertyKeyId );
-            if ( constraintIterator.hasNext() )
+            boolean validated = false;
+            while ( constraintIterator.hasNext() )
             {
-                validateNoExistingNodeWithLabelAndProperty( state, labelId, property, nodeId );
+                UniquenessConstraint constraint = constraintIterator.next();
+                if ( constraint.isComposite() )
+                {
+                    validateNoExistingNodeWithLabelAndProperties( state, constraint, nodeId, property );
+                }
+                else if ( !validated )
+                {
+                    validateNoExistingNodeWithLabelAndProperty( state, labelId, property, nodeId );
+                    validated = true;
+                }
             }
         }
         return entityWriteOperations.nodeSetProperty( state, nodeId, property );
@@ -119,6 +136,57 @@ public class ConstraintEnforcingEntityOperations implements EntityOperations
         }
     }
 
+    /**
+     * Validates a constraint spanning several properties. The node is only constrained once it has all of them,
+     * so nothing is checked while any one of them is missing.
+     *
+     * @param changedProperty the property about to be set on the node, or {@code null} if none.
+     */
+    private void validateNoExistingNodeWithLabelAndProperties( KernelStatement state, UniquenessConstraint constraint,
+                                                               long modifiedNode, DefinedProperty changedProperty )
+            throws EntityNotFoundException, ConstraintValidationKernelException
+    {
+        int[] propertyKeyIds = constraint.propertyKeyIds();
+        Object[] values = new Object[propertyKeyIds.length];
+        for ( int i = 0; i < propertyKeyIds.length; i++ )
+        {
+            if ( changedProperty != null && changedProperty.propertyKeyId() == propertyKeyIds[i] )
+            {
+                values[i] = changedProperty.value();
+                continue;
+            }
+            Property property = entityReadOperations.nodeGetProperty( state, modifiedNode, propertyKeyIds[i] );
+            if ( !property.isDefined() )
+            {
+                return;
+            }
+            values[i] = property.value( null );
+        }
+
+        try
+        {
+            CompositeIndexValue value = new CompositeIndexValue( values );
+            IndexDescriptor indexDescriptor = constraint.indexDescriptor();
+            assertIndexOnline( state, indexDescriptor );
+            state.locks().acquireIndexEntryWriteLock( constraint.label(), propertyKeyIds[0], value.toString() );
+            PrimitiveLongIterator existingNodes = entityReadOperations.nodesGetFromIndexLookup(
+                    state, indexDescriptor, value );
+            while ( existingNodes.hasNext() )
+            {
+                long existingNode = existingNodes.next();
+                if ( existingNode != modifiedNode )
+                {
+                    throw new UniqueConstraintViolationKernelException( constraint.label(), propertyKeyIds, value,
+                            existingNode );
+                }
+            }
+        }
+        catch ( IndexNotFoundKernelException | IndexBrokenKernelException e )
+        {
+            throw new UnableToValidateConstraintKernelException( e );
+        }
+    }
+
     private void assertIndexOnline( KernelStatement state, IndexDescriptor indexDescriptor )
             throws IndexNotFoundKernelException, IndexBrokenKernelException
     {
@@ -202,6 +270,37 @@ public class ConstraintEnforcingEntityOperations implements EntityOperations
         return entityReadOperations.nodesGetFromIndexLookup( state, index, value );
     }
 
+    @Override
+    public PrimitiveLongIterator nodesGetFromIndexRangeSeekByNumber( KernelStatement state, IndexDescriptor index,
+                                                                     Number lower, boolean includeLower,
+                                                                     Number upper, boolean includeUpper )
+            throws IndexNotFoundKernelException
+    {
+        state.locks().acquireSchemaReadLock();
+        return entityReadOperations.nodesGetFromIndexRangeSeekByNumber( state, index, lower, includeLower,
+                upper, includeUpper );
+    }
+
+    @Override
+    public PrimitiveLongIterator nodesGetFromIndexRangeSeekByString( KernelStatement state, IndexDescriptor index,
+                                                                     String lower, boolean includeLower,
+                                                                     String upper, boolean includeUpper )
+            throws IndexNotFoundKernelException
+    {
+        state.locks().acquireSchemaReadLock();
+        return entityReadOperations.nodesGetFromIndexRangeSeekByString( state, index, lower, includeLower,
+                upper, includeUpper );
+    }
+
+    @Override
+    public PrimitiveLongIterator nodesGetFromIndexRangeSeekByPrefix( KernelStatement state, IndexDescriptor index,
+                                                                     String prefix )
+            throws IndexNotFoundKernelException
+    {
+        state.locks().acquireSchemaReadLock();
+        return entityReadOperations.nodesGetFromIndexRangeSeekByPrefix( state, index, prefix );
+    }
+
     @Override
     public long nodeGetUniqueFromIndexLookup( KernelStatement state, IndexDescriptor index, Object value )
             throws IndexNotFoundKernelException, IndexBrokenKernelException
@@ -255,6 +354,20 @@ public class ConstraintEnforcingEntityOperations implements EntityOperations
         return entityReadOperations.nodeGetLabels( state, nodeId );
     }
 
+    @Override
+    public int nodeGetDegree( KernelStatement state, long nodeId, Direction direction )
+            throws EntityNotFoundException
+    {
+        return entityReadOperations.nodeGetDegree( state, nodeId, direction );
+    }
+
+    @Override
+    public int nodeGetDegree( KernelStatement state, long nodeId, Direction direction, int relTypeId )
+            throws EntityNotFoundException
+    {
+        return entityReadOperations.nodeGetDegree( state, nodeId, direction, relTypeId );
+    }
+
     @Override
     public Property nodeGetProperty( KernelStatement state, long nodeId, int propertyKeyId ) throws EntityNotFoundException
     {
@@ -21,6 +21,7 @@ package org.neo4j.kernel.api.operations;
 
 import java.util.Iterator;
 
+import org.neo4j.graphdb.Direction;
 import org.neo4j.kernel.api.KernelStatement;
 import org.neo4j.kernel.api.exceptions.EntityNotFoundException;
 import org.neo4j.kernel.api.exceptions.index.IndexNotFoundKernelException;
@@ -49,6 +50,35 @@ public interface EntityReadOperations
     PrimitiveLongIterator nodesGetFromIndexLookup( KernelStatement state, IndexDescriptor index, Object value )
             throws IndexNotFoundKernelException;
 
+    /**
+     * Returns the nodes with a numeric value between the given bounds, {@code null} meaning unbounded.
+     *
+     * @throws IndexNotFoundKernelException if no such index found.
+     */
+    PrimitiveLongIterator nodesGetFromIndexRangeSeekByNumber( KernelStatement state, IndexDescriptor index,
+                                                              Number lower, boolean includeLower,
+                                                              Number upper, boolean includeUpper )
+            throws IndexNotFoundKernelException;
+
+    /**
+     * Returns the nodes with a string value between the given bounds, {@code null} meaning unbounded.
+     *
+     * @throws IndexNotFoundKernelException if no such index found.
+     */
+    PrimitiveLongIterator nodesGetFromIndexRangeSeekByString( KernelStatement state, IndexDescriptor index,
+                                                              String lower, boolean includeLower,
+                                                              String upper, boolean includeUpper )
+            throws IndexNotFoundKernelException;
+
+    /**
+     * Returns the nodes with a string value starting with the given prefix.
+     *
+     * @throws IndexNotFoundKernelException if no such index found.
+     */
+    PrimitiveLongIterator nodesGetFromIndexRangeSeekByPrefix( KernelStatement state, IndexDescriptor index,
+                                                              String prefix )
+            throws IndexNotFoundKernelException;
+
     /**
      * Returns a matching node id if found, NO_SUCH_NODE otherwise.
      *
@@ -73,6 +103,18 @@ public interface EntityReadOperations
      */
     PrimitiveIntIterator nodeGetLabels( KernelStatement state, long nodeId ) throws EntityNotFoundException;
 
+    /**
+     * Returns the number of relationships in the given direction that the node with id {@code nodeId} has.
+     */
+    int nodeGetDegree( KernelStatement state, long nodeId, Direction direction ) throws EntityNotFoundException;
+
+    /**
+     * Returns the number of relationships of the given type and direction that the node with id
+     * {@code nodeId} has.
+     */
+    int nodeGetDegree( KernelStatement state, long nodeId, Direction direction, int relTypeId )
+            throws EntityNotFoundException;
+
     Property nodeGetProperty( KernelStatement state, long nodeId, int propertyKeyId ) throws EntityNotFoundException;
 
     Property relationshipGetProperty( KernelStatement state, long relationshipId, int propertyKeyId )
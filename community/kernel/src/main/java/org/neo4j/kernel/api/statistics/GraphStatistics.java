@@ -0,0 +1,99 @@
+/**
+ * Copyright (c) 2002-2013 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.api.statistics;
+
+/**
+ * Estimates of the shape of the graph, for query planners to compare the cost of different ways of answering
+ * the same question. All numbers are estimates and may lag behind the committed state of the graph. Before
+ * anything is known every estimate is {@link Double#NaN}, which callers should treat as "no opinion".
+ */
+public interface GraphStatistics
+{
+    /**
+     * @return the estimated number of nodes in the graph.
+     */
+    double nodeCount();
+
+    /**
+     * @return the estimated number of nodes with the given label.
+     */
+    double nodesWithLabel( int labelId );
+
+    /**
+     * @return the estimated number of relationships in the graph.
+     */
+    double relationshipCount();
+
+    /**
+     * @return the estimated number of relationships of the given type.
+     */
+    double relationshipsWithType( int relationshipTypeId );
+
+    /**
+     * @return the estimated number of distinct values of the given property among the nodes with the given label.
+     */
+    double distinctValues( int labelId, int propertyKeyId );
+
+    /**
+     * @return the estimated fraction, between 0 and 1, of the nodes with the given label that an equality
+     * predicate on the given property matches. This is what a lookup in an index on that label and property
+     * would return, relative to a scan of the label.
+     */
+    double selectivity( int labelId, int propertyKeyId );
+
+    GraphStatistics NONE = new GraphStatistics()
+    {
+        @Override
+        public double nodeCount()
+        {
+            return Double.NaN;
+        }
+
+        @Override
+        public double nodesWithLabel( int labelId )
+        {
+            return Double.NaN;
+        }
+
+        @Override
+        public double relationshipCount()
+        {
+            return Double.NaN;
+        }
+
+        @Override
+        public double relationshipsWithType( int relationshipTypeId )
+        {
+            return Double.NaN;
+        }
+
+        @Override
+        public double distinctValues( int labelId, int propertyKeyId )
+        {
+            return Double.NaN;
+        }
+
+        @Override
+        public double selectivity( int labelId, int propertyKeyId )
+        {
+            return Double.NaN;
+        }
+    };
+}
@@ -38,8 +38,10 @@
  */
 package org.neo4j.kernel.impl.api;
 
+import java.util.Arrays;
 import java.util.Iterator;
 
+import org.neo4j.graphdb.Direction;
 import org.neo4j.helpers.Function;
 import org.neo4j.helpers.Predicate;
 import org.neo4j.kernel.api.KernelStatement;
@@ -75,7 +77,7 @@ public class CachingStatementOperations implements
         {
             IndexRule rule = (IndexRule) from;
             // We know that we only have int range of property key ids.
-            return new IndexDescriptor( rule.getLabel(), rule.getPropertyKey() );
+            return new IndexDescriptor( rule.getLabel(), rule.getPropertyKeys() );
         }
     };
     private final CacheLoader<Iterator<DefinedProperty>> nodePropertyLoader = new CacheLoader<Iterator<DefinedProperty>>()
@@ -208,7 +210,7 @@ public class CachingStatementOperations implements
             if ( rule instanceof IndexRule )
             {
                 IndexRule indexRule = (IndexRule) rule;
-                if ( indexRule.getPropertyKey() == index.getPropertyKeyId() )
+                if ( Arrays.equals( indexRule.getPropertyKeys(), index.getPropertyKeyIds() ) )
                 {
                     return indexRule;
                 }
@@ -223,6 +225,20 @@ public class CachingStatementOperations implements
         return persistenceCache.nodeGetPropertyKeys( state, nodeId, nodePropertyLoader );
     }
 
+    @Override
+    public int nodeGetDegree( KernelStatement state, long nodeId, Direction direction )
+            throws EntityNotFoundException
+    {
+        return entityReadDelegate.nodeGetDegree( state, nodeId, direction );
+    }
+
+    @Override
+    public int nodeGetDegree( KernelStatement state, long nodeId, Direction direction, int relTypeId )
+            throws EntityNotFoundException
+    {
+        return entityReadDelegate.nodeGetDegree( state, nodeId, direction, relTypeId );
+    }
+
     @Override
     public Property nodeGetProperty( KernelStatement state, long nodeId, int propertyKeyId ) throws EntityNotFoundException
     {
@@ -316,6 +332,34 @@ public class CachingStatementOperations implements
         return entityReadDelegate.nodesGetFromIndexLookup( state, index, value );
     }
 
+    @Override
+    public PrimitiveLongIterator nodesGetFromIndexRangeSeekByNumber( KernelStatement state, IndexDescriptor index,
+                                                                     Number lower, boolean includeLower,
+                                                                     Number upper, boolean includeUpper )
+            throws IndexNotFoundKernelException
+    {
+        return entityReadDelegate.nodesGetFromIndexRangeSeekByNumber( state, index, lower, includeLower,
+                upper, includeUpper );
+    }
+
+    @Override
+    public PrimitiveLongIterator nodesGetFromIndexRangeSeekByString( KernelStatement state, IndexDescriptor index,
+                                                                     String lower, boolean includeLower,
+                                                                     String upper, boolean includeUpper )
+            throws IndexNotFoundKernelException
+    {
+        return entityReadDelegate.nodesGetFromIndexRangeSeekByString( state, index, lower, includeLower,
+                upper, includeUpper );
+    }
+
+    @Override
+    public PrimitiveLongIterator nodesGetFromIndexRangeSeekByPrefix( KernelStatement state, IndexDescriptor index,
+                                                                     String prefix )
+            throws IndexNotFoundKernelException
+    {
+        return entityReadDelegate.nodesGetFromIndexRangeSeekByPrefix( state, index, prefix );
+    }
+
     @Override
     public IndexDescriptor indexesGetForLabelAndPropertyKey( KernelStatement state, int labelId, int propertyKey )
             throws SchemaRuleNotFoundException
@@ -19,6 +19,7 @@
  */
 package org.neo4j.kernel.impl.api;
 
+import java.util.Arrays;
 import java.util.Iterator;
 
 import org.neo4j.kernel.api.KernelStatement;
@@ -87,10 +88,18 @@ public class DataIntegrityValidatingStatementOperations implements
     public IndexDescriptor indexCreate( KernelStatement state, int labelId, int propertyKey )
             throws AddIndexFailureException, AlreadyIndexedException, AlreadyConstrainedException
     {
-        checkIndexExistence( state, labelId, propertyKey );
+        checkIndexExistence( state, labelId, new int[]{propertyKey} );
         return schemaWriteDelegate.indexCreate( state, labelId, propertyKey );
     }
 
+    @Override
+    public IndexDescriptor indexCreate( KernelStatement state, int labelId, int[] propertyKeys )
+            throws AddIndexFailureException, AlreadyIndexedException, AlreadyConstrainedException
+    {
+        checkIndexExistence( state, labelId, propertyKeys );
+        return schemaWriteDelegate.indexCreate( state, labelId, propertyKeys );
+    }
+
     @Override
     public void indexDrop( KernelStatement state, IndexDescriptor descriptor ) throws DropIndexFailureException
     {
@@ -125,11 +134,29 @@ public class DataIntegrityValidatingStatementOperations implements
         }
 
         // It is not allowed to create uniqueness constraints on indexed label/property pairs
-        checkIndexExistence( state, labelId, propertyKey );
+        checkIndexExistence( state, labelId, new int[]{propertyKey} );
 
         return schemaWriteDelegate.uniquenessConstraintCreate( state, labelId, propertyKey );
     }
 
+    @Override
+    public UniquenessConstraint uniquenessConstraintCreate( KernelStatement state, int labelId, int[] propertyKeys )
+            throws AlreadyConstrainedException, CreateConstraintFailureException, AlreadyIndexedException
+    {
+        for ( UniquenessConstraint constraint : loop( schemaReadDelegate.constraintsGetForLabel( state, labelId ) ) )
+        {
+            if ( constraint.equals( labelId, propertyKeys ) )
+            {
+                throw new AlreadyConstrainedException( constraint );
+            }
+        }
+
+        // It is not allowed to create uniqueness constraints on indexed label/property tuples
+        checkIndexExistence( state, labelId, propertyKeys );
+
+        return schemaWriteDelegate.uniquenessConstraintCreate( state, labelId, propertyKeys );
+    }
+
     @Override
     public void constraintDrop( KernelStatement state, UniquenessConstraint constraint ) throws DropConstraintFailureException
     {
@@ -145,22 +172,22 @@ public class DataIntegrityValidatingStatementOperations implements
         schemaWriteDelegate.constraintDrop( state, constraint );
     }
 
-    private void checkIndexExistence( KernelStatement state, int labelId, int propertyKey )
+    private void checkIndexExistence( KernelStatement state, int labelId, int[] propertyKeys )
             throws AlreadyIndexedException, AlreadyConstrainedException
     {
         for ( IndexDescriptor descriptor : loop( schemaReadDelegate.indexesGetForLabel( state, labelId ) ) )
         {
-            if ( descriptor.getPropertyKeyId() == propertyKey )
+            if ( Arrays.equals( descriptor.getPropertyKeyIds(), propertyKeys ) )
             {
                 throw new AlreadyIndexedException( descriptor );
             }
         }
         for ( IndexDescriptor descriptor : loop( schemaReadDelegate.uniqueIndexesGetForLabel( state, labelId ) ) )
         {
-            if ( descriptor.getPropertyKeyId() == propertyKey )
+            if ( Arrays.equals( descriptor.getPropertyKeyIds(), propertyKeys ) )
             {
                 throw new AlreadyConstrainedException(
-                        new UniquenessConstraint( descriptor.getLabelId(), descriptor.getPropertyKeyId() ) );
+                        new UniquenessConstraint( descriptor.getLabelId(), descriptor.getPropertyKeyIds() ) );
             }
         }
     }
@@ -181,7 +208,7 @@ public class DataIntegrityValidatingStatementOperations implements
         while ( uniqueIndexes.hasNext() )
         {
             IndexDescriptor uniqueIndex = uniqueIndexes.next();
-            if ( uniqueIndex.getPropertyKeyId() == descriptor.getPropertyKeyId() )
+            if ( uniqueIndex.equals( descriptor ) )
             {
                 throw new IndexBelongsToConstraintException( descriptor );
             }
@@ -193,7 +220,7 @@ public class DataIntegrityValidatingStatementOperations implements
     {
         for ( IndexDescriptor existing : loop( indexes ) )
         {
-            if ( existing.getPropertyKeyId() == descriptor.getPropertyKeyId() )
+            if ( existing.equals( descriptor ) )
             {
                 return;
             }
@@ -206,7 +233,7 @@ public class DataIntegrityValidatingStatementOperations implements
     {
         for ( UniquenessConstraint existing : loop( constraints ) )
         {
-            if ( existing.equals( constraint.label(), constraint.propertyKeyId() ) )
+            if ( existing.equals( constraint ) )
             {
                 return;
             }
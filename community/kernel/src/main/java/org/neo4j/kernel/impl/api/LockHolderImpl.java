@@ -387,6 +387,30 @@ public class LockHolderImpl implements LockHolder
             throw unsupportedOperation();
         }
 
+        @Override
+        public int getDegree()
+        {
+            throw unsupportedOperation();
+        }
+
+        @Override
+        public int getDegree( RelationshipType type )
+        {
+            throw unsupportedOperation();
+        }
+
+        @Override
+        public int getDegree( Direction direction )
+        {
+            throw unsupportedOperation();
+        }
+
+        @Override
+        public int getDegree( RelationshipType type, Direction direction )
+        {
+            throw unsupportedOperation();
+        }
+
         @Override
         public Relationship getSingleRelationship( RelationshipType type, Direction dir )
         {
@@ -118,7 +118,7 @@ public class SchemaCache
             @Override
             public boolean accept( UniquenessConstraint item )
             {
-                return item.label() == label && item.propertyKeyId() == property;
+                return item.label() == label && item.containsPropertyKeyId( property );
             }
         }, constraints.iterator() );
     }
@@ -159,6 +159,6 @@ public class SchemaCache
 
     private UniquenessConstraint ruleToConstraint( UniquenessConstraintRule constraintRule )
     {
-        return new UniquenessConstraint( constraintRule.getLabel(), constraintRule.getPropertyKey() );
+        return new UniquenessConstraint( constraintRule.getLabel(), constraintRule.getPropertyKeys() );
     }
 }
@@ -19,6 +19,7 @@
  */
 package org.neo4j.kernel.impl.api;
 
+import java.util.Arrays;
 import java.util.Iterator;
 
 import org.neo4j.helpers.Function;
@@ -44,16 +45,30 @@ public class SchemaStorage
 
     public IndexRule constraintIndexRule( int labelId, int propertyKeyId ) throws SchemaRuleNotFoundException
     {
-        IndexRule rule = indexRule( labelId, propertyKeyId );
+        return constraintIndexRule( labelId, new int[]{propertyKeyId} );
+    }
+
+    public IndexRule constraintIndexRule( int labelId, int[] propertyKeyIds ) throws SchemaRuleNotFoundException
+    {
+        IndexRule rule = indexRule( labelId, propertyKeyIds );
         if ( rule.isConstraintIndex() )
         {
             return rule;
         }
-        throw new SchemaRuleNotFoundException( labelId, propertyKeyId, "is not a constraint index" );
+        throw new SchemaRuleNotFoundException( labelId, propertyKeyIds[0], "is not a constraint index" );
+    }
+
+    public IndexRule indexRule( int labelId, int propertyKeyId ) throws SchemaRuleNotFoundException
+    {
+        return indexRule( labelId, new int[]{propertyKeyId} );
     }
 
-    public IndexRule indexRule( int labelId, final int propertyKeyId ) throws SchemaRuleNotFoundException
+    /**
+     * @return the index rule on exactly the given property keys, in the given order.
+     */
+    public IndexRule indexRule( int labelId, final int[] propertyKeyIds ) throws SchemaRuleNotFoundException
     {
+        int propertyKeyId = propertyKeyIds[0];
         Iterator<IndexRule> rules = schemaRules(
                 IndexRule.class, labelId,
                 new Predicate<IndexRule>()
@@ -61,7 +76,7 @@ public class SchemaStorage
                     @Override
                     public boolean accept( IndexRule item )
                     {
-                        return item.getPropertyKey() == propertyKeyId;
+                        return Arrays.equals( item.getPropertyKeys(), propertyKeyIds );
                     }
                 } );
 
@@ -126,9 +141,16 @@ public class SchemaStorage
         return schemaStore.nextId();
     }
 
-    public UniquenessConstraintRule uniquenessConstraint( int labelId, final int propertyKeyId )
+    public UniquenessConstraintRule uniquenessConstraint( int labelId, int propertyKeyId )
+            throws SchemaRuleNotFoundException
+    {
+        return uniquenessConstraint( labelId, new int[]{propertyKeyId} );
+    }
+
+    public UniquenessConstraintRule uniquenessConstraint( int labelId, final int[] propertyKeyIds )
             throws SchemaRuleNotFoundException
     {
+        int propertyKeyId = propertyKeyIds[0];
         Iterator<UniquenessConstraintRule> rules = schemaRules(
                 UniquenessConstraintRule.class, labelId,
                 new Predicate<UniquenessConstraintRule>()
@@ -136,7 +158,7 @@ public class SchemaStorage
                     @Override
                     public boolean accept( UniquenessConstraintRule item )
                     {
-                        return item.containsPropertyKeyId( propertyKeyId );
+                        return Arrays.equals( item.getPropertyKeys(), propertyKeyIds );
                     }
                 } );
         if ( !rules.hasNext() )
@@ -19,11 +19,15 @@
  */
 package org.neo4j.kernel.impl.api;
 
+import java.util.HashSet;
 import java.util.Iterator;
+import java.util.Map;
 import java.util.Set;
 
+import org.neo4j.graphdb.Direction;
 import org.neo4j.helpers.Predicate;
 import org.neo4j.helpers.collection.IteratorUtil;
+import org.neo4j.kernel.api.EntityType;
 import org.neo4j.kernel.api.KernelStatement;
 import org.neo4j.kernel.api.Statement;
 import org.neo4j.kernel.api.constraints.UniquenessConstraint;
@@ -34,6 +38,7 @@ import org.neo4j.kernel.api.exceptions.schema.CreateConstraintFailureException;
 import org.neo4j.kernel.api.exceptions.schema.DropIndexFailureException;
 import org.neo4j.kernel.api.exceptions.schema.IndexBrokenKernelException;
 import org.neo4j.kernel.api.exceptions.schema.SchemaRuleNotFoundException;
+import org.neo4j.kernel.api.index.CompositeIndexValue;
 import org.neo4j.kernel.api.index.InternalIndexState;
 import org.neo4j.kernel.api.operations.AuxiliaryStoreOperations;
 import org.neo4j.kernel.api.operations.EntityReadOperations;
@@ -57,6 +62,9 @@ import static org.neo4j.helpers.collection.IteratorUtil.single;
 import static org.neo4j.helpers.collection.IteratorUtil.singleOrNull;
 import static org.neo4j.helpers.collection.IteratorUtil.toPrimitiveIntIterator;
 import static org.neo4j.kernel.api.StatementConstants.NO_SUCH_NODE;
+import static org.neo4j.kernel.impl.api.index.IndexValuePredicates.numberRange;
+import static org.neo4j.kernel.impl.api.index.IndexValuePredicates.stringPrefix;
+import static org.neo4j.kernel.impl.api.index.IndexValuePredicates.stringRange;
 
 public class StateHandlingStatementOperations implements
         EntityReadOperations,
@@ -187,7 +195,13 @@ public class StateHandlingStatementOperations implements
     @Override
     public IndexDescriptor indexCreate( KernelStatement state, int labelId, int propertyKey )
     {
-        IndexDescriptor rule = new IndexDescriptor( labelId, propertyKey );
+        return indexCreate( state, labelId, new int[]{propertyKey} );
+    }
+
+    @Override
+    public IndexDescriptor indexCreate( KernelStatement state, int labelId, int[] propertyKeys )
+    {
+        IndexDescriptor rule = new IndexDescriptor( labelId, propertyKeys );
         state.txState().indexRuleDoAdd( rule );
         return rule;
     }
@@ -208,21 +222,29 @@ public class StateHandlingStatementOperations implements
     public UniquenessConstraint uniquenessConstraintCreate( KernelStatement state, int labelId, int propertyKeyId )
             throws CreateConstraintFailureException
     {
-        UniquenessConstraint constraint = new UniquenessConstraint( labelId, propertyKeyId );
+        return uniquenessConstraintCreate( state, labelId, new int[]{propertyKeyId} );
+    }
+
+    @Override
+    public UniquenessConstraint uniquenessConstraintCreate( KernelStatement state, int labelId,
+                                                            int[] propertyKeyIds )
+            throws CreateConstraintFailureException
+    {
+        UniquenessConstraint constraint = new UniquenessConstraint( labelId, propertyKeyIds );
         try
         {
             if ( !state.txState().constraintDoUnRemove( constraint ) )
             {
                 for ( Iterator<UniquenessConstraint> it = schemaReadDelegate.constraintsGetForLabelAndPropertyKey(
-                        state, labelId, propertyKeyId ); it.hasNext(); )
+                        state, labelId, propertyKeyIds[0] ); it.hasNext(); )
                 {
-                    if ( it.next().equals( labelId, propertyKeyId ) )
+                    if ( it.next().equals( labelId, propertyKeyIds ) )
                     {
                         return constraint;
                     }
                 }
                 long indexId = constraintIndexCreator.createUniquenessConstraintIndex(
-                        state, this, labelId, propertyKeyId );
+                        state, this, labelId, propertyKeyIds );
                 state.txState().constraintDoAdd( constraint, indexId );
             }
             return constraint;
@@ -486,6 +508,55 @@ public class StateHandlingStatementOperations implements
         return entityReadDelegate.nodesGetFromIndexLookup( state, index, value );
     }
 
+    @Override
+    public PrimitiveLongIterator nodesGetFromIndexRangeSeekByNumber( KernelStatement state, IndexDescriptor index,
+                                                                     Number lower, boolean includeLower,
+                                                                     Number upper, boolean includeUpper )
+            throws IndexNotFoundKernelException
+    {
+        PrimitiveLongIterator committed = entityReadDelegate.nodesGetFromIndexRangeSeekByNumber( state, index,
+                lower, includeLower, upper, includeUpper );
+        return applyIndexSeekTxState( state, index, committed,
+                numberRange( lower, includeLower, upper, includeUpper ) );
+    }
+
+    @Override
+    public PrimitiveLongIterator nodesGetFromIndexRangeSeekByString( KernelStatement state, IndexDescriptor index,
+                                                                     String lower, boolean includeLower,
+                                                                     String upper, boolean includeUpper )
+            throws IndexNotFoundKernelException
+    {
+        PrimitiveLongIterator committed = entityReadDelegate.nodesGetFromIndexRangeSeekByString( state, index,
+                lower, includeLower, upper, includeUpper );
+        return applyIndexSeekTxState( state, index, committed,
+                stringRange( lower, includeLower, upper, includeUpper ) );
+    }
+
+    @Override
+    public PrimitiveLongIterator nodesGetFromIndexRangeSeekByPrefix( KernelStatement state, IndexDescriptor index,
+                                                                     String prefix )
+            throws IndexNotFoundKernelException
+    {
+        PrimitiveLongIterator committed = entityReadDelegate.nodesGetFromIndexRangeSeekByPrefix( state, index,
+                prefix );
+        return applyIndexSeekTxState( state, index, committed, stringPrefix( prefix ) );
+    }
+
+    private PrimitiveLongIterator applyIndexSeekTxState( KernelStatement state, IndexDescriptor index,
+                                                         PrimitiveLongIterator committed,
+                                                         Predicate<Object> valueMatcher )
+    {
+        if ( state.hasTxStateWithChanges() )
+        {
+            TxState txState = state.txState();
+            DiffSets<Long> diff = nodesWithLabelAndMatchingPropertyDiffSet( state, index, valueMatcher );
+            return
+                txState.nodesDeletedInTx().applyPrimitiveLongIterator( diff.applyPrimitiveLongIterator( committed ) );
+        }
+
+        return committed;
+    }
+
     @Override
     public Property nodeSetProperty( KernelStatement state, long nodeId, DefinedProperty property )
             throws EntityNotFoundException
@@ -585,6 +656,44 @@ public class StateHandlingStatementOperations implements
         return entityReadDelegate.nodeGetPropertyKeys( state, nodeId );
     }
 
+    @Override
+    public int nodeGetDegree( KernelStatement state, long nodeId, Direction direction )
+            throws EntityNotFoundException
+    {
+        if ( state.hasTxStateWithChanges() )
+        {
+            assertNodeNotDeletedInThisTx( state, nodeId );
+            int committed = state.txState().nodeIsAddedInThisTx( nodeId ) ? 0 :
+                    entityReadDelegate.nodeGetDegree( state, nodeId, direction );
+            return committed + state.txState().nodeDegreeDelta( nodeId, direction );
+        }
+
+        return entityReadDelegate.nodeGetDegree( state, nodeId, direction );
+    }
+
+    @Override
+    public int nodeGetDegree( KernelStatement state, long nodeId, Direction direction, int relTypeId )
+            throws EntityNotFoundException
+    {
+        if ( state.hasTxStateWithChanges() )
+        {
+            assertNodeNotDeletedInThisTx( state, nodeId );
+            int committed = state.txState().nodeIsAddedInThisTx( nodeId ) ? 0 :
+                    entityReadDelegate.nodeGetDegree( state, nodeId, direction, relTypeId );
+            return committed + state.txState().nodeDegreeDelta( nodeId, direction, relTypeId );
+        }
+
+        return entityReadDelegate.nodeGetDegree( state, nodeId, direction, relTypeId );
+    }
+
+    private void assertNodeNotDeletedInThisTx( KernelStatement state, long nodeId ) throws EntityNotFoundException
+    {
+        if ( state.txState().nodeIsDeletedInThisTx( nodeId ) )
+        {
+            throw new EntityNotFoundException( EntityType.NODE, nodeId );
+        }
+    }
+
     @Override
     public Property nodeGetProperty( KernelStatement state, long nodeId, int propertyKeyId )
             throws EntityNotFoundException
@@ -725,6 +834,11 @@ public class StateHandlingStatementOperations implements
 
     private DiffSets<Long> nodesWithLabelAndPropertyDiffSet( KernelStatement state, IndexDescriptor index, Object value )
     {
+        if ( index.isComposite() )
+        {
+            return nodesWithLabelAndCompositeValueDiffSet( state, index, value );
+        }
+
         TxState txState = state.txState();
         int labelId = index.getLabelId();
         int propertyKeyId = index.getPropertyKeyId();
@@ -747,6 +861,103 @@ public class StateHandlingStatementOperations implements
         return diff;
     }
 
+    private DiffSets<Long> nodesWithLabelAndCompositeValueDiffSet( KernelStatement state, IndexDescriptor index,
+                                                                   Object value )
+    {
+        TxState txState = state.txState();
+        int labelId = index.getLabelId();
+
+        // Any node that changed one of the indexed properties, or gained the label, may have moved in or out
+        Set<Long> candidates = new HashSet<>( txState.nodesWithLabelAdded( labelId ) );
+        for ( int propertyKeyId : index.getPropertyKeyIds() )
+        {
+            candidates.addAll( txState.nodesWithChangedProperty( propertyKeyId ).keySet() );
+        }
+
+        DiffSets<Long> diff = new DiffSets<>();
+        for ( Long nodeId : candidates )
+        {
+            if ( value.equals( compositeValue( state, nodeId, labelId, index.getPropertyKeyIds() ) ) )
+            {
+                diff.add( nodeId );
+            }
+            else
+            {
+                diff.remove( nodeId );
+            }
+        }
+
+        // Remove de-labeled nodes, whatever value they had before
+        diff.removeAll( txState.nodesWithLabelChanged( labelId ).getRemoved().iterator() );
+        return diff;
+    }
+
+    /**
+     * @return the tuple of values the given node has for the given property keys, or {@code null} if the node
+     * does not have the label or lacks any one of the properties.
+     */
+    private CompositeIndexValue compositeValue( KernelStatement state, long nodeId, int labelId, int[] propertyKeyIds )
+    {
+        try
+        {
+            if ( state.txState().nodeIsDeletedInThisTx( nodeId ) || !nodeHasLabel( state, nodeId, labelId ) )
+            {
+                return null;
+            }
+            Object[] values = new Object[propertyKeyIds.length];
+            for ( int i = 0; i < propertyKeyIds.length; i++ )
+            {
+                Property property = nodeGetProperty( state, nodeId, propertyKeyIds[i] );
+                if ( !property.isDefined() )
+                {
+                    return null;
+                }
+                values[i] = property.value( null );
+            }
+            return new CompositeIndexValue( values );
+        }
+        catch ( EntityNotFoundException e )
+        {
+            return null;
+        }
+    }
+
+    private DiffSets<Long> nodesWithLabelAndMatchingPropertyDiffSet( KernelStatement state, IndexDescriptor index,
+                                                                     Predicate<Object> valueMatcher )
+    {
+        TxState txState = state.txState();
+        int labelId = index.getLabelId();
+        int propertyKeyId = index.getPropertyKeyId();
+
+        // Start with nodes where the given property has changed, into or out of the range
+        DiffSets<Long> diff = new DiffSets<>();
+        for ( Map.Entry<Long, Object> changedNode : txState.nodesWithChangedProperty( propertyKeyId ).entrySet() )
+        {
+            if ( valueMatcher.accept( changedNode.getValue() ) )
+            {
+                diff.add( changedNode.getKey() );
+            }
+            else
+            {
+                diff.remove( changedNode.getKey() );
+            }
+        }
+
+        // Ensure remaining nodes have the correct label
+        HasLabelFilter hasLabel = new HasLabelFilter( state, labelId );
+        diff = diff.filter( hasLabel );
+
+        // Include newly labeled nodes that already had a matching property
+        HasMatchingPropertyFilter hasMatchingProperty = new HasMatchingPropertyFilter( state, propertyKeyId,
+                valueMatcher );
+        Iterator<Long> addedNodesWithLabel = txState.nodesWithLabelAdded( labelId ).iterator();
+        diff.addAll( filter( hasMatchingProperty, addedNodesWithLabel ) );
+
+        // Remove de-labeled nodes, whatever value they had before
+        diff.removeAll( txState.nodesWithLabelChanged( labelId ).getRemoved().iterator() );
+        return diff;
+    }
+
     private long nodeIfNotDeleted( long nodeId, TxState txState )
     {
         return txState.nodeIsDeletedInThisTx( nodeId ) ? NO_SUCH_NODE : nodeId;
@@ -784,6 +995,38 @@ public class StateHandlingStatementOperations implements
         }
     }
 
+    private class HasMatchingPropertyFilter implements Predicate<Long>
+    {
+        private final Predicate<Object> valueMatcher;
+        private final int propertyKeyId;
+        private final KernelStatement state;
+
+        public HasMatchingPropertyFilter( KernelStatement state, int propertyKeyId, Predicate<Object> valueMatcher )
+        {
+            this.state = state;
+            this.valueMatcher = valueMatcher;
+            this.propertyKeyId = propertyKeyId;
+        }
+
+        @Override
+        public boolean accept( Long nodeId )
+        {
+            try
+            {
+                if ( state.hasTxStateWithChanges() && state.txState().nodeIsDeletedInThisTx( nodeId ) )
+                {
+                    return false;
+                }
+                Property property = nodeGetProperty( state, nodeId, propertyKeyId );
+                return property.isDefined() && valueMatcher.accept( property.value( null ) );
+            }
+            catch ( EntityNotFoundException e )
+            {
+                return false;
+            }
+        }
+    }
+
     private class HasLabelFilter implements Predicate<Long>
     {
         private final int labelId;
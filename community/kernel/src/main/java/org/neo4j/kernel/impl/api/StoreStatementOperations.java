@@ -25,6 +25,7 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.NoSuchElementException;
 
+import org.neo4j.graphdb.Direction;
 import org.neo4j.graphdb.TransactionFailureException;
 import org.neo4j.helpers.Function;
 import org.neo4j.helpers.Predicate;
@@ -63,11 +64,16 @@ import org.neo4j.kernel.impl.core.TokenNotFoundException;
 import org.neo4j.kernel.impl.nioneo.store.IndexRule;
 import org.neo4j.kernel.impl.nioneo.store.InvalidRecordException;
 import org.neo4j.kernel.impl.nioneo.store.NeoStore;
+import org.neo4j.kernel.impl.nioneo.store.NodeRecord;
 import org.neo4j.kernel.impl.nioneo.store.NodeStore;
 import org.neo4j.kernel.impl.nioneo.store.PrimitiveRecord;
 import org.neo4j.kernel.impl.nioneo.store.PropertyBlock;
 import org.neo4j.kernel.impl.nioneo.store.PropertyRecord;
 import org.neo4j.kernel.impl.nioneo.store.PropertyStore;
+import org.neo4j.kernel.impl.nioneo.store.Record;
+import org.neo4j.kernel.impl.nioneo.store.RelationshipGroupRecord;
+import org.neo4j.kernel.impl.nioneo.store.RelationshipGroupStore;
+import org.neo4j.kernel.impl.nioneo.store.RelationshipRecord;
 import org.neo4j.kernel.impl.nioneo.store.RelationshipStore;
 import org.neo4j.kernel.impl.nioneo.store.SchemaRule;
 import org.neo4j.kernel.impl.nioneo.store.UnderlyingStorageException;
@@ -101,16 +107,16 @@ public class StoreStatementOperations implements
         AuxiliaryStoreOperations
 
 {
+    // Relationship type ids are never negative
+    private static final int ANY_RELATIONSHIP_TYPE = -1;
+
     private static final Function<UniquenessConstraintRule, UniquenessConstraint> UNIQUENESS_CONSTRAINT_TO_RULE =
             new Function<UniquenessConstraintRule, UniquenessConstraint>()
     {
         @Override
         public UniquenessConstraint apply( UniquenessConstraintRule rule )
         {
-            // We can use propertyKeyId straight up here, without reading from the record, since we have
-            // verified that it has that propertyKeyId in the predicate. And since we currently only support
-            // uniqueness on single properties, there is nothing else to pass in to UniquenessConstraint.
-            return new UniquenessConstraint( rule.getLabel(), rule.getPropertyKey() );
+            return new UniquenessConstraint( rule.getLabel(), rule.getPropertyKeys() );
         }
     };
 
@@ -120,6 +126,7 @@ public class StoreStatementOperations implements
     private final IndexingService indexService;
     private final NodeStore nodeStore;
     private final RelationshipStore relationshipStore;
+    private final RelationshipGroupStore relationshipGroupStore;
     private final PropertyStore propertyStore;
     private final RelationshipTypeTokenHolder relationshipTypeTokenHolder;
     private final SchemaStorage schemaStorage;
@@ -145,6 +152,7 @@ public class StoreStatementOperations implements
         this.neoStore = neoStore;
         this.nodeStore = neoStore.getNodeStore();
         this.relationshipStore = neoStore.getRelationshipStore();
+        this.relationshipGroupStore = neoStore.getRelationshipGroupStore();
         this.propertyStore = neoStore.getPropertyStore();
         this.persistenceManager = persistenceManager;
     }
@@ -313,7 +321,7 @@ public class StoreStatementOperations implements
 
     private static IndexDescriptor descriptor( IndexRule ruleRecord )
     {
-        return new IndexDescriptor( ruleRecord.getLabel(), ruleRecord.getPropertyKey() );
+        return new IndexDescriptor( ruleRecord.getLabel(), ruleRecord.getPropertyKeys() );
     }
 
     @Override
@@ -398,13 +406,13 @@ public class StoreStatementOperations implements
     public Long indexGetOwningUniquenessConstraintId( KernelStatement state, IndexDescriptor index )
             throws SchemaRuleNotFoundException
     {
-        return schemaStorage.indexRule( index.getLabelId(), index.getPropertyKeyId() ).getOwningConstraint();
+        return schemaStorage.indexRule( index.getLabelId(), index.getPropertyKeyIds() ).getOwningConstraint();
     }
 
     @Override
     public long indexGetCommittedId( KernelStatement state, IndexDescriptor index ) throws SchemaRuleNotFoundException
     {
-        return schemaStorage.indexRule( index.getLabelId(), index.getPropertyKeyId() ).getId();
+        return schemaStorage.indexRule( index.getLabelId(), index.getPropertyKeyIds() ).getId();
     }
 
     @Override
@@ -424,7 +432,7 @@ public class StoreStatementOperations implements
     {
         try
         {
-            return schemaStorage.indexRule( descriptor.getLabelId(), descriptor.getPropertyKeyId() ).getId();
+            return schemaStorage.indexRule( descriptor.getLabelId(), descriptor.getPropertyKeyIds() ).getId();
         }
         catch ( SchemaRuleNotFoundException e )
         {
@@ -436,7 +444,7 @@ public class StoreStatementOperations implements
     {
         try
         {
-            return schemaStorage.constraintIndexRule( descriptor.getLabelId(), descriptor.getPropertyKeyId() ).getId();
+            return schemaStorage.constraintIndexRule( descriptor.getLabelId(), descriptor.getPropertyKeyIds() ).getId();
         }
         catch ( SchemaRuleNotFoundException e )
         {
@@ -538,6 +546,93 @@ public class StoreStatementOperations implements
         }
     }
 
+    @Override
+    public int nodeGetDegree( KernelStatement state, long nodeId, Direction direction )
+            throws EntityNotFoundException
+    {
+        return nodeGetDegree( nodeId, direction, ANY_RELATIONSHIP_TYPE );
+    }
+
+    @Override
+    public int nodeGetDegree( KernelStatement state, long nodeId, Direction direction, int relTypeId )
+            throws EntityNotFoundException
+    {
+        return nodeGetDegree( nodeId, direction, relTypeId );
+    }
+
+    private int nodeGetDegree( long nodeId, Direction direction, int relTypeId ) throws EntityNotFoundException
+    {
+        try
+        {
+            NodeRecord node = nodeStore.getRecord( nodeId );
+            return node.isDense() ?
+                    denseNodeDegree( node, direction, relTypeId ) :
+                    sparseNodeDegree( node, direction, relTypeId );
+        }
+        catch ( InvalidRecordException e )
+        {
+            throw new EntityNotFoundException( EntityType.NODE, nodeId, e );
+        }
+    }
+
+    /**
+     * Relationship groups keep the number of relationships in each of their chains.
+     */
+    private int denseNodeDegree( NodeRecord node, Direction direction, int relTypeId )
+    {
+        int degree = 0;
+        long groupId = node.getNextRel();
+        while ( groupId != Record.NO_NEXT_RELATIONSHIP.intValue() )
+        {
+            RelationshipGroupRecord group = relationshipGroupStore.getRecord( groupId );
+            if ( relTypeId == ANY_RELATIONSHIP_TYPE || group.getType() == relTypeId )
+            {
+                degree += group.getLoopCount();
+                if ( direction != Direction.INCOMING )
+                {
+                    degree += group.getOutCount();
+                }
+                if ( direction != Direction.OUTGOING )
+                {
+                    degree += group.getInCount();
+                }
+            }
+            else if ( group.getType() > relTypeId )
+            {
+                // Groups are sorted by type
+                break;
+            }
+            groupId = group.getNext();
+        }
+        return degree;
+    }
+
+    /**
+     * A node which isn't dense has at most {@link NeoStore#getDenseNodeThreshold()} relationships,
+     * so counting them in its chain is cheap.
+     */
+    private int sparseNodeDegree( NodeRecord node, Direction direction, int relTypeId )
+    {
+        int degree = 0;
+        long relId = node.getNextRel();
+        while ( relId != Record.NO_NEXT_RELATIONSHIP.intValue() )
+        {
+            RelationshipRecord rel = relationshipStore.getRecord( relId );
+            boolean outgoing = rel.getFirstNode() == node.getId();
+            if ( relTypeId == ANY_RELATIONSHIP_TYPE || rel.getType() == relTypeId )
+            {
+                if ( direction == Direction.BOTH ||
+                        (direction == Direction.OUTGOING && outgoing) ||
+                        (direction == Direction.INCOMING && rel.getSecondNode() == node.getId()) )
+                {
+                    degree++;
+                }
+            }
+            relId = outgoing ? rel.getFirstNextRel() : rel.getSecondNextRel();
+        }
+        return degree;
+    }
+
     @Override
     public Iterator<DefinedProperty> graphGetAllProperties( KernelStatement state )
     {
@@ -580,6 +675,32 @@ public class StoreStatementOperations implements
         return state.getIndexReader( indexId( index ) ).lookup( value );
     }
 
+    @Override
+    public PrimitiveLongIterator nodesGetFromIndexRangeSeekByNumber( KernelStatement state, IndexDescriptor index,
+                                                                     Number lower, boolean includeLower,
+                                                                     Number upper, boolean includeUpper )
+            throws IndexNotFoundKernelException
+    {
+        return state.getIndexReader( indexId( index ) ).rangeSeekByNumber( lower, includeLower, upper, includeUpper );
+    }
+
+    @Override
+    public PrimitiveLongIterator nodesGetFromIndexRangeSeekByString( KernelStatement state, IndexDescriptor index,
+                                                                     String lower, boolean includeLower,
+                                                                     String upper, boolean includeUpper )
+            throws IndexNotFoundKernelException
+    {
+        return state.getIndexReader( indexId( index ) ).rangeSeekByString( lower, includeLower, upper, includeUpper );
+    }
+
+    @Override
+    public PrimitiveLongIterator nodesGetFromIndexRangeSeekByPrefix( KernelStatement state, IndexDescriptor index,
+                                                                     String prefix )
+            throws IndexNotFoundKernelException
+    {
+        return state.getIndexReader( indexId( index ) ).rangeSeekByPrefix( prefix );
+    }
+
     @Override
     public void nodeAddStoreProperty( long nodeId, DefinedProperty property )
     {
@@ -92,13 +92,18 @@ public class ConstraintVerificationFailedKernelException extends KernelException
     @Override
     public String getUserMessage( TokenNameLookup tokenNameLookup )
     {
+        StringBuilder propertyKeys = new StringBuilder();
+        for ( int propertyKeyId : constraint.propertyKeyIds() )
+        {
+            propertyKeys.append( propertyKeys.length() == 0 ? "" : ", " )
+                        .append( tokenNameLookup.propertyKeyGetName( propertyKeyId ) );
+        }
         StringBuilder message = new StringBuilder();
         for ( Evidence evidenceItem : evidence() )
         {
             IndexEntryConflictException conflict = evidenceItem.conflict;
             message.append( conflict.evidenceMessage(
-                    tokenNameLookup.labelGetName( constraint.label() ),
-                    tokenNameLookup.propertyKeyGetName( constraint.propertyKeyId() ) ) );
+                    tokenNameLookup.labelGetName( constraint.label() ), propertyKeys.toString() ) );
         }
         return message.toString();
     }
@@ -19,6 +19,8 @@
  */
 package org.neo4j.kernel.impl.api.constraints;
 
+import java.util.Arrays;
+
 import org.neo4j.kernel.api.operations.TokenNameLookup;
 
 import static java.lang.String.format;
@@ -26,15 +28,23 @@ import static java.lang.String.format;
 public class UniqueConstraintViolationKernelException extends ConstraintViolationKernelException
 {
     private final int labelId;
-    private final int propertyKeyId;
+    private final int[] propertyKeyIds;
     private final Object value;
     private final long existingNodeId;
 
     public UniqueConstraintViolationKernelException( int labelId, int propertyKeyId, Object value, long existingNodeId )
     {
-        super( "Node %d already exists with label %d and property %d=%s", existingNodeId, labelId, propertyKeyId, value );
+        this( labelId, new int[]{propertyKeyId}, value, existingNodeId );
+    }
+
+    public UniqueConstraintViolationKernelException( int labelId, int[] propertyKeyIds, Object value,
+                                                     long existingNodeId )
+    {
+        super( "Node %d already exists with label %d and property %s=%s", existingNodeId, labelId,
+                propertyKeyIds.length == 1 ? String.valueOf( propertyKeyIds[0] ) : Arrays.toString( propertyKeyIds ),
+                value );
         this.labelId = labelId;
-        this.propertyKeyId = propertyKeyId;
+        this.propertyKeyIds = propertyKeyIds;
         this.value = value;
         this.existingNodeId = existingNodeId;
     }
@@ -42,9 +52,20 @@ public class UniqueConstraintViolationKernelException extends ConstraintViolatio
     @Override
     public String getUserMessage( TokenNameLookup tokenNameLookup )
     {
-        return format( "Node %d already exists with label %s and property \"%s\"=[%s]", existingNodeId,
-                tokenNameLookup.labelGetName( labelId ),
-                tokenNameLookup.propertyKeyGetName( propertyKeyId ),
-                value );
+        if ( propertyKeyIds.length == 1 )
+        {
+            return format( "Node %d already exists with label %s and property \"%s\"=[%s]", existingNodeId,
+                    tokenNameLookup.labelGetName( labelId ),
+                    tokenNameLookup.propertyKeyGetName( propertyKeyIds[0] ),
+                    value );
+        }
+        StringBuilder properties = new StringBuilder();
+        for ( int propertyKeyId : propertyKeyIds )
+        {
+            properties.append( properties.length() == 0 ? "" : ", " )
+                      .append( '"' ).append( tokenNameLookup.propertyKeyGetName( propertyKeyId ) ).append( '"' );
+        }
+        return format( "Node %d already exists with label %s and properties (%s)=[%s]", existingNodeId,
+                tokenNameLookup.labelGetName( labelId ), properties, value );
     }
 }
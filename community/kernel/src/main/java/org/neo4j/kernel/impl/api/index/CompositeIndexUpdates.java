@@ -0,0 +1,251 @@
+/**
+ * Copyright (c) 2002-2013 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.api.index;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.neo4j.helpers.Pair;
+import org.neo4j.kernel.api.index.CompositeIndexValue;
+import org.neo4j.kernel.api.index.NodePropertyUpdate;
+
+import static org.neo4j.kernel.api.index.NodePropertyUpdate.add;
+import static org.neo4j.kernel.api.index.NodePropertyUpdate.change;
+import static org.neo4j.kernel.api.index.NodePropertyUpdate.propertyValuesEqual;
+import static org.neo4j.kernel.api.index.NodePropertyUpdate.remove;
+
+/**
+ * Turns the per-property updates of a transaction into updates for composite indexes, i.e. indexes on a tuple
+ * of properties. A node is in a composite index only while it has the label and every one of the properties,
+ * so the entry for it is derived from the state of the node after the transaction, combined with the
+ * before-values found in the property updates.
+ *
+ * Each produced update carries a {@link CompositeIndexValue} and is reported under the first property key of
+ * the index it is meant for.
+ */
+class CompositeIndexUpdates
+{
+    private final Collection<IndexDescriptor> descriptors;
+    private final IndexStoreView storeView;
+
+    CompositeIndexUpdates( Collection<IndexDescriptor> descriptors, IndexStoreView storeView )
+    {
+        this.descriptors = descriptors;
+        this.storeView = storeView;
+    }
+
+    List<Pair<IndexDescriptor, NodePropertyUpdate>> gather( Iterable<NodePropertyUpdate> updates )
+    {
+        List<Pair<IndexDescriptor, NodePropertyUpdate>> result = new ArrayList<>();
+        if ( descriptors.isEmpty() )
+        {
+            return result;
+        }
+
+        Map<Long, List<NodePropertyUpdate>> updatesByNode = new HashMap<>();
+        for ( NodePropertyUpdate update : updates )
+        {
+            List<NodePropertyUpdate> nodeUpdates = updatesByNode.get( update.getNodeId() );
+            if ( nodeUpdates == null )
+            {
+                updatesByNode.put( update.getNodeId(), nodeUpdates = new ArrayList<>() );
+            }
+            nodeUpdates.add( update );
+        }
+
+        for ( Map.Entry<Long, List<NodePropertyUpdate>> entry : updatesByNode.entrySet() )
+        {
+            long nodeId = entry.getKey();
+            List<NodePropertyUpdate> nodeUpdates = entry.getValue();
+            Map<Integer, Object> propertiesAfter = null;
+            long[] labelsAfter = null;
+            for ( IndexDescriptor descriptor : descriptors )
+            {
+                if ( !affects( nodeUpdates, descriptor ) )
+                {
+                    continue;
+                }
+                if ( propertiesAfter == null )
+                {
+                    propertiesAfter = new HashMap<>();
+                    for ( NodePropertyUpdate current : storeView.nodeAsUpdates( nodeId ) )
+                    {
+                        propertiesAfter.put( current.getPropertyKeyId(), current.getValueAfter() );
+                        labelsAfter = labelsAfter( current );
+                    }
+                }
+
+                CompositeIndexValue before = valueBefore( nodeUpdates, descriptor, propertiesAfter );
+                CompositeIndexValue after = labelsAfter != null && contains( labelsAfter, descriptor.getLabelId() )
+                        ? value( descriptor, propertiesAfter ) : null;
+                long[] labels = new long[]{descriptor.getLabelId()};
+                int propertyKeyId = descriptor.getPropertyKeyId();
+                if ( after != null && before == null )
+                {
+                    result.add( Pair.of( descriptor, add( nodeId, propertyKeyId, after, labels ) ) );
+                }
+                else if ( after != null )
+                {
+                    if ( !propertyValuesEqual( before, after ) )
+                    {
+                        result.add( Pair.of( descriptor, change( nodeId, propertyKeyId, before, labels,
+                                after, labels ) ) );
+                    }
+                }
+                else if ( before != null )
+                {
+                    result.add( Pair.of( descriptor, remove( nodeId, propertyKeyId, before, labels ) ) );
+                }
+            }
+        }
+        return result;
+    }
+
+    private static boolean affects( List<NodePropertyUpdate> nodeUpdates, IndexDescriptor descriptor )
+    {
+        for ( NodePropertyUpdate update : nodeUpdates )
+        {
+            if ( descriptor.hasPropertyKeyId( update.getPropertyKeyId() ) &&
+                 ( hasLabelBefore( update, descriptor.getLabelId() ) ||
+                   hasLabelAfter( update, descriptor.getLabelId() ) ) )
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * The node was indexed before only if it had the label then, which all updates changing or removing a property
+     * of a labeled node tell, and if none of the properties were added in this transaction.
+     */
+    private static CompositeIndexValue valueBefore( List<NodePropertyUpdate> nodeUpdates, IndexDescriptor descriptor,
+                                                    Map<Integer, Object> propertiesAfter )
+    {
+        int labelId = descriptor.getLabelId();
+        boolean hadLabel = false;
+        for ( NodePropertyUpdate update : nodeUpdates )
+        {
+            hadLabel |= hasLabelBefore( update, labelId );
+        }
+        if ( !hadLabel )
+        {
+            return null;
+        }
+
+        int[] propertyKeyIds = descriptor.getPropertyKeyIds();
+        Object[] values = new Object[propertyKeyIds.length];
+        for ( int i = 0; i < propertyKeyIds.length; i++ )
+        {
+            values[i] = propertiesAfter.get( propertyKeyIds[i] );
+            for ( NodePropertyUpdate update : nodeUpdates )
+            {
+                if ( update.getPropertyKeyId() != propertyKeyIds[i] )
+                {
+                    continue;
+                }
+                switch ( update.getUpdateMode() )
+                {
+                    case ADDED:
+                        if ( hasLabelAfter( update, labelId ) )
+                        {
+                            return null;
+                        }
+                        break;
+                    case CHANGED:
+                    case REMOVED:
+                        values[i] = update.getValueBefore();
+                        break;
+                    default:
+                        throw new UnsupportedOperationException();
+                }
+            }
+            if ( values[i] == null )
+            {
+                return null;
+            }
+        }
+        return new CompositeIndexValue( values );
+    }
+
+    private static CompositeIndexValue value( IndexDescriptor descriptor, Map<Integer, Object> properties )
+    {
+        int[] propertyKeyIds = descriptor.getPropertyKeyIds();
+        Object[] values = new Object[propertyKeyIds.length];
+        for ( int i = 0; i < propertyKeyIds.length; i++ )
+        {
+            values[i] = properties.get( propertyKeyIds[i] );
+            if ( values[i] == null )
+            {
+                return null;
+            }
+        }
+        return new CompositeIndexValue( values );
+    }
+
+    private static long[] labelsAfter( NodePropertyUpdate update )
+    {
+        long[] labels = new long[update.getNumberOfLabelsAfter()];
+        for ( int i = 0; i < labels.length; i++ )
+        {
+            labels[i] = update.getLabelAfter( i );
+        }
+        return labels;
+    }
+
+    private static boolean hasLabelBefore( NodePropertyUpdate update, int labelId )
+    {
+        for ( int i = 0, len = update.getNumberOfLabelsBefore(); i < len; i++ )
+        {
+            if ( update.getLabelBefore( i ) == labelId )
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean hasLabelAfter( NodePropertyUpdate update, int labelId )
+    {
+        for ( int i = 0, len = update.getNumberOfLabelsAfter(); i < len; i++ )
+        {
+            if ( update.getLabelAfter( i ) == labelId )
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean contains( long[] labels, int labelId )
+    {
+        for ( long label : labels )
+        {
+            if ( label == labelId )
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -20,11 +20,18 @@
 package org.neo4j.kernel.impl.api.index;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.Queue;
+import java.util.Set;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 
 import org.neo4j.helpers.collection.Visitor;
 import org.neo4j.kernel.api.exceptions.index.IndexPopulationFailedKernelException;
@@ -34,9 +41,11 @@ import org.neo4j.kernel.api.index.IndexUpdater;
 import org.neo4j.kernel.api.index.NodePropertyUpdate;
 import org.neo4j.kernel.api.index.SchemaIndexProvider;
 import org.neo4j.kernel.impl.api.UpdateableSchemaState;
+import org.neo4j.kernel.impl.util.JobScheduler;
 import org.neo4j.kernel.impl.util.StringLogger;
 import org.neo4j.kernel.logging.Logging;
 
+import static java.lang.Math.min;
 import static java.lang.String.format;
 import static java.lang.Thread.currentThread;
 
@@ -45,30 +54,35 @@ import static org.neo4j.helpers.ValueGetter.NO_VALUE;
 import static org.neo4j.kernel.impl.api.index.IndexPopulationFailure.failure;
 
 /**
- * Represents one job of initially populating an index over existing data in the database.
+ * Represents one job of initially populating one or more indexes over existing data in the database.
  * Scans the store directly.
+ * <p/>
+ * All single property indexes added to a job are populated from one shared scan over the node store, which is
+ * split into chunks of node ids that are processed by the given number of workers, taken from the
+ * {@link JobScheduler}. Each worker gathers up the values for an index and hands them to its {@link IndexPopulator}
+ * in batches. Composite indexes, as well as a job populating only a single index with a single worker, get a scan
+ * of their own.
  *
  * @author Mattias Persson
  */
 public class IndexPopulationJob implements Runnable
 {
-    private final IndexStoreView storeView;
-    private final String indexUserDescription;
-
-    // NOTE: unbounded queue expected here
-    private final Queue<NodePropertyUpdate> queue = new ConcurrentLinkedQueue<>();
+    static final int BATCH_SIZE = 1000;
+    static final long CHUNK_SIZE = 10000;
 
-    private final IndexDescriptor descriptor;
-    private final FailedIndexProxyFactory failureDelegate;
-    private final IndexPopulator populator;
-    private final FlippableIndexProxy flipper;
+    private final IndexStoreView storeView;
     private final UpdateableSchemaState updateableSchemaState;
+    private final JobScheduler scheduler;
+    private final int workers;
     private final StringLogger log;
     private final CountDownLatch doneSignal = new CountDownLatch( 1 );
 
-    private volatile StoreScan<IndexPopulationFailedKernelException> storeScan;
-    private volatile boolean cancelled;
-    private final SchemaIndexProvider.Descriptor providerDescriptor;
+    // Populations can only be added until the job has started
+    private final List<IndexPopulation> populations = new ArrayList<>();
+    private boolean started;
+
+    private final Set<StoreScan<?>> sharedScans =
+            Collections.newSetFromMap( new ConcurrentHashMap<StoreScan<?>, Boolean>() );
 
     public IndexPopulationJob(IndexDescriptor descriptor, SchemaIndexProvider.Descriptor providerDescriptor,
                               String indexUserDescription,
@@ -77,39 +91,468 @@ public class IndexPopulationJob implements Runnable
                               IndexStoreView storeView, UpdateableSchemaState updateableSchemaState,
                               Logging logging)
     {
-        this.descriptor = descriptor;
-        this.providerDescriptor = providerDescriptor;
-        this.populator = populator;
-        this.flipper = flipper;
+        this( storeView, updateableSchemaState, logging, null, 1 );
+        add( new IndexPopulation( descriptor, providerDescriptor, indexUserDescription, failureDelegateFactory,
+                populator, flipper ) );
+    }
+
+    /**
+     * @param scheduler used for starting the additional workers of the shared store scan, only required if
+     * {@code workers} is larger than one.
+     * @param workers the number of threads, including the thread running this job, that takes part in the shared
+     * store scan.
+     */
+    public IndexPopulationJob( IndexStoreView storeView, UpdateableSchemaState updateableSchemaState,
+                               Logging logging, JobScheduler scheduler, int workers )
+    {
+        if ( workers < 1 || (workers > 1 && scheduler == null) )
+        {
+            throw new IllegalArgumentException( "Cannot run " + workers + " workers with scheduler " + scheduler );
+        }
         this.storeView = storeView;
         this.updateableSchemaState = updateableSchemaState;
-        this.indexUserDescription = indexUserDescription;
-        this.failureDelegate = failureDelegateFactory;
         this.log = logging.getMessagesLog( getClass() );
+        this.scheduler = scheduler;
+        this.workers = workers;
+    }
+
+    /**
+     * Adds an index to be populated by this job, sharing the store scan with the other indexes of this job.
+     *
+     * @return {@code false} if this job has already started, in which case the index needs another job.
+     */
+    public synchronized boolean add( IndexPopulation population )
+    {
+        if ( started )
+        {
+            return false;
+        }
+        population.job = this;
+        populations.add( population );
+        return true;
+    }
+
+    private synchronized List<IndexPopulation> start()
+    {
+        started = true;
+        return populations();
+    }
+
+    private synchronized List<IndexPopulation> populations()
+    {
+        return new ArrayList<>( populations );
     }
 
     @Override
     public void run()
     {
+        List<IndexPopulation> populations = start();
         String oldThreadName = currentThread().getName();
-        currentThread().setName( format( "Index populator on %s [runs on: %s]", indexUserDescription, oldThreadName ) );
-        boolean success = false;
-        Throwable failureCause = null;
+        currentThread().setName( format( "Index populator on %s [runs on: %s]",
+                describe( populations ), oldThreadName ) );
         try
         {
+            List<IndexPopulation> created = new ArrayList<>();
+            for ( IndexPopulation population : populations )
+            {
+                if ( population.create() )
+                {
+                    created.add( population );
+                }
+            }
+
+            List<IndexPopulation> alone = new ArrayList<>();
+            List<IndexPopulation> shared = new ArrayList<>();
+            for ( IndexPopulation population : created )
+            {
+                boolean single = created.size() == 1 && workers == 1;
+                (single || population.descriptor.isComposite() ? alone : shared).add( population );
+            }
+
+            if ( !shared.isEmpty() )
+            {
+                populateTogether( shared );
+            }
+            for ( IndexPopulation population : alone )
+            {
+                populateAlone( population );
+            }
+        }
+        finally
+        {
+            doneSignal.countDown();
+            currentThread().setName( oldThreadName );
+        }
+    }
+
+    private void populateAlone( final IndexPopulation population )
+    {
+        try
+        {
+            StoreScan<IndexPopulationFailedKernelException> storeScan = storeView.visitNodesWithPropertyAndLabel(
+                    population.descriptor, new Visitor<NodePropertyUpdate, IndexPopulationFailedKernelException>()
+            {
+                @Override
+                public boolean visit( NodePropertyUpdate update ) throws IndexPopulationFailedKernelException
+                {
+                    population.add( update );
+                    return false;
+                }
+            });
+            population.storeScan = storeScan;
+            if ( !population.cancelled )
+            {
+                storeScan.run();
+            }
+            population.complete();
+        }
+        catch ( Throwable t )
+        {
+            population.fail( t );
+        }
+    }
+
+    private void populateTogether( final List<IndexPopulation> populations )
+    {
+        final int[] labelIds = new int[populations.size()];
+        final int[] propertyKeyIds = new int[populations.size()];
+        for ( int i = 0; i < labelIds.length; i++ )
+        {
+            labelIds[i] = populations.get( i ).descriptor.getLabelId();
+            propertyKeyIds[i] = populations.get( i ).descriptor.getPropertyKeyId();
+        }
+
+        final long highestNodeId = storeView.getHighestPossibleNodeIdInUse();
+        final AtomicLong nextChunk = new AtomicLong();
+        final AtomicReference<Throwable> scanFailure = new AtomicReference<>();
+        int workerCount = (int) min( workers, highestNodeId / CHUNK_SIZE + 1 );
+        final CountDownLatch workersDone = new CountDownLatch( workerCount );
+        Runnable worker = new Runnable()
+        {
+            @Override
+            public void run()
+            {
+                try
+                {
+                    PopulationWorker worker = new PopulationWorker( populations, propertyKeyIds, labelIds );
+                    long fromNodeId;
+                    while ( scanFailure.get() == null && !allCancelled( populations ) &&
+                            (fromNodeId = nextChunk.getAndAdd( CHUNK_SIZE )) <= highestNodeId )
+                    {
+                        worker.scan( fromNodeId, min( fromNodeId + CHUNK_SIZE - 1, highestNodeId ) );
+                    }
+                }
+                catch ( Throwable t )
+                {
+                    scanFailure.compareAndSet( null, t );
+                    stopSharedScans();
+                }
+                finally
+                {
+                    workersDone.countDown();
+                }
+            }
+        };
+
+        for ( int i = 1; i < workerCount; i++ )
+        {
+            scheduler.schedule( worker );
+        }
+        worker.run();
+
+        Throwable failure;
+        try
+        {
+            workersDone.await();
+            failure = scanFailure.get();
+        }
+        catch ( InterruptedException e )
+        {
+            failure = e;
+            scanFailure.compareAndSet( null, e );
+            stopSharedScans();
+        }
+
+        for ( IndexPopulation population : populations )
+        {
+            if ( failure == null )
+            {
+                population.complete();
+            }
+            else
+            {
+                population.fail( failure );
+            }
+        }
+    }
+
+    private static boolean allCancelled( List<IndexPopulation> populations )
+    {
+        for ( IndexPopulation population : populations )
+        {
+            if ( !population.cancelled )
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private synchronized void populationCancelled()
+    {
+        if ( allCancelled( populations ) )
+        {
+            stopSharedScans();
+        }
+    }
+
+    private void stopSharedScans()
+    {
+        for ( StoreScan<?> storeScan : sharedScans )
+        {
+            storeScan.stop();
+        }
+    }
+
+    public Future<Void> cancel()
+    {
+        for ( IndexPopulation population : populations() )
+        {
+            population.cancel();
+        }
+        return latchGuardedValue( NO_VALUE, doneSignal );
+    }
+
+    /**
+     * A transaction happened that produced the given update. Let every index of this job incorporate its data,
+     * feeding it to their {@link IndexPopulator}. Meant for jobs populating a single index, updates for any one of
+     * several indexes should go to its {@link IndexPopulation} instead.
+     */
+    public void update( NodePropertyUpdate update )
+    {
+        for ( IndexPopulation population : populations() )
+        {
+            population.update( update );
+        }
+    }
+
+    @Override
+    public String toString()
+    {
+        return getClass().getSimpleName() + "[populations:" + populations() + "]";
+    }
+
+    public void awaitCompletion() throws InterruptedException
+    {
+        doneSignal.await();
+    }
+
+    private static String describe( List<IndexPopulation> populations )
+    {
+        StringBuilder builder = new StringBuilder();
+        for ( IndexPopulation population : populations )
+        {
+            builder.append( builder.length() > 0 ? ", " : "" ).append( population.indexUserDescription );
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Scans chunks of the node store on behalf of all indexes of a shared scan, batching up the values of each
+     * index before handing them to its {@link IndexPopulation}.
+     */
+    private class PopulationWorker implements Visitor<NodePropertyUpdate, RuntimeException>
+    {
+        private final List<IndexPopulation> populations;
+        private final int[] propertyKeyIds;
+        private final int[] labelIds;
+        private final List<List<NodePropertyUpdate>> batches = new ArrayList<>();
+
+        PopulationWorker( List<IndexPopulation> populations, int[] propertyKeyIds, int[] labelIds )
+        {
+            this.populations = populations;
+            this.propertyKeyIds = propertyKeyIds;
+            this.labelIds = labelIds;
+            for ( int i = 0; i < populations.size(); i++ )
+            {
+                batches.add( new ArrayList<NodePropertyUpdate>( BATCH_SIZE ) );
+            }
+        }
+
+        void scan( long fromNodeId, long toNodeId )
+        {
+            StoreScan<RuntimeException> storeScan =
+                    storeView.visitNodesInRange( labelIds, propertyKeyIds, fromNodeId, toNodeId, this );
+            sharedScans.add( storeScan );
             try
             {
-                log.info( format("Index population started: [%s]", indexUserDescription) );
-                log.flush();
+                storeScan.run();
+            }
+            finally
+            {
+                sharedScans.remove( storeScan );
+            }
+
+            for ( int i = 0; i < batches.size(); i++ )
+            {
+                flush( i );
+                populations.get( i ).retireIfCancelled();
+            }
+        }
+
+        @Override
+        public boolean visit( NodePropertyUpdate update )
+        {
+            // Do a lookup from which property has changed to the indexes worried about that property.
+            int propertyKeyInQuestion = update.getPropertyKeyId();
+            for ( int i = 0; i < propertyKeyIds.length; i++ )
+            {
+                if ( propertyKeyIds[i] == propertyKeyInQuestion && update.forLabel( labelIds[i] ) )
+                {
+                    List<NodePropertyUpdate> batch = batches.get( i );
+                    batch.add( update );
+                    if ( batch.size() >= BATCH_SIZE )
+                    {
+                        flush( i );
+                    }
+                }
+            }
+            return false;
+        }
+
+        private void flush( int i )
+        {
+            List<NodePropertyUpdate> batch = batches.get( i );
+            if ( !batch.isEmpty() )
+            {
+                populations.get( i ).add( batch );
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * The population of one index, as part of an {@link IndexPopulationJob}. All calls to the {@link IndexPopulator}
+     * are made while holding the monitor of the population, since workers of a shared scan may feed it concurrently.
+     */
+    public static class IndexPopulation
+    {
+        private final IndexDescriptor descriptor;
+        private final SchemaIndexProvider.Descriptor providerDescriptor;
+        private final String indexUserDescription;
+        private final FailedIndexProxyFactory failureDelegate;
+        private final IndexPopulator populator;
+        private final FlippableIndexProxy flipper;
+
+        // NOTE: unbounded queue expected here
+        private final Queue<NodePropertyUpdate> queue = new ConcurrentLinkedQueue<>();
+        private final CountDownLatch doneSignal = new CountDownLatch( 1 );
+
+        private volatile IndexPopulationJob job;
+        private volatile StoreScan<?> storeScan;
+        private volatile boolean cancelled;
+        private boolean done;
+
+        public IndexPopulation( IndexDescriptor descriptor, SchemaIndexProvider.Descriptor providerDescriptor,
+                                String indexUserDescription, FailedIndexProxyFactory failureDelegateFactory,
+                                IndexPopulator populator, FlippableIndexProxy flipper )
+        {
+            this.descriptor = descriptor;
+            this.providerDescriptor = providerDescriptor;
+            this.indexUserDescription = indexUserDescription;
+            this.failureDelegate = failureDelegateFactory;
+            this.populator = populator;
+            this.flipper = flipper;
+        }
+
+        synchronized boolean create()
+        {
+            try
+            {
+                job.log.info( format("Index population started: [%s]", indexUserDescription) );
+                job.log.flush();
                 populator.create();
+                return true;
+            }
+            catch ( Throwable t )
+            {
+                fail( t );
+                return false;
+            }
+        }
+
+        /**
+         * Adds a value from a scan of its own, applying queued updates up to the scanned node right away.
+         */
+        synchronized void add( NodePropertyUpdate update ) throws IndexPopulationFailedKernelException
+        {
+            try
+            {
+                populator.add( update.getNodeId(), update.getValueAfter() );
+                populateFromQueueIfAvailable( update.getNodeId() );
+            }
+            catch ( Exception conflict )
+            {
+                throw new IndexPopulationFailedKernelException( descriptor, indexUserDescription, conflict );
+            }
+        }
 
-                indexAllNodes();
-                if ( cancelled )
+        /**
+         * Adds a batch of values from a shared scan. Chunks of a shared scan complete out of order, so queued
+         * updates are left until the flip, which is fine since populating updaters replace what was added.
+         */
+        synchronized void add( List<NodePropertyUpdate> updates )
+        {
+            if ( done || cancelled )
+            {
+                return;
+            }
+            try
+            {
+                for ( NodePropertyUpdate update : updates )
                 {
-                    // We remain in POPULATING state
-                    return;
+                    populator.add( update.getNodeId(), update.getValueAfter() );
                 }
+            }
+            catch ( Exception conflict )
+            {
+                fail( new IndexPopulationFailedKernelException( descriptor, indexUserDescription, conflict ) );
+            }
+        }
 
+        private void populateFromQueueIfAvailable( final long highestIndexedNodeId )
+                throws IndexEntryConflictException, IOException
+        {
+            if ( !queue.isEmpty() )
+            {
+                try ( IndexUpdater updater = populator.newPopulatingUpdater() )
+                {
+                    for ( NodePropertyUpdate update : queue )
+                    {
+                        if ( update.getNodeId() <= highestIndexedNodeId )
+                        {
+                            updater.process( update );
+                        }
+                    }
+                }
+            }
+        }
+
+        synchronized void complete()
+        {
+            if ( done )
+            {
+                return;
+            }
+            if ( cancelled )
+            {
+                // We remain in POPULATING state
+                retire();
+                return;
+            }
+
+            try
+            {
                 Callable<Void> duringFlip = new Callable<Void>()
                 {
                     @Override
@@ -117,17 +560,32 @@ public class IndexPopulationJob implements Runnable
                     {
                         populateFromQueueIfAvailable( Long.MAX_VALUE );
                         populator.close( true );
-                        updateableSchemaState.clear();
+                        job.updateableSchemaState.clear();
                         return null;
                     }
                 };
 
                 flipper.flip( duringFlip, failureDelegate );
-                success = true;
-                log.info( format("Index population completed. Index is now online: [%s]", indexUserDescription) );
-                log.flush();
+                done = true;
+                doneSignal.countDown();
+                job.log.info( format("Index population completed. Index is now online: [%s]",
+                        indexUserDescription) );
+                job.log.flush();
             }
             catch ( Throwable t )
+            {
+                fail( t );
+            }
+        }
+
+        synchronized void fail( Throwable t )
+        {
+            if ( done )
+            {
+                return;
+            }
+            done = true;
+            try
             {
                 // If the cause of index population failure is a conflict in a (unique) index, the conflict is the
                 // failure
@@ -143,13 +601,10 @@ public class IndexPopulationJob implements Runnable
                 // Index conflicts are expected (for unique indexes) so we don't need to log them.
                 if ( !(t instanceof IndexEntryConflictException) /*TODO: && this is a unique index...*/ )
                 {
-                    log.error( format("Failed to populate index: [%s]", indexUserDescription), t );
-                    log.flush();
+                    job.log.error( format("Failed to populate index: [%s]", indexUserDescription), t );
+                    job.log.flush();
                 }
 
-                // Set failure cause to be stored persistently
-                failureCause = t;
-
                 // The flipper will have already flipped to a failed index context here, but
                 // it will not include the cause of failure, so we do another flip to a failed
                 // context that does.
@@ -159,105 +614,92 @@ public class IndexPopulationJob implements Runnable
                 // in to the old context, if something failed in the job we send to the flipper.
                 flipper.flipTo( new FailedIndexProxy( descriptor, providerDescriptor, indexUserDescription,
                                                       populator, failure( t ) ) );
-            }
-            finally
-            {
+
+                // Set failure cause to be stored persistently
                 try
                 {
-                    if ( !success )
-                    {
-                        if ( failureCause != null )
-                        {
-                            populator.markAsFailed( failure( failureCause ).asString() );
-                        }
-
-                        populator.close( false );
-                    }
+                    populator.markAsFailed( failure( t ).asString() );
+                    populator.close( false );
                 }
                 catch ( Throwable e )
                 {
-                    log.error( format("Unable to close failed populator for index: [%s]", indexUserDescription), e );
-                    log.flush();
+                    logUnableToClose( e );
                 }
             }
+            finally
+            {
+                doneSignal.countDown();
+            }
         }
-        finally
-        {
-            doneSignal.countDown();
-            currentThread().setName( oldThreadName );
-        }
-    }
 
-    private void indexAllNodes() throws IndexPopulationFailedKernelException
-    {
-        storeScan = storeView.visitNodesWithPropertyAndLabel( descriptor, new Visitor<NodePropertyUpdate,
-                IndexPopulationFailedKernelException>()
+        synchronized void retireIfCancelled()
         {
-            @Override
-            public boolean visit( NodePropertyUpdate update ) throws IndexPopulationFailedKernelException
+            if ( cancelled && !done )
             {
-                try
-                {
-                    populator.add( update.getNodeId(), update.getValueAfter() );
-                    populateFromQueueIfAvailable( update.getNodeId() );
-                }
-                catch ( Exception conflict )
-                {
-                    throw new IndexPopulationFailedKernelException( descriptor, indexUserDescription, conflict );
-                }
-                return false;
+                retire();
             }
-        });
-        storeScan.run();
-    }
+        }
 
-    private void populateFromQueueIfAvailable( final long highestIndexedNodeId )
-            throws IndexEntryConflictException, IOException
-    {
-        if ( !queue.isEmpty() )
+        private void retire()
         {
-            try ( IndexUpdater updater = populator.newPopulatingUpdater() )
+            done = true;
+            try
             {
-                for ( NodePropertyUpdate update : queue )
-                {
-                    if ( update.getNodeId() <= highestIndexedNodeId )
-                    {
-                        updater.process( update );
-                    }
-                }
+                populator.close( false );
+            }
+            catch ( Throwable e )
+            {
+                logUnableToClose( e );
+            }
+            finally
+            {
+                doneSignal.countDown();
             }
         }
-    }
 
-    public Future<Void> cancel()
-    {
-        // Stop the population
-        if ( storeScan != null )
+        private void logUnableToClose( Throwable e )
         {
-            cancelled = true;
-            storeScan.stop();
+            job.log.error( format("Unable to close failed populator for index: [%s]", indexUserDescription), e );
+            job.log.flush();
         }
 
-        return latchGuardedValue( NO_VALUE, doneSignal );
-    }
+        /**
+         * Stops populating this index, leaving it in POPULATING state. Other indexes of the same job carry on.
+         */
+        public Future<Void> cancel()
+        {
+            cancelled = true;
+            StoreScan<?> ownScan = storeScan;
+            if ( ownScan != null )
+            {
+                ownScan.stop();
+            }
+            IndexPopulationJob owner = job;
+            if ( owner != null )
+            {
+                owner.populationCancelled();
+            }
+            return latchGuardedValue( NO_VALUE, doneSignal );
+        }
 
-    /**
-     * A transaction happened that produced the given updates. Let this job incorporate its data,
-     * feeding it to the {@link IndexPopulator}.
-     */
-    public void update( NodePropertyUpdate update )
-    {
-        queue.add( update );
-    }
+        /**
+         * A transaction happened that produced the given update. Let this population incorporate its data,
+         * feeding it to the {@link IndexPopulator}.
+         */
+        public void update( NodePropertyUpdate update )
+        {
+            queue.add( update );
+        }
 
-    @Override
-    public String toString()
-    {
-        return getClass().getSimpleName() + "[populator:" + populator + ", descriptor:" + descriptor + "]";
-    }
+        public void awaitCompletion() throws InterruptedException
+        {
+            doneSignal.await();
+        }
 
-    public void awaitCompletion() throws InterruptedException
-    {
-        doneSignal.await();
+        @Override
+        public String toString()
+        {
+            return getClass().getSimpleName() + "[populator:" + populator + ", descriptor:" + descriptor + "]";
+        }
     }
 }
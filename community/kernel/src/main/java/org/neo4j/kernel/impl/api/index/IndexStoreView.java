@@ -44,5 +44,19 @@ public interface IndexStoreView
             Visitor<NodePropertyUpdate, FAILURE> propertyUpdateVisitor,
             Visitor<NodeLabelUpdate, FAILURE> labelUpdateVisitor );
 
+    /**
+     * Retrieve the nodes with ids in the given, inclusive, range which has got one or more of the given labels AND
+     * one or more of the given property key ids. Used for splitting up a scan over all nodes.
+     *
+     * @return a {@link StoreScan} to start and to stop the scan.
+     */
+    <FAILURE extends Exception> StoreScan<FAILURE> visitNodesInRange( int[] labelIds, int[] propertyKeyIds,
+            long fromNodeId, long toNodeId, Visitor<NodePropertyUpdate, FAILURE> propertyUpdateVisitor );
+
+    /**
+     * @return the highest node id that may be in use, i.e. the end of a scan over all nodes.
+     */
+    long getHighestPossibleNodeIdInUse();
+
     Iterable<NodePropertyUpdate> nodeAsUpdates( long nodeId );
 }
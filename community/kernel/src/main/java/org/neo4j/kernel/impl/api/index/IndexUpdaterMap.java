@@ -115,6 +115,11 @@ public class IndexUpdaterMap implements AutoCloseable, Iterable<IndexUpdater>
         return updaterMap.size();
     }
 
+    public Iterator<IndexDescriptor> descriptors()
+    {
+        return indexMap.descriptors();
+    }
+
     @Override
     public Iterator<IndexUpdater> iterator()
     {
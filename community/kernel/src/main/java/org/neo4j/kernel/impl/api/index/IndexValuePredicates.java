@@ -0,0 +1,119 @@
+/**
+ * Copyright (c) 2002-2013 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.api.index;
+
+import org.neo4j.helpers.Predicate;
+
+/**
+ * Predicates over property values that match the same values as the range and prefix seeks of
+ * {@link org.neo4j.kernel.api.index.IndexReader}. Numbers are compared as doubles, since that is
+ * how indexes store them.
+ */
+public final class IndexValuePredicates
+{
+    private IndexValuePredicates()
+    {
+    }
+
+    public static Predicate<Object> numberRange( final Number lower, final boolean includeLower,
+                                                 final Number upper, final boolean includeUpper )
+    {
+        return new Predicate<Object>()
+        {
+            @Override
+            public boolean accept( Object value )
+            {
+                if ( !(value instanceof Number) )
+                {
+                    return false;
+                }
+                double number = ((Number) value).doubleValue();
+                if ( lower != null )
+                {
+                    int comparison = Double.compare( number, lower.doubleValue() );
+                    if ( comparison < 0 || (comparison == 0 && !includeLower) )
+                    {
+                        return false;
+                    }
+                }
+                if ( upper != null )
+                {
+                    int comparison = Double.compare( number, upper.doubleValue() );
+                    if ( comparison > 0 || (comparison == 0 && !includeUpper) )
+                    {
+                        return false;
+                    }
+                }
+                return true;
+            }
+        };
+    }
+
+    public static Predicate<Object> stringRange( final String lower, final boolean includeLower,
+                                                 final String upper, final boolean includeUpper )
+    {
+        return new Predicate<Object>()
+        {
+            @Override
+            public boolean accept( Object value )
+            {
+                if ( !isString( value ) )
+                {
+                    return false;
+                }
+                String string = value.toString();
+                if ( lower != null )
+                {
+                    int comparison = string.compareTo( lower );
+                    if ( comparison < 0 || (comparison == 0 && !includeLower) )
+                    {
+                        return false;
+                    }
+                }
+                if ( upper != null )
+                {
+                    int comparison = string.compareTo( upper );
+                    if ( comparison > 0 || (comparison == 0 && !includeUpper) )
+                    {
+                        return false;
+                    }
+                }
+                return true;
+            }
+        };
+    }
+
+    public static Predicate<Object> stringPrefix( final String prefix )
+    {
+        return new Predicate<Object>()
+        {
+            @Override
+            public boolean accept( Object value )
+            {
+                return isString( value ) && value.toString().startsWith( prefix );
+            }
+        };
+    }
+
+    private static boolean isString( Object value )
+    {
+        return value instanceof String || value instanceof Character;
+    }
+}
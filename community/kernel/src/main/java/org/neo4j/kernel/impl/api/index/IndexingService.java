@@ -26,6 +26,7 @@ import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.Future;
@@ -90,16 +91,32 @@ public class IndexingService extends LifecycleAdapter
     private final Logging logging;
     private final StringLogger logger;
     private final UpdateableSchemaState updateableSchemaState;
+    private final int populationWorkers;
     private final Set<Long> recoveredNodeIds = new HashSet<>();
 
+    // The latest population job, which new indexes join for as long as it hasn't started its store scan
+    private IndexPopulationJob populationJob;
+
     public IndexingService( JobScheduler scheduler,
                             SchemaIndexProviderMap providerMap,
                             IndexStoreView storeView,
                             TokenNameLookup tokenNameLookup,
                             UpdateableSchemaState updateableSchemaState,
                             Logging logging )
+    {
+        this( scheduler, providerMap, storeView, tokenNameLookup, updateableSchemaState, logging, 1 );
+    }
+
+    public IndexingService( JobScheduler scheduler,
+                            SchemaIndexProviderMap providerMap,
+                            IndexStoreView storeView,
+                            TokenNameLookup tokenNameLookup,
+                            UpdateableSchemaState updateableSchemaState,
+                            Logging logging,
+                            int populationWorkers )
     {
         this.scheduler = scheduler;
+        this.populationWorkers = populationWorkers;
         this.providerMap = providerMap;
         this.storeView = storeView;
         this.logging = logging;
@@ -201,7 +218,8 @@ public class IndexingService extends LifecycleAdapter
         // Drop placeholder proxies for indexes that need to be rebuilt
         dropRecoveringIndexes( indexMap, rebuildingDescriptors );
 
-        // Rebuild indexes by recreating and repopulating them
+        // Rebuild indexes by recreating and repopulating them, all of them in a single store scan
+        IndexPopulationJob rebuildJob = newPopulationJob();
         for ( Map.Entry<Long, Pair<IndexDescriptor, SchemaIndexProvider.Descriptor>> entry :
                 rebuildingDescriptors.entrySet() )
         {
@@ -209,10 +227,14 @@ public class IndexingService extends LifecycleAdapter
             Pair<IndexDescriptor, SchemaIndexProvider.Descriptor> descriptors = entry.getValue();
             IndexDescriptor indexDescriptor = descriptors.first();
             SchemaIndexProvider.Descriptor providerDescriptor = descriptors.other();
-            IndexProxy indexProxy =
-                createAndStartPopulatingIndexProxy( indexId, indexDescriptor, providerDescriptor, serviceRunning );
+            IndexProxy indexProxy = createAndStartPopulatingIndexProxy( indexId, indexDescriptor, providerDescriptor,
+                    serviceRunning, rebuildJob );
             indexMap.putIndexProxy( indexId, indexProxy );
         }
+        if ( !rebuildingDescriptors.isEmpty() )
+        {
+            scheduler.schedule( rebuildJob );
+        }
 
         serviceRunning = true;
         indexMapReference.setIndexMap( indexMap );
@@ -319,6 +341,7 @@ public class IndexingService extends LifecycleAdapter
 
     private void applyUpdates( Iterable<NodePropertyUpdate> updates, IndexUpdaterMap updaterMap )
     {
+        applyCompositeUpdates( updates, updaterMap );
         for ( NodePropertyUpdate update : updates )
         {
             int propertyKeyId = update.getPropertyKeyId();
@@ -370,6 +393,40 @@ public class IndexingService extends LifecycleAdapter
         }
     }
 
+    private void applyCompositeUpdates( Iterable<NodePropertyUpdate> updates, IndexUpdaterMap updaterMap )
+    {
+        List<IndexDescriptor> compositeDescriptors = new ArrayList<>();
+        for ( Iterator<IndexDescriptor> descriptors = updaterMap.descriptors(); descriptors.hasNext(); )
+        {
+            IndexDescriptor descriptor = descriptors.next();
+            if ( descriptor.isComposite() )
+            {
+                compositeDescriptors.add( descriptor );
+            }
+        }
+        if ( compositeDescriptors.isEmpty() )
+        {
+            return;
+        }
+
+        for ( Pair<IndexDescriptor, NodePropertyUpdate> update :
+                new CompositeIndexUpdates( compositeDescriptors, storeView ).gather( updates ) )
+        {
+            try
+            {
+                IndexUpdater updater = updaterMap.getUpdater( update.first() );
+                if ( null != updater )
+                {
+                    updater.process( update.other() );
+                }
+            }
+            catch ( IOException | IndexEntryConflictException e )
+            {
+                throw new UnderlyingStorageException( e );
+            }
+        }
+    }
+
     private void processUpdateIfIndexExists( IndexUpdaterMap updaterMap, NodePropertyUpdate update,
                                              int propertyKeyId, int labelId )
     {
@@ -407,10 +464,29 @@ public class IndexingService extends LifecycleAdapter
         }
     }
 
+    private IndexPopulationJob newPopulationJob()
+    {
+        return new IndexPopulationJob( storeView, updateableSchemaState, logging, scheduler, populationWorkers );
+    }
+
     private IndexProxy createAndStartPopulatingIndexProxy( final long ruleId,
                                                            final IndexDescriptor descriptor,
                                                            final SchemaIndexProvider.Descriptor providerDescriptor,
                                                            final boolean unique ) throws IOException
+    {
+        return createAndStartPopulatingIndexProxy( ruleId, descriptor, providerDescriptor, unique, null );
+    }
+
+    /**
+     * Has the index populated by the given job, which will be started by the caller, or if no job is given, by the
+     * latest population job if that hasn't started yet. Indexes created together, e.g. in the same transaction,
+     * will that way share a single store scan. Otherwise a new job is started for the index.
+     */
+    private IndexProxy createAndStartPopulatingIndexProxy( final long ruleId,
+                                                           final IndexDescriptor descriptor,
+                                                           final SchemaIndexProvider.Descriptor providerDescriptor,
+                                                           final boolean unique,
+                                                           IndexPopulationJob job ) throws IOException
     {
         final FlippableIndexProxy flipper = new FlippableIndexProxy();
 
@@ -422,10 +498,9 @@ public class IndexingService extends LifecycleAdapter
         FailedIndexProxyFactory failureDelegateFactory =
             new FailedPopulatingIndexProxyFactory( descriptor, providerDescriptor, populator, indexUserDescription );
 
-        PopulatingIndexProxy populatingIndex =
-            new PopulatingIndexProxy( scheduler, descriptor, providerDescriptor,
-                    failureDelegateFactory, populator, flipper, storeView,
-                indexUserDescription, updateableSchemaState, logging );
+        IndexPopulationJob.IndexPopulation population = new IndexPopulationJob.IndexPopulation(
+                descriptor, providerDescriptor, indexUserDescription, failureDelegateFactory, populator, flipper );
+        PopulatingIndexProxy populatingIndex = new PopulatingIndexProxy( descriptor, providerDescriptor, population );
         flipper.flipTo( populatingIndex );
 
         // Prepare for flipping to online mode
@@ -456,9 +531,27 @@ public class IndexingService extends LifecycleAdapter
 
         IndexProxy result = contractCheckedProxy( flipper, false );
         result.start();
+        if ( job != null )
+        {
+            job.add( population );
+        }
+        else
+        {
+            startPopulation( population );
+        }
         return result;
     }
 
+    private synchronized void startPopulation( IndexPopulationJob.IndexPopulation population )
+    {
+        if ( populationJob == null || !populationJob.add( population ) )
+        {
+            populationJob = newPopulationJob();
+            populationJob.add( population );
+            scheduler.schedule( populationJob );
+        }
+    }
+
     private IndexProxy createAndStartOnlineIndexProxy( long ruleId,
                                                        IndexDescriptor descriptor,
                                                        SchemaIndexProvider.Descriptor providerDescriptor,
@@ -525,7 +618,7 @@ public class IndexingService extends LifecycleAdapter
 
     private IndexDescriptor createDescriptor( IndexRule rule )
     {
-        return new IndexDescriptor( rule.getLabel(), rule.getPropertyKey() );
+        return new IndexDescriptor( rule.getLabel(), rule.getPropertyKeys() );
     }
 
     private void awaitIndexFuture( Future<Void> future ) throws Exception
@@ -21,6 +21,7 @@ package org.neo4j.kernel.impl.api.state;
 
 import java.util.Map;
 
+import org.neo4j.graphdb.Direction;
 import org.neo4j.kernel.api.properties.DefinedProperty;
 import org.neo4j.kernel.impl.api.DiffSets;
 
@@ -45,6 +46,17 @@ public interface OldTxStateBridge
 
     boolean relationshipIsAddedInThisTx( long relationshipId );
 
+    /**
+     * The number of relationships in the given direction that this transaction has created for the node,
+     * minus the number of such relationships it has deleted.
+     */
+    int getNodeDegreeDelta( long nodeId, Direction direction );
+
+    /**
+     * Like {@link #getNodeDegreeDelta(long, Direction)}, but only for relationships of the given type.
+     */
+    int getNodeDegreeDelta( long nodeId, Direction direction, int relTypeId );
+
     void nodeSetProperty( long nodeId, DefinedProperty property );
 
     void relationshipSetProperty( long relationshipId, DefinedProperty property );
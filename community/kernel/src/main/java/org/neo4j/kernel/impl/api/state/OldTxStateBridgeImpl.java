@@ -22,6 +22,7 @@ package org.neo4j.kernel.impl.api.state;
 import java.util.HashMap;
 import java.util.Map;
 
+import org.neo4j.graphdb.Direction;
 import org.neo4j.kernel.api.properties.DefinedProperty;
 import org.neo4j.kernel.impl.api.DiffSets;
 import org.neo4j.kernel.impl.core.GraphPropertiesImpl;
@@ -31,6 +32,7 @@ import org.neo4j.kernel.impl.core.RelationshipImpl;
 import org.neo4j.kernel.impl.core.TransactionState;
 import org.neo4j.kernel.impl.core.WritableTransactionState;
 import org.neo4j.kernel.impl.util.ArrayMap;
+import org.neo4j.kernel.impl.util.RelIdArray;
 
 public class OldTxStateBridgeImpl implements OldTxStateBridge
 {
@@ -171,6 +173,24 @@ public class OldTxStateBridgeImpl implements OldTxStateBridge
         return state.getCreatedRelationships().contains( relationshipId );
     }
 
+    @Override
+    public int getNodeDegreeDelta( long nodeId, Direction direction )
+    {
+        return getNodeDegreeDelta( nodeId, direction, null );
+    }
+
+    @Override
+    public int getNodeDegreeDelta( long nodeId, Direction direction, int relTypeId )
+    {
+        return getNodeDegreeDelta( nodeId, direction, new int[] { relTypeId } );
+    }
+
+    private int getNodeDegreeDelta( long nodeId, Direction direction, int[] types )
+    {
+        NodeImpl node = nodeManager.getNodeForProxy( nodeId, null );
+        return node.getDegreeDelta( nodeManager, state, RelIdArray.wrap( direction ), types );
+    }
+
     @Override
     public boolean hasChanges()
     {
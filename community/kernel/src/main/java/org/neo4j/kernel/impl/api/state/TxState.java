@@ -22,6 +22,7 @@ package org.neo4j.kernel.impl.api.state;
 import java.util.Map;
 import java.util.Set;
 
+import org.neo4j.graphdb.Direction;
 import org.neo4j.kernel.api.constraints.UniquenessConstraint;
 import org.neo4j.kernel.api.properties.DefinedProperty;
 import org.neo4j.kernel.api.properties.Property;
@@ -159,6 +160,10 @@ public interface TxState
 
     public abstract boolean relationshipIsDeletedInThisTx( long relationshipId );
 
+    public abstract int nodeDegreeDelta( long nodeId, Direction direction );
+
+    public abstract int nodeDegreeDelta( long nodeId, Direction direction, int relTypeId );
+
     public abstract UpdateTriState labelState( long nodeId, int labelId );
 
     public abstract void relationshipDoDelete( long relationshipId );
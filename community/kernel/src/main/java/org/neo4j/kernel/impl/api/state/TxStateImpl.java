@@ -24,6 +24,7 @@ import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
 
+import org.neo4j.graphdb.Direction;
 import org.neo4j.helpers.Function;
 import org.neo4j.helpers.Predicate;
 import org.neo4j.helpers.collection.Iterables;
@@ -244,6 +245,18 @@ public final class TxStateImpl implements TxState
         return legacyState.relationshipIsAddedInThisTx( relationshipId );
     }
 
+    @Override
+    public int nodeDegreeDelta( long nodeId, Direction direction )
+    {
+        return legacyState.getNodeDegreeDelta( nodeId, direction );
+    }
+
+    @Override
+    public int nodeDegreeDelta( long nodeId, Direction direction, int relTypeId )
+    {
+        return legacyState.getNodeDegreeDelta( nodeId, direction, relTypeId );
+    }
+
     @Override
     public void nodeDoDelete( long nodeId )
     {
@@ -623,7 +636,7 @@ public final class TxStateImpl implements TxState
             @Override
             public boolean accept( UniquenessConstraint item )
             {
-                return item.propertyKeyId() == propertyKey;
+                return item.containsPropertyKeyId( propertyKey );
             }
         } );
     }
@@ -659,7 +672,7 @@ public final class TxStateImpl implements TxState
             // I think this can wait until commit/rollback, but we need to be able to know that the index was created...
         }
 
-        constraintIndexDoDrop( new IndexDescriptor( constraint.label(), constraint.propertyKeyId() ));
+        constraintIndexDoDrop( constraint.indexDescriptor() );
         constraintsChangesForLabel( constraint.label() ).remove( constraint );
         hasChanges = true;
     }
@@ -670,7 +683,7 @@ public final class TxStateImpl implements TxState
         // hasChanges should already be set correctly when this is called
         if(constraintsChanges().unRemove( constraint ))
         {
-            constraintIndexChanges.unRemove( new IndexDescriptor( constraint.label(), constraint.propertyKeyId() ) );
+            constraintIndexChanges.unRemove( constraint.indexDescriptor() );
             return true;
         }
         return false;
@@ -689,7 +702,7 @@ public final class TxStateImpl implements TxState
                    @Override
                    public IndexDescriptor apply( UniquenessConstraint constraint )
                    {
-                       return new IndexDescriptor( constraint.label(), constraint.propertyKeyId() );
+                       return constraint.indexDescriptor();
                    }
                }, constraintMap.keySet() );
            }
@@ -0,0 +1,375 @@
+/**
+ * Copyright (c) 2002-2013 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.api.statistics;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.neo4j.kernel.api.index.ArrayEncoder;
+import org.neo4j.kernel.api.statistics.GraphStatistics;
+import org.neo4j.kernel.impl.nioneo.store.InvalidRecordException;
+import org.neo4j.kernel.impl.nioneo.store.NeoStore;
+import org.neo4j.kernel.impl.nioneo.store.NodeRecord;
+import org.neo4j.kernel.impl.nioneo.store.NodeStore;
+import org.neo4j.kernel.impl.nioneo.store.PropertyBlock;
+import org.neo4j.kernel.impl.nioneo.store.PropertyRecord;
+import org.neo4j.kernel.impl.nioneo.store.PropertyStore;
+import org.neo4j.kernel.impl.nioneo.store.Record;
+import org.neo4j.kernel.impl.nioneo.store.RelationshipRecord;
+import org.neo4j.kernel.impl.nioneo.store.RelationshipStore;
+import org.neo4j.kernel.impl.util.JobScheduler;
+import org.neo4j.kernel.impl.util.StringLogger;
+import org.neo4j.kernel.lifecycle.LifecycleAdapter;
+
+import static org.neo4j.kernel.impl.nioneo.store.labels.NodeLabelsField.parseLabelsField;
+
+/**
+ * {@link GraphStatistics} gathered by regularly reading a random sample of node and relationship records straight
+ * from the store. Stores that are smaller than the sample size are read in full, which makes the estimates exact
+ * as of the time of sampling. Every sampling replaces the previous estimates as a whole.
+ * <p>
+ * For nodes with labels the property values are sampled too, to estimate the number of distinct values per label
+ * and property key. Sampled values are turned into an estimate for the whole population using the GEE estimator,
+ * which scales up the values only seen once in the sample but takes values seen repeatedly at face value.
+ */
+public class SampledGraphStatistics extends LifecycleAdapter implements GraphStatistics
+{
+    private final NeoStore neoStore;
+    private final JobScheduler scheduler;
+    private final int sampleSize;
+    private final long samplingIntervalMillis;
+    private final Random random;
+    private final StringLogger log;
+
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+    private SamplingJob samplingJob;
+
+    public SampledGraphStatistics( NeoStore neoStore, JobScheduler scheduler, int sampleSize,
+                                   long samplingIntervalMillis, StringLogger log )
+    {
+        this( neoStore, scheduler, sampleSize, samplingIntervalMillis, new Random(), log );
+    }
+
+    SampledGraphStatistics( NeoStore neoStore, JobScheduler scheduler, int sampleSize,
+                            long samplingIntervalMillis, Random random, StringLogger log )
+    {
+        this.neoStore = neoStore;
+        this.scheduler = scheduler;
+        this.sampleSize = sampleSize;
+        this.samplingIntervalMillis = samplingIntervalMillis;
+        this.random = random;
+        this.log = log;
+    }
+
+    /**
+     * Starts sampling in the background, unless there is no scheduler to run it on, in which case
+     * {@link #sample()} has to be called explicitly.
+     */
+    @Override
+    public synchronized void start()
+    {
+        if ( scheduler != null )
+        {
+            samplingJob = new SamplingJob();
+            scheduler.scheduleRecurring( samplingJob, samplingIntervalMillis, TimeUnit.MILLISECONDS );
+        }
+    }
+
+    /**
+     * Stops sampling in the background, after letting a sampling that is already under way finish.
+     */
+    @Override
+    public synchronized void stop()
+    {
+        if ( samplingJob != null )
+        {
+            samplingJob.stopped = true;
+            samplingJob = null;
+        }
+    }
+
+    /**
+     * Samples the store and replaces the current estimates with the outcome.
+     */
+    public synchronized void sample()
+    {
+        long startTime = System.currentTimeMillis();
+        Snapshot sampled = new Snapshot();
+        sampleNodes( sampled );
+        sampleRelationships( sampled );
+        snapshot = sampled;
+        log.debug( "Sampled graph statistics in " + (System.currentTimeMillis() - startTime) + "ms: " + sampled );
+    }
+
+    private void sampleNodes( Snapshot sampled )
+    {
+        NodeStore nodeStore = neoStore.getNodeStore();
+        PropertyStore propertyStore = neoStore.getPropertyStore();
+        long highId = nodeStore.getHighestPossibleIdInUse() + 1;
+        Sample sample = new Sample( highId );
+        Map<Long, ValueSample> values = new HashMap<>();
+        for ( long i = 0; i < sample.size; i++ )
+        {
+            try
+            {
+                NodeRecord node = nodeStore.forceGetRecord( sample.id( i ) );
+                if ( !node.inUse() )
+                {
+                    continue;
+                }
+                sample.inUse++;
+                long[] labels = parseLabelsField( node ).get( nodeStore );
+                for ( long label : labels )
+                {
+                    increment( sampled.nodesWithLabel, (int) label );
+                }
+                if ( labels.length > 0 && node.getNextProp() != Record.NO_NEXT_PROPERTY.intValue() )
+                {
+                    sampleProperties( propertyStore, node.getNextProp(), labels, values );
+                }
+            }
+            catch ( InvalidRecordException e )
+            {
+                // Changed while we were reading it, leave it out of the sample
+            }
+        }
+
+        double scale = sample.scale();
+        sampled.nodeCount = sample.inUse * scale;
+        for ( Map.Entry<Integer, Double> entry : sampled.nodesWithLabel.entrySet() )
+        {
+            entry.setValue( entry.getValue() * scale );
+        }
+        for ( Map.Entry<Long, ValueSample> entry : values.entrySet() )
+        {
+            int labelId = (int) (entry.getKey() >>> 32);
+            ValueSample valueSample = entry.getValue();
+            double distinct = valueSample.estimateDistinctValues( valueSample.count * scale );
+            sampled.distinctValues.put( entry.getKey(), distinct );
+            // the fraction of the nodes with this label that has this property, spread over its distinct values
+            double withProperty = valueSample.count / sampled.nodesWithLabel.get( labelId ) * scale;
+            sampled.selectivity.put( entry.getKey(), Math.min( 1d, withProperty / Math.max( 1d, distinct ) ) );
+        }
+    }
+
+    private void sampleProperties( PropertyStore propertyStore, long firstPropertyId, long[] labels,
+                                   Map<Long, ValueSample> values )
+    {
+        for ( PropertyRecord propertyRecord : propertyStore.getPropertyRecordChain( firstPropertyId ) )
+        {
+            for ( PropertyBlock property : propertyRecord.getPropertyBlocks() )
+            {
+                Object value = property.getType().getValue( property, propertyStore );
+                if ( value.getClass().isArray() )
+                {
+                    value = ArrayEncoder.encode( value );
+                }
+                for ( long label : labels )
+                {
+                    long key = key( (int) label, property.getKeyIndexId() );
+                    ValueSample valueSample = values.get( key );
+                    if ( valueSample == null )
+                    {
+                        values.put( key, valueSample = new ValueSample() );
+                    }
+                    valueSample.add( value );
+                }
+            }
+        }
+    }
+
+    private void sampleRelationships( Snapshot sampled )
+    {
+        RelationshipStore relationshipStore = neoStore.getRelationshipStore();
+        Sample sample = new Sample( relationshipStore.getHighestPossibleIdInUse() + 1 );
+        for ( long i = 0; i < sample.size; i++ )
+        {
+            RelationshipRecord relationship = relationshipStore.forceGetRecord( sample.id( i ) );
+            if ( relationship.inUse() )
+            {
+                sample.inUse++;
+                increment( sampled.relationshipsWithType, relationship.getType() );
+            }
+        }
+
+        double scale = sample.scale();
+        sampled.relationshipCount = sample.inUse * scale;
+        for ( Map.Entry<Integer, Double> entry : sampled.relationshipsWithType.entrySet() )
+        {
+            entry.setValue( entry.getValue() * scale );
+        }
+    }
+
+    private static void increment( Map<Integer, Double> counts, int key )
+    {
+        Double count = counts.get( key );
+        counts.put( key, count == null ? 1d : count + 1d );
+    }
+
+    private static long key( int labelId, int propertyKeyId )
+    {
+        return ((long) labelId << 32) | (propertyKeyId & 0xFFFFFFFFL);
+    }
+
+    @Override
+    public double nodeCount()
+    {
+        return snapshot.nodeCount;
+    }
+
+    @Override
+    public double nodesWithLabel( int labelId )
+    {
+        return snapshot.get( snapshot.nodesWithLabel, labelId );
+    }
+
+    @Override
+    public double relationshipCount()
+    {
+        return snapshot.relationshipCount;
+    }
+
+    @Override
+    public double relationshipsWithType( int relationshipTypeId )
+    {
+        return snapshot.get( snapshot.relationshipsWithType, relationshipTypeId );
+    }
+
+    @Override
+    public double distinctValues( int labelId, int propertyKeyId )
+    {
+        return snapshot.get( snapshot.distinctValues, key( labelId, propertyKeyId ) );
+    }
+
+    @Override
+    public double selectivity( int labelId, int propertyKeyId )
+    {
+        return snapshot.get( snapshot.selectivity, key( labelId, propertyKeyId ) );
+    }
+
+    /**
+     * The ids to read from a store, either all of them or a random selection.
+     */
+    private class Sample
+    {
+        private final long highId;
+        private final long size;
+        private final boolean complete;
+        private long inUse;
+
+        Sample( long highId )
+        {
+            this.highId = highId;
+            this.complete = highId <= sampleSize;
+            this.size = complete ? highId : sampleSize;
+        }
+
+        long id( long i )
+        {
+            return complete ? i : (long) (random.nextDouble() * highId);
+        }
+
+        double scale()
+        {
+            return size == 0 ? 0 : (double) highId / size;
+        }
+    }
+
+    private static class ValueSample
+    {
+        private final Map<Object, Integer> occurrences = new HashMap<>();
+        private int count;
+
+        void add( Object value )
+        {
+            Integer seen = occurrences.get( value );
+            occurrences.put( value, seen == null ? 1 : seen + 1 );
+            count++;
+        }
+
+        double estimateDistinctValues( double population )
+        {
+            int seenOnce = 0;
+            for ( int seen : occurrences.values() )
+            {
+                if ( seen == 1 )
+                {
+                    seenOnce++;
+                }
+            }
+            int seenRepeatedly = occurrences.size() - seenOnce;
+            double scaleUp = population > count ? Math.sqrt( population / count ) : 1d;
+            return scaleUp * seenOnce + seenRepeatedly;
+        }
+    }
+
+    private static class Snapshot
+    {
+        static final Snapshot EMPTY = new Snapshot();
+        static
+        {
+            EMPTY.nodeCount = Double.NaN;
+            EMPTY.relationshipCount = Double.NaN;
+        }
+
+        private double nodeCount;
+        private double relationshipCount;
+        private final Map<Integer, Double> nodesWithLabel = new HashMap<>();
+        private final Map<Integer, Double> relationshipsWithType = new HashMap<>();
+        private final Map<Long, Double> distinctValues = new HashMap<>();
+        private final Map<Long, Double> selectivity = new HashMap<>();
+
+        <KEY> double get( Map<KEY, Double> values, KEY key )
+        {
+            if ( this == EMPTY )
+            {
+                return Double.NaN;
+            }
+            Double value = values.get( key );
+            return value == null ? 0d : value;
+        }
+
+        @Override
+        public String toString()
+        {
+            return "nodes:" + nodeCount + " labels:" + nodesWithLabel + " relationships:" + relationshipCount +
+                    " types:" + relationshipsWithType;
+        }
+    }
+
+    private class SamplingJob implements Runnable
+    {
+        private volatile boolean stopped;
+
+        @Override
+        public void run()
+        {
+            synchronized ( SampledGraphStatistics.this )
+            {
+                if ( !stopped )
+                {
+                    sample();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,480 @@
+/**
+ * Copyright (c) 2002-2013 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.cache;
+
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import org.neo4j.kernel.impl.util.StringLogger;
+
+/**
+ * A cache bounded by the {@link SizeOfObject estimated size} of its elements rather than by the garbage
+ * collector. Elements are kept in open addressing tables keyed on their primitive id, so there are no boxed
+ * keys, map entries or soft/weak references for the garbage collector to trace or clear.
+ * <p>
+ * The cache is split up into segments, each with its own part of the size budget. Reads never lock, they
+ * probe the current table of a segment and leave an access stamp behind for the {@link Eviction eviction
+ * policy}. Writes lock their segment, removals leave tombstones behind which are cleaned out when the table
+ * is rebuilt. A rebuilt table replaces the old one as a whole, so readers never see a half moved table.
+ */
+public class BoundedCache<E extends EntityWithSizeObject> implements Cache<E>
+{
+    public enum Eviction
+    {
+        /**
+         * Elements accessed since the clock hand last passed them get a second chance.
+         */
+        CLOCK,
+
+        /**
+         * The least recently used out of a small sample of elements is evicted.
+         */
+        LRU
+    }
+
+    public static final long MIN_SIZE = 1;
+
+    private static final int DEFAULT_SEGMENTS = 16;
+    private static final int INITIAL_CAPACITY = 16;
+    private static final int LRU_SAMPLES = 8;
+    private static final Object TOMBSTONE = new Object();
+
+    private final String name;
+    private final Eviction eviction;
+    private final StringLogger logger;
+    private final Segment<E>[] segments;
+    private final int segmentShift;
+
+    public BoundedCache( long maxSizeInBytes, Eviction eviction, String name, StringLogger logger )
+    {
+        this( maxSizeInBytes, eviction, DEFAULT_SEGMENTS, name, logger );
+    }
+
+    @SuppressWarnings("unchecked")
+    BoundedCache( long maxSizeInBytes, Eviction eviction, int segmentCount, String name, StringLogger logger )
+    {
+        if ( maxSizeInBytes < MIN_SIZE )
+        {
+            throw new IllegalArgumentException( "Max size can not be " + maxSizeInBytes );
+        }
+        if ( Integer.bitCount( segmentCount ) != 1 )
+        {
+            throw new IllegalArgumentException( "Segment count must be a power of two, not " + segmentCount );
+        }
+        this.name = name;
+        this.eviction = eviction;
+        this.logger = logger;
+        this.segmentShift = 32 - Integer.numberOfTrailingZeros( segmentCount );
+        this.segments = new Segment[segmentCount];
+        long segmentSize = Math.max( MIN_SIZE, maxSizeInBytes / segmentCount );
+        for ( int i = 0; i < segmentCount; i++ )
+        {
+            segments[i] = new Segment<>( segmentSize, eviction );
+        }
+    }
+
+    private static int hash( long id )
+    {
+        long hash = id * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32));
+    }
+
+    private Segment<E> segmentFor( int hash )
+    {
+        return segmentShift == 32 ? segments[0] : segments[hash >>> segmentShift];
+    }
+
+    @Override
+    public String getName()
+    {
+        return name;
+    }
+
+    @Override
+    public E put( E value )
+    {
+        int hash = hash( value.getId() );
+        return segmentFor( hash ).put( value, hash );
+    }
+
+    @Override
+    public void putAll( Collection<E> values )
+    {
+        for ( E value : values )
+        {
+            put( value );
+        }
+    }
+
+    @Override
+    public E remove( long key )
+    {
+        int hash = hash( key );
+        return segmentFor( hash ).remove( key, hash );
+    }
+
+    @Override
+    public E get( long key )
+    {
+        int hash = hash( key );
+        return segmentFor( hash ).get( key, hash );
+    }
+
+    @Override
+    public void clear()
+    {
+        for ( Segment<E> segment : segments )
+        {
+            segment.clear();
+        }
+    }
+
+    /**
+     * @return the estimated size in bytes of all elements in this cache.
+     */
+    @Override
+    public long size()
+    {
+        long size = 0;
+        for ( Segment<E> segment : segments )
+        {
+            size += segment.currentSize;
+        }
+        return size;
+    }
+
+    public int count()
+    {
+        int count = 0;
+        for ( Segment<E> segment : segments )
+        {
+            count += segment.count;
+        }
+        return count;
+    }
+
+    @Override
+    public long hitCount()
+    {
+        long hits = 0;
+        for ( Segment<E> segment : segments )
+        {
+            hits += segment.hitCount;
+        }
+        return hits;
+    }
+
+    @Override
+    public long missCount()
+    {
+        long misses = 0;
+        for ( Segment<E> segment : segments )
+        {
+            misses += segment.missCount;
+        }
+        return misses;
+    }
+
+    public long evictionCount()
+    {
+        long evictions = 0;
+        for ( Segment<E> segment : segments )
+        {
+            evictions += segment.evictionCount;
+        }
+        return evictions;
+    }
+
+    @Override
+    public void updateSize( E entity, int newSize )
+    {
+        segmentFor( hash( entity.getId() ) ).updateSize( entity, newSize );
+    }
+
+    @Override
+    public void printStatistics()
+    {
+        logger.debug( toString() );
+    }
+
+    @Override
+    public String toString()
+    {
+        long hits = hitCount();
+        long misses = missCount();
+        String missPercentage = hits + misses == 0 ? "N/A" : ((float) misses / (hits + misses) * 100.0f) + "%";
+        return name + " " + eviction + " segments:" + segments.length + " elements:" + count() + " size:" + size() +
+                "b misses:" + missPercentage + " evictions:" + evictionCount();
+    }
+
+    private static final class Table
+    {
+        final AtomicReferenceArray<Object> slots;
+        final int[] stamps;
+        final int mask;
+
+        Table( int capacity )
+        {
+            this.slots = new AtomicReferenceArray<>( capacity );
+            this.stamps = new int[capacity];
+            this.mask = capacity - 1;
+        }
+    }
+
+    private static final class Segment<E extends EntityWithSizeObject>
+    {
+        private final long maxSize;
+        private final Eviction eviction;
+        private volatile Table table = new Table( INITIAL_CAPACITY );
+        private volatile long currentSize;
+        private volatile int count;
+        // live elements plus tombstones, guarded by this segment's monitor
+        private int used;
+        private int hand;
+
+        // non thread safe, only ~statistics and access stamps (atomic update will affect read performance)
+        private int ticks;
+        private long hitCount;
+        private long missCount;
+        private long evictionCount;
+
+        Segment( long maxSize, Eviction eviction )
+        {
+            this.maxSize = maxSize;
+            this.eviction = eviction;
+        }
+
+        @SuppressWarnings("unchecked")
+        E get( long id, int hash )
+        {
+            Table table = this.table;
+            int index = hash & table.mask;
+            for ( int probes = 0; probes <= table.mask; probes++ )
+            {
+                Object element = table.slots.get( index );
+                if ( element == null )
+                {
+                    break;
+                }
+                if ( element != TOMBSTONE && ((E) element).getId() == id )
+                {
+                    table.stamps[index] = stamp();
+                    hitCount++;
+                    return (E) element;
+                }
+                index = (index + 1) & table.mask;
+            }
+            missCount++;
+            return null;
+        }
+
+        @SuppressWarnings("unchecked")
+        synchronized E put( E value, int hash )
+        {
+            if ( used + 1 > table.slots.length() * 3 / 4 )
+            {
+                rebuild();
+            }
+            Table table = this.table;
+            int index = hash & table.mask;
+            int free = -1;
+            while ( true )
+            {
+                Object element = table.slots.get( index );
+                if ( element == null )
+                {
+                    if ( free == -1 )
+                    {
+                        free = index;
+                        used++;
+                    }
+                    break;
+                }
+                if ( element == TOMBSTONE )
+                {
+                    if ( free == -1 )
+                    {
+                        free = index;
+                    }
+                }
+                else if ( ((E) element).getId() == value.getId() )
+                {   // There's an existing element representing the same entity, return the existing
+                    return (E) element;
+                }
+                index = (index + 1) & table.mask;
+            }
+
+            int size = value.sizeOfObjectInBytesIncludingOverhead();
+            value.setRegisteredSize( size );
+            table.stamps[free] = stamp();
+            table.slots.set( free, value );
+            count++;
+            currentSize += size;
+            evictWhileTooLarge();
+            return value;
+        }
+
+        synchronized E remove( long id, int hash )
+        {
+            Table table = this.table;
+            int index = indexOf( table, id, hash );
+            return index == -1 ? null : removeAt( table, index );
+        }
+
+        synchronized void updateSize( E entity, int newSize )
+        {
+            Table table = this.table;
+            int index = indexOf( table, entity.getId(), hash( entity.getId() ) );
+            if ( index == -1 || table.slots.get( index ) != entity )
+            {
+                return;
+            }
+            currentSize += newSize - entity.getRegisteredSize();
+            entity.setRegisteredSize( newSize );
+            evictWhileTooLarge();
+        }
+
+        synchronized void clear()
+        {
+            table = new Table( INITIAL_CAPACITY );
+            currentSize = 0;
+            count = 0;
+            used = 0;
+            hand = 0;
+        }
+
+        private int stamp()
+        {
+            return eviction == Eviction.CLOCK ? 1 : ++ticks;
+        }
+
+        @SuppressWarnings("unchecked")
+        private int indexOf( Table table, long id, int hash )
+        {
+            int index = hash & table.mask;
+            for ( int probes = 0; probes <= table.mask; probes++ )
+            {
+                Object element = table.slots.get( index );
+                if ( element == null )
+                {
+                    break;
+                }
+                if ( element != TOMBSTONE && ((E) element).getId() == id )
+                {
+                    return index;
+                }
+                index = (index + 1) & table.mask;
+            }
+            return -1;
+        }
+
+        @SuppressWarnings("unchecked")
+        private E removeAt( Table table, int index )
+        {
+            E element = (E) table.slots.get( index );
+            table.slots.set( index, TOMBSTONE );
+            count--;
+            currentSize -= element.getRegisteredSize();
+            return element;
+        }
+
+        private void evictWhileTooLarge()
+        {
+            // Always leave the last element in, even if it alone is larger than this segment may be
+            while ( currentSize > maxSize && count > 1 )
+            {
+                Table table = this.table;
+                removeAt( table, eviction == Eviction.CLOCK ? clockVictim( table ) : lruVictim( table ) );
+                evictionCount++;
+            }
+        }
+
+        private int clockVictim( Table table )
+        {
+            while ( true )
+            {
+                int index = hand++ & table.mask;
+                Object element = table.slots.get( index );
+                if ( element == null || element == TOMBSTONE )
+                {
+                    continue;
+                }
+                if ( table.stamps[index] == 0 )
+                {
+                    return index;
+                }
+                table.stamps[index] = 0;
+            }
+        }
+
+        private int lruVictim( Table table )
+        {
+            int victim = -1;
+            for ( int sampled = 0; sampled < LRU_SAMPLES && sampled < count; )
+            {
+                int index = hand++ & table.mask;
+                Object element = table.slots.get( index );
+                if ( element == null || element == TOMBSTONE )
+                {
+                    continue;
+                }
+                // stamps wrap around, so compare them by their difference
+                if ( victim == -1 || table.stamps[index] - table.stamps[victim] < 0 )
+                {
+                    victim = index;
+                }
+                sampled++;
+            }
+            return victim;
+        }
+
+        /**
+         * Copies the live elements into a new table, which is twice as large if the elements alone fill up
+         * half of the current one, and publishes it in one go.
+         */
+        @SuppressWarnings("unchecked")
+        private void rebuild()
+        {
+            Table old = this.table;
+            int capacity = old.slots.length();
+            if ( count >= capacity / 2 )
+            {
+                capacity *= 2;
+            }
+            Table table = new Table( capacity );
+            for ( int i = 0; i < old.slots.length(); i++ )
+            {
+                Object element = old.slots.get( i );
+                if ( element != null && element != TOMBSTONE )
+                {
+                    int index = hash( ((E) element).getId() ) & table.mask;
+                    while ( table.slots.get( index ) != null )
+                    {
+                        index = (index + 1) & table.mask;
+                    }
+                    table.slots.set( index, element );
+                    table.stamps[index] = old.stamps[i];
+                }
+            }
+            used = count;
+            this.table = table;
+        }
+    }
+}
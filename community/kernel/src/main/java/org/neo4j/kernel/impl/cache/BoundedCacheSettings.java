@@ -0,0 +1,46 @@
+/**
+ * Copyright (c) 2002-2013 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.cache;
+
+import org.neo4j.graphdb.config.Setting;
+import org.neo4j.graphdb.factory.Description;
+
+import static org.neo4j.helpers.Settings.BYTES;
+import static org.neo4j.helpers.Settings.NO_DEFAULT;
+import static org.neo4j.helpers.Settings.options;
+import static org.neo4j.helpers.Settings.setting;
+
+/**
+ * Settings for the bounded cache
+ */
+public class BoundedCacheSettings
+{
+    @Description("The maximum estimated size of the nodes in the bounded node cache. Defaults to a quarter of the heap.")
+    public static final Setting<Long> node_cache_size = setting( "bounded_node_cache_size", BYTES, NO_DEFAULT );
+
+    @Description("The maximum estimated size of the relationships in the bounded relationship cache. " +
+            "Defaults to a quarter of the heap.")
+    public static final Setting<Long> relationship_cache_size =
+            setting( "bounded_relationship_cache_size", BYTES, NO_DEFAULT );
+
+    @Description("How the bounded cache picks elements to evict, either by a clock sweep or by sampled LRU.")
+    public static final Setting<BoundedCache.Eviction> eviction =
+            setting( "bounded_cache_eviction", options( BoundedCache.Eviction.class ), BoundedCache.Eviction.CLOCK.name() );
+}
@@ -0,0 +1,63 @@
+/**
+ * Copyright (c) 2002-2013 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.cache;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Hit, miss and eviction counters for the query plan caches kept by query languages on top of the kernel,
+ * such as Cypher. The counters are shared by all caches of one database and are exposed over JMX.
+ */
+public class QueryCacheStatistics
+{
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    public void hit()
+    {
+        hits.incrementAndGet();
+    }
+
+    public void miss()
+    {
+        misses.incrementAndGet();
+    }
+
+    public void evicted()
+    {
+        evictions.incrementAndGet();
+    }
+
+    public long hitCount()
+    {
+        return hits.get();
+    }
+
+    public long missCount()
+    {
+        return misses.get();
+    }
+
+    public long evictionCount()
+    {
+        return evictions.get();
+    }
+}
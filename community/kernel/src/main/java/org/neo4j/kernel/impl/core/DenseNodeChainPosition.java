@@ -0,0 +1,194 @@
+/**
+ * Copyright (c) 2002-2013 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.core;
+
+import java.util.Arrays;
+import java.util.Map;
+
+import org.neo4j.kernel.impl.nioneo.store.Record;
+import org.neo4j.kernel.impl.nioneo.store.RelationshipGroupRecord;
+import org.neo4j.kernel.impl.util.RelIdArray.DirectionWrapper;
+
+import static org.neo4j.kernel.impl.cache.SizeOfs.withArrayOverhead;
+import static org.neo4j.kernel.impl.cache.SizeOfs.withArrayOverheadIncludingReferences;
+import static org.neo4j.kernel.impl.cache.SizeOfs.withObjectOverhead;
+
+/**
+ * The loading position for a dense node, i.e. a node which has its relationships split up into
+ * {@link RelationshipGroupRecord groups} by type. Each group has three chains, outgoing, incoming and loops,
+ * with a separate position each, which means that relationships of one type and direction can be loaded
+ * without touching any other.
+ */
+public class DenseNodeChainPosition implements RelationshipLoadingPosition
+{
+    private static final int OUT = 0;
+    private static final int IN = 1;
+    private static final int LOOP = 2;
+    private static final int[] OUTGOING_CHAINS = {OUT, LOOP};
+    private static final int[] INCOMING_CHAINS = {IN, LOOP};
+    private static final int[] ALL_CHAINS = {OUT, IN, LOOP};
+
+    // Sorted, with positions[i] being the chain positions for types[i]
+    private final int[] types;
+    private final long[][] positions;
+    private int currentType = -1;
+    private int currentChain = -1;
+
+    public DenseNodeChainPosition( Map<Integer, RelationshipGroupRecord> groups )
+    {
+        this.types = new int[groups.size()];
+        int i = 0;
+        for ( int type : groups.keySet() )
+        {
+            types[i++] = type;
+        }
+        Arrays.sort( types );
+        this.positions = new long[types.length][];
+        for ( i = 0; i < types.length; i++ )
+        {
+            RelationshipGroupRecord group = groups.get( types[i] );
+            positions[i] = new long[] {group.getFirstOut(), group.getFirstIn(), group.getFirstLoop()};
+        }
+    }
+
+    @Override
+    public synchronized long position( DirectionWrapper direction, int[] types )
+    {
+        int[] chains = chainsFor( direction );
+        for ( int i = 0; i < this.types.length; i++ )
+        {
+            if ( !wanted( this.types[i], types ) )
+            {
+                continue;
+            }
+            for ( int chain : chains )
+            {
+                long position = positions[i][chain];
+                if ( position != Record.NO_NEXT_RELATIONSHIP.intValue() )
+                {
+                    currentType = i;
+                    currentChain = chain;
+                    return position;
+                }
+            }
+        }
+        currentType = -1;
+        currentChain = -1;
+        return Record.NO_NEXT_RELATIONSHIP.intValue();
+    }
+
+    @Override
+    public synchronized long nextPosition( long position, DirectionWrapper direction, int[] types )
+    {
+        if ( currentType != -1 )
+        {
+            positions[currentType][currentChain] = position;
+        }
+        if ( position != Record.NO_NEXT_RELATIONSHIP.intValue() )
+        {
+            return position;
+        }
+        return position( direction, types );
+    }
+
+    @Override
+    public synchronized boolean hasMore( DirectionWrapper direction, int[] types )
+    {
+        int[] chains = chainsFor( direction );
+        for ( int i = 0; i < this.types.length; i++ )
+        {
+            if ( !wanted( this.types[i], types ) )
+            {
+                continue;
+            }
+            for ( int chain : chains )
+            {
+                if ( positions[i][chain] != Record.NO_NEXT_RELATIONSHIP.intValue() )
+                {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public synchronized void compareAndAdvance( long relId, long nextRelId )
+    {
+        for ( long[] chains : positions )
+        {
+            for ( int chain = 0; chain < chains.length; chain++ )
+            {
+                if ( chains[chain] == relId )
+                {
+                    chains[chain] = nextRelId;
+                }
+            }
+        }
+    }
+
+    private static int[] chainsFor( DirectionWrapper direction )
+    {
+        switch ( direction )
+        {
+        case OUTGOING: return OUTGOING_CHAINS;
+        case INCOMING: return INCOMING_CHAINS;
+        default: return ALL_CHAINS;
+        }
+    }
+
+    private static boolean wanted( int type, int[] types )
+    {
+        if ( types == null )
+        {
+            return true;
+        }
+        for ( int candidate : types )
+        {
+            if ( candidate == type )
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public int sizeOfObjectInBytesIncludingOverhead()
+    {
+        int size = withObjectOverhead( 8/*types reference*/ + 8/*positions reference*/ + 4 + 4 );
+        size += withArrayOverhead( 4 * types.length );
+        size += withArrayOverheadIncludingReferences( 0, positions.length ) +
+                positions.length * withArrayOverhead( 8 * ALL_CHAINS.length );
+        return size;
+    }
+
+    @Override
+    public synchronized String toString()
+    {
+        StringBuilder builder = new StringBuilder( "DenseNodeChainPosition[" );
+        for ( int i = 0; i < types.length; i++ )
+        {
+            builder.append( i > 0 ? "," : "" ).append( types[i] ).append( ":" )
+                    .append( Arrays.toString( positions[i] ) );
+        }
+        return builder.append( "]" ).toString();
+    }
+}
@@ -25,6 +25,7 @@ import java.util.Collections;
 import java.util.Comparator;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Set;
 
 import org.neo4j.graphdb.Direction;
 import org.neo4j.graphdb.NotFoundException;
@@ -40,7 +41,6 @@ import org.neo4j.kernel.impl.api.CacheLoader;
 import org.neo4j.kernel.impl.core.WritableTransactionState.CowEntityElement;
 import org.neo4j.kernel.impl.core.WritableTransactionState.PrimitiveElement;
 import org.neo4j.kernel.impl.nioneo.store.InvalidRecordException;
-import org.neo4j.kernel.impl.nioneo.store.Record;
 import org.neo4j.kernel.impl.util.ArrayMap;
 import org.neo4j.kernel.impl.util.CombinedRelIdIterator;
 import org.neo4j.kernel.impl.util.RelIdArray;
@@ -73,9 +73,9 @@ public class NodeImpl extends ArrayBasedPrimitive
     // Sorted array
     private volatile int[] labels;
     /*
-     * This is the id of the next relationship to load from disk.
+     * This is where to load the next relationships from disk, see RelationshipLoadingPosition.
      */
-    private volatile long relChainPosition = Record.NO_NEXT_RELATIONSHIP.intValue();
+    private volatile RelationshipLoadingPosition relChainPosition = RelationshipLoadingPosition.EMPTY;
     private final long id;
 
     public NodeImpl( long id )
@@ -114,8 +114,9 @@ public class NodeImpl extends ArrayBasedPrimitive
     {
         int size = super.sizeOfObjectInBytesIncludingOverhead() +
                 REFERENCE_SIZE/*relationships reference*/ +
-                8/*relChainPosition*/ + 8/*id*/ +
+                REFERENCE_SIZE/*relChainPosition reference*/ + 8/*id*/ +
                 REFERENCE_SIZE/*labels reference*/;
+        size += relChainPosition.sizeOfObjectInBytesIncludingOverhead();
         if ( relationships != null && relationships.length > 0 )
         {
             size = withArrayOverheadIncludingReferences( size, relationships.length );
@@ -146,14 +147,14 @@ public class NodeImpl extends ArrayBasedPrimitive
 
     Iterable<Relationship> getAllRelationships( NodeManager nodeManager, DirectionWrapper direction )
     {
-        ensureRelationshipMapNotNull( nodeManager );
+        ensureRelationshipMapNotNull( nodeManager, direction, null );
 
         // We need to check if there are more relationships to load before grabbing
         // the references to the RelIdArrays since otherwise there could be
         // another concurrent thread exhausting the chain position in between the point
         // where we got an empty iterator for a type that the other thread loaded and
         // the point where we check whether or not there are more relationships to load.
-        boolean hasMore = hasMoreRelationshipsToLoad();
+        boolean hasMore = hasMoreRelationshipsToLoad( direction, null );
 
         RelIdArray[] localRelationships = relationships;
         RelIdIterator[] result = new RelIdIterator[localRelationships.length];
@@ -208,22 +209,41 @@ public class NodeImpl extends ArrayBasedPrimitive
         {
             return Collections.emptyList();
         }
-        return new RelationshipIterator( result, this, direction, nodeManager, hasMore, true );
+        return new RelationshipIterator( result, this, direction, null, nodeManager, hasMore, true );
     }
 
     Iterable<Relationship> getAllRelationshipsOfType( NodeManager nodeManager,
                                                       DirectionWrapper direction, RelationshipType... types )
     {
-        ensureRelationshipMapNotNull( nodeManager );
+        int[] typeIds = new int[types.length];
+        int actualLength = 0;
+        for ( RelationshipType type : types )
+        {
+            int typeId = nodeManager.getRelationshipTypeIdFor( type );
+            if ( typeId != TokenHolder.NO_ID )
+            {
+                typeIds[actualLength++] = typeId;
+            }
+        }
+        if ( actualLength == 0 )
+        {
+            return Collections.emptyList();
+        }
+        if ( actualLength < typeIds.length )
+        {
+            typeIds = Arrays.copyOf( typeIds, actualLength );
+        }
+
+        ensureRelationshipMapNotNull( nodeManager, direction, typeIds );
 
         // We need to check if there are more relationships to load before grabbing
         // the references to the RelIdArrays. Otherwise there could be
         // another concurrent thread exhausting the chain position in between the point
         // where we got an empty iterator for a type that the other thread loaded and
         // the point where we check if there are more relationships to load.
-        boolean hasMore = hasMoreRelationshipsToLoad();
+        boolean hasMore = hasMoreRelationshipsToLoad( direction, typeIds );
 
-        RelIdIterator[] result = new RelIdIterator[types.length];
+        RelIdIterator[] result = new RelIdIterator[typeIds.length];
         TransactionState tx = nodeManager.getTransactionState();
         ArrayMap<Integer, RelIdArray> addMap = null;
         ArrayMap<Integer, Collection<Long>> skipMap = null;
@@ -232,31 +252,14 @@ public class NodeImpl extends ArrayBasedPrimitive
             addMap = tx.getCowRelationshipAddMap( this );
             skipMap = tx.getCowRelationshipRemoveMap( this );
         }
-        int actualLength = 0;
-        for ( RelationshipType type : types )
+        for ( int i = 0; i < typeIds.length; i++ )
         {
-            int typeId = nodeManager.getRelationshipTypeIdFor( type );
-            if ( typeId == TokenHolder.NO_ID )
-            {
-                continue;
-            }
-
-            result[actualLength++] = getRelationshipsIterator( direction,
-                                                               addMap != null ? addMap.get( typeId ) : null,
-                                                               skipMap != null ? skipMap.get( typeId ) : null, typeId );
+            int typeId = typeIds[i];
+            result[i] = getRelationshipsIterator( direction,
+                                                  addMap != null ? addMap.get( typeId ) : null,
+                                                  skipMap != null ? skipMap.get( typeId ) : null, typeId );
         }
-
-        if ( actualLength < result.length )
-        {
-            RelIdIterator[] compacted = new RelIdIterator[actualLength];
-            arraycopy( result, 0, compacted, 0, actualLength );
-            result = compacted;
-        }
-        if ( result.length == 0 )
-        {
-            return Collections.emptyList();
-        }
-        return new RelationshipIterator( result, this, direction, nodeManager, hasMore, false );
+        return new RelationshipIterator( result, this, direction, typeIds, nodeManager, hasMore, false );
     }
 
     private RelIdIterator getRelationshipsIterator( DirectionWrapper direction, RelIdArray add,
@@ -337,15 +340,15 @@ public class NodeImpl extends ArrayBasedPrimitive
         return "NodeImpl#" + this.getId();
     }
 
-    private void ensureRelationshipMapNotNull( NodeManager nodeManager )
+    private void ensureRelationshipMapNotNull( NodeManager nodeManager, DirectionWrapper direction, int[] types )
     {
         if ( relationships == null )
         {
-            loadInitialRelationships( nodeManager );
+            loadInitialRelationships( nodeManager, direction, types );
         }
     }
 
-    private void loadInitialRelationships( NodeManager nodeManager )
+    private void loadInitialRelationships( NodeManager nodeManager, DirectionWrapper direction, int[] types )
     {
         Triplet<ArrayMap<Integer, RelIdArray>, List<RelationshipImpl>, Long> rels = null;
         synchronized ( this )
@@ -363,11 +366,11 @@ public class NodeImpl extends ArrayBasedPrimitive
                 }
 
                 ArrayMap<Integer, RelIdArray> tmpRelMap = new ArrayMap<>();
-                rels = getMoreRelationships( nodeManager, tmpRelMap );
+                rels = getMoreRelationships( nodeManager, tmpRelMap, direction, types );
                 this.relationships = toRelIdArray( tmpRelMap );
                 if ( rels != null )
                 {
-                    setRelChainPosition( rels.third() );
+                    advanceRelChainPosition( rels.third(), direction, types );
                 }
                 updateSize( nodeManager );
             }
@@ -427,15 +430,15 @@ public class NodeImpl extends ArrayBasedPrimitive
     }
 
     private Triplet<ArrayMap<Integer, RelIdArray>, List<RelationshipImpl>, Long> getMoreRelationships(
-            NodeManager nodeManager, ArrayMap<Integer, RelIdArray> tmpRelMap )
+            NodeManager nodeManager, ArrayMap<Integer, RelIdArray> tmpRelMap, DirectionWrapper direction, int[] types )
     {
-        if ( !hasMoreRelationshipsToLoad() )
+        if ( !hasMoreRelationshipsToLoad( direction, types ) )
         {
             return null;
         }
         Triplet<ArrayMap<Integer, RelIdArray>, List<RelationshipImpl>, Long> rels;
 
-        rels = loadMoreRelationshipsFromNodeManager( nodeManager );
+        rels = loadMoreRelationshipsFromNodeManager( nodeManager, direction, types );
 
         ArrayMap<Integer, RelIdArray> addMap = rels.first();
         if ( addMap.size() == 0 )
@@ -464,9 +467,9 @@ public class NodeImpl extends ArrayBasedPrimitive
         return rels;
     }
 
-    boolean hasMoreRelationshipsToLoad()
+    boolean hasMoreRelationshipsToLoad( DirectionWrapper direction, int[] types )
     {
-        return getRelChainPosition() != Record.NO_NEXT_RELATIONSHIP.intValue();
+        return getRelChainPosition().hasMore( direction, types );
     }
 
     static enum LoadStatus
@@ -495,21 +498,21 @@ public class NodeImpl extends ArrayBasedPrimitive
         }
     }
 
-    LoadStatus getMoreRelationships( NodeManager nodeManager )
+    LoadStatus getMoreRelationships( NodeManager nodeManager, DirectionWrapper direction, int[] types )
     {
         Triplet<ArrayMap<Integer, RelIdArray>, List<RelationshipImpl>, Long> rels;
-        if ( !hasMoreRelationshipsToLoad() )
+        if ( !hasMoreRelationshipsToLoad( direction, types ) )
         {
             return LoadStatus.NOTHING;
         }
         boolean more;
         synchronized ( this )
         {
-            if ( !hasMoreRelationshipsToLoad() )
+            if ( !hasMoreRelationshipsToLoad( direction, types ) )
             {
                 return LoadStatus.NOTHING;
             }
-            rels = loadMoreRelationshipsFromNodeManager( nodeManager );
+            rels = loadMoreRelationshipsFromNodeManager( nodeManager, direction, types );
             ArrayMap<Integer, RelIdArray> addMap = rels.first();
             if ( addMap.size() == 0 )
             {
@@ -533,8 +536,8 @@ public class NodeImpl extends ArrayBasedPrimitive
                     }
                 }
             }
-            setRelChainPosition( rels.third() );
-            more = hasMoreRelationshipsToLoad();
+            advanceRelChainPosition( rels.third(), direction, types );
+            more = hasMoreRelationshipsToLoad( direction, types );
             updateSize( nodeManager );
         }
         nodeManager.putAllInRelCache( rels.second() );
@@ -542,11 +545,11 @@ public class NodeImpl extends ArrayBasedPrimitive
     }
 
     private Triplet<ArrayMap<Integer, RelIdArray>, List<RelationshipImpl>, Long>
-    loadMoreRelationshipsFromNodeManager( NodeManager nodeManager )
+    loadMoreRelationshipsFromNodeManager( NodeManager nodeManager, DirectionWrapper direction, int[] types )
     {
         try
         {
-            return nodeManager.getMoreRelationships( this );
+            return nodeManager.getMoreRelationships( this, direction, types );
         }
         catch ( InvalidRecordException e )
         {
@@ -590,6 +593,89 @@ public class NodeImpl extends ArrayBasedPrimitive
         relationships = array;
     }
 
+    /**
+     * Returns the number of relationships of the given types, or of any type if {@code types} is {@code null},
+     * and direction that the transaction of {@code tx} has created for this node, minus the number of
+     * such relationships it has deleted.
+     */
+    public int getDegreeDelta( NodeManager nodeManager, TransactionState tx, DirectionWrapper direction,
+                               int[] types )
+    {
+        ArrayMap<Integer, RelIdArray> addMap = tx.getCowRelationshipAddMap( this );
+        ArrayMap<Integer, Collection<Long>> removeMap = tx.getCowRelationshipRemoveMap( this );
+        int delta = 0;
+        if ( addMap != null )
+        {
+            for ( int type : addMap.keySet() )
+            {
+                if ( !isOfType( type, types ) )
+                {
+                    continue;
+                }
+                Collection<Long> removed = removeMap != null ? removeMap.get( type ) : null;
+                RelIdIterator ids = addMap.get( type ).iterator( direction );
+                while ( ids.hasNext() )
+                {
+                    long id = ids.next();
+                    if ( removed == null || !removed.contains( id ) )
+                    {
+                        delta++;
+                    }
+                }
+            }
+        }
+        if ( removeMap != null )
+        {
+            Set<Long> created = tx.getCreatedRelationships();
+            for ( int type : removeMap.keySet() )
+            {
+                if ( !isOfType( type, types ) )
+                {
+                    continue;
+                }
+                for ( long id : removeMap.get( type ) )
+                {
+                    // Relationships both created and deleted in this transaction have already been skipped above
+                    if ( !created.contains( id ) &&
+                            isOfDirection( nodeManager.getRelationshipForProxy( id ), direction ) )
+                    {
+                        delta--;
+                    }
+                }
+            }
+        }
+        return delta;
+    }
+
+    private static boolean isOfType( int type, int[] types )
+    {
+        if ( types == null )
+        {
+            return true;
+        }
+        for ( int candidate : types )
+        {
+            if ( candidate == type )
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean isOfDirection( RelationshipImpl relationship, DirectionWrapper direction )
+    {
+        switch ( direction )
+        {
+        case OUTGOING:
+            return relationship.getStartNodeId() == getId();
+        case INCOMING:
+            return relationship.getEndNodeId() == getId();
+        default:
+            return true;
+        }
+    }
+
     public boolean hasRelationship( NodeManager nodeManager )
     {
         return getRelationships( nodeManager ).iterator().hasNext();
@@ -662,17 +748,28 @@ public class NodeImpl extends ArrayBasedPrimitive
         }
     }
 
-    long getRelChainPosition()
+    RelationshipLoadingPosition getRelChainPosition()
     {
         return relChainPosition;
     }
 
-    void setRelChainPosition( long position )
+    void setRelChainPosition( RelationshipLoadingPosition position )
     { // precondition: must be called under synchronization
         relChainPosition = position;
+        shrinkIfDoneLoading();
+    }
+
+    private void advanceRelChainPosition( long position, DirectionWrapper direction, int[] types )
+    { // precondition: must be called under synchronization
+        relChainPosition.nextPosition( position, direction, types );
+        shrinkIfDoneLoading();
+    }
+
+    private void shrinkIfDoneLoading()
+    {
         // use local reference to avoid multiple read barriers
         RelIdArray[] array = relationships;
-        if ( !hasMoreRelationshipsToLoad() && array != null )
+        if ( !hasMoreRelationshipsToLoad( DirectionWrapper.BOTH, null ) && array != null )
         {
             // Done loading - Shrink arrays
             for ( int i = 0; i < array.length; i++ )
@@ -195,6 +195,45 @@ public class NodeProxy implements Node
         return nodeLookup.lookup( nodeId ).getSingleRelationship( nodeLookup.getNodeManager(), type, dir );
     }
 
+    @Override
+    public int getDegree()
+    {
+        return getDegree( Direction.BOTH );
+    }
+
+    @Override
+    public int getDegree( RelationshipType type )
+    {
+        return getDegree( type, Direction.BOTH );
+    }
+
+    @Override
+    public int getDegree( Direction direction )
+    {
+        try ( Statement statement = statementContextProvider.instance() )
+        {
+            return statement.readOperations().nodeGetDegree( nodeId, direction );
+        }
+        catch ( EntityNotFoundException e )
+        {
+            throw new NotFoundException( "Node not found", e );
+        }
+    }
+
+    @Override
+    public int getDegree( RelationshipType type, Direction direction )
+    {
+        try ( Statement statement = statementContextProvider.instance() )
+        {
+            int relTypeId = statement.readOperations().relationshipTypeGetForName( type.name() );
+            return statement.readOperations().nodeGetDegree( nodeId, direction, relTypeId );
+        }
+        catch ( EntityNotFoundException e )
+        {
+            throw new NotFoundException( "Node not found", e );
+        }
+    }
+
     private void assertInTransaction()
     {
         statementContextProvider.assertInTransaction();
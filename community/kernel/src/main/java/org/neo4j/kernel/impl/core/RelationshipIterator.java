@@ -39,18 +39,20 @@ class RelationshipIterator extends PrefetchingIterator<Relationship> implements
     private int currentTypeIndex;
     private final NodeImpl fromNode;
     private final DirectionWrapper direction;
+    private final int[] types;
     private final NodeManager nodeManager;
     
     private boolean lastTimeILookedThereWasMoreToLoad;
     private final boolean allTypes;
 
     RelationshipIterator( RelIdIterator[] rels, NodeImpl fromNode,
-        DirectionWrapper direction, NodeManager nodeManager, boolean hasMoreToLoad, boolean allTypes )
+        DirectionWrapper direction, int[] types, NodeManager nodeManager, boolean hasMoreToLoad, boolean allTypes )
     {
         initializeRels( rels );
         this.lastTimeILookedThereWasMoreToLoad = hasMoreToLoad;
         this.fromNode = fromNode;
         this.direction = direction;
+        this.types = types;
         this.nodeManager = nodeManager;
         this.allTypes = allTypes;
     }
@@ -95,7 +97,7 @@ class RelationshipIterator extends PrefetchingIterator<Relationship> implements
                     // There are other relationship types to try to get relationships from, go to the next type
                     currentTypeIterator = rels[++currentTypeIndex];
                 }
-                else if ( (status = fromNode.getMoreRelationships( nodeManager )).loaded()
+                else if ( (status = fromNode.getMoreRelationships( nodeManager, direction, types )).loaded()
                         // This is here to guard for that someone else might have loaded
                         // stuff in this relationship chain (and exhausted it) while I
                         // iterated over my batch of relationships. It will only happen
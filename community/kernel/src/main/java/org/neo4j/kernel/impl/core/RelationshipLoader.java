@@ -43,12 +43,12 @@ public class RelationshipLoader
         this.relationshipCache = relationshipCache;
     }
 
-    public Triplet<ArrayMap<Integer, RelIdArray>, List<RelationshipImpl>, Long> getMoreRelationships( NodeImpl node )
+    public Triplet<ArrayMap<Integer, RelIdArray>, List<RelationshipImpl>, Long> getMoreRelationships( NodeImpl node,
+            RelIdArray.DirectionWrapper direction, int[] types )
     {
         long nodeId = node.getId();
-        long position = node.getRelChainPosition();
         Pair<Map<RelIdArray.DirectionWrapper, Iterable<RelationshipRecord>>, Long> rels =
-                persistenceManager.getMoreRelationships( nodeId, position );
+                persistenceManager.getMoreRelationships( nodeId, node.getRelChainPosition(), direction, types );
         ArrayMap<Integer, RelIdArray> newRelationshipMap =
                 new ArrayMap<>();
 
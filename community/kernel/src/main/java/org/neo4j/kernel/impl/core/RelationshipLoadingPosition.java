@@ -0,0 +1,100 @@
+/**
+ * Copyright (c) 2002-2013 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.core;
+
+import org.neo4j.kernel.impl.cache.SizeOfObject;
+import org.neo4j.kernel.impl.nioneo.store.Record;
+import org.neo4j.kernel.impl.util.RelIdArray.DirectionWrapper;
+
+/**
+ * Keeps track of how far the relationships of a node have been loaded. A node with few relationships
+ * has all of them in a single chain, whereas a dense node has one chain per type and direction,
+ * where the chain to load from depends on which relationships are asked for.
+ * <p/>
+ * A {@code null} {@code types} array means all types. Calls that move the position around must be
+ * made while holding the monitor of the node owning it.
+ */
+public interface RelationshipLoadingPosition extends SizeOfObject
+{
+    /**
+     * @return the position to load relationships from next, for the given direction and types,
+     * or {@link org.neo4j.kernel.impl.nioneo.store.Record#NO_NEXT_RELATIONSHIP} if there's nothing more
+     * to load for them. The chain for that position is remembered as the current chain.
+     */
+    long position( DirectionWrapper direction, int[] types );
+
+    /**
+     * Moves the current chain forward to {@code position}, i.e. where the last batch of loaded
+     * relationships ended. If the current chain got exhausted the next matching chain becomes the current one.
+     *
+     * @return the position to load from next, like {@link #position(DirectionWrapper, int[])}.
+     */
+    long nextPosition( long position, DirectionWrapper direction, int[] types );
+
+    /**
+     * @return whether or not there are more relationships to load for the given direction and types.
+     */
+    boolean hasMore( DirectionWrapper direction, int[] types );
+
+    /**
+     * Moves any chain positioned at the deleted relationship {@code relId} to {@code nextRelId}, the
+     * relationship after it in the same chain.
+     */
+    void compareAndAdvance( long relId, long nextRelId );
+
+    RelationshipLoadingPosition EMPTY = new RelationshipLoadingPosition()
+    {
+        @Override
+        public long position( DirectionWrapper direction, int[] types )
+        {
+            return Record.NO_NEXT_RELATIONSHIP.intValue();
+        }
+
+        @Override
+        public long nextPosition( long position, DirectionWrapper direction, int[] types )
+        {
+            return Record.NO_NEXT_RELATIONSHIP.intValue();
+        }
+
+        @Override
+        public boolean hasMore( DirectionWrapper direction, int[] types )
+        {
+            return false;
+        }
+
+        @Override
+        public void compareAndAdvance( long relId, long nextRelId )
+        {
+        }
+
+        @Override
+        public int sizeOfObjectInBytesIncludingOverhead()
+        {
+            // Shared instance
+            return 0;
+        }
+
+        @Override
+        public String toString()
+        {
+            return "EMPTY";
+        }
+    };
+}
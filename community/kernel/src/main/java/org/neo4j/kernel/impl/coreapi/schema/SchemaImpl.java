@@ -62,6 +62,7 @@ import org.neo4j.kernel.impl.api.index.IndexDescriptor;
 import org.neo4j.kernel.impl.core.ReadOnlyDbException;
 
 import static java.lang.String.format;
+import static java.util.Arrays.asList;
 import static java.util.Collections.emptyList;
 
 import static org.neo4j.graphdb.DynamicLabel.label;
@@ -136,8 +137,13 @@ public class SchemaImpl implements Schema
                 try
                 {
                     Label label = label( statement.labelGetName( rule.getLabelId() ) );
-                    String propertyKey = statement.propertyKeyGetName( rule.getPropertyKeyId() );
-                    return new IndexDefinitionImpl( actions, label, propertyKey, constraintIndex );
+                    int[] propertyKeyIds = rule.getPropertyKeyIds();
+                    String[] propertyKeys = new String[propertyKeyIds.length];
+                    for ( int i = 0; i < propertyKeyIds.length; i++ )
+                    {
+                        propertyKeys[i] = statement.propertyKeyGetName( propertyKeyIds[i] );
+                    }
+                    return new IndexDefinitionImpl( actions, label, propertyKeys, constraintIndex );
                 }
                 catch ( LabelNotFoundKernelException | PropertyKeyIdNotFoundKernelException e )
                 {
@@ -207,23 +213,9 @@ public class SchemaImpl implements Schema
     {
         assertInTransaction();
 
-        String propertyKey = single( index.getPropertyKeys() );
         try ( Statement statement = statementContextProvider.instance() )
         {
-            int labelId = statement.readOperations().labelGetForName( index.getLabel().name() );
-            int propertyKeyId = statement.readOperations().propertyKeyGetForName( propertyKey );
-
-            if ( labelId == KeyReadOperations.NO_SUCH_LABEL )
-            {
-                throw new NotFoundException( format( "Label %s not found", index.getLabel().name() ) );
-            }
-
-            if ( propertyKeyId == KeyReadOperations.NO_SUCH_PROPERTY_KEY )
-            {
-                throw new NotFoundException( format( "Property key %s not found", propertyKey ) );
-            }
-
-            IndexDescriptor descriptor = statement.readOperations().indexesGetForLabelAndPropertyKey( labelId, propertyKeyId );
+            IndexDescriptor descriptor = getIndexDescriptor( statement.readOperations(), index );
             InternalIndexState indexState = statement.readOperations().indexGetState( descriptor );
             switch ( indexState )
             {
@@ -240,7 +232,7 @@ public class SchemaImpl implements Schema
         catch ( SchemaRuleNotFoundException | IndexNotFoundKernelException e )
         {
             throw new NotFoundException( format( "No index for label %s on property %s",
-                    index.getLabel().name(), propertyKey ) );
+                    index.getLabel().name(), propertyKeysDescription( index.getPropertyKeys() ) ) );
         }
     }
 
@@ -249,30 +241,59 @@ public class SchemaImpl implements Schema
     {
         assertInTransaction();
 
-        String propertyKey = single( index.getPropertyKeys() );
         try ( Statement statement = statementContextProvider.instance() )
         {
-            int labelId = statement.readOperations().labelGetForName( index.getLabel().name() );
-            int propertyKeyId = statement.readOperations().propertyKeyGetForName( propertyKey );
+            IndexDescriptor descriptor = getIndexDescriptor( statement.readOperations(), index );
+            return statement.readOperations().indexGetFailure( descriptor );
+        }
+        catch ( SchemaRuleNotFoundException | IndexNotFoundKernelException e )
+        {
+            throw new NotFoundException( format( "No index for label %s on property %s",
+                    index.getLabel().name(), propertyKeysDescription( index.getPropertyKeys() ) ) );
+        }
+    }
 
-            if ( labelId == KeyReadOperations.NO_SUCH_LABEL )
-            {
-                throw new NotFoundException( format( "Label %s not found", index.getLabel().name() ) );
-            }
+    private static IndexDescriptor getIndexDescriptor( ReadOperations readOperations, IndexDefinition index )
+            throws SchemaRuleNotFoundException
+    {
+        int labelId = readOperations.labelGetForName( index.getLabel().name() );
+        if ( labelId == KeyReadOperations.NO_SUCH_LABEL )
+        {
+            throw new NotFoundException( format( "Label %s not found", index.getLabel().name() ) );
+        }
 
+        List<Integer> propertyKeyIds = new ArrayList<>();
+        for ( String propertyKey : index.getPropertyKeys() )
+        {
+            int propertyKeyId = readOperations.propertyKeyGetForName( propertyKey );
             if ( propertyKeyId == KeyReadOperations.NO_SUCH_PROPERTY_KEY )
             {
                 throw new NotFoundException( format( "Property key %s not found", propertyKey ) );
             }
+            propertyKeyIds.add( propertyKeyId );
+        }
 
-            IndexDescriptor indexId = statement.readOperations().indexesGetForLabelAndPropertyKey( labelId, propertyKeyId );
-            return statement.readOperations().indexGetFailure( indexId );
+        if ( propertyKeyIds.size() == 1 )
+        {
+            return readOperations.indexesGetForLabelAndPropertyKey( labelId, propertyKeyIds.get( 0 ) );
         }
-        catch ( SchemaRuleNotFoundException | IndexNotFoundKernelException e )
+        return new IndexDescriptor( labelId, toIntArray( propertyKeyIds ) );
+    }
+
+    private static int[] toIntArray( List<Integer> values )
+    {
+        int[] result = new int[values.size()];
+        for ( int i = 0; i < result.length; i++ )
         {
-            throw new NotFoundException( format( "No index for label %s on property %s",
-                    index.getLabel().name(), propertyKey ) );
+            result[i] = values.get( i );
         }
+        return result;
+    }
+
+    private static String propertyKeysDescription( Iterable<String> propertyKeys )
+    {
+        Collection<String> keys = asCollection( propertyKeys );
+        return keys.size() == 1 ? single( keys ) : keys.toString();
     }
 
     @Override
@@ -356,16 +377,29 @@ public class SchemaImpl implements Schema
         }
 
         @Override
-        public IndexDefinition createIndexDefinition( Label label, String propertyKey )
+        public IndexDefinition createIndexDefinition( Label label, String... propertyKeys )
         {
+            String propertyKey = propertyKeysDescription( asList( propertyKeys ) );
             try ( Statement statement = ctxProvider.instance() )
             {
                 try
                 {
                     int labelId = statement.schemaWriteOperations().labelGetOrCreateForName( label.name() );
-                    int propertyKeyId = statement.schemaWriteOperations().propertyKeyGetOrCreateForName( propertyKey );
-                    statement.schemaWriteOperations().indexCreate( labelId, propertyKeyId );
-                    return new IndexDefinitionImpl( this, label, propertyKey, false );
+                    int[] propertyKeyIds = new int[propertyKeys.length];
+                    for ( int i = 0; i < propertyKeys.length; i++ )
+                    {
+                        propertyKeyIds[i] =
+                                statement.schemaWriteOperations().propertyKeyGetOrCreateForName( propertyKeys[i] );
+                    }
+                    if ( propertyKeyIds.length == 1 )
+                    {
+                        statement.schemaWriteOperations().indexCreate( labelId, propertyKeyIds[0] );
+                    }
+                    else
+                    {
+                        statement.schemaWriteOperations().indexCreate( labelId, propertyKeyIds );
+                    }
+                    return new IndexDefinitionImpl( this, label, propertyKeys, false );
                 }
                 catch ( AlreadyIndexedException e )
                 {
@@ -404,23 +438,32 @@ public class SchemaImpl implements Schema
         }
 
         @Override
-        public void dropIndexDefinitions( Label label, String propertyKey )
+        public void dropIndexDefinitions( Label label, String... propertyKeys )
         {
             try ( Statement statement = ctxProvider.instance() )
             {
                 int labelId = statement.readOperations().labelGetForName( label.name() );
-                int propertyKeyId = statement.readOperations().propertyKeyGetForName( propertyKey );
+                int[] propertyKeyIds = new int[propertyKeys.length];
+                boolean allPropertyKeysExist = true;
+                for ( int i = 0; i < propertyKeys.length; i++ )
+                {
+                    propertyKeyIds[i] = statement.readOperations().propertyKeyGetForName( propertyKeys[i] );
+                    allPropertyKeysExist &= propertyKeyIds[i] != KeyReadOperations.NO_SUCH_PROPERTY_KEY;
+                }
 
-                if ( labelId != KeyReadOperations.NO_SUCH_LABEL && propertyKeyId != KeyReadOperations
-                        .NO_SUCH_PROPERTY_KEY )
+                if ( labelId != KeyReadOperations.NO_SUCH_LABEL && allPropertyKeysExist )
                 {
-                    statement.schemaWriteOperations().indexDrop( statement.readOperations().indexesGetForLabelAndPropertyKey( labelId, propertyKeyId ) );
+                    IndexDescriptor descriptor = propertyKeyIds.length == 1
+                            ? statement.readOperations().indexesGetForLabelAndPropertyKey( labelId, propertyKeyIds[0] )
+                            : new IndexDescriptor( labelId, propertyKeyIds );
+                    statement.schemaWriteOperations().indexDrop( descriptor );
                 }
             }
             catch ( SchemaRuleNotFoundException | DropIndexFailureException e )
             {
                 throw new ConstraintViolationException( String.format(
-                        "Unable to drop index on label `%s` for property %s.", label.name(), propertyKey ), e );
+                        "Unable to drop index on label `%s` for property %s.", label.name(),
+                        propertyKeysDescription( asList( propertyKeys ) ) ), e );
             }
             catch ( InvalidTransactionTypeKernelException e )
             {
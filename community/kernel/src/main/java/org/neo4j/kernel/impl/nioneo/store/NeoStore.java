@@ -50,6 +50,7 @@ public class NeoStore extends AbstractStore
         extends AbstractStore.Configuration
     {
         public static final Setting<Integer> relationship_grab_size = GraphDatabaseSettings.relationship_grab_size;
+        public static final Setting<Integer> dense_node_threshold = GraphDatabaseSettings.dense_node_threshold;
     }
 
     public static final String TYPE_DESCRIPTOR = "NeoStore";
@@ -83,11 +84,13 @@ public class NeoStore extends AbstractStore
     private RelationshipTypeTokenStore relTypeStore;
     private LabelTokenStore labelTokenStore;
     private SchemaStore schemaStore;
+    private RelationshipGroupStore relGroupStore;
     private final TxHook txHook;
     private long lastCommittedTx = -1;
     private long latestConstraintIntroducingTx = -1;
 
     private final int REL_GRAB_SIZE;
+    private final int denseNodeThreshold;
 
     public NeoStore( File fileName, Config conf,
                      IdGeneratorFactory idGeneratorFactory, WindowPoolFactory windowPoolFactory,
@@ -95,7 +98,7 @@ public class NeoStore extends AbstractStore
                      StringLogger stringLogger, TxHook txHook,
                      RelationshipTypeTokenStore relTypeStore, LabelTokenStore labelTokenStore,
                      PropertyStore propStore, RelationshipStore relStore,
-                     NodeStore nodeStore, SchemaStore schemaStore )
+                     NodeStore nodeStore, SchemaStore schemaStore, RelationshipGroupStore relGroupStore )
     {
         super( fileName, conf, IdType.NEOSTORE_BLOCK, idGeneratorFactory, windowPoolFactory,
                 fileSystemAbstraction, stringLogger);
@@ -105,7 +108,9 @@ public class NeoStore extends AbstractStore
         this.relStore = relStore;
         this.nodeStore = nodeStore;
         this.schemaStore = schemaStore;
+        this.relGroupStore = relGroupStore;
         REL_GRAB_SIZE = conf.get( Configuration.relationship_grab_size );
+        denseNodeThreshold = conf.get( Configuration.dense_node_threshold );
         this.txHook = txHook;
 
         /* [MP:2012-01-03] Fix for the problem in 1.5.M02 where store version got upgraded but
@@ -269,13 +274,18 @@ public class NeoStore extends AbstractStore
             schemaStore.close();
             schemaStore = null;
         }
+        if ( relGroupStore != null )
+        {
+            relGroupStore.close();
+            relGroupStore = null;
+        }
     }
 
     @Override
     public void flushAll()
     {
         if ( relTypeStore == null || labelTokenStore == null || propStore == null || relStore == null ||
-                nodeStore == null || schemaStore == null )
+                nodeStore == null || schemaStore == null || relGroupStore == null )
         {
             return;
         }
@@ -286,6 +296,7 @@ public class NeoStore extends AbstractStore
         relStore.flushAll();
         nodeStore.flushAll();
         schemaStore.flushAll();
+        relGroupStore.flushAll();
     }
 
     @Override
@@ -431,6 +442,7 @@ public class NeoStore extends AbstractStore
             relTypeStore.setRecovered();
             labelTokenStore.setRecovered();
             schemaStore.setRecovered();
+            relGroupStore.setRecovered();
         }
         else
         {
@@ -441,6 +453,7 @@ public class NeoStore extends AbstractStore
             relTypeStore.unsetRecovered();
             labelTokenStore.unsetRecovered();
             schemaStore.unsetRecovered();
+            relGroupStore.unsetRecovered();
         }
     }
 
@@ -575,6 +588,16 @@ public class NeoStore extends AbstractStore
         return relStore;
     }
 
+    /**
+     * The relationship group store, keeping the relationships of dense nodes grouped by type.
+     *
+     * @return The relationship group store
+     */
+    public RelationshipGroupStore getRelationshipGroupStore()
+    {
+        return relGroupStore;
+    }
+
     /**
      * Returns the relationship type store.
      *
@@ -614,6 +637,7 @@ public class NeoStore extends AbstractStore
         relStore.makeStoreOk();
         nodeStore.makeStoreOk();
         schemaStore.makeStoreOk();
+        relGroupStore.makeStoreOk();
         super.makeStoreOk();
     }
 
@@ -626,6 +650,7 @@ public class NeoStore extends AbstractStore
         relStore.rebuildIdGenerators();
         nodeStore.rebuildIdGenerators();
         schemaStore.rebuildIdGenerators();
+        relGroupStore.rebuildIdGenerators();
         super.rebuildIdGenerators();
     }
 
@@ -638,6 +663,7 @@ public class NeoStore extends AbstractStore
         relStore.updateHighId();
         nodeStore.updateIdGenerators();
         schemaStore.updateHighId();
+        relGroupStore.updateHighId();
     }
 
     public int getRelationshipGrabSize()
@@ -645,6 +671,15 @@ public class NeoStore extends AbstractStore
         return REL_GRAB_SIZE;
     }
 
+    /**
+     * @return the number of relationships a node can have before its relationships are split up
+     * into {@link RelationshipGroupRecord relationship groups}.
+     */
+    public int getDenseNodeThreshold()
+    {
+        return denseNodeThreshold;
+    }
+
     @Override
     public List<WindowPoolStats> getAllWindowPoolStats()
     {
@@ -654,6 +689,7 @@ public class NeoStore extends AbstractStore
         list.addAll( nodeStore.getAllWindowPoolStats() );
         list.addAll( propStore.getAllWindowPoolStats() );
         list.addAll( relStore.getAllWindowPoolStats() );
+        list.addAll( relGroupStore.getAllWindowPoolStats() );
         list.addAll( relTypeStore.getAllWindowPoolStats() );
         list.addAll( labelTokenStore.getAllWindowPoolStats() );
         return list;
@@ -666,6 +702,7 @@ public class NeoStore extends AbstractStore
         // TODO no stats for schema store?
         nodeStore.logAllWindowPoolStats( logger );
         relStore.logAllWindowPoolStats( logger );
+        relGroupStore.logAllWindowPoolStats( logger );
         relTypeStore.logAllWindowPoolStats( logger );
         labelTokenStore.logAllWindowPoolStats( logger );
         propStore.logAllWindowPoolStats( logger );
@@ -674,7 +711,8 @@ public class NeoStore extends AbstractStore
     public boolean isStoreOk()
     {
         return getStoreOk() && relTypeStore.getStoreOk() && labelTokenStore.getStoreOk() &&
-            propStore.getStoreOk() && relStore.getStoreOk() && nodeStore.getStoreOk() && schemaStore.getStoreOk();
+            propStore.getStoreOk() && relStore.getStoreOk() && nodeStore.getStoreOk() && schemaStore.getStoreOk() &&
+            relGroupStore.getStoreOk();
     }
 
     @Override
@@ -686,6 +724,7 @@ public class NeoStore extends AbstractStore
         schemaStore.logVersions( msgLog );
         nodeStore.logVersions( msgLog );
         relStore.logVersions( msgLog );
+        relGroupStore.logVersions( msgLog );
         relTypeStore.logVersions( msgLog );
         labelTokenStore.logVersions( msgLog );
         propStore.logVersions( msgLog );
@@ -700,6 +739,7 @@ public class NeoStore extends AbstractStore
         schemaStore.logIdUsage( msgLog );
         nodeStore.logIdUsage( msgLog );
         relStore.logIdUsage( msgLog );
+        relGroupStore.logIdUsage( msgLog );
         relTypeStore.logIdUsage( msgLog );
         labelTokenStore.logIdUsage( msgLog );
         propStore.logIdUsage( msgLog );
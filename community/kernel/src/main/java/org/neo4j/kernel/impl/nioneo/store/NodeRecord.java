@@ -34,6 +34,7 @@ public class NodeRecord extends PrimitiveRecord
     private long labels;
     private Collection<DynamicRecord> dynamicLabelRecords = emptyList();
     private boolean isLight = true;
+    private boolean dense;
 
     public NodeRecord( long id, long nextRel, long nextProp )
     {
@@ -51,6 +52,20 @@ public class NodeRecord extends PrimitiveRecord
         this.nextRel = nextRel;
     }
 
+    /**
+     * @return whether or not this node is dense, i.e. if {@link #getNextRel()} points to the first
+     * {@link RelationshipGroupRecord relationship group} of this node instead of its first relationship.
+     */
+    public boolean isDense()
+    {
+        return dense;
+    }
+
+    public void setDense( boolean dense )
+    {
+        this.dense = dense;
+    }
+
     public long getCommittedNextRel()
     {
         return isCreated() ? Record.NO_NEXT_RELATIONSHIP.intValue() : committedNextRel;
@@ -94,7 +109,7 @@ public class NodeRecord extends PrimitiveRecord
     {
         StringBuilder builder = new StringBuilder( "Node[" ).append( getId() )
                 .append( ",used=" ).append( inUse() )
-                .append( ",rel=" ).append( nextRel )
+                .append( dense ? ",group=" : ",rel=" ).append( nextRel )
                 .append( ",prop=" ).append( getNextProp() )
                 .append( ",labels=" ).append( parseLabelsField( this ) )
                 .append( "," ).append( isLight ? "light" : "heavy" );
@@ -119,6 +134,7 @@ public class NodeRecord extends PrimitiveRecord
         clone.nextRel = nextRel;
         clone.labels = labels;
         clone.isLight = isLight;
+        clone.dense = dense;
         clone.setInUse( inUse() );
 
         if( dynamicLabelRecords.size() > 0 )
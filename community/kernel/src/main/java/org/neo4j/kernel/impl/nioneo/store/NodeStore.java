@@ -65,8 +65,8 @@ public class NodeStore extends AbstractRecordStore<NodeRecord> implements Store
 
     public static final String TYPE_DESCRIPTOR = "NodeStore";
 
-    // in_use(byte)+next_rel_id(int)+next_prop_id(int)+labels(5)
-    public static final int RECORD_SIZE = 14;
+    // in_use(byte)+next_rel_id(int)+next_prop_id(int)+labels(5)+extra(byte)
+    public static final int RECORD_SIZE = 15;
 
     private DynamicArrayStore dynamicLabelStore;
 
@@ -255,9 +255,14 @@ public class NodeStore extends AbstractRecordStore<NodeRecord> implements Store
         long hsbLabels = buffer.get() & 0xFF; // so that a negative bye won't fill the "extended" bits with ones.
         long labels = lsbLabels | (hsbLabels << 32);
 
+        // [    ,   x] dense
+        byte extra = buffer.get();
+        boolean dense = (extra & 0x1) > 0;
+
         NodeRecord nodeRecord = new NodeRecord( id, longFromIntAndMod( nextRel, relModifier ),
                 longFromIntAndMod( nextProp, propModifier ) );
         nodeRecord.setInUse( inUse );
+        nodeRecord.setDense( dense );
         nodeRecord.setLabelField( labels, Collections.<DynamicRecord>emptyList() );
 
         return nodeRecord;
@@ -288,6 +293,10 @@ public class NodeStore extends AbstractRecordStore<NodeRecord> implements Store
             buffer.putInt( (int) labelField );
             // msb of labels
             buffer.put( (byte) ((labelField&0xFF00000000L) >> 32) );
+
+            // [    ,   x] dense
+            byte extra = record.isDense() ? (byte)1 : (byte)0;
+            buffer.put( extra );
         }
         else
         {
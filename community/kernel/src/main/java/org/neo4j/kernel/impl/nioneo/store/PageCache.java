@@ -0,0 +1,447 @@
+/**
+ * Copyright (c) 2002-2013 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.nioneo.store;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A fixed amount of off-heap memory, divided into equally sized pages, shared by the
+ * {@link PageCacheWindowPool window pools} of all stores. Each pool keeps its own
+ * translation table from page id to {@link Page} and pages are handed from pool to pool
+ * by a clock sweep, so that the memory budget is global rather than split up per store.
+ * <p>
+ * A page is pinned by a compare-and-set on its state: any number of readers may pin a
+ * page at the same time, while a writer pins it exclusively. A page can only be evicted
+ * when it isn't pinned at all, and dirty pages are written back either when evicted or
+ * by {@link #flushDirtyPages() background flushing}.
+ */
+public class PageCache
+{
+    static final int NOT_PINNED = 0;
+    static final int PINNED_SHARED = 1;
+    static final int PINNED_EXCLUSIVE = 2;
+
+    private static final int MAX_USAGE = 4;
+    private static final long DEFAULT_EVICTION_TIMEOUT_MILLIS = 10000;
+
+    private final int pageSize;
+    private final long evictionTimeoutMillis;
+    private final AtomicReferenceArray<Page> pages;
+    private final AtomicInteger allocatedPages = new AtomicInteger();
+    private final AtomicInteger clockHand = new AtomicInteger();
+    private volatile int maxPages;
+
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    /**
+     * @param memory the total number of bytes that all pages together may occupy.
+     * @param pageSize the size of each page, in bytes.
+     */
+    public PageCache( long memory, int pageSize )
+    {
+        this( memory, pageSize, DEFAULT_EVICTION_TIMEOUT_MILLIS );
+    }
+
+    PageCache( long memory, int pageSize, long evictionTimeoutMillis )
+    {
+        if ( pageSize <= 0 )
+        {
+            throw new IllegalArgumentException( "Illegal page size " + pageSize );
+        }
+        long pageCount = memory / pageSize;
+        if ( pageCount < 1 )
+        {
+            throw new IllegalArgumentException( "Memory " + memory + " cannot hold a single page of size " +
+                    pageSize );
+        }
+        this.pageSize = pageSize;
+        this.evictionTimeoutMillis = evictionTimeoutMillis;
+        this.maxPages = (int) Math.min( pageCount, Integer.MAX_VALUE );
+        this.pages = new AtomicReferenceArray<>( maxPages );
+    }
+
+    public int getPageSize()
+    {
+        return pageSize;
+    }
+
+    public long getMemoryAvailable()
+    {
+        return (long) maxPages * pageSize;
+    }
+
+    public long getMemoryUsed()
+    {
+        return (long) Math.min( allocatedPages.get(), maxPages ) * pageSize;
+    }
+
+    public long getEvictionCount()
+    {
+        return evictions.get();
+    }
+
+    /**
+     * @return the number of times a pool found the page it was asked for in this cache, across all stores.
+     */
+    public long getHitCount()
+    {
+        return hits.get();
+    }
+
+    /**
+     * @return the number of times a pool had to read a page from its store file, across all stores.
+     */
+    public long getMissCount()
+    {
+        return misses.get();
+    }
+
+    void hit()
+    {
+        hits.incrementAndGet();
+    }
+
+    void miss()
+    {
+        misses.incrementAndGet();
+    }
+
+    /**
+     * Claims a page that isn't bound to any pool. Memory is allocated for new pages until
+     * the budget is used up, after that the least recently used unpinned page is evicted.
+     * If every page stays pinned for too long, the claim fails rather than waiting forever.
+     * The returned page is exclusively held by the caller and must either be
+     * {@link Page#pinLoaded(boolean) pinned} or {@link #free(Page) freed}.
+     */
+    Page claim()
+    {
+        Page page = allocate();
+        return page != null ? page : evict();
+    }
+
+    /**
+     * Returns a claimed page, which isn't bound to any pool, to the cache.
+     */
+    void free( Page page )
+    {
+        page.unbind();
+        page.state.set( 0 );
+    }
+
+    /**
+     * Writes all dirty pages that aren't pinned by a writer back to their store files,
+     * without forcing them to disk. This keeps the number of dirty pages that an eviction
+     * may run into low and is meant to be called regularly from a background thread.
+     */
+    public void flushDirtyPages()
+    {
+        int count = Math.min( allocatedPages.get(), pages.length() );
+        for ( int i = 0; i < count; i++ )
+        {
+            Page page = pages.get( i );
+            if ( page != null && page.dirty )
+            {
+                PageCacheWindowPool pool = page.pool;
+                if ( pool != null )
+                {
+                    pool.flush( page );
+                }
+            }
+        }
+    }
+
+    private Page allocate()
+    {
+        while ( true )
+        {
+            int index = allocatedPages.get();
+            if ( index >= maxPages )
+            {
+                return null;
+            }
+            if ( allocatedPages.compareAndSet( index, index + 1 ) )
+            {
+                ByteBuffer buffer;
+                try
+                {
+                    buffer = ByteBuffer.allocateDirect( pageSize );
+                }
+                catch ( OutOfMemoryError e )
+                {
+                    if ( index == 0 )
+                    {
+                        throw new UnderlyingStorageException( "Unable to allocate any page cache memory", e );
+                    }
+                    // Less direct memory available than configured, settle with what we've got so far
+                    maxPages = Math.min( maxPages, index );
+                    return null;
+                }
+                Page page = new Page( buffer );
+                pages.set( index, page );
+                return page;
+            }
+        }
+    }
+
+    private Page evict()
+    {
+        long deadline = 0;
+        int visited = 0;
+        while ( true )
+        {
+            int count = Math.min( allocatedPages.get(), pages.length() );
+            if ( ++visited > count * (MAX_USAGE + 1) )
+            {
+                // Enough laps to have worn down the usage of every page, so they're all pinned
+                deadline = awaitUnpinnedPage( deadline, count );
+                visited = 0;
+            }
+            int index = (clockHand.getAndIncrement() & Integer.MAX_VALUE) % count;
+            Page page = pages.get( index );
+            if ( page == null )
+            {
+                continue;
+            }
+            if ( page.usage > 0 )
+            {
+                page.usage--;
+            }
+            else if ( page.state.compareAndSet( 0, Page.EVICTING ) )
+            {
+                PageCacheWindowPool pool = page.pool;
+                if ( pool != null )
+                {
+                    try
+                    {
+                        pool.evicted( page );
+                    }
+                    catch ( RuntimeException e )
+                    {
+                        page.state.set( 0 );
+                        throw e;
+                    }
+                }
+                page.unbind();
+                evictions.incrementAndGet();
+                return page;
+            }
+        }
+    }
+
+    /**
+     * Gives the page holders a chance to finish, by backing off for a moment.
+     *
+     * @return the time by which a page must have become available.
+     * @throws UnderlyingStorageException if no page became available in time.
+     */
+    private long awaitUnpinnedPage( long deadline, int count )
+    {
+        long now = System.currentTimeMillis();
+        if ( deadline == 0 )
+        {
+            deadline = now + evictionTimeoutMillis;
+        }
+        else if ( now > deadline )
+        {
+            throw new UnderlyingStorageException( "Unable to evict a page, all " + count + " pages of the page " +
+                    "cache have been pinned for more than " + evictionTimeoutMillis + "ms" );
+        }
+        LockSupport.parkNanos( TimeUnit.MILLISECONDS.toNanos( 1 ) );
+        return deadline;
+    }
+
+    /**
+     * A page of memory, which is either free or bound to a page of a store file.
+     */
+    static class Page
+    {
+        private static final int EXCLUSIVE = -1;
+        private static final int EVICTING = -2;
+
+        /*
+         * The pages the current thread has pinned shared, so that a thread asking to pin one of them exclusively
+         * is told off, rather than left waiting for itself forever.
+         */
+        private static final ThreadLocal<List<Page>> sharedPins = new ThreadLocal<List<Page>>()
+        {
+            @Override
+            protected List<Page> initialValue()
+            {
+                return new ArrayList<>();
+            }
+        };
+
+        final ByteBuffer buffer;
+
+        /**
+         * The number of readers holding this page, or {@link #EXCLUSIVE} if a writer
+         * holds it, or {@link #EVICTING} while it is being evicted or loaded.
+         */
+        private final AtomicInteger state = new AtomicInteger( EVICTING );
+        private volatile Thread exclusiveOwner;
+        private int exclusiveHolds;
+
+        volatile PageCacheWindowPool pool;
+        volatile long pageId = -1;
+        volatile boolean dirty;
+        volatile int usage;
+
+        Page( ByteBuffer buffer )
+        {
+            this.buffer = buffer;
+        }
+
+        void bind( PageCacheWindowPool pool, long pageId )
+        {
+            this.pageId = pageId;
+            this.pool = pool;
+            this.dirty = false;
+            this.usage = 1;
+        }
+
+        void unbind()
+        {
+            this.pool = null;
+            this.pageId = -1;
+            this.dirty = false;
+        }
+
+        boolean isBoundTo( PageCacheWindowPool pool, long pageId )
+        {
+            return this.pool == pool && this.pageId == pageId;
+        }
+
+        void touch()
+        {
+            if ( usage < MAX_USAGE )
+            {
+                usage++;
+            }
+        }
+
+        /**
+         * Tries to pin this page without blocking. A thread that holds the page exclusively
+         * may pin it again, in which case the nested pin is exclusive as well. A shared pin
+         * can't be upgraded though.
+         *
+         * @return {@link #NOT_PINNED}, {@link #PINNED_SHARED} or {@link #PINNED_EXCLUSIVE}.
+         * @throws IllegalStateException if asking for an exclusive pin while holding a shared one.
+         */
+        int tryPin( boolean exclusive )
+        {
+            while ( true )
+            {
+                int current = state.get();
+                if ( current == EXCLUSIVE )
+                {
+                    if ( exclusiveOwner == Thread.currentThread() )
+                    {
+                        exclusiveHolds++;
+                        return PINNED_EXCLUSIVE;
+                    }
+                    return NOT_PINNED;
+                }
+                if ( current < 0 )
+                {
+                    return NOT_PINNED;
+                }
+                if ( exclusive && current > 0 )
+                {
+                    if ( sharedPins.get().contains( this ) )
+                    {
+                        throw new IllegalStateException( "Can't pin page " + pageId + " exclusively while " +
+                                "holding a shared pin of it" );
+                    }
+                    return NOT_PINNED;
+                }
+                if ( exclusive )
+                {
+                    if ( state.compareAndSet( 0, EXCLUSIVE ) )
+                    {
+                        exclusiveOwner = Thread.currentThread();
+                        exclusiveHolds = 1;
+                        return PINNED_EXCLUSIVE;
+                    }
+                }
+                else if ( state.compareAndSet( current, current + 1 ) )
+                {
+                    sharedPins.get().add( this );
+                    return PINNED_SHARED;
+                }
+            }
+        }
+
+        /**
+         * Turns the hold of a freshly {@link PageCache#claim() claimed} and loaded page into a pin.
+         */
+        int pinLoaded( boolean exclusive )
+        {
+            if ( exclusive )
+            {
+                exclusiveOwner = Thread.currentThread();
+                exclusiveHolds = 1;
+                state.set( EXCLUSIVE );
+                return PINNED_EXCLUSIVE;
+            }
+            sharedPins.get().add( this );
+            state.set( 1 );
+            return PINNED_SHARED;
+        }
+
+        void unpin( int pin )
+        {
+            if ( pin == PINNED_SHARED )
+            {
+                sharedPins.get().remove( this );
+                state.decrementAndGet();
+            }
+            else if ( --exclusiveHolds == 0 )
+            {
+                exclusiveOwner = null;
+                state.set( 0 );
+            }
+        }
+
+        /**
+         * Waits until no one has this page pinned and then holds it for eviction.
+         */
+        void lockForEviction()
+        {
+            while ( !state.compareAndSet( 0, EVICTING ) )
+            {
+                Thread.yield();
+            }
+        }
+
+        void unlockAfterEviction()
+        {
+            state.set( 0 );
+        }
+    }
+}
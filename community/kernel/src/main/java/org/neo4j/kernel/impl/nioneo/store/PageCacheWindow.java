@@ -0,0 +1,105 @@
+/**
+ * Copyright (c) 2002-2013 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.nioneo.store;
+
+import java.nio.ByteBuffer;
+
+import org.neo4j.kernel.impl.nioneo.store.PageCache.Page;
+
+/**
+ * A view of a pinned {@link Page}, handed out by {@link PageCacheWindowPool}. Every acquired
+ * window has its own buffer position, which is what lets readers share pages without locking.
+ */
+class PageCacheWindow implements PersistenceWindow
+{
+    private final Page page;
+    private final int pin;
+    private final long position;
+    private final int size;
+    private final int recordSize;
+    private final Buffer buffer;
+
+    PageCacheWindow( Page page, int pin, long position, int size, int recordSize )
+    {
+        this.page = page;
+        this.pin = pin;
+        this.position = position;
+        this.size = size;
+        this.recordSize = recordSize;
+        ByteBuffer view = page.buffer.duplicate();
+        view.clear().limit( size * recordSize );
+        this.buffer = new Buffer( this, view );
+    }
+
+    void unpin()
+    {
+        page.unpin( pin );
+    }
+
+    @Override
+    public Buffer getBuffer()
+    {
+        return buffer;
+    }
+
+    @Override
+    public Buffer getOffsettedBuffer( long id )
+    {
+        int offset = (int) (id - position) * recordSize;
+        buffer.setOffset( offset );
+        return buffer;
+    }
+
+    @Override
+    public int getRecordSize()
+    {
+        return recordSize;
+    }
+
+    @Override
+    public long position()
+    {
+        return position;
+    }
+
+    @Override
+    public int size()
+    {
+        return size;
+    }
+
+    @Override
+    public void force()
+    {
+        // Changes are written back by the page cache, when flushing or evicting the page
+    }
+
+    @Override
+    public void close()
+    {
+        // The page belongs to the page cache, there's nothing to close for a view of it
+    }
+
+    @Override
+    public String toString()
+    {
+        return "PageCacheWindow[" + position + "]";
+    }
+}
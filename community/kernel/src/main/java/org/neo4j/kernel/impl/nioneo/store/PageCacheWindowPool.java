@@ -0,0 +1,316 @@
+/**
+ * Copyright (c) 2002-2013 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.nioneo.store;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.neo4j.kernel.impl.nioneo.store.PageCache.Page;
+import org.neo4j.kernel.impl.nioneo.store.windowpool.WindowPool;
+
+import static org.neo4j.kernel.impl.nioneo.store.PageCache.NOT_PINNED;
+
+/**
+ * A {@link WindowPool} for one store file that keeps its pages in a {@link PageCache} shared
+ * with the pools of other stores. Unlike {@link PersistenceWindowPool} readers don't lock the
+ * windows they acquire, each acquired window is a separate view of a pinned page, so any
+ * number of readers can work on the same page concurrently. Writers pin pages exclusively.
+ */
+public class PageCacheWindowPool implements WindowPool
+{
+    private static final byte[] ZEROES = new byte[4096];
+
+    private final File storeName;
+    private final int recordSize;
+    private final int recordsPerPage;
+    private final int bytesPerPage;
+    private final FileChannel fileChannel;
+    private final PageCache pageCache;
+    private final boolean readOnly;
+    private final ConcurrentMap<Long, Page> pages = new ConcurrentHashMap<>();
+
+    // It's OK to miss some updates for these statistics
+    private int hit;
+    private int miss;
+
+    public PageCacheWindowPool( File storeName, int recordSize, FileChannel fileChannel, PageCache pageCache,
+                                boolean readOnly )
+    {
+        if ( recordSize <= 0 || recordSize > pageCache.getPageSize() )
+        {
+            throw new IllegalArgumentException( "Record size " + recordSize + " of " + storeName +
+                    " is not in the valid range [1-" + pageCache.getPageSize() + "]" );
+        }
+        this.storeName = storeName;
+        this.recordSize = recordSize;
+        this.recordsPerPage = pageCache.getPageSize() / recordSize;
+        this.bytesPerPage = recordsPerPage * recordSize;
+        this.fileChannel = fileChannel;
+        this.pageCache = pageCache;
+        this.readOnly = readOnly;
+    }
+
+    /**
+     * @throws IllegalStateException if asking for a {@link OperationType#WRITE write} window of a page that the
+     * calling thread holds a read window of, since the write would wait for the read window to be released.
+     */
+    @Override
+    public PersistenceWindow acquire( long position, OperationType operationType )
+    {
+        long pageId = position / recordsPerPage;
+        boolean exclusive = operationType == OperationType.WRITE;
+        while ( true )
+        {
+            int pin;
+            Page page = pages.get( pageId );
+            if ( page == null )
+            {
+                page = pageCache.claim();
+                page.bind( this, pageId );
+                if ( pages.putIfAbsent( pageId, page ) != null )
+                {
+                    // Someone else faulted in this page before us, go for that one instead
+                    pageCache.free( page );
+                    continue;
+                }
+                try
+                {
+                    load( page );
+                }
+                catch ( RuntimeException e )
+                {
+                    pages.remove( pageId, page );
+                    pageCache.free( page );
+                    throw e;
+                }
+                pin = page.pinLoaded( exclusive );
+                miss++;
+                pageCache.miss();
+            }
+            else
+            {
+                pin = page.tryPin( exclusive );
+                if ( pin == NOT_PINNED )
+                {
+                    // Pinned by a writer or in the middle of being evicted, try again
+                    Thread.yield();
+                    continue;
+                }
+                if ( !page.isBoundTo( this, pageId ) )
+                {
+                    page.unpin( pin );
+                    continue;
+                }
+                page.touch();
+                hit++;
+                pageCache.hit();
+            }
+            if ( exclusive )
+            {
+                page.dirty = true;
+            }
+            return new PageCacheWindow( page, pin, pageId * recordsPerPage, recordsPerPage, recordSize );
+        }
+    }
+
+    @Override
+    public void release( PersistenceWindow window )
+    {
+        ((PageCacheWindow) window).unpin();
+    }
+
+    @Override
+    public void flushAll()
+    {
+        if ( readOnly )
+        {
+            return;
+        }
+        for ( Map.Entry<Long, Page> entry : pages.entrySet() )
+        {
+            flushWhenUnpinned( entry.getValue(), entry.getKey() );
+        }
+        try
+        {
+            fileChannel.force( false );
+        }
+        catch ( IOException e )
+        {
+            throw new UnderlyingStorageException( "Failed to flush file channel " + storeName, e );
+        }
+    }
+
+    @Override
+    public void close()
+    {
+        flushAll();
+        for ( Page page : pages.values() )
+        {
+            page.lockForEviction();
+            if ( page.pool == this )
+            {
+                evicted( page );
+                pageCache.free( page );
+            }
+            else
+            {
+                // Evicted by someone else while we were waiting, in which case it's theirs now
+                page.unlockAfterEviction();
+            }
+        }
+    }
+
+    @Override
+    public WindowPoolStats getStats()
+    {
+        int pageCount = pages.size();
+        return new WindowPoolStats( storeName, pageCache.getMemoryAvailable(), (long) pageCount * bytesPerPage,
+                pageCount, bytesPerPage, hit, miss, 0,
+                (int) Math.min( pageCache.getEvictionCount(), Integer.MAX_VALUE ), 0, 0, 0 );
+    }
+
+    /**
+     * Writes the page back to the store file, if it's dirty and isn't pinned by a writer.
+     */
+    void flush( Page page )
+    {
+        if ( readOnly )
+        {
+            return;
+        }
+        int pin = page.tryPin( false );
+        if ( pin != NOT_PINNED )
+        {
+            flushPinned( page, page.pageId, pin );
+        }
+    }
+
+    /**
+     * Writes the page back to the store file if it's dirty, waiting for a writer holding it to finish first.
+     */
+    private void flushWhenUnpinned( Page page, long pageId )
+    {
+        while ( true )
+        {
+            int pin = page.tryPin( false );
+            if ( pin != NOT_PINNED )
+            {
+                flushPinned( page, pageId, pin );
+                return;
+            }
+            if ( !page.isBoundTo( this, pageId ) )
+            {
+                // Evicted, which has written it back already
+                return;
+            }
+            Thread.yield();
+        }
+    }
+
+    private void flushPinned( Page page, long pageId, int pin )
+    {
+        try
+        {
+            if ( page.isBoundTo( this, pageId ) && page.dirty )
+            {
+                write( page );
+            }
+        }
+        finally
+        {
+            page.unpin( pin );
+        }
+    }
+
+    /**
+     * Called for a page of this pool that the {@link PageCache} has chosen to evict.
+     */
+    void evicted( Page page )
+    {
+        if ( page.dirty && !readOnly )
+        {
+            write( page );
+        }
+        pages.remove( page.pageId, page );
+    }
+
+    private void load( Page page )
+    {
+        ByteBuffer buffer = page.buffer.duplicate();
+        buffer.clear().limit( bytesPerPage );
+        long offset = page.pageId * bytesPerPage;
+        try
+        {
+            while ( buffer.hasRemaining() )
+            {
+                int read = fileChannel.read( buffer, offset + buffer.position() );
+                if ( read == -1 )
+                {
+                    break;
+                }
+            }
+        }
+        catch ( IOException e )
+        {
+            throw new UnderlyingStorageException( "Unable to load position[" + page.pageId * recordsPerPage +
+                    "] @[" + offset + "]", e );
+        }
+        // Whatever wasn't in the file is zeroes, not what the previous owner of this page left behind
+        while ( buffer.hasRemaining() )
+        {
+            buffer.put( ZEROES, 0, Math.min( ZEROES.length, buffer.remaining() ) );
+        }
+    }
+
+    private void write( Page page )
+    {
+        page.dirty = false;
+        ByteBuffer buffer = page.buffer.duplicate();
+        buffer.clear().limit( bytesPerPage );
+        long offset = page.pageId * bytesPerPage;
+        try
+        {
+            while ( buffer.hasRemaining() )
+            {
+                if ( fileChannel.write( buffer, offset + buffer.position() ) == 0 )
+                {
+                    throw new IOException( "Unable to write to disk, reported bytes written was 0" );
+                }
+            }
+        }
+        catch ( IOException e )
+        {
+            page.dirty = true;
+            throw new UnderlyingStorageException( "Unable to write position[" + page.pageId * recordsPerPage +
+                    "] @[" + offset + "]", e );
+        }
+    }
+
+    @Override
+    public String toString()
+    {
+        return getClass().getSimpleName() + "[" + storeName + "]";
+    }
+}
@@ -0,0 +1,111 @@
+/**
+ * Copyright (c) 2002-2013 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.nioneo.store;
+
+import java.io.File;
+import java.nio.channels.FileChannel;
+import java.util.concurrent.TimeUnit;
+
+import org.neo4j.graphdb.factory.GraphDatabaseSettings;
+import org.neo4j.kernel.configuration.Config;
+import org.neo4j.kernel.impl.nioneo.store.windowpool.WindowPool;
+import org.neo4j.kernel.impl.nioneo.store.windowpool.WindowPoolFactory;
+import org.neo4j.kernel.impl.util.JobScheduler;
+import org.neo4j.kernel.impl.util.StringLogger;
+import org.neo4j.kernel.lifecycle.LifecycleAdapter;
+
+/**
+ * Creates {@link PageCacheWindowPool window pools} that all share one {@link PageCache}, sized by
+ * {@link GraphDatabaseSettings#all_stores_total_mapped_memory_size} instead of per store mapped memory
+ * settings. While started, dirty pages are flushed in the background through the given {@link JobScheduler}.
+ * Stores with records that don't fit in a page get a regular {@link PersistenceWindowPool}.
+ */
+public class PageCacheWindowPoolFactory extends LifecycleAdapter implements WindowPoolFactory
+{
+    private static final long FLUSH_INTERVAL_MILLIS = 1000;
+
+    private final PageCache pageCache;
+    private final JobScheduler scheduler;
+    private final WindowPoolFactory fallback = new DefaultWindowPoolFactory();
+    private FlushJob flushJob;
+
+    public PageCacheWindowPoolFactory( Config config, JobScheduler scheduler )
+    {
+        this( new PageCache( config.get( GraphDatabaseSettings.all_stores_total_mapped_memory_size ),
+                config.get( GraphDatabaseSettings.shared_page_cache_page_size ).intValue() ), scheduler );
+    }
+
+    public PageCacheWindowPoolFactory( PageCache pageCache, JobScheduler scheduler )
+    {
+        this.pageCache = pageCache;
+        this.scheduler = scheduler;
+    }
+
+    public PageCache getPageCache()
+    {
+        return pageCache;
+    }
+
+    @Override
+    public WindowPool create( File storageFileName, int recordSize, FileChannel fileChannel, Config configuration,
+                              StringLogger log )
+    {
+        if ( recordSize > pageCache.getPageSize() )
+        {
+            log.info( "Record size " + recordSize + " of " + storageFileName + " exceeds the page size " +
+                    pageCache.getPageSize() + " of the shared page cache, using memory mapped windows instead" );
+            return fallback.create( storageFileName, recordSize, fileChannel, configuration, log );
+        }
+        boolean readOnly = configuration.get( CommonAbstractStore.Configuration.read_only ) &&
+                !configuration.get( CommonAbstractStore.Configuration.backup_slave );
+        return new PageCacheWindowPool( storageFileName, recordSize, fileChannel, pageCache, readOnly );
+    }
+
+    @Override
+    public synchronized void start()
+    {
+        flushJob = new FlushJob();
+        scheduler.scheduleRecurring( flushJob, FLUSH_INTERVAL_MILLIS, TimeUnit.MILLISECONDS );
+    }
+
+    @Override
+    public synchronized void stop()
+    {
+        if ( flushJob != null )
+        {
+            flushJob.stopped = true;
+            flushJob = null;
+        }
+    }
+
+    private class FlushJob implements Runnable
+    {
+        private volatile boolean stopped;
+
+        @Override
+        public void run()
+        {
+            if ( !stopped )
+            {
+                pageCache.flushDirtyPages();
+            }
+        }
+    }
+}
@@ -29,6 +29,8 @@ import org.neo4j.helpers.collection.PrefetchingIterator;
 import org.neo4j.helpers.progress.ProgressListener;
 import org.neo4j.kernel.IdType;
 
+import static java.lang.Math.min;
+
 public interface RecordStore<R extends AbstractBaseRecord>
 {
     File getStorageFileName();
@@ -96,6 +98,12 @@ public interface RecordStore<R extends AbstractBaseRecord>
             processRecord( RelationshipRecord.class, store, rel );
         }
 
+        public void processRelationshipGroup( RecordStore<RelationshipGroupRecord> store,
+                RelationshipGroupRecord record ) throws FAILURE
+        {
+            processRecord( RelationshipGroupRecord.class, store, record );
+        }
+
         public void processProperty( RecordStore<PropertyRecord> store, PropertyRecord property ) throws FAILURE
         {
             processRecord( PropertyRecord.class, store, property );
@@ -148,6 +156,17 @@ public interface RecordStore<R extends AbstractBaseRecord>
         @SafeVarargs
         public final <R extends AbstractBaseRecord> Iterable<R> scan( final RecordStore<R> store,
                 final Predicate<? super R>... filters )
+        {
+            return scan( store, 0, Long.MAX_VALUE, filters );
+        }
+
+        /**
+         * Like {@link #scan(RecordStore, Predicate[])}, but only for the records with ids in the given, inclusive,
+         * range.
+         */
+        @SafeVarargs
+        public final <R extends AbstractBaseRecord> Iterable<R> scan( final RecordStore<R> store,
+                final long fromId, final long toId, final Predicate<? super R>... filters )
         {
             return new Iterable<R>()
             {
@@ -156,8 +175,8 @@ public interface RecordStore<R extends AbstractBaseRecord>
                 {
                     return new PrefetchingIterator<R>()
                     {
-                        final long highId = store.getHighId();
-                        int id = 0;
+                        final long highId = min( store.getHighId(), toId );
+                        long id = fromId;
 
                         @Override
                         protected R fetchNextOrNull()
@@ -217,6 +236,15 @@ public interface RecordStore<R extends AbstractBaseRecord>
             apply( store, progressListener, filters );
         }
 
+        public <R extends AbstractBaseRecord> void applyFilteredInRange( RecordStore<R> store, long fromId, long toId,
+                Predicate<? super R>... filters ) throws FAILURE
+        {
+            for ( R record : scan( store, fromId, toId, filters ) )
+            {
+                store.accept( this, record );
+            }
+        }
+
         private <R extends AbstractBaseRecord> void apply( RecordStore<R> store, ProgressListener progressListener,
                 Predicate<? super R>... filters ) throws FAILURE
         {
@@ -0,0 +1,199 @@
+/**
+ * Copyright (c) 2002-2013 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.nioneo.store;
+
+/**
+ * A group of relationships of one type for a dense node. Each group keeps the heads of three chains,
+ * outgoing, incoming and loops, together with the number of relationships in each of them, and groups
+ * of a node are linked together in order of type.
+ */
+public class RelationshipGroupRecord extends Abstract64BitRecord
+{
+    private int type;
+    private long next = Record.NO_NEXT_RELATIONSHIP.intValue();
+    private long firstOut = Record.NO_NEXT_RELATIONSHIP.intValue();
+    private long firstIn = Record.NO_NEXT_RELATIONSHIP.intValue();
+    private long firstLoop = Record.NO_NEXT_RELATIONSHIP.intValue();
+    private long owningNode = Record.NO_NEXT_RELATIONSHIP.intValue();
+    private int outCount;
+    private int inCount;
+    private int loopCount;
+
+    // Not stored, just kept in memory while a transaction unlinks this group from its node
+    private long prev = Record.NO_NEXT_RELATIONSHIP.intValue();
+
+    public RelationshipGroupRecord( long id, int type )
+    {
+        super( id );
+        this.type = type;
+    }
+
+    public RelationshipGroupRecord( long id, int type, long next, long firstOut, long firstIn, long firstLoop,
+            long owningNode )
+    {
+        this( id, type );
+        this.next = next;
+        this.firstOut = firstOut;
+        this.firstIn = firstIn;
+        this.firstLoop = firstLoop;
+        this.owningNode = owningNode;
+    }
+
+    public int getType()
+    {
+        return type;
+    }
+
+    public void setType( int type )
+    {
+        this.type = type;
+    }
+
+    public long getFirstOut()
+    {
+        return firstOut;
+    }
+
+    public void setFirstOut( long firstOut )
+    {
+        this.firstOut = firstOut;
+    }
+
+    public long getFirstIn()
+    {
+        return firstIn;
+    }
+
+    public void setFirstIn( long firstIn )
+    {
+        this.firstIn = firstIn;
+    }
+
+    public long getFirstLoop()
+    {
+        return firstLoop;
+    }
+
+    public void setFirstLoop( long firstLoop )
+    {
+        this.firstLoop = firstLoop;
+    }
+
+    public long getNext()
+    {
+        return next;
+    }
+
+    public void setNext( long next )
+    {
+        this.next = next;
+    }
+
+    public long getPrev()
+    {
+        return prev;
+    }
+
+    public void setPrev( long prev )
+    {
+        this.prev = prev;
+    }
+
+    public long getOwningNode()
+    {
+        return owningNode;
+    }
+
+    public void setOwningNode( long owningNode )
+    {
+        this.owningNode = owningNode;
+    }
+
+    public int getOutCount()
+    {
+        return outCount;
+    }
+
+    public void setOutCount( int outCount )
+    {
+        this.outCount = outCount;
+    }
+
+    public int getInCount()
+    {
+        return inCount;
+    }
+
+    public void setInCount( int inCount )
+    {
+        this.inCount = inCount;
+    }
+
+    public int getLoopCount()
+    {
+        return loopCount;
+    }
+
+    public void setLoopCount( int loopCount )
+    {
+        this.loopCount = loopCount;
+    }
+
+    /**
+     * @return {@code true} if none of the chains in this group have any relationships in them.
+     */
+    public boolean isEmpty()
+    {
+        return firstOut == Record.NO_NEXT_RELATIONSHIP.intValue() &&
+                firstIn == Record.NO_NEXT_RELATIONSHIP.intValue() &&
+                firstLoop == Record.NO_NEXT_RELATIONSHIP.intValue();
+    }
+
+    @Override
+    public String toString()
+    {
+        return new StringBuilder( "RelationshipGroup[" ).append( getId() )
+                .append( ",used=" ).append( inUse() )
+                .append( ",type=" ).append( type )
+                .append( ",out=" ).append( firstOut )
+                .append( ",in=" ).append( firstIn )
+                .append( ",loop=" ).append( firstLoop )
+                .append( ",outCount=" ).append( outCount )
+                .append( ",inCount=" ).append( inCount )
+                .append( ",loopCount=" ).append( loopCount )
+                .append( ",prev=" ).append( prev )
+                .append( ",next=" ).append( next )
+                .append( ",owner=" ).append( owningNode )
+                .append( "]" ).toString();
+    }
+
+    @Override
+    public RelationshipGroupRecord clone()
+    {
+        RelationshipGroupRecord clone = new RelationshipGroupRecord( getId(), type, next, firstOut, firstIn,
+                firstLoop, owningNode );
+        clone.setInUse( inUse() );
+        clone.prev = prev;
+        clone.outCount = outCount;
+        clone.inCount = inCount;
+        clone.loopCount = loopCount;
+        return clone;
+    }
+}
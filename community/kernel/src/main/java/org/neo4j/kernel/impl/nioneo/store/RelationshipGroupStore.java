@@ -0,0 +1,270 @@
+/**
+ * Copyright (c) 2002-2013 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.nioneo.store;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.neo4j.kernel.IdGeneratorFactory;
+import org.neo4j.kernel.IdType;
+import org.neo4j.kernel.configuration.Config;
+import org.neo4j.kernel.impl.nioneo.store.windowpool.WindowPoolFactory;
+import org.neo4j.kernel.impl.util.StringLogger;
+
+/**
+ * Implementation of the relationship group store, which keeps the relationships of dense nodes
+ * split up by type and direction.
+ */
+public class RelationshipGroupStore extends AbstractRecordStore<RelationshipGroupRecord> implements Store
+{
+    public static abstract class Configuration
+        extends AbstractStore.Configuration
+    {
+    }
+
+    public static final String TYPE_DESCRIPTOR = "RelationshipGroupStore";
+
+    // in_use(byte)+type(short)+high_bits(byte)+next(int)+first_out(int)+first_in(int)+first_loop(int)+
+    // owning_node(int)+owning_node_high_bits(byte)+out_count(int)+in_count(int)+loop_count(int)
+    public static final int RECORD_SIZE = 37;
+
+    public RelationshipGroupStore( File fileName, Config configuration, IdGeneratorFactory idGeneratorFactory,
+            WindowPoolFactory windowPoolFactory, FileSystemAbstraction fileSystemAbstraction,
+            StringLogger stringLogger )
+    {
+        super( fileName, configuration, IdType.RELATIONSHIP_GROUP, idGeneratorFactory, windowPoolFactory,
+                fileSystemAbstraction, stringLogger );
+    }
+
+    @Override
+    public <FAILURE extends Exception> void accept( Processor<FAILURE> processor, RelationshipGroupRecord record )
+            throws FAILURE
+    {
+        processor.processRelationshipGroup( this, record );
+    }
+
+    @Override
+    public String getTypeDescriptor()
+    {
+        return TYPE_DESCRIPTOR;
+    }
+
+    @Override
+    public int getRecordSize()
+    {
+        return RECORD_SIZE;
+    }
+
+    @Override
+    public int getRecordHeaderSize()
+    {
+        return getRecordSize();
+    }
+
+    @Override
+    public RelationshipGroupRecord getRecord( long id )
+    {
+        PersistenceWindow window = acquireWindow( id, OperationType.READ );
+        try
+        {
+            return getRecord( id, window, RecordLoad.NORMAL );
+        }
+        finally
+        {
+            releaseWindow( window );
+        }
+    }
+
+    @Override
+    public RelationshipGroupRecord forceGetRecord( long id )
+    {
+        PersistenceWindow window;
+        try
+        {
+            window = acquireWindow( id, OperationType.READ );
+        }
+        catch ( InvalidRecordException e )
+        {
+            return new RelationshipGroupRecord( id, -1 );
+        }
+
+        try
+        {
+            return getRecord( id, window, RecordLoad.FORCE );
+        }
+        finally
+        {
+            releaseWindow( window );
+        }
+    }
+
+    @Override
+    public RelationshipGroupRecord forceGetRaw( RelationshipGroupRecord record )
+    {
+        return record;
+    }
+
+    @Override
+    public RelationshipGroupRecord forceGetRaw( long id )
+    {
+        return forceGetRecord( id );
+    }
+
+    @Override
+    public void updateRecord( RelationshipGroupRecord record )
+    {
+        PersistenceWindow window = acquireWindow( record.getId(), OperationType.WRITE );
+        try
+        {
+            updateRecord( record, window, false );
+        }
+        finally
+        {
+            releaseWindow( window );
+        }
+    }
+
+    @Override
+    public void forceUpdateRecord( RelationshipGroupRecord record )
+    {
+        PersistenceWindow window = acquireWindow( record.getId(), OperationType.WRITE );
+        try
+        {
+            updateRecord( record, window, true );
+        }
+        finally
+        {
+            releaseWindow( window );
+        }
+    }
+
+    private RelationshipGroupRecord getRecord( long id, PersistenceWindow window, RecordLoad load )
+    {
+        Buffer buffer = window.getOffsettedBuffer( id );
+
+        // [    ,   x] in use
+        // [    ,xxx ] high next id bits
+        // [ xxx,    ] high firstOut bits
+        long inUseByte = buffer.get();
+        boolean inUse = (inUseByte & 0x1) == Record.IN_USE.intValue();
+        if ( !inUse )
+        {
+            switch ( load )
+            {
+            case NORMAL:
+                throw new InvalidRecordException( "RelationshipGroupRecord[" + id + "] not in use" );
+            case CHECK:
+                return null;
+            case FORCE:
+                break;
+            }
+        }
+
+        int type = buffer.getShort() & 0xFFFF;
+
+        // [    , xxx] high firstIn bits
+        // [ xxx,    ] high firstLoop bits
+        long highByte = buffer.get();
+
+        long nextLowBits = buffer.getUnsignedInt();
+        long nextOutLowBits = buffer.getUnsignedInt();
+        long nextInLowBits = buffer.getUnsignedInt();
+        long nextLoopLowBits = buffer.getUnsignedInt();
+        long owningNode = buffer.getUnsignedInt();
+        long owningNodeHighBits = buffer.get() & 0xFF;
+        int outCount = buffer.getInt();
+        int inCount = buffer.getInt();
+        int loopCount = buffer.getInt();
+
+        long nextMod = (inUseByte & 0xE) << 31;
+        long nextOutMod = (inUseByte & 0x70) << 28;
+        long nextInMod = (highByte & 0x7) << 32;
+        long nextLoopMod = (highByte & 0x70) << 28;
+
+        RelationshipGroupRecord record = new RelationshipGroupRecord( id, type,
+                longFromIntAndMod( nextLowBits, nextMod ),
+                longFromIntAndMod( nextOutLowBits, nextOutMod ),
+                longFromIntAndMod( nextInLowBits, nextInMod ),
+                longFromIntAndMod( nextLoopLowBits, nextLoopMod ),
+                owningNode | (owningNodeHighBits << 32) );
+        record.setOutCount( outCount );
+        record.setInCount( inCount );
+        record.setLoopCount( loopCount );
+        record.setInUse( inUse );
+        return record;
+    }
+
+    private void updateRecord( RelationshipGroupRecord record, PersistenceWindow window, boolean force )
+    {
+        long id = record.getId();
+        registerIdFromUpdateRecord( id );
+        Buffer buffer = window.getOffsettedBuffer( id );
+        if ( record.inUse() || force )
+        {
+            long nextMod = highBits( record.getNext() ) << 1;
+            long nextOutMod = highBits( record.getFirstOut() ) << 4;
+            long nextInMod = highBits( record.getFirstIn() );
+            long nextLoopMod = highBits( record.getFirstLoop() ) << 4;
+
+            // [    ,   x] in use
+            // [    ,xxx ] high next id bits
+            // [ xxx,    ] high firstOut bits
+            byte inUseByte = (byte) ((record.inUse() ? Record.IN_USE : Record.NOT_IN_USE).byteValue() |
+                    nextMod | nextOutMod);
+
+            // [    , xxx] high firstIn bits
+            // [ xxx,    ] high firstLoop bits
+            byte highByte = (byte) (nextInMod | nextLoopMod);
+
+            buffer.put( inUseByte ).putShort( (short) record.getType() ).put( highByte )
+                    .putInt( (int) record.getNext() )
+                    .putInt( (int) record.getFirstOut() )
+                    .putInt( (int) record.getFirstIn() )
+                    .putInt( (int) record.getFirstLoop() )
+                    .putInt( (int) record.getOwningNode() )
+                    .put( (byte) (record.getOwningNode() >> 32) )
+                    .putInt( record.getOutCount() )
+                    .putInt( record.getInCount() )
+                    .putInt( record.getLoopCount() );
+        }
+        else
+        {
+            buffer.put( Record.NOT_IN_USE.byteValue() );
+            if ( !isInRecoveryMode() )
+            {
+                freeId( id );
+            }
+        }
+    }
+
+    private static long highBits( long reference )
+    {
+        return reference == Record.NO_NEXT_RELATIONSHIP.intValue() ? 0 : (reference & 0x700000000L) >> 32;
+    }
+
+    @Override
+    public List<WindowPoolStats> getAllWindowPoolStats()
+    {
+        List<WindowPoolStats> list = new ArrayList<>();
+        list.add( getWindowPoolStats() );
+        return list;
+    }
+}
@@ -79,6 +79,7 @@ public class StoreFactory
     public static final String LABEL_TOKEN_STORE_NAME = ".labeltokenstore.db";
     public static final String LABEL_TOKEN_NAMES_STORE_NAME = LABEL_TOKEN_STORE_NAME + NAMES_PART;
     public static final String SCHEMA_STORE_NAME = ".schemastore.db";
+    public static final String RELATIONSHIP_GROUP_STORE_NAME = ".relationshipgroupstore.db";
 
     public StoreFactory( Config config, IdGeneratorFactory idGeneratorFactory, WindowPoolFactory windowPoolFactory,
                          FileSystemAbstraction fileSystemAbstraction, StringLogger stringLogger, TxHook txHook )
@@ -91,6 +92,11 @@ public class StoreFactory
         this.txHook = txHook;
     }
 
+    public WindowPoolFactory getWindowPoolFactory()
+    {
+        return windowPoolFactory;
+    }
+
     public boolean ensureStoreExists() throws IOException
     {
         boolean readOnly = config.get( GraphDatabaseSettings.read_only );
@@ -135,7 +141,8 @@ public class StoreFactory
                 newRelationshipStore(new File( fileName.getPath() + RELATIONSHIP_STORE_NAME)),
                 newNodeStore(new File( fileName.getPath() + NODE_STORE_NAME)),
                 // We don't need any particular upgrade when we add the schema store
-                newSchemaStore(new File( fileName.getPath() + SCHEMA_STORE_NAME)));
+                newSchemaStore(new File( fileName.getPath() + SCHEMA_STORE_NAME)),
+                newRelationshipGroupStore(new File( fileName.getPath() + RELATIONSHIP_GROUP_STORE_NAME)));
     }
 
     private void tryToUpgradeStores( File fileName )
@@ -199,6 +206,12 @@ public class StoreFactory
                 fileSystemAbstraction, stringLogger);
     }
 
+    public RelationshipGroupStore newRelationshipGroupStore( File baseFileName )
+    {
+        return new RelationshipGroupStore( baseFileName, config, idGeneratorFactory, windowPoolFactory,
+                fileSystemAbstraction, stringLogger );
+    }
+
     public DynamicArrayStore newDynamicArrayStore(File baseFileName)
     {
         return new DynamicArrayStore( baseFileName, config, IdType.ARRAY_BLOCK, idGeneratorFactory, windowPoolFactory,
@@ -228,6 +241,7 @@ public class StoreFactory
         createRelationshipTypeStore(new File( fileName.getPath() + RELATIONSHIP_TYPE_TOKEN_STORE_NAME ));
         createLabelTokenStore( new File( fileName.getPath() + LABEL_TOKEN_STORE_NAME ) );
         createSchemaStore(new File( fileName.getPath() + SCHEMA_STORE_NAME));
+        createRelationshipGroupStore( new File( fileName.getPath() + RELATIONSHIP_GROUP_STORE_NAME ) );
 
         NeoStore neoStore = newNeoStore( fileName );
         /*
@@ -280,6 +294,19 @@ public class StoreFactory
         createEmptyStore( fileName, buildTypeDescriptorAndVersion( RelationshipStore.TYPE_DESCRIPTOR ) );
     }
 
+    /**
+     * Creates a new relationship group store contained in <CODE>fileName</CODE> If
+     * filename is <CODE>null</CODE> or the file already exists an <CODE>IOException</CODE>
+     * is thrown.
+     *
+     * @param fileName
+     *            File name of the new relationship group store
+     */
+    public void createRelationshipGroupStore( File fileName )
+    {
+        createEmptyStore( fileName, buildTypeDescriptorAndVersion( RelationshipGroupStore.TYPE_DESCRIPTOR ) );
+    }
+
     /**
      * Creates a new property store contained in <CODE>fileName</CODE> If
      * filename is <CODE>null</CODE> or the file already exists an
@@ -50,6 +50,8 @@ import org.neo4j.kernel.impl.nioneo.store.PropertyRecord;
 import org.neo4j.kernel.impl.nioneo.store.PropertyStore;
 import org.neo4j.kernel.impl.nioneo.store.PropertyType;
 import org.neo4j.kernel.impl.nioneo.store.Record;
+import org.neo4j.kernel.impl.nioneo.store.RelationshipGroupRecord;
+import org.neo4j.kernel.impl.nioneo.store.RelationshipGroupStore;
 import org.neo4j.kernel.impl.nioneo.store.RelationshipRecord;
 import org.neo4j.kernel.impl.nioneo.store.RelationshipStore;
 import org.neo4j.kernel.impl.nioneo.store.RelationshipTypeTokenRecord;
@@ -356,6 +358,10 @@ public abstract class Command extends XaCommand
     private static final byte NEOSTORE_COMMAND = (byte) 6;
     private static final byte SCHEMA_RULE_COMMAND = (byte) 7;
     private static final byte LABEL_KEY_COMMAND = (byte) 8;
+    private static final byte REL_GROUP_COMMAND = (byte) 9;
+
+    // Flag in the in use byte of a node record in a node command, saying that the node is dense
+    private static final byte DENSE_NODE_FLAG = (byte) 0x2;
 
     abstract void removeFromCache( CacheAccessBackDoor cacheAccess );
 
@@ -434,6 +440,10 @@ public abstract class Command extends XaCommand
         {
             byte inUse = record.inUse() ? Record.IN_USE.byteValue()
                     : Record.NOT_IN_USE.byteValue();
+            if ( record.isDense() )
+            {
+                inUse |= DENSE_NODE_FLAG;
+            }
             buffer.put( inUse );
             if ( record.inUse() )
             {
@@ -482,6 +492,8 @@ public abstract class Command extends XaCommand
                 return null;
             }
             byte inUseFlag = buffer.get();
+            boolean dense = (inUseFlag & DENSE_NODE_FLAG) != 0;
+            inUseFlag &= ~DENSE_NODE_FLAG;
             boolean inUse = false;
             if ( inUseFlag == Record.IN_USE.byteValue() )
             {
@@ -513,6 +525,7 @@ public abstract class Command extends XaCommand
             }
 
             record.setInUse( inUse );
+            record.setDense( dense );
             return record;
         }
 
@@ -665,6 +678,90 @@ public abstract class Command extends XaCommand
         }
     }
     
+    static class RelationshipGroupCommand extends Command
+    {
+        private final RelationshipGroupRecord record;
+        private final RelationshipGroupStore store;
+
+        RelationshipGroupCommand( RelationshipGroupStore store, RelationshipGroupRecord record )
+        {
+            super( record.getId(), Mode.fromRecordState( record ) );
+            this.record = record;
+            this.store = store;
+        }
+
+        @Override
+        public void accept( CommandRecordVisitor visitor )
+        {
+            visitor.visitRelationshipGroup( record );
+        }
+
+        @Override
+        public String toString()
+        {
+            return record.toString();
+        }
+
+        @Override
+        void removeFromCache( CacheAccessBackDoor cacheAccess )
+        {
+            // The owning node is the one which gets its cached relationship chain positions changed
+            // and any node that changes its group links will have a node command of its own.
+            if ( record.getOwningNode() != Record.NO_NEXT_RELATIONSHIP.intValue() )
+            {
+                cacheAccess.removeNodeFromCache( record.getOwningNode() );
+            }
+        }
+
+        @Override
+        public void execute()
+        {
+            store.updateRecord( record );
+        }
+
+        @Override
+        public void writeToFile( LogBuffer buffer ) throws IOException
+        {
+            buffer.put( REL_GROUP_COMMAND );
+            buffer.putLong( record.getId() );
+            buffer.put( (byte) (record.inUse() ? Record.IN_USE.intValue() : Record.NOT_IN_USE.intValue()) );
+            buffer.putShort( (short) record.getType() );
+            buffer.putLong( record.getNext() );
+            buffer.putLong( record.getFirstOut() );
+            buffer.putLong( record.getFirstIn() );
+            buffer.putLong( record.getFirstLoop() );
+            buffer.putLong( record.getOwningNode() );
+            buffer.putInt( record.getOutCount() );
+            buffer.putInt( record.getInCount() );
+            buffer.putInt( record.getLoopCount() );
+        }
+
+        public static Command readFromFile( NeoStore neoStore, ReadableByteChannel byteChannel, ByteBuffer buffer )
+                throws IOException
+        {
+            if ( !readAndFlip( byteChannel, buffer, 8 + 1 + 2 + 8 * 5 + 4 * 3 ) )
+            {
+                return null;
+            }
+            long id = buffer.getLong();
+            byte inUseByte = buffer.get();
+            boolean inUse = inUseByte == Record.IN_USE.byteValue();
+            if ( inUseByte != Record.IN_USE.byteValue() && inUseByte != Record.NOT_IN_USE.byteValue() )
+            {
+                throw new IOException( "Illegal in use flag: " + inUseByte );
+            }
+            int type = buffer.getShort() & 0xFFFF;
+            RelationshipGroupRecord record = new RelationshipGroupRecord( id, type, buffer.getLong(),
+                    buffer.getLong(), buffer.getLong(), buffer.getLong(), buffer.getLong() );
+            record.setOutCount( buffer.getInt() );
+            record.setInCount( buffer.getInt() );
+            record.setLoopCount( buffer.getInt() );
+            record.setInUse( inUse );
+            return new RelationshipGroupCommand( neoStore == null ? null : neoStore.getRelationshipGroupStore(),
+                    record );
+        }
+    }
+
     static class NeoStoreCommand extends Command
     {
         private final NeoStoreRecord record;
@@ -1464,6 +1561,8 @@ public abstract class Command extends XaCommand
                 return LabelTokenCommand.readFromFile( neoStore, byteChannel, buffer );
             case NEOSTORE_COMMAND:
                 return NeoStoreCommand.readFromFile( neoStore, byteChannel, buffer );
+            case REL_GROUP_COMMAND:
+                return RelationshipGroupCommand.readFromFile( neoStore, byteChannel, buffer );
             case SCHEMA_RULE_COMMAND:
                 return SchemaRuleCommand.readFromFile( neoStore, indexes, byteChannel, buffer );
             case NONE: return null;
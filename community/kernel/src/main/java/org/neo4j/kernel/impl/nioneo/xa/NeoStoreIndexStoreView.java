@@ -26,6 +26,7 @@ import org.neo4j.helpers.Predicates;
 import org.neo4j.helpers.PrimitiveIntPredicate;
 import org.neo4j.helpers.collection.Iterables;
 import org.neo4j.helpers.collection.Visitor;
+import org.neo4j.kernel.api.index.CompositeIndexValue;
 import org.neo4j.kernel.api.index.NodePropertyUpdate;
 import org.neo4j.kernel.api.labelscan.NodeLabelUpdate;
 import org.neo4j.kernel.impl.api.index.IndexDescriptor;
@@ -64,9 +65,11 @@ public class NeoStoreIndexStoreView implements IndexStoreView
         // Create a processor that for each accepted node (containing the desired label) looks through its properties,
         // getting the desired one (if any) and feeds to the index manipulator.
         LabelsReference labelsReference = new LabelsReference();
-        RecordStore.Processor<FAILURE> processor = new NodePropertyUpdateProcessor<>( propertyStore,
-                singleIntPredicate( descriptor.getPropertyKeyId() ),
-                labelsReference, visitor );
+        RecordStore.Processor<FAILURE> processor = descriptor.isComposite()
+                ? new CompositeNodePropertyUpdateProcessor<>( propertyStore, descriptor.getPropertyKeyIds(),
+                        labelsReference, visitor )
+                : new NodePropertyUpdateProcessor<>( propertyStore, singleIntPredicate( descriptor.getPropertyKeyId() ),
+                        labelsReference, visitor );
 
         // Run the processor for the nodes containing the given label.
         // TODO When we've got a decent way of getting nodes with a label, use that instead.
@@ -103,6 +106,26 @@ public class NeoStoreIndexStoreView implements IndexStoreView
         return new ProcessStoreScan<>( processor, Predicates.<NodeRecord>TRUE() );
     }
 
+    @Override
+    public <FAILURE extends Exception> StoreScan<FAILURE> visitNodesInRange(
+            int[] labelIds, int[] propertyKeyIds, long fromNodeId, long toNodeId,
+            Visitor<NodePropertyUpdate, FAILURE> propertyUpdateVisitor )
+    {
+        LabelsReference labelsReference = new LabelsReference();
+        RecordStore.Processor<FAILURE> processor = new NodePropertyUpdateProcessor<>( propertyStore,
+                multipleIntPredicate( propertyKeyIds ), labelsReference, propertyUpdateVisitor );
+        Predicate<NodeRecord> predicate = new NodeLabelFilterPredicate( nodeStore,
+                multipleIntPredicate( labelIds ), labelsReference );
+
+        return new ProcessStoreScan<>( processor, predicate, fromNodeId, toNodeId );
+    }
+
+    @Override
+    public long getHighestPossibleNodeIdInUse()
+    {
+        return nodeStore.getHighestPossibleIdInUse();
+    }
+
     @Override
     public Iterable<NodePropertyUpdate> nodeAsUpdates( long nodeId )
     {
@@ -274,6 +297,74 @@ public class NeoStoreIndexStoreView implements IndexStoreView
         }
     }
 
+    /**
+     * Like {@link NodePropertyUpdateProcessor}, but gathers the values of several properties into a single
+     * {@link CompositeIndexValue}, reported under the first of the property keys. Nodes lacking any of the
+     * properties are skipped.
+     */
+    private class CompositeNodePropertyUpdateProcessor<FAILURE extends Exception>
+            extends RecordStore.Processor<FAILURE>
+    {
+        private final PropertyStore propertyStore;
+        private final Visitor<NodePropertyUpdate, FAILURE> visitor;
+        private final int[] propertyKeyIds;
+        private final LabelsReference labelsReference;
+
+        public CompositeNodePropertyUpdateProcessor( PropertyStore propertyStore, int[] propertyKeyIds,
+                                                     LabelsReference labelsReference,
+                                                     Visitor<NodePropertyUpdate, FAILURE> visitor )
+        {
+            this.propertyStore = propertyStore;
+            this.propertyKeyIds = propertyKeyIds;
+            this.labelsReference = labelsReference;
+            this.visitor = visitor;
+        }
+
+        @Override
+        public void processNode( RecordStore<NodeRecord> nodeStore, NodeRecord node ) throws FAILURE
+        {
+            long firstPropertyId = node.getCommittedNextProp();
+            if ( firstPropertyId == Record.NO_NEXT_PROPERTY.intValue() )
+            {
+                return;
+            }
+
+            Object[] values = new Object[propertyKeyIds.length];
+            int found = 0;
+            for ( PropertyRecord propertyRecord : propertyStore.getPropertyRecordChain( firstPropertyId ) )
+            {
+                for ( PropertyBlock property : propertyRecord.getPropertyBlocks() )
+                {
+                    int index = indexOf( property.getKeyIndexId() );
+                    if ( index != -1 && values[index] == null )
+                    {
+                        propertyStore.ensureHeavy( property );
+                        values[index] = property.getType().getValue( property, propertyStore );
+                        found++;
+                    }
+                }
+            }
+
+            if ( found == propertyKeyIds.length )
+            {
+                visitor.visit( NodePropertyUpdate.add( node.getId(), propertyKeyIds[0],
+                        new CompositeIndexValue( values ), labelsReference.get() ) );
+            }
+        }
+
+        private int indexOf( int propertyKeyId )
+        {
+            for ( int i = 0; i < propertyKeyIds.length; i++ )
+            {
+                if ( propertyKeyIds[i] == propertyKeyId )
+                {
+                    return i;
+                }
+            }
+            return -1;
+        }
+    }
+
     private class NodeLabelFilterPredicate implements Predicate<NodeRecord>
     {
         private final NodeStore nodeStore;
@@ -311,18 +402,28 @@ public class NeoStoreIndexStoreView implements IndexStoreView
     {
         private final Processor<FAILURE> processor;
         private final Predicate<NodeRecord> predicate;
+        private final long fromNodeId;
+        private final long toNodeId;
 
         public ProcessStoreScan( Processor<FAILURE> processor, Predicate<NodeRecord> predicate )
+        {
+            this( processor, predicate, 0, Long.MAX_VALUE );
+        }
+
+        public ProcessStoreScan( Processor<FAILURE> processor, Predicate<NodeRecord> predicate,
+                                 long fromNodeId, long toNodeId )
         {
             this.processor = processor;
             this.predicate = predicate;
+            this.fromNodeId = fromNodeId;
+            this.toNodeId = toNodeId;
         }
 
         @SuppressWarnings("unchecked")
         @Override
         public void run() throws FAILURE
         {
-            processor.applyFiltered( nodeStore, predicate );
+            processor.applyFilteredInRange( nodeStore, fromNodeId, toNodeId, predicate );
         }
 
         @Override
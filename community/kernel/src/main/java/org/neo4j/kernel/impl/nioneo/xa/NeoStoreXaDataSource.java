@@ -49,6 +49,7 @@ import org.neo4j.kernel.api.KernelTransactionImplementation;
 import org.neo4j.kernel.api.index.SchemaIndexProvider;
 import org.neo4j.kernel.api.labelscan.LabelScanStore;
 import org.neo4j.kernel.api.operations.TokenNameLookup;
+import org.neo4j.kernel.api.statistics.GraphStatistics;
 import org.neo4j.kernel.configuration.Config;
 import org.neo4j.kernel.impl.api.Kernel;
 import org.neo4j.kernel.impl.api.PersistenceCache;
@@ -57,6 +58,7 @@ import org.neo4j.kernel.impl.api.SchemaWriteGuard;
 import org.neo4j.kernel.impl.api.UpdateableSchemaState;
 import org.neo4j.kernel.impl.api.index.IndexingService;
 import org.neo4j.kernel.impl.api.scan.LabelScanStoreProvider;
+import org.neo4j.kernel.impl.api.statistics.SampledGraphStatistics;
 import org.neo4j.kernel.impl.cache.AutoLoadingCache;
 import org.neo4j.kernel.impl.cache.BridgingCacheAccess;
 import org.neo4j.kernel.impl.cache.Cache;
@@ -157,6 +159,7 @@ public class NeoStoreXaDataSource extends LogBackedXaDataSource implements NeoSt
 
     private NeoStore neoStore;
     private IndexingService indexingService;
+    private SampledGraphStatistics graphStatistics;
     private SchemaIndexProvider indexProvider;
     private XaContainer xaContainer;
     private ArrayMap<Class<?>,Store> idGenerators;
@@ -352,7 +355,12 @@ public class NeoStoreXaDataSource extends LogBackedXaDataSource implements NeoSt
                             providerMap,
                             new NeoStoreIndexStoreView( neoStore ),
                             tokenNameLookup, updateableSchemaState,
-                            logging ) );
+                            logging, config.get( GraphDatabaseSettings.index_population_workers ) ) );
+
+            graphStatistics = life.add( new SampledGraphStatistics( neoStore, scheduler,
+                    config.get( GraphDatabaseSettings.statistics_sample_size ),
+                    config.get( GraphDatabaseSettings.statistics_sampling_interval ),
+                    logging.getMessagesLog( SampledGraphStatistics.class ) ) );
 
             integrityValidator = new IntegrityValidator( neoStore, indexingService );
 
@@ -437,6 +445,11 @@ public class NeoStoreXaDataSource extends LogBackedXaDataSource implements NeoSt
         return indexProvider;
     }
 
+    public GraphStatistics getGraphStatistics()
+    {
+        return graphStatistics;
+    }
+
     public LabelScanStore getLabelScanStore()
     {
         return labelScanStore;
@@ -51,6 +51,9 @@ import org.neo4j.kernel.api.properties.Property;
 import org.neo4j.kernel.impl.api.PrimitiveLongIterator;
 import org.neo4j.kernel.impl.api.index.IndexingService;
 import org.neo4j.kernel.impl.core.CacheAccessBackDoor;
+import org.neo4j.kernel.impl.core.DenseNodeChainPosition;
+import org.neo4j.kernel.impl.core.RelationshipLoadingPosition;
+import org.neo4j.kernel.impl.core.SingleChainPosition;
 import org.neo4j.kernel.impl.core.Token;
 import org.neo4j.kernel.impl.core.TransactionState;
 import org.neo4j.kernel.impl.nioneo.store.DynamicRecord;
@@ -70,6 +73,8 @@ import org.neo4j.kernel.impl.nioneo.store.PropertyRecord;
 import org.neo4j.kernel.impl.nioneo.store.PropertyStore;
 import org.neo4j.kernel.impl.nioneo.store.PropertyType;
 import org.neo4j.kernel.impl.nioneo.store.Record;
+import org.neo4j.kernel.impl.nioneo.store.RelationshipGroupRecord;
+import org.neo4j.kernel.impl.nioneo.store.RelationshipGroupStore;
 import org.neo4j.kernel.impl.nioneo.store.RelationshipRecord;
 import org.neo4j.kernel.impl.nioneo.store.RelationshipStore;
 import org.neo4j.kernel.impl.nioneo.store.RelationshipTypeTokenRecord;
@@ -87,6 +92,7 @@ import org.neo4j.kernel.impl.transaction.xaframework.XaConnection;
 import org.neo4j.kernel.impl.transaction.xaframework.XaLogicalLog;
 import org.neo4j.kernel.impl.transaction.xaframework.XaTransaction;
 import org.neo4j.kernel.impl.util.ArrayMap;
+import org.neo4j.kernel.impl.util.RelIdArray;
 import org.neo4j.kernel.impl.util.RelIdArray.DirectionWrapper;
 
 import static java.util.Arrays.binarySearch;
@@ -217,6 +223,33 @@ public class WriteTransaction extends XaTransaction implements NeoStoreTransacti
                     throw new UnsupportedOperationException("Unexpected call to clone on a relationshipRecord");
                 }
             }, false );
+    private final RecordChanges<Long, RelationshipGroupRecord, Integer> relGroupRecords =
+            new RecordChanges<>( new RecordChanges.Loader<Long, RelationshipGroupRecord, Integer>()
+            {
+                @Override
+                public RelationshipGroupRecord newUnused( Long key, Integer type )
+                {
+                    return new RelationshipGroupRecord( key, type );
+                }
+
+                @Override
+                public RelationshipGroupRecord load( Long key, Integer type )
+                {
+                    return getRelationshipGroupStore().getRecord( key );
+                }
+
+                @Override
+                public void ensureHeavy( RelationshipGroupRecord record )
+                {
+                }
+
+                @Override
+                public RelationshipGroupRecord clone( RelationshipGroupRecord record )
+                {
+                    // Not needed because we don't manage before state for relationship group records.
+                    throw new UnsupportedOperationException( "Unexpected call to clone on a relationshipGroupRecord" );
+                }
+            }, false );
 
     private final RecordChanges<Long, Collection<DynamicRecord>, SchemaRule> schemaRuleChanges = new RecordChanges<>(new RecordChanges.Loader<Long, Collection<DynamicRecord>, SchemaRule>() {
         @Override
@@ -259,6 +292,7 @@ public class WriteTransaction extends XaTransaction implements NeoStoreTransacti
     private final Map<Long, Command.NodeCommand> nodeCommands = new TreeMap<>();
     private final ArrayList<Command.PropertyCommand> propCommands = new ArrayList<>();
     private final ArrayList<Command.RelationshipCommand> relCommands = new ArrayList<>();
+    private final ArrayList<Command.RelationshipGroupCommand> relGroupCommands = new ArrayList<>();
     private final ArrayList<Command.SchemaRuleCommand> schemaRuleCommands = new ArrayList<>();
     private ArrayList<Command.RelationshipTypeTokenCommand> relationshipTypeTokenCommands;
     private ArrayList<Command.LabelTokenCommand> labelTokenCommands;
@@ -317,11 +351,12 @@ public class WriteTransaction extends XaTransaction implements NeoStoreTransacti
     {
         if ( isRecovered() )
         {
-            return nodeCommands.size() == 0 && propCommands.size() == 0 &&
-                   relCommands.size() == 0 && schemaRuleCommands.size() == 0 && relationshipTypeTokenCommands == null &&
+            return nodeCommands.size() == 0 && propCommands.size() == 0 && relCommands.size() == 0 &&
+                   relGroupCommands.size() == 0 && schemaRuleCommands.size() == 0 && relationshipTypeTokenCommands == null &&
                    labelTokenCommands == null && propertyKeyTokenCommands == null && kernelTransaction.isReadOnly();
         }
-        return nodeRecords.changeSize() == 0 && relRecords.changeSize() == 0 && schemaRuleChanges.changeSize() == 0 &&
+        return nodeRecords.changeSize() == 0 && relRecords.changeSize() == 0 && relGroupRecords.changeSize() == 0 &&
+               schemaRuleChanges.changeSize() == 0 &&
                propertyRecords.changeSize() == 0 && relationshipTypeTokenRecords == null && labelTokenRecords == null &&
                propertyKeyTokenRecords == null && kernelTransaction.isReadOnly();
     }
@@ -360,6 +395,7 @@ public class WriteTransaction extends XaTransaction implements NeoStoreTransacti
 
         int noOfCommands = nodeRecords.changeSize() +
                            relRecords.changeSize() +
+                           relGroupRecords.changeSize() +
                            propertyRecords.changeSize() +
                            schemaRuleChanges.changeSize() +
                            (propertyKeyTokenRecords != null ? propertyKeyTokenRecords.size() : 0) +
@@ -406,6 +442,13 @@ public class WriteTransaction extends XaTransaction implements NeoStoreTransacti
             relCommands.add( command );
             commands.add( command );
         }
+        for ( RecordChange<Long, RelationshipGroupRecord, Integer> change : relGroupRecords.changes() )
+        {
+            Command.RelationshipGroupCommand command = new Command.RelationshipGroupCommand(
+                    neoStore.getRelationshipGroupStore(), change.forReadingData() );
+            relGroupCommands.add( command );
+            commands.add( command );
+        }
         if ( neoStoreRecord != null )
         {
             for ( RecordChange<Long, NeoStoreRecord, Void> change : neoStoreRecord.changes() )
@@ -477,6 +520,10 @@ public class WriteTransaction extends XaTransaction implements NeoStoreTransacti
         {
             relCommands.add( (Command.RelationshipCommand) xaCommand );
         }
+        else if ( xaCommand instanceof Command.RelationshipGroupCommand )
+        {
+            relGroupCommands.add( (Command.RelationshipGroupCommand) xaCommand );
+        }
         else if ( xaCommand instanceof Command.PropertyCommand )
         {
             propCommands.add( (Command.PropertyCommand) xaCommand );
@@ -575,6 +622,15 @@ public class WriteTransaction extends XaTransaction implements NeoStoreTransacti
                 patchDeletedRelationshipNodes( id, record.getFirstNode(), record.getFirstNextRel(),
                                                record.getSecondNode(), record.getSecondNextRel() );
             }
+            for ( RecordChange<Long, RelationshipGroupRecord, Integer> change : relGroupRecords.changes() )
+            {
+                RelationshipGroupRecord record = change.forReadingData();
+                if ( freeIds && change.isCreated() )
+                {
+                    getRelationshipGroupStore().freeId( change.getKey() );
+                }
+                removeNodeFromCache( record.getOwningNode() );
+            }
             if ( neoStoreRecord != null )
             {
                 removeGraphPropertiesFromCache();
@@ -794,10 +850,11 @@ public class WriteTransaction extends XaTransaction implements NeoStoreTransacti
 
             // primitives
             java.util.Collections.sort( relCommands, sorter );
+            java.util.Collections.sort( relGroupCommands, sorter );
             java.util.Collections.sort( propCommands, sorter );
-            executeCreated( isRecovered, propCommands, relCommands, nodeCommands.values() );
-            executeModified( isRecovered, propCommands, relCommands, nodeCommands.values() );
-            executeDeleted( propCommands, relCommands, nodeCommands.values() );
+            executeCreated( isRecovered, propCommands, relCommands, relGroupCommands, nodeCommands.values() );
+            executeModified( isRecovered, propCommands, relCommands, relGroupCommands, nodeCommands.values() );
+            executeDeleted( propCommands, relCommands, relGroupCommands, nodeCommands.values() );
 
             // property change set for index updates
             Collection<NodeLabelUpdate> labelUpdates = gatherLabelUpdates();
@@ -849,6 +906,7 @@ public class WriteTransaction extends XaTransaction implements NeoStoreTransacti
             {
                 updateFirstRelationships();
                 state.commitCows(); // updates the cached primitives
+                removeConvertedDenseNodesFromCache();
             }
             neoStore.setLastCommittedTx( getCommitTxId() );
             if ( isRecovered )
@@ -976,6 +1034,18 @@ public class WriteTransaction extends XaTransaction implements NeoStoreTransacti
         }
     }
 
+    private void removeConvertedDenseNodesFromCache()
+    {
+        // The relationship chain positions of a cached node are invalid after it got converted into a dense node
+        for ( RecordChange<Long, NodeRecord, Void> change : nodeRecords.changes() )
+        {
+            if ( change.getBefore().isDense() != change.forReadingLinkage().isDense() )
+            {
+                removeNodeFromCache( change.getKey() );
+            }
+        }
+    }
+
     @SafeVarargs
     private final void executeCreated( boolean removeFromCache, Collection<? extends Command>... commands )
     {
@@ -1040,6 +1110,7 @@ public class WriteTransaction extends XaTransaction implements NeoStoreTransacti
         nodeRecords.clear();
         propertyRecords.clear();
         relRecords.clear();
+        relGroupRecords.clear();
         schemaRuleChanges.clear();
         relationshipTypeTokenRecords = null;
         propertyKeyTokenRecords = null;
@@ -1049,6 +1120,7 @@ public class WriteTransaction extends XaTransaction implements NeoStoreTransacti
         propCommands.clear();
         propertyKeyTokenCommands = null;
         relCommands.clear();
+        relGroupCommands.clear();
         schemaRuleCommands.clear();
         relationshipTypeTokenCommands = null;
         labelTokenCommands = null;
@@ -1085,6 +1157,11 @@ public class WriteTransaction extends XaTransaction implements NeoStoreTransacti
         return neoStore.getRelationshipStore();
     }
 
+    private RelationshipGroupStore getRelationshipGroupStore()
+    {
+        return neoStore.getRelationshipGroupStore();
+    }
+
     private PropertyStore getPropertyStore()
     {
         return neoStore.getPropertyStore();
@@ -1279,30 +1356,93 @@ public class WriteTransaction extends XaTransaction implements NeoStoreTransacti
     }
 
     @Override
-    public long getRelationshipChainPosition( long nodeId )
+    public RelationshipLoadingPosition getRelationshipChainPosition( long nodeId )
     {
-        return nodeRecords.getOrLoad( nodeId, null ).getBefore().getNextRel();
+        NodeRecord node = nodeRecords.getOrLoad( nodeId, null ).getBefore();
+        if ( !node.isDense() )
+        {
+            return new SingleChainPosition( node.getNextRel() );
+        }
+        Map<Integer, RelationshipGroupRecord> groups = new HashMap<>();
+        long groupId = node.getNextRel();
+        while ( groupId != Record.NO_NEXT_RELATIONSHIP.intValue() )
+        {
+            RelationshipGroupRecord group = getRelationshipGroupStore().getRecord( groupId );
+            groups.put( group.getType(), group );
+            groupId = group.getNext();
+        }
+        return new DenseNodeChainPosition( groups );
     }
 
     @Override
     public Pair<Map<DirectionWrapper, Iterable<RelationshipRecord>>, Long> getMoreRelationships( long nodeId,
-                                                                                                 long position )
+            RelationshipLoadingPosition position, DirectionWrapper direction, int[] types )
     {
-        return getMoreRelationships( nodeId, position, getRelGrabSize(), getRelationshipStore() );
+        return getMoreRelationships( nodeId, position, direction, types, getRelGrabSize(), getRelationshipStore() );
     }
 
     private void updateNodes( RelationshipRecord rel )
     {
-        if ( rel.getFirstPrevRel() == Record.NO_PREV_RELATIONSHIP.intValue() )
+        updateNode( rel.getFirstNode(), rel,
+                rel.getFirstPrevRel() == Record.NO_PREV_RELATIONSHIP.intValue(), rel.getFirstNextRel() );
+        if ( rel.getSecondNode() != rel.getFirstNode() )
         {
-            NodeRecord firstNode = nodeRecords.getOrLoad( rel.getFirstNode(), null ).forChangingLinkage();
-            firstNode.setNextRel( rel.getFirstNextRel() );
+            updateNode( rel.getSecondNode(), rel,
+                    rel.getSecondPrevRel() == Record.NO_PREV_RELATIONSHIP.intValue(), rel.getSecondNextRel() );
         }
-        if ( rel.getSecondPrevRel() == Record.NO_PREV_RELATIONSHIP.intValue() )
+    }
+
+    /**
+     * Updates a node that {@code rel} is being removed from. If {@code rel} is the first relationship in its
+     * chain then {@code nextRel} becomes the first one. For a dense node that chain is found in the group of
+     * the relationship type, which also keeps the number of relationships in it, and the group is removed
+     * if this was its last relationship.
+     */
+    private void updateNode( long nodeId, RelationshipRecord rel, boolean firstInChain, long nextRel )
+    {
+        RecordChange<Long, NodeRecord, Void> nodeChange = nodeRecords.getOrLoad( nodeId, null );
+        if ( !nodeChange.forReadingLinkage().isDense() )
         {
-            NodeRecord secondNode = nodeRecords.getOrLoad( rel.getSecondNode(), null ).forChangingLinkage();
-            secondNode.setNextRel( rel.getSecondNextRel() );
+            if ( firstInChain )
+            {
+                nodeChange.forChangingLinkage().setNextRel( nextRel );
+            }
+            return;
+        }
+
+        RecordChange<Long, RelationshipGroupRecord, Integer> previous = null;
+        long groupId = nodeChange.forReadingLinkage().getNextRel();
+        while ( groupId != Record.NO_NEXT_RELATIONSHIP.intValue() )
+        {
+            RecordChange<Long, RelationshipGroupRecord, Integer> change = relGroupRecords.getOrLoad( groupId, null );
+            RelationshipGroupRecord group = change.forReadingData();
+            if ( group.getType() == rel.getType() )
+            {
+                group = change.forChangingData();
+                DirectionWrapper direction = RelIdArray.wrap( rel, nodeId );
+                direction.setCount( group, direction.getCount( group ) - 1 );
+                if ( firstInChain )
+                {
+                    direction.setNextRel( group, nextRel );
+                }
+                if ( group.isEmpty() )
+                {
+                    if ( previous == null )
+                    {
+                        nodeChange.forChangingLinkage().setNextRel( group.getNext() );
+                    }
+                    else
+                    {
+                        previous.forChangingData().setNext( group.getNext() );
+                    }
+                    group.setInUse( false );
+                }
+                return;
+            }
+            previous = change;
+            groupId = group.getNext();
         }
+        throw new InvalidRecordException( "Dense node[" + nodeId + "] has no relationship group for " + rel );
     }
 
     @Override
@@ -1681,39 +1821,171 @@ public class WriteTransaction extends XaTransaction implements NeoStoreTransacti
     private void connectRelationship( NodeRecord firstNode,
                                       NodeRecord secondNode, RelationshipRecord rel )
     {
-        assert firstNode.getNextRel() != rel.getId();
-        assert secondNode.getNextRel() != rel.getId();
-        rel.setFirstNextRel( firstNode.getNextRel() );
-        rel.setSecondNextRel( secondNode.getNextRel() );
-        connect( firstNode, rel );
-        connect( secondNode, rel );
-        firstNode.setNextRel( rel.getId() );
-        secondNode.setNextRel( rel.getId() );
+        connectRelationshipToNode( firstNode, rel );
+        if ( firstNode.getId() != secondNode.getId() )
+        {
+            connectRelationshipToNode( secondNode, rel );
+        }
+    }
+
+    private void connectRelationshipToNode( NodeRecord node, RelationshipRecord rel )
+    {
+        if ( !node.isDense() && isDenseEnough( node ) )
+        {
+            convertNodeToDense( node );
+        }
+
+        if ( node.isDense() )
+        {
+            RelationshipGroupRecord group = getOrCreateRelationshipGroup( node, rel.getType() );
+            DirectionWrapper direction = RelIdArray.wrap( rel, node.getId() );
+            long firstRel = direction.getNextRel( group );
+            assert firstRel != rel.getId();
+            setNextRel( rel, node.getId(), firstRel );
+            connect( node.getId(), firstRel, rel );
+            direction.setNextRel( group, rel.getId() );
+            direction.setCount( group, direction.getCount( group ) + 1 );
+        }
+        else
+        {
+            assert node.getNextRel() != rel.getId();
+            setNextRel( rel, node.getId(), node.getNextRel() );
+            connect( node.getId(), node.getNextRel(), rel );
+            node.setNextRel( rel.getId() );
+        }
     }
 
-    private void connect( NodeRecord node, RelationshipRecord rel )
+    private void connect( long nodeId, long firstRelId, RelationshipRecord rel )
     {
-        if ( node.getNextRel() != Record.NO_NEXT_RELATIONSHIP.intValue() )
+        if ( firstRelId != Record.NO_NEXT_RELATIONSHIP.intValue() )
         {
-            Relationship lockableRel = new LockableRelationship( node.getNextRel() );
+            Relationship lockableRel = new LockableRelationship( firstRelId );
             getWriteLock( lockableRel );
-            RelationshipRecord nextRel = relRecords.getOrLoad( node.getNextRel(), null ).forChangingLinkage();
+            RelationshipRecord nextRel = relRecords.getOrLoad( firstRelId, null ).forChangingLinkage();
             boolean changed = false;
-            if ( nextRel.getFirstNode() == node.getId() )
+            if ( nextRel.getFirstNode() == nodeId )
             {
                 nextRel.setFirstPrevRel( rel.getId() );
                 changed = true;
             }
-            if ( nextRel.getSecondNode() == node.getId() )
+            if ( nextRel.getSecondNode() == nodeId )
             {
                 nextRel.setSecondPrevRel( rel.getId() );
                 changed = true;
             }
             if ( !changed )
             {
-                throw new InvalidRecordException( node + " dont match " + nextRel );
+                throw new InvalidRecordException( "Node[" + nodeId + "] dont match " + nextRel );
+            }
+        }
+    }
+
+    private static void setNextRel( RelationshipRecord rel, long nodeId, long nextRel )
+    {
+        if ( rel.getFirstNode() == nodeId )
+        {
+            rel.setFirstNextRel( nextRel );
+        }
+        if ( rel.getSecondNode() == nodeId )
+        {
+            rel.setSecondNextRel( nextRel );
+        }
+    }
+
+    private static long getNextRel( RelationshipRecord rel, long nodeId )
+    {
+        return rel.getFirstNode() == nodeId ? rel.getFirstNextRel() : rel.getSecondNextRel();
+    }
+
+    /**
+     * Walks at most {@link NeoStore#getDenseNodeThreshold() threshold} relationships of the chain of a node
+     * which isn't dense yet, to see if it has that many relationships.
+     */
+    private boolean isDenseEnough( NodeRecord node )
+    {
+        int threshold = neoStore.getDenseNodeThreshold();
+        long relId = node.getNextRel();
+        for ( int count = 0; relId != Record.NO_NEXT_RELATIONSHIP.intValue(); count++ )
+        {
+            if ( count >= threshold )
+            {
+                return true;
             }
+            relId = getNextRel( relRecords.getOrLoad( relId, null ).forReadingLinkage(), node.getId() );
         }
+        return false;
+    }
+
+    /**
+     * Moves the relationships of a node from its single relationship chain over to one chain per
+     * relationship type and direction, each found in the {@link RelationshipGroupRecord group} of its type.
+     */
+    private void convertNodeToDense( NodeRecord node )
+    {
+        List<RelationshipRecord> relationships = new ArrayList<>();
+        long relId = node.getNextRel();
+        while ( relId != Record.NO_NEXT_RELATIONSHIP.intValue() )
+        {
+            getWriteLock( new LockableRelationship( relId ) );
+            RelationshipRecord rel = relRecords.getOrLoad( relId, null ).forChangingLinkage();
+            relationships.add( rel );
+            relId = getNextRel( rel, node.getId() );
+        }
+
+        node.setDense( true );
+        node.setNextRel( Record.NO_NEXT_RELATIONSHIP.intValue() );
+        // Add them back in reverse order so that they keep the order they had in the chain
+        for ( int i = relationships.size() - 1; i >= 0; i-- )
+        {
+            RelationshipRecord rel = relationships.get( i );
+            if ( rel.getFirstNode() == node.getId() )
+            {
+                rel.setFirstPrevRel( Record.NO_PREV_RELATIONSHIP.intValue() );
+            }
+            if ( rel.getSecondNode() == node.getId() )
+            {
+                rel.setSecondPrevRel( Record.NO_PREV_RELATIONSHIP.intValue() );
+            }
+            connectRelationshipToNode( node, rel );
+        }
+    }
+
+    private RelationshipGroupRecord getOrCreateRelationshipGroup( NodeRecord node, int type )
+    {
+        // Groups are kept sorted by type
+        RecordChange<Long, RelationshipGroupRecord, Integer> previous = null;
+        long groupId = node.getNextRel();
+        while ( groupId != Record.NO_NEXT_RELATIONSHIP.intValue() )
+        {
+            RecordChange<Long, RelationshipGroupRecord, Integer> change = relGroupRecords.getOrLoad( groupId, null );
+            RelationshipGroupRecord group = change.forReadingData();
+            if ( group.getType() == type )
+            {
+                return change.forChangingData();
+            }
+            if ( group.getType() > type )
+            {
+                break;
+            }
+            previous = change;
+            groupId = group.getNext();
+        }
+
+        long id = getRelationshipGroupStore().nextId();
+        RelationshipGroupRecord group = relGroupRecords.create( id, type ).forChangingData();
+        group.setInUse( true );
+        group.setCreated();
+        group.setOwningNode( node.getId() );
+        group.setNext( groupId );
+        if ( previous == null )
+        {
+            node.setNextRel( id );
+        }
+        else
+        {
+            previous.forChangingData().setNext( id );
+        }
+        return group;
     }
 
     @Override
@@ -2124,8 +2396,10 @@ public class WriteTransaction extends XaTransaction implements NeoStoreTransacti
     }
 
     private Pair<Map<DirectionWrapper, Iterable<RelationshipRecord>>, Long> getMoreRelationships(
-            long nodeId, long position, int grabSize, RelationshipStore relStore )
+            long nodeId, RelationshipLoadingPosition loadingPosition, DirectionWrapper direction, int[] types,
+            int grabSize, RelationshipStore relStore )
     {
+        long position = loadingPosition.position( direction, types );
         // initialCapacity=grabSize saves the lists the trouble of resizing
         List<RelationshipRecord> out = new ArrayList<>();
         List<RelationshipRecord> in = new ArrayList<>();
@@ -2185,6 +2459,11 @@ public class WriteTransaction extends XaTransaction implements NeoStoreTransacti
                         "] is neither firstNode[" + firstNode +
                         "] nor secondNode[" + secondNode + "] for Relationship[" + relRecord.getId() + "]" );
             }
+            if ( position == Record.NO_NEXT_RELATIONSHIP.intValue() )
+            {
+                // This chain ran out, continue with the next one, if any
+                position = loadingPosition.nextPosition( position, direction, types );
+            }
         }
         return Pair.of( result, position );
     }
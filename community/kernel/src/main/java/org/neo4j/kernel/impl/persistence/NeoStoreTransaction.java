@@ -27,6 +27,7 @@ import org.neo4j.helpers.Pair;
 import org.neo4j.kernel.api.KernelTransaction;
 import org.neo4j.kernel.api.properties.DefinedProperty;
 import org.neo4j.kernel.impl.api.PrimitiveLongIterator;
+import org.neo4j.kernel.impl.core.RelationshipLoadingPosition;
 import org.neo4j.kernel.impl.nioneo.store.IndexRule;
 import org.neo4j.kernel.impl.nioneo.store.NodeRecord;
 import org.neo4j.kernel.impl.nioneo.store.RelationshipRecord;
@@ -251,7 +252,7 @@ public interface NeoStoreTransaction
      */
     void createRelationshipTypeToken( int id, String name );
 
-    long getRelationshipChainPosition( long nodeId );
+    RelationshipLoadingPosition getRelationshipChainPosition( long nodeId );
 
     /*
      * List<Iterable<RelationshipRecord>> is a list with three items:
@@ -260,10 +261,12 @@ public interface NeoStoreTransaction
      * 2: loop relationships
      *
      * Long is the relationship chain position as it stands after this
-     * batch of relationships has been loaded.
+     * batch of relationships has been loaded. The batch continues into the next
+     * chain of the loading position if one chain runs out, which means that
+     * the loading position gets advanced along the way.
      */
     Pair<Map<DirectionWrapper, Iterable<RelationshipRecord>>, Long> getMoreRelationships(
-            long nodeId, long position );
+            long nodeId, RelationshipLoadingPosition position, DirectionWrapper direction, int[] types );
 
     boolean delistResource( Transaction tx, int tmsuccess ) throws SystemException;
 
@@ -34,6 +34,7 @@ import org.neo4j.helpers.Pair;
 import org.neo4j.kernel.api.KernelTransaction;
 import org.neo4j.kernel.api.properties.DefinedProperty;
 import org.neo4j.kernel.impl.api.PrimitiveLongIterator;
+import org.neo4j.kernel.impl.core.RelationshipLoadingPosition;
 import org.neo4j.kernel.impl.core.TransactionEventsSyncHook;
 import org.neo4j.kernel.impl.core.TransactionState;
 import org.neo4j.kernel.impl.core.TxEventSyncHookFactory;
@@ -94,15 +95,15 @@ public class PersistenceManager
         return getResource().nodeLoadLight( id );
     }
 
-    public long getRelationshipChainPosition( long nodeId )
+    public RelationshipLoadingPosition getRelationshipChainPosition( long nodeId )
     {
         return getResource().getRelationshipChainPosition( nodeId );
     }
 
     public Pair<Map<DirectionWrapper, Iterable<RelationshipRecord>>, Long> getMoreRelationships(
-            long nodeId, long position )
+            long nodeId, RelationshipLoadingPosition position, DirectionWrapper direction, int[] types )
     {
-        return getResource().getMoreRelationships( nodeId, position );
+        return getResource().getMoreRelationships( nodeId, position, direction, types );
     }
 
     public void loadNodeProperties( long nodeId, boolean light, PropertyReceiver receiver )
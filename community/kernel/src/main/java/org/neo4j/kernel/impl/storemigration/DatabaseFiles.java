@@ -33,7 +33,10 @@ public class DatabaseFiles
         this.fs = fs;
     }
     
-    public void moveToBackupDirectory( File workingDirectory, File backupDirectory )
+    /**
+     * @param storeVersion the version of the database in the working directory, which tells what store files it has.
+     */
+    public void moveToBackupDirectory( File workingDirectory, File backupDirectory, String storeVersion )
     {
         if ( fs.fileExists( backupDirectory ) )
         {
@@ -43,7 +46,7 @@ public class DatabaseFiles
                     backupDirectory.getAbsolutePath() ) );
         }
         fs.mkdir( backupDirectory );
-        move( workingDirectory, backupDirectory, StoreFile.legacyStoreFiles() );
+        move( workingDirectory, backupDirectory, StoreFile.storeFilesIn( storeVersion ) );
     }
 
     public void moveToWorkingDirectory( File upgradeDirectory, File workingDirectory )
@@ -24,16 +24,18 @@ import java.io.IOException;
 
 import org.neo4j.helpers.Predicate;
 import org.neo4j.helpers.collection.Iterables;
+import org.neo4j.kernel.impl.nioneo.store.CommonAbstractStore;
 import org.neo4j.kernel.impl.nioneo.store.FileSystemAbstraction;
 import org.neo4j.kernel.impl.nioneo.store.NeoStore;
 import org.neo4j.kernel.impl.nioneo.store.StoreFactory;
+import org.neo4j.kernel.impl.storemigration.legacystore.Legacy20Store;
 import org.neo4j.kernel.impl.storemigration.legacystore.LegacyStore;
 
 public enum StoreFile
 {
     NEO_STORE( "NeoStore", "" ),
     NODE_STORE( "NodeStore", StoreFactory.NODE_STORE_NAME ),
-    NODE_LABEL_STORE( "NodeLabelStore", StoreFactory.NODE_LABELS_STORE_NAME, false ),
+    NODE_LABEL_STORE( "ArrayPropertyStore", StoreFactory.NODE_LABELS_STORE_NAME, Legacy20Store.LEGACY_VERSION ),
     PROPERTY_STORE( "PropertyStore", StoreFactory.PROPERTY_STORE_NAME ),
     PROPERTY_ARRAY_STORE( "ArrayPropertyStore", StoreFactory.PROPERTY_ARRAYS_STORE_NAME ),
     PROPERTY_STRING_STORE( "StringPropertyStore", StoreFactory.PROPERTY_STRINGS_STORE_NAME ),
@@ -42,29 +44,43 @@ public enum StoreFile
     RELATIONSHIP_STORE( "RelationshipStore", StoreFactory.RELATIONSHIP_STORE_NAME ),
     RELATIONSHIP_TYPE_STORE( "RelationshipTypeStore", StoreFactory.RELATIONSHIP_TYPE_TOKEN_STORE_NAME ),
     RELATIONSHIP_TYPE_NAMES_STORE( "StringPropertyStore", StoreFactory.RELATIONSHIP_TYPE_TOKEN_NAMES_STORE_NAME ),
-    LABEL_NAME_STORE( "LabelNameStore", StoreFactory.LABEL_TOKEN_STORE_NAME, false ),
-    LABEL_NAME_NAMES_STORE( "StringPropertyStore", StoreFactory.LABEL_TOKEN_NAMES_STORE_NAME, false ),
-    SCHEMA_STORE( "SchemaStore", StoreFactory.SCHEMA_STORE_NAME, false );
+    LABEL_NAME_STORE( "LabelTokenStore", StoreFactory.LABEL_TOKEN_STORE_NAME, Legacy20Store.LEGACY_VERSION ),
+    LABEL_NAME_NAMES_STORE( "StringPropertyStore", StoreFactory.LABEL_TOKEN_NAMES_STORE_NAME,
+            Legacy20Store.LEGACY_VERSION ),
+    SCHEMA_STORE( "SchemaStore", StoreFactory.SCHEMA_STORE_NAME, Legacy20Store.LEGACY_VERSION ),
+    RELATIONSHIP_GROUP_STORE( "RelationshipGroupStore", StoreFactory.RELATIONSHIP_GROUP_STORE_NAME,
+            CommonAbstractStore.ALL_STORES_VERSION );
     
     private final String typeDescriptor;
     private final String storeFileNamePart;
-    private final boolean existsInBoth;
+    private final String sinceVersion;
 
     private StoreFile( String typeDescriptor, String storeFileNamePart )
     {
-        this( typeDescriptor, storeFileNamePart, true );
+        this( typeDescriptor, storeFileNamePart, LegacyStore.LEGACY_VERSION );
     }
     
-    private StoreFile( String typeDescriptor, String storeFileNamePart, boolean existsInBoth )
+    /**
+     * @param sinceVersion the first store version that has this file.
+     */
+    private StoreFile( String typeDescriptor, String storeFileNamePart, String sinceVersion )
     {
         this.typeDescriptor = typeDescriptor;
         this.storeFileNamePart = storeFileNamePart;
-        this.existsInBoth = existsInBoth;
+        this.sinceVersion = sinceVersion;
     }
     
     public String legacyVersion()
     {
-        return typeDescriptor + " " + LegacyStore.LEGACY_VERSION;
+        return versionIn( LegacyStore.LEGACY_VERSION );
+    }
+
+    /**
+     * The version String found at the end of this file in a store of the given version.
+     */
+    public String versionIn( String storeVersion )
+    {
+        return typeDescriptor + " " + storeVersion;
     }
 
     /**
@@ -86,13 +102,22 @@ public enum StoreFile
     }
     
     public static Iterable<StoreFile> legacyStoreFiles()
+    {
+        return storeFilesIn( LegacyStore.LEGACY_VERSION );
+    }
+
+    /**
+     * The files of a store of the given version. Store versions all have the same length, so they are ordered
+     * like the releases that introduced them.
+     */
+    public static Iterable<StoreFile> storeFilesIn( final String storeVersion )
     {
         Predicate<StoreFile> predicate = new Predicate<StoreFile>()
         {
             @Override
             public boolean accept( StoreFile item )
             {
-                return item.existsInBoth;
+                return item.sinceVersion.compareTo( storeVersion ) <= 0;
             }
         };
         Iterable<StoreFile> storeFiles = currentStoreFiles();
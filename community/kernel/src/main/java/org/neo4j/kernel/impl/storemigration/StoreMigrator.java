@@ -25,7 +25,10 @@ import java.util.HashMap;
 import java.util.Map;
 
 import org.neo4j.kernel.impl.core.Token;
+import org.neo4j.kernel.impl.nioneo.store.DynamicArrayStore;
 import org.neo4j.kernel.impl.nioneo.store.DynamicRecord;
+import org.neo4j.kernel.impl.nioneo.store.DynamicStringStore;
+import org.neo4j.kernel.impl.nioneo.store.LabelTokenStore;
 import org.neo4j.kernel.impl.nioneo.store.NeoStore;
 import org.neo4j.kernel.impl.nioneo.store.NodeRecord;
 import org.neo4j.kernel.impl.nioneo.store.NodeStore;
@@ -34,6 +37,11 @@ import org.neo4j.kernel.impl.nioneo.store.PropertyKeyTokenRecord;
 import org.neo4j.kernel.impl.nioneo.store.PropertyKeyTokenStore;
 import org.neo4j.kernel.impl.nioneo.store.PropertyRecord;
 import org.neo4j.kernel.impl.nioneo.store.PropertyStore;
+import org.neo4j.kernel.impl.nioneo.store.RelationshipStore;
+import org.neo4j.kernel.impl.nioneo.store.RelationshipTypeTokenStore;
+import org.neo4j.kernel.impl.nioneo.store.SchemaStore;
+import org.neo4j.kernel.impl.nioneo.store.StoreFactory;
+import org.neo4j.kernel.impl.storemigration.legacystore.Legacy20Store;
 import org.neo4j.kernel.impl.storemigration.legacystore.LegacyStore;
 import org.neo4j.kernel.impl.storemigration.monitoring.MigrationProgressMonitor;
 
@@ -42,11 +50,12 @@ import static org.neo4j.helpers.collection.IteratorUtil.first;
 import static org.neo4j.helpers.collection.IteratorUtil.loop;
 
 /**
- * Migrates a neo4j database from one version to the next. Instantiated with a {@link LegacyStore}
+ * Migrates a neo4j database from one version to the next. Given a {@link LegacyStore} or {@link Legacy20Store}
  * representing the old version and a {@link NeoStore} representing the new version.
  * 
- * Since only one store migration is supported at any given version (migration from the previous store version)
- * the migration code is specific for the current upgrade and changes with each store format version.
+ * Migrations are supported from the two previous store versions, {@link LegacyStore#LEGACY_VERSION} and
+ * {@link Legacy20Store#LEGACY_VERSION}. The migration code is specific for the current upgrade and changes with
+ * each store format version.
  */
 public class StoreMigrator
 {
@@ -63,6 +72,13 @@ public class StoreMigrator
         new Migration( legacyStore, neoStore ).migrate();
         progressMonitor.finished();
     }
+
+    public void migrate( Legacy20Store legacyStore, NeoStore neoStore ) throws IOException
+    {
+        progressMonitor.started();
+        new Legacy20Migration( legacyStore, neoStore ).migrate();
+        progressMonitor.finished();
+    }
     
     protected class Migration
     {
@@ -196,4 +212,83 @@ public class StoreMigrator
             }
         }
     }
+
+    /**
+     * Migrates a store from before dense nodes. The node records are rewritten with room for the dense flag, every
+     * node being sparse, and the relationship group store is left empty as the new store created it.
+     */
+    protected class Legacy20Migration
+    {
+        private final Legacy20Store legacyStore;
+        private final NeoStore neoStore;
+        private final long totalEntities;
+        private int percentComplete;
+
+        public Legacy20Migration( Legacy20Store legacyStore, NeoStore neoStore )
+        {
+            this.legacyStore = legacyStore;
+            this.neoStore = neoStore;
+            totalEntities = legacyStore.getNodeStoreReader().getMaxId();
+        }
+
+        private void migrate() throws IOException
+        {
+            // Migrate
+            legacyStore.copyNeoStore( neoStore );
+            neoStore.setStoreVersion( NeoStore.versionStringToLong( NeoStore.ALL_STORES_VERSION ) );
+            migrateNodes( neoStore.getNodeStore() );
+
+            // Close
+            neoStore.close();
+            legacyStore.close();
+
+            // Just copy unchanged stores that doesn't need migration
+            legacyStore.copyStore( neoStore, StoreFactory.NODE_LABELS_STORE_NAME, DynamicArrayStore.TYPE_DESCRIPTOR );
+            legacyStore.copyStore( neoStore, StoreFactory.PROPERTY_STORE_NAME, PropertyStore.TYPE_DESCRIPTOR );
+            legacyStore.copyStore( neoStore, StoreFactory.PROPERTY_ARRAYS_STORE_NAME,
+                    DynamicArrayStore.TYPE_DESCRIPTOR );
+            legacyStore.copyStore( neoStore, StoreFactory.PROPERTY_STRINGS_STORE_NAME,
+                    DynamicStringStore.TYPE_DESCRIPTOR );
+            legacyStore.copyStore( neoStore, StoreFactory.PROPERTY_KEY_TOKEN_STORE_NAME,
+                    PropertyKeyTokenStore.TYPE_DESCRIPTOR );
+            legacyStore.copyStore( neoStore, StoreFactory.PROPERTY_KEY_TOKEN_NAMES_STORE_NAME,
+                    DynamicStringStore.TYPE_DESCRIPTOR );
+            legacyStore.copyStore( neoStore, StoreFactory.RELATIONSHIP_STORE_NAME, RelationshipStore.TYPE_DESCRIPTOR );
+            legacyStore.copyStore( neoStore, StoreFactory.RELATIONSHIP_TYPE_TOKEN_STORE_NAME,
+                    RelationshipTypeTokenStore.TYPE_DESCRIPTOR );
+            legacyStore.copyStore( neoStore, StoreFactory.RELATIONSHIP_TYPE_TOKEN_NAMES_STORE_NAME,
+                    DynamicStringStore.TYPE_DESCRIPTOR );
+            legacyStore.copyStore( neoStore, StoreFactory.LABEL_TOKEN_STORE_NAME, LabelTokenStore.TYPE_DESCRIPTOR );
+            legacyStore.copyStore( neoStore, StoreFactory.LABEL_TOKEN_NAMES_STORE_NAME,
+                    DynamicStringStore.TYPE_DESCRIPTOR );
+            legacyStore.copyStore( neoStore, StoreFactory.SCHEMA_STORE_NAME, SchemaStore.TYPE_DESCRIPTOR );
+        }
+
+        private void migrateNodes( NodeStore nodeStore ) throws IOException
+        {
+            for ( NodeRecord nodeRecord : loop( legacyStore.getNodeStoreReader().readNodeStore() ) )
+            {
+                reportProgress( nodeRecord.getId() );
+                nodeStore.setHighId( nodeRecord.getId() + 1 );
+                if ( nodeRecord.inUse() )
+                {
+                    nodeStore.updateRecord( nodeRecord );
+                }
+                else
+                {
+                    nodeStore.freeId( nodeRecord.getId() );
+                }
+            }
+        }
+
+        private void reportProgress( long id )
+        {
+            int newPercent = (int) (id * 100 / totalEntities);
+            if ( newPercent > percentComplete )
+            {
+                percentComplete = newPercent;
+                progressMonitor.percentComplete( percentComplete );
+            }
+        }
+    }
 }
@@ -26,6 +26,8 @@ import java.nio.channels.FileChannel;
 
 import org.neo4j.helpers.UTF8;
 import org.neo4j.kernel.impl.nioneo.store.FileSystemAbstraction;
+import org.neo4j.kernel.impl.storemigration.legacystore.Legacy20Store;
+import org.neo4j.kernel.impl.storemigration.legacystore.LegacyStore;
 
 /**
  * Logic to check whether a database version is upgradable to the current version. It looks at the
@@ -56,12 +58,18 @@ public class UpgradableDatabase
         }
     }
 
-    public void checkUpgradeable( File neoStoreFile )
+    /**
+     * @return the store version of the database, which is either {@link LegacyStore#LEGACY_VERSION} or
+     * {@link Legacy20Store#LEGACY_VERSION}.
+     */
+    public String checkUpgradeable( File neoStoreFile )
     {
+        String storeVersion = isStoreVersion( neoStoreFile, Legacy20Store.LEGACY_VERSION )
+                ? Legacy20Store.LEGACY_VERSION : LegacyStore.LEGACY_VERSION;
         File storeDirectory = neoStoreFile.getParentFile();
-        for ( StoreFile store : StoreFile.legacyStoreFiles() )
+        for ( StoreFile store : StoreFile.storeFilesIn( storeVersion ) )
         {
-            String expectedVersion = store.legacyVersion();
+            String expectedVersion = store.versionIn( storeVersion );
             FileChannel fileChannel = null;
             byte[] expectedVersionBytes = UTF8.encode( expectedVersion );
             try
@@ -76,10 +84,7 @@ public class UpgradableDatabase
                 {
                     throw new StoreUpgrader.UpgradingStoreVersionNotFoundException( storeFile.getName() );
                 }
-                fileChannel.position( fileChannel.size() - expectedVersionBytes.length );
-                byte[] foundVersionBytes = new byte[expectedVersionBytes.length];
-                fileChannel.read( ByteBuffer.wrap( foundVersionBytes ) );
-                String actualVersion = UTF8.decode( foundVersionBytes );
+                String actualVersion = readVersion( fileChannel, expectedVersionBytes.length );
                 if ( !actualVersion.startsWith( store.typeDescriptor() ) )
                 {
                     throw new StoreUpgrader.UpgradingStoreVersionNotFoundException( store.storeFileName() );
@@ -104,10 +109,50 @@ public class UpgradableDatabase
                     }
                     catch ( IOException e )
                     {
-                        return;
+                        return storeVersion;
                     }
                 }
             }
         }
+        return storeVersion;
+    }
+
+    /**
+     * Whether the neostore file says the database is of the given version. Anything else is checked against
+     * {@link LegacyStore#LEGACY_VERSION}, the oldest version that can be upgraded.
+     */
+    private boolean isStoreVersion( File neoStoreFile, String storeVersion )
+    {
+        byte[] expectedVersionBytes = UTF8.encode( StoreFile.NEO_STORE.versionIn( storeVersion ) );
+        try
+        {
+            if ( !fs.fileExists( neoStoreFile ) )
+            {
+                return false;
+            }
+            FileChannel fileChannel = fs.open( neoStoreFile, "r" );
+            try
+            {
+                return fileChannel.size() >= expectedVersionBytes.length &&
+                       readVersion( fileChannel, expectedVersionBytes.length )
+                               .equals( UTF8.decode( expectedVersionBytes ) );
+            }
+            finally
+            {
+                fileChannel.close();
+            }
+        }
+        catch ( IOException e )
+        {
+            throw new RuntimeException( e );
+        }
+    }
+
+    private static String readVersion( FileChannel fileChannel, int length ) throws IOException
+    {
+        fileChannel.position( fileChannel.size() - length );
+        byte[] foundVersionBytes = new byte[length];
+        fileChannel.read( ByteBuffer.wrap( foundVersionBytes ) );
+        return UTF8.decode( foundVersionBytes );
     }
 }
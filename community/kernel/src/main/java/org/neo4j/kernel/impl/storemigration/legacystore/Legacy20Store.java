@@ -0,0 +1,88 @@
+/**
+ * Copyright (c) 2002-2013 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.storemigration.legacystore;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+
+import org.neo4j.kernel.impl.nioneo.store.CommonAbstractStore;
+import org.neo4j.kernel.impl.nioneo.store.FileSystemAbstraction;
+import org.neo4j.kernel.impl.nioneo.store.NeoStore;
+import org.neo4j.kernel.impl.nioneo.store.StoreFactory;
+
+import static org.neo4j.kernel.impl.nioneo.store.CommonAbstractStore.buildTypeDescriptorAndVersion;
+import static org.neo4j.kernel.impl.storemigration.legacystore.LegacyStore.assertLegacyAndCurrentVersionHaveSameLength;
+
+/**
+ * Reader for a database in the store format that precedes dense nodes, {@link #LEGACY_VERSION}.
+ *
+ * Only the node store changed since then, its records got one more byte for the dense flag. Every other store file
+ * is copied as it is, with the version at its end replaced by the current one.
+ */
+public class Legacy20Store implements Closeable
+{
+    public static final String LEGACY_VERSION = "v0.A.1";
+
+    private final FileSystemAbstraction fs;
+    private final File storageFileName;
+    private final Legacy20NodeStoreReader nodeStoreReader;
+
+    public Legacy20Store( FileSystemAbstraction fs, File storageFileName ) throws IOException
+    {
+        this.fs = fs;
+        this.storageFileName = storageFileName;
+        assertLegacyAndCurrentVersionHaveSameLength( LEGACY_VERSION, CommonAbstractStore.ALL_STORES_VERSION );
+        nodeStoreReader = new Legacy20NodeStoreReader( fs,
+                new File( storageFileName.getPath() + StoreFactory.NODE_STORE_NAME ) );
+    }
+
+    public File getStorageFileName()
+    {
+        return storageFileName;
+    }
+
+    public Legacy20NodeStoreReader getNodeStoreReader()
+    {
+        return nodeStoreReader;
+    }
+
+    @Override
+    public void close() throws IOException
+    {
+        nodeStoreReader.close();
+    }
+
+    public void copyNeoStore( NeoStore neoStore ) throws IOException
+    {
+        copyStore( neoStore, "", neoStore.getTypeAndVersionDescriptor() );
+    }
+
+    /**
+     * Copies a store file that has the same format in both versions.
+     *
+     * @param typeDescriptor the type descriptor at the end of the store file.
+     */
+    public void copyStore( NeoStore neoStore, String storeNamePart, String typeDescriptor ) throws IOException
+    {
+        LegacyStore.copyStore( fs, storageFileName, neoStore.getStorageFileName(), storeNamePart,
+                buildTypeDescriptorAndVersion( typeDescriptor ) );
+    }
+}
@@ -112,18 +112,28 @@ public class LegacyStore implements Closeable
 
     private void copyStore( File targetBaseStorageFileName, String storeNamePart, String versionTrailer )
             throws IOException
+    {
+        copyStore( fs, storageFileName, targetBaseStorageFileName, storeNamePart, versionTrailer );
+    }
+
+    /**
+     * Copies a store file and its id file, replacing the version at the end of the store file.
+     */
+    static void copyStore( FileSystemAbstraction fs, File sourceBaseStorageFileName, File targetBaseStorageFileName,
+                           String storeNamePart, String versionTrailer ) throws IOException
     {
         File targetStoreFileName = new File( targetBaseStorageFileName.getPath() + storeNamePart );
-        fs.copyFile( new File( storageFileName + storeNamePart ), targetStoreFileName );
+        fs.copyFile( new File( sourceBaseStorageFileName + storeNamePart ), targetStoreFileName );
         
-        setStoreVersionTrailer( targetStoreFileName, versionTrailer );
+        setStoreVersionTrailer( fs, targetStoreFileName, versionTrailer );
         
         fs.copyFile(
-                new File( storageFileName + storeNamePart + ".id" ),
+                new File( sourceBaseStorageFileName + storeNamePart + ".id" ),
                 new File( targetBaseStorageFileName + storeNamePart + ".id" ) );
     }
 
-    private void setStoreVersionTrailer( File targetStoreFileName, String versionTrailer ) throws IOException
+    private static void setStoreVersionTrailer( FileSystemAbstraction fs, File targetStoreFileName,
+                                                String versionTrailer ) throws IOException
     {
         FileChannel fileChannel = fs.open( targetStoreFileName, "rw" );
         try
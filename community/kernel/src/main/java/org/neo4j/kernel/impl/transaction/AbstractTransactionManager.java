@@ -22,10 +22,12 @@ package org.neo4j.kernel.impl.transaction;
 import javax.transaction.NotSupportedException;
 import javax.transaction.SystemException;
 import javax.transaction.TransactionManager;
+import javax.transaction.xa.XAException;
 
 import org.neo4j.graphdb.NotInTransactionException;
 import org.neo4j.kernel.impl.core.TransactionState;
 import org.neo4j.kernel.impl.transaction.xaframework.ForceMode;
+import org.neo4j.kernel.impl.transaction.xaframework.PendingCommit;
 import org.neo4j.kernel.lifecycle.Lifecycle;
 
 /**
@@ -56,6 +58,18 @@ public abstract class AbstractTransactionManager implements TransactionManager,
         return ForceMode.forced;
     }
     
+    /**
+     * Called by resources which have written, but not yet forced, the commit of the transaction tied to
+     * the calling thread. The default implementation completes the commit right away. Transaction managers
+     * that commit their resources while holding a lock may defer completing it until after having released
+     * the lock, so that concurrently committing transactions can share forces. Either way the commit is
+     * completed before the transaction is reported as committed.
+     */
+    public void completeCommit( PendingCommit commit ) throws XAException
+    {
+        commit.complete();
+    }
+
     /**
      * Returns the {@link TransactionState} associated with the current transaction.
      * If no transaction is active for the current thread {@link TransactionState#NO_STATE}
@@ -49,18 +49,36 @@ import org.neo4j.kernel.logging.Logging;
  * must invoke <CODE>releaseReadLock</CODE> x times to release all the locks.
  * <p>
  * LockManager just maps locks to resources and they do all the hard work
- * together with a resource allocation graph.
+ * together with a resource allocation graph. The map is split up into stripes
+ * by resource, so that only transactions locking resources of the same stripe
+ * contend for the same monitor.
  */
 public class LockManagerImpl implements LockManager
 {
-    private final Map<Object,RWLock> resourceLockMap =
-        new HashMap<Object,RWLock>();
+    // Resources are spread out over a number of stripes, each guarded by its own monitor, so that
+    // transactions locking different resources rarely have to synchronize with each other.
+    private static final int STRIPE_COUNT = 128;
+
+    private final Map<Object,RWLock>[] resourceLockMaps;
 
     private final RagManager ragManager;
 
+    @SuppressWarnings( "unchecked" )
     public LockManagerImpl( RagManager ragManager )
     {
         this.ragManager = ragManager;
+        this.resourceLockMaps = new Map[STRIPE_COUNT];
+        for ( int i = 0; i < resourceLockMaps.length; i++ )
+        {
+            resourceLockMaps[i] = new HashMap<Object,RWLock>();
+        }
+    }
+
+    private Map<Object,RWLock> resourceLockMap( Object resource )
+    {
+        int hash = resource.hashCode();
+        hash ^= (hash >>> 16);
+        return resourceLockMaps[hash & (STRIPE_COUNT - 1)];
     }
 
     @Override
@@ -87,18 +105,7 @@ public class LockManagerImpl implements LockManager
     {
         assertValidArguments( resource, tx );
 
-        RWLock lock;
-        synchronized ( resourceLockMap )
-        {
-            lock = resourceLockMap.get( resource );
-            if ( lock == null )
-            {
-                lock = new RWLock( resource, ragManager );
-                resourceLockMap.put( resource, lock );
-            }
-            lock.mark();
-        }
-        lock.acquireReadLock(tx);
+        getMarkedLock( resource ).acquireReadLock(tx);
     }
 
     /**
@@ -119,18 +126,24 @@ public class LockManagerImpl implements LockManager
     {
         assertValidArguments( resource, tx );
 
-        RWLock lock;
+        getMarkedLock( resource ).acquireWriteLock(tx);
+    }
+
+    // The mark keeps the lock from being removed from its map before the acquiring transaction gets to it
+    private RWLock getMarkedLock( Object resource )
+    {
+        Map<Object,RWLock> resourceLockMap = resourceLockMap( resource );
         synchronized ( resourceLockMap )
         {
-            lock = resourceLockMap.get( resource );
+            RWLock lock = resourceLockMap.get( resource );
             if ( lock == null )
             {
                 lock = new RWLock( resource, ragManager );
                 resourceLockMap.put( resource, lock );
             }
             lock.mark();
+            return lock;
         }
-        lock.acquireWriteLock(tx);
     }
 
     private void assertValidArguments( Object resource, Transaction tx )
@@ -157,6 +170,7 @@ public class LockManagerImpl implements LockManager
     {
         assertValidArguments( resource, tx );
 
+        Map<Object,RWLock> resourceLockMap = resourceLockMap( resource );
         RWLock lock;
         synchronized ( resourceLockMap )
         {
@@ -192,6 +206,7 @@ public class LockManagerImpl implements LockManager
     {
         assertValidArguments( resource, tx );
 
+        Map<Object,RWLock> resourceLockMap = resourceLockMap( resource );
         RWLock lock;
         synchronized ( resourceLockMap )
         {
@@ -219,6 +234,7 @@ public class LockManagerImpl implements LockManager
     public void dumpLocksOnResource( Object resource, Logging logging )
     {
         StringLogger logger = logging.getMessagesLog( LockManager.class );
+        Map<Object,RWLock> resourceLockMap = resourceLockMap( resource );
         RWLock lock;
         synchronized ( resourceLockMap )
         {
@@ -253,11 +269,14 @@ public class LockManagerImpl implements LockManager
      */
     private <V extends Visitor<LockInfo, RuntimeException>> V eachLock( V visitor )
     {
-        synchronized ( resourceLockMap )
+        for ( Map<Object,RWLock> resourceLockMap : resourceLockMaps )
         {
-            for ( RWLock lock : resourceLockMap.values() )
+            synchronized ( resourceLockMap )
             {
-                if ( visitor.visit( lock.info() ) ) break;
+                for ( RWLock lock : resourceLockMap.values() )
+                {
+                    if ( visitor.visit( lock.info() ) ) return visitor;
+                }
             }
         }
         return visitor;
@@ -277,11 +296,14 @@ public class LockManagerImpl implements LockManager
     private <V extends Visitor<LockInfo, RuntimeException>> V eachAwaitedLock( V visitor, long minWaitTime )
     {
         long waitStart = System.currentTimeMillis() - minWaitTime;
-        synchronized ( resourceLockMap )
+        for ( Map<Object,RWLock> resourceLockMap : resourceLockMaps )
         {
-            for ( RWLock lock : resourceLockMap.values() )
+            synchronized ( resourceLockMap )
             {
-                if ( lock.acceptVisitorIfWaitedSinceBefore( visitor, waitStart ) ) break;
+                for ( RWLock lock : resourceLockMap.values() )
+                {
+                    if ( lock.acceptVisitorIfWaitedSinceBefore( visitor, waitStart ) ) return visitor;
+                }
             }
         }
         return visitor;
@@ -19,19 +19,19 @@
  */
 package org.neo4j.kernel.impl.transaction;
 
-import java.util.HashMap;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Stack;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.transaction.Transaction;
 
 import org.neo4j.helpers.collection.Visitor;
 import org.neo4j.kernel.DeadlockDetectedException;
-import org.neo4j.kernel.impl.util.ArrayMap;
 import org.neo4j.kernel.impl.util.StringLogger.LineLogger;
 
 /**
@@ -72,11 +72,17 @@ public class RagManager implements Visitor<LineLogger, RuntimeException>
     // o When the transaction wakes up from waiting on a resource the
     // stopWaitOn( resource ) method must be invoked
 
+    // Locking transactions of a resource only change while holding the monitor
+    // of that RWLock, which keeps lockAcquired and lockReleased from having to
+    // synchronize on this RagManager. Only waiting, the slow path, takes the
+    // monitor of this RagManager, which keeps the deadlock detection seeing a
+    // stable graph, since transactions waiting for a lock can't acquire or
+    // release any locks until they have stopped waiting.
     private final Map<Object,List<Transaction>> resourceMap =
-        new HashMap<Object,List<Transaction>>();
+        new ConcurrentHashMap<Object,List<Transaction>>();
 
-    private final ArrayMap<Transaction,Object> waitingTxMap =
-        new ArrayMap<Transaction,Object>( (byte)5, false, true );
+    private final Map<Transaction,Object> waitingTxMap =
+        new ConcurrentHashMap<Transaction,Object>();
 
     private final AtomicInteger deadlockCount = new AtomicInteger();
 
@@ -85,7 +91,7 @@ public class RagManager implements Visitor<LineLogger, RuntimeException>
         return deadlockCount.longValue();
     }
 
-    synchronized void lockAcquired( Object resource, Transaction tx )
+    void lockAcquired( Object resource, Transaction tx )
     {
         List<Transaction> lockingTxList = resourceMap.get( resource );
         if ( lockingTxList != null )
@@ -95,13 +101,13 @@ public class RagManager implements Visitor<LineLogger, RuntimeException>
         }
         else
         {
-            lockingTxList = new LinkedList<Transaction>();
+            lockingTxList = new CopyOnWriteArrayList<Transaction>();
             lockingTxList.add( tx );
             resourceMap.put( resource, lockingTxList );
         }
     }
 
-    synchronized void lockReleased( Object resource, Transaction tx )
+    void lockReleased( Object resource, Transaction tx )
     {
         List<Transaction> lockingTxList = resourceMap.get( resource );
         if ( lockingTxList == null )
@@ -264,7 +270,7 @@ public class RagManager implements Visitor<LineLogger, RuntimeException>
             logger.logLine( "" + tx + "->" + waitingTxMap.get( tx ) );
         }
         logger.logLine( "Resource lock list: " );
-        Iterator<?> resources = resourceMap.keySet().iterator();
+        Iterator<Map.Entry<Object,List<Transaction>>> resources = resourceMap.entrySet().iterator();
         if ( !resources.hasNext() )
         {
             logger.logLine( "No locked resources found" );
@@ -275,9 +281,9 @@ public class RagManager implements Visitor<LineLogger, RuntimeException>
         }
         while ( resources.hasNext() )
         {
-            Object resource = resources.next();
-            logger.logLine( "" + resource + "->" );
-            Iterator<Transaction> itr = resourceMap.get( resource ).iterator();
+            Map.Entry<Object,List<Transaction>> resource = resources.next();
+            logger.logLine( "" + resource.getKey() + "->" );
+            Iterator<Transaction> itr = resource.getValue().iterator();
             if ( !itr.hasNext() )
             {
                 logger.logLine( " Error empty list found" );
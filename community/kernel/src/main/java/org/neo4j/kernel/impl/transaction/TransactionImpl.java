@@ -41,6 +41,7 @@ import org.neo4j.helpers.Exceptions;
 import org.neo4j.kernel.impl.core.TransactionState;
 import org.neo4j.kernel.impl.nioneo.xa.NeoStoreXaDataSource;
 import org.neo4j.kernel.impl.transaction.xaframework.ForceMode;
+import org.neo4j.kernel.impl.transaction.xaframework.PendingCommit;
 import org.neo4j.kernel.impl.util.MultipleCauseException;
 import org.neo4j.kernel.impl.util.StringLogger;
 
@@ -65,6 +66,7 @@ class TransactionImpl implements Transaction
     private final StringLogger logger;
     private final ForceMode forceMode;
     private Thread owner;
+    private List<PendingCommit> deferredCommits;
 
     private final TransactionState state;
 
@@ -474,7 +476,13 @@ class TransactionImpl implements Transaction
         return true;
     }
 
-    void doCommit() throws XAException, SystemException
+    /**
+     * Prepares all resources and marks the transaction as committing in the transaction log, unless it
+     * only has one resource in which case preparing is part of committing it. When group committing
+     * the {@link TxManager} does this before taking its commit lock, so that concurrent transactions can
+     * share forces of the transaction log.
+     */
+    void doPrepare() throws XAException, SystemException
     {
         boolean onePhase = isOnePhase();
         boolean readOnly = true;
@@ -532,6 +540,19 @@ class TransactionImpl implements Transaction
                                                                  + " error writing transaction log" ), e );
             }
         }
+    }
+
+    /**
+     * Commits all resources, after {@link #doPrepare()} if there are more than one.
+     */
+    void doCommit() throws XAException, SystemException
+    {
+        if ( status == Status.STATUS_COMMITTED || status == Status.STATUS_MARKED_ROLLBACK )
+        {
+            // Either read only or voted for rollback in doPrepare()
+            return;
+        }
+        boolean onePhase = isOnePhase();
         // commit
         status = Status.STATUS_COMMITTING;
         for ( ResourceElement re : resourceList )
@@ -555,6 +576,33 @@ class TransactionImpl implements Transaction
         status = Status.STATUS_COMMITTED;
     }
 
+    /**
+     * Called by the {@link TxManager} for resources having written their commit, but not yet forced it,
+     * while the commit lock is held. They are completed in {@link #completeDeferredCommits()}.
+     */
+    void deferCommit( PendingCommit commit )
+    {
+        if ( deferredCommits == null )
+        {
+            deferredCommits = new ArrayList<>( resourceList.size() );
+        }
+        deferredCommits.add( commit );
+    }
+
+    void completeDeferredCommits() throws XAException
+    {
+        if ( deferredCommits == null )
+        {
+            return;
+        }
+        List<PendingCommit> commits = deferredCommits;
+        deferredCommits = null;
+        for ( PendingCommit commit : commits )
+        {
+            commit.complete();
+        }
+    }
+
     void doRollback() throws XAException
     {
         status = Status.STATUS_ROLLING_BACK;
@@ -41,11 +41,12 @@ import org.neo4j.helpers.UTF8;
 import org.neo4j.kernel.impl.nioneo.store.FileSystemAbstraction;
 import org.neo4j.kernel.impl.transaction.xaframework.DirectMappedLogBuffer;
 import org.neo4j.kernel.impl.transaction.xaframework.ForceMode;
+import org.neo4j.kernel.impl.transaction.xaframework.GroupCommitter;
 import org.neo4j.kernel.impl.transaction.xaframework.LogBuffer;
+import org.neo4j.kernel.impl.transaction.xaframework.UnforcedCommit;
 
 // TODO: fixed sized logs (pre-initialize them)
 // keep dangling records in memory for log switch
-// batch disk forces
 /**
  * This class is made public for testing purposes only, do not use.
  * <p>
@@ -65,6 +66,7 @@ public class TxLog
 
     private final Collection<ByteArrayKey> activeTransactions = new HashSet<>();
     private final FileSystemAbstraction fileSystem;
+    private final GroupCommitter groupCommitter;
 
     private File name = null;
     private LogBuffer logBuffer;
@@ -105,12 +107,23 @@ public class TxLog
      *             If unable to open file
      */
     public TxLog( File fileName, FileSystemAbstraction fileSystem ) throws IOException
+    {
+        this( fileName, fileSystem, null );
+    }
+
+    /**
+     * Same as {@link #TxLog(File, FileSystemAbstraction)}, but if {@code groupCommitter} isn't
+     * {@code null} concurrent {@link #markAsCommitting(byte[], ForceMode) marks as committing}
+     * will share forces of the log.
+     */
+    public TxLog( File fileName, FileSystemAbstraction fileSystem, GroupCommitter groupCommitter ) throws IOException
     {
         if ( fileName == null )
         {
             throw new IllegalArgumentException( "Null filename" );
         }
         this.fileSystem = fileSystem;
+        this.groupCommitter = groupCommitter;
         FileChannel fileChannel = fileSystem.open( fileName, "rw" );
         fileChannel.position( fileChannel.size() );
         logBuffer = new DirectMappedLogBuffer( fileChannel );
@@ -155,7 +168,7 @@ public class TxLog
      */
     public synchronized void close() throws IOException
     {
-        logBuffer.force();
+        force();
         logBuffer.getFileChannel().close();
     }
 
@@ -165,6 +178,10 @@ public class TxLog
     public void force() throws IOException
     {
         logBuffer.force();
+        if ( groupCommitter != null )
+        {
+            groupCommitter.forcedAll();
+        }
     }
 
     /**
@@ -242,7 +259,9 @@ public class TxLog
 
     /**
      * Writes a <CODE>MARK_COMMIT</CODE> record to the file and forces the
-     * file to disk.
+     * file to disk. If this log has a {@link GroupCommitter} the force is
+     * done outside of the monitor of this log, possibly shared with other
+     * concurrently committing transactions.
      * 
      * @param globalId
      *            The global id of the transaction
@@ -251,14 +270,30 @@ public class TxLog
      */
     // mark_committing(byte)|gid_length(byte)|globalId
     // forces
-    public synchronized void markAsCommitting( byte globalId[], ForceMode forceMode ) throws IOException
+    public void markAsCommitting( byte globalId[], ForceMode forceMode ) throws IOException
+    {
+        UnforcedCommit unforcedCommit;
+        synchronized ( this )
+        {
+            writeMarkAsCommitting( globalId );
+            if ( groupCommitter == null || forceMode != ForceMode.forced )
+            {
+                forceMode.force( logBuffer );
+                return;
+            }
+            logBuffer.writeOut();
+            unforcedCommit = groupCommitter.append( logBuffer.getFileChannel() );
+        }
+        unforcedCommit.awaitForced();
+    }
+
+    private void writeMarkAsCommitting( byte globalId[] ) throws IOException
     {
         assertNotNull( globalId, "global id" );
         assertActive( globalId );
 
         byte globalIdSize = (byte) globalId.length;
         logBuffer.put( MARK_COMMIT ).put( globalIdSize ).put( globalId );
-        forceMode.force( logBuffer );
         recordCount++;
     }
 
@@ -376,7 +411,8 @@ public class TxLog
                 addBranch( record.getGlobalId(), record.getBranchId() );
                 break;
             case MARK_COMMIT:
-                markAsCommitting( record.getGlobalId(), forceMode );
+                writeMarkAsCommitting( record.getGlobalId() );
+                forceMode.force( logBuffer );
                 break;
             default:
                 // TX_DONE should never be passed in here
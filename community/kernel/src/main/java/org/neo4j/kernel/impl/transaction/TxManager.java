@@ -48,6 +48,8 @@ import org.neo4j.kernel.impl.core.KernelPanicEventGenerator;
 import org.neo4j.kernel.impl.core.TransactionState;
 import org.neo4j.kernel.impl.nioneo.store.FileSystemAbstraction;
 import org.neo4j.kernel.impl.transaction.xaframework.ForceMode;
+import org.neo4j.kernel.impl.transaction.xaframework.GroupCommitter;
+import org.neo4j.kernel.impl.transaction.xaframework.PendingCommit;
 import org.neo4j.kernel.impl.transaction.xaframework.XaDataSource;
 import org.neo4j.kernel.impl.transaction.xaframework.XaResource;
 import org.neo4j.kernel.impl.util.ExceptionCauseSetter;
@@ -123,6 +125,7 @@ public class TxManager extends AbstractTransactionManager implements Lifecycle
     private final TransactionStateFactory stateFactory;
 
     private final Monitor monitor;
+    private final GroupCommitter txLogGroupCommitter;
 
     public TxManager( File txLogDir,
                       XaDataSourceManager xaDataSourceManager,
@@ -143,6 +146,23 @@ public class TxManager extends AbstractTransactionManager implements Lifecycle
                       TransactionStateFactory stateFactory,
                       Monitor monitor
     )
+    {
+        this(txLogDir, xaDataSourceManager, kpe, log, fileSystem, stateFactory, monitor, null);
+    }
+
+    /**
+     * @param txLogGroupCommitter if not {@code null}, concurrently committing transactions with more
+     * than one resource will share forces of the tx log.
+     */
+    public TxManager( File txLogDir,
+                      XaDataSourceManager xaDataSourceManager,
+                      KernelPanicEventGenerator kpe,
+                      StringLogger log,
+                      FileSystemAbstraction fileSystem,
+                      TransactionStateFactory stateFactory,
+                      Monitor monitor,
+                      GroupCommitter txLogGroupCommitter
+    )
     {
         this.txLogDir = txLogDir;
         this.xaDataSourceManager = xaDataSourceManager;
@@ -151,6 +171,7 @@ public class TxManager extends AbstractTransactionManager implements Lifecycle
         this.kpe = kpe;
         this.stateFactory = stateFactory;
         this.monitor = monitor;
+        this.txLogGroupCommitter = txLogGroupCommitter;
     }
 
     int getNextEventIdentifier()
@@ -434,9 +455,29 @@ public class TxManager extends AbstractTransactionManager implements Lifecycle
             throws SystemException, HeuristicMixedException,
             HeuristicRollbackException
     {
-        // mark as commit in log done TxImpl.doCommit()
+        // mark as commit in log done TxImpl.doPrepare()
         Throwable commitFailureCause = null;
         int xaErrorCode = -1;
+
+        /*
+         * When group committing, prepare, including forcing the mark as committing in the tx log, happens
+         * before taking the lock so that concurrently committing transactions can share forces of the tx log.
+         * Preparing only touches the resources of this transaction and the tx log, which synchronizes itself.
+         * A failure to prepare is handled under the lock, just as a failure to commit.
+         */
+        Throwable prepareFailure = null;
+        if ( txLogGroupCommitter != null && tx.getResourceCount() > 0 )
+        {
+            try
+            {
+                tx.doPrepare();
+            }
+            catch ( Throwable t )
+            {
+                prepareFailure = t;
+            }
+        }
+
         synchronized (this)
         {
            /*
@@ -456,6 +497,14 @@ public class TxManager extends AbstractTransactionManager implements Lifecycle
             {
                 try
                 {
+                    if ( prepareFailure != null )
+                    {
+                        throw prepareFailure;
+                    }
+                    if ( txLogGroupCommitter == null )
+                    {
+                        tx.doPrepare();
+                    }
                     tx.doCommit();
                 }
                 catch ( XAException e )
@@ -513,6 +562,8 @@ public class TxManager extends AbstractTransactionManager implements Lifecycle
             {
                 try
                 {
+                    // Resources that did commit are completed, as if their commit hadn't been deferred
+                    tx.completeDeferredCommits();
                     tx.doRollback();
                 }
                 catch ( Throwable e )
@@ -572,6 +623,20 @@ public class TxManager extends AbstractTransactionManager implements Lifecycle
                 }
             }
         }
+        try
+        {
+            // Waits for the resources to force their commits, making the changes visible and telling
+            // any transaction id listeners only after that
+            tx.completeDeferredCommits();
+        }
+        catch ( XAException e )
+        {
+            log.logMessage( "Error completing commit", e );
+            setTmNotOk( e );
+            throw logAndReturn( "TM error tx commit",
+                    Exceptions.withCause( new SystemException( "TM encountered a problem, "
+                            + " error completing commit" ), e ) );
+        }
         tx.doAfterCompletion();
 
         monitor.txCommitted( new XidImpl( tx.getGlobalId(), new byte[0] ) );
@@ -809,7 +874,7 @@ public class TxManager extends AbstractTransactionManager implements Lifecycle
                                     "Unable to start TM, " + "active tx log file[" +
                                             currentTxLog + "] not found." ) );
                 }
-                txLog = new TxLog( currentTxLog, fileSystem );
+                txLog = new TxLog( currentTxLog, fileSystem, txLogGroupCommitter );
                 log.logMessage( "TM opening log: " + currentTxLog, true );
             }
             else
@@ -829,7 +894,7 @@ public class TxManager extends AbstractTransactionManager implements Lifecycle
                         .getBytes( "UTF-8" ) );
                 FileChannel fc = fileSystem.open( logSwitcherFileName, "rw" );
                 fc.write( buf );
-                txLog = new TxLog( new File( txLogDir, txLog1FileName), fileSystem );
+                txLog = new TxLog( new File( txLogDir, txLog1FileName), fileSystem, txLogGroupCommitter );
                 log.info( "TM new log: " + txLog1FileName );
                 fc.force( true );
                 fc.close();
@@ -952,6 +1017,21 @@ public class TxManager extends AbstractTransactionManager implements Lifecycle
         return -1;
     }
 
+    @Override
+    public void completeCommit( PendingCommit commit ) throws XAException
+    {
+        TransactionImpl tx = txThreadMap.get();
+        if ( tx != null && tx.getStatus() == Status.STATUS_COMMITTING )
+        {
+            // Called from within the commit lock, complete it after having released the lock instead
+            tx.deferCommit( commit );
+        }
+        else
+        {
+            commit.complete();
+        }
+    }
+
     @Override
     public ForceMode getForceMode()
     {
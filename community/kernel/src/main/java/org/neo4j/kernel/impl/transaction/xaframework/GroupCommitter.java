@@ -0,0 +1,210 @@
+/**
+ * Copyright (c) 2002-2013 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.transaction.xaframework;
+
+import java.io.IOException;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+/**
+ * Lets concurrently committing transactions share one force of a log, such as the logical log or the
+ * transaction manager log.
+ * <p/>
+ * A committer writes its commit entry out to the log channel (while holding the log monitor) and
+ * {@link #append(FileChannel) appends} itself, getting an {@link UnforcedCommit} back. After releasing
+ * the log monitor it {@link UnforcedCommit#awaitForced() waits} for it to be covered by a force. The first waiting committer
+ * becomes the leader of the next batch: it optionally lingers for up to {@code maxLatencyMillis} or until
+ * {@code maxBatchSize} commits have piled up, then forces the channel once on behalf of everyone that
+ * has appended so far. Everyone else just waits for the leader to finish.
+ * <p/>
+ * The log itself must call {@link #forcedAll()} whenever it forces the log through some other means,
+ * e.g. at rotation or close, since the channel the batch refers to may be closed by then.
+ */
+public class GroupCommitter
+{
+    private final int maxBatchSize;
+    private final long maxLatencyNanos;
+
+    private FileChannel channel;
+    private long appended;
+    private long forced;
+    private boolean forcing;
+
+    public GroupCommitter( int maxBatchSize, long maxLatencyMillis )
+    {
+        if ( maxBatchSize < 1 )
+        {
+            throw new IllegalArgumentException( "Max batch size must be at least 1, was " + maxBatchSize );
+        }
+        this.maxBatchSize = maxBatchSize;
+        this.maxLatencyNanos = MILLISECONDS.toNanos( maxLatencyMillis );
+    }
+
+    /**
+     * Registers a commit which has been written out to, but not yet forced on, {@code channel}.
+     *
+     * @param channel the channel the commit entry has been written to.
+     * @return the ticket to pass into {@link #awaitForced(long)}.
+     */
+    public synchronized long appendTicket( FileChannel channel )
+    {
+        this.channel = channel;
+        appended++;
+        if ( forcing && appended - forced >= maxBatchSize )
+        {   // Wake up a lingering leader, the batch is full
+            notifyAll();
+        }
+        return appended;
+    }
+
+    /**
+     * Same as {@link #appendTicket(FileChannel)}, but wraps the ticket in an {@link UnforcedCommit}
+     * for the committer to wait on.
+     */
+    public UnforcedCommit append( FileChannel channel )
+    {
+        final long ticket = appendTicket( channel );
+        return new UnforcedCommit()
+        {
+            @Override
+            public void awaitForced() throws IOException
+            {
+                GroupCommitter.this.awaitForced( ticket );
+            }
+        };
+    }
+
+    /**
+     * Marks everything appended so far as forced. Called when the log has been forced by other means
+     * than this group committer, for example when it's rotated or closed.
+     */
+    public synchronized void forcedAll()
+    {
+        forced = appended;
+        notifyAll();
+    }
+
+    /**
+     * Blocks until the commit identified by {@code ticket} has been forced to disk, possibly forcing
+     * it, and every other commit appended before this call, itself.
+     *
+     * @param ticket the ticket returned from {@link #appendTicket(FileChannel)}.
+     * @throws IOException if forcing the log failed.
+     */
+    public void awaitForced( long ticket ) throws IOException
+    {
+        boolean interrupted = false;
+        try
+        {
+            while ( true )
+            {
+                FileChannel channelToForce;
+                long forceUpTo;
+                synchronized ( this )
+                {
+                    if ( forced >= ticket )
+                    {
+                        return;
+                    }
+                    if ( forcing )
+                    {
+                        interrupted |= waitUninterruptibly( 0 );
+                        continue;
+                    }
+
+                    // Become the leader of this batch
+                    forcing = true;
+                    interrupted |= lingerForMoreCommits();
+                    channelToForce = channel;
+                    forceUpTo = appended;
+                }
+
+                boolean success = false;
+                try
+                {
+                    channelToForce.force( false );
+                    success = true;
+                }
+                catch ( ClosedChannelException e )
+                {
+                    // The log was rotated or closed under our feet, and so forced by that instead.
+                    // If it didn't cover our ticket then something is seriously wrong.
+                    synchronized ( this )
+                    {
+                        if ( forced < ticket )
+                        {
+                            throw e;
+                        }
+                    }
+                }
+                finally
+                {
+                    synchronized ( this )
+                    {
+                        forcing = false;
+                        if ( success && forceUpTo > forced )
+                        {
+                            forced = forceUpTo;
+                        }
+                        notifyAll();
+                    }
+                }
+            }
+        }
+        finally
+        {
+            if ( interrupted )
+            {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private boolean lingerForMoreCommits()
+    {
+        boolean interrupted = false;
+        long deadline = System.nanoTime() + maxLatencyNanos;
+        long remaining = maxLatencyNanos;
+        while ( remaining > 0 && appended - forced < maxBatchSize )
+        {
+            interrupted |= waitUninterruptibly( Math.max( 1, NANOSECONDS.toMillis( remaining ) ) );
+            remaining = deadline - System.nanoTime();
+        }
+        return interrupted;
+    }
+
+    private boolean waitUninterruptibly( long millis )
+    {
+        try
+        {
+            wait( millis );
+            return false;
+        }
+        catch ( InterruptedException e )
+        {
+            // A commit that has been written can't be abandoned half way, keep waiting and
+            // restore the interrupt flag afterwards.
+            return true;
+        }
+    }
+}
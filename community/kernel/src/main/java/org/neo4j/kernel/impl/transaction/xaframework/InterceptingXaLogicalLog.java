@@ -39,10 +39,11 @@ public class InterceptingXaLogicalLog extends XaLogicalLog
                                      TransactionInterceptorProviders providers, LogBufferFactory logBufferFactory,
                                      FileSystemAbstraction fileSystem, Logging logging,
                                      LogPruneStrategy pruneStrategy, TransactionStateFactory stateFactory,
-                                     long rotateAtSize, InjectedTransactionValidator injectedTxValidator )
+                                     long rotateAtSize, InjectedTransactionValidator injectedTxValidator,
+                                     GroupCommitter groupCommitter )
     {
         super( fileName, xaRm, cf, xaTf, logBufferFactory, fileSystem, logging, pruneStrategy,
-                stateFactory, rotateAtSize, injectedTxValidator);
+                stateFactory, rotateAtSize, injectedTxValidator, groupCommitter );
         this.providers = providers;
         this.ds = xaRm.getDataSource();
     }
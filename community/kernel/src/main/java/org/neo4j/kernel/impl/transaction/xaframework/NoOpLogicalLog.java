@@ -79,6 +79,12 @@ public class NoOpLogicalLog extends XaLogicalLog
 
     }
 
+    @Override
+    public synchronized UnforcedCommit takeUnforcedCommit( int identifier )
+    {
+        return null;
+    }
+
     @Override
     public synchronized void done( int identifier ) throws XAException
     {
@@ -0,0 +1,40 @@
+/**
+ * Copyright (c) 2002-2013 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.transaction.xaframework;
+
+import javax.transaction.xa.XAException;
+
+import org.neo4j.kernel.impl.transaction.AbstractTransactionManager;
+
+/**
+ * What remains of the commit of a resource whose commit record has been written, but not yet forced:
+ * waiting for the force and then making the changes visible.
+ *
+ * @see AbstractTransactionManager#completeCommit(PendingCommit)
+ */
+public interface PendingCommit
+{
+    /**
+     * Waits for the commit record to be forced and then applies the transaction.
+     *
+     * @throws XAException if the commit record couldn't be forced or the transaction couldn't be applied.
+     */
+    void complete() throws XAException;
+}
@@ -30,6 +30,7 @@ import org.neo4j.kernel.impl.nioneo.store.NeoStoreRecord;
 import org.neo4j.kernel.impl.nioneo.store.NodeRecord;
 import org.neo4j.kernel.impl.nioneo.store.PropertyKeyTokenRecord;
 import org.neo4j.kernel.impl.nioneo.store.PropertyRecord;
+import org.neo4j.kernel.impl.nioneo.store.RelationshipGroupRecord;
 import org.neo4j.kernel.impl.nioneo.store.RelationshipRecord;
 import org.neo4j.kernel.impl.nioneo.store.RelationshipTypeTokenRecord;
 import org.neo4j.kernel.impl.nioneo.xa.Command;
@@ -60,6 +61,10 @@ public class TransactionReader
 
         void visitDeleteRelationship( int localId, long node );
 
+        void visitUpdateRelationshipGroup( int localId, RelationshipGroupRecord group );
+
+        void visitDeleteRelationshipGroup( int localId, long group );
+
         void visitUpdateProperty( int localId, PropertyRecord node );
 
         void visitDeleteProperty( int localId, long node );
@@ -175,6 +180,19 @@ public class TransactionReader
             }
         }
 
+        @Override
+        public void visitRelationshipGroup( RelationshipGroupRecord record )
+        {
+            if ( !record.inUse() )
+            {
+                visitor.visitDeleteRelationshipGroup( localId, record.getId() );
+            }
+            else
+            {
+                visitor.visitUpdateRelationshipGroup( localId, record );
+            }
+        }
+
         @Override
         public void visitProperty( PropertyRecord record )
         {
@@ -28,6 +28,9 @@ import org.neo4j.kernel.impl.transaction.AbstractTransactionManager;
 import org.neo4j.kernel.impl.transaction.TransactionStateFactory;
 import org.neo4j.kernel.logging.Logging;
 
+import static org.neo4j.graphdb.factory.GraphDatabaseSettings.logical_log_group_commit;
+import static org.neo4j.graphdb.factory.GraphDatabaseSettings.logical_log_group_commit_max_batch_size;
+import static org.neo4j.graphdb.factory.GraphDatabaseSettings.logical_log_group_commit_max_latency;
 import static org.neo4j.graphdb.factory.GraphDatabaseSettings.logical_log_rotation_threshold;
 
 /**
@@ -74,6 +77,9 @@ public class XaFactory
         XaResourceManager rm = new XaResourceManager( xaDataSource, tf, txIdGenerator, txManager, recoveryVerifier, logicalLog.getName() );
 
         long rotateAtSize = config.get( logical_log_rotation_threshold );
+        GroupCommitter groupCommitter = config.get( logical_log_group_commit ) ?
+                new GroupCommitter( config.get( logical_log_group_commit_max_batch_size ),
+                        config.get( logical_log_group_commit_max_latency ) ) : null;
         XaLogicalLog log;
         if( readOnly)
         {
@@ -82,12 +88,13 @@ public class XaFactory
         else if ( providers.shouldInterceptDeserialized() && providers.hasAnyInterceptorConfigured() )
         {
             log = new InterceptingXaLogicalLog( logicalLog, rm, cf, tf, providers, logBufferFactory,
-                    fileSystemAbstraction, logging, pruneStrategy, stateFactory, rotateAtSize, injectedTxValidator);
+                    fileSystemAbstraction, logging, pruneStrategy, stateFactory, rotateAtSize, injectedTxValidator,
+                    groupCommitter );
         }
         else
         {
             log = new XaLogicalLog( logicalLog, rm, cf, tf, logBufferFactory, fileSystemAbstraction,
-                    logging, pruneStrategy, stateFactory, rotateAtSize, injectedTxValidator );
+                    logging, pruneStrategy, stateFactory, rotateAtSize, injectedTxValidator, groupCommitter );
         }
 
         // TODO These setters should be removed somehow
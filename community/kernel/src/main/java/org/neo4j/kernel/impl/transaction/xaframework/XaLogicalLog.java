@@ -112,10 +112,29 @@ public class XaLogicalLog implements LogLoader
 
     private final TransactionStateFactory stateFactory;
 
+    private final GroupCommitter groupCommitter;
+    // identifier -> commits written out, but not yet forced
+    private final Map<Integer, UnforcedCommit> unforcedCommits = new HashMap<Integer, UnforcedCommit>();
+
     public XaLogicalLog( File fileName, XaResourceManager xaRm, XaCommandFactory cf,
                          XaTransactionFactory xaTf, LogBufferFactory logBufferFactory, FileSystemAbstraction fileSystem,
                          Logging logging, LogPruneStrategy pruneStrategy, TransactionStateFactory stateFactory,
                          long rotateAtSize, InjectedTransactionValidator injectedTxValidator )
+    {
+        this( fileName, xaRm, cf, xaTf, logBufferFactory, fileSystem, logging, pruneStrategy, stateFactory,
+                rotateAtSize, injectedTxValidator, null );
+    }
+
+    /**
+     * @param groupCommitter if not {@code null} forced commits will only be written out by
+     * {@link #commitOnePhase(int, long, ForceMode)} and {@link #commitTwoPhase(int, long, ForceMode)}
+     * and then forced together with other concurrent commits, see {@link #takeUnforcedCommit(int)}.
+     */
+    public XaLogicalLog( File fileName, XaResourceManager xaRm, XaCommandFactory cf,
+                         XaTransactionFactory xaTf, LogBufferFactory logBufferFactory, FileSystemAbstraction fileSystem,
+                         Logging logging, LogPruneStrategy pruneStrategy, TransactionStateFactory stateFactory,
+                         long rotateAtSize, InjectedTransactionValidator injectedTxValidator,
+                         GroupCommitter groupCommitter )
     {
         this.fileName = fileName;
         this.xaRm = xaRm;
@@ -135,6 +154,7 @@ public class XaLogicalLog implements LogLoader
 
         this.partialTransactionCopier = new PartialTransactionCopier( sharedBuffer, cf, msgLog, positionCache, this, xidIdentMap );
         this.injectedTxValidator = injectedTxValidator;
+        this.groupCommitter = groupCommitter;
     }
 
     synchronized void open() throws IOException
@@ -390,7 +410,7 @@ public class XaLogicalLog implements LogLoader
         {
             positionCache.cacheStartPosition( txId, startEntry, logVersion );
             LogIoUtils.writeCommit( false, writeBuffer, identifier, txId, System.currentTimeMillis() );
-            forceMode.force( writeBuffer );
+            forceCommit( identifier, forceMode );
         }
         catch ( IOException e )
         {
@@ -410,7 +430,7 @@ public class XaLogicalLog implements LogLoader
         {
             positionCache.cacheStartPosition( txId, startEntry, logVersion );
             LogIoUtils.writeCommit( true, writeBuffer, identifier, txId, System.currentTimeMillis() );
-            forceMode.force( writeBuffer );
+            forceCommit( identifier, forceMode );
         }
         catch ( IOException e )
         {
@@ -418,6 +438,33 @@ public class XaLogicalLog implements LogLoader
         }
     }
 
+    private void forceCommit( int identifier, ForceMode forceMode ) throws IOException
+    {
+        if ( groupCommitter != null && forceMode == ForceMode.forced )
+        {
+            writeBuffer.writeOut();
+            unforcedCommits.put( identifier, groupCommitter.append( writeBuffer.getFileChannel() ) );
+        }
+        else
+        {
+            forceMode.force( writeBuffer );
+        }
+    }
+
+    /**
+     * With group commit enabled {@link #commitOnePhase(int, long, ForceMode)} and
+     * {@link #commitTwoPhase(int, long, ForceMode)} will only write the commit entry out, not force it.
+     * The committer must then wait for it to be forced, by means of the returned {@link UnforcedCommit},
+     * without holding any lock shared with other committers.
+     *
+     * @return the unforced commit of the transaction with the given identifier, or {@code null} if
+     * its commit entry has already been forced.
+     */
+    public synchronized UnforcedCommit takeUnforcedCommit( int identifier )
+    {
+        return unforcedCommits.remove( identifier );
+    }
+
     // [COMMAND][identifier][COMMAND_DATA]
     public synchronized void writeCommand( XaCommand command, int identifier )
             throws IOException
@@ -686,6 +733,10 @@ public class XaLogicalLog implements LogLoader
         if ( writeBuffer != null )
         {
             writeBuffer.force();
+            if ( groupCommitter != null )
+            {
+                groupCommitter.forcedAll();
+            }
         }
         fileChannel.close();
         fileChannel = null;
@@ -704,6 +755,10 @@ public class XaLogicalLog implements LogLoader
             msgLog.info( "Close invoked with " + xidIdentMap.size() +
                     " running transaction(s). " );
             writeBuffer.force();
+            if ( groupCommitter != null )
+            {
+                groupCommitter.forcedAll();
+            }
             fileChannel.close();
             msgLog.info( "Dirty log: " + fileName + "." + currentLog +
                     " now closed. Recovery will be started automatically next " +
@@ -35,6 +35,7 @@ import javax.transaction.xa.XAException;
 import javax.transaction.xa.XAResource;
 import javax.transaction.xa.Xid;
 
+import org.neo4j.helpers.Exceptions;
 import org.neo4j.kernel.api.exceptions.TransactionFailureException;
 import org.neo4j.kernel.impl.nioneo.xa.WriteTransaction;
 import org.neo4j.kernel.impl.transaction.AbstractTransactionManager;
@@ -372,6 +373,9 @@ public class XaResourceManager
 
     private final Map<Xid,Integer> txOrderMap = new HashMap<>();
     private int nextTxOrder = 0;
+    private long nextCommitOrder = 0;
+    private long nextCommitToApply = 0;
+    private long lastWrittenCommitTxId = -1;
 
     // called during recovery
     // if not read only transaction will be commited.
@@ -417,11 +421,13 @@ public class XaResourceManager
         return xaTransaction;
     }
 
-    /*synchronized(this) in the method*/ XaTransaction commit( Xid xid, boolean onePhase )
+    /*synchronized(this) in the method*/ XaTransaction commit( final Xid xid, final boolean onePhase )
             throws XAException
     {
-        XaTransaction xaTransaction;
+        final XaTransaction xaTransaction;
         boolean isReadOnly;
+        UnforcedCommit unforcedCommit = null;
+        long commitOrder = -1;
 
         synchronized ( this )
         {
@@ -435,7 +441,7 @@ public class XaResourceManager
             TxIdGenerator txIdGenerator = xaTransaction.getTxIdGenerator();
             isReadOnly = xaTransaction.isReadOnly();
 
-            if(isReadOnly)
+            if ( isReadOnly )
             {
                 // called for one-phase read-only transactions since they skip prepare
                 // cf. TransactionImpl.doCommit() and prepare()
@@ -443,15 +449,65 @@ public class XaResourceManager
             }
             else
             {
-                commitWriteTx( xid, onePhase, xaTransaction, isReadOnly, txStatus, txIdGenerator );
+                commitOrder = writeCommit( onePhase, xaTransaction, txStatus, txIdGenerator );
+                if ( !xaTransaction.isRecovered() )
+                {
+                    unforcedCommit = log.takeUnforcedCommit( xaTransaction.getIdentifier() );
+                }
+                if ( unforcedCommit == null )
+                {
+                    applyCommitInOrder( commitOrder, xid, onePhase, xaTransaction, null );
+                }
             }
         }
 
+        if ( unforcedCommit != null )
+        {
+            /*
+             * The commit entry is written but not forced. The force is waited for outside of the monitor, and
+             * possibly after the transaction manager has released its commit lock, so that concurrent committers
+             * can share it. The transaction is applied, and committed transaction listeners told about it, only
+             * after the force, so that no one gets to see changes that a crash could still lose.
+             */
+            final UnforcedCommit commit = unforcedCommit;
+            final long order = commitOrder;
+            transactionManager.completeCommit( new PendingCommit()
+            {
+                @Override
+                public void complete() throws XAException
+                {
+                    IOException forceFailure = null;
+                    try
+                    {
+                        commit.awaitForced();
+                    }
+                    catch ( IOException e )
+                    {
+                        forceFailure = e;
+                    }
+                    synchronized ( XaResourceManager.this )
+                    {
+                        applyCommitInOrder( order, xid, onePhase, xaTransaction, forceFailure );
+                    }
+                    finishCommit( xaTransaction, false );
+                }
+            } );
+        }
+        else
+        {
+            finishCommit( xaTransaction, isReadOnly );
+        }
+        return xaTransaction;
+    }
+
+    private void finishCommit( XaTransaction xaTransaction, boolean isReadOnly ) throws XAException
+    {
         commitKernelTx( xaTransaction );
 
         if ( !xaTransaction.isRecovered() && !isReadOnly )
+        {
             txIdGenerator.committed( dataSource, xaTransaction.getIdentifier(), xaTransaction.getCommitTxId(), null );
-        return xaTransaction;
+        }
     }
 
     private void commitReadTx( Xid xid, boolean onePhase, XaTransaction xaTransaction,
@@ -480,21 +536,23 @@ public class XaResourceManager
         }
     }
 
-    private void commitWriteTx( Xid xid, boolean onePhase, XaTransaction xaTransaction, boolean readOnly,
-                                TransactionStatus txStatus, TxIdGenerator txIdGenerator ) throws XAException
+    /*
+     * Writes the commit entry of a write transaction to the logical log, returning the order in which it is to be
+     * applied, see applyCommitInOrder.
+     */
+    private long writeCommit( boolean onePhase, XaTransaction xaTransaction, TransactionStatus txStatus,
+                              TxIdGenerator txIdGenerator ) throws XAException
     {
         checkStartWritten( txStatus, xaTransaction );
 
         if ( onePhase )
         {
             txStatus.markAsPrepared();
-            if ( !readOnly && !xaTransaction.isRecovered() )
+            if ( !xaTransaction.isRecovered() )
             {
                 xaTransaction.prepare();
 
-                long txId = txIdGenerator.generate( dataSource,
-                        xaTransaction.getIdentifier() );
-                xaTransaction.setCommitTxId( txId );
+                xaTransaction.setCommitTxId( generateTxId( txIdGenerator, xaTransaction ) );
                 log.commitOnePhase( xaTransaction.getIdentifier(),
                         xaTransaction.getCommitTxId(), getForceMode() );
             }
@@ -504,31 +562,106 @@ public class XaResourceManager
             throw new XAException( "Transaction not prepared or "
                     + "(marked as) rolledbacked" );
         }
-        if ( !readOnly )
+        if ( !onePhase && !xaTransaction.isRecovered() )
+        {
+            xaTransaction.setCommitTxId( generateTxId( txIdGenerator, xaTransaction ) );
+            log.commitTwoPhase( xaTransaction.getIdentifier(),
+                    xaTransaction.getCommitTxId(), getForceMode() );
+        }
+        txStatus.markCommitStarted();
+        if ( xaTransaction.isRecovered() && xaTransaction.getCommitTxId() == -1 )
         {
-            if ( !onePhase && !xaTransaction.isRecovered() )
+            boolean previousRecoveredValue = dataSource.setRecovered( true );
+            try
             {
-                long txId = txIdGenerator.generate( dataSource,
-                        xaTransaction.getIdentifier() );
-                xaTransaction.setCommitTxId( txId );
-                log.commitTwoPhase( xaTransaction.getIdentifier(),
-                        xaTransaction.getCommitTxId(), getForceMode() );
+                xaTransaction.setCommitTxId( dataSource.getLastCommittedTxId() + 1 );
             }
-            txStatus.markCommitStarted();
-            if ( xaTransaction.isRecovered() && xaTransaction.getCommitTxId() == -1 )
+            finally
             {
-                boolean previousRecoveredValue = dataSource.setRecovered( true );
-                try
-                {
-                    xaTransaction.setCommitTxId( dataSource.getLastCommittedTxId() + 1 );
-                }
-                finally
-                {
-                    dataSource.setRecovered( previousRecoveredValue );
-                }
+                dataSource.setRecovered( previousRecoveredValue );
+            }
+        }
+        return nextCommitOrder++;
+    }
+
+    /*
+     * Tx id generators go by the last transaction applied to the data source, which doesn't count transactions
+     * that have written their commit entry but are still waiting for it to be forced.
+     */
+    private long generateTxId( TxIdGenerator txIdGenerator, XaTransaction xaTransaction ) throws XAException
+    {
+        long txId = txIdGenerator.generate( dataSource, xaTransaction.getIdentifier() );
+        if ( nextCommitToApply != nextCommitOrder )
+        {
+            txId = Math.max( txId, lastWrittenCommitTxId + 1 );
+        }
+        lastWrittenCommitTxId = txId;
+        return txId;
+    }
+
+    /*
+     * Called with the monitor held. Waits for all transactions that have written their commit entry to be applied.
+     */
+    private void awaitCommitsApplied() throws IOException
+    {
+        while ( nextCommitToApply != nextCommitOrder )
+        {
+            try
+            {
+                wait();
+            }
+            catch ( InterruptedException e )
+            {
+                Thread.currentThread().interrupt();
+                throw new IOException( "Interrupted while waiting for committing transactions to be applied", e );
+            }
+        }
+    }
+
+    /*
+     * Called with the monitor held. Transactions are applied in the order their commit entries were written in,
+     * since the store expects consecutive tx ids, so this waits for the ones before to be applied first. A
+     * transaction whose commit couldn't be forced isn't applied, but still gives way to the ones after it.
+     */
+    private void applyCommitInOrder( long commitOrder, Xid xid, boolean onePhase, XaTransaction xaTransaction,
+                                     IOException forceFailure ) throws XAException
+    {
+        boolean interrupted = false;
+        while ( commitOrder != nextCommitToApply )
+        {
+            try
+            {
+                wait();
+            }
+            catch ( InterruptedException e )
+            {
+                // The commit entry is already written, so the transaction can't be abandoned
+                interrupted = true;
             }
-            xaTransaction.commit();
         }
+        try
+        {
+            if ( forceFailure != null )
+            {
+                throw Exceptions.withCause( new XAException( "Logical log unable to force commit ["
+                        + xaTransaction.getIdentifier() + "] " ), forceFailure );
+            }
+            applyCommit( xid, onePhase, xaTransaction );
+        }
+        finally
+        {
+            nextCommitToApply++;
+            notifyAll();
+            if ( interrupted )
+            {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private void applyCommit( Xid xid, boolean onePhase, XaTransaction xaTransaction ) throws XAException
+    {
+        xaTransaction.commit();
         if ( !xaTransaction.isRecovered() )
         {
             log.done( xaTransaction.getIdentifier() );
@@ -726,6 +859,11 @@ public class XaResourceManager
                     if ( !recoveredTx.isOnePhase() )
                     {
                         log.commitTwoPhase( recoveredTx.getIdentifier(), recoveredTx.getTxId(), ForceMode.forced );
+                        UnforcedCommit unforcedCommit = log.takeUnforcedCommit( recoveredTx.getIdentifier() );
+                        if ( unforcedCommit != null )
+                        {
+                            unforcedCommit.awaitForced();
+                        }
                     }
                     log.doneInternal( recoveredTx.getIdentifier() );
                 }
@@ -776,6 +914,7 @@ public class XaResourceManager
     public synchronized void applyCommittedTransaction(
             ReadableByteChannel transaction, long txId ) throws IOException
     {
+        awaitCommitsApplied();
         long lastCommittedTxId = dataSource.getLastCommittedTxId();
         if ( lastCommittedTxId + 1 == txId )
         {
@@ -791,6 +930,7 @@ public class XaResourceManager
     public synchronized long applyPreparedTransaction(
             ReadableByteChannel transaction ) throws IOException
     {
+        awaitCommitsApplied();
         try
         {
             long txId = TxIdGenerator.DEFAULT.generate( dataSource, 0 );
@@ -25,6 +25,8 @@ import java.util.NoSuchElementException;
 
 import org.neo4j.graphdb.Direction;
 import org.neo4j.kernel.impl.cache.SizeOfObject;
+import org.neo4j.kernel.impl.nioneo.store.RelationshipGroupRecord;
+import org.neo4j.kernel.impl.nioneo.store.RelationshipRecord;
 
 import static java.lang.System.arraycopy;
 
@@ -266,6 +268,30 @@ public class RelIdArray implements SizeOfObject
                     {
                         ids.outBlock = block;
                     }
+
+                    @Override
+                    public long getNextRel( RelationshipGroupRecord group )
+                    {
+                        return group.getFirstOut();
+                    }
+
+                    @Override
+                    public void setNextRel( RelationshipGroupRecord group, long firstNextRel )
+                    {
+                        group.setFirstOut( firstNextRel );
+                    }
+
+                    @Override
+                    public int getCount( RelationshipGroupRecord group )
+                    {
+                        return group.getOutCount();
+                    }
+
+                    @Override
+                    public void setCount( RelationshipGroupRecord group, int count )
+                    {
+                        group.setOutCount( count );
+                    }
                 },
         INCOMING( Direction.INCOMING )
                 {
@@ -286,6 +312,30 @@ public class RelIdArray implements SizeOfObject
                     {
                         ids.inBlock = block;
                     }
+
+                    @Override
+                    public long getNextRel( RelationshipGroupRecord group )
+                    {
+                        return group.getFirstIn();
+                    }
+
+                    @Override
+                    public void setNextRel( RelationshipGroupRecord group, long firstNextRel )
+                    {
+                        group.setFirstIn( firstNextRel );
+                    }
+
+                    @Override
+                    public int getCount( RelationshipGroupRecord group )
+                    {
+                        return group.getInCount();
+                    }
+
+                    @Override
+                    public void setCount( RelationshipGroupRecord group, int count )
+                    {
+                        group.setInCount( count );
+                    }
                 },
         BOTH( Direction.BOTH )
                 {
@@ -306,6 +356,30 @@ public class RelIdArray implements SizeOfObject
                     {
                         ids.setLastLoopBlock( block );
                     }
+
+                    @Override
+                    public long getNextRel( RelationshipGroupRecord group )
+                    {
+                        return group.getFirstLoop();
+                    }
+
+                    @Override
+                    public void setNextRel( RelationshipGroupRecord group, long firstNextRel )
+                    {
+                        group.setFirstLoop( firstNextRel );
+                    }
+
+                    @Override
+                    public int getCount( RelationshipGroupRecord group )
+                    {
+                        return group.getLoopCount();
+                    }
+
+                    @Override
+                    public void setCount( RelationshipGroupRecord group, int count )
+                    {
+                        group.setLoopCount( count );
+                    }
                 };
 
         private final Direction direction;
@@ -327,6 +401,22 @@ public class RelIdArray implements SizeOfObject
          */
         abstract void setBlock( RelIdArray ids, IdBlock block );
 
+        /**
+         * @return the first relationship in the chain of {@code group} which relationships of this direction
+         * are kept in. {@link #BOTH} refers to the chain of loops.
+         */
+        public abstract long getNextRel( RelationshipGroupRecord group );
+
+        public abstract void setNextRel( RelationshipGroupRecord group, long firstNextRel );
+
+        /**
+         * @return the number of relationships in the chain of {@code group} which relationships of this
+         * direction are kept in.
+         */
+        public abstract int getCount( RelationshipGroupRecord group );
+
+        public abstract void setCount( RelationshipGroupRecord group, int count );
+
         public Direction direction()
         {
             return this.direction;
@@ -344,6 +434,23 @@ public class RelIdArray implements SizeOfObject
         }
     }
 
+    /**
+     * @return the direction {@code rel} has as seen from the node with id {@code nodeId}, where
+     * {@link DirectionWrapper#BOTH} means that it's a loop.
+     */
+    public static DirectionWrapper wrap( RelationshipRecord rel, long nodeId )
+    {
+        if ( rel.getFirstNode() == nodeId )
+        {
+            return rel.getSecondNode() == nodeId ? DirectionWrapper.BOTH : DirectionWrapper.OUTGOING;
+        }
+        if ( rel.getSecondNode() == nodeId )
+        {
+            return DirectionWrapper.INCOMING;
+        }
+        throw new IllegalArgumentException( "Node[" + nodeId + "] is neither start nor end node of " + rel );
+    }
+
     public static abstract class IdBlock implements SizeOfObject
     {
         /**
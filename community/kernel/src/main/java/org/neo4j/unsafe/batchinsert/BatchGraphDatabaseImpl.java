@@ -55,6 +55,7 @@ import org.neo4j.kernel.impl.nioneo.store.InvalidRecordException;
 
 import static org.neo4j.helpers.collection.Iterables.asResourceIterable;
 import static org.neo4j.helpers.collection.IteratorUtil.asSet;
+import static org.neo4j.helpers.collection.IteratorUtil.count;
 
 class BatchGraphDatabaseImpl implements GraphDatabaseService
 {
@@ -399,6 +400,30 @@ class BatchGraphDatabaseImpl implements GraphDatabaseService
             return newRelIterator( dir, new RelationshipType[]{type} ).hasNext();
         }
 
+        @Override
+        public int getDegree()
+        {
+            return getDegree( Direction.BOTH );
+        }
+
+        @Override
+        public int getDegree( RelationshipType type )
+        {
+            return getDegree( type, Direction.BOTH );
+        }
+
+        @Override
+        public int getDegree( Direction direction )
+        {
+            return count( newRelIterator( direction, null ).iterator() );
+        }
+
+        @Override
+        public int getDegree( RelationshipType type, Direction direction )
+        {
+            return count( newRelIterator( direction, new RelationshipType[]{type} ).iterator() );
+        }
+
         /* Tentative expansion API
         public Expansion<Relationship> expandAll()
         {
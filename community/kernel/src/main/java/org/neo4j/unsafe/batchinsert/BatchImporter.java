@@ -0,0 +1,534 @@
+/**
+ * Copyright (c) 2002-2013 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.unsafe.batchinsert;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+
+import org.neo4j.graphdb.NotFoundException;
+import org.neo4j.graphdb.factory.GraphDatabaseSettings;
+import org.neo4j.helpers.DaemonThreadFactory;
+import org.neo4j.helpers.Settings;
+import org.neo4j.helpers.collection.IterableWrapper;
+import org.neo4j.kernel.DefaultFileSystemAbstraction;
+import org.neo4j.kernel.DefaultIdGeneratorFactory;
+import org.neo4j.kernel.InternalAbstractGraphDatabase;
+import org.neo4j.kernel.StoreLocker;
+import org.neo4j.kernel.configuration.Config;
+import org.neo4j.kernel.impl.core.Token;
+import org.neo4j.kernel.impl.nioneo.store.DefaultWindowPoolFactory;
+import org.neo4j.kernel.impl.nioneo.store.DynamicRecord;
+import org.neo4j.kernel.impl.nioneo.store.FileSystemAbstraction;
+import org.neo4j.kernel.impl.nioneo.store.LabelTokenRecord;
+import org.neo4j.kernel.impl.nioneo.store.LabelTokenStore;
+import org.neo4j.kernel.impl.nioneo.store.NeoStore;
+import org.neo4j.kernel.impl.nioneo.store.NodeRecord;
+import org.neo4j.kernel.impl.nioneo.store.NodeStore;
+import org.neo4j.kernel.impl.nioneo.store.PrimitiveRecord;
+import org.neo4j.kernel.impl.nioneo.store.PropertyBlock;
+import org.neo4j.kernel.impl.nioneo.store.PropertyKeyTokenRecord;
+import org.neo4j.kernel.impl.nioneo.store.PropertyKeyTokenStore;
+import org.neo4j.kernel.impl.nioneo.store.PropertyRecord;
+import org.neo4j.kernel.impl.nioneo.store.PropertyStore;
+import org.neo4j.kernel.impl.nioneo.store.PropertyType;
+import org.neo4j.kernel.impl.nioneo.store.Record;
+import org.neo4j.kernel.impl.nioneo.store.RelationshipRecord;
+import org.neo4j.kernel.impl.nioneo.store.RelationshipStore;
+import org.neo4j.kernel.impl.nioneo.store.RelationshipTypeTokenRecord;
+import org.neo4j.kernel.impl.nioneo.store.RelationshipTypeTokenStore;
+import org.neo4j.kernel.impl.nioneo.store.StoreFactory;
+import org.neo4j.kernel.impl.nioneo.store.UnderlyingStorageException;
+import org.neo4j.kernel.impl.util.FileUtils;
+import org.neo4j.kernel.impl.util.StringLogger;
+
+import static java.util.concurrent.Executors.newFixedThreadPool;
+
+import static org.neo4j.helpers.collection.IteratorUtil.first;
+import static org.neo4j.helpers.collection.MapUtil.stringMap;
+import static org.neo4j.kernel.impl.nioneo.store.PropertyStore.encodeString;
+import static org.neo4j.kernel.impl.nioneo.store.labels.NodeLabelsField.parseLabelsField;
+
+/**
+ * Creates a new store from streams of nodes and relationships, much faster than the {@link BatchInserter} can for
+ * large amounts of data. Instead of linking every relationship into the chains of its nodes as it is created, which
+ * reads and writes records all over the store files, the import is done in stages that each go through the store
+ * files sequentially:
+ *
+ * <ol>
+ * <li>Nodes are written in input order, and their input ids are handed to an {@link IdMapper}.</li>
+ * <li>Relationships are written in input order, without being linked to anything. The degree of every node is
+ * counted on the way.</li>
+ * <li>The relationships are linked into chains by the {@link RelationshipLinker}, which also decides which nodes
+ * are dense from their degrees, and counts the relationships in the groups of those.</li>
+ * </ol>
+ *
+ * Encoding of properties and labels, resolving of node ids and the linking are done by a pool of workers, while
+ * each store file is only ever written from one thread.
+ *
+ * The importer only creates new stores, and it does not populate schema indexes or the label scan store. Those are
+ * built when the database is first started.
+ */
+public class BatchImporter
+{
+    private static final int BATCH_SIZE = 10000;
+
+    private final File storeDir;
+    private final FileSystemAbstraction fileSystem;
+    private final Config config;
+    private final int workerCount;
+    private final IdMapper idMapper;
+    private final StringLogger msgLog;
+
+    private NeoStore neoStore;
+    private Tokens tokens;
+
+    public BatchImporter( String storeDir )
+    {
+        this( storeDir, stringMap() );
+    }
+
+    public BatchImporter( String storeDir, Map<String, String> config )
+    {
+        this( storeDir, new DefaultFileSystemAbstraction(), config, Runtime.getRuntime().availableProcessors(),
+                new EncodingIdMapper() );
+    }
+
+    public BatchImporter( String storeDir, FileSystemAbstraction fileSystem, Map<String, String> config,
+                          int workerCount, IdMapper idMapper )
+    {
+        if ( workerCount < 1 )
+        {
+            throw new IllegalArgumentException( "At least one worker is needed, not " + workerCount );
+        }
+        this.storeDir = new File( FileUtils.fixSeparatorsInPath( storeDir ) );
+        this.fileSystem = fileSystem;
+        this.workerCount = workerCount;
+        this.idMapper = idMapper;
+
+        Map<String, String> params = getDefaultParams();
+        params.put( GraphDatabaseSettings.use_memory_mapped_buffers.name(), Settings.FALSE );
+        params.put( InternalAbstractGraphDatabase.Configuration.store_dir.name(), storeDir );
+        params.putAll( config );
+        this.config = new Config( params, GraphDatabaseSettings.class );
+
+        try
+        {
+            fileSystem.mkdirs( this.storeDir );
+        }
+        catch ( IOException e )
+        {
+            throw new UnderlyingStorageException( "Unable to create directory path[" + storeDir + "]", e );
+        }
+        this.msgLog = StringLogger.loggerDirectory( fileSystem, this.storeDir );
+    }
+
+    /**
+     * Imports nodes and relationships from CSV files, as described in {@link CsvInput}, into a new store.
+     */
+    public static void main( String[] args )
+    {
+        if ( args.length != 3 )
+        {
+            System.err.println( "Usage: " + BatchImporter.class.getSimpleName() +
+                    " <store-dir> <nodes.csv> <relationships.csv>" );
+            System.exit( 1 );
+        }
+        CsvInput input = new CsvInput( new File( args[1] ), new File( args[2] ) );
+        new BatchImporter( args[0] ).doImport( input.nodes(), input.relationships() );
+    }
+
+    private Map<String, String> getDefaultParams()
+    {
+        Map<String, String> params = new HashMap<>();
+        params.put( "neostore.nodestore.db.mapped_memory", "20M" );
+        params.put( "neostore.propertystore.db.mapped_memory", "90M" );
+        params.put( "neostore.propertystore.db.index.mapped_memory", "1M" );
+        params.put( "neostore.propertystore.db.index.keys.mapped_memory", "1M" );
+        params.put( "neostore.propertystore.db.strings.mapped_memory", "130M" );
+        params.put( "neostore.propertystore.db.arrays.mapped_memory", "130M" );
+        params.put( "neostore.relationshipstore.db.mapped_memory", "50M" );
+        return params;
+    }
+
+    /**
+     * Imports the given nodes and relationships into a new store. The nodes are read once, then the
+     * {@link IdMapper} is prepared, then the relationships are read once. Preparing the mapper may read the ids of
+     * the nodes a second time, so the nodes have to be iterable more than once, in the same order every time. The
+     * mapper is closed once the import is done.
+     *
+     * @throws IllegalStateException if there already is a store in the store directory.
+     */
+    public void doImport( Iterable<InputNode> nodes, Iterable<InputRelationship> relationships )
+    {
+        File store = new File( storeDir, NeoStore.DEFAULT_NAME );
+        if ( fileSystem.fileExists( store ) )
+        {
+            throw new IllegalStateException( storeDir + " already contains a store, the importer can only " +
+                    "create new ones" );
+        }
+
+        StoreLocker storeLocker = new StoreLocker( fileSystem );
+        storeLocker.checkLock( storeDir );
+        ExecutorService workers = newFixedThreadPool( workerCount, new DaemonThreadFactory( "Neo4j import worker" ) );
+        try
+        {
+            StoreFactory storeFactory = new StoreFactory( config, new DefaultIdGeneratorFactory(),
+                    new DefaultWindowPoolFactory(), fileSystem, msgLog, null );
+            storeFactory.createNeoStore( store ).close();
+            neoStore = storeFactory.newNeoStore( store );
+            neoStore.makeStoreOk();
+            tokens = new Tokens();
+
+            msgLog.logMessage( "Starting import into " + storeDir + " with " + workerCount + " workers" );
+
+            long time = System.currentTimeMillis();
+            long nodeCount = new NodeStage().run( nodes.iterator(), workers, BATCH_SIZE, workerCount * 2 );
+            idMapper.prepare( inputIds( nodes ) );
+            msgLog.logMessage( "Imported " + nodeCount + " nodes in " + since( time ) + "ms" );
+
+            if ( nodeCount > Integer.MAX_VALUE )
+            {
+                throw new IllegalArgumentException( "Cannot import more than " + Integer.MAX_VALUE + " nodes" );
+            }
+            int[] degrees = new int[(int) nodeCount];
+
+            time = System.currentTimeMillis();
+            long relationshipCount = new RelationshipStage( degrees ).run( relationships.iterator(), workers,
+                    BATCH_SIZE, workerCount * 2 );
+            msgLog.logMessage( "Imported " + relationshipCount + " relationships in " + since( time ) + "ms" );
+
+            time = System.currentTimeMillis();
+            int denseCount = new RelationshipLinker( neoStore, workers, workerCount, BATCH_SIZE, degrees )
+                    .link( relationshipCount );
+            msgLog.logMessage( "Linked relationship chains, with " + denseCount + " dense nodes, in " +
+                    since( time ) + "ms" );
+        }
+        finally
+        {
+            workers.shutdownNow();
+            idMapper.close();
+            if ( neoStore != null )
+            {
+                neoStore.close();
+            }
+            try
+            {
+                storeLocker.release();
+            }
+            catch ( IOException e )
+            {
+                throw new UnderlyingStorageException( "Could not release store lock", e );
+            }
+            msgLog.close();
+        }
+    }
+
+    private static Iterable<Object> inputIds( Iterable<InputNode> nodes )
+    {
+        return new IterableWrapper<Object, InputNode>( nodes )
+        {
+            @Override
+            protected Object underlyingObjectToObject( InputNode node )
+            {
+                return node.id();
+            }
+        };
+    }
+
+    private static long since( long time )
+    {
+        return System.currentTimeMillis() - time;
+    }
+
+    private List<PropertyBlock> encodeProperties( Map<String, Object> properties )
+    {
+        if ( properties == null || properties.isEmpty() )
+        {
+            return Collections.emptyList();
+        }
+        PropertyStore propertyStore = neoStore.getPropertyStore();
+        List<PropertyBlock> blocks = new ArrayList<>( properties.size() );
+        for ( Map.Entry<String, Object> property : properties.entrySet() )
+        {
+            if ( property.getValue() != null )
+            {
+                PropertyBlock block = new PropertyBlock();
+                propertyStore.encodeValue( block, tokens.propertyKey( property.getKey() ), property.getValue() );
+                blocks.add( block );
+            }
+        }
+        return blocks;
+    }
+
+    /*
+     * Packs encoded properties into property records, and writes them. Only called from the thread writing the
+     * records of a stage, so that the ids of property records are handed out in order.
+     */
+    private long writeProperties( List<PropertyBlock> blocks )
+    {
+        if ( blocks.isEmpty() )
+        {
+            return Record.NO_NEXT_PROPERTY.intValue();
+        }
+        PropertyStore propertyStore = neoStore.getPropertyStore();
+        List<PropertyRecord> records = new ArrayList<>();
+        PropertyRecord current = null;
+        for ( PropertyBlock block : blocks )
+        {
+            if ( current == null || current.size() + block.getSize() > PropertyType.getPayloadSize() )
+            {
+                PropertyRecord previous = current;
+                current = new PropertyRecord( propertyStore.nextId() );
+                current.setInUse( true );
+                current.setCreated();
+                if ( previous != null )
+                {
+                    previous.setNextProp( current.getId() );
+                    current.setPrevProp( previous.getId() );
+                }
+                records.add( current );
+            }
+            current.addPropertyBlock( block );
+        }
+        for ( PropertyRecord record : records )
+        {
+            propertyStore.updateRecord( record );
+        }
+        return records.get( 0 ).getId();
+    }
+
+    private static class Prepared<RECORD extends PrimitiveRecord>
+    {
+        final RECORD record;
+        final Object inputId;
+        final List<PropertyBlock> properties;
+        final Collection<DynamicRecord> labelRecords;
+
+        Prepared( RECORD record, Object inputId, List<PropertyBlock> properties,
+                  Collection<DynamicRecord> labelRecords )
+        {
+            this.record = record;
+            this.inputId = inputId;
+            this.properties = properties;
+            this.labelRecords = labelRecords;
+        }
+    }
+
+    private class NodeStage extends ImportStage<InputNode, List<Prepared<NodeRecord>>>
+    {
+        NodeStage()
+        {
+            super( "Nodes" );
+        }
+
+        @Override
+        protected List<Prepared<NodeRecord>> process( List<InputNode> batch, long firstId )
+        {
+            NodeStore nodeStore = neoStore.getNodeStore();
+            List<Prepared<NodeRecord>> result = new ArrayList<>( batch.size() );
+            long id = firstId;
+            for ( InputNode input : batch )
+            {
+                NodeRecord record = new NodeRecord( id++, Record.NO_NEXT_RELATIONSHIP.intValue(),
+                        Record.NO_NEXT_PROPERTY.intValue() );
+                record.setInUse( true );
+                record.setCreated();
+                Collection<DynamicRecord> labelRecords =
+                        parseLabelsField( record ).put( tokens.labels( input.labels() ), nodeStore );
+                result.add( new Prepared<>( record, input.id(), encodeProperties( input.properties() ),
+                        labelRecords ) );
+            }
+            return result;
+        }
+
+        @Override
+        protected void write( List<Prepared<NodeRecord>> batch )
+        {
+            NodeStore nodeStore = neoStore.getNodeStore();
+            nodeStore.setHighId( batch.get( batch.size() - 1 ).record.getId() + 1 );
+            for ( Prepared<NodeRecord> node : batch )
+            {
+                idMapper.put( node.inputId, node.record.getId() );
+                node.record.setNextProp( writeProperties( node.properties ) );
+                nodeStore.updateDynamicLabelRecords( node.labelRecords );
+                nodeStore.updateRecord( node.record );
+            }
+        }
+    }
+
+    private class RelationshipStage extends ImportStage<InputRelationship, List<Prepared<RelationshipRecord>>>
+    {
+        private final int[] degrees;
+
+        RelationshipStage( int[] degrees )
+        {
+            super( "Relationships" );
+            this.degrees = degrees;
+        }
+
+        @Override
+        protected List<Prepared<RelationshipRecord>> process( List<InputRelationship> batch, long firstId )
+        {
+            List<Prepared<RelationshipRecord>> result = new ArrayList<>( batch.size() );
+            long id = firstId;
+            for ( InputRelationship input : batch )
+            {
+                RelationshipRecord record = new RelationshipRecord( id++, nodeId( input, input.startNode() ),
+                        nodeId( input, input.endNode() ), tokens.relationshipType( input.type() ) );
+                record.setInUse( true );
+                record.setCreated();
+                result.add( new Prepared<>( record, null, encodeProperties( input.properties() ),
+                        Collections.<DynamicRecord>emptyList() ) );
+            }
+            return result;
+        }
+
+        private long nodeId( InputRelationship relationship, Object inputId )
+        {
+            long nodeId = idMapper.get( inputId );
+            if ( nodeId == IdMapper.NOT_FOUND )
+            {
+                throw new NotFoundException( relationship + " refers to node " + inputId + ", which was not imported" );
+            }
+            return nodeId;
+        }
+
+        @Override
+        protected void write( List<Prepared<RelationshipRecord>> batch )
+        {
+            RelationshipStore relationshipStore = neoStore.getRelationshipStore();
+            relationshipStore.setHighId( batch.get( batch.size() - 1 ).record.getId() + 1 );
+            for ( Prepared<RelationshipRecord> relationship : batch )
+            {
+                RelationshipRecord record = relationship.record;
+                degrees[(int) record.getFirstNode()]++;
+                if ( record.getFirstNode() != record.getSecondNode() )
+                {
+                    degrees[(int) record.getSecondNode()]++;
+                }
+                record.setNextProp( writeProperties( relationship.properties ) );
+                relationshipStore.updateRecord( record );
+            }
+        }
+    }
+
+    /*
+     * Tokens are looked up by all workers, and created the first time they are seen.
+     */
+    private class Tokens
+    {
+        private final BatchTokenHolder propertyKeys = new BatchTokenHolder( new Token[0] );
+        private final BatchTokenHolder labels = new BatchTokenHolder( new Token[0] );
+        private final BatchTokenHolder relationshipTypes = new BatchTokenHolder( new Token[0] );
+
+        synchronized int propertyKey( String name )
+        {
+            int id = propertyKeys.idOf( name );
+            if ( id == -1 )
+            {
+                PropertyKeyTokenStore store = neoStore.getPropertyStore().getPropertyKeyTokenStore();
+                id = (int) store.nextId();
+                PropertyKeyTokenRecord record = new PropertyKeyTokenRecord( id );
+                record.setInUse( true );
+                record.setCreated();
+                Collection<DynamicRecord> nameRecords = store.allocateNameRecords( encodeString( name ) );
+                record.setNameId( (int) first( nameRecords ).getId() );
+                record.addNameRecords( nameRecords );
+                store.updateRecord( record );
+                propertyKeys.addToken( name, id );
+            }
+            return id;
+        }
+
+        synchronized long[] labels( String[] names )
+        {
+            if ( names == null )
+            {
+                return new long[0];
+            }
+            long[] ids = new long[names.length];
+            for ( int i = 0; i < names.length; i++ )
+            {
+                ids[i] = label( names[i] );
+            }
+            Arrays.sort( ids );
+            return distinct( ids );
+        }
+
+        private int label( String name )
+        {
+            int id = labels.idOf( name );
+            if ( id == -1 )
+            {
+                LabelTokenStore store = neoStore.getLabelTokenStore();
+                id = (int) store.nextId();
+                LabelTokenRecord record = new LabelTokenRecord( id );
+                record.setInUse( true );
+                record.setCreated();
+                Collection<DynamicRecord> nameRecords = store.allocateNameRecords( encodeString( name ) );
+                record.setNameId( (int) first( nameRecords ).getId() );
+                record.addNameRecords( nameRecords );
+                store.updateRecord( record );
+                labels.addToken( name, id );
+            }
+            return id;
+        }
+
+        synchronized int relationshipType( String name )
+        {
+            int id = relationshipTypes.idOf( name );
+            if ( id == -1 )
+            {
+                RelationshipTypeTokenStore store = neoStore.getRelationshipTypeStore();
+                id = (int) store.nextId();
+                RelationshipTypeTokenRecord record = new RelationshipTypeTokenRecord( id );
+                record.setInUse( true );
+                record.setCreated();
+                Collection<DynamicRecord> nameRecords = store.allocateNameRecords( encodeString( name ) );
+                record.setNameId( (int) first( nameRecords ).getId() );
+                record.addNameRecords( nameRecords );
+                store.updateRecord( record );
+                relationshipTypes.addToken( name, id );
+            }
+            return id;
+        }
+
+        private long[] distinct( long[] sorted )
+        {
+            int count = 0;
+            for ( int i = 0; i < sorted.length; i++ )
+            {
+                if ( i == 0 || sorted[i] != sorted[i - 1] )
+                {
+                    sorted[count++] = sorted[i];
+                }
+            }
+            return count == sorted.length ? sorted : Arrays.copyOf( sorted, count );
+        }
+    }
+}
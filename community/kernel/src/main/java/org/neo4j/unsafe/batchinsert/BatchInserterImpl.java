@@ -69,6 +69,7 @@ import org.neo4j.kernel.extension.KernelExtensionFactory;
 import org.neo4j.kernel.extension.KernelExtensions;
 import org.neo4j.kernel.extension.UnsatisfiedDependencyStrategies;
 import org.neo4j.kernel.impl.api.SchemaCache;
+import org.neo4j.kernel.impl.api.index.IndexDescriptor;
 import org.neo4j.kernel.impl.api.index.IndexStoreView;
 import org.neo4j.kernel.impl.api.index.SchemaIndexProviderMap;
 import org.neo4j.kernel.impl.api.index.StoreScan;
@@ -94,6 +95,8 @@ import org.neo4j.kernel.impl.nioneo.store.PropertyRecord;
 import org.neo4j.kernel.impl.nioneo.store.PropertyStore;
 import org.neo4j.kernel.impl.nioneo.store.PropertyType;
 import org.neo4j.kernel.impl.nioneo.store.Record;
+import org.neo4j.kernel.impl.nioneo.store.RelationshipGroupRecord;
+import org.neo4j.kernel.impl.nioneo.store.RelationshipGroupStore;
 import org.neo4j.kernel.impl.nioneo.store.RelationshipRecord;
 import org.neo4j.kernel.impl.nioneo.store.RelationshipStore;
 import org.neo4j.kernel.impl.nioneo.store.RelationshipTypeTokenRecord;
@@ -108,6 +111,8 @@ import org.neo4j.kernel.impl.nioneo.xa.DefaultSchemaIndexProviderMap;
 import org.neo4j.kernel.impl.nioneo.xa.NeoStoreIndexStoreView;
 import org.neo4j.kernel.impl.nioneo.xa.NeoStoreProvider;
 import org.neo4j.kernel.impl.util.FileUtils;
+import org.neo4j.kernel.impl.util.RelIdArray;
+import org.neo4j.kernel.impl.util.RelIdArray.DirectionWrapper;
 import org.neo4j.kernel.impl.util.StringLogger;
 import org.neo4j.kernel.lifecycle.LifeSupport;
 import org.neo4j.kernel.logging.Logging;
@@ -294,13 +299,18 @@ public class BatchInserterImpl implements BatchInserter
         return new IndexCreatorImpl( actions, label );
     }
 
-    private void createIndexRule( Label label, String propertyKey )
+    private void createIndexRule( Label label, String... propertyKeys )
     {
         // TODO: Do not create duplicate index
 
         SchemaStore schemaStore = getSchemaStore();
+        int[] propertyKeyIds = new int[propertyKeys.length];
+        for ( int i = 0; i < propertyKeys.length; i++ )
+        {
+            propertyKeyIds[i] = getOrCreatePropertyKeyId( propertyKeys[i] );
+        }
         IndexRule schemaRule = IndexRule.indexRule( schemaStore.nextId(), getOrCreateLabelId( label.name() ),
-                                                    getOrCreatePropertyKeyId( propertyKey ),
+                                                    propertyKeyIds,
                                                     this.schemaIndexProviders.getDefaultProvider()
                                                                              .getProviderDescriptor() );
         for ( DynamicRecord record : schemaStore.allocateFrom( schemaRule ) )
@@ -312,9 +322,20 @@ public class BatchInserterImpl implements BatchInserter
 
     private void repopulateAllIndexes() throws IOException
     {
-        final IndexRule[] rules = getIndexesNeedingPopulation();
-        final IndexPopulator[] populators = new IndexPopulator[rules.length];
         IndexStoreView storeView = new NeoStoreIndexStoreView( neoStore );
+        List<IndexRule> compositeRules = new ArrayList<>();
+        List<IndexRule> singlePropertyRules = new ArrayList<>();
+        for ( IndexRule rule : getIndexesNeedingPopulation() )
+        {
+            (rule.isComposite() ? compositeRules : singlePropertyRules).add( rule );
+        }
+        for ( IndexRule rule : compositeRules )
+        {
+            repopulateCompositeIndex( storeView, rule );
+        }
+
+        final IndexRule[] rules = singlePropertyRules.toArray( new IndexRule[singlePropertyRules.size()] );
+        final IndexPopulator[] populators = new IndexPopulator[rules.length];
 
         final int[] labelIds = new int[rules.length];
         final int[] propertyKeyIds = new int[rules.length];
@@ -370,6 +391,36 @@ public class BatchInserterImpl implements BatchInserter
         labelUpdateVisitor.close();
     }
 
+    /**
+     * Composite indexes need all of their properties for a node at once, so they get a scan of their own
+     * instead of taking part in the shared scan over single property updates.
+     */
+    private void repopulateCompositeIndex( IndexStoreView storeView, IndexRule rule ) throws IOException
+    {
+        final IndexPopulator populator = schemaIndexProviders.apply( rule.getProviderDescriptor() ).getPopulator(
+                rule.getId(), new IndexConfiguration( rule.isConstraintIndex() ) );
+        populator.create();
+        final IndexDescriptor descriptor = new IndexDescriptor( rule.getLabel(), rule.getPropertyKeys() );
+        storeView.visitNodesWithPropertyAndLabel( descriptor,
+                new Visitor<NodePropertyUpdate, IOException>()
+                {
+                    @Override
+                    public boolean visit( NodePropertyUpdate update ) throws IOException
+                    {
+                        try
+                        {
+                            populator.add( update.getNodeId(), update.getValueAfter() );
+                        }
+                        catch ( IndexEntryConflictException conflict )
+                        {
+                            throw conflict.notAllowed( descriptor );
+                        }
+                        return false;
+                    }
+                } ).run();
+        populator.close( true );
+    }
+
     private class NodeLabelUpdateVisitor implements Visitor<NodeLabelUpdate, IOException>
     {
         private final NodeLabelUpdate[] updateBatch = new NodeLabelUpdate[10000];
@@ -799,7 +850,7 @@ public class BatchInserterImpl implements BatchInserter
             type, Map<String, Object> properties )
     {
         NodeRecord firstNode = getNodeRecord( node1 );
-        NodeRecord secondNode = getNodeRecord( node2 );
+        NodeRecord secondNode = node1 == node2 ? firstNode : getNodeRecord( node2 );
         int typeId = relationshipTypeTokens.idOf( type.name() );
         if ( typeId == -1 )
         {
@@ -820,40 +871,164 @@ public class BatchInserterImpl implements BatchInserter
     private void connectRelationship( NodeRecord firstNode,
                                       NodeRecord secondNode, RelationshipRecord rel )
     {
-        assert firstNode.getNextRel() != rel.getId();
-        assert secondNode.getNextRel() != rel.getId();
-        rel.setFirstNextRel( firstNode.getNextRel() );
-        rel.setSecondNextRel( secondNode.getNextRel() );
-        connect( firstNode, rel );
-        connect( secondNode, rel );
-        firstNode.setNextRel( rel.getId() );
-        secondNode.setNextRel( rel.getId() );
+        connectRelationshipToNode( firstNode, rel );
+        if ( firstNode.getId() != secondNode.getId() )
+        {
+            connectRelationshipToNode( secondNode, rel );
+        }
     }
 
-    private void connect( NodeRecord node, RelationshipRecord rel )
+    private void connectRelationshipToNode( NodeRecord node, RelationshipRecord rel )
     {
-        if ( node.getNextRel() != Record.NO_NEXT_RELATIONSHIP.intValue() )
+        if ( !node.isDense() && isDenseEnough( node ) )
         {
-            RelationshipRecord nextRel = getRelationshipStore().getRecord( node.getNextRel() );
+            convertNodeToDense( node );
+        }
+
+        if ( node.isDense() )
+        {
+            RelationshipGroupRecord group = getOrCreateRelationshipGroup( node, rel.getType() );
+            DirectionWrapper direction = RelIdArray.wrap( rel, node.getId() );
+            long firstRel = direction.getNextRel( group );
+            assert firstRel != rel.getId();
+            setNextRel( rel, node.getId(), firstRel );
+            connect( node.getId(), firstRel, rel );
+            direction.setNextRel( group, rel.getId() );
+            direction.setCount( group, direction.getCount( group ) + 1 );
+            getRelationshipGroupStore().updateRecord( group );
+        }
+        else
+        {
+            assert node.getNextRel() != rel.getId();
+            setNextRel( rel, node.getId(), node.getNextRel() );
+            connect( node.getId(), node.getNextRel(), rel );
+            node.setNextRel( rel.getId() );
+        }
+    }
+
+    private void connect( long nodeId, long firstRelId, RelationshipRecord rel )
+    {
+        if ( firstRelId != Record.NO_NEXT_RELATIONSHIP.intValue() )
+        {
+            RelationshipRecord nextRel = getRelationshipStore().getRecord( firstRelId );
             boolean changed = false;
-            if ( nextRel.getFirstNode() == node.getId() )
+            if ( nextRel.getFirstNode() == nodeId )
             {
                 nextRel.setFirstPrevRel( rel.getId() );
                 changed = true;
             }
-            if ( nextRel.getSecondNode() == node.getId() )
+            if ( nextRel.getSecondNode() == nodeId )
             {
                 nextRel.setSecondPrevRel( rel.getId() );
                 changed = true;
             }
             if ( !changed )
             {
-                throw new InvalidRecordException( node + " dont match " + nextRel );
+                throw new InvalidRecordException( "Node[" + nodeId + "] dont match " + nextRel );
             }
             getRelationshipStore().updateRecord( nextRel );
         }
     }
 
+    private static void setNextRel( RelationshipRecord rel, long nodeId, long nextRel )
+    {
+        if ( rel.getFirstNode() == nodeId )
+        {
+            rel.setFirstNextRel( nextRel );
+        }
+        if ( rel.getSecondNode() == nodeId )
+        {
+            rel.setSecondNextRel( nextRel );
+        }
+    }
+
+    private boolean isDenseEnough( NodeRecord node )
+    {
+        int threshold = neoStore.getDenseNodeThreshold();
+        long relId = node.getNextRel();
+        for ( int count = 0; relId != Record.NO_NEXT_RELATIONSHIP.intValue(); count++ )
+        {
+            if ( count >= threshold )
+            {
+                return true;
+            }
+            relId = nextRelOf( getRelationshipRecord( relId ), node.getId() );
+        }
+        return false;
+    }
+
+    /*
+     * Moves the relationships of the node over to one chain per relationship type and direction.
+     * Each relationship is written right after it has been connected, before the one before it in the
+     * old chain gets connected and updates its prev pointer in the store.
+     */
+    private void convertNodeToDense( NodeRecord node )
+    {
+        List<RelationshipRecord> relationships = new ArrayList<>();
+        long relId = node.getNextRel();
+        while ( relId != Record.NO_NEXT_RELATIONSHIP.intValue() )
+        {
+            RelationshipRecord rel = getRelationshipRecord( relId );
+            relationships.add( rel );
+            relId = nextRelOf( rel, node.getId() );
+        }
+
+        node.setDense( true );
+        node.setNextRel( Record.NO_NEXT_RELATIONSHIP.intValue() );
+        for ( int i = relationships.size() - 1; i >= 0; i-- )
+        {
+            RelationshipRecord rel = relationships.get( i );
+            if ( rel.getFirstNode() == node.getId() )
+            {
+                rel.setFirstPrevRel( Record.NO_PREV_RELATIONSHIP.intValue() );
+            }
+            if ( rel.getSecondNode() == node.getId() )
+            {
+                rel.setSecondPrevRel( Record.NO_PREV_RELATIONSHIP.intValue() );
+            }
+            connectRelationshipToNode( node, rel );
+            getRelationshipStore().updateRecord( rel );
+        }
+    }
+
+    private RelationshipGroupRecord getOrCreateRelationshipGroup( NodeRecord node, int type )
+    {
+        // Groups are kept sorted by type
+        RelationshipGroupRecord previous = null;
+        long groupId = node.getNextRel();
+        while ( groupId != Record.NO_NEXT_RELATIONSHIP.intValue() )
+        {
+            RelationshipGroupRecord group = getRelationshipGroupStore().getRecord( groupId );
+            if ( group.getType() == type )
+            {
+                return group;
+            }
+            if ( group.getType() > type )
+            {
+                break;
+            }
+            previous = group;
+            groupId = group.getNext();
+        }
+
+        long id = getRelationshipGroupStore().nextId();
+        RelationshipGroupRecord group = new RelationshipGroupRecord( id, type );
+        group.setInUse( true );
+        group.setCreated();
+        group.setOwningNode( node.getId() );
+        group.setNext( groupId );
+        if ( previous == null )
+        {
+            node.setNextRel( id );
+        }
+        else
+        {
+            previous.setNext( id );
+            getRelationshipGroupStore().updateRecord( previous );
+        }
+        return group;
+    }
+
     @Override
     public void setNodeProperties( long node, Map<String, Object> properties )
     {
@@ -916,29 +1091,10 @@ public class BatchInserterImpl implements BatchInserter
     @Override
     public Iterable<Long> getRelationshipIds( long nodeId )
     {
-        NodeRecord nodeRecord = getNodeRecord( nodeId );
-        long nextRel = nodeRecord.getNextRel();
         List<Long> ids = new ArrayList<>();
-        while ( nextRel != Record.NO_NEXT_RELATIONSHIP.intValue() )
+        for ( RelationshipRecord relRecord : getRelationshipRecords( nodeId ) )
         {
-            RelationshipRecord relRecord = getRelationshipRecord( nextRel );
             ids.add( relRecord.getId() );
-            long firstNode = relRecord.getFirstNode();
-            long secondNode = relRecord.getSecondNode();
-            if ( firstNode == nodeId )
-            {
-                nextRel = relRecord.getFirstNextRel();
-            }
-            else if ( secondNode == nodeId )
-            {
-                nextRel = relRecord.getSecondNextRel();
-            }
-            else
-            {
-                throw new InvalidRecordException( "Node[" + nodeId +
-                                                  "] not part of firstNode[" + firstNode +
-                                                  "] or secondNode[" + secondNode + "]" );
-            }
         }
         return ids;
     }
@@ -946,36 +1102,65 @@ public class BatchInserterImpl implements BatchInserter
     @Override
     public Iterable<BatchRelationship> getRelationships( long nodeId )
     {
-        NodeRecord nodeRecord = getNodeRecord( nodeId );
-        long nextRel = nodeRecord.getNextRel();
         List<BatchRelationship> rels = new ArrayList<>();
-        while ( nextRel != Record.NO_NEXT_RELATIONSHIP.intValue() )
+        for ( RelationshipRecord relRecord : getRelationshipRecords( nodeId ) )
         {
-            RelationshipRecord relRecord = getRelationshipRecord( nextRel );
             RelationshipType type = new RelationshipTypeImpl(
                     relationshipTypeTokens.nameOf( relRecord.getType() ) );
             rels.add( new BatchRelationship( relRecord.getId(),
                                              relRecord.getFirstNode(), relRecord.getSecondNode(), type ) );
-            long firstNode = relRecord.getFirstNode();
-            long secondNode = relRecord.getSecondNode();
-            if ( firstNode == nodeId )
-            {
-                nextRel = relRecord.getFirstNextRel();
-            }
-            else if ( secondNode == nodeId )
-            {
-                nextRel = relRecord.getSecondNextRel();
-            }
-            else
-            {
-                throw new InvalidRecordException( "Node[" + nodeId +
-                                                  "] not part of firstNode[" + firstNode +
-                                                  "] or secondNode[" + secondNode + "]" );
-            }
         }
         return rels;
     }
 
+    private List<RelationshipRecord> getRelationshipRecords( long nodeId )
+    {
+        NodeRecord nodeRecord = getNodeRecord( nodeId );
+        List<RelationshipRecord> rels = new ArrayList<>();
+        if ( !nodeRecord.isDense() )
+        {
+            addRelationshipChain( nodeId, nodeRecord.getNextRel(), rels );
+            return rels;
+        }
+        long groupId = nodeRecord.getNextRel();
+        while ( groupId != Record.NO_NEXT_RELATIONSHIP.intValue() )
+        {
+            RelationshipGroupRecord group = getRelationshipGroupStore().getRecord( groupId );
+            addRelationshipChain( nodeId, group.getFirstOut(), rels );
+            addRelationshipChain( nodeId, group.getFirstIn(), rels );
+            addRelationshipChain( nodeId, group.getFirstLoop(), rels );
+            groupId = group.getNext();
+        }
+        return rels;
+    }
+
+    private void addRelationshipChain( long nodeId, long nextRel, List<RelationshipRecord> target )
+    {
+        while ( nextRel != Record.NO_NEXT_RELATIONSHIP.intValue() )
+        {
+            RelationshipRecord relRecord = getRelationshipRecord( nextRel );
+            target.add( relRecord );
+            nextRel = nextRelOf( relRecord, nodeId );
+        }
+    }
+
+    private static long nextRelOf( RelationshipRecord relRecord, long nodeId )
+    {
+        long firstNode = relRecord.getFirstNode();
+        long secondNode = relRecord.getSecondNode();
+        if ( firstNode == nodeId )
+        {
+            return relRecord.getFirstNextRel();
+        }
+        else if ( secondNode == nodeId )
+        {
+            return relRecord.getSecondNextRel();
+        }
+        throw new InvalidRecordException( "Node[" + nodeId +
+                                          "] not part of firstNode[" + firstNode +
+                                          "] or secondNode[" + secondNode + "]" );
+    }
+
     @Override
     public BatchRelationship getRelationshipById( long relId )
     {
@@ -1218,6 +1403,11 @@ public class BatchInserterImpl implements BatchInserter
         return getPropertyStore().getPropertyKeyTokenStore();
     }
 
+    private RelationshipGroupStore getRelationshipGroupStore()
+    {
+        return neoStore.getRelationshipGroupStore();
+    }
+
     private RelationshipStore getRelationshipStore()
     {
         return neoStore.getRelationshipStore();
@@ -1304,14 +1494,14 @@ public class BatchInserterImpl implements BatchInserter
     private class BatchSchemaActions implements InternalSchemaActions
     {
         @Override
-        public IndexDefinition createIndexDefinition( Label label, String propertyKey )
+        public IndexDefinition createIndexDefinition( Label label, String... propertyKeys )
         {
-            createIndexRule( label, propertyKey );
-            return new IndexDefinitionImpl( this, label, propertyKey, false );
+            createIndexRule( label, propertyKeys );
+            return new IndexDefinitionImpl( this, label, propertyKeys, false );
         }
 
         @Override
-        public void dropIndexDefinitions( Label label, String propertyKey )
+        public void dropIndexDefinitions( Label label, String... propertyKeys )
         {
             throw unsupportedException();
         }
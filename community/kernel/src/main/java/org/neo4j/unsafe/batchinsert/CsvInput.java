@@ -0,0 +1,319 @@
+/**
+ * Copyright (c) 2002-2013 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.unsafe.batchinsert;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * Reads the input of a {@link BatchImporter} from CSV files. The first line of each file is a header naming the
+ * columns. Node files have an {@code :ID} column with the input id of each node, and relationship files have
+ * {@code :START_ID}, {@code :END_ID} and {@code :TYPE} columns. A {@code :LABEL} column holds labels of nodes,
+ * separated by {@code ;}. All other columns are properties, stored as strings unless the type is given in the
+ * header, like in {@code age:int}. Empty values are left out.
+ */
+public class CsvInput
+{
+    private static final Charset UTF_8 = Charset.forName( "UTF-8" );
+    private static final char DELIMITER = ',';
+    private static final char QUOTE = '"';
+    private static final String ARRAY_DELIMITER = ";";
+
+    private final File nodes;
+    private final File relationships;
+
+    public CsvInput( File nodes, File relationships )
+    {
+        this.nodes = nodes;
+        this.relationships = relationships;
+    }
+
+    public Iterable<InputNode> nodes()
+    {
+        return new Iterable<InputNode>()
+        {
+            @Override
+            public Iterator<InputNode> iterator()
+            {
+                return new Entities<InputNode>( open( nodes ) )
+                {
+                    @Override
+                    protected InputNode create( Map<String, String> special, Map<String, Object> properties )
+                    {
+                        String labels = special.get( ":LABEL" );
+                        String[] labelNames = labels == null || labels.isEmpty() ? new String[0]
+                                : labels.split( ARRAY_DELIMITER );
+                        return new InputNode( required( special, ":ID" ), labelNames, properties );
+                    }
+                };
+            }
+        };
+    }
+
+    public Iterable<InputRelationship> relationships()
+    {
+        return new Iterable<InputRelationship>()
+        {
+            @Override
+            public Iterator<InputRelationship> iterator()
+            {
+                return new Entities<InputRelationship>( open( relationships ) )
+                {
+                    @Override
+                    protected InputRelationship create( Map<String, String> special, Map<String, Object> properties )
+                    {
+                        return new InputRelationship( required( special, ":START_ID" ), required( special, ":END_ID" ),
+                                required( special, ":TYPE" ), properties );
+                    }
+                };
+            }
+        };
+    }
+
+    private static Reader open( File file )
+    {
+        try
+        {
+            return new InputStreamReader( new FileInputStream( file ), UTF_8 );
+        }
+        catch ( IOException e )
+        {
+            throw new InputException( "Unable to open " + file, e );
+        }
+    }
+
+    private abstract static class Entities<T> implements Iterator<T>
+    {
+        private final BufferedReader reader;
+        private final String[] names;
+        private final String[] types;
+        private int line;
+        private List<String> next;
+
+        Entities( Reader reader )
+        {
+            this.reader = new BufferedReader( reader );
+            List<String> header = readRow();
+            if ( header == null )
+            {
+                throw new InputException( "Missing header" );
+            }
+            names = new String[header.size()];
+            types = new String[header.size()];
+            for ( int i = 0; i < header.size(); i++ )
+            {
+                String column = header.get( i );
+                int colon = column.lastIndexOf( ':' );
+                if ( colon > 0 )
+                {
+                    names[i] = column.substring( 0, colon );
+                    types[i] = column.substring( colon + 1 ).toLowerCase();
+                }
+                else
+                {
+                    names[i] = column;
+                    types[i] = column.startsWith( ":" ) ? null : "string";
+                }
+            }
+            next = readRow();
+        }
+
+        protected abstract T create( Map<String, String> special, Map<String, Object> properties );
+
+        @Override
+        public boolean hasNext()
+        {
+            return next != null;
+        }
+
+        @Override
+        public T next()
+        {
+            if ( next == null )
+            {
+                throw new NoSuchElementException();
+            }
+            List<String> row = next;
+            Map<String, String> special = new HashMap<>();
+            Map<String, Object> properties = new HashMap<>();
+            for ( int i = 0; i < names.length && i < row.size(); i++ )
+            {
+                String value = row.get( i );
+                if ( types[i] == null )
+                {
+                    special.put( names[i], value );
+                }
+                else if ( !value.isEmpty() )
+                {
+                    properties.put( names[i], convert( value, types[i] ) );
+                }
+            }
+            T entity = create( special, properties );
+            next = readRow();
+            return entity;
+        }
+
+        protected String required( Map<String, String> special, String column )
+        {
+            String value = special.get( column );
+            if ( value == null || value.isEmpty() )
+            {
+                throw new InputException( "Missing " + column + " on line " + line );
+            }
+            return value;
+        }
+
+        private Object convert( String value, String type )
+        {
+            try
+            {
+                switch ( type )
+                {
+                case "string": return value;
+                case "int": return Integer.valueOf( value );
+                case "long": return Long.valueOf( value );
+                case "short": return Short.valueOf( value );
+                case "byte": return Byte.valueOf( value );
+                case "float": return Float.valueOf( value );
+                case "double": return Double.valueOf( value );
+                case "boolean": return Boolean.valueOf( value );
+                case "char": return value.charAt( 0 );
+                case "string[]": return value.split( ARRAY_DELIMITER );
+                default: throw new InputException( "Unknown type '" + type + "' on line " + line );
+                }
+            }
+            catch ( NumberFormatException e )
+            {
+                throw new InputException( "'" + value + "' is not a valid " + type + " on line " + line, e );
+            }
+        }
+
+        /*
+         * Splits the next line into values, allowing quoted values that contain delimiters, escaped quotes or line
+         * breaks. Returns null and closes the file at the end of it.
+         */
+        private List<String> readRow()
+        {
+            try
+            {
+                String text = reader.readLine();
+                if ( text == null )
+                {
+                    reader.close();
+                    return null;
+                }
+                line++;
+
+                List<String> values = new ArrayList<>();
+                StringBuilder value = new StringBuilder();
+                boolean quoted = false;
+                for ( int i = 0; ; i++ )
+                {
+                    if ( i == text.length() )
+                    {
+                        if ( !quoted )
+                        {
+                            break;
+                        }
+                        text = reader.readLine();
+                        if ( text == null )
+                        {
+                            throw new InputException( "Unterminated quote on line " + line );
+                        }
+                        line++;
+                        value.append( '\n' );
+                        i = -1;
+                        continue;
+                    }
+
+                    char c = text.charAt( i );
+                    if ( quoted )
+                    {
+                        if ( c == QUOTE && i + 1 < text.length() && text.charAt( i + 1 ) == QUOTE )
+                        {
+                            value.append( QUOTE );
+                            i++;
+                        }
+                        else if ( c == QUOTE )
+                        {
+                            quoted = false;
+                        }
+                        else
+                        {
+                            value.append( c );
+                        }
+                    }
+                    else if ( c == QUOTE )
+                    {
+                        quoted = true;
+                    }
+                    else if ( c == DELIMITER )
+                    {
+                        values.add( value.toString() );
+                        value.setLength( 0 );
+                    }
+                    else
+                    {
+                        value.append( c );
+                    }
+                }
+                values.add( value.toString() );
+                return values;
+            }
+            catch ( IOException e )
+            {
+                throw new InputException( "Unable to read line " + line, e );
+            }
+        }
+
+        @Override
+        public void remove()
+        {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    /**
+     * Thrown when the input files can't be read, or don't have the expected format.
+     */
+    public static class InputException extends RuntimeException
+    {
+        public InputException( String message )
+        {
+            super( message );
+        }
+
+        public InputException( String message, Throwable cause )
+        {
+            super( message, cause );
+        }
+    }
+}
@@ -0,0 +1,461 @@
+/**
+ * Copyright (c) 2002-2013 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.unsafe.batchinsert;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import org.neo4j.helpers.DaemonThreadFactory;
+import org.neo4j.helpers.collection.primitive.LongArray;
+
+import static java.util.concurrent.Executors.newFixedThreadPool;
+
+/**
+ * An {@link IdMapper} that keeps input ids outside of the heap, encoded as one long each, which makes it usable for
+ * billions of nodes. It needs 8 bytes per node while nodes are put, and another 16 bytes per node while preparing.
+ * After that 16 bytes per node are kept, all of it off heap, until the mapper is {@link #close() closed}.
+ *
+ * Integral numbers and strings of digits are encoded exactly. Other ids are encoded as a hash of their string form.
+ * When {@link #prepare(Iterable) preparing}, the encoded ids are sorted by several threads, and ids that got the
+ * same encoding are detected. Only the input ids of those are read once more, and kept in a map on the heap.
+ * Lookups are binary searches over the sorted encoded ids. An id that was never put could still, with a very small
+ * probability, get the same hash as one that was, so the mapper is not meant for checking whether ids exist.
+ *
+ * Nodes have to be put in increasing node id order. This is the order the importer and the {@link BatchInserter}
+ * hand out ids in.
+ *
+ * This can be used together with the {@link BatchInserter} too, for looking up the nodes relationships should
+ * connect, instead of keeping a map of all input ids on the heap.
+ */
+public class EncodingIdMapper implements IdMapper
+{
+    private static final long EMPTY = -1;
+    private static final long NUMERIC_STRING = 1L << 62;
+    private static final long HASHED = 1L << 63;
+    private static final long PAYLOAD = (1L << 62) - 1;
+
+    private final int sortWorkers;
+    private LongArray encodedIds = LongArray.offHeap( 0, EMPTY );
+    private final Map<Object, Long> collisions = new HashMap<>();
+    private long highestNodeId = -1;
+    private long count;
+    private LongArray sorted;
+
+    public EncodingIdMapper()
+    {
+        this( Runtime.getRuntime().availableProcessors() );
+    }
+
+    public EncodingIdMapper( int sortWorkers )
+    {
+        if ( sortWorkers < 1 )
+        {
+            throw new IllegalArgumentException( "At least one sort worker is needed, not " + sortWorkers );
+        }
+        this.sortWorkers = sortWorkers;
+    }
+
+    @Override
+    public void put( Object inputId, long nodeId )
+    {
+        if ( sorted != null )
+        {
+            throw new IllegalStateException( "Cannot put ids after the mapper has been prepared" );
+        }
+        if ( nodeId <= highestNodeId )
+        {
+            throw new IllegalArgumentException( "Node ids have to be put in increasing order, but got " + nodeId +
+                    " after " + highestNodeId );
+        }
+        if ( nodeId >= encodedIds.length() )
+        {
+            encodedIds = encodedIds.grow( Math.max( nodeId + 1, encodedIds.length() * 2 ), EMPTY );
+        }
+        encodedIds.set( nodeId, encode( inputId ) );
+        highestNodeId = nodeId;
+        count++;
+    }
+
+    @Override
+    public void prepare( Iterable<Object> inputIds )
+    {
+        if ( sorted != null )
+        {
+            throw new IllegalStateException( "Already prepared" );
+        }
+        LongArray nodeIds = LongArray.offHeap( count, 0 );
+        long index = 0;
+        for ( long nodeId = 0; nodeId <= highestNodeId; nodeId++ )
+        {
+            if ( encodedIds.get( nodeId ) != EMPTY )
+            {
+                nodeIds.set( index++, nodeId );
+            }
+        }
+
+        sorted = sort( nodeIds );
+        resolveCollisions( inputIds );
+    }
+
+    @Override
+    public long get( Object inputId )
+    {
+        if ( sorted == null )
+        {
+            throw new IllegalStateException( "The mapper has to be prepared before ids can be looked up" );
+        }
+        long encoded = encode( inputId );
+        long low = 0;
+        long high = count - 1;
+        while ( low <= high )
+        {
+            long middle = (low + high) >>> 1;
+            long value = valueAt( sorted, middle );
+            if ( value < encoded )
+            {
+                low = middle + 1;
+            }
+            else if ( value > encoded )
+            {
+                high = middle - 1;
+            }
+            else if ( isCollision( middle, encoded ) )
+            {
+                Long nodeId = collisions.get( inputId );
+                return nodeId != null ? nodeId : NOT_FOUND;
+            }
+            else
+            {
+                return sorted.get( middle );
+            }
+        }
+        return NOT_FOUND;
+    }
+
+    @Override
+    public void close()
+    {
+        encodedIds.close();
+        if ( sorted != null )
+        {
+            sorted.close();
+        }
+    }
+
+    private boolean isCollision( long index, long encoded )
+    {
+        return (index > 0 && valueAt( sorted, index - 1 ) == encoded) ||
+                (index < count - 1 && valueAt( sorted, index + 1 ) == encoded);
+    }
+
+    static long encode( Object inputId )
+    {
+        if ( inputId instanceof Long || inputId instanceof Integer || inputId instanceof Short ||
+                inputId instanceof Byte )
+        {
+            long value = ((Number) inputId).longValue();
+            if ( value >= 0 && value <= PAYLOAD )
+            {
+                return value;
+            }
+        }
+        else if ( inputId instanceof String )
+        {
+            long value = digits( (String) inputId );
+            if ( value != EMPTY )
+            {
+                return NUMERIC_STRING | value;
+            }
+        }
+        return hash( String.valueOf( inputId ) );
+    }
+
+    /*
+     * The value of a string of at most 18 digits without leading zeros, or EMPTY for any other string.
+     */
+    private static long digits( String string )
+    {
+        int length = string.length();
+        if ( length == 0 || length > 18 || (length > 1 && string.charAt( 0 ) == '0') )
+        {
+            return EMPTY;
+        }
+        long value = 0;
+        for ( int i = 0; i < length; i++ )
+        {
+            char c = string.charAt( i );
+            if ( c < '0' || c > '9' )
+            {
+                return EMPTY;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    private static long hash( String string )
+    {
+        // 64 bit FNV-1a, with the top bit set to keep hashed ids apart from the exactly encoded ones
+        long hash = 0xcbf29ce484222325L;
+        for ( int i = 0; i < string.length(); i++ )
+        {
+            char c = string.charAt( i );
+            hash = (hash ^ (c & 0xFF)) * 0x100000001b3L;
+            hash = (hash ^ (c >>> 8)) * 0x100000001b3L;
+        }
+        hash |= HASHED;
+        return hash == EMPTY ? EMPTY - 1 : hash;
+    }
+
+    private long valueAt( LongArray nodeIds, long index )
+    {
+        return encodedIds.get( nodeIds.get( index ) );
+    }
+
+    /*
+     * Sorts slices of the node ids by their encoded input ids, one slice per worker, and then merges pairs of
+     * sorted runs in parallel until only one is left.
+     */
+    private LongArray sort( LongArray nodeIds )
+    {
+        int slices = (int) Math.max( 1, Math.min( sortWorkers, count / 1000 ) );
+        long[] bounds = new long[slices + 1];
+        for ( int i = 0; i <= slices; i++ )
+        {
+            bounds[i] = count * i / slices;
+        }
+        if ( slices == 1 )
+        {
+            quicksort( nodeIds, 0, count );
+            return nodeIds;
+        }
+
+        ExecutorService workers = newFixedThreadPool( sortWorkers, new DaemonThreadFactory( "Neo4j id mapper" ) );
+        try
+        {
+            List<Future<?>> tasks = new ArrayList<>();
+            for ( int i = 0; i < slices; i++ )
+            {
+                final long from = bounds[i];
+                final long to = bounds[i + 1];
+                final LongArray array = nodeIds;
+                tasks.add( workers.submit( new Runnable()
+                {
+                    @Override
+                    public void run()
+                    {
+                        quicksort( array, from, to );
+                    }
+                } ) );
+            }
+            awaitAll( tasks );
+
+            LongArray source = nodeIds;
+            LongArray target = LongArray.offHeap( count, 0 );
+            while ( bounds.length > 2 )
+            {
+                int runs = bounds.length - 1;
+                long[] merged = new long[(runs + 1) / 2 + 1];
+                for ( int run = 0; run < runs; run += 2 )
+                {
+                    final long from = bounds[run];
+                    final long middle = bounds[run + 1];
+                    final long to = run + 2 < bounds.length ? bounds[run + 2] : middle;
+                    final LongArray in = source;
+                    final LongArray out = target;
+                    tasks.add( workers.submit( new Runnable()
+                    {
+                        @Override
+                        public void run()
+                        {
+                            merge( in, out, from, middle, to );
+                        }
+                    } ) );
+                    merged[run / 2] = from;
+                }
+                merged[merged.length - 1] = count;
+                awaitAll( tasks );
+
+                bounds = merged;
+                LongArray swap = source;
+                source = target;
+                target = swap;
+            }
+            target.close();
+            return source;
+        }
+        finally
+        {
+            workers.shutdownNow();
+        }
+    }
+
+    private static void awaitAll( List<Future<?>> tasks )
+    {
+        for ( Future<?> task : tasks )
+        {
+            ImportStage.await( task );
+        }
+        tasks.clear();
+    }
+
+    private void quicksort( LongArray nodeIds, long from, long to )
+    {
+        while ( to - from > 16 )
+        {
+            long pivot = medianOfThree( valueAt( nodeIds, from ), valueAt( nodeIds, (from + to) >>> 1 ),
+                    valueAt( nodeIds, to - 1 ) );
+            long i = from - 1;
+            long j = to;
+            while ( true )
+            {
+                do
+                {
+                    i++;
+                }
+                while ( valueAt( nodeIds, i ) < pivot );
+                do
+                {
+                    j--;
+                }
+                while ( valueAt( nodeIds, j ) > pivot );
+                if ( i >= j )
+                {
+                    break;
+                }
+                long nodeId = nodeIds.get( i );
+                nodeIds.set( i, nodeIds.get( j ) );
+                nodeIds.set( j, nodeId );
+            }
+
+            // Recurse into the smaller part only, to keep the stack shallow
+            if ( j + 1 - from < to - j - 1 )
+            {
+                quicksort( nodeIds, from, j + 1 );
+                from = j + 1;
+            }
+            else
+            {
+                quicksort( nodeIds, j + 1, to );
+                to = j + 1;
+            }
+        }
+
+        for ( long i = from + 1; i < to; i++ )
+        {
+            long nodeId = nodeIds.get( i );
+            long value = encodedIds.get( nodeId );
+            long j = i - 1;
+            while ( j >= from && valueAt( nodeIds, j ) > value )
+            {
+                nodeIds.set( j + 1, nodeIds.get( j ) );
+                j--;
+            }
+            nodeIds.set( j + 1, nodeId );
+        }
+    }
+
+    private static long medianOfThree( long a, long b, long c )
+    {
+        return Math.max( Math.min( a, b ), Math.min( Math.max( a, b ), c ) );
+    }
+
+    private void merge( LongArray source, LongArray target, long from, long middle, long to )
+    {
+        long left = from;
+        long right = middle;
+        for ( long index = from; index < to; index++ )
+        {
+            if ( right >= to || (left < middle && valueAt( source, left ) <= valueAt( source, right )) )
+            {
+                target.set( index, source.get( left++ ) );
+            }
+            else
+            {
+                target.set( index, source.get( right++ ) );
+            }
+        }
+    }
+
+    /*
+     * Reads the input ids of nodes that share their encoded id with others, and keeps those in a map.
+     */
+    private void resolveCollisions( Iterable<Object> inputIds )
+    {
+        long[] collided = new long[16];
+        int collidedCount = 0;
+        for ( long index = 1; index < count; index++ )
+        {
+            if ( valueAt( sorted, index ) == valueAt( sorted, index - 1 ) )
+            {
+                if ( collidedCount + 2 > collided.length )
+                {
+                    collided = Arrays.copyOf( collided, collided.length * 2 );
+                }
+                if ( index == 1 || valueAt( sorted, index - 1 ) != valueAt( sorted, index - 2 ) )
+                {
+                    collided[collidedCount++] = sorted.get( index - 1 );
+                }
+                collided[collidedCount++] = sorted.get( index );
+            }
+        }
+        if ( collidedCount == 0 )
+        {
+            return;
+        }
+        Arrays.sort( collided, 0, collidedCount );
+
+        Iterator<Object> ids = inputIds.iterator();
+        int next = 0;
+        for ( long nodeId = 0; nodeId <= highestNodeId && next < collidedCount; nodeId++ )
+        {
+            long encoded = encodedIds.get( nodeId );
+            if ( encoded == EMPTY )
+            {
+                continue;
+            }
+            if ( !ids.hasNext() )
+            {
+                throw new IllegalArgumentException( "There are fewer input ids than nodes that were put, " +
+                        "the input ids have to be readable again after all nodes were put" );
+            }
+            Object inputId = ids.next();
+            if ( encode( inputId ) != encoded )
+            {
+                throw new IllegalArgumentException( "Input id " + inputId + " was not put for node " + nodeId +
+                        ", the input ids have to be given in the order they were put" );
+            }
+            if ( nodeId == collided[next] )
+            {
+                next++;
+                if ( collisions.put( inputId, nodeId ) != null )
+                {
+                    throw new IllegalArgumentException( "Input id " + inputId + " is used by more than one node" );
+                }
+            }
+        }
+    }
+}
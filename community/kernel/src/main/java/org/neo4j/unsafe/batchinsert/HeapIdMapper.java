@@ -0,0 +1,58 @@
+/**
+ * Copyright (c) 2002-2013 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.unsafe.batchinsert;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * An {@link IdMapper} keeping all input ids in a plain map on the heap. Fine for imports of moderate size.
+ */
+public class HeapIdMapper implements IdMapper
+{
+    private final Map<Object, Long> ids = new HashMap<>();
+
+    @Override
+    public void put( Object inputId, long nodeId )
+    {
+        if ( ids.put( inputId, nodeId ) != null )
+        {
+            throw new IllegalArgumentException( "Input id " + inputId + " is used by more than one node" );
+        }
+    }
+
+    @Override
+    public void prepare( Iterable<Object> inputIds )
+    {
+    }
+
+    @Override
+    public long get( Object inputId )
+    {
+        Long nodeId = ids.get( inputId );
+        return nodeId != null ? nodeId : NOT_FOUND;
+    }
+
+    @Override
+    public void close()
+    {
+        ids.clear();
+    }
+}
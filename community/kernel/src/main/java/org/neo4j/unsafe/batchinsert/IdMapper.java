@@ -0,0 +1,51 @@
+/**
+ * Copyright (c) 2002-2013 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.unsafe.batchinsert;
+
+/**
+ * Maps the ids nodes have in the input of an import to the ids they get in the store.
+ *
+ * All nodes are {@link #put(Object, long) put} first, from a single thread. Then the mapper is
+ * {@link #prepare(Iterable) prepared}, after which it is only {@link #get(Object) read}, possibly from many
+ * threads at once, until it is {@link #close() closed}.
+ */
+public interface IdMapper
+{
+    long NOT_FOUND = -1;
+
+    void put( Object inputId, long nodeId );
+
+    /**
+     * @param inputIds all input ids that were put, in the order they were put. Mappers that don't keep the ids
+     * themselves can read them from here, instead of keeping them all on the heap, which means iterating over the
+     * input a second time.
+     */
+    void prepare( Iterable<Object> inputIds );
+
+    /**
+     * @return the node id for the given input id, or {@link #NOT_FOUND} if no node had that input id.
+     */
+    long get( Object inputId );
+
+    /**
+     * Gives back the memory held by this mapper. It can't be used afterwards.
+     */
+    void close();
+}
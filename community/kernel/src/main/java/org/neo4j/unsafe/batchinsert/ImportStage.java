@@ -0,0 +1,142 @@
+/**
+ * Copyright (c) 2002-2013 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.unsafe.batchinsert;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * One stage of a {@link BatchImporter}. Input is cut into batches which are {@link #process(List, long) processed}
+ * by a pool of workers, while the results are {@link #write(Object) written} one at a time, in input order, by the
+ * thread running the stage. That way all the expensive preparation happens in parallel, but the store files are
+ * written sequentially.
+ *
+ * @param <T> type of input items.
+ * @param <R> type of the result of processing one batch.
+ */
+abstract class ImportStage<T, R>
+{
+    private final String name;
+
+    ImportStage( String name )
+    {
+        this.name = name;
+    }
+
+    /**
+     * Prepares one batch of input. Called concurrently from several workers.
+     *
+     * @param batch the input items of this batch.
+     * @param firstId the number of input items that came before this batch, which is the id the first item of this
+     * batch gets when ids are handed out in input order.
+     */
+    protected abstract R process( List<T> batch, long firstId );
+
+    /**
+     * Writes the result of one batch. Always called from the thread running the stage, in input order.
+     */
+    protected abstract void write( R result );
+
+    /**
+     * @return the number of input items that went through this stage.
+     */
+    long run( Iterator<T> input, ExecutorService workers, int batchSize, int maxPendingBatches )
+    {
+        Deque<Future<R>> pending = new ArrayDeque<>();
+        long count = 0;
+        try
+        {
+            while ( input.hasNext() )
+            {
+                final List<T> batch = new ArrayList<>( batchSize );
+                while ( batch.size() < batchSize && input.hasNext() )
+                {
+                    batch.add( input.next() );
+                }
+                final long firstId = count;
+                count += batch.size();
+
+                pending.add( workers.submit( new Callable<R>()
+                {
+                    @Override
+                    public R call()
+                    {
+                        return process( batch, firstId );
+                    }
+                } ) );
+                if ( pending.size() >= maxPendingBatches )
+                {
+                    write( await( pending.poll() ) );
+                }
+            }
+            while ( !pending.isEmpty() )
+            {
+                write( await( pending.poll() ) );
+            }
+            return count;
+        }
+        finally
+        {
+            for ( Future<R> future : pending )
+            {
+                future.cancel( true );
+            }
+        }
+    }
+
+    static <R> R await( Future<R> future )
+    {
+        try
+        {
+            return future.get();
+        }
+        catch ( InterruptedException e )
+        {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException( "Interrupted while waiting for an import worker", e );
+        }
+        catch ( ExecutionException e )
+        {
+            Throwable cause = e.getCause();
+            if ( cause instanceof RuntimeException )
+            {
+                throw (RuntimeException) cause;
+            }
+            if ( cause instanceof Error )
+            {
+                throw (Error) cause;
+            }
+            throw new RuntimeException( cause );
+        }
+    }
+
+    @Override
+    public String toString()
+    {
+        return name;
+    }
+}
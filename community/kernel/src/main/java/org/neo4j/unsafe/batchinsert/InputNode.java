@@ -0,0 +1,61 @@
+/**
+ * Copyright (c) 2002-2013 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.unsafe.batchinsert;
+
+import java.util.Map;
+
+/**
+ * A node read from the input of a {@link BatchImporter}. The id is whatever identifies the node in the source data,
+ * and is only used to find the nodes that relationships connect.
+ */
+public class InputNode
+{
+    private final Object id;
+    private final String[] labels;
+    private final Map<String, Object> properties;
+
+    public InputNode( Object id, String[] labels, Map<String, Object> properties )
+    {
+        this.id = id;
+        this.labels = labels;
+        this.properties = properties;
+    }
+
+    public Object id()
+    {
+        return id;
+    }
+
+    public String[] labels()
+    {
+        return labels;
+    }
+
+    public Map<String, Object> properties()
+    {
+        return properties;
+    }
+
+    @Override
+    public String toString()
+    {
+        return "InputNode[" + id + "]";
+    }
+}
@@ -0,0 +1,68 @@
+/**
+ * Copyright (c) 2002-2013 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.unsafe.batchinsert;
+
+import java.util.Map;
+
+/**
+ * A relationship read from the input of a {@link BatchImporter}. The start and end nodes are given by the
+ * {@link InputNode#id() input ids} of the nodes.
+ */
+public class InputRelationship
+{
+    private final Object startNode;
+    private final Object endNode;
+    private final String type;
+    private final Map<String, Object> properties;
+
+    public InputRelationship( Object startNode, Object endNode, String type, Map<String, Object> properties )
+    {
+        this.startNode = startNode;
+        this.endNode = endNode;
+        this.type = type;
+        this.properties = properties;
+    }
+
+    public Object startNode()
+    {
+        return startNode;
+    }
+
+    public Object endNode()
+    {
+        return endNode;
+    }
+
+    public String type()
+    {
+        return type;
+    }
+
+    public Map<String, Object> properties()
+    {
+        return properties;
+    }
+
+    @Override
+    public String toString()
+    {
+        return "InputRelationship[" + startNode + "-" + type + "->" + endNode + "]";
+    }
+}
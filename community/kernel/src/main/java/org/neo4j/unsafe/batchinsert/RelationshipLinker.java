@@ -0,0 +1,317 @@
+/**
+ * Copyright (c) 2002-2013 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.unsafe.batchinsert;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import org.neo4j.kernel.impl.nioneo.store.NeoStore;
+import org.neo4j.kernel.impl.nioneo.store.NodeRecord;
+import org.neo4j.kernel.impl.nioneo.store.NodeStore;
+import org.neo4j.kernel.impl.nioneo.store.Record;
+import org.neo4j.kernel.impl.nioneo.store.RelationshipGroupRecord;
+import org.neo4j.kernel.impl.nioneo.store.RelationshipGroupStore;
+import org.neo4j.kernel.impl.nioneo.store.RelationshipRecord;
+import org.neo4j.kernel.impl.nioneo.store.RelationshipStore;
+
+/**
+ * Links the relationships written by a {@link BatchImporter} into the relationship chains of their nodes.
+ *
+ * The relationship store is read in two sequential passes. The first goes from the highest id down, and points every
+ * relationship to the next one in each of its chains, so that all chains end up in id order. The node store is then
+ * updated to point to the first relationship of each node, or to the relationship groups of dense nodes. The second
+ * pass goes from the lowest id up, and sets the pointers to the previous relationships.
+ *
+ * Within a pass, every batch of relationships is handed to all workers at once. Each worker owns a slice of the nodes
+ * and only updates the pointers, and chain state, of the nodes it owns, so the workers never touch the same data.
+ */
+class RelationshipLinker
+{
+    private static final int OUT = 0;
+    private static final int IN = 1;
+    private static final int LOOP = 2;
+    private static final long NONE = Record.NO_NEXT_RELATIONSHIP.intValue();
+
+    private final NeoStore neoStore;
+    private final ExecutorService executor;
+    private final int workerCount;
+    private final int batchSize;
+    private final int[] degrees;
+    private final int denseNodeThreshold;
+    private final long[] chainEnds;
+    private final List<Map<Long, DenseNode>> denseNodes = new ArrayList<>();
+
+    RelationshipLinker( NeoStore neoStore, ExecutorService executor, int workerCount, int batchSize, int[] degrees )
+    {
+        this.neoStore = neoStore;
+        this.executor = executor;
+        this.workerCount = workerCount;
+        this.batchSize = batchSize;
+        this.degrees = degrees;
+        this.denseNodeThreshold = neoStore.getDenseNodeThreshold();
+        this.chainEnds = new long[degrees.length];
+        for ( int i = 0; i < workerCount; i++ )
+        {
+            denseNodes.add( new HashMap<Long, DenseNode>() );
+        }
+    }
+
+    /**
+     * @return the number of dense nodes.
+     */
+    int link( long relationshipCount )
+    {
+        Arrays.fill( chainEnds, NONE );
+        pass( relationshipCount, true );
+
+        int denseCount = writeNodes();
+
+        Arrays.fill( chainEnds, NONE );
+        for ( Map<Long, DenseNode> nodes : denseNodes )
+        {
+            for ( DenseNode node : nodes.values() )
+            {
+                node.resetChainEnds();
+            }
+        }
+        pass( relationshipCount, false );
+        return denseCount;
+    }
+
+    private void pass( long relationshipCount, final boolean backwards )
+    {
+        RelationshipStore store = neoStore.getRelationshipStore();
+        for ( long done = 0; done < relationshipCount; )
+        {
+            int size = (int) Math.min( batchSize, relationshipCount - done );
+            final RelationshipRecord[] batch = new RelationshipRecord[size];
+            for ( int i = 0; i < batch.length; i++ )
+            {
+                long id = backwards ? relationshipCount - 1 - done - i : done + i;
+                batch[i] = store.getRecord( id );
+            }
+            done += batch.length;
+
+            List<Future<?>> tasks = new ArrayList<>( workerCount );
+            for ( int i = 0; i < workerCount; i++ )
+            {
+                final int worker = i;
+                tasks.add( executor.submit( new Runnable()
+                {
+                    @Override
+                    public void run()
+                    {
+                        for ( RelationshipRecord record : batch )
+                        {
+                            link( record, worker, backwards );
+                        }
+                    }
+                } ) );
+            }
+            for ( Future<?> task : tasks )
+            {
+                ImportStage.await( task );
+            }
+
+            for ( RelationshipRecord record : batch )
+            {
+                store.updateRecord( record );
+            }
+        }
+    }
+
+    private void link( RelationshipRecord record, int worker, boolean backwards )
+    {
+        long first = record.getFirstNode();
+        long second = record.getSecondNode();
+        if ( owner( first ) == worker )
+        {
+            boolean loop = first == second;
+            long other = swapChainEnd( first, record, loop ? LOOP : OUT, worker, backwards );
+            if ( backwards )
+            {
+                record.setFirstNextRel( other );
+                if ( loop )
+                {
+                    record.setSecondNextRel( other );
+                }
+            }
+            else
+            {
+                record.setFirstPrevRel( other );
+                if ( loop )
+                {
+                    record.setSecondPrevRel( other );
+                }
+            }
+        }
+        if ( first != second && owner( second ) == worker )
+        {
+            long other = swapChainEnd( second, record, IN, worker, backwards );
+            if ( backwards )
+            {
+                record.setSecondNextRel( other );
+            }
+            else
+            {
+                record.setSecondPrevRel( other );
+            }
+        }
+    }
+
+    /*
+     * Puts the relationship at the end of the chain walked so far, and returns the relationship that was there.
+     */
+    private long swapChainEnd( long node, RelationshipRecord record, int direction, int worker, boolean count )
+    {
+        long previous;
+        if ( isDense( node ) )
+        {
+            Map<Long, DenseNode> owned = denseNodes.get( worker );
+            DenseNode dense = owned.get( node );
+            if ( dense == null )
+            {
+                dense = new DenseNode();
+                owned.put( node, dense );
+            }
+            Chain chain = dense.chain( record.getType(), direction );
+            previous = chain.end;
+            chain.end = record.getId();
+            if ( count )
+            {
+                chain.count++;
+            }
+        }
+        else
+        {
+            int index = (int) node;
+            previous = chainEnds[index];
+            chainEnds[index] = record.getId();
+        }
+        return previous;
+    }
+
+    private int writeNodes()
+    {
+        NodeStore nodeStore = neoStore.getNodeStore();
+        int denseCount = 0;
+        for ( int id = 0; id < degrees.length; id++ )
+        {
+            if ( degrees[id] == 0 )
+            {
+                continue;
+            }
+
+            NodeRecord node = nodeStore.getRecord( id );
+            if ( isDense( id ) )
+            {
+                node.setDense( true );
+                node.setNextRel( writeGroups( id, denseNodes.get( owner( id ) ).get( (long) id ) ) );
+                denseCount++;
+            }
+            else
+            {
+                node.setNextRel( chainEnds[id] );
+            }
+            nodeStore.updateRecord( node );
+        }
+        return denseCount;
+    }
+
+    private long writeGroups( long nodeId, DenseNode node )
+    {
+        RelationshipGroupStore store = neoStore.getRelationshipGroupStore();
+        List<RelationshipGroupRecord> groups = new ArrayList<>( node.types.size() );
+        for ( Map.Entry<Integer, Chain[]> type : node.types.entrySet() )
+        {
+            Chain[] chains = type.getValue();
+            RelationshipGroupRecord group = new RelationshipGroupRecord( store.nextId(), type.getKey() );
+            group.setInUse( true );
+            group.setCreated();
+            group.setOwningNode( nodeId );
+            group.setFirstOut( chains[OUT].end );
+            group.setFirstIn( chains[IN].end );
+            group.setFirstLoop( chains[LOOP].end );
+            group.setOutCount( chains[OUT].count );
+            group.setInCount( chains[IN].count );
+            group.setLoopCount( chains[LOOP].count );
+            if ( !groups.isEmpty() )
+            {
+                groups.get( groups.size() - 1 ).setNext( group.getId() );
+            }
+            groups.add( group );
+        }
+        for ( RelationshipGroupRecord group : groups )
+        {
+            store.updateRecord( group );
+        }
+        return groups.get( 0 ).getId();
+    }
+
+    private boolean isDense( long node )
+    {
+        return degrees[(int) node] > denseNodeThreshold;
+    }
+
+    private int owner( long node )
+    {
+        return (int) (node % workerCount);
+    }
+
+    private static class Chain
+    {
+        long end = NONE;
+        int count;
+    }
+
+    private static class DenseNode
+    {
+        // Groups of a node are kept in order of type
+        final TreeMap<Integer, Chain[]> types = new TreeMap<>();
+
+        Chain chain( int type, int direction )
+        {
+            Chain[] chains = types.get( type );
+            if ( chains == null )
+            {
+                chains = new Chain[] {new Chain(), new Chain(), new Chain()};
+                types.put( type, chains );
+            }
+            return chains[direction];
+        }
+
+        void resetChainEnds()
+        {
+            for ( Chain[] chains : types.values() )
+            {
+                for ( Chain chain : chains )
+                {
+                    chain.end = NONE;
+                }
+            }
+        }
+    }
+}
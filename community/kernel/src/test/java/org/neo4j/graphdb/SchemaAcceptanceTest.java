@@ -32,6 +32,7 @@ import org.neo4j.graphdb.schema.Schema;
 import org.neo4j.test.ImpermanentDatabaseRule;
 
 import static java.lang.String.format;
+import static java.util.Arrays.asList;
 
 import static org.hamcrest.CoreMatchers.containsString;
 import static org.hamcrest.MatcherAssert.assertThat;
@@ -48,7 +49,9 @@ import static org.neo4j.graphdb.Neo4jMatchers.getConstraints;
 import static org.neo4j.graphdb.Neo4jMatchers.getIndexes;
 import static org.neo4j.graphdb.Neo4jMatchers.isEmpty;
 import static org.neo4j.graphdb.Neo4jMatchers.waitForIndex;
+import static org.neo4j.helpers.collection.IteratorUtil.asCollection;
 import static org.neo4j.helpers.collection.IteratorUtil.asSet;
+import static org.neo4j.helpers.collection.IteratorUtil.single;
 
 public class SchemaAcceptanceTest
 {
@@ -167,28 +170,58 @@ public class SchemaAcceptanceTest
     }
 
     @Test
-    public void shouldThrowConstraintViolationIfAskedToCreateCompoundIdex() throws Exception
+    public void addingACompoundIndexingRuleShouldSucceed() throws Exception
     {
         // WHEN
+        IndexDefinition index;
         Transaction tx = db.beginTx();
         try
         {
-            Schema schema = db.schema();
-            schema.indexFor( label )
-                    .on( "my_property_key" )
-                    .on( "other_property" ).create();
+            index = db.schema().indexFor( label ).on( propertyKey ).on( "other_property" ).create();
             tx.success();
-            fail( "Should not be able to create index on multiple propertyKey keys" );
         }
-        catch ( UnsupportedOperationException e )
+        finally
         {
-            assertThat( e.getMessage(), containsString( "Compound indexes" ) );
+            tx.finish();
+        }
+        waitForIndex( db, index );
+
+        // THEN
+        assertThat( getIndexes( db, label ), containsOnly( index ) );
+        tx = db.beginTx();
+        try
+        {
+            assertEquals( asList( propertyKey, "other_property" ),
+                    asCollection( single( db.schema().getIndexes( label ) ).getPropertyKeys() ) );
         }
         finally
         {
             tx.finish();
         }
     }
+
+    @Test
+    public void droppingACompoundIndexingRuleShouldSucceed() throws Exception
+    {
+        // GIVEN
+        IndexDefinition index;
+        Transaction tx = db.beginTx();
+        try
+        {
+            index = db.schema().indexFor( label ).on( propertyKey ).on( "other_property" ).create();
+            tx.success();
+        }
+        finally
+        {
+            tx.finish();
+        }
+
+        // WHEN
+        dropIndex( index );
+
+        // THEN
+        assertThat( getIndexes( db, label ), isEmpty() );
+    }
     
     @Test
     public void droppingExistingIndexRuleShouldSucceed() throws Exception
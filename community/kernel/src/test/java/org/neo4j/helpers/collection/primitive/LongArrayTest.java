@@ -0,0 +1,109 @@
+/**
+ * Copyright (c) 2002-2013 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.helpers.collection.primitive;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+public class LongArrayTest
+{
+    @Test
+    public void shouldKeepValuesWhenGrowingOnHeap() throws Exception
+    {
+        assertKeepsValuesWhenGrowing( LongArray.heap( 10, -1 ) );
+    }
+
+    @Test
+    public void shouldKeepValuesWhenGrowingOffHeap() throws Exception
+    {
+        assertKeepsValuesWhenGrowing( LongArray.offHeap( 10, -1 ) );
+    }
+
+    @Test
+    public void shouldKeepValuesWhenGrowingOffHeapPastSeveralChunks() throws Exception
+    {
+        // given
+        long length = (1 << 20) + 10;
+        LongArray array = LongArray.offHeap( length, -1 );
+        for ( long index = 0; index < length; index++ )
+        {
+            array.set( index, index );
+        }
+
+        // when
+        LongArray grown = array.grow( 3L << 20, -1 );
+
+        // then
+        for ( long index = 0; index < length; index++ )
+        {
+            assertEquals( index, grown.get( index ) );
+        }
+        assertEquals( -1, grown.get( length ) );
+        assertEquals( -1, grown.get( (3L << 20) - 1 ) );
+        grown.close();
+    }
+
+    @Test
+    public void shouldNotBeUsableAfterClosing() throws Exception
+    {
+        // given
+        LongArray array = LongArray.offHeap( 10, 0 );
+        array.set( 5, 42 );
+
+        // when
+        array.close();
+
+        // then
+        try
+        {
+            array.get( 5 );
+            fail( "Should not be able to read from a closed array" );
+        }
+        catch ( NullPointerException e )
+        {   // Good
+        }
+    }
+
+    private void assertKeepsValuesWhenGrowing( LongArray array )
+    {
+        // given
+        for ( long index = 0; index < array.length(); index++ )
+        {
+            array.set( index, index * 2 );
+        }
+
+        // when
+        LongArray grown = array.grow( 25, -1 );
+
+        // then
+        assertEquals( 25, grown.length() );
+        for ( long index = 0; index < 10; index++ )
+        {
+            assertEquals( index * 2, grown.get( index ) );
+        }
+        for ( long index = 10; index < 25; index++ )
+        {
+            assertEquals( -1, grown.get( index ) );
+        }
+        grown.close();
+    }
+}
@@ -0,0 +1,176 @@
+/**
+ * Copyright (c) 2002-2013 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.helpers.collection.primitive;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Test;
+
+import org.neo4j.kernel.impl.api.PrimitiveLongIterator;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class PrimitiveCollectionsTest
+{
+    @Test
+    public void setShouldBehaveLikeHashSet() throws Exception
+    {
+        assertSetBehavesLikeHashSet( Primitive.longSet() );
+    }
+
+    @Test
+    public void offHeapSetShouldBehaveLikeHashSet() throws Exception
+    {
+        assertSetBehavesLikeHashSet( Primitive.offHeapLongSet( 10 ) );
+    }
+
+    @Test
+    public void setShouldContainTheValueUsedForFreeSlots() throws Exception
+    {
+        // given
+        PrimitiveLongSet set = Primitive.longSet();
+
+        // when
+        boolean added = set.add( -1 );
+
+        // then
+        assertTrue( added );
+        assertTrue( set.contains( -1 ) );
+        assertEquals( 1, set.size() );
+        PrimitiveLongIterator iterator = set.iterator();
+        assertEquals( -1, iterator.next() );
+        assertFalse( iterator.hasNext() );
+        assertTrue( set.remove( -1 ) );
+        assertTrue( set.isEmpty() );
+    }
+
+    @Test
+    public void doubleMapShouldAddToValues() throws Exception
+    {
+        // given
+        PrimitiveLongDoubleMap map = Primitive.longDoubleMap();
+        map.put( 3, 1.5, 0 );
+
+        // when
+        map.add( 3, 2 );
+        map.add( 4, 2 );
+
+        // then
+        assertEquals( 3.5, map.get( 3, 0 ), 0 );
+        assertEquals( 2, map.get( 4, 0 ), 0 );
+        assertEquals( -1, map.get( 5, -1 ), 0 );
+        assertEquals( 2, map.size() );
+    }
+
+    @Test
+    public void offHeapDoubleMapShouldKeepValuesWhenGrowing() throws Exception
+    {
+        // given
+        PrimitiveLongDoubleMap map = Primitive.offHeapLongDoubleMap( 1 );
+
+        // when
+        for ( long key = 0; key < 10_000; key++ )
+        {
+            map.put( key * 7, key / 2d, 0 );
+        }
+
+        // then
+        assertEquals( 10_000, map.size() );
+        for ( long key = 0; key < 10_000; key++ )
+        {
+            assertEquals( key / 2d, map.get( key * 7, -1 ), 0 );
+        }
+        assertFalse( map.containsKey( 1 ) );
+    }
+
+    @Test
+    public void objectMapShouldBehaveLikeHashMap() throws Exception
+    {
+        // given
+        PrimitiveLongObjectMap<String> map = Primitive.longObjectMap();
+        Map<Long, String> expected = new HashMap<>();
+        Random random = new Random( 42 );
+
+        // when
+        for ( int i = 0; i < 100_000; i++ )
+        {
+            long key = random.nextInt( 5_000 ) - 10;
+            if ( random.nextInt( 3 ) == 0 )
+            {
+                assertEquals( expected.remove( key ), map.remove( key ) );
+            }
+            else
+            {
+                assertEquals( expected.put( key, "v" + i ), map.put( key, "v" + i ) );
+            }
+        }
+
+        // then
+        assertEquals( expected.size(), map.size() );
+        for ( long key = -10; key < 5_000; key++ )
+        {
+            assertEquals( expected.get( key ), map.get( key ) );
+        }
+        map.clear();
+        assertTrue( map.isEmpty() );
+        assertNull( map.get( -1 ) );
+    }
+
+    private void assertSetBehavesLikeHashSet( PrimitiveLongSet set )
+    {
+        // given
+        Set<Long> expected = new HashSet<>();
+        Random random = new Random( 1234 );
+
+        // when
+        for ( int i = 0; i < 100_000; i++ )
+        {
+            long value = random.nextInt( 10_000 ) - 10;
+            if ( random.nextInt( 3 ) == 0 )
+            {
+                assertEquals( expected.remove( value ), set.remove( value ) );
+            }
+            else
+            {
+                assertEquals( expected.add( value ), set.add( value ) );
+            }
+        }
+
+        // then
+        assertEquals( expected.size(), set.size() );
+        for ( long value = -10; value < 10_000; value++ )
+        {
+            assertEquals( expected.contains( value ), set.contains( value ) );
+        }
+        Set<Long> iterated = new HashSet<>();
+        for ( PrimitiveLongIterator iterator = set.iterator(); iterator.hasNext(); )
+        {
+            assertTrue( iterated.add( iterator.next() ) );
+        }
+        assertEquals( expected, iterated );
+    }
+}
@@ -0,0 +1,64 @@
+/**
+ * Copyright (c) 2002-2013 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.api.index;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+public class CompositeIndexValueTest
+{
+    @Test
+    public void shouldConsiderNumbersOfDifferentTypesWithSameValueEqual() throws Exception
+    {
+        // given
+        CompositeIndexValue intValue = new CompositeIndexValue( "a", 1 );
+        CompositeIndexValue longValue = new CompositeIndexValue( "a", 1L );
+        CompositeIndexValue doubleValue = new CompositeIndexValue( "a", 1.0d );
+
+        // then
+        assertEquals( intValue, longValue );
+        assertEquals( intValue.hashCode(), longValue.hashCode() );
+        assertEquals( intValue, doubleValue );
+        assertEquals( intValue.hashCode(), doubleValue.hashCode() );
+    }
+
+    @Test
+    public void shouldConsiderArraysOfDifferentNumberTypesWithSameValuesEqual() throws Exception
+    {
+        // given
+        CompositeIndexValue intArray = new CompositeIndexValue( new int[]{1, 2}, true );
+        CompositeIndexValue longArray = new CompositeIndexValue( new long[]{1, 2}, true );
+
+        // then
+        assertEquals( intArray, longArray );
+        assertEquals( intArray.hashCode(), longArray.hashCode() );
+    }
+
+    @Test
+    public void shouldNotConsiderDifferentValuesEqual() throws Exception
+    {
+        assertFalse( new CompositeIndexValue( "a", 1 ).equals( new CompositeIndexValue( "a", 2L ) ) );
+        assertFalse( new CompositeIndexValue( "1", 1 ).equals( new CompositeIndexValue( 1, 1 ) ) );
+        assertFalse( new CompositeIndexValue( "a", "b" ).equals( new CompositeIndexValue( "b", "a" ) ) );
+        assertFalse( new CompositeIndexValue( new int[]{1}, 2 ).equals( new CompositeIndexValue( 1, 2 ) ) );
+    }
+}
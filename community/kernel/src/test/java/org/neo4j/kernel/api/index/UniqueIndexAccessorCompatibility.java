@@ -38,6 +38,7 @@ import static org.junit.Assert.fail;
 
 import static org.neo4j.helpers.collection.IteratorUtil.asSet;
 import static org.neo4j.helpers.collection.IteratorUtil.emptyListOf;
+import static org.neo4j.helpers.collection.IteratorUtil.primitivesList;
 
 @Ignore( "Not a test. This is a compatibility suite that provides test cases for verifying" +
         " SchemaIndexProvider implementations. Each index provider that is to be tested by this suite" +
@@ -190,6 +191,29 @@ public class UniqueIndexAccessorCompatibility extends IndexProviderCompatibility
         }
     }
 
+    @Test
+    public void shouldSeekRangesAndPrefixesInValueOrder() throws Exception
+    {
+        // given
+        updateAndCommit( asList( add( 1l, "value2" ), add( 2l, "value10" ), add( 3l, "other" ),
+                add( 4l, 42 ), add( 5l, -1.5d ), add( 6l, 7l ) ) );
+
+        // then
+        IndexReader reader = accessor.newReader();
+        try
+        {
+            assertEquals( asList( 5l, 6l ), primitivesList( reader.rangeSeekByNumber( -1.5d, true, 42, false ) ) );
+            assertEquals( asList( 6l, 4l ), primitivesList( reader.rangeSeekByNumber( 0, false, null, false ) ) );
+            assertEquals( asList( 2l, 1l ), primitivesList( reader.rangeSeekByString( "p", false, null, true ) ) );
+            assertEquals( asList( 3l, 2l ), primitivesList( reader.rangeSeekByString( null, true, "value10", true ) ) );
+            assertEquals( asList( 2l, 1l ), primitivesList( reader.rangeSeekByPrefix( "val" ) ) );
+        }
+        finally
+        {
+            reader.close();
+        }
+    }
+
     @Before
     public void before() throws IOException
     {
@@ -49,6 +49,8 @@ import org.neo4j.kernel.api.index.NodePropertyUpdate;
 import org.neo4j.kernel.impl.api.KernelSchemaStateStore;
 import org.neo4j.kernel.impl.coreapi.ThreadToStatementContextBridge;
 import org.neo4j.kernel.impl.nioneo.xa.NeoStoreIndexStoreView;
+import org.neo4j.kernel.impl.util.JobScheduler;
+import org.neo4j.kernel.impl.util.Neo4jJobScheduler;
 import org.neo4j.kernel.impl.util.StringLogger;
 import org.neo4j.kernel.impl.util.TestLogger;
 import org.neo4j.kernel.logging.SingleLoggingService;
@@ -67,6 +69,8 @@ import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyLong;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
@@ -142,6 +146,101 @@ public class IndexPopulationJobTest
         verifyNoMoreInteractions( populator );
     }
 
+    @Test
+    public void shouldPopulateSeveralIndexesInOneStoreScan() throws Exception
+    {
+        // GIVEN
+        long node1 = createNode( map( name, "Mattias", age, 31 ), FIRST );
+        long node2 = createNode( map( name, "Jacob" ), SECOND );
+        long node3 = createNode( map( age, 35 ), FIRST );
+        IndexPopulator agePopulator = mock( IndexPopulator.class );
+        IndexPopulator secondPopulator = mock( IndexPopulator.class );
+        IndexStoreView storeView = spy( newStoreView() );
+        IndexPopulationJob job = newIndexPopulationJob( storeView, null, 1 );
+        job.add( newIndexPopulation( FIRST, name, populator, new FlippableIndexProxy() ) );
+        job.add( newIndexPopulation( FIRST, age, agePopulator, new FlippableIndexProxy() ) );
+        job.add( newIndexPopulation( SECOND, name, secondPopulator, new FlippableIndexProxy() ) );
+
+        // WHEN
+        job.run();
+
+        // THEN
+        verify( populator ).add( node1, "Mattias" );
+        verify( populator ).close( true );
+        verify( agePopulator ).add( node1, 31 );
+        verify( agePopulator ).add( node3, 35 );
+        verify( agePopulator ).close( true );
+        verify( secondPopulator ).add( node2, "Jacob" );
+        verify( secondPopulator ).close( true );
+        verify( storeView, times( 1 ) ).visitNodesInRange( any( int[].class ), any( int[].class ), anyLong(),
+                anyLong(), Matchers.<Visitor<NodePropertyUpdate, RuntimeException>>any() );
+        verify( storeView, never() ).visitNodesWithPropertyAndLabel( any( IndexDescriptor.class ),
+                Matchers.<Visitor<NodePropertyUpdate, RuntimeException>>any() );
+    }
+
+    @Test
+    public void shouldPopulateIndexesUsingSeveralWorkers() throws Exception
+    {
+        // GIVEN enough nodes for the store scan to be split up into several chunks
+        int nodeCount = (int) IndexPopulationJob.CHUNK_SIZE * 2 + 10;
+        Map<Long, Object> expectedNames = new HashMap<>(), expectedAges = new HashMap<>();
+        try ( Transaction tx = db.beginTx() )
+        {
+            for ( int i = 0; i < nodeCount; i++ )
+            {
+                Node node = db.createNode( FIRST );
+                node.setProperty( name, "name" + i );
+                node.setProperty( age, i );
+                expectedNames.put( node.getId(), "name" + i );
+                expectedAges.put( node.getId(), i );
+            }
+            tx.success();
+        }
+        CollectingPopulator namePopulator = new CollectingPopulator(), agePopulator = new CollectingPopulator();
+        Neo4jJobScheduler scheduler = new Neo4jJobScheduler( StringLogger.DEV_NULL );
+        scheduler.start();
+        IndexPopulationJob job = newIndexPopulationJob( newStoreView(), scheduler, 3 );
+        job.add( newIndexPopulation( FIRST, name, namePopulator, new FlippableIndexProxy() ) );
+        job.add( newIndexPopulation( FIRST, age, agePopulator, new FlippableIndexProxy() ) );
+
+        // WHEN
+        try
+        {
+            job.run();
+        }
+        finally
+        {
+            scheduler.stop();
+        }
+
+        // THEN
+        assertEquals( expectedNames, namePopulator.added );
+        assertEquals( expectedAges, agePopulator.added );
+    }
+
+    @Test
+    public void shouldCancelOneIndexWithoutAffectingTheOthersOfTheSameJob() throws Exception
+    {
+        // GIVEN
+        createNode( map( name, "Mattias" ), FIRST );
+        IndexPopulator otherPopulator = mock( IndexPopulator.class );
+        IndexPopulationJob job = newIndexPopulationJob( newStoreView(), null, 1 );
+        IndexPopulationJob.IndexPopulation cancelled =
+                newIndexPopulation( FIRST, name, populator, new FlippableIndexProxy() );
+        job.add( cancelled );
+        job.add( newIndexPopulation( SECOND, name, otherPopulator, new FlippableIndexProxy() ) );
+
+        // WHEN
+        Future<Void> cancellation = cancelled.cancel();
+        job.run();
+        cancellation.get();
+
+        // THEN
+        verify( populator ).close( false );
+        verify( populator, never() ).close( true );
+        verify( otherPopulator ).close( true );
+    }
+
     @Test
     public void shouldIndexUpdatesWhenDoingThePopulation() throws Exception
     {
@@ -490,6 +589,17 @@ public class IndexPopulationJobTest
         }
     }
 
+    private static class CollectingPopulator extends IndexPopulator.Adapter
+    {
+        private final Map<Long, Object> added = new HashMap<>();
+
+        @Override
+        public void add( long nodeId, Object propertyValue )
+        {
+            added.put( nodeId, propertyValue );
+        }
+    }
+
     private ImpermanentGraphDatabase db;
 
     private final Label FIRST = DynamicLabel.label( "FIRST" );
@@ -549,14 +659,7 @@ public class IndexPopulationJobTest
                                                       FlippableIndexProxy flipper, IndexStoreView storeView,
                                                       StringLogger logger )
     {
-        IndexDescriptor descriptor;
-        try ( Transaction tx = db.beginTx() )
-        {
-            ReadOperations statement = ctxProvider.instance().readOperations();
-            descriptor = new IndexDescriptor( statement.labelGetForName( label.name() ),
-                    statement.propertyKeyGetForName( propertyKey ) );
-            tx.success();
-        }
+        IndexDescriptor descriptor = indexDescriptor( label, propertyKey );
 
         flipper.setFlipTarget( mock( IndexProxyFactory.class ) );
         return new IndexPopulationJob(
@@ -567,6 +670,34 @@ public class IndexPopulationJobTest
                 stateHolder, new SingleLoggingService( logger ) );
     }
 
+    private IndexPopulationJob newIndexPopulationJob( IndexStoreView storeView, JobScheduler scheduler, int workers )
+    {
+        return new IndexPopulationJob( storeView, stateHolder, new SingleLoggingService( StringLogger.DEV_NULL ),
+                scheduler, workers );
+    }
+
+    private IndexPopulationJob.IndexPopulation newIndexPopulation( Label label, String propertyKey,
+                                                                   IndexPopulator populator,
+                                                                   FlippableIndexProxy flipper )
+    {
+        flipper.setFlipTarget( mock( IndexProxyFactory.class ) );
+        return new IndexPopulationJob.IndexPopulation( indexDescriptor( label, propertyKey ), PROVIDER_DESCRIPTOR,
+                format( ":%s(%s)", label.name(), propertyKey ), mock( FailedIndexProxyFactory.class ),
+                populator, flipper );
+    }
+
+    private IndexDescriptor indexDescriptor( Label label, String propertyKey )
+    {
+        try ( Transaction tx = db.beginTx() )
+        {
+            ReadOperations statement = ctxProvider.instance().readOperations();
+            IndexDescriptor descriptor = new IndexDescriptor( statement.labelGetForName( label.name() ),
+                    statement.propertyKeyGetForName( propertyKey ) );
+            tx.success();
+            return descriptor;
+        }
+    }
+
     private long createNode( Map<String, Object> properties, Label... labels )
     {
         try ( Transaction tx = db.beginTx() )
@@ -19,13 +19,17 @@
  */
 package org.neo4j.kernel.impl.api.index.inmemory;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.TreeMap;
 
+import org.neo4j.helpers.Predicate;
 import org.neo4j.kernel.impl.api.PrimitiveLongIterator;
 
 import static org.neo4j.helpers.collection.IteratorUtil.emptyPrimitiveLongIterator;
@@ -54,6 +58,25 @@ class HashBasedIndex extends InMemoryIndexImplementation
         return nodes == null ? emptyPrimitiveLongIterator() : toPrimitiveLongIterator( nodes.iterator() );
     }
 
+    @Override
+    PrimitiveLongIterator doRangeSeek( Predicate<Object> valueMatcher )
+    {
+        Map<Object, Set<Long>> matches = new TreeMap<>( VALUE_ORDER );
+        for ( Map.Entry<Object, Set<Long>> entry : data.entrySet() )
+        {
+            if ( valueMatcher.accept( entry.getKey() ) )
+            {
+                matches.put( entry.getKey(), entry.getValue() );
+            }
+        }
+        List<Long> nodes = new ArrayList<>();
+        for ( Set<Long> someNodes : matches.values() )
+        {
+            nodes.addAll( someNodes );
+        }
+        return toPrimitiveLongIterator( nodes.iterator() );
+    }
+
     @Override
     void doAdd( Object propertyValue, long nodeId, boolean applyIdempotently )
     {
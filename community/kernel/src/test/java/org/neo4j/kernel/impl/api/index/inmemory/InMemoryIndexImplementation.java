@@ -19,11 +19,18 @@
  */
 package org.neo4j.kernel.impl.api.index.inmemory;
 
+import java.util.Comparator;
+
+import org.neo4j.helpers.Predicate;
 import org.neo4j.kernel.api.direct.BoundedIterable;
 import org.neo4j.kernel.api.index.ArrayEncoder;
 import org.neo4j.kernel.api.index.IndexReader;
 import org.neo4j.kernel.impl.api.PrimitiveLongIterator;
 
+import static org.neo4j.kernel.impl.api.index.IndexValuePredicates.numberRange;
+import static org.neo4j.kernel.impl.api.index.IndexValuePredicates.stringPrefix;
+import static org.neo4j.kernel.impl.api.index.IndexValuePredicates.stringRange;
+
 abstract class InMemoryIndexImplementation implements IndexReader, BoundedIterable<Long>
 {
     abstract void clear();
@@ -34,6 +41,26 @@ abstract class InMemoryIndexImplementation implements IndexReader, BoundedIterab
         return doLookup( encode( value ) );
     }
 
+    @Override
+    public final PrimitiveLongIterator rangeSeekByNumber( Number lower, boolean includeLower,
+                                                          Number upper, boolean includeUpper )
+    {
+        return doRangeSeek( numberRange( lower, includeLower, upper, includeUpper ) );
+    }
+
+    @Override
+    public final PrimitiveLongIterator rangeSeekByString( String lower, boolean includeLower,
+                                                          String upper, boolean includeUpper )
+    {
+        return doRangeSeek( stringRange( lower, includeLower, upper, includeUpper ) );
+    }
+
+    @Override
+    public final PrimitiveLongIterator rangeSeekByPrefix( String prefix )
+    {
+        return doRangeSeek( stringPrefix( prefix ) );
+    }
+
     final void add( long nodeId, Object propertyValue, boolean applyIdempotently )
     {
         doAdd( encode( propertyValue ), nodeId, applyIdempotently );
@@ -46,6 +73,11 @@ abstract class InMemoryIndexImplementation implements IndexReader, BoundedIterab
 
     abstract PrimitiveLongIterator doLookup( Object propertyValue );
 
+    /**
+     * @return the nodes with a value accepted by the matcher, in {@link #VALUE_ORDER}.
+     */
+    abstract PrimitiveLongIterator doRangeSeek( Predicate<Object> valueMatcher );
+
     abstract void doAdd( Object propertyValue, long nodeId, boolean applyIdempotently );
 
     abstract void doRemove( Object propertyValue, long nodeId );
@@ -57,6 +89,22 @@ abstract class InMemoryIndexImplementation implements IndexReader, BoundedIterab
     {
     }
 
+    /**
+     * Orders encoded values the way the range seeks return them. Only numbers and strings are ever compared.
+     */
+    static final Comparator<Object> VALUE_ORDER = new Comparator<Object>()
+    {
+        @Override
+        public int compare( Object left, Object right )
+        {
+            if ( left instanceof Number && right instanceof Number )
+            {
+                return Double.compare( ((Number) left).doubleValue(), ((Number) right).doubleValue() );
+            }
+            return left.toString().compareTo( right.toString() );
+        }
+    };
+
     private static Object encode( Object propertyValue )
     {
         if ( propertyValue instanceof Number )
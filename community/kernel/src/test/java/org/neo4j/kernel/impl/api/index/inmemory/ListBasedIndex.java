@@ -20,9 +20,12 @@
 package org.neo4j.kernel.impl.api.index.inmemory;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.Iterator;
 import java.util.List;
 
+import org.neo4j.helpers.Predicate;
 import org.neo4j.helpers.collection.IteratorUtil;
 import org.neo4j.helpers.collection.PrefetchingIterator;
 import org.neo4j.kernel.impl.api.PrimitiveLongIterator;
@@ -43,6 +46,33 @@ class ListBasedIndex extends InMemoryIndexImplementation
         return IteratorUtil.toPrimitiveLongIterator( find( data.iterator(), propertyValue ) );
     }
 
+    @Override
+    PrimitiveLongIterator doRangeSeek( Predicate<Object> valueMatcher )
+    {
+        List<Entry> matches = new ArrayList<>();
+        for ( Entry entry : data )
+        {
+            if ( valueMatcher.accept( entry.propertyValue ) )
+            {
+                matches.add( entry );
+            }
+        }
+        Collections.sort( matches, new Comparator<Entry>()
+        {
+            @Override
+            public int compare( Entry left, Entry right )
+            {
+                return VALUE_ORDER.compare( left.propertyValue, right.propertyValue );
+            }
+        } );
+        List<Long> nodes = new ArrayList<>( matches.size() );
+        for ( Entry entry : matches )
+        {
+            nodes.add( entry.nodeId );
+        }
+        return IteratorUtil.toPrimitiveLongIterator( nodes.iterator() );
+    }
+
     @Override
     void doAdd( Object propertyValue, long nodeId, boolean applyIdempotently )
     {
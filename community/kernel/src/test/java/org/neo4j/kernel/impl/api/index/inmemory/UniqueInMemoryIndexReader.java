@@ -21,12 +21,18 @@ package org.neo4j.kernel.impl.api.index.inmemory;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.TreeMap;
 
+import org.neo4j.helpers.Predicate;
 import org.neo4j.kernel.api.index.IndexReader;
 import org.neo4j.kernel.impl.api.PrimitiveLongIterator;
 
 import static org.neo4j.helpers.collection.IteratorUtil.emptyPrimitiveLongIterator;
 import static org.neo4j.helpers.collection.IteratorUtil.singletonPrimitiveLongIterator;
+import static org.neo4j.helpers.collection.IteratorUtil.toPrimitiveLongIterator;
+import static org.neo4j.kernel.impl.api.index.IndexValuePredicates.numberRange;
+import static org.neo4j.kernel.impl.api.index.IndexValuePredicates.stringPrefix;
+import static org.neo4j.kernel.impl.api.index.IndexValuePredicates.stringRange;
 
 class UniqueInMemoryIndexReader implements IndexReader
 {
@@ -44,6 +50,39 @@ class UniqueInMemoryIndexReader implements IndexReader
         return result != null ? singletonPrimitiveLongIterator( result ) : emptyPrimitiveLongIterator();
     }
 
+    @Override
+    public PrimitiveLongIterator rangeSeekByNumber( Number lower, boolean includeLower,
+                                                    Number upper, boolean includeUpper )
+    {
+        return rangeSeek( numberRange( lower, includeLower, upper, includeUpper ) );
+    }
+
+    @Override
+    public PrimitiveLongIterator rangeSeekByString( String lower, boolean includeLower,
+                                                    String upper, boolean includeUpper )
+    {
+        return rangeSeek( stringRange( lower, includeLower, upper, includeUpper ) );
+    }
+
+    @Override
+    public PrimitiveLongIterator rangeSeekByPrefix( String prefix )
+    {
+        return rangeSeek( stringPrefix( prefix ) );
+    }
+
+    private PrimitiveLongIterator rangeSeek( Predicate<Object> valueMatcher )
+    {
+        Map<Object, Long> matches = new TreeMap<>( InMemoryIndexImplementation.VALUE_ORDER );
+        for ( Map.Entry<Object, Long> entry : indexData.entrySet() )
+        {
+            if ( valueMatcher.accept( entry.getKey() ) )
+            {
+                matches.put( entry.getKey(), entry.getValue() );
+            }
+        }
+        return toPrimitiveLongIterator( matches.values().iterator() );
+    }
+
     @Override
     public void close()
     {
@@ -0,0 +1,190 @@
+/**
+ * Copyright (c) 2002-2013 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.api.integrationtest;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import org.neo4j.graphdb.ConstraintViolationException;
+import org.neo4j.graphdb.Node;
+import org.neo4j.graphdb.Transaction;
+import org.neo4j.kernel.api.ReadOperations;
+import org.neo4j.kernel.api.SchemaWriteOperations;
+import org.neo4j.kernel.api.index.CompositeIndexValue;
+import org.neo4j.kernel.impl.api.index.IndexDescriptor;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+import static org.neo4j.graphdb.DynamicLabel.label;
+import static org.neo4j.helpers.collection.IteratorUtil.asSet;
+import static org.neo4j.helpers.collection.IteratorUtil.emptySetOf;
+
+public class CompositeIndexIT extends KernelIntegrationTest
+{
+    @Test
+    public void shouldPopulateCompositeIndexFromExistingNodes() throws Exception
+    {
+        // GIVEN
+        Node node = createPerson( "acme", "alice@acme.com" );
+        createPerson( "acme", "bob@acme.com" );
+        createPerson( "initech", "alice@acme.com" );
+
+        // WHEN
+        createCompositeIndex();
+
+        // THEN
+        assertEquals( asSet( node.getId() ), lookup( "acme", "alice@acme.com" ) );
+    }
+
+    @Test
+    public void shouldMaintainCompositeIndexOnPropertyAndLabelChanges() throws Exception
+    {
+        // GIVEN
+        createCompositeIndex();
+        Node node = createPerson( "acme", "alice@acme.com" );
+        Node other = createPerson( "acme", "bob@acme.com" );
+
+        // WHEN
+        try ( Transaction tx = db.beginTx() )
+        {
+            node.setProperty( "email", "carol@acme.com" );
+            other.removeLabel( label( "Person" ) );
+            tx.success();
+        }
+
+        // THEN
+        assertEquals( emptySetOf( Long.class ), lookup( "acme", "alice@acme.com" ) );
+        assertEquals( asSet( node.getId() ), lookup( "acme", "carol@acme.com" ) );
+        assertEquals( emptySetOf( Long.class ), lookup( "acme", "bob@acme.com" ) );
+
+        // WHEN
+        try ( Transaction tx = db.beginTx() )
+        {
+            node.removeProperty( "tenant" );
+            other.addLabel( label( "Person" ) );
+            tx.success();
+        }
+
+        // THEN
+        assertEquals( emptySetOf( Long.class ), lookup( "acme", "carol@acme.com" ) );
+        assertEquals( asSet( other.getId() ), lookup( "acme", "bob@acme.com" ) );
+    }
+
+    @Test
+    public void shouldSeeTransactionStateInCompositeIndexLookups() throws Exception
+    {
+        // GIVEN
+        createCompositeIndex();
+        Node node = createPerson( "acme", "alice@acme.com" );
+
+        // WHEN
+        ReadOperations statement = readOperationsInNewTransaction();
+        node.setProperty( "tenant", "initech" );
+        Node added = db.createNode( label( "Person" ) );
+        added.setProperty( "tenant", "acme" );
+        added.setProperty( "email", "alice@acme.com" );
+
+        // THEN
+        assertEquals( asSet( added.getId() ), lookup( statement, "acme", "alice@acme.com" ) );
+        assertEquals( asSet( node.getId() ), lookup( statement, "initech", "alice@acme.com" ) );
+        rollback();
+    }
+
+    @Test
+    public void shouldEnforceCompositeUniquenessConstraint() throws Exception
+    {
+        // GIVEN
+        {
+            SchemaWriteOperations statement = schemaWriteOperationsInNewTransaction();
+            statement.uniquenessConstraintCreate( statement.labelGetOrCreateForName( "Person" ), new int[]{
+                    statement.propertyKeyGetOrCreateForName( "tenant" ),
+                    statement.propertyKeyGetOrCreateForName( "email" )} );
+            commit();
+        }
+        createPerson( "acme", "alice@acme.com" );
+        createPerson( "initech", "alice@acme.com" );
+
+        // WHEN
+        try ( Transaction tx = db.beginTx() )
+        {
+            Node node = db.createNode( label( "Person" ) );
+            node.setProperty( "tenant", "acme" );
+            node.setProperty( "email", "alice@acme.com" );
+
+            fail( "should have thrown exception" );
+        }
+        // THEN
+        catch ( ConstraintViolationException e )
+        {
+            assertThat( e.getMessage(), containsString( "(\"tenant\", \"email\")=[(acme, alice@acme.com)]" ) );
+        }
+    }
+
+    private void createCompositeIndex() throws Exception
+    {
+        SchemaWriteOperations statement = schemaWriteOperationsInNewTransaction();
+        statement.indexCreate( statement.labelGetOrCreateForName( "Person" ), new int[]{
+                statement.propertyKeyGetOrCreateForName( "tenant" ),
+                statement.propertyKeyGetOrCreateForName( "email" )} );
+        commit();
+
+        try ( Transaction tx = db.beginTx() )
+        {
+            db.schema().awaitIndexesOnline( 10, TimeUnit.SECONDS );
+        }
+    }
+
+    private Node createPerson( String tenant, String email )
+    {
+        try ( Transaction tx = db.beginTx() )
+        {
+            Node node = db.createNode( label( "Person" ) );
+            node.setProperty( "tenant", tenant );
+            node.setProperty( "email", email );
+            tx.success();
+            return node;
+        }
+    }
+
+    private Set<Long> lookup( String tenant, String email ) throws Exception
+    {
+        ReadOperations statement = readOperationsInNewTransaction();
+        try
+        {
+            return lookup( statement, tenant, email );
+        }
+        finally
+        {
+            commit();
+        }
+    }
+
+    private Set<Long> lookup( ReadOperations statement, String tenant, String email ) throws Exception
+    {
+        IndexDescriptor index = new IndexDescriptor( statement.labelGetForName( "Person" ), new int[]{
+                statement.propertyKeyGetForName( "tenant" ), statement.propertyKeyGetForName( "email" )} );
+        return asSet( statement.nodesGetFromIndexLookup( index, new CompositeIndexValue( tenant, email ) ) );
+    }
+}
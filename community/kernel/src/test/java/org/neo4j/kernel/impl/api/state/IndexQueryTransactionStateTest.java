@@ -20,6 +20,8 @@
 package org.neo4j.kernel.impl.api.state;
 
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -359,6 +361,59 @@ public class IndexQueryTransactionStateTest
         assertNoSuchNode( result );
     }
 
+    @Test
+    public void shouldApplyPropertyChangesToRangeSeek() throws Exception
+    {
+        // Given
+        int labelId = 2, propertyKeyId = 3;
+
+        IndexDescriptor indexDescriptor = new IndexDescriptor( labelId, propertyKeyId );
+        when( store.nodesGetFromIndexRangeSeekByNumber( state, indexDescriptor, 10, true, 20, false ) )
+                .then( answerAsPrimitiveLongIteratorFrom( asList( 2l, 3l, 4l ) ) );
+        when( store.nodeHasLabel( eq( state ), anyLong(), eq( labelId ) ) ).thenReturn( true );
+        Map<Long, Object> changedNodes = new HashMap<>();
+        changedNodes.put( 1l, 15 );
+        changedNodes.put( 3l, 20 );
+        changedNodes.put( 4l, 10.0 );
+        when( oldTxState.getNodesWithChangedProperty( propertyKeyId ) ).thenReturn( changedNodes );
+        when( oldTxState.hasChanges() ).thenReturn( true );
+
+        // When
+        PrimitiveLongIterator result = txContext.nodesGetFromIndexRangeSeekByNumber( state, indexDescriptor,
+                10, true, 20, false );
+
+        // Then
+        assertThat( asSet( result ), equalTo( asSet( 1l, 2l, 4l ) ) );
+    }
+
+    @Test
+    public void shouldApplyLabelChangesAndDeletionsToPrefixSeek() throws Exception
+    {
+        // Given
+        int labelId = 2, propertyKeyId = 3;
+
+        IndexDescriptor indexDescriptor = new IndexDescriptor( labelId, propertyKeyId );
+        when( store.nodesGetFromIndexRangeSeekByPrefix( state, indexDescriptor, "Ma" ) )
+                .then( answerAsPrimitiveLongIteratorFrom( asList( 2l, 3l, 4l ) ) );
+        when( store.nodeHasLabel( state, 1l, labelId ) ).thenReturn( false );
+        when( store.nodeHasLabel( state, 4l, labelId ) ).thenReturn( true );
+        DefinedProperty stringProperty = Property.stringProperty( propertyKeyId, "Mattias" );
+        when( store.nodeGetProperty( state, 1l, propertyKeyId ) ).thenReturn( stringProperty );
+        when( store.nodeGetAllProperties( eq( state ), anyLong() ) ).thenReturn( iterator( stringProperty ) );
+        when( oldTxState.getNodesWithChangedProperty( propertyKeyId ) )
+                .thenReturn( Collections.<Long, Object>emptyMap() );
+
+        txContext.nodeAddLabel( state, 1l, labelId );
+        txContext.nodeRemoveLabel( state, 4l, labelId );
+        txContext.nodeDelete( state, 3l );
+
+        // When
+        PrimitiveLongIterator result = txContext.nodesGetFromIndexRangeSeekByPrefix( state, indexDescriptor, "Ma" );
+
+        // Then
+        assertThat( asSet( result ), equalTo( asSet( 1l, 2l ) ) );
+    }
+
     // exists
 
     private StatementOperations store;
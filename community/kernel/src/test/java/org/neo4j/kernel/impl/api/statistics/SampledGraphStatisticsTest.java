@@ -0,0 +1,215 @@
+/**
+ * Copyright (c) 2002-2013 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.api.statistics;
+
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import org.neo4j.graphdb.DynamicRelationshipType;
+import org.neo4j.graphdb.Node;
+import org.neo4j.graphdb.Transaction;
+import org.neo4j.kernel.GraphDatabaseAPI;
+import org.neo4j.kernel.api.Statement;
+import org.neo4j.kernel.api.statistics.GraphStatistics;
+import org.neo4j.kernel.impl.coreapi.ThreadToStatementContextBridge;
+import org.neo4j.kernel.impl.util.JobScheduler;
+import org.neo4j.kernel.impl.util.StringLogger;
+import org.neo4j.test.TestGraphDatabaseFactory;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.neo4j.graphdb.DynamicLabel.label;
+
+public class SampledGraphStatisticsTest
+{
+    @Test
+    public void shouldCountNodesAndRelationshipsExactlyWhenStoreIsSmallerThanSample() throws Exception
+    {
+        // GIVEN
+        try ( Transaction tx = db.beginTx() )
+        {
+            for ( int i = 0; i < 30; i++ )
+            {
+                Node person = db.createNode( label( "Person" ) );
+                Node city = db.createNode( label( "City" ) );
+                person.createRelationshipTo( city, DynamicRelationshipType.withName( "LIVES_IN" ) );
+            }
+            db.createNode();
+            tx.success();
+        }
+
+        // WHEN
+        GraphStatistics statistics = sampledStatistics();
+
+        // THEN
+        assertEquals( 61, statistics.nodeCount(), 0 );
+        assertEquals( 30, statistics.nodesWithLabel( labelId( "Person" ) ), 0 );
+        assertEquals( 30, statistics.nodesWithLabel( labelId( "City" ) ), 0 );
+        assertEquals( 30, statistics.relationshipCount(), 0 );
+        assertEquals( 30, statistics.relationshipsWithType( relationshipTypeId( "LIVES_IN" ) ), 0 );
+    }
+
+    @Test
+    public void shouldEstimateSelectivityFromDistinctPropertyValues() throws Exception
+    {
+        // GIVEN
+        try ( Transaction tx = db.beginTx() )
+        {
+            for ( int i = 0; i < 100; i++ )
+            {
+                Node node = db.createNode( label( "Person" ) );
+                node.setProperty( "id", i );
+                node.setProperty( "gender", i % 2 == 0 ? "female" : "male" );
+            }
+            tx.success();
+        }
+
+        // WHEN
+        GraphStatistics statistics = sampledStatistics();
+
+        // THEN
+        int person = labelId( "Person" );
+        assertEquals( 100, statistics.distinctValues( person, propertyKeyId( "id" ) ), 0 );
+        assertEquals( 2, statistics.distinctValues( person, propertyKeyId( "gender" ) ), 0 );
+        assertEquals( 0.01, statistics.selectivity( person, propertyKeyId( "id" ) ), 0.0001 );
+        assertEquals( 0.5, statistics.selectivity( person, propertyKeyId( "gender" ) ), 0.0001 );
+    }
+
+    @Test
+    public void shouldHaveNoOpinionBeforeFirstSampling() throws Exception
+    {
+        // GIVEN
+        GraphStatistics statistics = new SampledGraphStatistics( null, null, 10, 1000, StringLogger.DEV_NULL );
+
+        // THEN
+        assertTrue( Double.isNaN( statistics.nodeCount() ) );
+        assertTrue( Double.isNaN( statistics.nodesWithLabel( 0 ) ) );
+        assertTrue( Double.isNaN( statistics.selectivity( 0, 0 ) ) );
+    }
+
+    @Test
+    public void shouldOnlySampleOnRequestWithoutScheduler() throws Exception
+    {
+        // GIVEN
+        SampledGraphStatistics statistics = new SampledGraphStatistics( null, null, 10, 1000, StringLogger.DEV_NULL );
+
+        // WHEN
+        statistics.start();
+        statistics.stop();
+
+        // THEN
+        assertTrue( Double.isNaN( statistics.nodeCount() ) );
+    }
+
+    @Test
+    public void shouldStopSamplingForGoodWhenStopped() throws Exception
+    {
+        // GIVEN
+        JobScheduler scheduler = mock( JobScheduler.class );
+        final AtomicInteger samplings = new AtomicInteger();
+        SampledGraphStatistics statistics = new SampledGraphStatistics( null, scheduler, 10, 1000, new Random(),
+                StringLogger.DEV_NULL )
+        {
+            @Override
+            public synchronized void sample()
+            {
+                samplings.incrementAndGet();
+            }
+        };
+
+        // WHEN
+        for ( int i = 0; i < 3; i++ )
+        {
+            statistics.start();
+            statistics.stop();
+        }
+
+        // THEN
+        ArgumentCaptor<Runnable> jobs = ArgumentCaptor.forClass( Runnable.class );
+        verify( scheduler, times( 3 ) ).scheduleRecurring( jobs.capture(), eq( 1000L ), eq( MILLISECONDS ) );
+        for ( Runnable job : jobs.getAllValues() )
+        {
+            job.run();
+        }
+        assertEquals( 0, samplings.get() );
+    }
+
+    private GraphDatabaseAPI db;
+
+    @Before
+    public void before()
+    {
+        db = (GraphDatabaseAPI) new TestGraphDatabaseFactory().newImpermanentDatabase();
+    }
+
+    @After
+    public void after()
+    {
+        db.shutdown();
+    }
+
+    private GraphStatistics sampledStatistics()
+    {
+        SampledGraphStatistics statistics =
+                db.getDependencyResolver().resolveDependency( SampledGraphStatistics.class );
+        statistics.sample();
+        return statistics;
+    }
+
+    private int labelId( String name )
+    {
+        try ( Transaction tx = db.beginTx(); Statement statement = statement() )
+        {
+            return statement.readOperations().labelGetForName( name );
+        }
+    }
+
+    private int propertyKeyId( String name )
+    {
+        try ( Transaction tx = db.beginTx(); Statement statement = statement() )
+        {
+            return statement.readOperations().propertyKeyGetForName( name );
+        }
+    }
+
+    private int relationshipTypeId( String name )
+    {
+        try ( Transaction tx = db.beginTx(); Statement statement = statement() )
+        {
+            return statement.readOperations().relationshipTypeGetForName( name );
+        }
+    }
+
+    private Statement statement()
+    {
+        return db.getDependencyResolver().resolveDependency( ThreadToStatementContextBridge.class ).instance();
+    }
+}
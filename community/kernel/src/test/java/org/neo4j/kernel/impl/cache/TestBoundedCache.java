@@ -0,0 +1,204 @@
+/**
+ * Copyright (c) 2002-2013 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.cache;
+
+import org.junit.Test;
+
+import org.neo4j.kernel.impl.util.StringLogger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class TestBoundedCache
+{
+    @Test
+    public void shouldGetWhatWasPut() throws Exception
+    {
+        // GIVEN
+        BoundedCache<Entity> cache = newCache( 1000, BoundedCache.Eviction.CLOCK );
+
+        // WHEN
+        for ( long id = 0; id < 50; id++ )
+        {
+            cache.put( new Entity( id, 10 ) );
+        }
+
+        // THEN
+        for ( long id = 0; id < 50; id++ )
+        {
+            assertEquals( id, cache.get( id ).getId() );
+        }
+        assertNull( cache.get( 50 ) );
+        assertEquals( 500, cache.size() );
+    }
+
+    @Test
+    public void shouldReturnExistingObjectIfDifferentObjectButSameId() throws Exception
+    {
+        // GIVEN
+        BoundedCache<Entity> cache = newCache( 1000, BoundedCache.Eviction.CLOCK );
+        Entity version1 = new Entity( 10, 10 );
+        assertSame( version1, cache.put( version1 ) );
+
+        // WHEN
+        Entity version2 = new Entity( 10, 10 );
+
+        // THEN
+        assertSame( version1, cache.put( version2 ) );
+        assertEquals( 10, cache.size() );
+    }
+
+    @Test
+    public void shouldFindElementsPastRemovedOnesAndReuseTheirSlots() throws Exception
+    {
+        // GIVEN
+        BoundedCache<Entity> cache = newCache( 100000, BoundedCache.Eviction.CLOCK );
+        for ( long id = 0; id < 1000; id++ )
+        {
+            cache.put( new Entity( id, 10 ) );
+        }
+
+        // WHEN
+        for ( long id = 0; id < 1000; id += 2 )
+        {
+            assertEquals( id, cache.remove( id ).getId() );
+        }
+        for ( long id = 0; id < 1000; id += 2 )
+        {
+            cache.put( new Entity( id, 20 ) );
+        }
+
+        // THEN
+        for ( long id = 0; id < 1000; id++ )
+        {
+            assertNotNull( cache.get( id ) );
+        }
+        assertEquals( 500 * 10 + 500 * 20, cache.size() );
+        assertEquals( 1000, cache.count() );
+    }
+
+    @Test
+    public void shouldEvictToStayWithinSizeWithClock() throws Exception
+    {
+        shouldEvictToStayWithinSize( BoundedCache.Eviction.CLOCK );
+    }
+
+    @Test
+    public void shouldEvictToStayWithinSizeWithLru() throws Exception
+    {
+        shouldEvictToStayWithinSize( BoundedCache.Eviction.LRU );
+    }
+
+    @Test
+    public void shouldKeepFrequentlyAccessedElementWhenEvicting() throws Exception
+    {
+        // GIVEN
+        BoundedCache<Entity> cache = newCache( 100, BoundedCache.Eviction.LRU );
+        Entity hot = cache.put( new Entity( 0, 10 ) );
+
+        // WHEN
+        for ( long id = 1; id < 100; id++ )
+        {
+            cache.get( 0 );
+            cache.put( new Entity( id, 10 ) );
+        }
+
+        // THEN
+        assertSame( hot, cache.get( 0 ) );
+    }
+
+    @Test
+    public void shouldTrackUpdatedSizes() throws Exception
+    {
+        // GIVEN
+        BoundedCache<Entity> cache = newCache( 1000, BoundedCache.Eviction.CLOCK );
+        Entity entity = cache.put( new Entity( 5, 10 ) );
+
+        // WHEN
+        entity.size = 30;
+        cache.updateSize( entity, 30 );
+        cache.remove( 5 );
+
+        // THEN
+        assertEquals( 0, cache.size() );
+    }
+
+    private void shouldEvictToStayWithinSize( BoundedCache.Eviction eviction )
+    {
+        // GIVEN
+        BoundedCache<Entity> cache = newCache( 100, eviction );
+
+        // WHEN
+        for ( long id = 0; id < 1000; id++ )
+        {
+            cache.put( new Entity( id, 10 ) );
+        }
+
+        // THEN
+        assertTrue( cache.size() <= 100 );
+        assertEquals( 10, cache.count() );
+        assertEquals( 990, cache.evictionCount() );
+    }
+
+    private static BoundedCache<Entity> newCache( long maxSize, BoundedCache.Eviction eviction )
+    {
+        return new BoundedCache<>( maxSize, eviction, 1, "test cache", StringLogger.DEV_NULL );
+    }
+
+    private static class Entity implements EntityWithSizeObject
+    {
+        private final long id;
+        private int size;
+        private int registeredSize;
+
+        Entity( long id, int size )
+        {
+            this.id = id;
+            this.size = size;
+        }
+
+        @Override
+        public int sizeOfObjectInBytesIncludingOverhead()
+        {
+            return size;
+        }
+
+        @Override
+        public long getId()
+        {
+            return id;
+        }
+
+        @Override
+        public void setRegisteredSize( int size )
+        {
+            this.registeredSize = size;
+        }
+
+        @Override
+        public int getRegisteredSize()
+        {
+            return registeredSize;
+        }
+    }
+}
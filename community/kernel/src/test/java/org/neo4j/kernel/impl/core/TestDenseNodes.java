@@ -0,0 +1,215 @@
+/**
+ * Copyright (c) 2002-2013 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.core;
+
+import org.junit.Rule;
+import org.junit.Test;
+
+import org.neo4j.graphdb.Direction;
+import org.neo4j.graphdb.DynamicRelationshipType;
+import org.neo4j.graphdb.Node;
+import org.neo4j.graphdb.Relationship;
+import org.neo4j.graphdb.RelationshipType;
+import org.neo4j.graphdb.Transaction;
+import org.neo4j.graphdb.factory.GraphDatabaseBuilder;
+import org.neo4j.graphdb.factory.GraphDatabaseSettings;
+import org.neo4j.kernel.GraphDatabaseAPI;
+import org.neo4j.test.ImpermanentDatabaseRule;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import static org.neo4j.helpers.collection.IteratorUtil.count;
+
+public class TestDenseNodes
+{
+    private static final int DENSE_NODE_THRESHOLD = 5;
+    private static final RelationshipType KNOWS = DynamicRelationshipType.withName( "KNOWS" );
+    private static final RelationshipType LIKES = DynamicRelationshipType.withName( "LIKES" );
+
+    @Rule
+    public ImpermanentDatabaseRule graphDb = new ImpermanentDatabaseRule()
+    {
+        @Override
+        protected void configure( GraphDatabaseBuilder builder )
+        {
+            builder.setConfig( GraphDatabaseSettings.dense_node_threshold, "" + DENSE_NODE_THRESHOLD );
+            builder.setConfig( GraphDatabaseSettings.relationship_grab_size, "2" );
+        }
+    };
+
+    @Test
+    public void nodeShouldStaySparseBelowThreshold() throws Exception
+    {
+        // GIVEN
+        GraphDatabaseAPI db = graphDb.getGraphDatabaseAPI();
+        Node node = createNodeWithRelationships( db, DENSE_NODE_THRESHOLD - 1, 0, 0 );
+
+        // THEN
+        assertFalse( isDense( db, node ) );
+        assertDegrees( db, node, DENSE_NODE_THRESHOLD - 1, 0, 0 );
+    }
+
+    @Test
+    public void nodeShouldBecomeDenseWhenCrossingThreshold() throws Exception
+    {
+        // WHEN
+        GraphDatabaseAPI db = graphDb.getGraphDatabaseAPI();
+        Node node = createNodeWithRelationships( db, 7, 6, 3 );
+
+        // THEN
+        assertTrue( isDense( db, node ) );
+        assertDegrees( db, node, 7, 6, 3 );
+    }
+
+    @Test
+    public void shouldSeeAllRelationshipsOfDenseNodeAfterDeletions() throws Exception
+    {
+        // GIVEN
+        GraphDatabaseAPI db = graphDb.getGraphDatabaseAPI();
+        Node node = createNodeWithRelationships( db, 8, 8, 2 );
+
+        // WHEN
+        try ( Transaction tx = db.beginTx() )
+        {
+            for ( Relationship relationship : node.getRelationships( LIKES, Direction.INCOMING ) )
+            {
+                relationship.delete();
+            }
+            node.getRelationships( KNOWS, Direction.OUTGOING ).iterator().next().delete();
+            tx.success();
+        }
+
+        // THEN loops are incoming as well, so they're gone too
+        assertDegrees( db, node, 7, 0, 0 );
+    }
+
+    @Test
+    public void shouldDeleteDenseNodeAfterDeletingAllItsRelationships() throws Exception
+    {
+        // GIVEN
+        GraphDatabaseAPI db = graphDb.getGraphDatabaseAPI();
+        Node node = createNodeWithRelationships( db, 10, 10, 2 );
+
+        // WHEN
+        try ( Transaction tx = db.beginTx() )
+        {
+            for ( Relationship relationship : node.getRelationships() )
+            {
+                relationship.delete();
+            }
+            node.delete();
+            tx.success();
+        }
+
+        // THEN
+        try ( Transaction tx = db.beginTx() )
+        {
+            assertEquals( 0, db.getXaDataSourceManager().getNeoStoreDataSource().getNeoStore()
+                    .getRelationshipGroupStore().getNumberOfIdsInUse() );
+            tx.success();
+        }
+    }
+
+    @Test
+    public void degreeShouldIncludeChangesInTransaction() throws Exception
+    {
+        // GIVEN
+        GraphDatabaseAPI db = graphDb.getGraphDatabaseAPI();
+        Node dense = createNodeWithRelationships( db, 6, 4, 1 );
+        Node sparse = createNodeWithRelationships( db, 2, 1, 0 );
+
+        try ( Transaction tx = db.beginTx() )
+        {
+            // WHEN
+            Node created = db.createNode();
+            created.createRelationshipTo( dense, KNOWS );
+            created.createRelationshipTo( sparse, KNOWS );
+            created.createRelationshipTo( created, LIKES );
+            dense.getRelationships( LIKES, Direction.INCOMING ).iterator().next().delete();
+            sparse.getRelationships( KNOWS, Direction.OUTGOING ).iterator().next().delete();
+
+            // THEN
+            assertEquals( 3, created.getDegree() );
+            assertEquals( 2, created.getDegree( KNOWS, Direction.OUTGOING ) );
+            assertEquals( 1, created.getDegree( LIKES, Direction.INCOMING ) );
+            assertEquals( 11, dense.getDegree() );
+            assertEquals( 1, dense.getDegree( KNOWS, Direction.INCOMING ) );
+            assertEquals( count( dense.getRelationships( LIKES, Direction.INCOMING ) ),
+                    dense.getDegree( LIKES, Direction.INCOMING ) );
+            assertEquals( 3, sparse.getDegree() );
+            assertEquals( 1, sparse.getDegree( KNOWS, Direction.OUTGOING ) );
+            assertEquals( 1, sparse.getDegree( KNOWS, Direction.INCOMING ) );
+            assertEquals( 0, sparse.getDegree( DynamicRelationshipType.withName( "UNKNOWN" ) ) );
+            tx.success();
+        }
+    }
+
+    private Node createNodeWithRelationships( GraphDatabaseAPI db, int outgoingKnows, int incomingLikes, int loops )
+    {
+        try ( Transaction tx = db.beginTx() )
+        {
+            Node node = db.createNode();
+            for ( int i = 0; i < outgoingKnows; i++ )
+            {
+                node.createRelationshipTo( db.createNode(), KNOWS );
+            }
+            for ( int i = 0; i < incomingLikes; i++ )
+            {
+                db.createNode().createRelationshipTo( node, LIKES );
+            }
+            for ( int i = 0; i < loops; i++ )
+            {
+                node.createRelationshipTo( node, LIKES );
+            }
+            tx.success();
+            return node;
+        }
+    }
+
+    private void assertDegrees( GraphDatabaseAPI db, Node node, int outgoingKnows, int incomingLikes, int loops )
+    {
+        db.getNodeManager().clearCache();
+        try ( Transaction tx = db.beginTx() )
+        {
+            assertEquals( outgoingKnows + incomingLikes + loops, count( node.getRelationships() ) );
+            assertEquals( outgoingKnows, count( node.getRelationships( KNOWS, Direction.OUTGOING ) ) );
+            assertEquals( 0, count( node.getRelationships( KNOWS, Direction.INCOMING ) ) );
+            assertEquals( incomingLikes + loops, count( node.getRelationships( LIKES, Direction.INCOMING ) ) );
+            assertEquals( loops, count( node.getRelationships( LIKES, Direction.OUTGOING ) ) );
+            assertEquals( outgoingKnows + loops, count( node.getRelationships( Direction.OUTGOING ) ) );
+
+            assertEquals( outgoingKnows + incomingLikes + loops, node.getDegree() );
+            assertEquals( outgoingKnows, node.getDegree( KNOWS, Direction.OUTGOING ) );
+            assertEquals( 0, node.getDegree( KNOWS, Direction.INCOMING ) );
+            assertEquals( incomingLikes + loops, node.getDegree( LIKES, Direction.INCOMING ) );
+            assertEquals( loops, node.getDegree( LIKES, Direction.OUTGOING ) );
+            assertEquals( outgoingKnows + loops, node.getDegree( Direction.OUTGOING ) );
+            tx.success();
+        }
+    }
+
+    private boolean isDense( GraphDatabaseAPI db, Node node )
+    {
+        return db.getXaDataSourceManager().getNeoStoreDataSource().getNeoStore().getNodeStore()
+                .getRecord( node.getId() ).isDense();
+    }
+}
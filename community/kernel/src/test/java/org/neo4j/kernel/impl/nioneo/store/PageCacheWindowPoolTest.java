@@ -0,0 +1,294 @@
+/**
+ * Copyright (c) 2002-2013 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.nioneo.store;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.junit.Rule;
+import org.junit.Test;
+
+import org.neo4j.test.OtherThreadExecutor;
+import org.neo4j.test.OtherThreadExecutor.WorkerCommand;
+import org.neo4j.test.ResourceCollection;
+import org.neo4j.test.TargetDirectory;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class PageCacheWindowPoolTest
+{
+    private static final int RECORD_SIZE = 8;
+    private static final int PAGE_SIZE = 64;
+
+    private static final TargetDirectory target = TargetDirectory.forTest( PageCacheWindowPoolTest.class );
+    @Rule
+    public final ResourceCollection resources = new ResourceCollection();
+    @Rule
+    public final TargetDirectory.TestDirectory directory = target.testDirectory();
+
+    @Test
+    public void shouldKeepChangesOfEvictedPagesOfSeveralStores() throws Exception
+    {
+        // GIVEN
+        PageCache pageCache = new PageCache( 2 * PAGE_SIZE, PAGE_SIZE );
+        PageCacheWindowPool first = new PageCacheWindowPool( new File( "first" ), RECORD_SIZE,
+                channel( "first" ), pageCache, false );
+        PageCacheWindowPool second = new PageCacheWindowPool( new File( "second" ), RECORD_SIZE,
+                channel( "second" ), pageCache, false );
+
+        // WHEN
+        for ( long id = 0; id < 100; id++ )
+        {
+            write( first, id, id );
+            write( second, id, -id );
+        }
+
+        // THEN
+        for ( long id = 0; id < 100; id++ )
+        {
+            assertEquals( id, read( first, id ) );
+            assertEquals( -id, read( second, id ) );
+        }
+        assertTrue( pageCache.getEvictionCount() > 0 );
+        assertEquals( 2 * PAGE_SIZE, pageCache.getMemoryUsed() );
+        first.close();
+        second.close();
+    }
+
+    @Test
+    public void shouldCountPageHitsAndMissesOfAllStores() throws Exception
+    {
+        // GIVEN
+        PageCache pageCache = new PageCache( 4 * PAGE_SIZE, PAGE_SIZE );
+        PageCacheWindowPool first = new PageCacheWindowPool( new File( "first" ), RECORD_SIZE,
+                channel( "first" ), pageCache, false );
+        PageCacheWindowPool second = new PageCacheWindowPool( new File( "second" ), RECORD_SIZE,
+                channel( "second" ), pageCache, false );
+        int recordsPerPage = PAGE_SIZE / RECORD_SIZE;
+
+        // WHEN
+        read( first, 0 );
+        read( first, 1 );
+        read( first, recordsPerPage );
+        read( second, 0 );
+        read( second, 0 );
+
+        // THEN
+        assertEquals( 2, pageCache.getHitCount() );
+        assertEquals( 3, pageCache.getMissCount() );
+        first.close();
+        second.close();
+    }
+
+    @Test
+    public void shouldWriteDirtyPagesWhenFlushingInTheBackground() throws Exception
+    {
+        // GIVEN
+        PageCache pageCache = new PageCache( 4 * PAGE_SIZE, PAGE_SIZE );
+        FileChannel channel = channel( "store" );
+        PageCacheWindowPool pool = new PageCacheWindowPool( new File( "store" ), RECORD_SIZE, channel,
+                pageCache, false );
+        write( pool, 10, 42 );
+
+        // WHEN
+        pageCache.flushDirtyPages();
+
+        // THEN
+        ByteBuffer buffer = ByteBuffer.allocate( RECORD_SIZE );
+        channel.read( buffer, 10 * RECORD_SIZE );
+        buffer.flip();
+        assertEquals( 42, buffer.getLong() );
+        pool.close();
+    }
+
+    @Test
+    public void shouldLetReadersShareAPageButMakeWritersWaitForThem() throws Exception
+    {
+        // GIVEN
+        PageCache pageCache = new PageCache( 4 * PAGE_SIZE, PAGE_SIZE );
+        final PageCacheWindowPool pool = new PageCacheWindowPool( new File( "store" ), RECORD_SIZE,
+                channel( "store" ), pageCache, false );
+        PersistenceWindow firstReader = pool.acquire( 0, OperationType.READ );
+        PersistenceWindow secondReader = pool.acquire( 1, OperationType.READ );
+        assertNotSame( firstReader, secondReader );
+
+        // WHEN
+        OtherThreadExecutor<Void> writer = resources.add( new OtherThreadExecutor<Void>( "writer", null ) );
+        Future<Void> write = writer.executeDontWait( new WorkerCommand<Void, Void>()
+        {
+            @Override
+            public Void doWork( Void state )
+            {
+                write( pool, 2, 42 );
+                return null;
+            }
+        } );
+
+        // THEN
+        try
+        {
+            write.get( 100, TimeUnit.MILLISECONDS );
+            fail( "Writer should have waited for the readers" );
+        }
+        catch ( TimeoutException e )
+        {   // Good
+        }
+        pool.release( firstReader );
+        pool.release( secondReader );
+        write.get( 10, TimeUnit.SECONDS );
+        assertEquals( 42, read( pool, 2 ) );
+        pool.close();
+    }
+
+    @Test
+    public void shouldFailToAcquireWriteWindowOfPageThatTheSameThreadIsReading() throws Exception
+    {
+        // GIVEN
+        PageCache pageCache = new PageCache( 4 * PAGE_SIZE, PAGE_SIZE );
+        PageCacheWindowPool pool = new PageCacheWindowPool( new File( "store" ), RECORD_SIZE,
+                channel( "store" ), pageCache, false );
+        PersistenceWindow reader = pool.acquire( 0, OperationType.READ );
+
+        // WHEN
+        try
+        {
+            pool.acquire( 1, OperationType.WRITE );
+            fail( "Should have failed to acquire a write window of a page held for reading" );
+        }
+        catch ( IllegalStateException e )
+        {   // THEN Good
+        }
+
+        // and once released the page can be written to
+        pool.release( reader );
+        write( pool, 1, 42 );
+        assertEquals( 42, read( pool, 1 ) );
+        pool.close();
+    }
+
+    @Test
+    public void shouldWaitForWritersWhenFlushingAllPages() throws Exception
+    {
+        // GIVEN
+        PageCache pageCache = new PageCache( 4 * PAGE_SIZE, PAGE_SIZE );
+        FileChannel channel = channel( "store" );
+        final PageCacheWindowPool pool = new PageCacheWindowPool( new File( "store" ), RECORD_SIZE, channel,
+                pageCache, false );
+        PersistenceWindow writer = pool.acquire( 10, OperationType.WRITE );
+        writer.getOffsettedBuffer( 10 ).putLong( 42 );
+
+        // WHEN
+        OtherThreadExecutor<Void> flusher = resources.add( new OtherThreadExecutor<Void>( "flusher", null ) );
+        Future<Void> flush = flusher.executeDontWait( new WorkerCommand<Void, Void>()
+        {
+            @Override
+            public Void doWork( Void state )
+            {
+                pool.flushAll();
+                return null;
+            }
+        } );
+
+        // THEN
+        try
+        {
+            flush.get( 100, TimeUnit.MILLISECONDS );
+            fail( "Flushing should have waited for the writer" );
+        }
+        catch ( TimeoutException e )
+        {   // Good
+        }
+        pool.release( writer );
+        flush.get( 10, TimeUnit.SECONDS );
+        ByteBuffer buffer = ByteBuffer.allocate( RECORD_SIZE );
+        channel.read( buffer, 10 * RECORD_SIZE );
+        buffer.flip();
+        assertEquals( 42, buffer.getLong() );
+        pool.close();
+    }
+
+    @Test
+    public void shouldFailToClaimPageWhenAllPagesStayPinned() throws Exception
+    {
+        // GIVEN
+        PageCache pageCache = new PageCache( 2 * PAGE_SIZE, PAGE_SIZE, 100 );
+        PageCacheWindowPool pool = new PageCacheWindowPool( new File( "store" ), RECORD_SIZE,
+                channel( "store" ), pageCache, false );
+        int recordsPerPage = PAGE_SIZE / RECORD_SIZE;
+        PersistenceWindow first = pool.acquire( 0, OperationType.READ );
+        PersistenceWindow second = pool.acquire( recordsPerPage, OperationType.READ );
+
+        // WHEN
+        try
+        {
+            pool.acquire( 2 * recordsPerPage, OperationType.READ );
+            fail( "Should have failed to evict a page while all pages are pinned" );
+        }
+        catch ( UnderlyingStorageException e )
+        {   // THEN Good
+        }
+
+        // and once a page is released it can be evicted
+        pool.release( first );
+        assertEquals( 0, read( pool, 2 * recordsPerPage ) );
+        assertEquals( 1, pageCache.getEvictionCount() );
+        pool.release( second );
+        pool.close();
+    }
+
+    private FileChannel channel( String name ) throws Exception
+    {
+        return resources.add( new RandomAccessFile( new File( directory.directory(), name ), "rw" ) ).getChannel();
+    }
+
+    private static void write( PageCacheWindowPool pool, long id, long value )
+    {
+        PersistenceWindow window = pool.acquire( id, OperationType.WRITE );
+        try
+        {
+            window.getOffsettedBuffer( id ).putLong( value );
+        }
+        finally
+        {
+            pool.release( window );
+        }
+    }
+
+    private static long read( PageCacheWindowPool pool, long id )
+    {
+        PersistenceWindow window = pool.acquire( id, OperationType.READ );
+        try
+        {
+            return window.getOffsettedBuffer( id ).getLong();
+        }
+        finally
+        {
+            pool.release( window );
+        }
+    }
+}
@@ -33,6 +33,7 @@ import static org.neo4j.kernel.impl.nioneo.store.StoreFactory.NODE_STORE_NAME;
 import static org.neo4j.kernel.impl.nioneo.store.StoreFactory.PROPERTY_ARRAYS_STORE_NAME;
 import static org.neo4j.kernel.impl.nioneo.store.StoreFactory.PROPERTY_STORE_NAME;
 import static org.neo4j.kernel.impl.nioneo.store.StoreFactory.PROPERTY_STRINGS_STORE_NAME;
+import static org.neo4j.kernel.impl.nioneo.store.StoreFactory.RELATIONSHIP_GROUP_STORE_NAME;
 import static org.neo4j.kernel.impl.nioneo.store.StoreFactory.RELATIONSHIP_STORE_NAME;
 
 public class RecordSizesDocTest
@@ -48,6 +49,8 @@ public class RecordSizesDocTest
         for ( Store store : asList(
                 store( NODE_STORE_NAME, NodeStore.RECORD_SIZE, "Nodes" ),
                 store( RELATIONSHIP_STORE_NAME, RelationshipStore.RECORD_SIZE, "Relationships" ),
+                store( RELATIONSHIP_GROUP_STORE_NAME, RelationshipGroupStore.RECORD_SIZE,
+                        "Relationship chains of dense nodes, grouped by type" ),
                 store( PROPERTY_STORE_NAME, PropertyStore.RECORD_SIZE, "Properties for nodes and relationships" ),
                 dynamicStore( PROPERTY_STRINGS_STORE_NAME, string_block_size, "Values of string properties" ),
                 dynamicStore( PROPERTY_ARRAYS_STORE_NAME, array_block_size, "Values of array properties" )
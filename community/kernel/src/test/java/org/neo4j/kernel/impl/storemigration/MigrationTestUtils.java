@@ -32,6 +32,9 @@ import org.neo4j.helpers.collection.MapUtil;
 import org.neo4j.kernel.DefaultFileSystemAbstraction;
 import org.neo4j.kernel.configuration.Config;
 import org.neo4j.kernel.impl.nioneo.store.FileSystemAbstraction;
+import org.neo4j.kernel.impl.nioneo.store.NodeStore;
+import org.neo4j.kernel.impl.storemigration.legacystore.Legacy20NodeStoreReader;
+import org.neo4j.kernel.impl.storemigration.legacystore.Legacy20Store;
 import org.neo4j.kernel.impl.storemigration.legacystore.LegacyStore;
 import org.neo4j.kernel.impl.util.FileUtils;
 import org.neo4j.test.impl.EphemeralFileSystemAbstraction;
@@ -41,6 +44,7 @@ import static java.lang.String.format;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.fail;
 
+import static org.neo4j.kernel.impl.nioneo.store.CommonAbstractStore.ALL_STORES_VERSION;
 import static org.neo4j.kernel.impl.util.IoPrimitiveUtils.readAndFlip;
 
 public class MigrationTestUtils
@@ -120,6 +124,51 @@ public class MigrationTestUtils
         FileUtils.copyRecursively( resourceDirectory, workingDirectory );
     }
 
+    /**
+     * Turns a database of the current version that has no dense nodes into one of
+     * {@link Legacy20Store#LEGACY_VERSION}. The node records lose the byte of the dense flag, the relationship
+     * group store is removed, and every store file gets the old version at its end.
+     */
+    public static void downgradeToLegacy20Store( FileSystemAbstraction fileSystem, File storeDirectory )
+            throws IOException
+    {
+        File nodeStore = new File( storeDirectory, StoreFile.NODE_STORE.storeFileName() );
+        int versionLength = UTF8.encode( StoreFile.NODE_STORE.versionIn( ALL_STORES_VERSION ) ).length;
+        FileChannel fileChannel = fileSystem.open( nodeStore, "rw" );
+        try
+        {
+            long records = (fileChannel.size() - versionLength) / NodeStore.RECORD_SIZE;
+            ByteBuffer record = ByteBuffer.allocate( NodeStore.RECORD_SIZE );
+            for ( long id = 0; id < records; id++ )
+            {
+                record.clear();
+                fileChannel.position( id * NodeStore.RECORD_SIZE );
+                fileChannel.read( record );
+                record.flip();
+                record.limit( Legacy20NodeStoreReader.RECORD_SIZE );
+                fileChannel.position( id * Legacy20NodeStoreReader.RECORD_SIZE );
+                fileChannel.write( record );
+            }
+            fileChannel.write( ByteBuffer.wrap( UTF8.encode( Legacy20NodeStoreReader.FROM_VERSION ) ) );
+            fileChannel.truncate( records * Legacy20NodeStoreReader.RECORD_SIZE + versionLength );
+        }
+        finally
+        {
+            fileChannel.close();
+        }
+
+        fileSystem.deleteFile( new File( storeDirectory, StoreFile.RELATIONSHIP_GROUP_STORE.storeFileName() ) );
+        fileSystem.deleteFile( new File( storeDirectory, StoreFile.RELATIONSHIP_GROUP_STORE.idFileName() ) );
+        for ( StoreFile storeFile : StoreFile.storeFilesIn( Legacy20Store.LEGACY_VERSION ) )
+        {
+            if ( storeFile != StoreFile.NODE_STORE )
+            {
+                changeVersionNumber( fileSystem, new File( storeDirectory, storeFile.storeFileName() ),
+                        storeFile.versionIn( Legacy20Store.LEGACY_VERSION ) );
+            }
+        }
+    }
+
     public static File findOldFormatStoreDirectory()
     {
         return findDatabaseDirectory( LegacyStore.class, "exampledb" );
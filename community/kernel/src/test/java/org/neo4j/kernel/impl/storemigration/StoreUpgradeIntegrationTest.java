@@ -26,18 +26,28 @@ import java.util.Map;
 
 import org.hamcrest.Matchers;
 import org.junit.Test;
+import org.neo4j.graphdb.Direction;
+import org.neo4j.graphdb.DynamicLabel;
+import org.neo4j.graphdb.DynamicRelationshipType;
 import org.neo4j.graphdb.GraphDatabaseService;
+import org.neo4j.graphdb.Node;
+import org.neo4j.graphdb.Relationship;
+import org.neo4j.graphdb.RelationshipType;
+import org.neo4j.graphdb.Transaction;
 import org.neo4j.graphdb.factory.GraphDatabaseFactory;
 import org.neo4j.graphdb.factory.GraphDatabaseSettings;
 import org.neo4j.helpers.Exceptions;
 import org.neo4j.kernel.DefaultFileSystemAbstraction;
 import org.neo4j.kernel.impl.nioneo.store.FileSystemAbstraction;
 import org.neo4j.kernel.impl.storemigration.StoreUpgrader.UnableToUpgradeException;
+import org.neo4j.kernel.impl.storemigration.legacystore.Legacy20Store;
 import org.neo4j.test.TargetDirectory;
 
 import static org.junit.Assert.*;
+import static org.neo4j.helpers.collection.IteratorUtil.count;
 import static org.neo4j.kernel.impl.nioneo.store.CommonAbstractStore.ALL_STORES_VERSION;
 import static org.neo4j.kernel.impl.storemigration.MigrationTestUtils.allStoreFilesHaveVersion;
+import static org.neo4j.kernel.impl.storemigration.MigrationTestUtils.downgradeToLegacy20Store;
 import static org.neo4j.kernel.impl.storemigration.MigrationTestUtils.prepareSampleLegacyDatabase;
 import static org.neo4j.kernel.impl.storemigration.MigrationTestUtils.truncateFile;
 import static org.neo4j.kernel.impl.storemigration.legacystore.LegacyStore.LEGACY_VERSION;
@@ -62,6 +72,60 @@ public class StoreUpgradeIntegrationTest
                 allStoreFilesHaveVersion( fileSystem, workingDirectory, ALL_STORES_VERSION ) );
     }
 
+    @Test
+    public void shouldUpgradeStoreFromBeforeDenseNodesOnDatabaseStartup() throws IOException
+    {
+        // given
+        GraphDatabaseService database = new GraphDatabaseFactory().newEmbeddedDatabase( workingDirectory.getPath() );
+        try ( Transaction tx = database.beginTx() )
+        {
+            Node joe = database.createNode( DynamicLabel.label( "Person" ) );
+            joe.setProperty( "name", "Joe" );
+            Node john = database.createNode();
+            joe.createRelationshipTo( john, KNOWS ).setProperty( "since", 2001 );
+            tx.success();
+        }
+        database.shutdown();
+        downgradeToLegacy20Store( fileSystem, workingDirectory );
+        assertTrue( allStoreFilesHaveVersion( fileSystem, workingDirectory, Legacy20Store.LEGACY_VERSION ) );
+
+        // when
+        Map<String, String> params = new HashMap<String, String>();
+        params.put( GraphDatabaseSettings.allow_store_upgrade.name(), "true" );
+        params.put( GraphDatabaseSettings.dense_node_threshold.name(), "10" );
+        database = new GraphDatabaseFactory()
+                .newEmbeddedDatabaseBuilder( workingDirectory.getPath() ).setConfig( params ).newGraphDatabase();
+
+        // then
+        try ( Transaction tx = database.beginTx() )
+        {
+            Node joe = database.getNodeById( 0 );
+            assertTrue( joe.hasLabel( DynamicLabel.label( "Person" ) ) );
+            assertEquals( "Joe", joe.getProperty( "name" ) );
+            Relationship knows = joe.getSingleRelationship( KNOWS, Direction.OUTGOING );
+            assertEquals( 1L, knows.getEndNode().getId() );
+            assertEquals( 2001, knows.getProperty( "since" ) );
+
+            // and the node can become dense, now that there is a relationship group store
+            for ( int i = 0; i < 20; i++ )
+            {
+                joe.createRelationshipTo( database.createNode(), KNOWS );
+            }
+            tx.success();
+        }
+        try ( Transaction tx = database.beginTx() )
+        {
+            assertEquals( 21, count( database.getNodeById( 0 ).getRelationships( KNOWS, Direction.OUTGOING ) ) );
+            tx.success();
+        }
+        finally
+        {
+            database.shutdown();
+        }
+        assertTrue( "Some store files did not have the correct version",
+                allStoreFilesHaveVersion( fileSystem, workingDirectory, ALL_STORES_VERSION ) );
+    }
+
     @Test
     public void shouldAbortOnNonCleanlyShutdown() throws Throwable
     {
@@ -112,6 +176,8 @@ public class StoreUpgradeIntegrationTest
         }
     }
     
+    private static final RelationshipType KNOWS = DynamicRelationshipType.withName( "KNOWS" );
+
     private final FileSystemAbstraction fileSystem = new DefaultFileSystemAbstraction();
     private final File workingDirectory = TargetDirectory.forTest( getClass() ).graphDbDir( true );
 
@@ -95,7 +95,7 @@ public class StoreUpgraderInterruptionTestIT
         DatabaseFiles failsOnBackup = new DatabaseFiles( fileSystem )
         {
             @Override
-            public void moveToBackupDirectory( File workingDirectory, File backupDirectory )
+            public void moveToBackupDirectory( File workingDirectory, File backupDirectory, String storeVersion )
             {
                 fileSystem.mkdir( backupDirectory );
                 throw new RuntimeException( "Failing to backup working directory" );
@@ -0,0 +1,107 @@
+/**
+ * Copyright (c) 2002-2013 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.transaction;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.transaction.Transaction;
+
+import org.junit.Ignore;
+import org.junit.Test;
+
+import static java.util.concurrent.Executors.newFixedThreadPool;
+import static org.mockito.Mockito.mock;
+import static org.neo4j.kernel.impl.transaction.LockWorker.newResourceObject;
+
+/**
+ * Ignored performance test, printing the throughput of taking and releasing uncontended write locks as the
+ * number of threads grows. Every thread locks resources of its own, so a throughput that doesn't grow with the
+ * number of threads, up to the number of cores, means threads contend inside the lock manager itself.
+ * TODO: Move this into performance-regression project.
+ */
+@Ignore
+public class LockManagerPerformanceTest
+{
+    private static final int RESOURCES_PER_THREAD = 1000;
+    private static final long WARMUP_MILLIS = 2000, MEASURE_MILLIS = 5000;
+
+    @Test
+    public void uncontendedLockingShouldScaleWithTheNumberOfThreads() throws Exception
+    {
+        int maxThreads = Runtime.getRuntime().availableProcessors() * 2;
+        for ( int threads = 1; threads <= maxThreads; threads *= 2 )
+        {
+            LockManager lockManager = new LockManagerImpl( new RagManager() );
+            measure( lockManager, threads, WARMUP_MILLIS );
+            long locks = measure( lockManager, threads, MEASURE_MILLIS );
+            System.out.println( String.format( "%d threads: %d lock/release pairs per second",
+                    threads, locks * 1000 / MEASURE_MILLIS ) );
+        }
+    }
+
+    private long measure( final LockManager lockManager, int threads, long millis ) throws Exception
+    {
+        final AtomicBoolean end = new AtomicBoolean();
+        ExecutorService executor = newFixedThreadPool( threads );
+        List<Future<Long>> futures = new ArrayList<>();
+        for ( int t = 0; t < threads; t++ )
+        {
+            final Object[] resources = new Object[RESOURCES_PER_THREAD];
+            for ( int i = 0; i < resources.length; i++ )
+            {
+                resources[i] = newResourceObject( "T" + t + "R" + i );
+            }
+            futures.add( executor.submit( new Callable<Long>()
+            {
+                @Override
+                public Long call() throws Exception
+                {
+                    Transaction tx = mock( Transaction.class );
+                    long count = 0;
+                    while ( !end.get() )
+                    {
+                        for ( Object resource : resources )
+                        {
+                            lockManager.getWriteLock( resource, tx );
+                            lockManager.releaseWriteLock( resource, tx );
+                        }
+                        count += resources.length;
+                    }
+                    return count;
+                }
+            } ) );
+        }
+
+        Thread.sleep( millis );
+        end.set( true );
+        long total = 0;
+        for ( Future<Long> future : futures )
+        {
+            total += future.get();
+        }
+        executor.shutdown();
+        return total;
+    }
+}
@@ -0,0 +1,126 @@
+/**
+ * Copyright (c) 2002-2013 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.transaction;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.neo4j.graphdb.Transaction;
+import org.neo4j.graphdb.factory.GraphDatabaseSettings;
+import org.neo4j.helpers.collection.IteratorUtil;
+import org.neo4j.kernel.GraphDatabaseAPI;
+import org.neo4j.kernel.impl.nioneo.xa.NeoStoreXaDataSource;
+import org.neo4j.kernel.impl.transaction.xaframework.XaDataSource;
+import org.neo4j.test.TestGraphDatabaseFactory;
+import org.neo4j.tooling.GlobalGraphOperations;
+
+import static org.junit.Assert.assertEquals;
+
+public class TestGroupCommit
+{
+    private static final int THREADS = 8;
+    private static final int TRANSACTIONS_PER_THREAD = 50;
+
+    @Test
+    public void shouldApplyConcurrentlyCommittedTransactionsInOrder() throws Exception
+    {
+        // GIVEN
+        try ( Transaction tx = db.beginTx() )
+        {
+            db.createNode().setProperty( "value", -1 );
+            tx.success();
+        }
+        long lastCommittedTxBefore = dataSource().getLastCommittedTxId();
+
+        // WHEN
+        ExecutorService executor = Executors.newFixedThreadPool( THREADS );
+        try
+        {
+            List<Future<Void>> futures = new ArrayList<>();
+            for ( int i = 0; i < THREADS; i++ )
+            {
+                futures.add( executor.submit( new Callable<Void>()
+                {
+                    @Override
+                    public Void call() throws Exception
+                    {
+                        for ( int j = 0; j < TRANSACTIONS_PER_THREAD; j++ )
+                        {
+                            try ( Transaction tx = db.beginTx() )
+                            {
+                                db.createNode().setProperty( "value", j );
+                                tx.success();
+                            }
+                        }
+                        return null;
+                    }
+                } ) );
+            }
+            for ( Future<Void> future : futures )
+            {
+                future.get();
+            }
+        }
+        finally
+        {
+            executor.shutdown();
+        }
+
+        // THEN
+        assertEquals( lastCommittedTxBefore + THREADS * TRANSACTIONS_PER_THREAD,
+                dataSource().getLastCommittedTxId() );
+        try ( Transaction tx = db.beginTx() )
+        {
+            assertEquals( THREADS * TRANSACTIONS_PER_THREAD + 1,
+                    IteratorUtil.count( GlobalGraphOperations.at( db ).getAllNodes() ) );
+        }
+    }
+
+    private GraphDatabaseAPI db;
+
+    @Before
+    public void before()
+    {
+        db = (GraphDatabaseAPI) new TestGraphDatabaseFactory().newImpermanentDatabaseBuilder()
+                .setConfig( GraphDatabaseSettings.logical_log_group_commit, "true" )
+                .setConfig( GraphDatabaseSettings.logical_log_group_commit_max_latency, "1ms" )
+                .newGraphDatabase();
+    }
+
+    @After
+    public void after()
+    {
+        db.shutdown();
+    }
+
+    private XaDataSource dataSource()
+    {
+        return db.getDependencyResolver().resolveDependency( XaDataSourceManager.class )
+                .getXaDataSource( NeoStoreXaDataSource.DEFAULT_DATA_SOURCE_NAME );
+    }
+}
@@ -20,7 +20,9 @@
 package org.neo4j.kernel.impl.transaction;
 
 import static java.lang.System.currentTimeMillis;
+import static java.util.concurrent.Executors.newFixedThreadPool;
 import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
@@ -28,8 +30,12 @@ import static org.mockito.Mockito.mock;
 import static org.neo4j.kernel.impl.transaction.LockWorker.newResourceObject;
 
 import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Random;
+import java.util.concurrent.Callable;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
 
 import javax.transaction.Transaction;
@@ -369,6 +375,56 @@ public class TestRWLock
                 throw stressThread.error;
     }
 
+    @Test
+    public void shouldNotLeaveAnyLocksBehindAfterConcurrentLockingOfManyResources() throws Exception
+    {
+        // GIVEN
+        final int threadCount = 8, resourceCount = 1000, rounds = 20;
+        final ResourceObject[] resources = new ResourceObject[resourceCount];
+        for ( int i = 0; i < resourceCount; i++ )
+        {
+            resources[i] = newResourceObject( "R" + i );
+        }
+        final int[] counters = new int[resourceCount];
+        ExecutorService executor = newFixedThreadPool( threadCount );
+
+        // WHEN
+        List<Future<Void>> futures = new ArrayList<>();
+        for ( int t = 0; t < threadCount; t++ )
+        {
+            futures.add( executor.submit( new Callable<Void>()
+            {
+                @Override
+                public Void call() throws Exception
+                {
+                    Transaction tx = mock( Transaction.class );
+                    for ( int round = 0; round < rounds; round++ )
+                    {
+                        for ( int i = 0; i < resourceCount; i++ )
+                        {
+                            lm.getWriteLock( resources[i], tx );
+                            counters[i]++;
+                            lm.releaseWriteLock( resources[i], tx );
+                        }
+                    }
+                    return null;
+                }
+            } ) );
+        }
+        for ( Future<Void> future : futures )
+        {
+            future.get();
+        }
+        executor.shutdown();
+
+        // THEN
+        for ( int i = 0; i < resourceCount; i++ )
+        {
+            assertEquals( threadCount * rounds, counters[i] );
+        }
+        assertTrue( lm.getAllLocks().isEmpty() );
+    }
+
     private void sleepALittle()
     {
         try
@@ -33,6 +33,7 @@ import org.neo4j.kernel.DefaultFileSystemAbstraction;
 import org.neo4j.kernel.impl.AbstractNeo4jTestCase;
 import org.neo4j.kernel.impl.transaction.TxLog.Record;
 import org.neo4j.kernel.impl.transaction.xaframework.ForceMode;
+import org.neo4j.kernel.impl.transaction.xaframework.GroupCommitter;
 
 import static org.hamcrest.Matchers.is;
 import static org.junit.Assert.assertEquals;
@@ -234,6 +235,28 @@ public class TestTxLog
         assertThat( log.getRecordCount(), is( 2000 ) );
     }
 
+    @Test
+    public void markAsCommittingWithGroupCommitShouldBeForcedAndSurviveReopen() throws IOException
+    {
+        File logFile = tmpFile();
+        DefaultFileSystemAbstraction fileSystem = new DefaultFileSystemAbstraction();
+        TxLog log = new TxLog( logFile, fileSystem, new GroupCommitter( 10, 0 ) );
+        byte globalId[] = new byte[64];
+        log.txStart( globalId );
+        log.addBranch( globalId, new byte[45] );
+
+        log.markAsCommitting( globalId, ForceMode.forced );
+        assertEquals( 3, log.getRecordCount() );
+        log.close();
+
+        log = new TxLog( logFile, fileSystem );
+        List<?> lists[] = getRecordLists( log.getDanglingRecords() );
+        assertEquals( 1, lists.length );
+        assertEquals( 3, lists[0].size() );
+        assertEquals( TxLog.MARK_COMMIT, ((TxLog.Record) lists[0].get( 2 )).getType() );
+        log.close();
+    }
+
     @Test
     public void testTxRecovery()
     {
@@ -0,0 +1,175 @@
+/**
+ * Copyright (c) 2002-2013 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.transaction.xaframework;
+
+import java.io.IOException;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+import static org.mockito.Matchers.anyBoolean;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+public class GroupCommitterTest
+{
+    @Test
+    public void shouldForceChannelForSingleCommit() throws Exception
+    {
+        // GIVEN
+        GroupCommitter committer = new GroupCommitter( 10, 0 );
+        FileChannel channel = mock( FileChannel.class );
+
+        // WHEN
+        committer.awaitForced( committer.appendTicket( channel ) );
+
+        // THEN
+        verify( channel, times( 1 ) ).force( false );
+    }
+
+    @Test
+    public void shouldNotForceAgainForAlreadyForcedTicket() throws Exception
+    {
+        // GIVEN
+        GroupCommitter committer = new GroupCommitter( 10, 0 );
+        FileChannel channel = mock( FileChannel.class );
+        long first = committer.appendTicket( channel );
+        long second = committer.appendTicket( channel );
+
+        // WHEN
+        committer.awaitForced( second );
+        committer.awaitForced( first );
+
+        // THEN
+        verify( channel, times( 1 ) ).force( false );
+    }
+
+    @Test
+    public void shouldConsiderTicketsForcedAfterForcedAll() throws Exception
+    {
+        // GIVEN
+        GroupCommitter committer = new GroupCommitter( 10, 0 );
+        FileChannel channel = mock( FileChannel.class );
+        long ticket = committer.appendTicket( channel );
+
+        // WHEN
+        committer.forcedAll();
+        committer.awaitForced( ticket );
+
+        // THEN
+        verify( channel, never() ).force( anyBoolean() );
+    }
+
+    @Test
+    public void shouldPropagateClosedChannelIfTicketNotForcedByOtherMeans() throws Exception
+    {
+        // GIVEN
+        GroupCommitter committer = new GroupCommitter( 10, 0 );
+        FileChannel channel = mock( FileChannel.class );
+        doThrow( new ClosedChannelException() ).when( channel ).force( false );
+        long ticket = committer.appendTicket( channel );
+
+        // WHEN
+        try
+        {
+            committer.awaitForced( ticket );
+            fail( "Should have failed" );
+        }
+        catch ( ClosedChannelException e )
+        {   // THEN good
+        }
+    }
+
+    @Test
+    public void shouldLetConcurrentCommittersShareOneForce() throws Exception
+    {
+        // GIVEN
+        final GroupCommitter committer = new GroupCommitter( 100, 0 );
+        final FileChannel channel = mock( FileChannel.class );
+        final CountDownLatch forceStarted = new CountDownLatch( 1 );
+        final CountDownLatch releaseForce = new CountDownLatch( 1 );
+        final AtomicInteger forces = new AtomicInteger();
+        doAnswer( new Answer<Void>()
+        {
+            @Override
+            public Void answer( InvocationOnMock invocation ) throws Throwable
+            {
+                if ( forces.incrementAndGet() == 1 )
+                {
+                    forceStarted.countDown();
+                    releaseForce.await();
+                }
+                return null;
+            }
+        } ).when( channel ).force( false );
+
+        // the first committer becomes leader and blocks in its force
+        Thread leader = awaitInThread( committer, committer.appendTicket( channel ) );
+        forceStarted.await();
+
+        // WHEN more committers append while the leader is forcing
+        Thread[] followers = new Thread[5];
+        for ( int i = 0; i < followers.length; i++ )
+        {
+            followers[i] = awaitInThread( committer, committer.appendTicket( channel ) );
+        }
+        releaseForce.countDown();
+        leader.join();
+        for ( Thread follower : followers )
+        {
+            follower.join();
+        }
+
+        // THEN the followers were all covered by a single second force
+        assertEquals( 2, forces.get() );
+    }
+
+    private Thread awaitInThread( final GroupCommitter committer, final long ticket )
+    {
+        Thread thread = new Thread()
+        {
+            @Override
+            public void run()
+            {
+                try
+                {
+                    committer.awaitForced( ticket );
+                }
+                catch ( IOException e )
+                {
+                    throw new RuntimeException( e );
+                }
+            }
+        };
+        thread.start();
+        return thread;
+    }
+}
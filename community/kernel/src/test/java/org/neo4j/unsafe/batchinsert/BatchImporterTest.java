@@ -0,0 +1,300 @@
+/**
+ * Copyright (c) 2002-2013 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.unsafe.batchinsert;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+
+import org.neo4j.graphdb.Direction;
+import org.neo4j.graphdb.DynamicLabel;
+import org.neo4j.graphdb.DynamicRelationshipType;
+import org.neo4j.graphdb.GraphDatabaseService;
+import org.neo4j.graphdb.Node;
+import org.neo4j.graphdb.NotFoundException;
+import org.neo4j.graphdb.Relationship;
+import org.neo4j.graphdb.RelationshipType;
+import org.neo4j.graphdb.Transaction;
+import org.neo4j.test.EphemeralFileSystemRule;
+import org.neo4j.test.TargetDirectory;
+import org.neo4j.test.TestGraphDatabaseFactory;
+import org.neo4j.tooling.GlobalGraphOperations;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import static org.neo4j.helpers.collection.IteratorUtil.asSet;
+import static org.neo4j.helpers.collection.IteratorUtil.count;
+import static org.neo4j.helpers.collection.MapUtil.map;
+import static org.neo4j.helpers.collection.MapUtil.stringMap;
+
+public class BatchImporterTest
+{
+    @Rule public EphemeralFileSystemRule fs = new EphemeralFileSystemRule();
+
+    private final String storeDir = "import";
+    private final RelationshipType KNOWS = DynamicRelationshipType.withName( "KNOWS" );
+    private final RelationshipType LIKES = DynamicRelationshipType.withName( "LIKES" );
+    private GraphDatabaseService db;
+
+    @After
+    public void shutdownDb()
+    {
+        if ( db != null )
+        {
+            db.shutdown();
+        }
+    }
+
+    @Test
+    public void shouldImportNodesWithLabelsAndProperties() throws Exception
+    {
+        // given
+        List<InputNode> nodes = new ArrayList<>();
+        nodes.add( new InputNode( "a", new String[] {"Person", "Admin"}, map( "name", "Alice", "age", 42 ) ) );
+        nodes.add( new InputNode( "b", new String[0], noProperties() ) );
+        nodes.add( new InputNode( "c", new String[] {"Person"}, map( "tags", new String[] {"x", "y"} ) ) );
+
+        // when
+        importGraph( nodes, Collections.<InputRelationship>emptyList(), 2 );
+
+        // then
+        try ( Transaction tx = db.beginTx() )
+        {
+            List<Node> all = asList( GlobalGraphOperations.at( db ).getAllNodes() );
+            assertEquals( 3, all.size() );
+            Node alice = all.get( 0 );
+            assertEquals( "Alice", alice.getProperty( "name" ) );
+            assertEquals( 42, alice.getProperty( "age" ) );
+            assertTrue( alice.hasLabel( DynamicLabel.label( "Person" ) ) );
+            assertTrue( alice.hasLabel( DynamicLabel.label( "Admin" ) ) );
+            assertFalse( all.get( 1 ).getPropertyKeys().iterator().hasNext() );
+            assertEquals( asSet( "x", "y" ), asSet( (String[]) all.get( 2 ).getProperty( "tags" ) ) );
+            tx.success();
+        }
+    }
+
+    @Test
+    public void shouldLinkRelationshipsIntoTheChainsOfBothNodes() throws Exception
+    {
+        // given
+        List<InputNode> nodes = new ArrayList<>();
+        for ( int i = 0; i < 10; i++ )
+        {
+            nodes.add( new InputNode( "n" + i, new String[0], noProperties() ) );
+        }
+        List<InputRelationship> relationships = new ArrayList<>();
+        for ( int i = 1; i < 10; i++ )
+        {
+            relationships.add( new InputRelationship( "n0", "n" + i, "KNOWS", map( "i", i ) ) );
+            relationships.add( new InputRelationship( "n" + i, "n0", "LIKES", noProperties() ) );
+            relationships.add( new InputRelationship( "n" + i, "n" + (i % 9 + 1), "KNOWS", noProperties() ) );
+        }
+        relationships.add( new InputRelationship( "n0", "n0", "LIKES", noProperties() ) );
+        relationships.add( new InputRelationship( "n5", "n5", "KNOWS", noProperties() ) );
+
+        // when
+        importGraph( nodes, relationships, 3 );
+
+        // then
+        try ( Transaction tx = db.beginTx() )
+        {
+            assertChainsMatch( relationships );
+            Node hub = db.getNodeById( 0 );
+            assertEquals( 9, count( hub.getRelationships( KNOWS, Direction.OUTGOING ) ) );
+            assertEquals( 10, count( hub.getRelationships( LIKES, Direction.INCOMING ) ) );
+            assertEquals( 19, count( hub.getRelationships() ) );
+            tx.success();
+        }
+
+        // and when the chains are changed, which also follows the pointers to previous relationships
+        try ( Transaction tx = db.beginTx() )
+        {
+            for ( Relationship relationship : GlobalGraphOperations.at( db ).getAllRelationships() )
+            {
+                if ( relationship.getId() % 3 == 1 )
+                {
+                    relationship.delete();
+                }
+            }
+            tx.success();
+        }
+
+        // then
+        List<InputRelationship> remaining = new ArrayList<>();
+        for ( int i = 0; i < relationships.size(); i++ )
+        {
+            if ( i % 3 != 1 )
+            {
+                remaining.add( relationships.get( i ) );
+            }
+        }
+        try ( Transaction tx = db.beginTx() )
+        {
+            assertChainsMatch( remaining );
+            tx.success();
+        }
+    }
+
+    @Test
+    public void shouldFailOnRelationshipsToNodesThatWereNotImported() throws Exception
+    {
+        // given
+        List<InputNode> nodes = new ArrayList<>();
+        nodes.add( new InputNode( "a", new String[0], noProperties() ) );
+        List<InputRelationship> relationships = new ArrayList<>();
+        relationships.add( new InputRelationship( "a", "b", "KNOWS", noProperties() ) );
+
+        try
+        {
+            // when
+            new BatchImporter( storeDir, fs.get(), stringMap(), 2, new HeapIdMapper() )
+                    .doImport( nodes, relationships );
+            fail( "Should have failed" );
+        }
+        catch ( NotFoundException e )
+        {
+            // then
+            assertTrue( e.getMessage().contains( "refers to node b" ) );
+        }
+    }
+
+    @Test
+    public void shouldReadNodesAndRelationshipsFromCsv() throws Exception
+    {
+        // given
+        File directory = TargetDirectory.forTest( getClass() ).directory( "csv", true );
+        File nodeFile = write( new File( directory, "nodes.csv" ),
+                ":ID,name,age:int,:LABEL\n" +
+                "1,\"Smith, John\",31,Person;Admin\n" +
+                "2,\"Say \"\"hi\"\"\",,\n" );
+        File relationshipFile = write( new File( directory, "relationships.csv" ),
+                ":START_ID,:END_ID,:TYPE,since:long\n" +
+                "1,2,KNOWS,2005\n" );
+        CsvInput input = new CsvInput( nodeFile, relationshipFile );
+
+        // when
+        List<InputNode> nodes = asList( input.nodes() );
+        List<InputRelationship> relationships = asList( input.relationships() );
+
+        // then
+        assertEquals( 2, nodes.size() );
+        assertEquals( "1", nodes.get( 0 ).id() );
+        assertEquals( map( "name", "Smith, John", "age", 31 ), nodes.get( 0 ).properties() );
+        assertEquals( asSet( "Person", "Admin" ), asSet( nodes.get( 0 ).labels() ) );
+        assertEquals( map( "name", "Say \"hi\"" ), nodes.get( 1 ).properties() );
+        assertEquals( 0, nodes.get( 1 ).labels().length );
+
+        assertEquals( 1, relationships.size() );
+        assertEquals( "1", relationships.get( 0 ).startNode() );
+        assertEquals( "2", relationships.get( 0 ).endNode() );
+        assertEquals( "KNOWS", relationships.get( 0 ).type() );
+        assertEquals( map( "since", 2005L ), relationships.get( 0 ).properties() );
+    }
+
+    private void importGraph( List<InputNode> nodes, List<InputRelationship> relationships, int workers )
+    {
+        Map<String, String> config = stringMap( "dense_node_threshold", "5" );
+        new BatchImporter( storeDir, fs.get(), config, workers, new EncodingIdMapper( workers ) ).doImport( nodes, relationships );
+        db = new TestGraphDatabaseFactory().setFileSystem( fs.get() ).newImpermanentDatabase( storeDir );
+    }
+
+    /*
+     * Every relationship has to be reachable from both of its nodes, and nothing else.
+     */
+    private void assertChainsMatch( List<InputRelationship> expected )
+    {
+        Map<Long, Set<String>> expectedByNode = new HashMap<>();
+        for ( InputRelationship relationship : expected )
+        {
+            String description = relationship.startNode() + "-" + relationship.type() + "->" + relationship.endNode();
+            add( expectedByNode, nodeId( relationship.startNode() ), description );
+            add( expectedByNode, nodeId( relationship.endNode() ), description );
+        }
+
+        for ( Node node : GlobalGraphOperations.at( db ).getAllNodes() )
+        {
+            Set<String> actual = new HashSet<>();
+            for ( Relationship relationship : node.getRelationships() )
+            {
+                actual.add( "n" + relationship.getStartNode().getId() + "-" + relationship.getType().name() + "->" +
+                        "n" + relationship.getEndNode().getId() );
+            }
+            Set<String> expectedHere = expectedByNode.get( node.getId() );
+            assertEquals( "Relationships of " + node, expectedHere == null ? new HashSet<String>() : expectedHere,
+                    actual );
+        }
+    }
+
+    private Map<String, Object> noProperties()
+    {
+        return Collections.emptyMap();
+    }
+
+    private long nodeId( Object inputId )
+    {
+        return Long.parseLong( ((String) inputId).substring( 1 ) );
+    }
+
+    private void add( Map<Long, Set<String>> map, long key, String value )
+    {
+        Set<String> values = map.get( key );
+        if ( values == null )
+        {
+            values = new HashSet<>();
+            map.put( key, values );
+        }
+        values.add( value );
+    }
+
+    private <T> List<T> asList( Iterable<T> iterable )
+    {
+        List<T> list = new ArrayList<>();
+        for ( T item : iterable )
+        {
+            list.add( item );
+        }
+        return list;
+    }
+
+    private File write( File file, String contents ) throws IOException
+    {
+        try ( Writer writer = new OutputStreamWriter( new FileOutputStream( file ), "UTF-8" ) )
+        {
+            writer.write( contents );
+        }
+        return file;
+    }
+}
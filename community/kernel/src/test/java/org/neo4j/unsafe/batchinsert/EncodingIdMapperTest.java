@@ -0,0 +1,172 @@
+/**
+ * Copyright (c) 2002-2013 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.unsafe.batchinsert;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class EncodingIdMapperTest
+{
+    @Test
+    public void shouldMapNumericAndStringIds() throws Exception
+    {
+        // given
+        EncodingIdMapper mapper = new EncodingIdMapper( 1 );
+        List<Object> ids = new ArrayList<>();
+        ids.add( 42L );
+        ids.add( "42" );
+        ids.add( "042" );
+        ids.add( "forty-two" );
+        ids.add( 7 );
+        putAll( mapper, ids );
+
+        // when
+        mapper.prepare( ids );
+
+        // then
+        for ( int nodeId = 0; nodeId < ids.size(); nodeId++ )
+        {
+            assertEquals( nodeId, mapper.get( ids.get( nodeId ) ) );
+        }
+    }
+
+    @Test
+    public void shouldNotFindIdsThatWereNotPut() throws Exception
+    {
+        // given
+        EncodingIdMapper mapper = new EncodingIdMapper( 1 );
+        List<Object> ids = new ArrayList<>();
+        ids.add( "a" );
+        ids.add( 1L );
+        putAll( mapper, ids );
+
+        // when
+        mapper.prepare( ids );
+
+        // then
+        assertEquals( IdMapper.NOT_FOUND, mapper.get( "b" ) );
+        assertEquals( IdMapper.NOT_FOUND, mapper.get( 2L ) );
+        assertEquals( IdMapper.NOT_FOUND, mapper.get( "1" ) );
+    }
+
+    @Test
+    public void shouldSortWithManyWorkers() throws Exception
+    {
+        // given
+        EncodingIdMapper mapper = new EncodingIdMapper( 5 );
+        Random random = new Random( 1234 );
+        List<Object> ids = new ArrayList<>();
+        for ( int i = 0; i < 100_000; i++ )
+        {
+            ids.add( random.nextBoolean() ? "id-" + i : (Object) (long) i );
+        }
+        putAll( mapper, ids );
+
+        // when
+        mapper.prepare( ids );
+
+        // then
+        for ( int nodeId = 0; nodeId < ids.size(); nodeId++ )
+        {
+            assertEquals( nodeId, mapper.get( ids.get( nodeId ) ) );
+        }
+    }
+
+    @Test
+    public void shouldKeepNodesApartWhenTheirIdsEncodeTheSame() throws Exception
+    {
+        // given two ids that are numerically the same, but not equal
+        EncodingIdMapper mapper = new EncodingIdMapper( 1 );
+        List<Object> ids = new ArrayList<>();
+        ids.add( 10L );
+        ids.add( 10 );
+        ids.add( 11L );
+        putAll( mapper, ids );
+
+        // when
+        mapper.prepare( ids );
+
+        // then
+        assertEquals( 0, mapper.get( 10L ) );
+        assertEquals( 1, mapper.get( 10 ) );
+        assertEquals( 2, mapper.get( 11L ) );
+        assertEquals( IdMapper.NOT_FOUND, mapper.get( (short) 10 ) );
+    }
+
+    @Test
+    public void shouldDetectIdsUsedByMoreThanOneNode() throws Exception
+    {
+        // given
+        EncodingIdMapper mapper = new EncodingIdMapper( 2 );
+        List<Object> ids = new ArrayList<>();
+        for ( int i = 0; i < 5_000; i++ )
+        {
+            ids.add( "node" + i );
+        }
+        ids.add( "node17" );
+        putAll( mapper, ids );
+
+        try
+        {
+            // when
+            mapper.prepare( ids );
+            fail( "Should have failed" );
+        }
+        catch ( IllegalArgumentException e )
+        {
+            // then
+            assertTrue( e.getMessage().contains( "node17" ) );
+        }
+    }
+
+    @Test
+    public void shouldRequireIncreasingNodeIds() throws Exception
+    {
+        // given
+        EncodingIdMapper mapper = new EncodingIdMapper( 1 );
+        mapper.put( "a", 5 );
+
+        try
+        {
+            // when
+            mapper.put( "b", 5 );
+            fail( "Should have failed" );
+        }
+        catch ( IllegalArgumentException e )
+        {
+            // then good
+        }
+    }
+
+    private void putAll( IdMapper mapper, List<Object> ids )
+    {
+        for ( int nodeId = 0; nodeId < ids.size(); nodeId++ )
+        {
+            mapper.put( ids.get( nodeId ), nodeId );
+        }
+    }
+}
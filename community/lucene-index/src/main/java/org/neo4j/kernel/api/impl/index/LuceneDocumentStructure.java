@@ -25,10 +25,16 @@ import org.apache.lucene.document.Fieldable;
 import org.apache.lucene.document.NumericField;
 import org.apache.lucene.index.FieldInfo.IndexOptions;
 import org.apache.lucene.index.Term;
+import org.apache.lucene.search.NumericRangeQuery;
+import org.apache.lucene.search.PrefixQuery;
 import org.apache.lucene.search.Query;
+import org.apache.lucene.search.Sort;
+import org.apache.lucene.search.SortField;
 import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TermRangeQuery;
 
 import org.neo4j.index.impl.lucene.LuceneUtil;
+import org.neo4j.kernel.api.index.CompositeIndexValue;
 
 import static org.apache.lucene.document.Field.Index.NOT_ANALYZED;
 import static org.apache.lucene.document.Field.Store.NO;
@@ -43,6 +49,7 @@ class LuceneDocumentStructure
     private static final String ARRAY_PROPERTY_FIELD_IDENTIFIER = "array";
     private static final String BOOL_PROPERTY_FIELD_IDENTIFIER = "bool";
     private static final String NUMBER_PROPERTY_FIELD_IDENTIFIER = "number";
+    private static final String COMPOSITE_PROPERTY_FIELD_IDENTIFIER = "composite";
 
     Document newDocument( long nodeId )
     {
@@ -55,7 +62,11 @@ class LuceneDocumentStructure
     {
         Document document = newDocument( nodeId );
         
-        if ( value instanceof Number )
+        if ( value instanceof CompositeIndexValue )
+        {
+            document.add( field( COMPOSITE_PROPERTY_FIELD_IDENTIFIER, encodeComposite( (CompositeIndexValue) value ) ) );
+        }
+        else if ( value instanceof Number )
         {
             NumericField numberField = new NumericField( NUMBER_PROPERTY_FIELD_IDENTIFIER, NO, true );
             numberField.setDoubleValue( ((Number) value).doubleValue() );
@@ -104,7 +115,12 @@ class LuceneDocumentStructure
 
     public Query newQuery( Object value )
     {
-        if ( value instanceof Number )
+        if ( value instanceof CompositeIndexValue )
+        {
+            return new TermQuery( new Term( COMPOSITE_PROPERTY_FIELD_IDENTIFIER,
+                    encodeComposite( (CompositeIndexValue) value ) ) );
+        }
+        else if ( value instanceof Number )
         {
             Number number = (Number) value;
             return LuceneUtil.rangeQuery( NUMBER_PROPERTY_FIELD_IDENTIFIER, number.doubleValue(),
@@ -124,6 +140,56 @@ class LuceneDocumentStructure
         }
     }
 
+    public Query newRangeSeekByNumberQuery( Number lower, boolean includeLower, Number upper, boolean includeUpper )
+    {
+        return NumericRangeQuery.newDoubleRange( NUMBER_PROPERTY_FIELD_IDENTIFIER,
+                lower == null ? null : lower.doubleValue(), upper == null ? null : upper.doubleValue(),
+                includeLower, includeUpper );
+    }
+
+    public Query newRangeSeekByStringQuery( String lower, boolean includeLower, String upper, boolean includeUpper )
+    {
+        return new TermRangeQuery( STRING_PROPERTY_FIELD_IDENTIFIER, lower, upper, includeLower, includeUpper );
+    }
+
+    public Query newRangeSeekByPrefixQuery( String prefix )
+    {
+        return new PrefixQuery( new Term( STRING_PROPERTY_FIELD_IDENTIFIER, prefix ) );
+    }
+
+    public Sort numberOrder()
+    {
+        return new Sort( new SortField( NUMBER_PROPERTY_FIELD_IDENTIFIER, SortField.DOUBLE ) );
+    }
+
+    public Sort stringOrder()
+    {
+        return new Sort( new SortField( STRING_PROPERTY_FIELD_IDENTIFIER, SortField.STRING ) );
+    }
+
+    /**
+     * Each value of the tuple is encoded the way a single element array would be, so that numbers of different
+     * types still compare equal, while array values are kept apart by brackets.
+     */
+    private static String encodeComposite( CompositeIndexValue value )
+    {
+        StringBuilder builder = new StringBuilder();
+        for ( int i = 0; i < value.size(); i++ )
+        {
+            Object component = value.get( i );
+            if ( component.getClass().isArray() )
+            {
+                builder.append( '[' ).append( encode( component ) ).append( ']' );
+            }
+            else
+            {
+                builder.append( encode( new Object[]{component} ) );
+            }
+            builder.append( ';' );
+        }
+        return builder.toString();
+    }
+
     public Term newQueryForChangeOrRemove( long nodeId )
     {
         return new Term( NODE_ID_KEY, "" + nodeId );
@@ -22,7 +22,9 @@ package org.neo4j.kernel.api.impl.index;
 import java.io.IOException;
 
 import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
 import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.Sort;
 
 import org.neo4j.index.impl.lucene.Hits;
 import org.neo4j.kernel.api.index.IndexReader;
@@ -43,10 +45,37 @@ class LuceneIndexAccessorReader implements IndexReader
 
     @Override
     public PrimitiveLongIterator lookup( final Object value )
+    {
+        return query( documentLogic.newQuery( value ), null );
+    }
+
+    @Override
+    public PrimitiveLongIterator rangeSeekByNumber( Number lower, boolean includeLower,
+                                                    Number upper, boolean includeUpper )
+    {
+        return query( documentLogic.newRangeSeekByNumberQuery( lower, includeLower, upper, includeUpper ),
+                documentLogic.numberOrder() );
+    }
+
+    @Override
+    public PrimitiveLongIterator rangeSeekByString( String lower, boolean includeLower,
+                                                    String upper, boolean includeUpper )
+    {
+        return query( documentLogic.newRangeSeekByStringQuery( lower, includeLower, upper, includeUpper ),
+                documentLogic.stringOrder() );
+    }
+
+    @Override
+    public PrimitiveLongIterator rangeSeekByPrefix( String prefix )
+    {
+        return query( documentLogic.newRangeSeekByPrefixQuery( prefix ), documentLogic.stringOrder() );
+    }
+
+    private PrimitiveLongIterator query( Query query, Sort order )
     {
         try
         {
-            Hits hits = new Hits( searcher, documentLogic.newQuery( value ), null );
+            Hits hits = new Hits( searcher, query, null, order, false );
             return new HitsPrimitiveLongIterator( hits, documentLogic );
         }
         catch ( IOException e )
@@ -26,6 +26,7 @@ import java.util.List;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
+import org.neo4j.kernel.api.index.CompositeIndexValue;
 import org.neo4j.kernel.api.index.IndexEntryConflictException;
 import org.neo4j.kernel.api.index.IndexReader;
 import org.neo4j.kernel.api.index.IndexUpdater;
@@ -36,7 +37,9 @@ import static java.util.Arrays.asList;
 import static org.junit.Assert.*;
 import static org.neo4j.helpers.collection.IteratorUtil.asSet;
 import static org.neo4j.helpers.collection.IteratorUtil.asUniqueSet;
+import static org.neo4j.helpers.collection.IteratorUtil.emptyListOf;
 import static org.neo4j.helpers.collection.IteratorUtil.emptySetOf;
+import static org.neo4j.helpers.collection.IteratorUtil.primitivesList;
 import static org.neo4j.kernel.api.impl.index.IndexWriterFactories.standard;
 
 public class LuceneIndexAccessorTest
@@ -120,6 +123,81 @@ public class LuceneIndexAccessorTest
         reader.close();
     }
 
+    @Test
+    public void shouldRangeSeekByNumberInValueOrder() throws Exception
+    {
+        // GIVEN
+        updateAndCommit( asList(
+                add( 1, 40 ),
+                add( 2, -3.5 ),
+                add( 3, 12L ),
+                add( 4, 100 ),
+                add( 5, "12" ) ) );
+        IndexReader reader = accessor.newReader();
+
+        // THEN
+        assertEquals( asList( 3L, 1L ), primitivesList( reader.rangeSeekByNumber( 12, true, 100, false ) ) );
+        assertEquals( asList( 1L ), primitivesList( reader.rangeSeekByNumber( 12, false, 100, false ) ) );
+        assertEquals( asList( 2L, 3L ), primitivesList( reader.rangeSeekByNumber( null, false, 40, false ) ) );
+        assertEquals( asList( 2L, 3L, 1L, 4L ), primitivesList( reader.rangeSeekByNumber( null, false, null, false ) ) );
+        reader.close();
+    }
+
+    @Test
+    public void shouldRangeSeekByStringInValueOrder() throws Exception
+    {
+        // GIVEN
+        updateAndCommit( asList(
+                add( 1, "banana" ),
+                add( 2, "apple" ),
+                add( 3, "cherry" ),
+                add( 4, 'b' ),
+                add( 5, 7 ) ) );
+        IndexReader reader = accessor.newReader();
+
+        // THEN
+        assertEquals( asList( 4L, 1L ), primitivesList( reader.rangeSeekByString( "b", true, "cherry", false ) ) );
+        assertEquals( asList( 1L, 3L ), primitivesList( reader.rangeSeekByString( "b", false, null, false ) ) );
+        assertEquals( asList( 2L, 4L, 1L, 3L ), primitivesList( reader.rangeSeekByString( null, false, null, false ) ) );
+        reader.close();
+    }
+
+    @Test
+    public void shouldRangeSeekByPrefixInValueOrder() throws Exception
+    {
+        // GIVEN
+        updateAndCommit( asList(
+                add( 1, "abcd" ),
+                add( 2, "abc" ),
+                add( 3, "ab" ),
+                add( 4, "bcd" ) ) );
+        IndexReader reader = accessor.newReader();
+
+        // THEN
+        assertEquals( asList( 2L, 1L ), primitivesList( reader.rangeSeekByPrefix( "abc" ) ) );
+        assertEquals( asList( 3L, 2L, 1L ), primitivesList( reader.rangeSeekByPrefix( "a" ) ) );
+        assertEquals( emptyListOf( Long.class ), primitivesList( reader.rangeSeekByPrefix( "c" ) ) );
+        reader.close();
+    }
+
+    @Test
+    public void shouldLookupCompositeValuesByEveryComponent() throws Exception
+    {
+        // GIVEN
+        updateAndCommit( asList(
+                add( 1, new CompositeIndexValue( "acme", 10 ) ),
+                add( 2, new CompositeIndexValue( "acme", 11 ) ),
+                add( 3, new CompositeIndexValue( "initech", 10 ) ),
+                add( 4, new CompositeIndexValue( "acme", new int[]{10} ) ) ) );
+        IndexReader reader = accessor.newReader();
+
+        // THEN
+        assertEquals( asSet( 1L ), asUniqueSet( reader.lookup( new CompositeIndexValue( "acme", 10L ) ) ) );
+        assertEquals( asSet( 4L ), asUniqueSet( reader.lookup( new CompositeIndexValue( "acme", new long[]{10} ) ) ) );
+        assertEquals( emptySetOf( Long.class ), asUniqueSet( reader.lookup( new CompositeIndexValue( 10, "acme" ) ) ) );
+        reader.close();
+    }
+
     private final long nodeId = 1, nodeId2 = 2;
     private final Object value = "value", value2 = 40;
     private final LuceneDocumentStructure documentLogic = new LuceneDocumentStructure();
@@ -0,0 +1,79 @@
+/**
+ * Copyright (c) 2002-2013 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.jmx;
+
+import javax.management.ObjectName;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.neo4j.cypher.javacompat.ExecutionEngine;
+import org.neo4j.graphdb.factory.GraphDatabaseSettings;
+import org.neo4j.helpers.collection.IteratorUtil;
+import org.neo4j.kernel.GraphDatabaseAPI;
+import org.neo4j.test.TestGraphDatabaseFactory;
+
+import static org.junit.Assert.assertEquals;
+
+import static org.neo4j.jmx.JmxUtils.getAttribute;
+import static org.neo4j.jmx.JmxUtils.getObjectName;
+
+public class TestQueryCacheBean
+{
+    private GraphDatabaseAPI db;
+    private ExecutionEngine engine;
+
+    @Before
+    public void startDatabase()
+    {
+        db = (GraphDatabaseAPI) new TestGraphDatabaseFactory().newImpermanentDatabaseBuilder()
+                .setConfig( GraphDatabaseSettings.query_cache_size, "1" ).newGraphDatabase();
+        engine = new ExecutionEngine( db );
+    }
+
+    @After
+    public void stopDatabase()
+    {
+        db.shutdown();
+    }
+
+    @Test
+    public void shouldExposeTheCypherPlanCacheCountersOverJmx() throws Exception
+    {
+        // given
+        ObjectName queryCache = getObjectName( db, QueryCache.NAME );
+
+        // when
+        execute( "MATCH (n) WHERE n.age > 30 RETURN n" );
+        execute( "MATCH (n) WHERE n.age > 40 RETURN n" );
+        execute( "MATCH (n) WHERE n.name = 'Andres' RETURN n" );
+
+        // then
+        assertEquals( 1L, getAttribute( queryCache, "HitCount" ) );
+        assertEquals( 2L, getAttribute( queryCache, "MissCount" ) );
+        assertEquals( 1L, getAttribute( queryCache, "EvictionCount" ) );
+    }
+
+    private void execute( String query )
+    {
+        IteratorUtil.count( engine.execute( query ).iterator() );
+    }
+}
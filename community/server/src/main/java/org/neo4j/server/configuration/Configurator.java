@@ -110,6 +110,9 @@ public interface Configurator
     String TRANSACTION_TIMEOUT = "org.neo4j.server.transaction.timeout";
     int DEFAULT_TRANSACTION_TIMEOUT = 60/*seconds*/;
 
+    String BATCH_PARALLEL_READS = "org.neo4j.server.batch.parallel_reads";
+    boolean DEFAULT_BATCH_PARALLEL_READS = false;
+
     Configuration configuration();
 
     Map<String, String> getDatabaseTuningProperties();
@@ -0,0 +1,364 @@
+/**
+ * Copyright (c) 2002-2013 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.server.rest.batch;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
+import java.net.URI;
+import java.net.URLDecoder;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.Response;
+
+import org.neo4j.graphdb.Transaction;
+import org.neo4j.kernel.GraphDatabaseAPI;
+import org.neo4j.kernel.impl.transaction.xaframework.ForceMode;
+import org.neo4j.kernel.impl.util.JobScheduler;
+import org.neo4j.server.rest.repr.OutputFormat;
+import org.neo4j.server.rest.repr.formats.JsonFormat;
+import org.neo4j.server.rest.web.DatabaseActions;
+import org.neo4j.server.rest.web.DatabaseActions.RelationshipDirection;
+import org.neo4j.server.rest.web.InternalJettyServletResponse;
+import org.neo4j.server.rest.web.RestfulGraphDatabase;
+import org.neo4j.server.rest.web.RestfulGraphDatabase.AmpersandSeparatedCollection;
+
+/**
+ * Routes batch jobs that target the node, relationship and property resources straight to a
+ * {@link RestfulGraphDatabase}, instead of replaying them through the web server. The responses are produced by the
+ * same resource methods as for a regular request, so the batch results look the same, but the per job cost of
+ * building a servlet request, matching it in Jersey and negotiating formats goes away.
+ *
+ * Jobs that this dispatcher doesn't recognize are reported as such, and are left to the web server.
+ */
+public class BatchOperationDispatcher
+{
+    private final RestfulGraphDatabase resource;
+    private final URI baseUri;
+    private final GraphDatabaseAPI graph;
+    private final JobScheduler scheduler;
+
+    public BatchOperationDispatcher( DatabaseActions actions, OutputFormat output, URI baseUri )
+    {
+        this( actions, output, baseUri, null );
+    }
+
+    /**
+     * @param output the output format of the batch request. Responses are always rendered as plain JSON, so that
+     * they are complete by the time they are returned, but with the base URI and extensions of this format.
+     * @param baseUri the URI that batch jobs are resolved against.
+     * @param graph the database to read from when jobs are {@link #schedule(String, URI, String, String) scheduled},
+     * or {@code null} if all jobs are to be executed on the calling thread.
+     */
+    public BatchOperationDispatcher( DatabaseActions actions, OutputFormat output, URI baseUri,
+                                     GraphDatabaseAPI graph )
+    {
+        JsonFormat format = new JsonFormat();
+        this.resource = new RestfulGraphDatabase( format, output.using( format ), actions );
+        this.baseUri = baseUri;
+        this.graph = graph;
+        this.scheduler = graph == null ? null : graph.getDependencyResolver().resolveDependency( JobScheduler.class );
+    }
+
+    public boolean canSchedule()
+    {
+        return scheduler != null;
+    }
+
+    /**
+     * Executes a job in the transaction of the calling thread.
+     *
+     * @return the response of the job, or {@code null} if the target is not handled by this dispatcher.
+     */
+    public Response dispatch( String method, URI targetUri, String body, String forceMode )
+    {
+        if ( targetUri.getRawQuery() != null || targetUri.getRawFragment() != null )
+        {
+            return null;
+        }
+        String relativePath = baseUri.relativize( targetUri ).getRawPath();
+        if ( relativePath.startsWith( "/" ) || relativePath.endsWith( "/" ) )
+        {
+            return null;
+        }
+        String[] path;
+        ForceMode force;
+        try
+        {
+            path = decode( relativePath.split( "/" ) );
+            force = forceMode == null ? null : ForceMode.valueOf( forceMode );
+        }
+        catch ( IllegalArgumentException e )
+        {
+            return null;
+        }
+        // Malformed requests are left to the web server, so that they fail the same way they always have
+        return isWellFormed( path ) ? route( method, path, body, force ) : null;
+    }
+
+    /**
+     * Executes a read-only job on the job scheduler of the database, in a transaction of its own. Since that
+     * transaction doesn't see the changes of the batch transaction, this must only be used for jobs that precede
+     * every write in the batch.
+     */
+    public Future<Response> schedule( final String method, final URI targetUri, final String body,
+                                      final String forceMode )
+    {
+        FutureTask<Response> job = new FutureTask<>( new Callable<Response>()
+        {
+            @Override
+            public Response call()
+            {
+                try ( Transaction tx = graph.beginTx() )
+                {
+                    Response response = dispatch( method, targetUri, body, forceMode );
+                    tx.success();
+                    return response;
+                }
+            }
+        } );
+        scheduler.schedule( job );
+        return job;
+    }
+
+    /**
+     * Writes the status, location and entity of a response produced by {@link #dispatch(String, URI, String, String)}
+     * as if the job had been served by the web server.
+     */
+    public static void write( Response response, InternalJettyServletResponse res ) throws IOException
+    {
+        res.setStatus( response.getStatus() );
+        Object location = response.getMetadata().getFirst( HttpHeaders.LOCATION );
+        if ( location != null )
+        {
+            res.setHeader( HttpHeaders.LOCATION, location.toString() );
+        }
+        Object entity = response.getEntity();
+        OutputStream output = res.getOutputStream();
+        if ( entity instanceof byte[] )
+        {
+            output.write( (byte[]) entity );
+        }
+        else if ( entity != null )
+        {
+            output.write( entity.toString().getBytes( "UTF-8" ) );
+        }
+    }
+
+    private Response route( String method, String[] path, String body, ForceMode force )
+    {
+        switch ( path[0] )
+        {
+        case "node":
+            return path.length == 1 ? ( "POST".equals( method ) ? resource.createNode( force, body ) : null )
+                                    : routeNode( method, Long.parseLong( path[1] ), path, body, force );
+        case "relationship":
+            return path.length == 1 ? null
+                                    : routeRelationship( method, Long.parseLong( path[1] ), path, body, force );
+        default:
+            return null;
+        }
+    }
+
+    private Response routeNode( String method, long nodeId, String[] path, String body, ForceMode force )
+    {
+        if ( path.length == 2 )
+        {
+            switch ( method )
+            {
+            case "GET":
+                return resource.getNode( nodeId );
+            case "DELETE":
+                return resource.deleteNode( force, nodeId );
+            default:
+                return null;
+            }
+        }
+        switch ( path[2] )
+        {
+        case "properties":
+            if ( path.length == 3 )
+            {
+                switch ( method )
+                {
+                case "GET":
+                    return resource.getAllNodeProperties( nodeId );
+                case "PUT":
+                    return resource.setAllNodeProperties( force, nodeId, body );
+                case "DELETE":
+                    return resource.deleteAllNodeProperties( force, nodeId );
+                default:
+                    return null;
+                }
+            }
+            if ( path.length == 4 )
+            {
+                switch ( method )
+                {
+                case "GET":
+                    return resource.getNodeProperty( force, nodeId, path[3] );
+                case "PUT":
+                    return resource.setNodeProperty( force, nodeId, path[3], body );
+                case "DELETE":
+                    return resource.deleteNodeProperty( force, nodeId, path[3] );
+                default:
+                    return null;
+                }
+            }
+            return null;
+        case "relationships":
+            if ( path.length == 3 )
+            {
+                return "POST".equals( method ) ? resource.createRelationship( force, nodeId, body ) : null;
+            }
+            if ( !"GET".equals( method ) || path.length > 5 )
+            {
+                return null;
+            }
+            RelationshipDirection direction = RelationshipDirection.valueOf( path[3] );
+            return path.length == 4 ? resource.getNodeRelationships( nodeId, direction )
+                                    : resource.getNodeRelationships( nodeId, direction,
+                                            new AmpersandSeparatedCollection( path[4] ) );
+        case "labels":
+            if ( path.length != 3 )
+            {
+                return null;
+            }
+            switch ( method )
+            {
+            case "GET":
+                return resource.getNodeLabels( force, nodeId );
+            case "POST":
+                return resource.addNodeLabel( force, nodeId, body );
+            default:
+                return null;
+            }
+        default:
+            return null;
+        }
+    }
+
+    private Response routeRelationship( String method, long relationshipId, String[] path, String body,
+                                        ForceMode force )
+    {
+        if ( path.length == 2 )
+        {
+            switch ( method )
+            {
+            case "GET":
+                return resource.getRelationship( relationshipId );
+            case "DELETE":
+                return resource.deleteRelationship( force, relationshipId );
+            default:
+                return null;
+            }
+        }
+        if ( !"properties".equals( path[2] ) )
+        {
+            return null;
+        }
+        if ( path.length == 3 )
+        {
+            switch ( method )
+            {
+            case "GET":
+                return resource.getAllRelationshipProperties( relationshipId );
+            case "PUT":
+                return resource.setAllRelationshipProperties( force, relationshipId, body );
+            case "DELETE":
+                return resource.deleteAllRelationshipProperties( force, relationshipId );
+            default:
+                return null;
+            }
+        }
+        if ( path.length == 4 )
+        {
+            switch ( method )
+            {
+            case "GET":
+                return resource.getRelationshipProperty( relationshipId, path[3] );
+            case "PUT":
+                return resource.setRelationshipProperty( force, relationshipId, path[3], body );
+            case "DELETE":
+                return resource.deleteRelationshipProperty( force, relationshipId, path[3] );
+            default:
+                return null;
+            }
+        }
+        return null;
+    }
+
+    private static boolean isWellFormed( String[] path )
+    {
+        if ( path.length > 1 && !isId( path[1] ) )
+        {
+            return false;
+        }
+        if ( path.length > 3 && path[0].equals( "node" ) && path[2].equals( "relationships" ) )
+        {
+            return isDirection( path[3] );
+        }
+        return true;
+    }
+
+    private static boolean isId( String segment )
+    {
+        try
+        {
+            Long.parseLong( segment );
+            return true;
+        }
+        catch ( NumberFormatException e )
+        {
+            return false;
+        }
+    }
+
+    private static boolean isDirection( String segment )
+    {
+        for ( RelationshipDirection direction : RelationshipDirection.values() )
+        {
+            if ( direction.name().equals( segment ) )
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String[] decode( String[] segments )
+    {
+        try
+        {
+            for ( int i = 0; i < segments.length; i++ )
+            {
+                segments[i] = URLDecoder.decode( segments[i].replace( "+", "%2B" ), "UTF-8" );
+            }
+            return segments;
+        }
+        catch ( UnsupportedEncodingException e )
+        {
+            throw new RuntimeException( e );
+        }
+    }
+}
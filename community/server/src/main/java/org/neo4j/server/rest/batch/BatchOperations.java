@@ -23,13 +23,18 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.StringWriter;
 import java.net.URI;
+import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 import javax.servlet.ServletException;
 import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.Response;
 import javax.ws.rs.core.UriInfo;
 
 import org.codehaus.jackson.JsonFactory;
@@ -48,13 +53,29 @@ public abstract class BatchOperations
     protected static final String METHOD_KEY = "method";
     protected static final String BODY_KEY = "body";
     protected static final String TO_KEY = "to";
+    protected static final String TRANSACTION_HEADER = "Transaction";
     protected static final JsonFactory jsonFactory = new JsonFactory();
     protected final WebServer webServer;
+    protected final BatchOperationDispatcher dispatcher;
     protected final ObjectMapper mapper;
+    private final int maxScheduledJobs;
+    private Future<Response> scheduledResponse;
 
     public BatchOperations( WebServer webServer )
+    {
+        this( webServer, null );
+    }
+
+    /**
+     * @param dispatcher executes the jobs it knows directly rather than through the web server. If it
+     * {@link BatchOperationDispatcher#canSchedule() can schedule}, the read-only jobs at the start of a batch run
+     * concurrently. May be {@code null}, in which case every job goes through the web server.
+     */
+    public BatchOperations( WebServer webServer, BatchOperationDispatcher dispatcher )
     {
         this.webServer = webServer;
+        this.dispatcher = dispatcher;
+        this.maxScheduledJobs = Runtime.getRuntime().availableProcessors() * 2;
         mapper = new ObjectMapper();
     }
 
@@ -139,6 +160,31 @@ public abstract class BatchOperations
 
     protected void parseAndPerform( UriInfo uriInfo, HttpHeaders httpHeaders, InputStream body, Map<Integer, String> locations ) throws IOException, ServletException
     {
+        Deque<ScheduledJob> scheduled = new ArrayDeque<>();
+        try
+        {
+            parseAndPerform( uriInfo, httpHeaders, body, locations, scheduled );
+        }
+        finally
+        {
+            for ( ScheduledJob job : scheduled )
+            {
+                job.response.cancel( false );
+            }
+        }
+    }
+
+    /**
+     * Jobs are performed in the order they are given. Reads that precede the first write of the batch and don't
+     * refer to the result of other jobs are scheduled as soon as they are parsed though, with a bounded number in
+     * flight, and their results are collected in order. They can't be scheduled past the first write since they
+     * run in transactions of their own, which wouldn't see the changes made by the batch so far.
+     */
+    private void parseAndPerform( UriInfo uriInfo, HttpHeaders httpHeaders, InputStream body,
+                                  Map<Integer, String> locations, Deque<ScheduledJob> scheduled )
+            throws IOException, ServletException
+    {
+        boolean schedulingReads = dispatcher != null && dispatcher.canSchedule();
         JsonParser jp = jsonFactory.createJsonParser(body);
         JsonToken token;
         while ((token = jp.nextToken()) != null)
@@ -167,11 +213,45 @@ public abstract class BatchOperations
                         break;
                     }
                 }
-                // Read one job description. Execute it.
+                // Read one job description. Execute it, or schedule it if it's an independent read.
+                if ( schedulingReads && jobMethod.equals( "GET" ) && !jobPath.contains( "{" ) )
+                {
+                    if ( scheduled.size() >= maxScheduledJobs )
+                    {
+                        performScheduled( uriInfo, httpHeaders, locations, scheduled.removeFirst() );
+                    }
+                    Future<Response> response = dispatcher.schedule( jobMethod, calculateTargetUri( uriInfo, jobPath ),
+                            jobBody, httpHeaders.getRequestHeaders().getFirst( TRANSACTION_HEADER ) );
+                    scheduled.addLast( new ScheduledJob( jobMethod, jobPath, jobBody, jobId, response ) );
+                    continue;
+                }
+                while ( !scheduled.isEmpty() )
+                {
+                    performScheduled( uriInfo, httpHeaders, locations, scheduled.removeFirst() );
+                }
+                schedulingReads &= jobMethod.equals( "GET" );
                 performRequest( uriInfo, jobMethod, jobPath, jobBody,
                         jobId, httpHeaders, locations );
             }
         }
+        while ( !scheduled.isEmpty() )
+        {
+            performScheduled( uriInfo, httpHeaders, locations, scheduled.removeFirst() );
+        }
+    }
+
+    private void performScheduled( UriInfo uriInfo, HttpHeaders httpHeaders, Map<Integer, String> locations,
+                                   ScheduledJob job ) throws IOException, ServletException
+    {
+        scheduledResponse = job.response;
+        try
+        {
+            performRequest( uriInfo, job.method, job.path, job.body, job.id, httpHeaders, locations );
+        }
+        finally
+        {
+            scheduledResponse = null;
+        }
     }
 
     private String readBody( JsonParser jp ) throws IOException
@@ -200,5 +280,71 @@ public abstract class BatchOperations
         invoke( method, path, body, id, targetUri, req, res );
     }
 
+    /**
+     * Executes a job, writing its outcome to the given response. Jobs that the dispatcher handles, or has already
+     * executed ahead of time, are taken from it. The rest go through the web server.
+     */
+    protected void execute( String method, String body, URI targetUri, InternalJettyServletRequest req,
+                            InternalJettyServletResponse res ) throws IOException, ServletException
+    {
+        Response response = null;
+        if ( scheduledResponse != null )
+        {
+            response = awaitScheduledResponse();
+        }
+        else if ( dispatcher != null )
+        {
+            response = dispatcher.dispatch( method, targetUri, body, req.getHeader( TRANSACTION_HEADER ) );
+        }
+
+        if ( response != null )
+        {
+            BatchOperationDispatcher.write( response, res );
+        }
+        else
+        {
+            webServer.invokeDirectly( targetUri.getPath(), req, res );
+        }
+    }
+
+    private Response awaitScheduledResponse() throws ServletException
+    {
+        try
+        {
+            return scheduledResponse.get();
+        }
+        catch ( InterruptedException e )
+        {
+            Thread.currentThread().interrupt();
+            throw new ServletException( e );
+        }
+        catch ( ExecutionException e )
+        {
+            if ( e.getCause() instanceof RuntimeException )
+            {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new ServletException( e.getCause() );
+        }
+    }
+
     protected abstract void invoke( String method, String path, String body, Integer id, URI targetUri, InternalJettyServletRequest req, InternalJettyServletResponse res ) throws IOException, ServletException;
+
+    private static class ScheduledJob
+    {
+        private final String method;
+        private final String path;
+        private final String body;
+        private final Integer id;
+        private final Future<Response> response;
+
+        ScheduledJob( String method, String path, String body, Integer id, Future<Response> response )
+        {
+            this.method = method;
+            this.path = path;
+            this.body = body;
+            this.id = id;
+            this.response = response;
+        }
+    }
 }
@@ -42,6 +42,11 @@ public class NonStreamingBatchOperations extends BatchOperations
         super( webServer );
     }
 
+    public NonStreamingBatchOperations( WebServer webServer, BatchOperationDispatcher dispatcher )
+    {
+        super( webServer, dispatcher );
+    }
+
     public BatchOperationResults performBatchJobs( UriInfo uriInfo, HttpHeaders httpHeaders, InputStream body ) throws IOException, ServletException
     {
         results = new BatchOperationResults();
@@ -52,7 +57,7 @@ public class NonStreamingBatchOperations extends BatchOperations
     @Override
     protected void invoke( String method, String path, String body, Integer id, URI targetUri, InternalJettyServletRequest req, InternalJettyServletResponse res ) throws IOException, ServletException
     {
-        webServer.invokeDirectly(targetUri.getPath(), req, res);
+        execute( method, body, targetUri, req, res );
 
         String resultBody = res.getOutputStream().toString();
         if (is2XXStatusCode(res.getStatus()))
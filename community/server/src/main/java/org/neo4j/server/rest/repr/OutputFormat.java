@@ -58,6 +58,14 @@ public class OutputFormat
         this.representationWriteHandler = representationWriteHandler;
     }
 
+    /**
+     * @return an output format with the same base URI and extensions as this one, that uses the given format.
+     */
+    public OutputFormat using( RepresentationFormat format )
+    {
+        return new OutputFormat( format, baseUri, extensions );
+    }
+
     public final Response ok( Representation representation )
     {
         if ( representation.isEmpty() )
@@ -41,13 +41,18 @@ import org.neo4j.server.rest.transactional.error.Neo4jError;
  * order, as follows:
  * <ul>
  * <li>{@link #transactionCommitUri(URI) transactionId}{@code ?}</li>
- * <li>{@link #statementResult(org.neo4j.cypher.javacompat.ExecutionResult, boolean, ResultDataContent...) statementResult}{@code *}</li>
+ * <li>{@link #statementResult(org.neo4j.cypher.javacompat.ExecutionResult, boolean, ResultDataContent...) statementResult}
+ * or {@link #statementResult(ResultCursor, URI) statementResult}{@code *}</li>
  * <li>{@link #errors(Iterable) errors}{@code ?}</li>
  * <li>{@link #transactionStatus(long expiryDate)}{@code ?}</li>
  * <li>{@link #finish() finish}</li>
  * </ul>
  * <p/>
  * Where {@code ?} means invoke at most once, and {@code *} means invoke zero or more times.
+ * <p/>
+ * Rows are written as they are pulled from the result, and the output is flushed every {@link #FLUSH_INTERVAL} rows,
+ * so that large results reach the client in chunks while memory use stays bounded by the buffers of the generator
+ * and the connection. A slow client blocks the writes, which in turn stops rows from being pulled from the result.
  */
 public class ExecutionResultSerializer
 {
@@ -100,7 +105,7 @@ public class ExecutionResultSerializer
             {
                 Iterable<String> columns = result.columns();
                 writeColumns( columns );
-                writeRows( columns, result.iterator(), configureWriters( resultDataContents ) );
+                writeRows( columns, result.iterator(), configureWriters( resultDataContents ), 0 );
                 if ( includeStats )
                 {
                     writeStats( result.getQueryStatistics() );
@@ -117,6 +122,45 @@ public class ExecutionResultSerializer
         }
     }
 
+    /**
+     * Will get called at most once per statement, in place of
+     * {@link #statementResult(org.neo4j.cypher.javacompat.ExecutionResult, boolean, ResultDataContent...)}, when the
+     * result is sent a page at a time. Writes the next page of the cursor, followed by the uri of the page after it if
+     * there are rows left, or the statistics of the statement if not. Throws IOException so that upstream executor can
+     * decide whether to execute further statements.
+     */
+    public void statementResult( ResultCursor cursor, URI nextPageUri ) throws IOException
+    {
+        try
+        {
+            ensureResultsFieldOpen();
+            out.writeStartObject();
+            try
+            {
+                Iterable<String> columns = cursor.columns();
+                writeColumns( columns );
+                writeRows( columns, cursor.rows(), configureWriters( cursor.resultDataContents() ),
+                        cursor.pageSize() );
+                if ( cursor.hasMore() )
+                {
+                    out.writeStringField( "next", nextPageUri.toString() );
+                }
+                else if ( cursor.includeStats() )
+                {
+                    writeStats( cursor.queryStatistics() );
+                }
+            }
+            finally
+            {
+                out.writeEndObject(); // </result>
+            }
+        }
+        catch ( IOException e )
+        {
+            throw loggedIOException( e );
+        }
+    }
+
     private void writeStats( QueryStatistics stats ) throws IOException
     {
         out.writeObjectFieldStart( "stats" );
@@ -248,6 +292,8 @@ public class ExecutionResultSerializer
 
     private State currentState = State.EMPTY;
 
+    static final int FLUSH_INTERVAL = 1000;
+
     private static final JsonFactory JSON_FACTORY = new JsonFactory( new Neo4jJsonCodec() );
     private final JsonGenerator out;
     private final URI baseUri;
@@ -283,12 +329,12 @@ public class ExecutionResultSerializer
     }
 
     private void writeRows( Iterable<String> columns, Iterator<Map<String, Object>> data,
-                            ResultDataContentWriter writer ) throws IOException
+                            ResultDataContentWriter writer, int maxRows ) throws IOException
     {
         out.writeArrayFieldStart( "data" );
         try
         {
-            while ( data.hasNext() )
+            for ( int rows = 1; (maxRows == 0 || rows <= maxRows) && data.hasNext(); rows++ )
             {
                 Map<String, Object> row = data.next();
                 out.writeStartObject();
@@ -300,6 +346,10 @@ public class ExecutionResultSerializer
                 {
                     out.writeEndObject();
                 }
+                if ( rows % FLUSH_INTERVAL == 0 )
+                {
+                    out.flush();
+                }
             }
         }
         finally
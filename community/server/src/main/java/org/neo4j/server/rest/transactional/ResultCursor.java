@@ -0,0 +1,93 @@
+/**
+ * Copyright (c) 2002-2013 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.server.rest.transactional;
+
+import java.util.List;
+import java.util.Map;
+
+import org.neo4j.cypher.javacompat.ExecutionResult;
+import org.neo4j.cypher.javacompat.QueryStatistics;
+import org.neo4j.graphdb.ResourceIterator;
+
+/**
+ * The rows of a statement result that have not been sent to the client yet. Cursors live in a
+ * {@link TransactionHandle} between requests, so that a large result can be pulled page by page within one
+ * transaction, instead of being written to a single response.
+ */
+public class ResultCursor
+{
+    private final ExecutionResult result;
+    private final ResourceIterator<Map<String, Object>> rows;
+    private final List<String> columns;
+    private final boolean includeStats;
+    private final int pageSize;
+    private final ResultDataContent[] resultDataContents;
+
+    public ResultCursor( ExecutionResult result, boolean includeStats, int pageSize,
+                         ResultDataContent... resultDataContents )
+    {
+        this.result = result;
+        this.rows = result.iterator();
+        this.columns = result.columns();
+        this.includeStats = includeStats;
+        this.pageSize = pageSize;
+        this.resultDataContents = resultDataContents;
+    }
+
+    public List<String> columns()
+    {
+        return columns;
+    }
+
+    public ResourceIterator<Map<String, Object>> rows()
+    {
+        return rows;
+    }
+
+    public int pageSize()
+    {
+        return pageSize;
+    }
+
+    public ResultDataContent[] resultDataContents()
+    {
+        return resultDataContents;
+    }
+
+    public boolean includeStats()
+    {
+        return includeStats;
+    }
+
+    public QueryStatistics queryStatistics()
+    {
+        return result.getQueryStatistics();
+    }
+
+    public boolean hasMore()
+    {
+        return rows.hasNext();
+    }
+
+    public void close()
+    {
+        rows.close();
+    }
+}
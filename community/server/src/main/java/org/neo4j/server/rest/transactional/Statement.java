@@ -26,14 +26,22 @@ public class Statement
     private final String statement;
     private final Map<String, Object> parameters;
     private final boolean includeStats;
+    private final int pageSize;
     private final ResultDataContent[] resultDataContents;
 
     public Statement( String statement, Map<String, Object> parameters, boolean includeStats,
                       ResultDataContent... resultDataContents )
+    {
+        this( statement, parameters, includeStats, 0, resultDataContents );
+    }
+
+    public Statement( String statement, Map<String, Object> parameters, boolean includeStats, int pageSize,
+                      ResultDataContent... resultDataContents )
     {
         this.statement = statement;
         this.parameters = parameters;
         this.includeStats = includeStats;
+        this.pageSize = pageSize;
         this.resultDataContents = resultDataContents;
     }
 
@@ -56,4 +64,13 @@ public class Statement
     {
         return includeStats;
     }
+
+    /**
+     * @return the maximum number of rows to return in the response to the request executing this statement, the
+     * rest being left in a cursor on the transaction, or 0 to return all rows.
+     */
+    public int pageSize()
+    {
+        return pageSize;
+    }
 }
@@ -107,6 +107,7 @@ public class StatementDeserializer extends PrefetchingIterator<Statement>
                     Map<String, Object> parameters = null;
                     List<Object> resultsDataContents = null;
                     boolean includeStats = false;
+                    int pageSize = 0;
                     JsonToken tok;
 
                     while ( (tok = input.nextToken()) != null && tok != END_OBJECT )
@@ -134,6 +135,9 @@ public class StatementDeserializer extends PrefetchingIterator<Statement>
                         case "includeStats":
                             includeStats = input.getBooleanValue();
                             break;
+                        case "pageSize":
+                            pageSize = input.getIntValue();
+                            break;
                         default:
                             discardValue( input );
                         }
@@ -144,8 +148,13 @@ public class StatementDeserializer extends PrefetchingIterator<Statement>
                         addError( new Neo4jError( Status.Request.InvalidFormat, new DeserializationException( "No statement provided." ) ) );
                         return null;
                     }
+                    if ( pageSize < 0 )
+                    {
+                        addError( new Neo4jError( Status.Request.InvalidFormat, new DeserializationException( "Page size may not be negative." ) ) );
+                        return null;
+                    }
                     return new Statement( statement, parameters == null ? NO_PARAMETERS : parameters, includeStats,
-                                          ResultDataContent.fromNames( resultsDataContents ) );
+                                          pageSize, ResultDataContent.fromNames( resultsDataContents ) );
 
 
                 case FINISHED:
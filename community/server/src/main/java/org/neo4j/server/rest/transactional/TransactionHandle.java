@@ -21,9 +21,11 @@ package org.neo4j.server.rest.transactional;
 
 import java.io.IOException;
 import java.net.URI;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 
 import org.neo4j.cypher.CypherException;
 import org.neo4j.cypher.javacompat.ExecutionEngine;
@@ -51,6 +53,11 @@ import org.neo4j.server.rest.web.TransactionUriScheme;
  *
  * All of the public methods on this class are "single-shot"; once you have called one method, the handle returns itself
  * to the registry. If you want to use it again, you'll need to acquire it back from the registry to ensure exclusive use.
+ *
+ * Statements that ask for a page size only have that many rows written in the response. The rest of their result is
+ * kept in a {@link ResultCursor} on the handle, which later requests pull from with {@link #fetch(long,
+ * ExecutionResultSerializer)}. Cursors are closed when the transaction ends. Statements executed while committing
+ * always write their whole result, since the cursor could not outlive the transaction.
  */
 public class TransactionHandle
 {
@@ -62,6 +69,8 @@ public class TransactionHandle
     private final TransactionUriScheme uriScheme;
     private final StringLogger log;
     private final long id;
+    private final Map<Long, ResultCursor> cursors = new HashMap<>();
+    private long nextCursorId;
     private TransitionalTxManagementKernelTransaction context;
 
     public TransactionHandle( TransitionalPeriodTransactionMessContainer txManagerFacade, ExecutionEngine engine,
@@ -100,6 +109,26 @@ public class TransactionHandle
         }
     }
 
+    public void fetch( long cursorId, ExecutionResultSerializer output )
+    {
+        List<Neo4jError> errors = new LinkedList<>();
+        try
+        {
+            output.transactionCommitUri( uriScheme.txCommitUri( id ) );
+            ensureActiveTransaction();
+            fetch( cursorId, output, errors );
+        }
+        catch ( InternalBeginTransactionError e )
+        {
+            errors.add( e.toNeo4jError() );
+        }
+        finally
+        {
+            output.errors( errors );
+            output.finish();
+        }
+    }
+
     public void commit( StatementDeserializer statements, ExecutionResultSerializer output )
     {
         List<Neo4jError> errors = new LinkedList<>();
@@ -141,6 +170,7 @@ public class TransactionHandle
     public void forceRollback() throws TransactionFailureException
     {
         context.resumeSinceTransactionsAreStillThreadBound();
+        closeCursors();
         context.rollback();
     }
 
@@ -167,8 +197,70 @@ public class TransactionHandle
     private void execute( StatementDeserializer statements, ExecutionResultSerializer output,
                           List<Neo4jError> errors )
     {
-        executeStatements( statements, output, errors );
+        executeStatements( statements, output, errors, true );
+        suspendOrRollback( output, errors );
+    }
+
+    private void fetch( long cursorId, ExecutionResultSerializer output, List<Neo4jError> errors )
+    {
+        ResultCursor cursor = cursors.get( cursorId );
+        if ( cursor == null )
+        {
+            errors.add( new Neo4jError( Status.Transaction.UnknownCursor, new IllegalArgumentException(
+                    "Unrecognized cursor id. The cursor may have been read to the end already." ) ) );
+        }
+        else
+        {
+            try
+            {
+                writePage( cursorId, cursor, output );
+            }
+            catch ( IOException e )
+            {
+                errors.add( new Neo4jError( Status.Network.UnknownFailure, e ) );
+            }
+            catch ( Exception e )
+            {
+                errors.add( new Neo4jError( Status.Statement.ExecutionFailure, e ) );
+            }
+        }
+        suspendOrRollback( output, errors );
+    }
+
+    private void writePage( long cursorId, ResultCursor cursor, ExecutionResultSerializer output ) throws IOException
+    {
+        try
+        {
+            output.statementResult( cursor, uriScheme.txCursorUri( id, cursorId ) );
+        }
+        catch ( IOException | RuntimeException e )
+        {
+            // The page may have been written in part, so the cursor can't be resumed where the client left off
+            cursors.remove( cursorId );
+            cursor.close();
+            throw e;
+        }
+        if ( cursor.hasMore() )
+        {
+            cursors.put( cursorId, cursor );
+        }
+        else
+        {
+            cursors.remove( cursorId );
+        }
+    }
 
+    private void closeCursors()
+    {
+        for ( ResultCursor cursor : cursors.values() )
+        {
+            cursor.close();
+        }
+        cursors.clear();
+    }
+
+    private void suspendOrRollback( ExecutionResultSerializer output, List<Neo4jError> errors )
+    {
         if ( Status.Code.shouldRollBackOn( errors ) )
         {
             rollback( errors );
@@ -186,7 +278,8 @@ public class TransactionHandle
     {
         try
         {
-            executeStatements( statements, output, errors );
+            executeStatements( statements, output, errors, false );
+            closeCursors();
 
             if ( errors.isEmpty() )
             {
@@ -223,6 +316,7 @@ public class TransactionHandle
     {
         try
         {
+            closeCursors();
             context.rollback();
         }
         catch ( Exception e )
@@ -237,7 +331,7 @@ public class TransactionHandle
     }
 
     private void executeStatements( StatementDeserializer statements, ExecutionResultSerializer output,
-                                    List<Neo4jError> errors )
+                                    List<Neo4jError> errors, boolean allowCursors )
     {
         try
         {
@@ -248,7 +342,15 @@ public class TransactionHandle
                 try
                 {
                     result = engine.execute( statement.statement(), statement.parameters() );
-                    output.statementResult( result, statement.includeStats(), statement.resultDataContents() );
+                    if ( allowCursors && statement.pageSize() > 0 )
+                    {
+                        writePage( nextCursorId++, new ResultCursor( result, statement.includeStats(),
+                                statement.pageSize(), statement.resultDataContents() ), output );
+                    }
+                    else
+                    {
+                        output.statementResult( result, statement.includeStats(), statement.resultDataContents() );
+                    }
                 }
                 catch ( CypherException e )
                 {
@@ -81,6 +81,7 @@ public interface Status
     {
         // database
         UnknownId( ClientError ),
+        UnknownCursor( ClientError ),
         ConcurrentRequest( ClientError ),
         // client
         CouldNotBegin( DatabaseError ),
@@ -34,9 +34,13 @@ import javax.ws.rs.core.Response;
 import javax.ws.rs.core.StreamingOutput;
 import javax.ws.rs.core.UriInfo;
 
+import org.apache.commons.configuration.Configuration;
 import org.eclipse.jetty.util.log.Log;
 import org.eclipse.jetty.util.log.Logger;
 
+import org.neo4j.server.configuration.Configurator;
+import org.neo4j.server.database.Database;
+import org.neo4j.server.rest.batch.BatchOperationDispatcher;
 import org.neo4j.server.rest.batch.BatchOperationResults;
 import org.neo4j.server.rest.batch.NonStreamingBatchOperations;
 import org.neo4j.server.rest.repr.OutputFormat;
@@ -52,12 +56,21 @@ public class BatchOperationService {
 
     private final OutputFormat output;
     private final WebServer webServer;
+    private final DatabaseActions actions;
+    private final Database database;
+    private final boolean parallelReads;
     private RepresentationWriteHandler representationWriteHandler = RepresentationWriteHandler.DO_NOTHING;
 
-    public BatchOperationService( @Context WebServer webServer, @Context OutputFormat output )
+    public BatchOperationService( @Context WebServer webServer, @Context OutputFormat output,
+                                  @Context DatabaseActions actions, @Context Database database,
+                                  @Context Configuration config )
     {
         this.output = output;
         this.webServer = webServer;
+        this.actions = actions;
+        this.database = database;
+        this.parallelReads = config.getBoolean( Configurator.BATCH_PARALLEL_READS,
+                Configurator.DEFAULT_BATCH_PARALLEL_READS );
     }
 
     public void setRepresentationWriteHandler( RepresentationWriteHandler representationWriteHandler )
@@ -95,8 +108,8 @@ public class BatchOperationService {
                                 output.write( i );
                             }
                         };
-                        new StreamingBatchOperations( webServer ).readAndExecuteOperations( uriInfo, httpHeaders, body,
-                                servletOutputStream );
+                        new StreamingBatchOperations( webServer, dispatcher( uriInfo ) )
+                                .readAndExecuteOperations( uriInfo, httpHeaders, body, servletOutputStream );
                         representationWriteHandler.onRepresentationWritten();
                     }
                     catch ( Exception e )
@@ -122,7 +135,8 @@ public class BatchOperationService {
     {
         try
         {
-            NonStreamingBatchOperations batchOperations = new NonStreamingBatchOperations( webServer );
+            NonStreamingBatchOperations batchOperations =
+                    new NonStreamingBatchOperations( webServer, dispatcher( uriInfo ) );
             BatchOperationResults results = batchOperations.performBatchJobs( uriInfo, httpHeaders, body );
 
             Response res = Response.ok().entity(results.toJSON())
@@ -141,6 +155,16 @@ public class BatchOperationService {
         }
     }
 
+    /**
+     * Jobs on nodes, relationships and their properties are always handed straight to the REST API. Only when
+     * parallel reads are enabled does the dispatcher get the database to run the leading reads of a batch on.
+     */
+    private BatchOperationDispatcher dispatcher( UriInfo uriInfo )
+    {
+        return new BatchOperationDispatcher( actions, output, uriInfo.getBaseUri(),
+                parallelReads ? database.getGraph() : null );
+    }
+
     private boolean isStreaming( HttpHeaders httpHeaders )
     {
         if ( "true".equalsIgnoreCase( httpHeaders.getRequestHeaders().getFirst( StreamingFormat.STREAM_HEADER ) ) )
@@ -34,6 +34,7 @@ import javax.ws.rs.core.UriInfo;
 import org.eclipse.jetty.util.log.Log;
 import org.eclipse.jetty.util.log.Logger;
 
+import org.neo4j.server.rest.batch.BatchOperationDispatcher;
 import org.neo4j.server.rest.batch.BatchOperations;
 import org.neo4j.server.rest.batch.StreamingBatchOperationResults;
 import org.neo4j.server.rest.domain.BatchOperationFailedException;
@@ -51,6 +52,11 @@ public class StreamingBatchOperations extends BatchOperations
         super( webServer );
     }
 
+    public StreamingBatchOperations( WebServer webServer, BatchOperationDispatcher dispatcher )
+    {
+        super( webServer, dispatcher );
+    }
+
     public void readAndExecuteOperations( UriInfo uriInfo, HttpHeaders httpHeaders, InputStream body, ServletOutputStream output ) throws IOException, ServletException {
         results = new StreamingBatchOperationResults(jsonFactory.createJsonGenerator(output),output);
         Map<Integer, String> locations = results.getLocations();
@@ -66,7 +72,7 @@ public class StreamingBatchOperations extends BatchOperations
         results.startOperation(path,id);
         try {
             res = new BatchInternalJettyServletResponse(results.getServletOutputStream());
-            webServer.invokeDirectly(targetUri.getPath(), req, res);
+            execute( method, body, targetUri, req, res );
         } catch(Exception e) {
             LOGGER.warn( e );
             results.writeError( 500, e.getMessage() );
@@ -115,6 +115,23 @@ public class TransactionalService
         return okResponse( executeStatementsAndCommit( input, transactionHandle ) );
     }
 
+    @POST
+    @Path("/{id}/cursor/{cursorId}")
+    @Produces({MediaType.APPLICATION_JSON})
+    public Response fetchPage( @PathParam("id") final long id, @PathParam("cursorId") final long cursorId )
+    {
+        final TransactionHandle transactionHandle;
+        try
+        {
+            transactionHandle = facade.findTransactionHandle( id );
+        }
+        catch ( TransactionLifecycleException e )
+        {
+            return invalidTransaction( e );
+        }
+        return okResponse( fetch( cursorId, transactionHandle ) );
+    }
+
     @POST
     @Path("/commit")
     @Consumes({MediaType.APPLICATION_JSON})
@@ -200,6 +217,18 @@ public class TransactionalService
         };
     }
 
+    private StreamingOutput fetch( final long cursorId, final TransactionHandle transactionHandle )
+    {
+        return new StreamingOutput()
+        {
+            @Override
+            public void write( OutputStream output ) throws IOException, WebApplicationException
+            {
+                transactionHandle.fetch( cursorId, facade.serializer( output ) );
+            }
+        };
+    }
+
     private StreamingOutput rollback( final TransactionHandle transactionHandle )
     {
         return new StreamingOutput()
@@ -247,6 +276,12 @@ public class TransactionalService
             return builder( id ).path( "/commit" ).build();
         }
 
+        @Override
+        public URI txCursorUri( long id, long cursorId )
+        {
+            return builder( id ).path( "/cursor/" + cursorId ).build();
+        }
+
         private UriBuilder builder( long id )
         {
             return uriInfo.getBaseUriBuilder().path( TransactionalService.class ).path( "/" + id );
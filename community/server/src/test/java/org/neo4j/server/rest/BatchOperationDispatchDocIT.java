@@ -0,0 +1,335 @@
+/**
+ * Copyright (c) 2002-2013 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.server.rest;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.junit.After;
+import org.junit.Test;
+
+import org.neo4j.server.CommunityNeoServer;
+import org.neo4j.test.server.ExclusiveServerTestBase;
+import org.neo4j.test.server.HTTP;
+
+import static java.util.Arrays.asList;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import static org.neo4j.helpers.collection.MapUtil.map;
+import static org.neo4j.server.configuration.Configurator.BATCH_PARALLEL_READS;
+import static org.neo4j.server.helpers.CommunityServerBuilder.server;
+import static org.neo4j.server.rest.domain.JsonHelper.createJsonFrom;
+import static org.neo4j.server.rest.domain.JsonHelper.readJson;
+import static org.neo4j.server.rest.repr.StreamingFormat.STREAM_HEADER;
+import static org.neo4j.test.server.HTTP.RawPayload.rawPayload;
+
+/**
+ * Batch jobs on nodes, relationships and their properties are handed straight to the REST API, and with parallel
+ * reads enabled the leading reads of a batch run concurrently. Either way every job has to answer exactly like it
+ * does when it is sent to the web server as a request of its own.
+ */
+public class BatchOperationDispatchDocIT extends ExclusiveServerTestBase
+{
+    private static final Pattern PLACEHOLDER = Pattern.compile( "\\{(\\d+)\\}" );
+
+    private CommunityNeoServer server;
+
+    @After
+    public void stopTheServer()
+    {
+        if ( server != null )
+        {
+            server.stop();
+        }
+    }
+
+    @Test
+    public void shouldAnswerDispatchedJobsLikeIndividualRequests() throws Exception
+    {
+        // Given
+        List<Map<String, Object>> batch = asList(
+                job( 0, "POST", "/node", map( "name", "Joe" ) ),
+                job( 1, "POST", "/node", map( "name", "John" ) ),
+                job( 2, "POST", "{0}/relationships", map( "to", "{1}", "type", "KNOWS" ) ),
+                job( 3, "PUT", "{0}/properties/age", 36 ),
+                job( 4, "PUT", "{2}/properties", map( "since", 2001 ) ),
+                job( 5, "POST", "{1}/labels", "Person" ),
+                job( 6, "GET", "{0}" ),
+                job( 7, "GET", "{0}/properties" ),
+                job( 8, "GET", "{0}/relationships/out/KNOWS" ),
+                job( 9, "GET", "{2}/properties/since" ),
+                job( 10, "GET", "{1}/labels" ),
+                job( 11, "DELETE", "{0}/properties/age" ) );
+
+        // When
+        List<Object> individually = individualResultsOf( batch );
+
+        // Then
+        assertThat( streamedResultsOf( false, batch ), equalTo( individually ) );
+        assertThat( streamedResultsOf( true, batch ), equalTo( individually ) );
+        assertThat( resultsOf( false, batch ), equalTo( withoutStatuses( individually ) ) );
+        assertThat( resultsOf( true, batch ), equalTo( withoutStatuses( individually ) ) );
+    }
+
+    @Test
+    public void shouldReportFailingJobsLikeIndividualRequests() throws Exception
+    {
+        // Given
+        List<Map<String, Object>> batch = asList(
+                job( 0, "POST", "/node", map( "name", "Joe" ) ),
+                job( 1, "GET", "{0}/properties/age" ) );
+
+        // When
+        List<Object> individually = individualResultsOf( batch );
+
+        // Then
+        assertThat( individually.get( 1 ), equalTo( (Object) map( "status", 404 ) ) );
+        assertThat( streamedResultsOf( false, batch ), equalTo( individually ) );
+        assertThat( streamedResultsOf( true, batch ), equalTo( individually ) );
+    }
+
+    @Test
+    public void shouldRunScheduledReadsLikeIndividualRequests() throws Exception
+    {
+        // Given
+        List<Map<String, Object>> setup = asList(
+                job( 0, "POST", "/node", map( "name", "Joe" ) ),
+                job( 1, "POST", "/node", map( "name", "John" ) ),
+                job( 2, "POST", "{0}/relationships", map( "to", "{1}", "type", "KNOWS" ) ),
+                job( 3, "POST", "{0}/labels", "Person" ) );
+        List<Map<String, Object>> reads = asList(
+                job( 0, "GET", "/relationship/types" ),
+                job( 1, "GET", "/node/0" ),
+                job( 2, "GET", "/labels" ),
+                job( 3, "GET", "/node/0/relationships/all" ),
+                job( 4, "GET", "/label/Person/nodes" ),
+                job( 5, "GET", "/node/0/properties" ),
+                job( 6, "POST", "/node", map( "name", "Jane" ) ),
+                job( 7, "GET", "/node/1000" ) );
+
+        // When
+        List<Object> individually = individualResultsOf( setup, reads );
+
+        // Then
+        assertThat( streamedResultsOf( false, setup, reads ), equalTo( individually ) );
+        assertThat( streamedResultsOf( true, setup, reads ), equalTo( individually ) );
+    }
+
+    private Map<String, Object> job( int id, String method, String to )
+    {
+        return map( "id", id, "method", method, "to", to );
+    }
+
+    private Map<String, Object> job( int id, String method, String to, Object body )
+    {
+        return map( "id", id, "method", method, "to", to, "body", body );
+    }
+
+    /**
+     * Sends every job of the batches as a request of its own to a new server, replacing the {N} placeholders with
+     * the locations of the earlier jobs like a batch does, and returns the outcome of each job.
+     */
+    @SafeVarargs
+    private final List<Object> individualResultsOf( List<Map<String, Object>>... batches ) throws Exception
+    {
+        startServer( false );
+        try
+        {
+            String dataUri = server.baseUri().toString() + "db/data";
+            List<Object> results = new ArrayList<>();
+            for ( List<Map<String, Object>> batch : batches )
+            {
+                Map<Integer, String> locations = new HashMap<>();
+                for ( Map<String, Object> job : batch )
+                {
+                    String to = withLocations( (String) job.get( "to" ), locations );
+                    String method = (String) job.get( "method" );
+                    HTTP.Response response = job.containsKey( "body" )
+                            ? HTTP.withHeaders().exec( method, to.startsWith( "/" ) ? dataUri + to : to,
+                                    rawPayload( withLocations( createJsonFrom( job.get( "body" ) ), locations ) ) )
+                            : HTTP.withHeaders().exec( method, to.startsWith( "/" ) ? dataUri + to : to );
+                    String location = response.header( "Location" );
+                    if ( location != null )
+                    {
+                        locations.put( (Integer) job.get( "id" ), location );
+                    }
+                    String content = response.rawContent();
+                    results.add( outcome( response.status(), content.isEmpty() ? null : readJson( content ),
+                            location ) );
+                }
+            }
+            return results;
+        }
+        finally
+        {
+            stopServer();
+        }
+    }
+
+    /**
+     * Runs the batches one after the other as streamed batch requests on a new server, and returns the outcome of
+     * each job.
+     */
+    @SafeVarargs
+    private final List<Object> streamedResultsOf( boolean parallelReads, List<Map<String, Object>>... batches )
+            throws Exception
+    {
+        startServer( parallelReads );
+        try
+        {
+            List<Object> results = new ArrayList<>();
+            for ( List<Map<String, Object>> batch : batches )
+            {
+                List<Map<String, Object>> content = HTTP.withHeaders( STREAM_HEADER, "true" )
+                        .POST( server.baseUri().toString() + "db/data/batch", batch ).content();
+                for ( Map<String, Object> job : content )
+                {
+                    results.add( outcome( (Integer) job.get( "status" ), job.get( "body" ),
+                            (String) job.get( "location" ) ) );
+                }
+            }
+            return results;
+        }
+        finally
+        {
+            stopServer();
+        }
+    }
+
+    /**
+     * Runs a batch request that isn't streamed on a new server, and returns the outcome of each job. These results
+     * don't tell the status of the jobs.
+     */
+    private List<Object> resultsOf( boolean parallelReads, List<Map<String, Object>> batch ) throws Exception
+    {
+        startServer( parallelReads );
+        try
+        {
+            HTTP.Response response = HTTP.POST( server.baseUri().toString() + "db/data/batch", batch );
+            assertThat( response.status(), equalTo( 200 ) );
+            List<Object> results = new ArrayList<>();
+            for ( Map<String, Object> job : response.<List<Map<String, Object>>>content() )
+            {
+                results.add( outcome( null, job.get( "body" ), (String) job.get( "location" ) ) );
+            }
+            return results;
+        }
+        finally
+        {
+            stopServer();
+        }
+    }
+
+    /**
+     * A batch doesn't return the body of a failing job, only its status and a message, so that is all there is to
+     * compare. Stack traces are left out, since they tell how a job was executed, not what its outcome was.
+     */
+    private Map<String, Object> outcome( Integer status, Object body, String location )
+    {
+        Map<String, Object> outcome = new HashMap<>();
+        if ( status != null )
+        {
+            outcome.put( "status", status );
+            if ( status >= 300 )
+            {
+                return outcome;
+            }
+        }
+        if ( body != null )
+        {
+            outcome.put( "body", withoutStackTraces( body ) );
+        }
+        if ( location != null )
+        {
+            outcome.put( "location", location );
+        }
+        return outcome;
+    }
+
+    private List<Object> withoutStatuses( List<Object> outcomes )
+    {
+        List<Object> result = new ArrayList<>();
+        for ( Object outcome : outcomes )
+        {
+            Map<?, ?> withoutStatus = new HashMap<>( (Map<?, ?>) outcome );
+            withoutStatus.remove( "status" );
+            result.add( withoutStatus );
+        }
+        return result;
+    }
+
+    private String withLocations( String value, Map<Integer, String> locations )
+    {
+        Matcher matcher = PLACEHOLDER.matcher( value );
+        StringBuffer result = new StringBuffer();
+        while ( matcher.find() )
+        {
+            String location = locations.get( Integer.valueOf( matcher.group( 1 ) ) );
+            matcher.appendReplacement( result, Matcher.quoteReplacement( location != null ? location
+                                                                                           : matcher.group() ) );
+        }
+        matcher.appendTail( result );
+        return result.toString();
+    }
+
+    private void startServer( boolean parallelReads ) throws Exception
+    {
+        server = server().withProperty( BATCH_PARALLEL_READS, String.valueOf( parallelReads ) ).build();
+        server.start();
+    }
+
+    private void stopServer()
+    {
+        server.stop();
+        server = null;
+    }
+
+    private Object withoutStackTraces( Object content )
+    {
+        if ( content instanceof List )
+        {
+            List<Object> result = new ArrayList<>();
+            for ( Object element : (List<?>) content )
+            {
+                result.add( withoutStackTraces( element ) );
+            }
+            return result;
+        }
+        if ( content instanceof Map )
+        {
+            Map<Object, Object> result = new HashMap<>();
+            for ( Map.Entry<?, ?> entry : ((Map<?, ?>) content).entrySet() )
+            {
+                if ( !"stacktrace".equals( entry.getKey() ) )
+                {
+                    result.put( entry.getKey(), withoutStackTraces( entry.getValue() ) );
+                }
+            }
+            return result;
+        }
+        return content;
+    }
+}
@@ -0,0 +1,93 @@
+/**
+ * Copyright (c) 2002-2013 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.server.rest.batch;
+
+import java.net.URI;
+
+import javax.ws.rs.core.Response;
+
+import org.junit.Test;
+
+import org.neo4j.kernel.impl.transaction.xaframework.ForceMode;
+import org.neo4j.server.rest.repr.OutputFormat;
+import org.neo4j.server.rest.repr.formats.JsonFormat;
+import org.neo4j.server.rest.web.DatabaseActions;
+import org.neo4j.server.rest.web.InternalJettyServletResponse;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
+import static org.mockito.Mockito.when;
+
+public class BatchOperationDispatcherTest
+{
+    private static final URI BASE_URI = URI.create( "http://localhost:7474/db/data/" );
+
+    private final DatabaseActions actions = mock( DatabaseActions.class );
+    private final BatchOperationDispatcher dispatcher = new BatchOperationDispatcher( actions,
+            new OutputFormat( new JsonFormat(), BASE_URI, null ), BASE_URI );
+
+    @Test
+    public void shouldDispatchKnownResourcesDirectly() throws Exception
+    {
+        // given
+        when( actions.forceMode( any( ForceMode.class ) ) ).thenReturn( actions );
+
+        // when
+        Response response = dispatcher.dispatch( "DELETE", BASE_URI.resolve( "relationship/3" ), "", null );
+
+        // then
+        assertEquals( 204, response.getStatus() );
+        verify( actions ).deleteRelationship( 3 );
+    }
+
+    @Test
+    public void shouldLeaveUnknownOrMalformedRequestsToTheWebServer() throws Exception
+    {
+        assertNull( dispatcher.dispatch( "GET", BASE_URI.resolve( "index/node/people" ), "", null ) );
+        assertNull( dispatcher.dispatch( "GET", BASE_URI.resolve( "node/1?key=value" ), "", null ) );
+        assertNull( dispatcher.dispatch( "GET", BASE_URI.resolve( "node/one" ), "", null ) );
+        assertNull( dispatcher.dispatch( "GET", BASE_URI.resolve( "node/1/relationships/sideways" ), "", null ) );
+        assertNull( dispatcher.dispatch( "GET", BASE_URI.resolve( "node/1" ), "", "NO_SUCH_MODE" ) );
+        assertNull( dispatcher.dispatch( "PATCH", BASE_URI.resolve( "node/1" ), "", null ) );
+        assertNull( dispatcher.dispatch( "GET", URI.create( "http://localhost:7474/db/manage/" ), "", null ) );
+        verifyZeroInteractions( actions );
+    }
+
+    @Test
+    public void shouldWriteResponseAsIfServedByTheWebServer() throws Exception
+    {
+        // given
+        Response response = Response.created( BASE_URI.resolve( "node/1" ) )
+                .entity( "{\"data\":{}}".getBytes( "UTF-8" ) ).build();
+        InternalJettyServletResponse res = new InternalJettyServletResponse();
+
+        // when
+        BatchOperationDispatcher.write( response, res );
+
+        // then
+        assertEquals( 201, res.getStatus() );
+        assertEquals( "http://localhost:7474/db/data/node/1", res.getHeader( "Location" ) );
+        assertEquals( "{\"data\":{}}", res.getOutputStream().toString() );
+    }
+}
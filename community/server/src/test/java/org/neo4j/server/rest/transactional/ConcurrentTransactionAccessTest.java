@@ -108,5 +108,11 @@ public class ConcurrentTransactionAccessTest
         {
             return txUri( id );
         }
+
+        @Override
+        public URI txCursorUri( long id, long cursorId )
+        {
+            return txUri( id );
+        }
     }
 }
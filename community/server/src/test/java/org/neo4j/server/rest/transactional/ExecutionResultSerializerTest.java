@@ -548,7 +548,35 @@ public class ExecutionResultSerializerTest
         log.assertExactly( error( "Failed to generate JSON output.", failure ) );
     }
 
-    @SafeVarargs
+    @Test
+    public void shouldSerializeResultCursorOnePageAtATime() throws Exception
+    {
+        // given
+        ResultCursor cursor = new ResultCursor( mockExecutionResult(
+                map( "column1", "value1" ),
+                map( "column1", "value2" ),
+                map( "column1", "value3" ) ), false, 2 );
+        URI nextPage = URI.create( "transaction/1/cursor/0" );
+
+        // when
+        ByteArrayOutputStream firstOutput = new ByteArrayOutputStream();
+        ExecutionResultSerializer serializer = new ExecutionResultSerializer( firstOutput, null, StringLogger.DEV_NULL );
+        serializer.statementResult( cursor, nextPage );
+        serializer.finish();
+
+        ByteArrayOutputStream secondOutput = new ByteArrayOutputStream();
+        serializer = new ExecutionResultSerializer( secondOutput, null, StringLogger.DEV_NULL );
+        serializer.statementResult( cursor, nextPage );
+        serializer.finish();
+
+        // then
+        assertEquals( "{\"results\":[{\"columns\":[\"column1\"]," +
+                      "\"data\":[{\"row\":[\"value1\"]},{\"row\":[\"value2\"]}]," +
+                      "\"next\":\"transaction/1/cursor/0\"}],\"errors\":[]}", firstOutput.toString( "UTF-8" ) );
+        assertEquals( "{\"results\":[{\"columns\":[\"column1\"]," +
+                      "\"data\":[{\"row\":[\"value3\"]}]}],\"errors\":[]}", secondOutput.toString( "UTF-8" ) );
+    }
+
     private static ExecutionResult mockExecutionResult( Map<String, Object>... rows )
     {
         Set<String> keys = new HashSet<>();
@@ -19,8 +19,10 @@
  */
 package org.neo4j.server.rest.transactional;
 
+import java.io.IOException;
 import java.net.URI;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
 
 import org.hamcrest.Description;
@@ -34,6 +36,7 @@ import org.mockito.stubbing.Answer;
 import org.neo4j.cypher.SyntaxException;
 import org.neo4j.cypher.javacompat.ExecutionEngine;
 import org.neo4j.cypher.javacompat.ExecutionResult;
+import org.neo4j.graphdb.ResourceIterator;
 import org.neo4j.kernel.impl.util.StringLogger;
 import org.neo4j.server.rest.transactional.error.Neo4jError;
 import org.neo4j.server.rest.transactional.error.Status;
@@ -54,6 +57,7 @@ import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.verifyZeroInteractions;
 import static org.mockito.Mockito.when;
 
+import static org.neo4j.helpers.collection.IteratorUtil.asResourceIterator;
 import static org.neo4j.helpers.collection.MapUtil.map;
 import static org.neo4j.server.rest.transactional.StubStatementDeserializer.statements;
 
@@ -382,6 +386,93 @@ public class TransactionHandleTest
         verifyNoMoreInteractions( output );
     }
 
+    @Test
+    public void shouldKeepTheRestOfAPagedResultForLaterRequests() throws Exception
+    {
+        // given
+        TransitionalPeriodTransactionMessContainer kernel = mockKernel();
+
+        ExecutionEngine executionEngine = mock( ExecutionEngine.class );
+        ExecutionResult executionResult = mock( ExecutionResult.class );
+        when( executionResult.iterator() ).thenReturn( asResourceIterator( asList( map(), map() ).iterator() ) );
+        when( executionEngine.execute( "query", map() ) ).thenReturn( executionResult );
+        TransactionRegistry registry = mock( TransactionRegistry.class );
+        when( registry.begin() ).thenReturn( 1337l );
+        TransactionHandle handle = new TransactionHandle( kernel, executionEngine,
+                registry, uriScheme, StringLogger.DEV_NULL );
+        ExecutionResultSerializer firstOutput = mock( ExecutionResultSerializer.class );
+        ExecutionResultSerializer secondOutput = mock( ExecutionResultSerializer.class );
+
+        // when
+        handle.execute( statements( new Statement( "query", map(), false, 1, (ResultDataContent[]) null ) ),
+                firstOutput );
+        handle.fetch( 0, secondOutput );
+
+        // then
+        verify( firstOutput ).statementResult( any( ResultCursor.class ), eq( uriScheme.txCursorUri( 1337, 0 ) ) );
+        verify( firstOutput ).errors( argThat( hasNoErrors() ) );
+        verify( secondOutput ).statementResult( any( ResultCursor.class ), eq( uriScheme.txCursorUri( 1337, 0 ) ) );
+        verify( secondOutput ).errors( argThat( hasNoErrors() ) );
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void shouldCloseAndForgetCursorWhenWritingAPageFails() throws Exception
+    {
+        // given
+        TransitionalPeriodTransactionMessContainer kernel = mockKernel();
+
+        ResourceIterator<Map<String, Object>> rows = mock( ResourceIterator.class );
+        when( rows.hasNext() ).thenReturn( true );
+        ExecutionEngine executionEngine = mock( ExecutionEngine.class );
+        ExecutionResult executionResult = mock( ExecutionResult.class );
+        when( executionResult.iterator() ).thenReturn( rows );
+        when( executionEngine.execute( "query", map() ) ).thenReturn( executionResult );
+        TransactionRegistry registry = mock( TransactionRegistry.class );
+        when( registry.begin() ).thenReturn( 1337l );
+        TransactionHandle handle = new TransactionHandle( kernel, executionEngine,
+                registry, uriScheme, StringLogger.DEV_NULL );
+        handle.execute( statements( new Statement( "query", map(), false, 1, (ResultDataContent[]) null ) ),
+                mock( ExecutionResultSerializer.class ) );
+
+        ExecutionResultSerializer failingOutput = mock( ExecutionResultSerializer.class );
+        doThrow( new IOException( "Connection reset" ) ).when( failingOutput )
+                .statementResult( any( ResultCursor.class ), eq( uriScheme.txCursorUri( 1337, 0 ) ) );
+
+        // when
+        handle.fetch( 0, failingOutput );
+
+        // then
+        verify( failingOutput ).errors( argThat( hasErrors( Status.Network.UnknownFailure ) ) );
+        verify( rows ).close();
+        ExecutionResultSerializer output = mock( ExecutionResultSerializer.class );
+        handle.fetch( 0, output );
+        verify( output ).errors( argThat( hasErrors( Status.Transaction.UnknownCursor ) ) );
+    }
+
+    @Test
+    public void shouldReportUnknownCursors() throws Exception
+    {
+        // given
+        TransitionalPeriodTransactionMessContainer kernel = mockKernel();
+        TransactionRegistry registry = mock( TransactionRegistry.class );
+        when( registry.begin() ).thenReturn( 1337l );
+        TransactionHandle handle = new TransactionHandle( kernel, mock( ExecutionEngine.class ),
+                registry, uriScheme, StringLogger.DEV_NULL );
+        ExecutionResultSerializer output = mock( ExecutionResultSerializer.class );
+
+        // when
+        handle.fetch( 42, output );
+
+        // then
+        InOrder outputOrder = inOrder( output );
+        outputOrder.verify( output ).transactionCommitUri( uriScheme.txCommitUri( 1337 ) );
+        outputOrder.verify( output ).transactionStatus( anyLong() );
+        outputOrder.verify( output ).errors( argThat( hasErrors( Status.Transaction.UnknownCursor ) ) );
+        outputOrder.verify( output ).finish();
+        verifyNoMoreInteractions( output );
+    }
+
     private static final TransactionUriScheme uriScheme = new TransactionUriScheme()
     {
         @Override
@@ -395,6 +486,12 @@ public class TransactionHandleTest
         {
             return URI.create( "transaction/" + id + "/commit" );
         }
+
+        @Override
+        public URI txCursorUri( long id, long cursorId )
+        {
+            return URI.create( "transaction/" + id + "/cursor/" + cursorId );
+        }
     };
 
     private TransitionalPeriodTransactionMessContainer mockKernel()
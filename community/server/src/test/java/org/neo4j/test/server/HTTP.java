@@ -223,7 +223,7 @@ public class HTTP
         public Response( ClientResponse response )
         {
             this.response = response;
-            this.entity = response.getEntity( String.class );
+            this.entity = response.getStatus() == 204 ? "" : response.getEntity( String.class );
         }
 
         public int status()
@@ -241,6 +241,11 @@ public class HTTP
                     "unable to provide location. Status code was: " + status() );
         }
 
+        public String header( String name )
+        {
+            return response.getHeaders().getFirst( name );
+        }
+
         @SuppressWarnings("unchecked")
         public <T> T content()
         {
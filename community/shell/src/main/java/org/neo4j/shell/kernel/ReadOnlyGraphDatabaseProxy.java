@@ -417,6 +417,30 @@ public class ReadOnlyGraphDatabaseProxy implements GraphDatabaseService, GraphDa
             return actual.hasRelationship( type, dir );
         }
 
+        @Override
+        public int getDegree()
+        {
+            return actual.getDegree();
+        }
+
+        @Override
+        public int getDegree( RelationshipType type )
+        {
+            return actual.getDegree( type );
+        }
+
+        @Override
+        public int getDegree( Direction direction )
+        {
+            return actual.getDegree( direction );
+        }
+
+        @Override
+        public int getDegree( RelationshipType type, Direction direction )
+        {
+            return actual.getDegree( type, direction );
+        }
+
         @Override
         public Traverser traverse( Order traversalOrder, StopEvaluator stopEvaluator,
                                    ReturnableEvaluator returnableEvaluator, RelationshipType relationshipType,
@@ -24,6 +24,7 @@ import org.neo4j.consistency.store.DiffRecordAccess;
 import org.neo4j.consistency.store.RecordAccess;
 import org.neo4j.kernel.impl.nioneo.store.NodeRecord;
 import org.neo4j.kernel.impl.nioneo.store.Record;
+import org.neo4j.kernel.impl.nioneo.store.RelationshipGroupRecord;
 import org.neo4j.kernel.impl.nioneo.store.RelationshipRecord;
 
 enum NodeField implements
@@ -199,7 +200,12 @@ enum NodeField implements
         {
             if ( Record.NO_PREV_RELATIONSHIP.is( prev( relationship ) ) )
             {
-                if ( node.getNextRel() != relationship.getId() )
+                if ( node.isDense() && !Record.NO_NEXT_RELATIONSHIP.is( node.getNextRel() ) )
+                {
+                    engine.comparativeCheck( records.relationshipGroup( node.getNextRel() ),
+                                             new RelationshipGroupChain( this, node, -1 ) );
+                }
+                else if ( node.getNextRel() != relationship.getId() )
                 {
                     noBackReference( engine.report(), node );
                 }
@@ -233,6 +239,55 @@ enum NodeField implements
         }
     }
 
+    /**
+     * Walks the relationship groups of a dense node, which are sorted by type, up to the group of the type of the
+     * relationship, and checks that the chain of that group in the direction of the relationship starts with it.
+     */
+    private static class RelationshipGroupChain implements
+            ComparativeRecordChecker<RelationshipRecord, RelationshipGroupRecord,
+                    ConsistencyReport.RelationshipConsistencyReport>
+    {
+        private final NodeField field;
+        private final NodeRecord node;
+        private final int previousType;
+
+        RelationshipGroupChain( NodeField field, NodeRecord node, int previousType )
+        {
+            this.field = field;
+            this.node = node;
+            this.previousType = previousType;
+        }
+
+        @Override
+        public void checkReference( RelationshipRecord relationship, RelationshipGroupRecord group,
+                                    CheckerEngine<RelationshipRecord,
+                                            ConsistencyReport.RelationshipConsistencyReport> engine,
+                                    RecordAccess records )
+        {
+            // the walk ends at a broken chain of groups, which the node and its groups report as well
+            if ( group.inUse() && group.getOwningNode() == node.getId() && group.getType() > previousType )
+            {
+                if ( group.getType() == relationship.getType() )
+                {
+                    RelationshipGroupRecordCheck.ChainField chain =
+                            RelationshipGroupRecordCheck.ChainField.select( relationship, node.getId() );
+                    if ( chain.valueFrom( group ) == relationship.getId() )
+                    {
+                        return;
+                    }
+                }
+                else if ( group.getType() < relationship.getType()
+                          && !Record.NO_NEXT_RELATIONSHIP.is( group.getNext() ) )
+                {
+                    engine.comparativeCheck( records.relationshipGroup( group.getNext() ),
+                                             new RelationshipGroupChain( field, node, group.getType() ) );
+                    return;
+                }
+            }
+            field.noBackReference( engine.report(), node );
+        }
+    }
+
     abstract void notUpdated( ConsistencyReport.RelationshipConsistencyReport report );
 
     abstract void illegalNode( ConsistencyReport.RelationshipConsistencyReport report );
@@ -27,6 +27,7 @@ import org.neo4j.kernel.impl.nioneo.store.DynamicRecord;
 import org.neo4j.kernel.impl.nioneo.store.LabelTokenRecord;
 import org.neo4j.kernel.impl.nioneo.store.NodeRecord;
 import org.neo4j.kernel.impl.nioneo.store.Record;
+import org.neo4j.kernel.impl.nioneo.store.RelationshipGroupRecord;
 import org.neo4j.kernel.impl.nioneo.store.RelationshipRecord;
 import org.neo4j.kernel.impl.nioneo.store.labels.DynamicNodeLabels;
 import org.neo4j.kernel.impl.nioneo.store.labels.NodeLabels;
@@ -38,7 +39,7 @@ class NodeRecordCheck extends PrimitiveRecordCheck<NodeRecord, ConsistencyReport
 {
     NodeRecordCheck()
     {
-        super( RelationshipField.NEXT_REL, LabelsField.LABELS );
+        super( RelationshipField.NEXT_REL, RelationshipGroupField.NEXT_GROUP, LabelsField.LABELS );
     }
 
     private enum RelationshipField implements RecordField<NodeRecord, ConsistencyReport.NodeConsistencyReport>,
@@ -51,7 +52,8 @@ class NodeRecordCheck extends PrimitiveRecordCheck<NodeRecord, ConsistencyReport
                                           CheckerEngine<NodeRecord, ConsistencyReport.NodeConsistencyReport> engine,
                                           RecordAccess records )
             {
-                if ( !Record.NO_NEXT_RELATIONSHIP.is( node.getNextRel() ) )
+                // A dense node points to its first relationship group instead, cf. RelationshipGroupField
+                if ( !node.isDense() && !Record.NO_NEXT_RELATIONSHIP.is( node.getNextRel() ) )
                 {
                     engine.comparativeCheck( records.relationship( node.getNextRel() ), this );
                 }
@@ -100,6 +102,10 @@ class NodeRecordCheck extends PrimitiveRecordCheck<NodeRecord, ConsistencyReport
                                      CheckerEngine<NodeRecord, ConsistencyReport.NodeConsistencyReport> engine,
                                      DiffRecordAccess records )
             {
+                if ( oldRecord.isDense() )
+                {
+                    return;
+                }
                 if ( !newRecord.inUse() || valueFrom( oldRecord ) != valueFrom( newRecord ) )
                 {
                     if ( !Record.NO_NEXT_RELATIONSHIP.is( valueFrom( oldRecord ) )
@@ -118,6 +124,53 @@ class NodeRecordCheck extends PrimitiveRecordCheck<NodeRecord, ConsistencyReport
         }
     }
 
+    private enum RelationshipGroupField implements RecordField<NodeRecord, ConsistencyReport.NodeConsistencyReport>,
+            ComparativeRecordChecker<NodeRecord, RelationshipGroupRecord, ConsistencyReport.NodeConsistencyReport>
+    {
+        NEXT_GROUP
+        {
+            @Override
+            public void checkConsistency( NodeRecord node,
+                                          CheckerEngine<NodeRecord, ConsistencyReport.NodeConsistencyReport> engine,
+                                          RecordAccess records )
+            {
+                if ( node.isDense() && !Record.NO_NEXT_RELATIONSHIP.is( node.getNextRel() ) )
+                {
+                    engine.comparativeCheck( records.relationshipGroup( node.getNextRel() ), this );
+                }
+            }
+
+            @Override
+            public void checkReference( NodeRecord node, RelationshipGroupRecord group,
+                                        CheckerEngine<NodeRecord, ConsistencyReport.NodeConsistencyReport> engine,
+                                        RecordAccess records )
+            {
+                if ( !group.inUse() )
+                {
+                    engine.report().relationshipGroupNotInUse( group );
+                }
+                else if ( group.getOwningNode() != node.getId() )
+                {
+                    engine.report().relationshipGroupHasOtherOwner( group );
+                }
+            }
+
+            @Override
+            public void checkChange( NodeRecord oldRecord, NodeRecord newRecord,
+                                     CheckerEngine<NodeRecord, ConsistencyReport.NodeConsistencyReport> engine,
+                                     DiffRecordAccess records )
+            {
+                // nothing to check: the groups of a dense node are checked on their own when they change
+            }
+
+            @Override
+            public long valueFrom( NodeRecord record )
+            {
+                return record.getNextRel();
+            }
+        }
+    }
+
     private enum LabelsField implements RecordField<NodeRecord, ConsistencyReport.NodeConsistencyReport>,
             ComparativeRecordChecker<NodeRecord, LabelTokenRecord, ConsistencyReport.NodeConsistencyReport>
     {
@@ -0,0 +1,460 @@
+/**
+ * Copyright (c) 2002-2013 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.consistency.checking;
+
+import org.neo4j.consistency.report.ConsistencyReport;
+import org.neo4j.consistency.store.DiffRecordAccess;
+import org.neo4j.consistency.store.RecordAccess;
+import org.neo4j.kernel.impl.nioneo.store.NodeRecord;
+import org.neo4j.kernel.impl.nioneo.store.Record;
+import org.neo4j.kernel.impl.nioneo.store.RelationshipGroupRecord;
+import org.neo4j.kernel.impl.nioneo.store.RelationshipRecord;
+import org.neo4j.kernel.impl.nioneo.store.RelationshipTypeTokenRecord;
+
+/**
+ * Checks a relationship group of a dense node: that it is owned by a dense node, that the next group of the node
+ * has the same owner and a greater relationship type, and that each of its chains starts at a relationship of the
+ * owning node with the type of the group.
+ */
+class RelationshipGroupRecordCheck
+        implements RecordCheck<RelationshipGroupRecord, ConsistencyReport.RelationshipGroupConsistencyReport>
+{
+    @Override
+    public void check( RelationshipGroupRecord record,
+                       CheckerEngine<RelationshipGroupRecord,
+                               ConsistencyReport.RelationshipGroupConsistencyReport> engine,
+                       RecordAccess records )
+    {
+        if ( !record.inUse() )
+        {
+            return;
+        }
+        RelationshipTypeField.RELATIONSHIP_TYPE.checkConsistency( record, engine, records );
+        OwnerField.OWNER.checkConsistency( record, engine, records );
+        NextField.NEXT.checkConsistency( record, engine, records );
+        for ( ChainField chain : ChainField.values() )
+        {
+            chain.checkConsistency( record, engine, records );
+        }
+    }
+
+    @Override
+    public void checkChange( RelationshipGroupRecord oldRecord, RelationshipGroupRecord newRecord,
+                             CheckerEngine<RelationshipGroupRecord,
+                                     ConsistencyReport.RelationshipGroupConsistencyReport> engine,
+                             DiffRecordAccess records )
+    {
+        check( newRecord, engine, records );
+    }
+
+    private enum RelationshipTypeField implements
+            RecordField<RelationshipGroupRecord, ConsistencyReport.RelationshipGroupConsistencyReport>,
+            ComparativeRecordChecker<RelationshipGroupRecord, RelationshipTypeTokenRecord,
+                    ConsistencyReport.RelationshipGroupConsistencyReport>
+    {
+        RELATIONSHIP_TYPE;
+
+        @Override
+        public void checkConsistency( RelationshipGroupRecord record,
+                                      CheckerEngine<RelationshipGroupRecord,
+                                              ConsistencyReport.RelationshipGroupConsistencyReport> engine,
+                                      RecordAccess records )
+        {
+            if ( record.getType() < 0 )
+            {
+                engine.report().illegalRelationshipType();
+            }
+            else
+            {
+                engine.comparativeCheck( records.relationshipType( record.getType() ), this );
+            }
+        }
+
+        @Override
+        public long valueFrom( RelationshipGroupRecord record )
+        {
+            return record.getType();
+        }
+
+        @Override
+        public void checkChange( RelationshipGroupRecord oldRecord, RelationshipGroupRecord newRecord,
+                                 CheckerEngine<RelationshipGroupRecord,
+                                         ConsistencyReport.RelationshipGroupConsistencyReport> engine,
+                                 DiffRecordAccess records )
+        {
+            // nothing to check
+        }
+
+        @Override
+        public void checkReference( RelationshipGroupRecord record, RelationshipTypeTokenRecord referred,
+                                    CheckerEngine<RelationshipGroupRecord,
+                                            ConsistencyReport.RelationshipGroupConsistencyReport> engine,
+                                    RecordAccess records )
+        {
+            if ( !referred.inUse() )
+            {
+                engine.report().relationshipTypeNotInUse( referred );
+            }
+        }
+    }
+
+    private enum OwnerField implements
+            RecordField<RelationshipGroupRecord, ConsistencyReport.RelationshipGroupConsistencyReport>,
+            ComparativeRecordChecker<RelationshipGroupRecord, NodeRecord,
+                    ConsistencyReport.RelationshipGroupConsistencyReport>
+    {
+        OWNER;
+
+        @Override
+        public void checkConsistency( RelationshipGroupRecord record,
+                                      CheckerEngine<RelationshipGroupRecord,
+                                              ConsistencyReport.RelationshipGroupConsistencyReport> engine,
+                                      RecordAccess records )
+        {
+            if ( record.getOwningNode() < 0 )
+            {
+                engine.report().illegalOwner();
+            }
+            else
+            {
+                engine.comparativeCheck( records.node( record.getOwningNode() ), this );
+            }
+        }
+
+        @Override
+        public long valueFrom( RelationshipGroupRecord record )
+        {
+            return record.getOwningNode();
+        }
+
+        @Override
+        public void checkChange( RelationshipGroupRecord oldRecord, RelationshipGroupRecord newRecord,
+                                 CheckerEngine<RelationshipGroupRecord,
+                                         ConsistencyReport.RelationshipGroupConsistencyReport> engine,
+                                 DiffRecordAccess records )
+        {
+            // nothing to check
+        }
+
+        @Override
+        public void checkReference( RelationshipGroupRecord record, NodeRecord owner,
+                                    CheckerEngine<RelationshipGroupRecord,
+                                            ConsistencyReport.RelationshipGroupConsistencyReport> engine,
+                                    RecordAccess records )
+        {
+            if ( !owner.inUse() )
+            {
+                engine.report().ownerNotInUse( owner );
+            }
+            else if ( !owner.isDense() )
+            {
+                engine.report().ownerNotDense( owner );
+            }
+        }
+    }
+
+    private enum NextField implements
+            RecordField<RelationshipGroupRecord, ConsistencyReport.RelationshipGroupConsistencyReport>,
+            ComparativeRecordChecker<RelationshipGroupRecord, RelationshipGroupRecord,
+                    ConsistencyReport.RelationshipGroupConsistencyReport>
+    {
+        NEXT;
+
+        @Override
+        public void checkConsistency( RelationshipGroupRecord record,
+                                      CheckerEngine<RelationshipGroupRecord,
+                                              ConsistencyReport.RelationshipGroupConsistencyReport> engine,
+                                      RecordAccess records )
+        {
+            if ( !Record.NO_NEXT_RELATIONSHIP.is( record.getNext() ) )
+            {
+                engine.comparativeCheck( records.relationshipGroup( record.getNext() ), this );
+            }
+        }
+
+        @Override
+        public long valueFrom( RelationshipGroupRecord record )
+        {
+            return record.getNext();
+        }
+
+        @Override
+        public void checkChange( RelationshipGroupRecord oldRecord, RelationshipGroupRecord newRecord,
+                                 CheckerEngine<RelationshipGroupRecord,
+                                         ConsistencyReport.RelationshipGroupConsistencyReport> engine,
+                                 DiffRecordAccess records )
+        {
+            // nothing to check
+        }
+
+        @Override
+        public void checkReference( RelationshipGroupRecord record, RelationshipGroupRecord next,
+                                    CheckerEngine<RelationshipGroupRecord,
+                                            ConsistencyReport.RelationshipGroupConsistencyReport> engine,
+                                    RecordAccess records )
+        {
+            if ( !next.inUse() )
+            {
+                engine.report().nextGroupNotInUse( next );
+            }
+            else
+            {
+                if ( next.getOwningNode() != record.getOwningNode() )
+                {
+                    engine.report().nextHasOtherOwner( next );
+                }
+                if ( next.getType() <= record.getType() )
+                {
+                    engine.report().invalidTypeSortOrder( next );
+                }
+            }
+        }
+    }
+
+    enum ChainField implements
+            RecordField<RelationshipGroupRecord, ConsistencyReport.RelationshipGroupConsistencyReport>,
+            ComparativeRecordChecker<RelationshipGroupRecord, RelationshipRecord,
+                    ConsistencyReport.RelationshipGroupConsistencyReport>
+    {
+        FIRST_OUT
+        {
+            @Override
+            public long valueFrom( RelationshipGroupRecord record )
+            {
+                return record.getFirstOut();
+            }
+
+            @Override
+            boolean isChainOf( long owner, RelationshipRecord relationship )
+            {
+                return relationship.getFirstNode() == owner && relationship.getSecondNode() != owner;
+            }
+
+            @Override
+            long prev( RelationshipRecord relationship )
+            {
+                return relationship.getFirstPrevRel();
+            }
+
+            @Override
+            void notInUse( ConsistencyReport.RelationshipGroupConsistencyReport report,
+                           RelationshipRecord relationship )
+            {
+                report.firstOutgoingRelationshipNotInUse( relationship );
+            }
+
+            @Override
+            void forOtherNode( ConsistencyReport.RelationshipGroupConsistencyReport report,
+                               RelationshipRecord relationship )
+            {
+                report.firstOutgoingRelationshipForOtherNode( relationship );
+            }
+
+            @Override
+            void ofOtherType( ConsistencyReport.RelationshipGroupConsistencyReport report,
+                              RelationshipRecord relationship )
+            {
+                report.firstOutgoingRelationshipOfOtherType( relationship );
+            }
+
+            @Override
+            void notFirstInChain( ConsistencyReport.RelationshipGroupConsistencyReport report,
+                                  RelationshipRecord relationship )
+            {
+                report.firstOutgoingRelationshipNotFirstInChain( relationship );
+            }
+        },
+        FIRST_IN
+        {
+            @Override
+            public long valueFrom( RelationshipGroupRecord record )
+            {
+                return record.getFirstIn();
+            }
+
+            @Override
+            boolean isChainOf( long owner, RelationshipRecord relationship )
+            {
+                return relationship.getSecondNode() == owner && relationship.getFirstNode() != owner;
+            }
+
+            @Override
+            long prev( RelationshipRecord relationship )
+            {
+                return relationship.getSecondPrevRel();
+            }
+
+            @Override
+            void notInUse( ConsistencyReport.RelationshipGroupConsistencyReport report,
+                           RelationshipRecord relationship )
+            {
+                report.firstIncomingRelationshipNotInUse( relationship );
+            }
+
+            @Override
+            void forOtherNode( ConsistencyReport.RelationshipGroupConsistencyReport report,
+                               RelationshipRecord relationship )
+            {
+                report.firstIncomingRelationshipForOtherNode( relationship );
+            }
+
+            @Override
+            void ofOtherType( ConsistencyReport.RelationshipGroupConsistencyReport report,
+                              RelationshipRecord relationship )
+            {
+                report.firstIncomingRelationshipOfOtherType( relationship );
+            }
+
+            @Override
+            void notFirstInChain( ConsistencyReport.RelationshipGroupConsistencyReport report,
+                                  RelationshipRecord relationship )
+            {
+                report.firstIncomingRelationshipNotFirstInChain( relationship );
+            }
+        },
+        FIRST_LOOP
+        {
+            @Override
+            public long valueFrom( RelationshipGroupRecord record )
+            {
+                return record.getFirstLoop();
+            }
+
+            @Override
+            boolean isChainOf( long owner, RelationshipRecord relationship )
+            {
+                return relationship.getFirstNode() == owner && relationship.getSecondNode() == owner;
+            }
+
+            @Override
+            long prev( RelationshipRecord relationship )
+            {
+                return relationship.getFirstPrevRel();
+            }
+
+            @Override
+            void notInUse( ConsistencyReport.RelationshipGroupConsistencyReport report,
+                           RelationshipRecord relationship )
+            {
+                report.firstLoopRelationshipNotInUse( relationship );
+            }
+
+            @Override
+            void forOtherNode( ConsistencyReport.RelationshipGroupConsistencyReport report,
+                               RelationshipRecord relationship )
+            {
+                report.firstLoopRelationshipForOtherNode( relationship );
+            }
+
+            @Override
+            void ofOtherType( ConsistencyReport.RelationshipGroupConsistencyReport report,
+                              RelationshipRecord relationship )
+            {
+                report.firstLoopRelationshipOfOtherType( relationship );
+            }
+
+            @Override
+            void notFirstInChain( ConsistencyReport.RelationshipGroupConsistencyReport report,
+                                  RelationshipRecord relationship )
+            {
+                report.firstLoopRelationshipNotFirstInChain( relationship );
+            }
+        };
+
+        /**
+         * Selects the chain of a group that the given relationship of the given node belongs in, by its direction.
+         */
+        public static ChainField select( RelationshipRecord relationship, long owner )
+        {
+            for ( ChainField chain : values() )
+            {
+                if ( chain.isChainOf( owner, relationship ) )
+                {
+                    return chain;
+                }
+            }
+            return null;
+        }
+
+        abstract boolean isChainOf( long owner, RelationshipRecord relationship );
+
+        abstract long prev( RelationshipRecord relationship );
+
+        @Override
+        public void checkConsistency( RelationshipGroupRecord record,
+                                      CheckerEngine<RelationshipGroupRecord,
+                                              ConsistencyReport.RelationshipGroupConsistencyReport> engine,
+                                      RecordAccess records )
+        {
+            if ( !Record.NO_NEXT_RELATIONSHIP.is( valueFrom( record ) ) )
+            {
+                engine.comparativeCheck( records.relationship( valueFrom( record ) ), this );
+            }
+        }
+
+        @Override
+        public void checkChange( RelationshipGroupRecord oldRecord, RelationshipGroupRecord newRecord,
+                                 CheckerEngine<RelationshipGroupRecord,
+                                         ConsistencyReport.RelationshipGroupConsistencyReport> engine,
+                                 DiffRecordAccess records )
+        {
+            // nothing to check
+        }
+
+        @Override
+        public void checkReference( RelationshipGroupRecord record, RelationshipRecord relationship,
+                                    CheckerEngine<RelationshipGroupRecord,
+                                            ConsistencyReport.RelationshipGroupConsistencyReport> engine,
+                                    RecordAccess records )
+        {
+            if ( !relationship.inUse() )
+            {
+                notInUse( engine.report(), relationship );
+            }
+            else
+            {
+                if ( !isChainOf( record.getOwningNode(), relationship ) )
+                {
+                    forOtherNode( engine.report(), relationship );
+                }
+                else if ( !Record.NO_PREV_RELATIONSHIP.is( prev( relationship ) ) )
+                {
+                    notFirstInChain( engine.report(), relationship );
+                }
+                if ( relationship.getType() != record.getType() )
+                {
+                    ofOtherType( engine.report(), relationship );
+                }
+            }
+        }
+
+        abstract void notInUse( ConsistencyReport.RelationshipGroupConsistencyReport report,
+                                RelationshipRecord relationship );
+
+        abstract void forOtherNode( ConsistencyReport.RelationshipGroupConsistencyReport report,
+                                    RelationshipRecord relationship );
+
+        abstract void ofOtherType( ConsistencyReport.RelationshipGroupConsistencyReport report,
+                                   RelationshipRecord relationship );
+
+        abstract void notFirstInChain( ConsistencyReport.RelationshipGroupConsistencyReport report,
+                                       RelationshipRecord relationship );
+    }
+}
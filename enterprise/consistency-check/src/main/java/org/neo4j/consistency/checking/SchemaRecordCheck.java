@@ -145,7 +145,10 @@ public class SchemaRecordCheck implements RecordCheck<DynamicRecord, Consistency
     {
         if ( phase == Phase.CHECK_RULES )
         {
-            engine.comparativeCheck( records.propertyKey( rule.getPropertyKey() ), VALID_PROPERTY_KEY );
+            for ( int propertyKey : rule.getPropertyKeys() )
+            {
+                engine.comparativeCheck( records.propertyKey( propertyKey ), VALID_PROPERTY_KEY );
+            }
             DynamicRecord previousObligation = indexObligations.put( rule.getOwnedIndex(), record );
             if ( null != previousObligation )
             {
@@ -175,7 +178,10 @@ public class SchemaRecordCheck implements RecordCheck<DynamicRecord, Consistency
     {
         if ( phase == Phase.CHECK_RULES )
         {
-            engine.comparativeCheck( records.propertyKey( rule.getPropertyKey() ), VALID_PROPERTY_KEY );
+            for ( int propertyKey : rule.getPropertyKeys() )
+            {
+                engine.comparativeCheck( records.propertyKey( propertyKey ), VALID_PROPERTY_KEY );
+            }
             if ( rule.isConstraintIndex() && rule.getOwningConstraint() != null )
             {
                 DynamicRecord previousObligation = constraintObligations.put( rule.getOwningConstraint(), record );
@@ -73,6 +73,9 @@ public class ConsistencyCheckTasks
         tasks.add( create( nativeStores.getRelationshipStore(),
                 multiPass.processors(  NODES, PROPERTIES, RELATIONSHIPS  ) ) );
 
+        tasks.add( create( nativeStores.getRelationshipGroupStore(),
+                multiPass.processors( NODES, RELATIONSHIPS ) ) );
+
         tasks.add( create( nativeStores.getPropertyStore(),
                 multiPass.processors(  PROPERTIES, STRINGS, ARRAYS  ) ) );
 
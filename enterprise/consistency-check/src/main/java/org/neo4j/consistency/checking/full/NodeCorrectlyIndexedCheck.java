@@ -28,6 +28,7 @@ import org.neo4j.consistency.checking.index.IndexAccessors;
 import org.neo4j.consistency.report.ConsistencyReport;
 import org.neo4j.consistency.store.DiffRecordAccess;
 import org.neo4j.consistency.store.RecordAccess;
+import org.neo4j.kernel.api.index.CompositeIndexValue;
 import org.neo4j.kernel.api.index.IndexReader;
 import org.neo4j.kernel.impl.api.PrimitiveLongIterator;
 import org.neo4j.kernel.impl.nioneo.store.IndexRule;
@@ -60,16 +61,15 @@ public class NodeCorrectlyIndexedCheck implements RecordCheck<NodeRecord, Consis
             }
 
             List<PropertyBlock> properties = propertyReader.propertyBlocks( record );
-            PropertyBlock property = propertyWithKey( properties, indexRule.getPropertyKey() );
+            Object propertyValue = indexedValue( properties, indexRule.getPropertyKeys() );
 
-            if ( property == null )
+            if ( propertyValue == null )
             {
                 continue;
             }
 
             try ( IndexReader reader = indexes.accessorFor( indexRule ).newReader() )
             {
-                Object propertyValue = propertyReader.propertyValue( property ).value();
                 PrimitiveLongIterator indexedNodeIds = reader.lookup( propertyValue );
                 verifyNodeCorrectlyIndexed( record, engine, indexRule, propertyValue, indexedNodeIds );
             }
@@ -107,6 +107,25 @@ public class NodeCorrectlyIndexedCheck implements RecordCheck<NodeRecord, Consis
         }
     }
 
+    /**
+     * @return the value the node should be indexed under, a {@link CompositeIndexValue} if there are several
+     * property keys, or {@code null} if the node lacks any of the properties.
+     */
+    private Object indexedValue( List<PropertyBlock> propertyBlocks, int[] propertyKeys )
+    {
+        Object[] values = new Object[propertyKeys.length];
+        for ( int i = 0; i < propertyKeys.length; i++ )
+        {
+            PropertyBlock property = propertyWithKey( propertyBlocks, propertyKeys[i] );
+            if ( property == null )
+            {
+                return null;
+            }
+            values[i] = propertyReader.propertyValue( property ).value();
+        }
+        return values.length == 1 ? values[0] : new CompositeIndexValue( values );
+    }
+
     private PropertyBlock propertyWithKey( List<PropertyBlock> propertyBlocks, int propertyKey )
     {
         for ( PropertyBlock propertyBlock : propertyBlocks )
@@ -37,6 +37,7 @@ import org.neo4j.kernel.impl.nioneo.store.NodeRecord;
 import org.neo4j.kernel.impl.nioneo.store.PropertyBlock;
 import org.neo4j.kernel.impl.nioneo.store.PropertyKeyTokenRecord;
 import org.neo4j.kernel.impl.nioneo.store.PropertyRecord;
+import org.neo4j.kernel.impl.nioneo.store.RelationshipGroupRecord;
 import org.neo4j.kernel.impl.nioneo.store.RelationshipRecord;
 import org.neo4j.kernel.impl.nioneo.store.RelationshipTypeTokenRecord;
 import org.neo4j.kernel.impl.nioneo.store.SchemaRule;
@@ -75,6 +76,13 @@ public interface ConsistencyReport
         void forRelationshipChange( RelationshipRecord oldRelationship, RelationshipRecord newRelationship,
                                     RecordCheck<RelationshipRecord, RelationshipConsistencyReport> checker );
 
+        void forRelationshipGroup( RelationshipGroupRecord group,
+                                   RecordCheck<RelationshipGroupRecord, RelationshipGroupConsistencyReport> checker );
+
+        void forRelationshipGroupChange(
+                RelationshipGroupRecord oldGroup, RelationshipGroupRecord newGroup,
+                RecordCheck<RelationshipGroupRecord, RelationshipGroupConsistencyReport> checker );
+
         void forProperty( PropertyRecord property,
                           RecordCheck<PropertyRecord, PropertyConsistencyReport> checker );
 
@@ -216,6 +224,14 @@ public interface ConsistencyReport
         @Documented
         void relationshipNotFirstInTargetChain( RelationshipRecord relationship );
 
+        /** The referenced relationship group record of this dense node is not in use. */
+        @Documented
+        void relationshipGroupNotInUse( RelationshipGroupRecord group );
+
+        /** The referenced relationship group record of this dense node is owned by another node. */
+        @Documented
+        void relationshipGroupHasOtherOwner( RelationshipGroupRecord group );
+
         /** The first relationship record reference has changed, but the previous first relationship record has not been updates. */
         @Documented
         @IncrementalOnly
@@ -273,11 +289,17 @@ public interface ConsistencyReport
         @Documented
         void targetNodeNotInUse( NodeRecord node );
 
-        /** This record should be the first in the source chain, but the source node does not reference this record. */
+        /**
+         * This record should be the first in the source chain, but the source node, or its relationship group of
+         * this type if it is a dense node, does not reference this record.
+         */
         @Documented
         void sourceNodeDoesNotReferenceBack( NodeRecord node );
 
-        /** This record should be the first in the target chain, but the target node does not reference this record. */
+        /**
+         * This record should be the first in the target chain, but the target node, or its relationship group of
+         * this type if it is a dense node, does not reference this record.
+         */
         @Documented
         void targetNodeDoesNotReferenceBack( NodeRecord node );
 
@@ -358,6 +380,89 @@ public interface ConsistencyReport
         void targetNodeNotUpdated();
     }
 
+    interface RelationshipGroupConsistencyReport extends ConsistencyReport
+    {
+        /** The relationship type field has an illegal value. */
+        @Documented
+        void illegalRelationshipType();
+
+        /** The relationship type record is not in use. */
+        @Documented
+        void relationshipTypeNotInUse( RelationshipTypeTokenRecord relationshipType );
+
+        /** The owner field has an illegal value. */
+        @Documented
+        void illegalOwner();
+
+        /** The owning node is not in use. */
+        @Documented
+        void ownerNotInUse( NodeRecord owner );
+
+        /** The owning node is not a dense node, so it doesn't reference any relationship groups. */
+        @Documented
+        void ownerNotDense( NodeRecord owner );
+
+        /** The next relationship group record is not in use. */
+        @Documented
+        void nextGroupNotInUse( RelationshipGroupRecord next );
+
+        /** The next relationship group record is owned by another node. */
+        @Documented
+        void nextHasOtherOwner( RelationshipGroupRecord next );
+
+        /** The next relationship group record doesn't have a greater relationship type than this record. */
+        @Documented
+        void invalidTypeSortOrder( RelationshipGroupRecord next );
+
+        /** The first outgoing relationship record is not in use. */
+        @Documented
+        void firstOutgoingRelationshipNotInUse( RelationshipRecord relationship );
+
+        /** The first incoming relationship record is not in use. */
+        @Documented
+        void firstIncomingRelationshipNotInUse( RelationshipRecord relationship );
+
+        /** The first loop relationship record is not in use. */
+        @Documented
+        void firstLoopRelationshipNotInUse( RelationshipRecord relationship );
+
+        /** The first outgoing relationship record is not an outgoing relationship of the owning node. */
+        @Documented
+        void firstOutgoingRelationshipForOtherNode( RelationshipRecord relationship );
+
+        /** The first incoming relationship record is not an incoming relationship of the owning node. */
+        @Documented
+        void firstIncomingRelationshipForOtherNode( RelationshipRecord relationship );
+
+        /** The first loop relationship record is not a loop on the owning node. */
+        @Documented
+        void firstLoopRelationshipForOtherNode( RelationshipRecord relationship );
+
+        /** The first outgoing relationship record has another relationship type than this record. */
+        @Documented
+        void firstOutgoingRelationshipOfOtherType( RelationshipRecord relationship );
+
+        /** The first incoming relationship record has another relationship type than this record. */
+        @Documented
+        void firstIncomingRelationshipOfOtherType( RelationshipRecord relationship );
+
+        /** The first loop relationship record has another relationship type than this record. */
+        @Documented
+        void firstLoopRelationshipOfOtherType( RelationshipRecord relationship );
+
+        /** The first outgoing relationship record is not the first in the chain of the owning node. */
+        @Documented
+        void firstOutgoingRelationshipNotFirstInChain( RelationshipRecord relationship );
+
+        /** The first incoming relationship record is not the first in the chain of the owning node. */
+        @Documented
+        void firstIncomingRelationshipNotFirstInChain( RelationshipRecord relationship );
+
+        /** The first loop relationship record is not the first in the chain of the owning node. */
+        @Documented
+        void firstLoopRelationshipNotFirstInChain( RelationshipRecord relationship );
+    }
+
     interface PropertyConsistencyReport extends ConsistencyReport
     {
         /** The property key as an invalid value. */
@@ -41,6 +41,7 @@ import org.neo4j.kernel.impl.nioneo.store.LabelTokenRecord;
 import org.neo4j.kernel.impl.nioneo.store.NodeRecord;
 import org.neo4j.kernel.impl.nioneo.store.PropertyKeyTokenRecord;
 import org.neo4j.kernel.impl.nioneo.store.PropertyRecord;
+import org.neo4j.kernel.impl.nioneo.store.RelationshipGroupRecord;
 import org.neo4j.kernel.impl.nioneo.store.RelationshipRecord;
 import org.neo4j.kernel.impl.nioneo.store.RelationshipTypeTokenRecord;
 
@@ -59,6 +60,8 @@ public class ConsistencyReporter implements ConsistencyReport.Reporter
             ProxyFactory.create( ConsistencyReport.LabelsMatchReport.class );
     private static final ProxyFactory<ConsistencyReport.RelationshipConsistencyReport> RELATIONSHIP_REPORT =
             ProxyFactory.create( ConsistencyReport.RelationshipConsistencyReport.class );
+    private static final ProxyFactory<ConsistencyReport.RelationshipGroupConsistencyReport> RELATIONSHIP_GROUP_REPORT =
+            ProxyFactory.create( ConsistencyReport.RelationshipGroupConsistencyReport.class );
     private static final ProxyFactory<ConsistencyReport.PropertyConsistencyReport> PROPERTY_REPORT =
             ProxyFactory.create( ConsistencyReport.PropertyConsistencyReport.class );
     private static final ProxyFactory<ConsistencyReport.RelationshipTypeConsistencyReport> RELATIONSHIP_TYPE_REPORT =
@@ -381,6 +384,22 @@ public class ConsistencyReporter implements ConsistencyReport.Reporter
         dispatchChange( RecordType.RELATIONSHIP, RELATIONSHIP_REPORT, oldRelationship, newRelationship, checker );
     }
 
+    @Override
+    public void forRelationshipGroup( RelationshipGroupRecord group,
+                                      RecordCheck<RelationshipGroupRecord,
+                                              ConsistencyReport.RelationshipGroupConsistencyReport> checker )
+    {
+        dispatch( RecordType.RELATIONSHIP_GROUP, RELATIONSHIP_GROUP_REPORT, group, checker );
+    }
+
+    @Override
+    public void forRelationshipGroupChange( RelationshipGroupRecord oldGroup, RelationshipGroupRecord newGroup,
+                                            RecordCheck<RelationshipGroupRecord,
+                                                    ConsistencyReport.RelationshipGroupConsistencyReport> checker )
+    {
+        dispatchChange( RecordType.RELATIONSHIP_GROUP, RELATIONSHIP_GROUP_REPORT, oldGroup, newGroup, checker );
+    }
+
     @Override
     public void forProperty( PropertyRecord property,
                              RecordCheck<PropertyRecord, ConsistencyReport.PropertyConsistencyReport> checker )
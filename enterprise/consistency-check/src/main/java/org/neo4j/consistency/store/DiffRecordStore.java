@@ -35,6 +35,7 @@ import org.neo4j.kernel.impl.nioneo.store.NodeRecord;
 import org.neo4j.kernel.impl.nioneo.store.PropertyKeyTokenRecord;
 import org.neo4j.kernel.impl.nioneo.store.PropertyRecord;
 import org.neo4j.kernel.impl.nioneo.store.RecordStore;
+import org.neo4j.kernel.impl.nioneo.store.RelationshipGroupRecord;
 import org.neo4j.kernel.impl.nioneo.store.RelationshipRecord;
 import org.neo4j.kernel.impl.nioneo.store.RelationshipTypeTokenRecord;
 import org.neo4j.kernel.impl.nioneo.store.WindowPoolStats;
@@ -217,6 +218,13 @@ public class DiffRecordStore<R extends AbstractBaseRecord> implements RecordStor
             processor.processRelationship( (RecordStore<RelationshipRecord>) diffStore, rel );
         }
 
+        @Override
+        public void processRelationshipGroup( RecordStore<RelationshipGroupRecord> store,
+                                              RelationshipGroupRecord record ) throws FAILURE
+        {
+            processor.processRelationshipGroup( (RecordStore<RelationshipGroupRecord>) diffStore, record );
+        }
+
         @Override
         public void processProperty( RecordStore<PropertyRecord> store, PropertyRecord property ) throws FAILURE
         {
@@ -33,6 +33,7 @@ import org.neo4j.kernel.impl.nioneo.store.PropertyRecord;
 import org.neo4j.kernel.impl.nioneo.store.PropertyType;
 import org.neo4j.kernel.impl.nioneo.store.Record;
 import org.neo4j.kernel.impl.nioneo.store.RecordStore;
+import org.neo4j.kernel.impl.nioneo.store.RelationshipGroupRecord;
 import org.neo4j.kernel.impl.nioneo.store.RelationshipRecord;
 import org.neo4j.kernel.impl.nioneo.store.RelationshipTypeTokenRecord;
 import org.neo4j.kernel.impl.nioneo.store.StoreAccess;
@@ -72,7 +73,10 @@ public class DiffStore extends StoreAccess implements CommandRecordVisitor
         if ( record.inUse() )
         {
             markProperty( record.getNextProp(), record.getId(), -1 );
-            markRelationship( record.getNextRel() );
+            if ( !record.isDense() )
+            {
+                markRelationship( record.getNextRel() );
+            }
         }
     }
 
@@ -93,6 +97,12 @@ public class DiffStore extends StoreAccess implements CommandRecordVisitor
         }
     }
 
+    @Override
+    public void visitRelationshipGroup( RelationshipGroupRecord record )
+    {
+        getRelationshipGroupStore().forceUpdateRecord( record );
+    }
+
     private void markRelationship( long rel )
     {
         if ( !Record.NO_NEXT_RELATIONSHIP.is( rel ) ) getRelationshipStore().markDirty( rel );
@@ -219,6 +229,12 @@ public class DiffStore extends StoreAccess implements CommandRecordVisitor
         return (DiffRecordStore<RelationshipRecord>) super.getRelationshipStore();
     }
 
+    @Override
+    public DiffRecordStore<RelationshipGroupRecord> getRelationshipGroupStore()
+    {
+        return (DiffRecordStore<RelationshipGroupRecord>) super.getRelationshipGroupStore();
+    }
+
     @Override
     public DiffRecordStore<PropertyRecord> getPropertyStore()
     {
@@ -31,6 +31,7 @@ import org.neo4j.kernel.impl.nioneo.store.NodeRecord;
 import org.neo4j.kernel.impl.nioneo.store.PreAllocatedRecords;
 import org.neo4j.kernel.impl.nioneo.store.PropertyRecord;
 import org.neo4j.kernel.impl.nioneo.store.Record;
+import org.neo4j.kernel.impl.nioneo.store.RelationshipGroupRecord;
 import org.neo4j.kernel.impl.nioneo.store.RelationshipRecord;
 import org.neo4j.kernel.impl.nioneo.store.labels.DynamicNodeLabels;
 import org.neo4j.kernel.impl.nioneo.store.labels.InlineNodeLabels;
@@ -107,6 +108,50 @@ public class NodeRecordCheckTest
         verifyNoMoreInteractions( report );
     }
 
+    @Test
+    public void shouldNotReportAnythingForDenseNodeWithConsistentRelationshipGroup() throws Exception
+    {
+        // given
+        NodeRecord node = dense( inUse( new NodeRecord( 42, 10, NONE ) ) );
+        add( inUse( new RelationshipGroupRecord( 10, 4, NONE, 7, NONE, NONE, 42 ) ) );
+
+        // when
+        ConsistencyReport.NodeConsistencyReport report = check( node );
+
+        // then
+        verifyNoMoreInteractions( report );
+    }
+
+    @Test
+    public void shouldReportRelationshipGroupNotInUse() throws Exception
+    {
+        // given
+        NodeRecord node = dense( inUse( new NodeRecord( 42, 10, NONE ) ) );
+        RelationshipGroupRecord group = add( notInUse( new RelationshipGroupRecord( 10, 4 ) ) );
+
+        // when
+        ConsistencyReport.NodeConsistencyReport report = check( node );
+
+        // then
+        verify( report ).relationshipGroupNotInUse( group );
+        verifyNoMoreInteractions( report );
+    }
+
+    @Test
+    public void shouldReportRelationshipGroupOfOtherNode() throws Exception
+    {
+        // given
+        NodeRecord node = dense( inUse( new NodeRecord( 42, 10, NONE ) ) );
+        RelationshipGroupRecord group = add( inUse( new RelationshipGroupRecord( 10, 4, NONE, 7, NONE, NONE, 43 ) ) );
+
+        // when
+        ConsistencyReport.NodeConsistencyReport report = check( node );
+
+        // then
+        verify( report ).relationshipGroupHasOtherOwner( group );
+        verifyNoMoreInteractions( report );
+    }
+
     @Test
     public void shouldReportPropertyNotInUse() throws Exception
     {
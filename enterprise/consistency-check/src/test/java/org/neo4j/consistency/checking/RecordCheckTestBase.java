@@ -309,6 +309,12 @@ public abstract class RecordCheckTestBase<RECORD extends AbstractBaseRecord,
         return record;
     }
 
+    public static NodeRecord dense( NodeRecord node )
+    {
+        node.setDense( true );
+        return node;
+    }
+
     protected CHECKER checker()
     {
         return checker;
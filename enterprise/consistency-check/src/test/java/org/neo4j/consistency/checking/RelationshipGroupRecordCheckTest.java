@@ -0,0 +1,195 @@
+/**
+ * Copyright (c) 2002-2013 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.consistency.checking;
+
+import org.junit.Test;
+
+import org.neo4j.consistency.report.ConsistencyReport;
+import org.neo4j.kernel.impl.nioneo.store.NodeRecord;
+import org.neo4j.kernel.impl.nioneo.store.RelationshipGroupRecord;
+import org.neo4j.kernel.impl.nioneo.store.RelationshipRecord;
+import org.neo4j.kernel.impl.nioneo.store.RelationshipTypeTokenRecord;
+
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+
+public class RelationshipGroupRecordCheckTest extends RecordCheckTestBase<RelationshipGroupRecord,
+        ConsistencyReport.RelationshipGroupConsistencyReport, RelationshipGroupRecordCheck>
+{
+    public RelationshipGroupRecordCheckTest()
+    {
+        super( new RelationshipGroupRecordCheck(), ConsistencyReport.RelationshipGroupConsistencyReport.class );
+    }
+
+    @Test
+    public void shouldNotReportAnythingForGroupNotInUse() throws Exception
+    {
+        // given
+        RelationshipGroupRecord group = notInUse( new RelationshipGroupRecord( 10, 4, 0, 0, 0, 0, 0 ) );
+
+        // when
+        ConsistencyReport.RelationshipGroupConsistencyReport report = check( group );
+
+        // then
+        verifyNoMoreInteractions( report );
+    }
+
+    @Test
+    public void shouldNotReportAnythingForGroupWithConsistentReferences() throws Exception
+    {
+        // given
+        RelationshipGroupRecord group = inUse( new RelationshipGroupRecord( 10, 4, 11, 20, 21, 22, 1 ) );
+        add( inUse( new RelationshipTypeTokenRecord( 4 ) ) );
+        add( dense( inUse( new NodeRecord( 1, 10, NONE ) ) ) );
+        add( inUse( new RelationshipGroupRecord( 11, 5, NONE, NONE, NONE, NONE, 1 ) ) );
+        add( inUse( new RelationshipRecord( 20, 1, 2, 4 ) ) );
+        add( inUse( new RelationshipRecord( 21, 3, 1, 4 ) ) );
+        add( inUse( new RelationshipRecord( 22, 1, 1, 4 ) ) );
+
+        // when
+        ConsistencyReport.RelationshipGroupConsistencyReport report = check( group );
+
+        // then
+        verifyNoMoreInteractions( report );
+    }
+
+    @Test
+    public void shouldReportRelationshipTypeNotInUse() throws Exception
+    {
+        // given
+        RelationshipGroupRecord group = inUse( new RelationshipGroupRecord( 10, 4, NONE, NONE, NONE, NONE, 1 ) );
+        RelationshipTypeTokenRecord relationshipType = add( notInUse( new RelationshipTypeTokenRecord( 4 ) ) );
+        add( dense( inUse( new NodeRecord( 1, 10, NONE ) ) ) );
+
+        // when
+        ConsistencyReport.RelationshipGroupConsistencyReport report = check( group );
+
+        // then
+        verify( report ).relationshipTypeNotInUse( relationshipType );
+        verifyNoMoreInteractions( report );
+    }
+
+    @Test
+    public void shouldReportOwnerNotInUse() throws Exception
+    {
+        // given
+        RelationshipGroupRecord group = inUse( new RelationshipGroupRecord( 10, 4, NONE, NONE, NONE, NONE, 1 ) );
+        add( inUse( new RelationshipTypeTokenRecord( 4 ) ) );
+        NodeRecord owner = add( notInUse( new NodeRecord( 1, NONE, NONE ) ) );
+
+        // when
+        ConsistencyReport.RelationshipGroupConsistencyReport report = check( group );
+
+        // then
+        verify( report ).ownerNotInUse( owner );
+        verifyNoMoreInteractions( report );
+    }
+
+    @Test
+    public void shouldReportOwnerThatIsNotDense() throws Exception
+    {
+        // given
+        RelationshipGroupRecord group = inUse( new RelationshipGroupRecord( 10, 4, NONE, NONE, NONE, NONE, 1 ) );
+        add( inUse( new RelationshipTypeTokenRecord( 4 ) ) );
+        NodeRecord owner = add( inUse( new NodeRecord( 1, NONE, NONE ) ) );
+
+        // when
+        ConsistencyReport.RelationshipGroupConsistencyReport report = check( group );
+
+        // then
+        verify( report ).ownerNotDense( owner );
+        verifyNoMoreInteractions( report );
+    }
+
+    @Test
+    public void shouldReportNextGroupOfOtherOwnerAndInWrongOrder() throws Exception
+    {
+        // given
+        RelationshipGroupRecord group = inUse( new RelationshipGroupRecord( 10, 4, 11, NONE, NONE, NONE, 1 ) );
+        add( inUse( new RelationshipTypeTokenRecord( 4 ) ) );
+        add( dense( inUse( new NodeRecord( 1, 10, NONE ) ) ) );
+        RelationshipGroupRecord next = add( inUse( new RelationshipGroupRecord( 11, 3, NONE, NONE, NONE, NONE, 2 ) ) );
+
+        // when
+        ConsistencyReport.RelationshipGroupConsistencyReport report = check( group );
+
+        // then
+        verify( report ).nextHasOtherOwner( next );
+        verify( report ).invalidTypeSortOrder( next );
+        verifyNoMoreInteractions( report );
+    }
+
+    @Test
+    public void shouldReportNextGroupNotInUse() throws Exception
+    {
+        // given
+        RelationshipGroupRecord group = inUse( new RelationshipGroupRecord( 10, 4, 11, NONE, NONE, NONE, 1 ) );
+        add( inUse( new RelationshipTypeTokenRecord( 4 ) ) );
+        add( dense( inUse( new NodeRecord( 1, 10, NONE ) ) ) );
+        RelationshipGroupRecord next = add( notInUse( new RelationshipGroupRecord( 11, 5 ) ) );
+
+        // when
+        ConsistencyReport.RelationshipGroupConsistencyReport report = check( group );
+
+        // then
+        verify( report ).nextGroupNotInUse( next );
+        verifyNoMoreInteractions( report );
+    }
+
+    @Test
+    public void shouldReportFirstRelationshipsThatDoNotStartTheChainsOfTheGroup() throws Exception
+    {
+        // given
+        RelationshipGroupRecord group = inUse( new RelationshipGroupRecord( 10, 4, NONE, 20, 21, 22, 1 ) );
+        add( inUse( new RelationshipTypeTokenRecord( 4 ) ) );
+        add( dense( inUse( new NodeRecord( 1, 10, NONE ) ) ) );
+        RelationshipRecord out = add( inUse( new RelationshipRecord( 20, 2, 1, 4 ) ) );
+        RelationshipRecord in = add( inUse( new RelationshipRecord( 21, 3, 1, 5 ) ) );
+        RelationshipRecord loop = add( inUse( new RelationshipRecord( 22, 1, 1, 4 ) ) );
+        loop.setFirstPrevRel( 23 );
+        loop.setSecondPrevRel( 23 );
+
+        // when
+        ConsistencyReport.RelationshipGroupConsistencyReport report = check( group );
+
+        // then
+        verify( report ).firstOutgoingRelationshipForOtherNode( out );
+        verify( report ).firstIncomingRelationshipOfOtherType( in );
+        verify( report ).firstLoopRelationshipNotFirstInChain( loop );
+        verifyNoMoreInteractions( report );
+    }
+
+    @Test
+    public void shouldReportFirstRelationshipNotInUse() throws Exception
+    {
+        // given
+        RelationshipGroupRecord group = inUse( new RelationshipGroupRecord( 10, 4, NONE, 20, NONE, NONE, 1 ) );
+        add( inUse( new RelationshipTypeTokenRecord( 4 ) ) );
+        add( dense( inUse( new NodeRecord( 1, 10, NONE ) ) ) );
+        RelationshipRecord out = add( notInUse( new RelationshipRecord( 20, 1, 2, 4 ) ) );
+
+        // when
+        ConsistencyReport.RelationshipGroupConsistencyReport report = check( group );
+
+        // then
+        verify( report ).firstOutgoingRelationshipNotInUse( out );
+        verifyNoMoreInteractions( report );
+    }
+}
@@ -24,6 +24,7 @@ import org.junit.Test;
 import org.neo4j.consistency.report.ConsistencyReport;
 import org.neo4j.kernel.impl.nioneo.store.NodeRecord;
 import org.neo4j.kernel.impl.nioneo.store.PropertyRecord;
+import org.neo4j.kernel.impl.nioneo.store.RelationshipGroupRecord;
 import org.neo4j.kernel.impl.nioneo.store.RelationshipRecord;
 import org.neo4j.kernel.impl.nioneo.store.RelationshipTypeTokenRecord;
 
@@ -286,6 +287,62 @@ public class RelationshipRecordCheckTest extends
         verifyNoMoreInteractions( report );
     }
 
+    @Test
+    public void shouldNotReportAnythingForFirstRelationshipInGroupChainsOfDenseNodes() throws Exception
+    {
+        // given
+        RelationshipRecord relationship = inUse( new RelationshipRecord( 42, 1, 2, 4 ) );
+        add( inUse( new RelationshipTypeTokenRecord( 4 ) ) );
+        add( dense( inUse( new NodeRecord( 1, 10, NONE ) ) ) );
+        add( dense( inUse( new NodeRecord( 2, 12, NONE ) ) ) );
+        add( inUse( new RelationshipGroupRecord( 10, 3, 11, 7, NONE, NONE, 1 ) ) );
+        add( inUse( new RelationshipGroupRecord( 11, 4, NONE, 42, NONE, NONE, 1 ) ) );
+        add( inUse( new RelationshipGroupRecord( 12, 4, NONE, NONE, 42, NONE, 2 ) ) );
+
+        // when
+        ConsistencyReport.RelationshipConsistencyReport report = check( relationship );
+
+        // then
+        verifyNoMoreInteractions( report );
+    }
+
+    @Test
+    public void shouldReportDenseSourceNodeNotReferencingBackFromGroupOfTheRelationshipType() throws Exception
+    {
+        // given
+        RelationshipRecord relationship = inUse( new RelationshipRecord( 42, 1, 2, 4 ) );
+        add( inUse( new RelationshipTypeTokenRecord( 4 ) ) );
+        NodeRecord source = add( dense( inUse( new NodeRecord( 1, 10, NONE ) ) ) );
+        add( inUse( new NodeRecord( 2, 42, NONE ) ) );
+        add( inUse( new RelationshipGroupRecord( 10, 3, 11, 42, NONE, NONE, 1 ) ) );
+        add( inUse( new RelationshipGroupRecord( 11, 4, NONE, 7, 42, NONE, 1 ) ) );
+
+        // when
+        ConsistencyReport.RelationshipConsistencyReport report = check( relationship );
+
+        // then
+        verify( report ).sourceNodeDoesNotReferenceBack( source );
+        verifyNoMoreInteractions( report );
+    }
+
+    @Test
+    public void shouldReportDenseTargetNodeWithoutGroupOfTheRelationshipType() throws Exception
+    {
+        // given
+        RelationshipRecord relationship = inUse( new RelationshipRecord( 42, 1, 2, 4 ) );
+        add( inUse( new RelationshipTypeTokenRecord( 4 ) ) );
+        add( inUse( new NodeRecord( 1, 42, NONE ) ) );
+        NodeRecord target = add( dense( inUse( new NodeRecord( 2, 12, NONE ) ) ) );
+        add( inUse( new RelationshipGroupRecord( 12, 5, NONE, NONE, 42, NONE, 2 ) ) );
+
+        // when
+        ConsistencyReport.RelationshipConsistencyReport report = check( relationship );
+
+        // then
+        verify( report ).targetNodeDoesNotReferenceBack( target );
+        verifyNoMoreInteractions( report );
+    }
+
     @Test
     public void shouldReportSourceNodeWithoutChainForRelationshipInTheMiddleOfChain() throws Exception
     {
@@ -0,0 +1,116 @@
+/**
+ * Copyright (c) 2002-2013 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.consistency.checking.full;
+
+import java.io.StringWriter;
+import java.util.Map;
+
+import org.junit.Rule;
+import org.junit.Test;
+
+import org.neo4j.consistency.RecordType;
+import org.neo4j.consistency.checking.GraphStoreFixture;
+import org.neo4j.consistency.report.ConsistencySummaryStatistics;
+import org.neo4j.graphdb.GraphDatabaseService;
+import org.neo4j.graphdb.Node;
+import org.neo4j.graphdb.factory.GraphDatabaseSettings;
+import org.neo4j.helpers.progress.ProgressMonitorFactory;
+import org.neo4j.kernel.impl.nioneo.store.RecordStore;
+import org.neo4j.kernel.impl.nioneo.store.RelationshipGroupRecord;
+import org.neo4j.kernel.impl.util.StringLogger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import static org.neo4j.consistency.checking.full.ExecutionOrderIntegrationTest.config;
+import static org.neo4j.graphdb.DynamicRelationshipType.withName;
+
+/**
+ * Checks stores where nodes have enough relationships to keep them in relationship groups, one chain per type and
+ * direction, rather than in a single chain.
+ */
+public class DenseNodeFullCheckIntegrationTest
+{
+    @Rule
+    public final GraphStoreFixture fixture = new GraphStoreFixture()
+    {
+        @Override
+        protected Map<String, String> configuration( boolean initialData )
+        {
+            Map<String, String> configuration = super.configuration( initialData );
+            configuration.put( GraphDatabaseSettings.dense_node_threshold.name(), "5" );
+            return configuration;
+        }
+
+        @Override
+        protected void generateInitialData( GraphDatabaseService graphDb )
+        {
+            try ( org.neo4j.graphdb.Transaction tx = graphDb.beginTx() )
+            {
+                Node dense = graphDb.createNode();
+                Node other = graphDb.createNode();
+                for ( int i = 0; i < 10; i++ )
+                {
+                    dense.createRelationshipTo( graphDb.createNode(), withName( "A" ) );
+                    graphDb.createNode().createRelationshipTo( dense, withName( "B" ) );
+                    dense.createRelationshipTo( other, withName( i % 2 == 0 ? "A" : "C" ) );
+                }
+                dense.createRelationshipTo( dense, withName( "B" ) );
+                tx.success();
+            }
+        }
+    };
+    private final StringWriter log = new StringWriter();
+
+    @Test
+    public void shouldCheckConsistencyOfAStoreWithDenseNodes() throws Exception
+    {
+        // when
+        ConsistencySummaryStatistics stats = check( TaskExecutionOrder.MULTI_PASS );
+
+        // then
+        assertEquals( "Expected no inconsistencies, got:\n" + log, 0, stats.getTotalInconsistencyCount() );
+        assertEquals( 0, check( TaskExecutionOrder.SINGLE_THREADED ).getTotalInconsistencyCount() );
+    }
+
+    @Test
+    public void shouldReportRelationshipGroupOfAnotherNode() throws Exception
+    {
+        // given
+        RecordStore<RelationshipGroupRecord> groups =
+                fixture.directStoreAccess().nativeStores().getRelationshipGroupStore();
+        RelationshipGroupRecord group = groups.getRecord( 0 );
+        group.setOwningNode( group.getOwningNode() + 1 );
+        groups.updateRecord( group );
+
+        // when
+        ConsistencySummaryStatistics stats = check( TaskExecutionOrder.MULTI_PASS );
+
+        // then
+        assertTrue( stats.getInconsistencyCountForRecordType( RecordType.RELATIONSHIP_GROUP ) > 0 );
+        assertTrue( stats.getInconsistencyCountForRecordType( RecordType.NODE ) > 0 );
+    }
+
+    private ConsistencySummaryStatistics check( TaskExecutionOrder executionOrder ) throws Exception
+    {
+        FullCheck checker = new FullCheck( config( executionOrder ), ProgressMonitorFactory.NONE );
+        return checker.execute( fixture.directStoreAccess(), StringLogger.wrap( log ) );
+    }
+}
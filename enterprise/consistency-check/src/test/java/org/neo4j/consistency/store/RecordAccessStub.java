@@ -39,6 +39,7 @@ import org.neo4j.kernel.impl.nioneo.store.NodeRecord;
 import org.neo4j.kernel.impl.nioneo.store.PropertyKeyTokenRecord;
 import org.neo4j.kernel.impl.nioneo.store.PropertyRecord;
 import org.neo4j.kernel.impl.nioneo.store.PropertyType;
+import org.neo4j.kernel.impl.nioneo.store.RelationshipGroupRecord;
 import org.neo4j.kernel.impl.nioneo.store.RelationshipRecord;
 import org.neo4j.kernel.impl.nioneo.store.RelationshipTypeTokenRecord;
 
@@ -167,6 +168,7 @@ public class RecordAccessStub implements RecordAccess, DiffRecordAccess
     private final Map<Long, Delta<DynamicRecord>> schemata = new HashMap<>();
     private final Map<Long, Delta<NodeRecord>> nodes = new HashMap<>();
     private final Map<Long, Delta<RelationshipRecord>> relationships = new HashMap<>();
+    private final Map<Long, Delta<RelationshipGroupRecord>> relationshipGroups = new HashMap<>();
     private final Map<Long, Delta<PropertyRecord>> properties = new HashMap<>();
     private final Map<Long, Delta<DynamicRecord>> strings = new HashMap<>();
     private final Map<Long, Delta<DynamicRecord>> arrays = new HashMap<>();
@@ -282,6 +284,10 @@ public class RecordAccessStub implements RecordAccess, DiffRecordAccess
         {
             add( relationships, (RelationshipRecord) oldRecord, (RelationshipRecord) newRecord );
         }
+        else if ( newRecord instanceof RelationshipGroupRecord )
+        {
+            add( relationshipGroups, (RelationshipGroupRecord) oldRecord, (RelationshipGroupRecord) newRecord );
+        }
         else if ( newRecord instanceof PropertyRecord )
         {
             add( properties, (PropertyRecord) oldRecord, (PropertyRecord) newRecord );
@@ -335,6 +341,10 @@ public class RecordAccessStub implements RecordAccess, DiffRecordAccess
         {
             add( relationships, (RelationshipRecord) record );
         }
+        else if ( record instanceof RelationshipGroupRecord )
+        {
+            add( relationshipGroups, (RelationshipGroupRecord) record );
+        }
         else if ( record instanceof PropertyRecord )
         {
             add( properties, (PropertyRecord) record );
@@ -421,6 +431,12 @@ public class RecordAccessStub implements RecordAccess, DiffRecordAccess
         return reference( relationships, id, Version.LATEST );
     }
 
+    @Override
+    public RecordReference<RelationshipGroupRecord> relationshipGroup( long id )
+    {
+        return reference( relationshipGroups, id, Version.LATEST );
+    }
+
     @Override
     public RecordReference<PropertyRecord> property( long id )
     {
@@ -196,6 +196,30 @@ public class LockableNode implements Node
         throw lockableNodeException();
     }
 
+    @Override
+    public int getDegree()
+    {
+        throw lockableNodeException();
+    }
+
+    @Override
+    public int getDegree( RelationshipType type )
+    {
+        throw lockableNodeException();
+    }
+
+    @Override
+    public int getDegree( Direction direction )
+    {
+        throw lockableNodeException();
+    }
+
+    @Override
+    public int getDegree( RelationshipType type, Direction direction )
+    {
+        throw lockableNodeException();
+    }
+
     @Override
     public Traverser traverse( Order traversalOrder,
             StopEvaluator stopEvaluator,